@@ -28,4 +28,14 @@ public interface SecurityClassificationService {
    * @return non-null value
    */
   Comparator<String> getSecurityClassificationComparator();
+
+  /**
+   * Get the rank of a security classification string. A higher rank is a higher security, and two
+   * classification strings compare equal with the comparator when they have the same rank.
+   *
+   * @param classification non-null classification string
+   * @return the rank of the classification, or {@link Integer#MAX_VALUE} if the classification is
+   *     not known
+   */
+  int rank(String classification);
 }
@@ -17,7 +17,7 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import javax.xml.ws.Holder;
+import java.util.concurrent.ConcurrentHashMap;
 import org.codice.alliance.catalog.core.internal.api.classification.SecurityClassificationService;
 
 /**
@@ -30,15 +30,47 @@ import org.codice.alliance.catalog.core.internal.api.classification.SecurityClas
  */
 public class SecurityClassificationServiceImpl implements SecurityClassificationService {
 
-  private volatile SecurityClassificationComparator comparator;
+  /**
+   * The maximum number of raw classification strings remembered by each sort order. Streams and
+   * documents use only a handful of distinct strings, this only bounds the memory used if a caller
+   * passes arbitrary text.
+   */
+  static final int MAX_MEMO_SIZE = 1024;
+
+  private volatile SortOrder sortOrder = new SortOrder(new HashMap<>());
 
-  private static String normalize(String s) {
-    return s.replaceAll("\\s", "").toLowerCase();
+  /**
+   * Remove all whitespace and convert to lower case. Matches {@code s.replaceAll("\\s",
+   * "").toLowerCase()} without compiling a pattern.
+   */
+  static String normalize(String s) {
+    StringBuilder builder = null;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (isWhitespace(c)) {
+        if (builder == null) {
+          builder = new StringBuilder(s.length()).append(s, 0, i);
+        }
+      } else if (builder != null) {
+        builder.append(c);
+      }
+    }
+    return (builder == null ? s : builder.toString()).toLowerCase();
+  }
+
+  /** The characters matched by the {@code \s} regular expression class. */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
   }
 
   @Override
   public Comparator<String> getSecurityClassificationComparator() {
-    return comparator;
+    return sortOrder.comparator;
+  }
+
+  @Override
+  public int rank(String classification) {
+    return sortOrder.rank(classification);
   }
 
   /**
@@ -49,38 +81,46 @@ public class SecurityClassificationServiceImpl implements SecurityClassification
   public void setSortOrder(List<String> rawSortOrder) {
     Map<String, Integer> newSecurityClassificationSortOrder = new HashMap<>();
 
-    Holder<Integer> i = new Holder<>(0);
-    rawSortOrder.forEach(
-        classification -> {
-          newSecurityClassificationSortOrder.put(normalize(classification), i.value);
-          i.value++;
-        });
+    int i = 0;
+    for (String classification : rawSortOrder) {
+      newSecurityClassificationSortOrder.put(normalize(classification), i);
+      i++;
+    }
 
-    comparator = new SecurityClassificationComparator(newSecurityClassificationSortOrder);
+    sortOrder = new SortOrder(newSecurityClassificationSortOrder);
   }
 
-  private static class SecurityClassificationComparator implements Comparator<String> {
+  /**
+   * The ranks of the normalized classification strings, and a memo of the ranks of the raw strings
+   * that have been looked up, so that a comparison does not normalize its arguments again. A new
+   * instance is created whenever the sort order is changed, which discards the memo of the old sort
+   * order.
+   */
+  private static class SortOrder {
 
     private final Map<String, Integer> securityClassificationSortOrder;
 
-    private SecurityClassificationComparator(Map<String, Integer> securityClassificationSortOrder) {
-      this.securityClassificationSortOrder = securityClassificationSortOrder;
-    }
+    private final Map<String, Integer> memo = new ConcurrentHashMap<>();
 
-    @Override
-    public int compare(String classification1, String classification2) {
-      Integer sortOrder1 = securityClassificationSortOrder.get(normalize(classification1));
-      Integer sortOrder2 = securityClassificationSortOrder.get(normalize(classification2));
+    private final Comparator<String> comparator =
+        (classification1, classification2) ->
+            Integer.compare(rank(classification1), rank(classification2));
 
-      if (sortOrder1 == null) {
-        sortOrder1 = Integer.MAX_VALUE;
-      }
+    private SortOrder(Map<String, Integer> securityClassificationSortOrder) {
+      this.securityClassificationSortOrder = securityClassificationSortOrder;
+    }
 
-      if (sortOrder2 == null) {
-        sortOrder2 = Integer.MAX_VALUE;
+    private int rank(String classification) {
+      Integer rank = memo.get(classification);
+      if (rank == null) {
+        rank =
+            securityClassificationSortOrder.getOrDefault(
+                normalize(classification), Integer.MAX_VALUE);
+        if (memo.size() < MAX_MEMO_SIZE) {
+          memo.put(classification, rank);
+        }
       }
-
-      return sortOrder1.compareTo(sortOrder2);
+      return rank;
     }
   }
 }
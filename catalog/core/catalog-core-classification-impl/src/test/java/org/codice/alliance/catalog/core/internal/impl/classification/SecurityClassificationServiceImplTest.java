@@ -16,9 +16,12 @@ package org.codice.alliance.catalog.core.internal.impl.classification;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 public class SecurityClassificationServiceImplTest {
@@ -49,4 +52,93 @@ public class SecurityClassificationServiceImplTest {
     Collections.sort(in, service.getSecurityClassificationComparator());
     assertThat(in, is(Arrays.asList("c", "c", "c", "b", "b", "b", "a", "a", "a")));
   }
+
+  @Test
+  public void testRank() {
+    SecurityClassificationServiceImpl service = new SecurityClassificationServiceImpl();
+    service.setSortOrder(Arrays.asList("u", "c", "s", "top secret"));
+    assertThat(service.rank("U"), is(0));
+    assertThat(service.rank(" S "), is(2));
+    assertThat(service.rank("Top\tSecret"), is(3));
+    assertThat(service.rank("Top\tSecret"), is(3));
+    assertThat(service.rank("unknown"), is(Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void testRankWithoutSortOrder() {
+    SecurityClassificationServiceImpl service = new SecurityClassificationServiceImpl();
+    assertThat(service.rank("u"), is(Integer.MAX_VALUE));
+    assertThat(service.getSecurityClassificationComparator().compare("u", "s"), is(0));
+  }
+
+  @Test
+  public void testSetSortOrderReplacesRanks() {
+    SecurityClassificationServiceImpl service = new SecurityClassificationServiceImpl();
+    service.setSortOrder(Arrays.asList("a", "b"));
+    assertThat(service.rank("b"), is(1));
+    service.setSortOrder(Arrays.asList("b", "a"));
+    assertThat(service.rank("b"), is(0));
+  }
+
+  @Test
+  public void testNormalizeMatchesRegularExpression() {
+    for (String s :
+        Arrays.asList(
+            "", " ", "secret", "Top Secret", " \t\n\u000B\f\rTS ", "a\u00A0b", "A B  C")) {
+      assertThat(
+          SecurityClassificationServiceImpl.normalize(s),
+          is(s.replaceAll("\\s", "").toLowerCase()));
+    }
+  }
+
+  @Test
+  public void testMemoIsBounded() {
+    SecurityClassificationServiceImpl service = new SecurityClassificationServiceImpl();
+    service.setSortOrder(Arrays.asList("a", "b"));
+    for (int i = 0; i < SecurityClassificationServiceImpl.MAX_MEMO_SIZE * 2; i++) {
+      assertThat(service.rank("x" + i), is(Integer.MAX_VALUE));
+    }
+    assertThat(service.rank(" B"), is(1));
+  }
+
+  /**
+   * Sorts the same list of classification strings with the service comparator and with a
+   * comparator that normalizes both arguments with a regular expression on every comparison.
+   */
+  @Test
+  public void testComparatorMatchesNormalizingEachComparison() {
+    List<String> sortOrder =
+        Arrays.asList("u", "unclassified", "c", "confidential", "s", "secret", "ts", "top secret");
+    SecurityClassificationServiceImpl service = new SecurityClassificationServiceImpl();
+    service.setSortOrder(sortOrder);
+
+    List<String> normalizedSortOrder = new ArrayList<>();
+    for (String classification : sortOrder) {
+      normalizedSortOrder.add(classification.replaceAll("\\s", "").toLowerCase());
+    }
+
+    Comparator<String> regexComparator =
+        Comparator.comparingInt(
+            s -> {
+              int rank = normalizedSortOrder.indexOf(s.replaceAll("\\s", "").toLowerCase());
+              return rank < 0 ? Integer.MAX_VALUE : rank;
+            });
+
+    Random random = new Random(0);
+    List<String> values =
+        Arrays.asList(
+            "U", "UNCLASSIFIED", "S", " Secret", "SECRET", "TS", "TOP SECRET", "Top\tSecret", "X");
+    List<String> in = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      in.add(values.get(random.nextInt(values.size())));
+    }
+
+    List<String> expected = new ArrayList<>(in);
+    expected.sort(regexComparator);
+
+    List<String> actual = new ArrayList<>(in);
+    actual.sort(service.getSecurityClassificationComparator());
+
+    assertThat(actual, is(expected));
+  }
 }
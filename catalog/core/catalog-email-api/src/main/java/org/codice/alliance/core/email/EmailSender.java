@@ -16,6 +16,7 @@ package org.codice.alliance.core.email;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
@@ -51,4 +52,26 @@ public interface EmailSender {
    * @throws IOException exception thrown if failed to send email
    */
   void sendEmail(String fromEmail, String toEmail, String subject, String body) throws IOException;
+
+  /**
+   * Queue an email for delivery. The attachments are read before this method returns, so the caller
+   * may close the input streams as soon as it returns.
+   *
+   * @param fromEmail non-null from email address
+   * @param toEmail non-null to email address
+   * @param subject non-null subject line of email to be sent
+   * @param body non-null body of email to be sent
+   * @param attachments non-null list of filename/input stream pairs, the caller is responsible for
+   *     closing the input streams
+   * @return a future that is completed when the email has been delivered, or completed
+   *     exceptionally with an {@link IOException} if it could not be delivered
+   * @throws IOException exception thrown if the email could not be created or queued
+   */
+  CompletableFuture<Void> sendEmailAsync(
+      String fromEmail,
+      String toEmail,
+      String subject,
+      String body,
+      List<Pair<String, InputStream>> attachments)
+      throws IOException;
 }
@@ -13,23 +13,37 @@
  */
 package org.codice.alliance.core.email.impl;
 
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
 import static org.apache.commons.lang3.Validate.notNull;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import com.sun.mail.smtp.SMTPSendFailedException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import javax.activation.DataHandler;
-import javax.activation.FileDataSource;
+import javax.mail.AuthenticationFailedException;
 import javax.mail.BodyPart;
 import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.Multipart;
+import javax.mail.SendFailedException;
 import javax.mail.Session;
 import javax.mail.Transport;
 import javax.mail.internet.AddressException;
@@ -37,18 +51,33 @@ import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
-import javax.xml.ws.Holder;
+import javax.mail.util.ByteArrayDataSource;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.tuple.Pair;
 import org.codice.alliance.core.email.EmailSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * <b> This code is experimental. While this interface is functional and tested, it may change or be
- * removed in a future version of the library. </b>
+ * Sends email through a pool of SMTP connections that are kept open between messages. Emails are
+ * queued and delivered by a fixed number of threads, one per connection. Each thread takes the
+ * queued emails in batches and sends a batch over one connection. A delivery that fails with a
+ * transient error is retried with an exponential backoff. The attachments are read into memory when
+ * an email is queued, so the caller may close its streams as soon as the email has been queued. The
+ * queue is bounded by the number of emails and by the total size of their attachments.
+ *
+ * <p><b> This code is experimental. While this interface is functional and tested, it may change or
+ * be removed in a future version of the library. </b>
  */
-public class EmailSenderImpl implements EmailSender {
+public class EmailSenderImpl implements EmailSender, EmailSenderImplMBean {
 
   private static final int BUFFER_SIZE = 4096;
 
@@ -58,6 +87,26 @@ public class EmailSenderImpl implements EmailSender {
 
   private static final long DEFAULT_MAX_ATTACHMENT_SIZE = Long.MAX_VALUE;
 
+  private static final long DEFAULT_MAX_QUEUED_ATTACHMENT_SIZE = 512 * MEGABYTE;
+
+  private static final int DEFAULT_QUEUE_SIZE = 100;
+
+  private static final int DEFAULT_MAX_BATCH_SIZE = 10;
+
+  private static final int MAX_BATCH_SIZE = 100;
+
+  private static final int DEFAULT_CONNECTION_POOL_SIZE = 2;
+
+  private static final int MAX_CONNECTION_POOL_SIZE = 64;
+
+  private static final int DEFAULT_MAX_RETRIES = 3;
+
+  private static final int MAX_RETRIES = 10;
+
+  private static final long DEFAULT_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
   private static final String SMTP_HOST_PROPERTY = "mail.smtp.host";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EmailSenderImpl.class);
@@ -66,18 +115,148 @@ public class EmailSenderImpl implements EmailSender {
 
   private static final String SMTP_AUTH_PROPERTY = "mail.smtp.auth";
 
-  private int mailPort = DEFAULT_PORT;
+  private static final String SMTP_CONNECTION_TIMEOUT_PROPERTY = "mail.smtp.connectiontimeout";
+
+  private static final String SMTP_TIMEOUT_PROPERTY = "mail.smtp.timeout";
+
+  private static final String SMTP_TIMEOUT_MILLIS = Long.toString(TimeUnit.SECONDS.toMillis(30));
+
+  private static final String ATTACHMENT_CONTENT_TYPE = "application/octet-stream";
+
+  private volatile int mailPort = DEFAULT_PORT;
+
+  private volatile String mailHost;
+
+  private volatile String mailUsername;
+
+  private volatile String mailPassword;
+
+  private volatile long maxAttachmentSize = DEFAULT_MAX_ATTACHMENT_SIZE;
+
+  private volatile long maxQueuedAttachmentSize = DEFAULT_MAX_QUEUED_ATTACHMENT_SIZE;
+
+  private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+  private volatile int maxRetries = DEFAULT_MAX_RETRIES;
+
+  private volatile long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+
+  private final BlockingQueue<Delivery> pendingDeliveries;
+
+  private final AtomicLong queuedAttachmentBytes = new AtomicLong();
+
+  /** Runs the threads that deliver the pending emails, one task is queued for each email. */
+  private final ThreadPoolExecutor deliveryExecutor;
+
+  private final ScheduledExecutorService retryExecutor;
 
-  private String mailHost;
+  private Session session;
 
-  private long maxAttachmentSize = DEFAULT_MAX_ATTACHMENT_SIZE;
+  private SmtpConnectionPool connectionPool;
+
+  private final LongAdder sentCount = new LongAdder();
+
+  private final LongAdder failedCount = new LongAdder();
+
+  private final LongAdder retryCount = new LongAdder();
+
+  private final LongAdder batchCount = new LongAdder();
+
+  private final LongAdder closedPoolConnectCount = new LongAdder();
+
+  private final LongAdder totalLatencyMillis = new LongAdder();
+
+  private final LongAccumulator maxLatencyMillis = new LongAccumulator(Math::max, 0);
+
+  private final long startNanos = System.nanoTime();
+
+  private ObjectName objectName;
+
+  private MBeanServer mBeanServer;
+
+  public EmailSenderImpl() {
+    this(DEFAULT_QUEUE_SIZE);
+  }
+
+  /** @param queueSize the maximum number of emails waiting to be delivered, must be positive */
+  public EmailSenderImpl(int queueSize) {
+    inclusiveBetween(1, Integer.MAX_VALUE, queueSize, "queueSize must be positive");
+    pendingDeliveries = new ArrayBlockingQueue<>(queueSize);
+    deliveryExecutor =
+        new ThreadPoolExecutor(
+            DEFAULT_CONNECTION_POOL_SIZE,
+            DEFAULT_CONNECTION_POOL_SIZE,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            new BasicThreadFactory.Builder()
+                .namingPattern("email-sender-%d")
+                .daemon(true)
+                .build());
+    retryExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder()
+                .namingPattern("email-sender-retry-%d")
+                .daemon(true)
+                .build());
+  }
+
+  public void init() {
+    registerMbean();
+  }
+
+  /**
+   * Stop accepting emails, wait a short time for the queued emails to be delivered, and close the
+   * connections to the mail server. Emails that are still queued are failed, and emails that are
+   * waiting to be retried are not delivered.
+   */
+  public void destroy() {
+    try {
+      if (objectName != null && mBeanServer != null) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      LOGGER.info("Exception unregistering MBean: ", e);
+    }
+
+    retryExecutor.shutdownNow();
+    deliveryExecutor.shutdown();
+    try {
+      if (!deliveryExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        LOGGER.debug(
+            "Emails were still being delivered on shutdown: queued={}", getQueuedCount());
+        deliveryExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    Delivery delivery;
+    while ((delivery = pendingDeliveries.poll()) != null) {
+      delivery.fail(new IOException("the email sender has been shut down"));
+    }
+    resetConnections();
+  }
 
   public void setMailPort(int mailPort) {
     this.mailPort = mailPort;
+    resetConnections();
   }
 
   public void setMailHost(String mailHost) {
     this.mailHost = mailHost;
+    resetConnections();
+  }
+
+  /** @param mailUsername the user to authenticate as, blank if authentication is not required */
+  public void setMailUsername(String mailUsername) {
+    this.mailUsername = mailUsername;
+    resetConnections();
+  }
+
+  public void setMailPassword(String mailPassword) {
+    this.mailPassword = mailPassword;
+    resetConnections();
   }
 
   /** @param maxAttachmentSize unit is 1024*1024 bytes */
@@ -85,7 +264,64 @@ public class EmailSenderImpl implements EmailSender {
     this.maxAttachmentSize = maxAttachmentSize * MEGABYTE;
   }
 
-  /** sendEmail method sends email after receiving input parameters */
+  /**
+   * @param maxQueuedAttachmentSize the total size of the attachments of the emails waiting to be
+   *     delivered, unit is 1024*1024 bytes
+   */
+  public void setMaxQueuedAttachmentSize(long maxQueuedAttachmentSize) {
+    inclusiveBetween(
+        1,
+        Long.MAX_VALUE / MEGABYTE,
+        maxQueuedAttachmentSize,
+        "maxQueuedAttachmentSize must be positive");
+    this.maxQueuedAttachmentSize = maxQueuedAttachmentSize * MEGABYTE;
+  }
+
+  /** @param maxBatchSize the number of emails sent over a connection at a time, 1 to 100 */
+  public void setMaxBatchSize(int maxBatchSize) {
+    inclusiveBetween(
+        1, MAX_BATCH_SIZE, maxBatchSize, "maxBatchSize must be between 1 and " + MAX_BATCH_SIZE);
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /** @param connectionPoolSize the number of connections to the mail server, 1 to 64 */
+  public void setConnectionPoolSize(int connectionPoolSize) {
+    inclusiveBetween(
+        1,
+        MAX_CONNECTION_POOL_SIZE,
+        connectionPoolSize,
+        "connectionPoolSize must be between 1 and " + MAX_CONNECTION_POOL_SIZE);
+    synchronized (deliveryExecutor) {
+      if (connectionPoolSize > deliveryExecutor.getMaximumPoolSize()) {
+        deliveryExecutor.setMaximumPoolSize(connectionPoolSize);
+        deliveryExecutor.setCorePoolSize(connectionPoolSize);
+      } else {
+        deliveryExecutor.setCorePoolSize(connectionPoolSize);
+        deliveryExecutor.setMaximumPoolSize(connectionPoolSize);
+      }
+    }
+    resetConnections();
+  }
+
+  /** @param maxRetries the number of times a failed delivery is retried, 0 to 10 */
+  public void setMaxRetries(int maxRetries) {
+    inclusiveBetween(0, MAX_RETRIES, maxRetries, "maxRetries must be between 0 and " + MAX_RETRIES);
+    this.maxRetries = maxRetries;
+  }
+
+  /**
+   * @param retryDelayMillis the delay before the first retry of a failed delivery, which is doubled
+   *     for each further retry
+   */
+  public void setRetryDelayMillis(long retryDelayMillis) {
+    inclusiveBetween(0, Long.MAX_VALUE, retryDelayMillis, "retryDelayMillis must not be negative");
+    this.retryDelayMillis = retryDelayMillis;
+  }
+
+  /**
+   * sendEmail method sends email after receiving input parameters, and waits until the email has
+   * been delivered
+   */
   @Override
   public void sendEmail(
       String fromEmail,
@@ -94,6 +330,35 @@ public class EmailSenderImpl implements EmailSender {
       String body,
       List<Pair<String, InputStream>> attachments)
       throws IOException {
+    CompletableFuture<Void> delivery =
+        sendEmailAsync(fromEmail, toEmail, subject, body, attachments);
+    try {
+      delivery.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("interrupted while waiting for the email to be sent", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("message error occurred on send", e.getCause());
+    }
+  }
+
+  @Override
+  public void sendEmail(String fromEmail, String toEmail, String subject, String body)
+      throws IOException {
+    sendEmail(fromEmail, toEmail, subject, body, Collections.emptyList());
+  }
+
+  @Override
+  public CompletableFuture<Void> sendEmailAsync(
+      String fromEmail,
+      String toEmail,
+      String subject,
+      String body,
+      List<Pair<String, InputStream>> attachments)
+      throws IOException {
     notNull(fromEmail, "fromEmail must be non-null");
     notNull(toEmail, "toEmail must be non-null");
     notNull(subject, "subject must be non-null");
@@ -104,17 +369,85 @@ public class EmailSenderImpl implements EmailSender {
       throw new IOException("the mail server hostname has not been configured");
     }
 
-    List<File> tempFiles = new LinkedList<>();
+    Delivery delivery = createDelivery(fromEmail, toEmail, subject, body, attachments);
+    try {
+      enqueue(delivery);
+    } catch (IOException e) {
+      releaseAttachmentBytes(delivery.attachmentBytes);
+      throw e;
+    }
+    return delivery.future;
+  }
+
+  @Override
+  public long getSentCount() {
+    return sentCount.sum();
+  }
+
+  @Override
+  public long getFailedCount() {
+    return failedCount.sum();
+  }
+
+  @Override
+  public long getRetryCount() {
+    return retryCount.sum();
+  }
+
+  @Override
+  public int getQueuedCount() {
+    return pendingDeliveries.size();
+  }
+
+  @Override
+  public long getQueuedAttachmentBytes() {
+    return queuedAttachmentBytes.get();
+  }
 
+  @Override
+  public long getBatchCount() {
+    return batchCount.sum();
+  }
+
+  @Override
+  public synchronized long getConnectCount() {
+    long count = closedPoolConnectCount.sum();
+    if (connectionPool != null) {
+      count += connectionPool.getConnectCount();
+    }
+    return count;
+  }
+
+  @Override
+  public double getMessagesPerSecond() {
+    double seconds = (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    return seconds > 0 ? getSentCount() / seconds : 0;
+  }
+
+  @Override
+  public double getAverageLatencyMillis() {
+    long sent = getSentCount();
+    return sent == 0 ? 0 : totalLatencyMillis.sum() / (double) sent;
+  }
+
+  @Override
+  public long getMaxLatencyMillis() {
+    return maxLatencyMillis.get();
+  }
+
+  private Delivery createDelivery(
+      String fromEmail,
+      String toEmail,
+      String subject,
+      String body,
+      List<Pair<String, InputStream>> attachments)
+      throws IOException {
+    long bytesRead = 0;
     try {
       InternetAddress emailAddr = new InternetAddress(toEmail);
       emailAddr.validate();
 
-      Properties properties = createSessionProperties();
-
-      Session session = Session.getDefaultInstance(properties);
-
-      MimeMessage mimeMessage = new MimeMessage(session);
+      MimeMessage mimeMessage = new MimeMessage(getSession());
       mimeMessage.setFrom(new InternetAddress(fromEmail));
       mimeMessage.addRecipient(Message.RecipientType.TO, emailAddr);
       mimeMessage.setSubject(subject);
@@ -125,76 +458,197 @@ public class EmailSenderImpl implements EmailSender {
       Multipart multipart = new MimeMultipart();
       multipart.addBodyPart(messageBodyPart);
 
-      Holder<Long> bytesWritten = new Holder<>(0L);
-
       for (Pair<String, InputStream> attachment : attachments) {
+        byte[] data = readAttachment(attachment.getValue(), bytesRead);
+        bytesRead += data.length;
 
         messageBodyPart = new MimeBodyPart();
-        File file = File.createTempFile("email-sender-", ".dat");
-        tempFiles.add(file);
-
-        copyDataToTempFile(file, attachment.getValue(), bytesWritten);
-        messageBodyPart.setDataHandler(new DataHandler(new FileDataSource(file)));
+        messageBodyPart.setDataHandler(
+            new DataHandler(new ByteArrayDataSource(data, ATTACHMENT_CONTENT_TYPE)));
         messageBodyPart.setFileName(attachment.getKey());
         multipart.addBodyPart(messageBodyPart);
       }
 
       mimeMessage.setContent(multipart);
-
-      send(mimeMessage);
-
-      LOGGER.debug("Email sent to " + toEmail);
-
+      return new Delivery(mimeMessage, toEmail, bytesRead);
     } catch (AddressException e) {
+      releaseAttachmentBytes(bytesRead);
       throw new IOException("invalid email address: email=" + toEmail, e);
     } catch (MessagingException e) {
+      releaseAttachmentBytes(bytesRead);
       throw new IOException("message error occurred on send", e);
-    } finally {
-      tempFiles.forEach(
-          file -> {
-            if (!file.delete()) {
-              LOGGER.debug("unable to delete tmp file: path={}", file);
-            }
-          });
+    } catch (IOException e) {
+      releaseAttachmentBytes(bytesRead);
+      throw e;
     }
   }
 
-  @Override
-  public void sendEmail(String fromEmail, String toEmail, String subject, String body)
-      throws IOException {
-    sendEmail(fromEmail, toEmail, subject, body, Collections.emptyList());
-  }
-
-  private void copyDataToTempFile(File file, InputStream inputStream, Holder<Long> bytesWritten)
-      throws IOException {
-
-    try (OutputStream outputStream = new FileOutputStream(file)) {
-
-      byte[] buffer = new byte[BUFFER_SIZE];
+  /**
+   * Read an attachment and reserve its size in the queue, the reservation is released if the
+   * attachment cannot be read.
+   *
+   * @param bytesRead the size of the attachments already read for the email
+   * @return the content of the attachment
+   */
+  private byte[] readAttachment(InputStream inputStream, long bytesRead) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(BUFFER_SIZE);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long total = bytesRead;
 
+    try {
       int c;
       while ((c = inputStream.read(buffer)) != -1) {
-        outputStream.write(buffer, 0, c);
-        bytesWritten.value = bytesWritten.value + c;
-        if (bytesWritten.value > maxAttachmentSize) {
+        total += c;
+        if (total > maxAttachmentSize) {
           throw new IOException("total attachment size exceeds limit: limit=" + maxAttachmentSize);
         }
+        reserveAttachmentBytes(c);
+        outputStream.write(buffer, 0, c);
       }
+    } catch (IOException e) {
+      releaseAttachmentBytes(outputStream.size());
+      throw e;
     }
+    return outputStream.toByteArray();
   }
 
-  void send(Message message) throws MessagingException {
-    Transport.send(message);
+  private void reserveAttachmentBytes(long count) throws IOException {
+    long queued = queuedAttachmentBytes.addAndGet(count);
+    if (queued > maxQueuedAttachmentSize) {
+      queuedAttachmentBytes.addAndGet(-count);
+      throw new IOException(
+          "the email delivery queue is full: queuedAttachmentBytes="
+              + (queued - count)
+              + ", limit="
+              + maxQueuedAttachmentSize);
+    }
+  }
+
+  private void releaseAttachmentBytes(long count) {
+    queuedAttachmentBytes.addAndGet(-count);
+  }
+
+  private void enqueue(Delivery delivery) throws IOException {
+    if (!pendingDeliveries.offer(delivery)) {
+      throw new IOException("the email delivery queue is full: queued=" + getQueuedCount());
+    }
+    try {
+      deliveryExecutor.execute(this::deliverPending);
+    } catch (RejectedExecutionException e) {
+      // A full executor queue holds tasks that will deliver this email, unless it was shut down.
+      if (deliveryExecutor.isShutdown() && pendingDeliveries.remove(delivery)) {
+        throw new IOException("the email sender has been shut down", e);
+      }
+    }
+  }
+
+  /** Deliver the pending emails in batches, sending each batch over one connection. */
+  private void deliverPending() {
+    List<Delivery> batch = new ArrayList<>();
+    while (pendingDeliveries.drainTo(batch, maxBatchSize) > 0) {
+      batchCount.increment();
+      try (SmtpConnectionPool.Lease lease = getConnectionPool().lease()) {
+        batch.forEach(delivery -> delivery.deliver(lease));
+      }
+      batch.clear();
+    }
+  }
+
+  void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
+    Transport transport = lease.get();
+    boolean sent = false;
+    try {
+      message.saveChanges();
+      transport.sendMessage(message, message.getAllRecipients());
+      sent = true;
+    } finally {
+      if (!sent) {
+        lease.invalidate();
+      }
+    }
+  }
+
+  /**
+   * A 4xx reply from the mail server and an I/O error are transient, while a rejected address or
+   * message and a failed login are not.
+   */
+  private static boolean isRetryable(Exception e) {
+    if (e instanceof SMTPSendFailedException) {
+      return ((SMTPSendFailedException) e).getReturnCode() / 100 == 4;
+    }
+    return e instanceof MessagingException
+        && !(e instanceof SendFailedException)
+        && !(e instanceof AuthenticationFailedException);
+  }
+
+  private synchronized Session getSession() {
+    if (session == null) {
+      session = Session.getInstance(createSessionProperties());
+    }
+    return session;
+  }
+
+  private synchronized SmtpConnectionPool getConnectionPool() {
+    if (connectionPool == null) {
+      connectionPool =
+          new SmtpConnectionPool(
+              getSession(),
+              mailHost,
+              mailPort,
+              StringUtils.defaultIfBlank(mailUsername, null),
+              StringUtils.defaultIfBlank(mailPassword, null));
+    }
+    return connectionPool;
+  }
+
+  /** Close the connections so that the next email connects with the current configuration. */
+  private synchronized void resetConnections() {
+    session = null;
+    if (connectionPool != null) {
+      closedPoolConnectCount.add(connectionPool.getConnectCount());
+      connectionPool.close();
+      connectionPool = null;
+    }
   }
 
   private Properties createSessionProperties() {
-    Properties properties = System.getProperties();
-    properties.setProperty(SMTP_HOST_PROPERTY, mailHost);
-    properties.setProperty(SMTP_AUTH_PROPERTY, "false");
+    Properties properties = new Properties();
+    properties.setProperty(SMTP_HOST_PROPERTY, StringUtils.defaultString(mailHost));
+    properties.setProperty(
+        SMTP_AUTH_PROPERTY, Boolean.toString(StringUtils.isNotBlank(mailUsername)));
     properties.setProperty(SMTP_PORT_PROPERTY, Integer.toString(mailPort));
+    properties.setProperty(SMTP_CONNECTION_TIMEOUT_PROPERTY, SMTP_TIMEOUT_MILLIS);
+    properties.setProperty(SMTP_TIMEOUT_PROPERTY, SMTP_TIMEOUT_MILLIS);
     return properties;
   }
 
+  private void registerMbean() {
+    try {
+      objectName = new ObjectName(EmailSenderImpl.class.getName() + ":service=email-sender");
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    } catch (MalformedObjectNameException e) {
+      LOGGER.info("Unable to create Email Sender MBean.", e);
+    }
+    if (mBeanServer == null) {
+      return;
+    }
+    try {
+      try {
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Registered Email Sender MBean under object name: {}", objectName);
+      } catch (InstanceAlreadyExistsException e) {
+        mBeanServer.unregisterMBean(objectName);
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Re-registered Email Sender MBean", e);
+      }
+    } catch (MBeanRegistrationException
+        | InstanceNotFoundException
+        | InstanceAlreadyExistsException
+        | NotCompliantMBeanException e) {
+      LOGGER.info("Could not register MBean [{}].", objectName, e);
+    }
+  }
+
   @Override
   public String toString() {
     return "EmailSenderImpl{"
@@ -203,8 +657,96 @@ public class EmailSenderImpl implements EmailSender {
         + ", mailHost='"
         + mailHost
         + '\''
+        + ", mailUsername='"
+        + mailUsername
+        + '\''
         + ", maxAttachmentSize="
         + maxAttachmentSize
+        + ", maxQueuedAttachmentSize="
+        + maxQueuedAttachmentSize
+        + ", maxBatchSize="
+        + maxBatchSize
+        + ", connectionPoolSize="
+        + deliveryExecutor.getMaximumPoolSize()
+        + ", maxRetries="
+        + maxRetries
+        + ", retryDelayMillis="
+        + retryDelayMillis
         + '}';
   }
+
+  /** An email waiting to be delivered, and the number of times its delivery has failed. */
+  private class Delivery {
+
+    private final Message message;
+
+    private final String toEmail;
+
+    private final long attachmentBytes;
+
+    private final long queuedNanos = System.nanoTime();
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    private int attempt = 0;
+
+    private Delivery(Message message, String toEmail, long attachmentBytes) {
+      this.message = message;
+      this.toEmail = toEmail;
+      this.attachmentBytes = attachmentBytes;
+    }
+
+    private void deliver(SmtpConnectionPool.Lease lease) {
+      try {
+        send(message, lease);
+      } catch (MessagingException | RuntimeException e) {
+        retryOrFail(e);
+        return;
+      }
+
+      long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedNanos);
+      sentCount.increment();
+      totalLatencyMillis.add(latencyMillis);
+      maxLatencyMillis.accumulate(latencyMillis);
+      releaseAttachmentBytes(attachmentBytes);
+      LOGGER.debug("Email sent to {}", toEmail);
+      future.complete(null);
+    }
+
+    private void retryOrFail(Exception e) {
+      if (attempt < maxRetries && isRetryable(e)) {
+        long delayMillis = retryDelayMillis << attempt;
+        attempt++;
+        retryCount.increment();
+        LOGGER.debug(
+            "Unable to send email to {}, retrying in {} ms: attempt={}",
+            toEmail,
+            delayMillis,
+            attempt,
+            e);
+        try {
+          retryExecutor.schedule(this::resubmit, delayMillis, TimeUnit.MILLISECONDS);
+          return;
+        } catch (RejectedExecutionException rejected) {
+          e.addSuppressed(rejected);
+        }
+      }
+      fail(e);
+    }
+
+    private void resubmit() {
+      try {
+        enqueue(this);
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+
+    private void fail(Exception e) {
+      failedCount.increment();
+      releaseAttachmentBytes(attachmentBytes);
+      LOGGER.debug("Unable to send email to {}", toEmail, e);
+      future.completeExceptionally(new IOException("message error occurred on send", e));
+    }
+  }
 }
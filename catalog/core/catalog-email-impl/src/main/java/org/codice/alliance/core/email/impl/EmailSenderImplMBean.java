@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.core.email.impl;
+
+/** Exposes the delivery metrics of the {@link EmailSenderImpl} through JMX. */
+public interface EmailSenderImplMBean {
+
+  /** @return the number of emails delivered to the mail server. */
+  long getSentCount();
+
+  /** @return the number of emails that could not be delivered after all retries. */
+  long getFailedCount();
+
+  /** @return the number of delivery attempts that were retried. */
+  long getRetryCount();
+
+  /** @return the number of emails waiting to be delivered. */
+  int getQueuedCount();
+
+  /** @return the total size in bytes of the attachments of the emails waiting to be delivered. */
+  long getQueuedAttachmentBytes();
+
+  /** @return the number of batches of emails sent over a single connection. */
+  long getBatchCount();
+
+  /** @return the number of times a connection to the mail server has been opened. */
+  long getConnectCount();
+
+  /** @return the average number of emails delivered per second since the sender was created. */
+  double getMessagesPerSecond();
+
+  /** @return the average time in milliseconds from queuing an email to its delivery. */
+  double getAverageLatencyMillis();
+
+  /** @return the longest time in milliseconds from queuing an email to its delivery. */
+  long getMaxLatencyMillis();
+}
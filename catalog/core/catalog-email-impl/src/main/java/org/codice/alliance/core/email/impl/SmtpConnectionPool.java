@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.core.email.impl;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.LongAdder;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps SMTP connections open between messages. A connection is borrowed for each batch of messages
+ * and returned when the batch has been sent. A connection that failed is closed instead, and an idle
+ * connection that the server has closed is reconnected when it is borrowed. The number of open
+ * connections is bounded by the number of threads that borrow them.
+ */
+class SmtpConnectionPool {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+  private static final String SMTP_PROTOCOL = "smtp";
+
+  private final Session session;
+
+  private final String host;
+
+  private final int port;
+
+  private final String username;
+
+  private final String password;
+
+  private final BlockingDeque<Transport> idleConnections = new LinkedBlockingDeque<>();
+
+  private final LongAdder connectCount = new LongAdder();
+
+  private volatile boolean closed = false;
+
+  /**
+   * @param session the session used to create the connections
+   * @param username the user to authenticate as, or null if the server does not require
+   *     authentication
+   * @param password the password of the user, or null
+   */
+  SmtpConnectionPool(Session session, String host, int port, String username, String password) {
+    this.session = session;
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.password = password;
+  }
+
+  /**
+   * @return a connected transport, which must be given back with {@link #release(Transport)} or
+   *     {@link #invalidate(Transport)}
+   */
+  Transport borrow() throws MessagingException {
+    if (closed) {
+      throw new MessagingException("the SMTP connection pool has been closed");
+    }
+
+    Transport transport = idleConnections.pollFirst();
+    if (transport == null) {
+      transport = session.getTransport(SMTP_PROTOCOL);
+    }
+
+    if (!transport.isConnected()) {
+      transport.connect(host, port, username, password);
+      connectCount.increment();
+      LOGGER.debug("Connected to the mail server: host={}, port={}", host, port);
+    }
+    return transport;
+  }
+
+  /** @return a lease that borrows a connection when it is first used */
+  Lease lease() {
+    return new Lease();
+  }
+
+  void release(Transport transport) {
+    idleConnections.offerFirst(transport);
+    if (closed) {
+      closeIdleConnections();
+    }
+  }
+
+  void invalidate(Transport transport) {
+    closeQuietly(transport);
+  }
+
+  /** Close the idle connections. Connections that are in use are closed when they are released. */
+  void close() {
+    closed = true;
+    closeIdleConnections();
+  }
+
+  /** @return the number of times a connection to the mail server has been opened */
+  long getConnectCount() {
+    return connectCount.sum();
+  }
+
+  int getIdleConnectionCount() {
+    return idleConnections.size();
+  }
+
+  private void closeIdleConnections() {
+    Transport transport;
+    while ((transport = idleConnections.pollFirst()) != null) {
+      closeQuietly(transport);
+    }
+  }
+
+  private static void closeQuietly(Transport transport) {
+    try {
+      transport.close();
+    } catch (MessagingException e) {
+      LOGGER.debug("Unable to close the connection to the mail server.", e);
+    }
+  }
+
+  /**
+   * A connection used by one thread for a batch of messages. The connection is borrowed when the
+   * first message is sent and given back when the lease is closed.
+   */
+  class Lease implements AutoCloseable {
+
+    private Transport transport;
+
+    private Lease() {}
+
+    Transport get() throws MessagingException {
+      if (transport == null) {
+        transport = borrow();
+      }
+      return transport;
+    }
+
+    /** Close the connection after a failure. The next message borrows another connection. */
+    void invalidate() {
+      if (transport != null) {
+        SmtpConnectionPool.this.invalidate(transport);
+        transport = null;
+      }
+    }
+
+    @Override
+    public void close() {
+      if (transport != null) {
+        release(transport);
+        transport = null;
+      }
+    }
+  }
+}
@@ -13,22 +13,32 @@
  */
 package org.codice.alliance.core.email.impl;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.mail.Message;
 import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
 import javax.mail.internet.MimeMultipart;
 import javax.xml.ws.Holder;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -53,11 +63,17 @@ public class EmailSenderImplTest {
     emailSender =
         new EmailSenderImpl() {
           @Override
-          void send(Message message) throws MessagingException {
+          void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
             capturedMessage.value = message;
           }
         };
     emailSender.setMailHost(HOST);
+    emailSender.setRetryDelayMillis(1);
+  }
+
+  @After
+  public void tearDown() {
+    emailSender.destroy();
   }
 
   @Test
@@ -107,10 +123,10 @@ public class EmailSenderImplTest {
     emailSender =
         new EmailSenderImpl() {
           @Override
-          void send(Message message) throws MessagingException {
+          void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
             try {
-              FileInputStream fis =
-                  (FileInputStream)
+              InputStream fis =
+                  (InputStream)
                       ((MimeMultipart) message.getContent())
                           .getBodyPart(bodyPartIndex)
                           .getContent();
@@ -153,10 +169,10 @@ public class EmailSenderImplTest {
     emailSender =
         new EmailSenderImpl() {
           @Override
-          void send(Message message) throws MessagingException {
+          void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
             try {
-              FileInputStream fis =
-                  (FileInputStream)
+              InputStream fis =
+                  (InputStream)
                       ((MimeMultipart) message.getContent())
                           .getBodyPart(bodyPartIndex)
                           .getContent();
@@ -186,6 +202,268 @@ public class EmailSenderImplTest {
                 attachedFilename, new ByteArrayInputStream(attachedData.getBytes()))));
   }
 
+  @Test
+  public void testSendEmailAsync() throws Exception {
+
+    CompletableFuture<Void> delivery =
+        emailSender.sendEmailAsync(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList());
+
+    delivery.get(10, TimeUnit.SECONDS);
+
+    assertThat(capturedMessage.value.getSubject(), is(SUBJECT_LINE));
+    assertThat(emailSender.getSentCount(), is(1L));
+    assertThat(emailSender.getFailedCount(), is(0L));
+  }
+
+  @Test
+  public void testTransientFailureIsRetried() throws IOException {
+
+    AtomicInteger attempts = new AtomicInteger();
+
+    emailSender =
+        new EmailSenderImpl() {
+          @Override
+          void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
+            if (attempts.incrementAndGet() < 3) {
+              throw new MessagingException("connection reset");
+            }
+          }
+        };
+    emailSender.setMailHost(HOST);
+    emailSender.setRetryDelayMillis(1);
+
+    emailSender.sendEmail(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList());
+
+    assertThat(attempts.get(), is(3));
+    assertThat(emailSender.getRetryCount(), is(2L));
+    assertThat(emailSender.getSentCount(), is(1L));
+  }
+
+  @Test
+  public void testRejectedMessageIsNotRetried() {
+
+    AtomicInteger attempts = new AtomicInteger();
+
+    emailSender =
+        new EmailSenderImpl() {
+          @Override
+          void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
+            attempts.incrementAndGet();
+            throw new SendFailedException("mailbox unavailable");
+          }
+        };
+    emailSender.setMailHost(HOST);
+    emailSender.setRetryDelayMillis(1);
+
+    try {
+      emailSender.sendEmail(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList());
+      fail("expected the email to be rejected");
+    } catch (IOException e) {
+      assertThat(e.getCause() instanceof SendFailedException, is(true));
+    }
+
+    assertThat(attempts.get(), is(1));
+    assertThat(emailSender.getRetryCount(), is(0L));
+    assertThat(emailSender.getFailedCount(), is(1L));
+  }
+
+  @Test
+  public void testFullQueueIsRejected() throws Exception {
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    emailSender = createBlockingEmailSender(1, started, release);
+
+    CompletableFuture<Void> first =
+        emailSender.sendEmailAsync(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList());
+    assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+    CompletableFuture<Void> second =
+        emailSender.sendEmailAsync(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList());
+
+    try {
+      emailSender.sendEmailAsync(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList());
+      fail("expected the delivery queue to be full");
+    } catch (IOException e) {
+      assertThat(e.getMessage(), containsString("queue is full"));
+    } finally {
+      release.countDown();
+    }
+
+    first.get(10, TimeUnit.SECONDS);
+    second.get(10, TimeUnit.SECONDS);
+    assertThat(emailSender.getSentCount(), is(2L));
+  }
+
+  /**
+   * Set the max queued attachment size to 1MB, block the delivery of an email with an attachment
+   * of 0.6MB, and queue another one.
+   */
+  @Test
+  public void testQueuedAttachmentSizeIsBounded() throws Exception {
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    emailSender = createBlockingEmailSender(10, started, release);
+    emailSender.setMaxQueuedAttachmentSize(1);
+
+    int attachmentSize = 600_000;
+
+    CompletableFuture<Void> first =
+        emailSender.sendEmailAsync(
+            FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, createAttachment(attachmentSize));
+    assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+    assertThat(emailSender.getQueuedAttachmentBytes(), is((long) attachmentSize));
+
+    try {
+      emailSender.sendEmailAsync(
+          FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, createAttachment(attachmentSize));
+      fail("expected the delivery queue to be full");
+    } catch (IOException e) {
+      assertThat(e.getMessage(), containsString("queuedAttachmentBytes"));
+    } finally {
+      release.countDown();
+    }
+
+    assertThat(emailSender.getQueuedAttachmentBytes(), is((long) attachmentSize));
+
+    first.get(10, TimeUnit.SECONDS);
+    assertThat(emailSender.getQueuedAttachmentBytes(), is(0L));
+
+    emailSender
+        .sendEmailAsync(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, createAttachment(attachmentSize))
+        .get(10, TimeUnit.SECONDS);
+    assertThat(emailSender.getQueuedAttachmentBytes(), is(0L));
+    assertThat(emailSender.getSentCount(), is(2L));
+  }
+
+  @Test
+  public void testFailedDeliveryReleasesQueuedAttachmentSize() throws Exception {
+
+    emailSender =
+        new EmailSenderImpl() {
+          @Override
+          void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
+            throw new SendFailedException("mailbox unavailable");
+          }
+        };
+    emailSender.setMailHost(HOST);
+
+    CompletableFuture<Void> delivery =
+        emailSender.sendEmailAsync(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, createAttachment(1000));
+
+    try {
+      delivery.get(10, TimeUnit.SECONDS);
+      fail("expected the email to be rejected");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause() instanceof IOException, is(true));
+    }
+    assertThat(emailSender.getQueuedAttachmentBytes(), is(0L));
+  }
+
+  /** Block the first email, queue four more, and expect them to be sent as one batch. */
+  @Test
+  public void testQueuedEmailsAreSentInBatches() throws Exception {
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    emailSender = createBlockingEmailSender(10, started, release);
+
+    List<CompletableFuture<Void>> deliveries = new LinkedList<>();
+    deliveries.add(
+        emailSender.sendEmailAsync(
+            FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList()));
+    assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+    for (int i = 0; i < 4; i++) {
+      deliveries.add(
+          emailSender.sendEmailAsync(
+              FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList()));
+    }
+    release.countDown();
+
+    for (CompletableFuture<Void> delivery : deliveries) {
+      delivery.get(10, TimeUnit.SECONDS);
+    }
+    assertThat(emailSender.getSentCount(), is(5L));
+    assertThat(emailSender.getBatchCount(), is(2L));
+  }
+
+  @Test
+  public void testConnectionIsReused() throws IOException {
+
+    try (FakeSmtpServer server = new FakeSmtpServer(0)) {
+      emailSender = createSmtpEmailSender(server);
+
+      for (int i = 0; i < 5; i++) {
+        emailSender.sendEmail(
+            FROM_ADDR,
+            TO_ADDR,
+            SUBJECT_LINE + i,
+            BODY,
+            Collections.singletonList(
+                new ImmutablePair<>("fileName.txt", new ByteArrayInputStream(BODY.getBytes()))));
+      }
+
+      assertThat(server.getMessages().size(), is(5));
+      assertThat(server.getMessages().get(4), containsString(SUBJECT_LINE + 4));
+      assertThat(server.getConnectionCount(), is(1));
+      assertThat(emailSender.getConnectCount(), is(1L));
+      assertThat(emailSender.getSentCount(), is(5L));
+    }
+  }
+
+  @Test
+  public void testTransientServerFailureIsRetried() throws IOException {
+
+    try (FakeSmtpServer server = new FakeSmtpServer(1)) {
+      emailSender = createSmtpEmailSender(server);
+
+      emailSender.sendEmail(FROM_ADDR, TO_ADDR, SUBJECT_LINE, BODY, Collections.emptyList());
+
+      assertThat(server.getMessages().size(), is(1));
+      assertThat(emailSender.getRetryCount(), is(1L));
+      assertThat(emailSender.getSentCount(), is(1L));
+    }
+  }
+
+  private EmailSenderImpl createSmtpEmailSender(FakeSmtpServer server) {
+    EmailSenderImpl smtpEmailSender = new EmailSenderImpl();
+    smtpEmailSender.setMailHost(server.getHost());
+    smtpEmailSender.setMailPort(server.getPort());
+    smtpEmailSender.setConnectionPoolSize(1);
+    smtpEmailSender.setRetryDelayMillis(1);
+    return smtpEmailSender;
+  }
+
+  /**
+   * @return an email sender with one connection, whose first delivery waits until it is released
+   */
+  private EmailSenderImpl createBlockingEmailSender(
+      int queueSize, CountDownLatch started, CountDownLatch release) {
+    EmailSenderImpl blockingEmailSender =
+        new EmailSenderImpl(queueSize) {
+          @Override
+          void send(Message message, SmtpConnectionPool.Lease lease) throws MessagingException {
+            started.countDown();
+            try {
+              release.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        };
+    blockingEmailSender.setMailHost(HOST);
+    blockingEmailSender.setConnectionPoolSize(1);
+    return blockingEmailSender;
+  }
+
+  private List<Pair<String, InputStream>> createAttachment(int size) {
+    return Collections.singletonList(
+        new ImmutablePair<>("fileName.txt", new ByteArrayInputStream(new byte[size])));
+  }
+
   private String generateString(int length) {
     char[] charArray = new char[length];
     Arrays.fill(charArray, ' ');
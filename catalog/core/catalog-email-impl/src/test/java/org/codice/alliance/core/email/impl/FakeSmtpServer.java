@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.core.email.impl;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal SMTP server on the loopback interface that accepts every message and keeps it in
+ * memory. The first {@code transientFailures} messages are refused with a 451 reply.
+ */
+class FakeSmtpServer implements Closeable {
+
+  private final ServerSocket serverSocket;
+
+  private final AtomicInteger connectionCount = new AtomicInteger();
+
+  private final AtomicInteger transientFailures;
+
+  private final List<String> messages = new CopyOnWriteArrayList<>();
+
+  FakeSmtpServer(int transientFailures) throws IOException {
+    this.transientFailures = new AtomicInteger(transientFailures);
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread acceptor = new Thread(this::accept, "fake-smtp-server");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  String getHost() {
+    return serverSocket.getInetAddress().getHostAddress();
+  }
+
+  int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  int getConnectionCount() {
+    return connectionCount.get();
+  }
+
+  List<String> getMessages() {
+    return messages;
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+  }
+
+  private void accept() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        connectionCount.incrementAndGet();
+        Thread session = new Thread(() -> converse(socket), "fake-smtp-session");
+        session.setDaemon(true);
+        session.start();
+      } catch (IOException e) {
+        return;
+      }
+    }
+  }
+
+  private void converse(Socket socket) {
+    try (Socket s = socket;
+        BufferedReader reader =
+            new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+        Writer writer = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)) {
+      reply(writer, "220 localhost ESMTP");
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase();
+        switch (command) {
+          case "EHLO":
+            reply(writer, "250-localhost\r\n250 8BITMIME");
+            break;
+          case "DATA":
+            reply(writer, "354 end data with <CR><LF>.<CR><LF>");
+            String message = readData(reader);
+            if (transientFailures.getAndDecrement() > 0) {
+              reply(writer, "451 try again later");
+            } else {
+              messages.add(message);
+              reply(writer, "250 OK");
+            }
+            break;
+          case "QUIT":
+            reply(writer, "221 bye");
+            return;
+          default:
+            reply(writer, "250 OK");
+        }
+      }
+    } catch (IOException e) {
+      // the client closed the connection
+    }
+  }
+
+  private static String readData(BufferedReader reader) throws IOException {
+    StringBuilder message = new StringBuilder();
+    String line;
+    while ((line = reader.readLine()) != null && !".".equals(line)) {
+      message.append(line).append('\n');
+    }
+    return message.toString();
+  }
+
+  private static void reply(Writer writer, String reply) throws IOException {
+    writer.write(reply);
+    writer.write("\r\n");
+    writer.flush();
+  }
+}
@@ -14,6 +14,8 @@
 package org.codice.alliance.imaging.chip.service.api;
 
 import com.vividsolutions.jts.geom.Polygon;
+import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 
 /**
@@ -49,4 +51,21 @@ public interface ChipService {
    */
   BufferedImage crop(BufferedImage inputImage, int x, int y, int w, int h)
       throws ChipOutOfBoundsException;
+
+  /**
+   * Computes the region of an image that {@link #crop(BufferedImage, int, int, int, int)} returns,
+   * without needing the image's pixels.
+   *
+   * @param imageSize The width and height of the image to be cropped.
+   * @param x The x coordinate of the top left corner of the crop area.
+   * @param y The y coordinate of the top left corner of the crop area.
+   * @param w The width of the crop region.
+   * @param h The height of the crop region.
+   * @return The crop area, adjusted in the same way as {@link #crop(BufferedImage, int, int, int,
+   *     int)}.
+   * @throws ChipOutOfBoundsException when x &gt; image width, y &gt; image height, w &lt; 0 or h
+   *     &lt; 0.
+   */
+  Rectangle cropRegion(Dimension imageSize, int x, int y, int w, int h)
+      throws ChipOutOfBoundsException;
 }
@@ -14,6 +14,8 @@
 package org.codice.alliance.imaging.chip.service.impl;
 
 import com.vividsolutions.jts.geom.Polygon;
+import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.function.Function;
@@ -67,18 +69,30 @@ public class ChipServiceImpl implements ChipService {
       throws ChipOutOfBoundsException {
     validateNotNull(inputImage, "inputImage");
 
+    Rectangle region =
+        cropRegion(new Dimension(inputImage.getWidth(), inputImage.getHeight()), x, y, w, h);
+
+    return inputImage.getSubimage(region.x, region.y, region.width, region.height);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public Rectangle cropRegion(Dimension imageSize, int x, int y, int w, int h)
+      throws ChipOutOfBoundsException {
+    validateNotNull(imageSize, "imageSize");
+
     if (w < 0 || h < 0) {
       throw new ChipOutOfBoundsException(
           String.format(
               "method arguments 'w', 'h' may not be less than 0. Values were %s and %s.", w, h));
     }
 
-    if (x > inputImage.getWidth() || y > inputImage.getHeight()) {
+    if (x > imageSize.width || y > imageSize.height) {
       throw new ChipOutOfBoundsException(
           String.format(
               "method arguments 'x' and 'y' may not be greater than the width and height of the supplied image."
                   + "\n   image width = %s, x = %s\n   image height = %s, y = %s",
-              inputImage.getWidth(), x, inputImage.getHeight(), y));
+              imageSize.width, x, imageSize.height, y));
     }
 
     if (x < 0) {
@@ -89,15 +103,15 @@ public class ChipServiceImpl implements ChipService {
       y = 0;
     }
 
-    if (x + w > inputImage.getWidth()) {
-      w = inputImage.getWidth() - x;
+    if (x + w > imageSize.width) {
+      w = imageSize.width - x;
     }
 
-    if (y + h > inputImage.getHeight()) {
-      h = inputImage.getHeight() - y;
+    if (y + h > imageSize.height) {
+      h = imageSize.height - y;
     }
 
-    return inputImage.getSubimage(x, y, w, h);
+    return new Rectangle(x, y, w, h);
   }
 
   private List<Vector> createVectorListFromPolygon(Polygon polygon) {
@@ -20,6 +20,8 @@ import static org.hamcrest.core.IsNull.notNullValue;
 import com.vividsolutions.jts.geom.Polygon;
 import com.vividsolutions.jts.io.ParseException;
 import com.vividsolutions.jts.io.WKTReader;
+import java.awt.Dimension;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -84,6 +86,23 @@ public class ChipServiceImplTest {
     assertThat(result.getHeight(), is(inputImage.getHeight()));
   }
 
+  @Test
+  public void testCropRegionMatchesCrop() throws ChipOutOfBoundsException {
+    Dimension imageSize = new Dimension(inputImage.getWidth(), inputImage.getHeight());
+
+    Rectangle region = chipService.cropRegion(imageSize, 900, -10, 400, 100);
+    BufferedImage result = chipService.crop(inputImage, 900, -10, 400, 100);
+
+    assertThat(region, is(new Rectangle(900, 0, 124, 100)));
+    assertThat(result.getWidth(), is(region.width));
+    assertThat(result.getHeight(), is(region.height));
+  }
+
+  @Test(expected = ChipOutOfBoundsException.class)
+  public void testCropRegionInvalidX() throws ChipOutOfBoundsException {
+    chipService.cropRegion(new Dimension(100, 100), 101, 0, 10, 10);
+  }
+
   @Test
   public void testChip() throws ChipOutOfBoundsException, ParseException {
     Boundary mainImage = new Boundary(52.0, 15.0, 100, Math.toRadians(30));
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.imaging.chip.transformer;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import ddf.catalog.data.BinaryContent;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.resource.ResourceNotFoundException;
+import ddf.catalog.resource.ResourceNotSupportedException;
+import ddf.catalog.transform.CatalogTransformerException;
+import ddf.catalog.transform.MetacardTransformer;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves repeated chip requests from the {@link ChipCache} and only runs the chipping route when
+ * the encoded chip is not cached.
+ */
+public class CachingChipTransformer implements MetacardTransformer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachingChipTransformer.class);
+
+  private final MetacardTransformer delegate;
+
+  private final ChipCache chipCache;
+
+  private final String transformerId;
+
+  /**
+   * @param delegate the transformer that produces the chip on a cache miss
+   * @param chipCache the cache of encoded chips
+   * @param transformerId distinguishes the chips of this transformer from other chip formats
+   */
+  public CachingChipTransformer(
+      MetacardTransformer delegate, ChipCache chipCache, String transformerId) {
+    notNull(delegate, "delegate must be non-null");
+    notNull(chipCache, "chipCache must be non-null");
+    notNull(transformerId, "transformerId must be non-null");
+    this.delegate = delegate;
+    this.chipCache = chipCache;
+    this.transformerId = transformerId;
+  }
+
+  @Override
+  public BinaryContent transform(Metacard metacard, Map<String, Serializable> arguments)
+      throws CatalogTransformerException {
+    BinaryContent cachedChip;
+    try {
+      cachedChip = chipCache.getChip(metacard, transformerId, arguments);
+    } catch (IOException | ResourceNotFoundException | ResourceNotSupportedException e) {
+      throw new CatalogTransformerException("unable to retrieve the chipped image", e);
+    }
+
+    if (cachedChip != null) {
+      LOGGER.trace("serving {} from the chip cache", transformerId);
+      return cachedChip;
+    }
+
+    BinaryContent chip = delegate.transform(metacard, arguments);
+
+    try {
+      return chipCache.putChip(metacard, transformerId, arguments, chip);
+    } catch (IOException e) {
+      throw new CatalogTransformerException("unable to read the chip", e);
+    }
+  }
+}
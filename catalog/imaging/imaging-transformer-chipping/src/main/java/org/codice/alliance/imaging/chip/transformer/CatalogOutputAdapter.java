@@ -20,17 +20,21 @@ import ddf.catalog.data.impl.BinaryContentImpl;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.resource.Resource;
 import ddf.catalog.transform.CatalogTransformerException;
+import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -38,16 +42,22 @@ import java.util.regex.Pattern;
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import javax.imageio.stream.ImageOutputStream;
 import javax.imageio.stream.MemoryCacheImageOutputStream;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.lang.StringUtils;
 import org.codice.alliance.imaging.chip.service.impl.CoordinateConverter;
 import org.codice.ddf.platform.util.TemporaryFileBackedOutputStream;
+import org.codice.imaging.nitf.core.DataSource;
 import org.codice.imaging.nitf.core.common.FileType;
 import org.codice.imaging.nitf.core.common.NitfFormatException;
 import org.codice.imaging.nitf.core.common.TaggedRecordExtensionHandler;
 import org.codice.imaging.nitf.core.common.impl.DateTimeImpl;
+import org.codice.imaging.nitf.core.dataextension.DataExtensionSegment;
+import org.codice.imaging.nitf.core.graphic.GraphicSegment;
 import org.codice.imaging.nitf.core.header.NitfHeader;
 import org.codice.imaging.nitf.core.header.impl.NitfHeaderFactory;
 import org.codice.imaging.nitf.core.image.ImageBand;
@@ -62,13 +72,16 @@ import org.codice.imaging.nitf.core.image.impl.ImageBandImpl;
 import org.codice.imaging.nitf.core.image.impl.ImageCoordinatePairImpl;
 import org.codice.imaging.nitf.core.image.impl.ImageCoordinatesImpl;
 import org.codice.imaging.nitf.core.image.impl.ImageSegmentFactory;
+import org.codice.imaging.nitf.core.impl.NitfOutputStreamWriter;
+import org.codice.imaging.nitf.core.label.LabelSegment;
+import org.codice.imaging.nitf.core.symbol.SymbolSegment;
+import org.codice.imaging.nitf.core.text.TextSegment;
 import org.codice.imaging.nitf.core.tre.Tre;
 import org.codice.imaging.nitf.core.tre.TreCollection;
 import org.codice.imaging.nitf.core.tre.TreSource;
 import org.codice.imaging.nitf.core.tre.impl.TreEntryImpl;
 import org.codice.imaging.nitf.core.tre.impl.TreFactory;
 import org.codice.imaging.nitf.fluent.NitfSegmentsFlow;
-import org.codice.imaging.nitf.fluent.impl.NitfCreationFlowImpl;
 import org.codice.imaging.nitf.fluent.impl.NitfParserInputFlowImpl;
 import org.la4j.Vector;
 import org.la4j.vector.dense.BasicVector;
@@ -141,6 +154,40 @@ public class CatalogOutputAdapter {
     }
   }
 
+  /**
+   * Reads the width and height of an image from its header without decoding any pixel data.
+   *
+   * @param resourceResponse a ResourceResponse object returned by CatalogFramework.
+   * @return the dimensions of the requested image.
+   * @throws IOException when there's a problem reading the image header from the ResourceResponse
+   *     InputStream or when no image reader supports the format.
+   */
+  @SuppressWarnings("unused")
+  public Dimension getImageDimensions(ResourceResponse resourceResponse) throws IOException {
+    validateArgument(resourceResponse, "resourceResponse");
+    validateArgument(resourceResponse.getResource(), "resourceResponse.resource");
+    try (InputStream resourceStream = resourceResponse.getResource().getInputStream()) {
+      validateObjectState(resourceStream, "resourceResponse.resource.inputStream");
+
+      try (BufferedInputStream bufferedInputStream = new BufferedInputStream(resourceStream);
+          ImageInputStream imageInputStream = ImageIO.createImageInputStream(bufferedInputStream)) {
+        Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+
+        if (!imageReaders.hasNext()) {
+          throw new IOException("unable to find an image reader for the resource.");
+        }
+
+        ImageReader imageReader = imageReaders.next();
+        try {
+          imageReader.setInput(imageInputStream, true, true);
+          return new Dimension(imageReader.getWidth(0), imageReader.getHeight(0));
+        } finally {
+          imageReader.dispose();
+        }
+      }
+    }
+  }
+
   /**
    * @param image the BufferedImage to be converted.
    * @return a BinaryContent object containing the image data.
@@ -187,28 +234,15 @@ public class CatalogOutputAdapter {
   }
 
   /**
-   * This method exists so unit tests can override and create a different TFBOS for testing
-   * exceptions.
+   * Parses only the file header and segment subheaders (including TREs) of the original NITF. The
+   * image data is skipped, so the original is never copied or held in memory.
    */
-  protected TemporaryFileBackedOutputStream createTemporaryFileBackedOutputStream() {
-    return new TemporaryFileBackedOutputStream();
-  }
-
-  NitfSegmentsFlow getNitfSegmentsFlow(InputStream resourceInputStream)
-      throws NitfFormatException, IOException {
+  NitfSegmentsFlow getNitfSegmentsFlow(InputStream resourceInputStream) throws NitfFormatException {
     notNull(resourceInputStream, "resourceInputStream must be non-null");
 
-    NitfSegmentsFlow nitfSegmentsFlow;
-    try (TemporaryFileBackedOutputStream tfbos = createTemporaryFileBackedOutputStream()) {
-
-      IOUtils.copyLarge(resourceInputStream, tfbos);
-
-      try (InputStream is = tfbos.asByteSource().openBufferedStream()) {
-        nitfSegmentsFlow = new NitfParserInputFlowImpl().inputStream(is).allData();
-      }
-    }
-
-    return nitfSegmentsFlow;
+    return new NitfParserInputFlowImpl()
+        .inputStream(new BufferedInputStream(resourceInputStream))
+        .headerOnly();
   }
 
   private List<ImageSegment> getImageSegments(NitfSegmentsFlow nitfSegmentsFlow) {
@@ -642,27 +676,36 @@ public class CatalogOutputAdapter {
     return chipCornerPixels;
   }
 
+  /**
+   * This method exists so unit tests can override and create a different TFBOS for testing
+   * exceptions.
+   */
+  protected TemporaryFileBackedOutputStream createTemporaryFileBackedOutputStream() {
+    return new TemporaryFileBackedOutputStream();
+  }
+
+  /**
+   * Writes the chip NITF to a temporary file backed stream. Small chips stay in memory and are read
+   * back without being copied, larger chips are spilled to a temporary file, so the heap used is
+   * bounded no matter how large the chip data is. The stream is released when the returned content
+   * is closed.
+   */
   private BinaryContent nitfToBinaryContent(NitfHeader header, ImageSegment imageSegment)
-      throws IOException, MimeTypeParseException {
-    byte[] data;
-    File tmpFile = File.createTempFile("nitfchip-", ".ntf");
-    try {
-      new NitfCreationFlowImpl()
-          .fileHeader(() -> header)
-          .imageSegment(() -> imageSegment)
-          .write(tmpFile.getAbsolutePath());
+      throws IOException, MimeTypeParseException, NitfFormatException {
+    TemporaryFileBackedOutputStream tfbos = createTemporaryFileBackedOutputStream();
 
-      try (FileInputStream fis = new FileInputStream(tmpFile)) {
-        data = IOUtils.toByteArray(fis);
+    try {
+      try (OutputStream outputStream =
+          new BufferedOutputStream(new CloseShieldOutputStream(tfbos))) {
+        new NitfOutputStreamWriter(new ChipDataSource(header, imageSegment), outputStream).write();
       }
 
-    } finally {
-      if (!tmpFile.delete()) {
-        LOGGER.debug("unable to delete the temporary file '{}'", tmpFile);
-      }
+      return new BinaryContentImpl(
+          new TemporaryFileBackedInputStream(tfbos), new MimeType(IMAGE_NITF));
+    } catch (IOException | MimeTypeParseException | NitfFormatException | RuntimeException e) {
+      IOUtils.closeQuietly(tfbos);
+      throw e;
     }
-
-    return new BinaryContentImpl(new ByteArrayInputStream(data), new MimeType(IMAGE_NITF));
   }
 
   @SuppressWarnings("UnnecessaryLocalVariable")
@@ -733,6 +776,74 @@ public class CatalogOutputAdapter {
     }
   }
 
+  /** Reads a chip back from its temporary file backed stream and releases the stream on close. */
+  private static class TemporaryFileBackedInputStream extends FilterInputStream {
+
+    private final TemporaryFileBackedOutputStream tfbos;
+
+    TemporaryFileBackedInputStream(TemporaryFileBackedOutputStream tfbos) throws IOException {
+      super(tfbos.asByteSource().openBufferedStream());
+      this.tfbos = tfbos;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        tfbos.close();
+      }
+    }
+  }
+
+  /** A data source holding the single image segment of a chip. */
+  private static class ChipDataSource implements DataSource {
+
+    private final NitfHeader nitfHeader;
+
+    private final List<ImageSegment> imageSegments;
+
+    ChipDataSource(NitfHeader nitfHeader, ImageSegment imageSegment) {
+      this.nitfHeader = nitfHeader;
+      this.imageSegments = Collections.singletonList(imageSegment);
+    }
+
+    @Override
+    public NitfHeader getNitfHeader() {
+      return nitfHeader;
+    }
+
+    @Override
+    public List<ImageSegment> getImageSegments() {
+      return imageSegments;
+    }
+
+    @Override
+    public List<GraphicSegment> getGraphicSegments() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<SymbolSegment> getSymbolSegments() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<LabelSegment> getLabelSegments() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<TextSegment> getTextSegments() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public List<DataExtensionSegment> getDataExtensionSegments() {
+      return Collections.emptyList();
+    }
+  }
+
   /**
    * @param exception the exception to be wrapped.
    * @throws CatalogTransformerException in every case.
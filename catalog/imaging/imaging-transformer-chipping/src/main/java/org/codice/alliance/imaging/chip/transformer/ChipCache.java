@@ -0,0 +1,869 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.imaging.chip.transformer;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Striped;
+import ddf.catalog.CatalogFramework;
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.BinaryContent;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.BinaryContentImpl;
+import ddf.catalog.data.types.Core;
+import ddf.catalog.operation.CreateResponse;
+import ddf.catalog.operation.DeleteResponse;
+import ddf.catalog.operation.ResourceRequest;
+import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.operation.Update;
+import ddf.catalog.operation.UpdateResponse;
+import ddf.catalog.plugin.PostIngestPlugin;
+import ddf.catalog.resource.ResourceNotFoundException;
+import ddf.catalog.resource.ResourceNotSupportedException;
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
+import javax.activation.MimeType;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.apache.commons.io.IOUtils;
+import org.codice.alliance.imaging.chip.service.api.ChipOutOfBoundsException;
+import org.codice.alliance.imaging.chip.service.api.ChipService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A two-level cache for the chipping transformers. The first level holds decoded tiles of the
+ * original image, keyed by resource URI, modified date and tile index, and bounded by a memory
+ * budget. The second level holds encoded chips keyed by the normalized chip request. Both levels
+ * are invalidated when the metacard is updated or deleted.
+ *
+ * <p>Cached tiles and chips are shared by every caller, so each cache hit re-runs the resource
+ * access check of the caller through {@link CatalogFramework#getResource} before it is served. The
+ * check opens the resource but does not read it.
+ */
+public class ChipCache implements PostIngestPlugin, ChipCacheMBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChipCache.class);
+
+  private static final long MEGABYTE = 1024L * 1024L;
+
+  private static final int DEFAULT_TILE_SIZE = 512;
+
+  private static final int DEFAULT_TILE_CACHE_SIZE_MB = 256;
+
+  private static final int DEFAULT_CHIP_CACHE_SIZE_MB = 64;
+
+  private static final int IMAGE_LOCK_STRIPES = 64;
+
+  private static final String ORIGINAL = "original";
+
+  private static final String[] CHIP_ARGS = {"x", "y", "w", "h"};
+
+  private final CatalogFramework catalogFramework;
+
+  private final CatalogInputAdapter catalogInputAdapter;
+
+  private final ChipService chipService;
+
+  private final Cache<ImageKey, Dimension> dimensionCache;
+
+  /** Serializes tile loading per image, so concurrent misses never decode the same tile twice. */
+  private final Striped<Lock> imageLocks = Striped.lock(IMAGE_LOCK_STRIPES);
+
+  private volatile Tiles tiles;
+
+  private volatile Cache<ChipKey, CachedChip> chipCache;
+
+  private int tileCacheSizeMB = DEFAULT_TILE_CACHE_SIZE_MB;
+
+  private int chipCacheSizeMB = DEFAULT_CHIP_CACHE_SIZE_MB;
+
+  private ObjectName objectName;
+
+  private MBeanServer mBeanServer;
+
+  /**
+   * @param catalogFramework used to retrieve the original image when tiles are missing
+   * @param catalogInputAdapter used to build the resource request for the original image
+   * @param chipService used to clamp the requested region to the bounds of the image
+   */
+  public ChipCache(
+      CatalogFramework catalogFramework,
+      CatalogInputAdapter catalogInputAdapter,
+      ChipService chipService) {
+    validateArgument(catalogFramework, "catalogFramework");
+    validateArgument(catalogInputAdapter, "catalogInputAdapter");
+    validateArgument(chipService, "chipService");
+
+    this.catalogFramework = catalogFramework;
+    this.catalogInputAdapter = catalogInputAdapter;
+    this.chipService = chipService;
+    this.dimensionCache = CacheBuilder.newBuilder().maximumSize(1024).build();
+    this.tiles = new Tiles(DEFAULT_TILE_SIZE, tileCacheSizeMB);
+    this.chipCache = createChipCache(chipCacheSizeMB);
+  }
+
+  /**
+   * Changing the tile size discards the cached tiles.
+   *
+   * @param tileSize the width and height in pixels of a decoded tile
+   */
+  public void setTileSize(int tileSize) {
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("method argument 'tileSize' must be greater than 0.");
+    }
+
+    if (tileSize != tiles.tileSize) {
+      tiles = new Tiles(tileSize, tileCacheSizeMB);
+    }
+  }
+
+  /**
+   * Changing the budget discards the cached tiles.
+   *
+   * @param tileCacheSizeMB the memory budget for decoded tiles
+   */
+  public void setTileCacheSizeMB(int tileCacheSizeMB) {
+    if (tileCacheSizeMB < 0) {
+      throw new IllegalArgumentException("method argument 'tileCacheSizeMB' may not be negative.");
+    }
+
+    if (tileCacheSizeMB != this.tileCacheSizeMB) {
+      this.tileCacheSizeMB = tileCacheSizeMB;
+      tiles = new Tiles(tiles.tileSize, tileCacheSizeMB);
+    }
+  }
+
+  /**
+   * Changing the budget discards the cached chips.
+   *
+   * @param chipCacheSizeMB the memory budget for encoded chips
+   */
+  public void setChipCacheSizeMB(int chipCacheSizeMB) {
+    if (chipCacheSizeMB < 0) {
+      throw new IllegalArgumentException("method argument 'chipCacheSizeMB' may not be negative.");
+    }
+
+    if (chipCacheSizeMB != this.chipCacheSizeMB) {
+      this.chipCacheSizeMB = chipCacheSizeMB;
+      chipCache = createChipCache(chipCacheSizeMB);
+    }
+  }
+
+  /**
+   * Get the dimensions of the original image, reading only the image header on a cache miss. A
+   * cache hit re-runs the resource access check of the caller.
+   *
+   * @param metacard the metacard of the image, may not be null
+   * @return the width and height of the original image
+   */
+  @SuppressWarnings("unused")
+  public Dimension getImageDimensions(Metacard metacard)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+    validateArgument(metacard, "metacard");
+
+    return getImageDimensions(createImageKey(metacard));
+  }
+
+  /**
+   * Get a region of the original image, decoding only the tiles that are not already cached. The
+   * region is clamped to the bounds of the image by {@link ChipService#cropRegion}, so it matches
+   * the region that {@link ChipService#crop} returns for the whole image.
+   *
+   * @param metacard the metacard of the image, may not be null
+   * @param x the x pixel coordinate of the region in the original image
+   * @param y the y pixel coordinate of the region in the original image
+   * @param w the width of the region
+   * @param h the height of the region
+   * @return the requested region of the original image
+   * @throws ChipOutOfBoundsException if the region does not intersect the image
+   */
+  @SuppressWarnings("unused")
+  public BufferedImage getRegion(Metacard metacard, int x, int y, int w, int h)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException,
+          ChipOutOfBoundsException {
+    validateArgument(metacard, "metacard");
+
+    // checks the resource access of the caller, so the shared tiles below can be served
+    ImageKey imageKey = createImageKey(metacard);
+    Rectangle region = chipService.cropRegion(getImageDimensions(imageKey), x, y, w, h);
+
+    if (region.isEmpty()) {
+      throw new ChipOutOfBoundsException(
+          String.format("the chip region (%s,%s,%s,%s) does not intersect the image.", x, y, w, h));
+    }
+
+    Tiles currentTiles = tiles;
+    int tileSize = currentTiles.tileSize;
+    List<TileKey> tileKeys = new ArrayList<>();
+
+    for (int row = region.y / tileSize; row <= (region.y + region.height - 1) / tileSize; row++) {
+      for (int column = region.x / tileSize;
+          column <= (region.x + region.width - 1) / tileSize;
+          column++) {
+        tileKeys.add(new TileKey(imageKey, column, row));
+      }
+    }
+
+    return assembleRegion(region, tileSize, currentTiles.get(imageKey, tileKeys));
+  }
+
+  /**
+   * Get an encoded chip. A cache hit re-runs the resource access check of the caller, so a chip
+   * produced for one subject is never served to a subject that may not retrieve the image.
+   *
+   * @param metacard the metacard that was chipped
+   * @param transformerId the id of the transformer that produced the chip
+   * @param arguments the chip request arguments
+   * @return the cached chip, or null if the chip is not cached
+   */
+  public BinaryContent getChip(
+      Metacard metacard, String transformerId, Map<String, Serializable> arguments)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+    ChipKey chipKey = createChipKey(metacard, transformerId, arguments);
+
+    if (chipKey == null) {
+      return null;
+    }
+
+    CachedChip cachedChip = chipCache.getIfPresent(chipKey);
+
+    if (cachedChip == null) {
+      return null;
+    }
+
+    checkResourceAccess(createImageKey(metacard));
+
+    return cachedChip.toBinaryContent();
+  }
+
+  /**
+   * Store an encoded chip. The content of the supplied binary content is consumed, so the caller
+   * must use the returned binary content instead.
+   *
+   * @param metacard the metacard that was chipped
+   * @param transformerId the id of the transformer that produced the chip
+   * @param arguments the chip request arguments
+   * @param binaryContent the encoded chip
+   * @return a binary content with the same data as the supplied binary content
+   * @throws IOException if the chip data cannot be read
+   */
+  public BinaryContent putChip(
+      Metacard metacard,
+      String transformerId,
+      Map<String, Serializable> arguments,
+      BinaryContent binaryContent)
+      throws IOException {
+    ChipKey chipKey = createChipKey(metacard, transformerId, arguments);
+
+    if (chipKey == null || binaryContent == null) {
+      return binaryContent;
+    }
+
+    CachedChip cachedChip;
+    try (InputStream inputStream = binaryContent.getInputStream()) {
+      cachedChip = new CachedChip(IOUtils.toByteArray(inputStream), binaryContent.getMimeType());
+    }
+
+    chipCache.put(chipKey, cachedChip);
+
+    return cachedChip.toBinaryContent();
+  }
+
+  /**
+   * Discard every cached tile and chip of the metacard.
+   *
+   * @param metacard the metacard that was updated or deleted
+   */
+  public void invalidate(Metacard metacard) {
+    if (metacard == null || metacard.getId() == null) {
+      return;
+    }
+
+    String id = metacard.getId();
+    dimensionCache.asMap().keySet().removeIf(imageKey -> id.equals(imageKey.metacardId));
+    tiles.cache.asMap().keySet().removeIf(tileKey -> id.equals(tileKey.imageKey.metacardId));
+    chipCache.asMap().keySet().removeIf(chipKey -> id.equals(chipKey.metacardId));
+  }
+
+  @Override
+  public CreateResponse process(CreateResponse input) {
+    return input;
+  }
+
+  @Override
+  public UpdateResponse process(UpdateResponse input) {
+    if (input != null && input.getUpdatedMetacards() != null) {
+      for (Update update : input.getUpdatedMetacards()) {
+        invalidate(update.getOldMetacard());
+        invalidate(update.getNewMetacard());
+      }
+    }
+    return input;
+  }
+
+  @Override
+  public DeleteResponse process(DeleteResponse input) {
+    if (input != null && input.getDeletedMetacards() != null) {
+      input.getDeletedMetacards().forEach(this::invalidate);
+    }
+    return input;
+  }
+
+  @Override
+  public double getTileHitRate() {
+    return tiles.cache.stats().hitRate();
+  }
+
+  @Override
+  public long getTileCount() {
+    return tiles.cache.size();
+  }
+
+  @Override
+  public long getTileEvictionCount() {
+    return tiles.cache.stats().evictionCount();
+  }
+
+  @Override
+  public double getChipHitRate() {
+    return chipCache.stats().hitRate();
+  }
+
+  @Override
+  public long getChipCount() {
+    return chipCache.size();
+  }
+
+  @Override
+  public long getChipEvictionCount() {
+    return chipCache.stats().evictionCount();
+  }
+
+  @Override
+  public void clear() {
+    dimensionCache.invalidateAll();
+    tiles.cache.invalidateAll();
+    chipCache.invalidateAll();
+  }
+
+  public void init() {
+    registerMbean();
+  }
+
+  public void destroy() {
+    try {
+      if (objectName != null && mBeanServer != null) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      LOGGER.info("Exception unregistering MBean: ", e);
+    }
+  }
+
+  private void registerMbean() {
+    try {
+      objectName = new ObjectName(ChipCache.class.getName() + ":service=chip-cache");
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    } catch (MalformedObjectNameException e) {
+      LOGGER.info("Unable to create Chip Cache MBean.", e);
+    }
+    if (mBeanServer == null) {
+      return;
+    }
+    try {
+      try {
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Registered Chip Cache MBean under object name: {}", objectName);
+      } catch (InstanceAlreadyExistsException e) {
+        mBeanServer.unregisterMBean(objectName);
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Re-registered Chip Cache MBean", e);
+      }
+    } catch (MBeanRegistrationException
+        | InstanceNotFoundException
+        | InstanceAlreadyExistsException
+        | NotCompliantMBeanException e) {
+      LOGGER.info("Could not register MBean [{}].", objectName, e);
+    }
+  }
+
+  private Dimension getImageDimensions(ImageKey imageKey)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+    boolean[] loaded = {false};
+
+    Dimension dimension;
+    try {
+      dimension =
+          dimensionCache.get(
+              imageKey,
+              () -> {
+                loaded[0] = true;
+                return readOriginal(imageKey, ChipCache::readHeader);
+              });
+    } catch (ExecutionException e) {
+      throw propagate(e.getCause());
+    }
+
+    // a caller that did not read the header itself has not been through the access check yet
+    if (!loaded[0]) {
+      checkResourceAccess(imageKey);
+    }
+
+    return dimension;
+  }
+
+  /**
+   * Retrieve the original image through the catalog framework, so the access policy of the caller
+   * is enforced, and close it without reading it.
+   */
+  private void checkResourceAccess(ImageKey imageKey)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+    ResourceResponse resourceResponse =
+        catalogFramework.getResource(imageKey.resourceRequest, imageKey.sourceId);
+
+    validateObjectState(resourceResponse, "resourceResponse");
+    validateObjectState(resourceResponse.getResource(), "resourceResponse.resource");
+
+    InputStream resourceStream = resourceResponse.getResource().getInputStream();
+    if (resourceStream != null) {
+      resourceStream.close();
+    }
+  }
+
+  private static Dimension readHeader(ImageReader imageReader) throws IOException {
+    return new Dimension(imageReader.getWidth(0), imageReader.getHeight(0));
+  }
+
+  /** Decode the tiles of one image with a single pass over the original image. */
+  private Map<TileKey, BufferedImage> decodeTiles(
+      ImageKey imageKey, int tileSize, Iterable<? extends TileKey> tileKeys)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+    return readOriginal(
+        imageKey,
+        imageReader -> {
+          Dimension dimension = readHeader(imageReader);
+          dimensionCache.put(imageKey, dimension);
+
+          Rectangle bounds = new Rectangle(dimension);
+          Map<TileKey, BufferedImage> decodedTiles = new HashMap<>();
+          for (TileKey tileKey : tileKeys) {
+            ImageReadParam imageReadParam = imageReader.getDefaultReadParam();
+            imageReadParam.setSourceRegion(
+                new Rectangle(tileKey.column * tileSize, tileKey.row * tileSize, tileSize, tileSize)
+                    .intersection(bounds));
+            decodedTiles.put(tileKey, imageReader.read(0, imageReadParam));
+          }
+
+          LOGGER.trace(
+              "decoded {} tiles of the original image for metacard {}",
+              decodedTiles.size(),
+              imageKey.metacardId);
+
+          return decodedTiles;
+        });
+  }
+
+  private <T> T readOriginal(ImageKey imageKey, ImageReaderFunction<T> function)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+    ResourceResponse resourceResponse =
+        catalogFramework.getResource(imageKey.resourceRequest, imageKey.sourceId);
+
+    validateObjectState(resourceResponse, "resourceResponse");
+    validateObjectState(resourceResponse.getResource(), "resourceResponse.resource");
+
+    try (InputStream resourceStream = resourceResponse.getResource().getInputStream()) {
+      validateObjectState(resourceStream, "resourceResponse.resource.inputStream");
+
+      try (BufferedInputStream bufferedInputStream = new BufferedInputStream(resourceStream);
+          ImageInputStream imageInputStream = ImageIO.createImageInputStream(bufferedInputStream)) {
+        ImageReader imageReader = getImageReader(imageInputStream);
+        try {
+          imageReader.setInput(imageInputStream, false, true);
+          return function.apply(imageReader);
+        } finally {
+          imageReader.dispose();
+        }
+      }
+    }
+  }
+
+  private ImageReader getImageReader(ImageInputStream imageInputStream) throws IOException {
+    Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageInputStream);
+
+    if (!imageReaders.hasNext()) {
+      throw new IOException("unable to find an image reader for the original image.");
+    }
+
+    return imageReaders.next();
+  }
+
+  private BufferedImage assembleRegion(
+      Rectangle region, int tileSize, Map<TileKey, BufferedImage> regionTiles) {
+    ColorModel colorModel = regionTiles.values().iterator().next().getColorModel();
+    WritableRaster raster = colorModel.createCompatibleWritableRaster(region.width, region.height);
+
+    regionTiles.forEach(
+        (tileKey, tile) -> {
+          Rectangle overlap =
+              new Rectangle(
+                      tileKey.column * tileSize,
+                      tileKey.row * tileSize,
+                      tile.getWidth(),
+                      tile.getHeight())
+                  .intersection(region);
+          // copy only the overlap, setRect does not honour negative offsets for every raster type
+          raster.setRect(
+              overlap.x - region.x,
+              overlap.y - region.y,
+              tile.getRaster()
+                  .createChild(
+                      overlap.x - tileKey.column * tileSize,
+                      overlap.y - tileKey.row * tileSize,
+                      overlap.width,
+                      overlap.height,
+                      0,
+                      0,
+                      null));
+        });
+
+    return new BufferedImage(colorModel, raster, colorModel.isAlphaPremultiplied(), null);
+  }
+
+  private static int imageWeight(BufferedImage image) {
+    long bytes =
+        (long) image.getWidth() * image.getHeight() * image.getColorModel().getPixelSize() / 8;
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, bytes));
+  }
+
+  private ImageKey createImageKey(Metacard metacard) {
+    Attribute resourceUri = metacard.getAttribute(Core.RESOURCE_URI);
+    return new ImageKey(
+        metacard.getId(),
+        resourceUri == null ? null : String.valueOf(resourceUri.getValue()),
+        getModified(metacard),
+        catalogInputAdapter.buildReadRequest(metacard, ORIGINAL),
+        catalogInputAdapter.getResourceSiteName(metacard));
+  }
+
+  private static Cache<ChipKey, CachedChip> createChipCache(int chipCacheSizeMB) {
+    return CacheBuilder.newBuilder()
+        .maximumWeight(chipCacheSizeMB * MEGABYTE)
+        .weigher((ChipKey key, CachedChip chip) -> Math.max(1, chip.data.length))
+        .recordStats()
+        .build();
+  }
+
+  private static IOException propagate(Throwable cause)
+      throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+    Throwables.throwIfInstanceOf(cause, IOException.class);
+    Throwables.throwIfInstanceOf(cause, ResourceNotFoundException.class);
+    Throwables.throwIfInstanceOf(cause, ResourceNotSupportedException.class);
+    Throwables.throwIfUnchecked(cause);
+    return new IOException("unable to read the original image.", cause);
+  }
+
+  /** Returns null when the arguments do not describe a complete chip request. */
+  private ChipKey createChipKey(
+      Metacard metacard, String transformerId, Map<String, Serializable> arguments) {
+    if (metacard == null || metacard.getId() == null || arguments == null) {
+      return null;
+    }
+
+    int[] values = new int[CHIP_ARGS.length];
+    for (int i = 0; i < CHIP_ARGS.length; i++) {
+      Serializable value = arguments.get(CHIP_ARGS[i]);
+      if (value == null) {
+        return null;
+      }
+      try {
+        values[i] = Integer.parseInt(value.toString().trim());
+      } catch (NumberFormatException e) {
+        LOGGER.debug("unable to normalize the chip argument '{}'", CHIP_ARGS[i], e);
+        return null;
+      }
+    }
+
+    return new ChipKey(
+        metacard.getSourceId(), metacard.getId(), getModified(metacard), transformerId, values);
+  }
+
+  private long getModified(Metacard metacard) {
+    Attribute modified = metacard.getAttribute(Core.MODIFIED);
+
+    if (modified != null && modified.getValue() instanceof Date) {
+      return ((Date) modified.getValue()).getTime();
+    }
+
+    return 0L;
+  }
+
+  private void validateArgument(Object value, String argumentName) {
+    if (value == null) {
+      throw new IllegalArgumentException(
+          String.format("argument '%s' may not be null.", argumentName));
+    }
+  }
+
+  private void validateObjectState(Object value, String argumentName) {
+    if (value == null) {
+      throw new IllegalStateException(
+          String.format("object property '%s' may not be null.", argumentName));
+    }
+  }
+
+  private static class CachedChip {
+
+    private final byte[] data;
+
+    private final MimeType mimeType;
+
+    CachedChip(byte[] data, MimeType mimeType) {
+      this.data = data;
+      this.mimeType = mimeType;
+    }
+
+    BinaryContent toBinaryContent() {
+      return new BinaryContentImpl(new ByteArrayInputStream(data), mimeType);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ImageReaderFunction<T> {
+    T apply(ImageReader imageReader) throws IOException;
+  }
+
+  /** The decoded tiles of one tile size, replaced as a whole when the configuration changes. */
+  private class Tiles {
+
+    private final int tileSize;
+
+    private final LoadingCache<TileKey, BufferedImage> cache;
+
+    Tiles(int tileSize, int tileCacheSizeMB) {
+      this.tileSize = tileSize;
+      this.cache =
+          CacheBuilder.newBuilder()
+              .maximumWeight(tileCacheSizeMB * MEGABYTE)
+              .weigher((TileKey key, BufferedImage tile) -> imageWeight(tile))
+              .recordStats()
+              .build(new TileLoader(tileSize));
+    }
+
+    /**
+     * Returns the tiles of one image, decoding the missing tiles with a single pass over the
+     * original image. The returned map holds every tile even if the cache evicts some of them
+     * immediately.
+     */
+    Map<TileKey, BufferedImage> get(ImageKey imageKey, List<TileKey> tileKeys)
+        throws IOException, ResourceNotFoundException, ResourceNotSupportedException {
+      // asMap() does not record statistics, so a miss is counted once, by getAll
+      if (cache.asMap().keySet().containsAll(tileKeys)) {
+        Map<TileKey, BufferedImage> present = cache.getAllPresent(tileKeys);
+        if (present.size() == tileKeys.size()) {
+          return present;
+        }
+      }
+
+      Lock lock = imageLocks.get(imageKey);
+      lock.lock();
+      try {
+        return cache.getAll(tileKeys);
+      } catch (ExecutionException e) {
+        throw propagate(e.getCause());
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /** Decodes tiles on a miss. The tiles of one {@code getAll} call belong to the same image. */
+  private class TileLoader extends CacheLoader<TileKey, BufferedImage> {
+
+    private final int tileSize;
+
+    TileLoader(int tileSize) {
+      this.tileSize = tileSize;
+    }
+
+    @Override
+    public BufferedImage load(TileKey tileKey) throws Exception {
+      return decodeTiles(tileKey.imageKey, tileSize, Collections.singleton(tileKey)).get(tileKey);
+    }
+
+    @Override
+    public Map<TileKey, BufferedImage> loadAll(Iterable<? extends TileKey> tileKeys)
+        throws Exception {
+      Iterator<? extends TileKey> iterator = tileKeys.iterator();
+      if (!iterator.hasNext()) {
+        return Collections.emptyMap();
+      }
+      TileKey first = iterator.next();
+      return decodeTiles(first.imageKey, tileSize, tileKeys);
+    }
+  }
+
+  private static class ImageKey {
+
+    private final String metacardId;
+
+    private final String resourceUri;
+
+    private final long modified;
+
+    /** Loads the original image. Equal keys load the same image, so it is not part of equality. */
+    private final ResourceRequest resourceRequest;
+
+    private final String sourceId;
+
+    ImageKey(
+        String metacardId,
+        String resourceUri,
+        long modified,
+        ResourceRequest resourceRequest,
+        String sourceId) {
+      this.metacardId = metacardId;
+      this.resourceUri = resourceUri;
+      this.modified = modified;
+      this.resourceRequest = resourceRequest;
+      this.sourceId = sourceId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ImageKey imageKey = (ImageKey) o;
+      return modified == imageKey.modified
+          && Objects.equals(metacardId, imageKey.metacardId)
+          && Objects.equals(resourceUri, imageKey.resourceUri);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(metacardId, resourceUri, modified);
+    }
+  }
+
+  private static class TileKey {
+
+    private final ImageKey imageKey;
+
+    private final int column;
+
+    private final int row;
+
+    TileKey(ImageKey imageKey, int column, int row) {
+      this.imageKey = imageKey;
+      this.column = column;
+      this.row = row;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      TileKey tileKey = (TileKey) o;
+      return column == tileKey.column && row == tileKey.row && imageKey.equals(tileKey.imageKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(imageKey, column, row);
+    }
+  }
+
+  private static class ChipKey {
+
+    private final String sourceId;
+
+    private final String metacardId;
+
+    private final long modified;
+
+    private final String transformerId;
+
+    private final int[] region;
+
+    ChipKey(String sourceId, String metacardId, long modified, String transformerId, int[] region) {
+      this.sourceId = sourceId;
+      this.metacardId = metacardId;
+      this.modified = modified;
+      this.transformerId = transformerId;
+      this.region = region;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ChipKey chipKey = (ChipKey) o;
+      return modified == chipKey.modified
+          && Objects.equals(sourceId, chipKey.sourceId)
+          && Objects.equals(metacardId, chipKey.metacardId)
+          && Objects.equals(transformerId, chipKey.transformerId)
+          && Arrays.equals(region, chipKey.region);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hash(sourceId, metacardId, modified, transformerId)
+          + Arrays.hashCode(region);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.imaging.chip.transformer;
+
+/** Exposes the hit-rate metrics of the {@link ChipCache} through JMX. */
+public interface ChipCacheMBean {
+
+  /** @return the fraction of decoded tile requests that were served from the cache. */
+  double getTileHitRate();
+
+  /** @return the number of decoded tiles currently held by the cache. */
+  long getTileCount();
+
+  /** @return the number of decoded tiles evicted from the cache. */
+  long getTileEvictionCount();
+
+  /** @return the fraction of chip requests that were served from the cache. */
+  double getChipHitRate();
+
+  /** @return the number of encoded chips currently held by the cache. */
+  long getChipCount();
+
+  /** @return the number of encoded chips evicted from the cache. */
+  long getChipEvictionCount();
+
+  /** Discard every cached tile and chip. */
+  void clear();
+}
@@ -13,7 +13,7 @@
  */
 package org.codice.alliance.imaging.chip.transformer;
 
-import java.awt.image.BufferedImage;
+import java.awt.Dimension;
 import java.io.Serializable;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -28,14 +28,14 @@ public class CropAdapter {
   private static final Logger LOGGER = LoggerFactory.getLogger(CropAdapter.class);
 
   /**
-   * @param original the full-sized image that the chip will be taken from.
-   * @param overview a scaled-down version of the same image.
+   * @param original the dimensions of the full-sized image that the chip will be taken from.
+   * @param overview the dimensions of a scaled-down version of the same image.
    * @param args A map containing values for the top left corner of the chip (x, y) and the height
    *     and width of the chip (w, h) as taken from the overview image.
    * @return a vector of [x, y, w, h] translated to the full size image.
    */
   public int[] scaleChip(
-      BufferedImage original, BufferedImage overview, Map<String, Serializable> args) {
+      Dimension original, Dimension overview, Map<String, Serializable> args) {
 
     if (args == null) {
       throw new IllegalArgumentException("method argument 'args' may not be null.");
@@ -48,8 +48,8 @@ public class CropAdapter {
 
     double scaleFactor = 1.0;
 
-    if (original != null && overview != null) {
-      scaleFactor = original.getWidth() / ((double) overview.getWidth());
+    if (original != null && overview != null && overview.getWidth() > 0) {
+      scaleFactor = original.getWidth() / overview.getWidth();
     }
 
     int scaledX = multiply(scaleFactor, x);
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.imaging.chip.transformer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.CatalogFramework;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.BinaryContentImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.operation.ResourceRequest;
+import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.operation.Update;
+import ddf.catalog.operation.UpdateResponse;
+import ddf.catalog.resource.Resource;
+import ddf.catalog.resource.ResourceNotFoundException;
+import ddf.catalog.transform.CatalogTransformerException;
+import ddf.catalog.transform.MetacardTransformer;
+import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.activation.MimeType;
+import org.apache.commons.io.IOUtils;
+import org.codice.alliance.imaging.chip.service.api.ChipService;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingChipTransformerTest {
+
+  private MetacardTransformer delegate;
+
+  private CatalogFramework catalogFramework;
+
+  private ChipCache chipCache;
+
+  private CachingChipTransformer cachingChipTransformer;
+
+  private MetacardImpl metacard;
+
+  private Map<String, Serializable> args;
+
+  @Before
+  public void setUp() throws Exception {
+    delegate = mock(MetacardTransformer.class);
+    when(delegate.transform(any(Metacard.class), anyMapOf(String.class, Serializable.class)))
+        .thenAnswer(
+            invocation ->
+                new BinaryContentImpl(
+                    new ByteArrayInputStream(new byte[] {4, 5, 6}), new MimeType("image/jpeg")));
+
+    catalogFramework = mock(CatalogFramework.class);
+    Resource resource = mock(Resource.class);
+    when(resource.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+    ResourceResponse resourceResponse = mock(ResourceResponse.class);
+    when(resourceResponse.getResource()).thenReturn(resource);
+    when(catalogFramework.getResource(any(ResourceRequest.class), anyString()))
+        .thenReturn(resourceResponse);
+
+    chipCache = new ChipCache(catalogFramework, new CatalogInputAdapter(), mock(ChipService.class));
+    chipCache.setChipCacheSizeMB(1);
+    cachingChipTransformer = new CachingChipTransformer(delegate, chipCache, "jpeg-chip");
+
+    metacard = new MetacardImpl();
+    metacard.setId("id");
+    metacard.setResourceURI(new URI("content:id"));
+
+    args = new HashMap<>();
+    args.put("x", 1);
+    args.put("y", 2);
+    args.put("w", 3);
+    args.put("h", 4);
+  }
+
+  @Test
+  public void testRepeatedRequestIsServedFromCache() throws Exception {
+    assertThat(
+        IOUtils.toByteArray(cachingChipTransformer.transform(metacard, args).getInputStream()),
+        is(new byte[] {4, 5, 6}));
+    assertThat(
+        IOUtils.toByteArray(cachingChipTransformer.transform(metacard, args).getInputStream()),
+        is(new byte[] {4, 5, 6}));
+
+    verify(delegate, times(1)).transform(metacard, args);
+    verify(catalogFramework, times(1)).getResource(any(ResourceRequest.class), anyString());
+    assertThat(chipCache.getChipHitRate(), closeTo(0.5, 0.001));
+  }
+
+  @Test
+  public void testCachedChipIsNotServedWhenAccessIsDenied() throws Exception {
+    cachingChipTransformer.transform(metacard, args);
+    doThrow(new ResourceNotFoundException("denied"))
+        .when(catalogFramework)
+        .getResource(any(ResourceRequest.class), anyString());
+
+    try {
+      cachingChipTransformer.transform(metacard, args);
+      fail("the cached chip was served without an access check");
+    } catch (CatalogTransformerException e) {
+      assertThat(e.getCause(), instanceOf(ResourceNotFoundException.class));
+    }
+  }
+
+  @Test
+  public void testUpdateInvalidates() throws Exception {
+    cachingChipTransformer.transform(metacard, args);
+
+    Update update = mock(Update.class);
+    when(update.getOldMetacard()).thenReturn(metacard);
+    when(update.getNewMetacard()).thenReturn(metacard);
+    UpdateResponse updateResponse = mock(UpdateResponse.class);
+    when(updateResponse.getUpdatedMetacards()).thenReturn(Collections.singletonList(update));
+    chipCache.process(updateResponse);
+
+    cachingChipTransformer.transform(metacard, args);
+
+    verify(delegate, times(2)).transform(metacard, args);
+  }
+
+  @Test
+  public void testDifferentRegionIsNotServedFromCache() throws Exception {
+    cachingChipTransformer.transform(metacard, args);
+
+    Map<String, Serializable> otherArgs = new HashMap<>(args);
+    otherArgs.put("w", 30);
+    cachingChipTransformer.transform(metacard, otherArgs);
+
+    verify(delegate, times(1)).transform(metacard, args);
+    verify(delegate, times(1)).transform(metacard, otherArgs);
+  }
+}
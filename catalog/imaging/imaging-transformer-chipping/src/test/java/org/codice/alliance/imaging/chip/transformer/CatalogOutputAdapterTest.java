@@ -30,12 +30,14 @@ import com.google.common.io.ByteSource;
 import ddf.catalog.data.BinaryContent;
 import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.resource.Resource;
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -129,6 +131,41 @@ public class CatalogOutputAdapterTest {
     assertThat(image.getHeight(), is(1024));
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetImageDimensionsNullCatalogResponse() throws IOException {
+    catalogOutputAdapter.getImageDimensions(null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGetImageDimensionsNullInputStream() throws IOException {
+    ResourceResponse resourceResponse = mock(ResourceResponse.class);
+    Resource resource = mock(Resource.class);
+    when(resourceResponse.getResource()).thenReturn(resource);
+    when(resource.getInputStream()).thenReturn(null);
+    catalogOutputAdapter.getImageDimensions(resourceResponse);
+  }
+
+  @Test(expected = IOException.class)
+  public void testGetImageDimensionsUnknownFormat() throws IOException {
+    ResourceResponse resourceResponse = mock(ResourceResponse.class);
+    Resource resource = mock(Resource.class);
+    when(resourceResponse.getResource()).thenReturn(resource);
+    when(resource.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+    catalogOutputAdapter.getImageDimensions(resourceResponse);
+  }
+
+  @Test
+  public void testGetImageDimensions() throws IOException {
+    InputStream is = getInputStream(I_3001A);
+    ResourceResponse resourceResponse = mock(ResourceResponse.class);
+    Resource resource = mock(Resource.class);
+    when(resourceResponse.getResource()).thenReturn(resource);
+    when(resource.getInputStream()).thenReturn(is);
+    Dimension dimension = catalogOutputAdapter.getImageDimensions(resourceResponse);
+    assertThat(dimension.width, is(1024));
+    assertThat(dimension.height, is(1024));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void testGetBinaryContentNullImage() throws IOException, MimeTypeParseException {
     catalogOutputAdapter.getBinaryContent(null);
@@ -589,9 +626,47 @@ public class CatalogOutputAdapterTest {
     assertThat(tre.getDoubleValue("FI_COL_22"), closeTo(originalWidth - chipX - 0.5, 0.01));
   }
 
+  @Test(expected = NitfFormatException.class)
+  public void testGetNitfSegmentsFlowInvalidNitf() throws NitfFormatException {
+    catalogOutputAdapter.getNitfSegmentsFlow(new ByteArrayInputStream(new byte[] {(byte) 0}));
+  }
+
+  /** Test that the header-only parse of the original keeps the TREs that are copied to a chip. */
+  @Test
+  public void testGetNitfSegmentsFlowKeepsTres()
+      throws MimeTypeParseException, NitfFormatException, IOException, NoSuchMethodException,
+          IllegalAccessException, InvocationTargetException, InstantiationException {
+    int chipX = 20;
+    int chipY = 10;
+
+    BinaryContent binaryContent =
+        catalogOutputAdapter.getNitfBinaryContent(
+            new BufferedImage(160, 80, BufferedImage.TYPE_BYTE_GRAY),
+            createGenericNitfSegmentFlow(200, 100),
+            chipX,
+            chipY);
+
+    NitfSegmentsFlow nitfSegmentsFlow;
+    try (InputStream inputStream = binaryContent.getInputStream()) {
+      nitfSegmentsFlow = catalogOutputAdapter.getNitfSegmentsFlow(inputStream);
+    }
+
+    List<Tre> tres = new ArrayList<>();
+    nitfSegmentsFlow.forEachImageSegment(
+        imageSegment -> tres.addAll(imageSegment.getTREsRawStructure().getTREs()));
+    nitfSegmentsFlow.end();
+
+    Optional<Tre> ichipb = tres.stream().filter(tre -> "ICHIPB".equals(tre.getName())).findFirst();
+    assertThat(ichipb.isPresent(), is(true));
+    assertThat(ichipb.get().getDoubleValue("FI_ROW_11"), closeTo(chipY + 0.5, 0.01));
+    assertThat(ichipb.get().getDoubleValue("FI_COL_11"), closeTo(chipX + 0.5, 0.01));
+  }
+
   /** Test that if the TFBOS throws an exception, the TFBOS is closed */
   @Test
-  public void testGetNitfSegmentsFlowTFBOSThrows() throws IOException, NitfFormatException {
+  public void testGetNitfBinaryContentTFBOSThrows()
+      throws IOException, NitfFormatException, MimeTypeParseException, NoSuchMethodException,
+          IllegalAccessException, InvocationTargetException, InstantiationException {
 
     TemporaryFileBackedOutputStream tfbos = mock(TemporaryFileBackedOutputStream.class);
     doThrow(IOException.class).when(tfbos).write(anyObject(), anyInt(), anyInt());
@@ -605,27 +680,24 @@ public class CatalogOutputAdapterTest {
         };
 
     try {
-      catalogOutputAdapter.getNitfSegmentsFlow(new ByteArrayInputStream(new byte[] {(byte) 0}));
+      catalogOutputAdapter.getNitfBinaryContent(
+          new BufferedImage(160, 80, BufferedImage.TYPE_BYTE_GRAY),
+          createGenericNitfSegmentFlow(200, 100),
+          0,
+          0);
       fail("expected an exception, shouldn't reach this line");
-    } catch (IOException e) {
+    } catch (IOException | NitfFormatException e) {
       assertThat(e, notNullValue());
     }
 
     verify(tfbos).close();
   }
 
-  @Test
-  public void testFormatToDMS() {
-    assertThat(catalogOutputAdapter.formatToDMS(30, 30), is("300000N0300000E"));
-    assertThat(catalogOutputAdapter.formatToDMS(-30, 30), is("300000S0300000E"));
-    assertThat(catalogOutputAdapter.formatToDMS(30, -30), is("300000N0300000W"));
-    assertThat(catalogOutputAdapter.formatToDMS(-30, -30), is("300000S0300000W"));
-  }
-
   @SuppressWarnings("unchecked")
   @Test
-  public void testGetNitfSegmentsFlowTFBOSThrowsDuringRead()
-      throws IOException, NitfFormatException {
+  public void testGetNitfBinaryContentTFBOSThrowsDuringRead()
+      throws IOException, NitfFormatException, MimeTypeParseException, NoSuchMethodException,
+          IllegalAccessException, InvocationTargetException, InstantiationException {
 
     InputStream inputStream = mock(InputStream.class);
     when(inputStream.read()).thenThrow(IOException.class);
@@ -646,10 +718,17 @@ public class CatalogOutputAdapterTest {
           }
         };
 
-    try {
-      catalogOutputAdapter.getNitfSegmentsFlow(new ByteArrayInputStream(new byte[] {(byte) 0}));
+    BinaryContent binaryContent =
+        catalogOutputAdapter.getNitfBinaryContent(
+            new BufferedImage(160, 80, BufferedImage.TYPE_BYTE_GRAY),
+            createGenericNitfSegmentFlow(200, 100),
+            0,
+            0);
+
+    try (InputStream chipInputStream = binaryContent.getInputStream()) {
+      chipInputStream.read();
       fail("expected an exception, shouldn't reach this line");
-    } catch (IOException | NitfFormatException e) {
+    } catch (IOException e) {
       assertThat(e, notNullValue());
     }
 
@@ -659,8 +738,9 @@ public class CatalogOutputAdapterTest {
 
   @SuppressWarnings("unchecked")
   @Test
-  public void testGetNitfSegmentsFlowTFBOSAsBytesourceThrows()
-      throws IOException, NitfFormatException {
+  public void testGetNitfBinaryContentTFBOSAsBytesourceThrows()
+      throws IOException, NitfFormatException, MimeTypeParseException, NoSuchMethodException,
+          IllegalAccessException, InvocationTargetException, InstantiationException {
 
     ByteSource byteSource = mock(ByteSource.class);
     when(byteSource.openBufferedStream()).thenThrow(IOException.class);
@@ -677,15 +757,27 @@ public class CatalogOutputAdapterTest {
         };
 
     try {
-      catalogOutputAdapter.getNitfSegmentsFlow(new ByteArrayInputStream(new byte[] {(byte) 0}));
+      catalogOutputAdapter.getNitfBinaryContent(
+          new BufferedImage(160, 80, BufferedImage.TYPE_BYTE_GRAY),
+          createGenericNitfSegmentFlow(200, 100),
+          0,
+          0);
       fail("expected an exception, shouldn't reach this line");
-    } catch (IOException | NitfFormatException e) {
+    } catch (IOException e) {
       assertThat(e, notNullValue());
     }
 
     verify(tfbos).close();
   }
 
+  @Test
+  public void testFormatToDMS() {
+    assertThat(catalogOutputAdapter.formatToDMS(30, 30), is("300000N0300000E"));
+    assertThat(catalogOutputAdapter.formatToDMS(-30, 30), is("300000S0300000E"));
+    assertThat(catalogOutputAdapter.formatToDMS(30, -30), is("300000N0300000W"));
+    assertThat(catalogOutputAdapter.formatToDMS(-30, -30), is("300000S0300000W"));
+  }
+
   private ImageCoordinates getImageCoordinates() throws NitfFormatException {
     return new ImageCoordinatesImpl(
         new ImageCoordinatePair[] {
@@ -0,0 +1,354 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.imaging.chip.transformer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.CatalogFramework;
+import ddf.catalog.data.BinaryContent;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.BinaryContentImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.operation.DeleteResponse;
+import ddf.catalog.operation.ResourceRequest;
+import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.resource.Resource;
+import ddf.catalog.resource.ResourceNotFoundException;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import javax.activation.MimeType;
+import javax.imageio.ImageIO;
+import org.apache.commons.io.IOUtils;
+import org.codice.alliance.imaging.chip.service.api.ChipOutOfBoundsException;
+import org.codice.alliance.imaging.chip.service.api.ChipService;
+import org.codice.alliance.imaging.chip.service.impl.ChipServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChipCacheTest {
+
+  private static final String I_3001A = "/i_3001a.png";
+
+  private static final int TILE_SIZE = 256;
+
+  private CatalogFramework catalogFramework;
+
+  private ChipCache chipCache;
+
+  private MetacardImpl metacard;
+
+  private BufferedImage originalImage;
+
+  private ChipService chipService = new ChipServiceImpl();
+
+  @Before
+  public void setUp() throws Exception {
+    originalImage = ImageIO.read(getClass().getResourceAsStream(I_3001A));
+
+    catalogFramework = mock(CatalogFramework.class);
+    when(catalogFramework.getResource(any(ResourceRequest.class), anyString()))
+        .thenAnswer(
+            invocation -> {
+              Resource resource = mock(Resource.class);
+              when(resource.getInputStream()).thenReturn(getClass().getResourceAsStream(I_3001A));
+              ResourceResponse resourceResponse = mock(ResourceResponse.class);
+              when(resourceResponse.getResource()).thenReturn(resource);
+              return resourceResponse;
+            });
+
+    chipCache = new ChipCache(catalogFramework, new CatalogInputAdapter(), chipService);
+    chipCache.setTileSize(TILE_SIZE);
+    chipCache.setTileCacheSizeMB(64);
+    chipCache.setChipCacheSizeMB(8);
+
+    metacard = new MetacardImpl();
+    metacard.setId("id");
+    metacard.setSourceId("source");
+    metacard.setResourceURI(new URI("content:id"));
+    metacard.setModifiedDate(new Date(1000L));
+  }
+
+  @Test
+  public void testGetImageDimensions() throws Exception {
+    Dimension dimension = chipCache.getImageDimensions(metacard);
+
+    assertThat(dimension.width, is(1024));
+    assertThat(dimension.height, is(1024));
+
+    chipCache.getImageDimensions(metacard);
+
+    // one read for the image header and one access check for the cached dimensions
+    verify(catalogFramework, times(2)).getResource(any(ResourceRequest.class), anyString());
+  }
+
+  @Test
+  public void testGetRegionMatchesOriginal() throws Exception {
+    BufferedImage region = chipCache.getRegion(metacard, 200, 300, 400, 100);
+
+    assertThat(region.getWidth(), is(400));
+    assertThat(region.getHeight(), is(100));
+    for (int y = 0; y < region.getHeight(); y += 7) {
+      for (int x = 0; x < region.getWidth(); x += 7) {
+        assertThat(region.getRGB(x, y), is(originalImage.getRGB(200 + x, 300 + y)));
+      }
+    }
+  }
+
+  @Test
+  public void testGetRegionClampsToImage() throws Exception {
+    BufferedImage region = chipCache.getRegion(metacard, 900, -10, 400, 100);
+
+    assertThat(region.getWidth(), is(124));
+    assertThat(region.getHeight(), is(100));
+  }
+
+  @Test
+  public void testGetRegionMatchesChipServiceAtEdges() throws Exception {
+    int[][] regions = {{-100, -100, 100, 100}, {900, -10, 400, 100}, {1000, 1000, 50, 50}};
+
+    for (int[] r : regions) {
+      BufferedImage cached = chipCache.getRegion(metacard, r[0], r[1], r[2], r[3]);
+      BufferedImage cropped = chipService.crop(originalImage, r[0], r[1], r[2], r[3]);
+
+      assertThat(cached.getWidth(), is(cropped.getWidth()));
+      assertThat(cached.getHeight(), is(cropped.getHeight()));
+      for (int y = 0; y < cached.getHeight(); y += 5) {
+        for (int x = 0; x < cached.getWidth(); x += 5) {
+          assertThat(cached.getRGB(x, y), is(cropped.getRGB(x, y)));
+        }
+      }
+    }
+  }
+
+  @Test(expected = ChipOutOfBoundsException.class)
+  public void testGetRegionAtImageEdge() throws Exception {
+    chipCache.getRegion(metacard, 1024, 0, 10, 10);
+  }
+
+  @Test(expected = ChipOutOfBoundsException.class)
+  public void testGetRegionNegativeWidth() throws Exception {
+    chipCache.getRegion(metacard, 0, 0, -1, 10);
+  }
+
+  @Test(expected = ChipOutOfBoundsException.class)
+  public void testGetRegionOutsideImage() throws Exception {
+    chipCache.getRegion(metacard, 2000, 0, 10, 10);
+  }
+
+  @Test
+  public void testTilesAreReused() throws Exception {
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+    chipCache.getRegion(metacard, 10, 10, 100, 100);
+
+    // one read for the image header, one for the first tile and one access check for the hit
+    verify(catalogFramework, times(3)).getResource(any(ResourceRequest.class), anyString());
+    assertThat(chipCache.getTileCount(), is(1L));
+    assertThat(chipCache.getTileHitRate(), closeTo(0.5, 0.001));
+  }
+
+  @Test(expected = ResourceNotFoundException.class)
+  public void testCachedTilesRecheckResourceAccess() throws Exception {
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+    doThrow(new ResourceNotFoundException("denied"))
+        .when(catalogFramework)
+        .getResource(any(ResourceRequest.class), anyString());
+
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+  }
+
+  @Test
+  public void testConcurrentMissesDecodeTilesOnce() throws Exception {
+    chipCache.getImageDimensions(metacard);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              release.await();
+              Resource resource = mock(Resource.class);
+              when(resource.getInputStream()).thenReturn(getClass().getResourceAsStream(I_3001A));
+              ResourceResponse resourceResponse = mock(ResourceResponse.class);
+              when(resourceResponse.getResource()).thenReturn(resource);
+              return resourceResponse;
+            })
+        .when(catalogFramework)
+        .getResource(any(ResourceRequest.class), anyString());
+
+    FutureTask<BufferedImage> first = new FutureTask<>(() -> getRegion(0, 0, 100, 100));
+    FutureTask<BufferedImage> second = new FutureTask<>(() -> getRegion(10, 10, 100, 100));
+    Thread firstThread = new Thread(first);
+    Thread secondThread = new Thread(second);
+    firstThread.start();
+    secondThread.start();
+
+    // both requests are waiting, either for the original image or for the other request
+    awaitWaiting(firstThread);
+    awaitWaiting(secondThread);
+    release.countDown();
+
+    assertThat(first.get(10, TimeUnit.SECONDS).getWidth(), is(100));
+    assertThat(second.get(10, TimeUnit.SECONDS).getWidth(), is(100));
+
+    // one read for the image header, one access check per request and one for the shared tile
+    verify(catalogFramework, times(4)).getResource(any(ResourceRequest.class), anyString());
+    assertThat(chipCache.getTileCount(), is(1L));
+  }
+
+  @Test
+  public void testTileCacheSizeIsConfigurable() throws Exception {
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+    assertThat(chipCache.getTileCount(), is(1L));
+
+    chipCache.setTileCacheSizeMB(0);
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+
+    assertThat(chipCache.getTileCount(), is(0L));
+  }
+
+  @Test
+  public void testChipCacheSizeIsConfigurable() throws Exception {
+    chipCache.setChipCacheSizeMB(0);
+    chipCache.putChip(
+        metacard,
+        "jpeg-chip",
+        chipArgs(),
+        new BinaryContentImpl(
+            new ByteArrayInputStream(new byte[] {1}), new MimeType("image/jpeg")));
+
+    assertThat(chipCache.getChipCount(), is(0L));
+  }
+
+  @Test
+  public void testModifiedMetacardMissesTiles() throws Exception {
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+    metacard.setModifiedDate(new Date(2000L));
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+
+    verify(catalogFramework, times(4)).getResource(any(ResourceRequest.class), anyString());
+  }
+
+  @Test
+  public void testChipCache() throws Exception {
+    Map<String, Serializable> args = chipArgs();
+
+    assertThat(chipCache.getChip(metacard, "jpeg-chip", args), is(nullValue()));
+
+    BinaryContent stored =
+        chipCache.putChip(
+            metacard,
+            "jpeg-chip",
+            args,
+            new BinaryContentImpl(
+                new ByteArrayInputStream(new byte[] {1, 2, 3}), new MimeType("image/jpeg")));
+
+    assertThat(IOUtils.toByteArray(stored.getInputStream()), is(new byte[] {1, 2, 3}));
+
+    args.put("x", " 10");
+    BinaryContent cached = chipCache.getChip(metacard, "jpeg-chip", args);
+    assertThat(cached, is(notNullValue()));
+    assertThat(IOUtils.toByteArray(cached.getInputStream()), is(new byte[] {1, 2, 3}));
+    assertThat(chipCache.getChip(metacard, "nitf-chip", args), is(nullValue()));
+    assertThat(chipCache.getChipCount(), is(1L));
+  }
+
+  @Test(expected = ResourceNotFoundException.class)
+  public void testCachedChipRechecksResourceAccess() throws Exception {
+    chipCache.putChip(
+        metacard,
+        "jpeg-chip",
+        chipArgs(),
+        new BinaryContentImpl(
+            new ByteArrayInputStream(new byte[] {1}), new MimeType("image/jpeg")));
+    doThrow(new ResourceNotFoundException("denied"))
+        .when(catalogFramework)
+        .getResource(any(ResourceRequest.class), anyString());
+
+    chipCache.getChip(metacard, "jpeg-chip", chipArgs());
+  }
+
+  @Test
+  public void testIncompleteChipRequestIsNotCached() throws Exception {
+    Map<String, Serializable> args = chipArgs();
+    args.remove("h");
+    BinaryContent binaryContent =
+        new BinaryContentImpl(
+            new ByteArrayInputStream(new byte[] {1}), new MimeType("image/jpeg"));
+
+    assertThat(chipCache.putChip(metacard, "jpeg-chip", args, binaryContent), is(binaryContent));
+    assertThat(chipCache.getChipCount(), is(0L));
+  }
+
+  @Test
+  public void testDeleteInvalidates() throws Exception {
+    chipCache.getRegion(metacard, 0, 0, 100, 100);
+    chipCache.putChip(
+        metacard,
+        "jpeg-chip",
+        chipArgs(),
+        new BinaryContentImpl(
+            new ByteArrayInputStream(new byte[] {1}), new MimeType("image/jpeg")));
+
+    DeleteResponse deleteResponse = mock(DeleteResponse.class);
+    when(deleteResponse.getDeletedMetacards())
+        .thenReturn(Collections.<Metacard>singletonList(metacard));
+    chipCache.process(deleteResponse);
+
+    assertThat(chipCache.getTileCount(), is(0L));
+    assertThat(chipCache.getChipCount(), is(0L));
+  }
+
+  private BufferedImage getRegion(int x, int y, int w, int h) throws Exception {
+    return chipCache.getRegion(metacard, x, y, w, h);
+  }
+
+  private void awaitWaiting(Thread thread) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (thread.getState() != Thread.State.WAITING) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("the chip request did not start");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private Map<String, Serializable> chipArgs() {
+    Map<String, Serializable> args = new HashMap<>();
+    args.put("x", 10);
+    args.put("y", 20);
+    args.put("w", 30);
+    args.put("h", 40);
+    return args;
+  }
+}
@@ -15,10 +15,8 @@ package org.codice.alliance.imaging.chip.transformer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
-import java.awt.image.BufferedImage;
+import java.awt.Dimension;
 import java.io.Serializable;
 import java.util.Map;
 import org.apache.commons.collections.map.HashedMap;
@@ -26,9 +24,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 public class CropAdapterTest {
-  private BufferedImage originalImage;
+  private Dimension originalDimension;
 
-  private BufferedImage overviewImage;
+  private Dimension overviewDimension;
 
   private Map<String, Serializable> args;
 
@@ -37,14 +35,14 @@ public class CropAdapterTest {
   @Before
   public void setUp() {
     this.cropAdapter = new CropAdapter();
-    this.originalImage = mock(BufferedImage.class);
-    this.overviewImage = mock(BufferedImage.class);
+    this.originalDimension = new Dimension(1024, 1024);
+    this.overviewDimension = new Dimension(1024, 1024);
     this.args = new HashedMap();
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void testNullArguments() {
-    cropAdapter.scaleChip(originalImage, overviewImage, null);
+    cropAdapter.scaleChip(originalDimension, overviewDimension, null);
   }
 
   @Test(expected = IllegalArgumentException.class)
@@ -52,7 +50,7 @@ public class CropAdapterTest {
     args.put("x", 10);
     args.put("y", 20);
     args.put("w", 30);
-    cropAdapter.scaleChip(originalImage, overviewImage, args);
+    cropAdapter.scaleChip(originalDimension, overviewDimension, args);
   }
 
   @Test(expected = IllegalArgumentException.class)
@@ -60,7 +58,7 @@ public class CropAdapterTest {
     args.put("x", 10);
     args.put("y", 20);
     args.put("h", 30);
-    cropAdapter.scaleChip(originalImage, overviewImage, args);
+    cropAdapter.scaleChip(originalDimension, overviewDimension, args);
   }
 
   @Test(expected = IllegalArgumentException.class)
@@ -68,7 +66,7 @@ public class CropAdapterTest {
     args.put("y", 10);
     args.put("w", 20);
     args.put("h", 30);
-    cropAdapter.scaleChip(originalImage, overviewImage, args);
+    cropAdapter.scaleChip(originalDimension, overviewDimension, args);
   }
 
   @Test(expected = IllegalArgumentException.class)
@@ -76,20 +74,18 @@ public class CropAdapterTest {
     args.put("x", 10);
     args.put("w", 20);
     args.put("h", 30);
-    cropAdapter.scaleChip(originalImage, overviewImage, args);
+    cropAdapter.scaleChip(originalDimension, overviewDimension, args);
   }
 
   @Test
   public void testScaleChipNullOriginal() {
-    when(overviewImage.getWidth()).thenReturn(1024);
-    when(overviewImage.getHeight()).thenReturn(1024);
     int[] values = new int[] {100, 100, 512, 512};
     args.put("x", values[0]);
     args.put("y", values[1]);
     args.put("w", values[2]);
     args.put("h", values[3]);
 
-    int[] scaledValues = cropAdapter.scaleChip(null, overviewImage, args);
+    int[] scaledValues = cropAdapter.scaleChip(null, overviewDimension, args);
 
     for (int i = 0; i < values.length; i++) {
       assertThat(scaledValues[i], is(values[i]));
@@ -98,15 +94,13 @@ public class CropAdapterTest {
 
   @Test
   public void testScaleChipNullOverview() {
-    when(originalImage.getWidth()).thenReturn(1024);
-    when(originalImage.getHeight()).thenReturn(1024);
     int[] values = new int[] {100, 100, 512, 512};
     args.put("x", values[0]);
     args.put("y", values[1]);
     args.put("w", values[2]);
     args.put("h", values[3]);
 
-    int[] scaledValues = cropAdapter.scaleChip(originalImage, null, args);
+    int[] scaledValues = cropAdapter.scaleChip(originalDimension, null, args);
 
     for (int i = 0; i < values.length; i++) {
       assertThat(scaledValues[i], is(values[i]));
@@ -115,17 +109,14 @@ public class CropAdapterTest {
 
   @Test
   public void testScaleChip() {
-    when(overviewImage.getWidth()).thenReturn(1024);
-    when(overviewImage.getHeight()).thenReturn(1024);
-    when(originalImage.getWidth()).thenReturn(2048);
-    when(originalImage.getHeight()).thenReturn(2048);
+    originalDimension = new Dimension(2048, 2048);
     int[] values = new int[] {100, 100, 400, 400};
     args.put("x", values[0]);
     args.put("y", values[1]);
     args.put("w", values[2]);
     args.put("h", values[3]);
 
-    int[] scaledValues = cropAdapter.scaleChip(originalImage, overviewImage, args);
+    int[] scaledValues = cropAdapter.scaleChip(originalDimension, overviewDimension, args);
 
     for (int i = 0; i < values.length; i++) {
       assertThat(scaledValues[i], is(values[i] * 2));
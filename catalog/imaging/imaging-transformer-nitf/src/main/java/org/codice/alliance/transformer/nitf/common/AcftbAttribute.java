@@ -62,7 +62,7 @@ public class AcftbAttribute extends NitfAttributeImpl<Tre> {
       new AcftbAttribute(
           Isr.MISSION_ID,
           "AC_MSN_ID",
-          tre -> TreUtility.getTreValue(tre, "AC_MSN_ID"),
+          TreUtility.stringField("AC_MSN_ID"),
           new IsrAttributes().getAttributeDescriptor(Isr.MISSION_ID),
           AIRCRAFT_MISSION_ID);
 
@@ -70,7 +70,7 @@ public class AcftbAttribute extends NitfAttributeImpl<Tre> {
       new AcftbAttribute(
           Isr.PLATFORM_ID,
           "AC_TAIL_NO",
-          tre -> TreUtility.getTreValue(tre, "AC_TAIL_NO"),
+          TreUtility.stringField("AC_TAIL_NO"),
           new IsrAttributes().getAttributeDescriptor(Isr.PLATFORM_ID),
           AIRCRAFT_TAIL_NUMBER);
 
@@ -78,7 +78,7 @@ public class AcftbAttribute extends NitfAttributeImpl<Tre> {
       new AcftbAttribute(
           Isr.SENSOR_TYPE,
           "SENSOR_ID_TYPE",
-          tre -> TreUtility.getTreValue(tre, "SENSOR_ID_TYPE"),
+          TreUtility.stringField("SENSOR_ID_TYPE"),
           new IsrAttributes().getAttributeDescriptor(Isr.SENSOR_TYPE),
           SENSOR_ID_TYPE);
 
@@ -86,7 +86,7 @@ public class AcftbAttribute extends NitfAttributeImpl<Tre> {
       new AcftbAttribute(
           Isr.SENSOR_ID,
           "SENSOR_ID",
-          tre -> TreUtility.getTreValue(tre, "SENSOR_ID"),
+          TreUtility.stringField("SENSOR_ID"),
           new IsrAttributes().getAttributeDescriptor(Isr.SENSOR_ID),
           SENSOR_ID);
 
@@ -96,52 +96,40 @@ public class AcftbAttribute extends NitfAttributeImpl<Tre> {
 
   public static final AcftbAttribute AIRCRAFT_TAKE_OFF_ATTRIBUTE =
       new AcftbAttribute(
-          AIRCRAFT_TAKE_OFF,
-          "AC_TO",
-          tre -> TreUtility.getTreValue(tre, "AC_TO"),
-          BasicTypes.STRING_TYPE);
+          AIRCRAFT_TAKE_OFF, "AC_TO", TreUtility.stringField("AC_TO"), BasicTypes.STRING_TYPE);
 
   public static final AcftbAttribute SCENE_SOURCE_ATTRIBUTE =
       new AcftbAttribute(
           SCENE_SOURCE,
           "SCENE_SOURCE",
-          tre -> TreUtility.getTreValue(tre, "SCENE_SOURCE"),
+          TreUtility.stringField("SCENE_SOURCE"),
           BasicTypes.STRING_TYPE);
 
   public static final AcftbAttribute SCENE_NUMBER_ATTRIBUTE =
       new AcftbAttribute(
-          SCENE_NUMBER,
-          "SCNUM",
-          tre -> TreUtility.getTreValue(tre, "SCNUM"),
-          BasicTypes.STRING_TYPE);
+          SCENE_NUMBER, "SCNUM", TreUtility.stringField("SCNUM"), BasicTypes.STRING_TYPE);
 
   public static final AcftbAttribute PROCESSING_DATE_ATTRIBUTE =
       new AcftbAttribute(
-          PROCESSING_DATE,
-          "PDATE",
-          tre -> TreUtility.getTreValue(tre, "PDATE"),
-          BasicTypes.STRING_TYPE);
+          PROCESSING_DATE, "PDATE", TreUtility.stringField("PDATE"), BasicTypes.STRING_TYPE);
 
   public static final AcftbAttribute IMMEDIATE_SCENE_HOST_ATTRIBUTE =
       new AcftbAttribute(
           IMMEDIATE_SCENE_HOST,
           "IMHOSTNO",
-          tre -> TreUtility.getTreValue(tre, "IMHOSTNO"),
+          TreUtility.stringField("IMHOSTNO"),
           BasicTypes.STRING_TYPE);
 
   public static final AcftbAttribute IMMEDIATE_SCENE_REQUEST_ID_ATTRIBUTE =
       new AcftbAttribute(
           IMMEDIATE_SCENE_REQUEST_ID,
           "IMREQID",
-          tre -> TreUtility.getTreValue(tre, "IMREQID"),
+          TreUtility.stringField("IMREQID"),
           BasicTypes.STRING_TYPE);
 
   public static final AcftbAttribute MISSION_PLAN_MODE_ATTRIBUTE =
       new AcftbAttribute(
-          MISSION_PLAN_MODE,
-          "MPLAN",
-          tre -> TreUtility.getTreValue(tre, "MPLAN"),
-          BasicTypes.STRING_TYPE);
+          MISSION_PLAN_MODE, "MPLAN", TreUtility.stringField("MPLAN"), BasicTypes.STRING_TYPE);
 
   private AcftbAttribute(
       final String longName,
@@ -68,106 +68,91 @@ public class AimidbAttribute extends NitfAttributeImpl<Tre> {
       new AimidbAttribute(
           ACQUISITION_DATE,
           "ACQUISITION_DATE",
-          tre -> TreUtility.convertToString(tre, "ACQUISITION_DATE"),
+          TreUtility.stringField("ACQUISITION_DATE"),
           BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute MISSION_NUMBER_ATTRIBUTE =
       new AimidbAttribute(
           MISSION_NUMBER,
           "MISSION_NO",
-          tre -> TreUtility.convertToString(tre, "MISSION_NO"),
+          TreUtility.stringField("MISSION_NO"),
           BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute MISSION_IDENTIFICATION_ATTRIBUTE =
       new AimidbAttribute(
           MISSION_IDENTIFICATION,
           "MISSION_IDENTIFICATION",
-          tre -> TreUtility.convertToString(tre, "MISSION_IDENTIFICATION"),
+          TreUtility.stringField("MISSION_IDENTIFICATION"),
           BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute FLIGHT_NUMBER_ATTRIBUTE =
       new AimidbAttribute(
-          FLIGHT_NUMBER,
-          "FLIGHT_NO",
-          tre -> TreUtility.convertToString(tre, "FLIGHT_NO"),
-          BasicTypes.STRING_TYPE);
+          FLIGHT_NUMBER, "FLIGHT_NO", TreUtility.stringField("FLIGHT_NO"), BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute OPERATION_NUMBER_ATTRIBUTE =
       new AimidbAttribute(
-          OPERATION_NUMBER,
-          "OP_NUM",
-          tre -> TreUtility.convertToInteger(tre, "OP_NUM"),
-          BasicTypes.INTEGER_TYPE);
+          OPERATION_NUMBER, "OP_NUM", TreUtility.integerField("OP_NUM"), BasicTypes.INTEGER_TYPE);
 
   public static final AimidbAttribute CURRENT_SEGMENT_ATTRIBUTE =
       new AimidbAttribute(
           CURRENT_SEGMENT,
           "CURRENT_SEGMENT",
-          tre -> TreUtility.convertToString(tre, "CURRENT_SEGMENT"),
+          TreUtility.stringField("CURRENT_SEGMENT"),
           BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute REPROCESS_NUMBER_ATTRIBUTE =
       new AimidbAttribute(
           REPROCESS_NUMBER,
           "REPRO_NUM",
-          tre -> TreUtility.convertToInteger(tre, "REPRO_NUM"),
+          TreUtility.integerField("REPRO_NUM"),
           BasicTypes.INTEGER_TYPE);
 
   public static final AimidbAttribute REPLAY_ATTRIBUTE =
       new AimidbAttribute(
-          REPLAY,
-          "REPLAY",
-          tre -> TreUtility.convertToString(tre, "REPLAY"),
-          BasicTypes.STRING_TYPE);
+          REPLAY, "REPLAY", TreUtility.stringField("REPLAY"), BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute START_TILE_COLUMN_ATTRIBUTE =
       new AimidbAttribute(
           START_TILE_COLUMN,
           "START_TILE_COLUMN",
-          tre -> TreUtility.convertToInteger(tre, "START_TILE_COLUMN"),
+          TreUtility.integerField("START_TILE_COLUMN"),
           BasicTypes.INTEGER_TYPE);
 
   public static final AimidbAttribute START_TILE_ROW_ATTRIBUTE =
       new AimidbAttribute(
           START_TILE_ROW,
           "START_TILE_ROW",
-          tre -> TreUtility.convertToInteger(tre, "START_TILE_ROW"),
+          TreUtility.integerField("START_TILE_ROW"),
           BasicTypes.INTEGER_TYPE);
 
   public static final AimidbAttribute END_SEGMENT_ATTRIBUTE =
       new AimidbAttribute(
           END_SEGMENT,
           "END_SEGMENT",
-          tre -> TreUtility.convertToString(tre, "END_SEGMENT"),
+          TreUtility.stringField("END_SEGMENT"),
           BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute END_TILE_COLUMN_ATTRIBUTE =
       new AimidbAttribute(
           END_TILE_COLUMN,
           "END_TILE_COLUMN",
-          tre -> TreUtility.convertToInteger(tre, "END_TILE_COLUMN"),
+          TreUtility.integerField("END_TILE_COLUMN"),
           BasicTypes.INTEGER_TYPE);
 
   public static final AimidbAttribute END_TILE_ROW_ATTRIBUTE =
       new AimidbAttribute(
           END_TILE_ROW,
           "END_TILE_ROW",
-          tre -> TreUtility.convertToInteger(tre, "END_TILE_ROW"),
+          TreUtility.integerField("END_TILE_ROW"),
           BasicTypes.INTEGER_TYPE);
 
   public static final AimidbAttribute COUNTRY_CODE_ATTRIBUTE =
       new AimidbAttribute(
-          COUNTRY_CODE,
-          "COUNTRY",
-          tre -> TreUtility.convertToString(tre, "COUNTRY"),
-          BasicTypes.STRING_TYPE);
+          COUNTRY_CODE, "COUNTRY", TreUtility.stringField("COUNTRY"), BasicTypes.STRING_TYPE);
 
   public static final AimidbAttribute LOCATION_ATTRIBUTE =
       new AimidbAttribute(
-          LOCATION,
-          "LOCATION",
-          tre -> TreUtility.convertToString(tre, "LOCATION"),
-          BasicTypes.STRING_TYPE);
+          LOCATION, "LOCATION", TreUtility.stringField("LOCATION"), BasicTypes.STRING_TYPE);
 
   private AimidbAttribute(
       String longName,
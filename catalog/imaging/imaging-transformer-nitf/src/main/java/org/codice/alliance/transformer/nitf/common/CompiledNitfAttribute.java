@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.transformer.nitf.common;
+
+import ddf.catalog.data.AttributeDescriptor;
+import ddf.catalog.data.impl.BasicTypes;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.codice.alliance.transformer.nitf.ExtNitfUtility;
+import org.codice.imaging.nitf.core.tre.TreEntry;
+import org.codice.imaging.nitf.core.tre.TreGroup;
+
+/**
+ * A {@link NitfAttribute} with everything {@link SegmentHandler} needs resolved ahead of time: the
+ * accessor functions, the metacard attribute names split into taxonomy and {@code ext.nitf.} names,
+ * whether empty strings are discarded, and the compiled indexed attributes of the TRE group. A TRE
+ * attribute that reads a single field through a {@link TreFieldAccessor} also holds the index of
+ * that field in its {@link CompiledTreGroup}, and reads the field by index.
+ *
+ * @param <T> the type of segment or TRE the attribute is extracted from
+ */
+final class CompiledNitfAttribute<T> {
+
+  private static final String[] NO_NAMES = new String[0];
+
+  private static final int NO_FIELD = -1;
+
+  private final NitfAttribute<T> attribute;
+
+  private final Function<T, Serializable> accessor;
+
+  private final Function<T, Serializable> extAccessor;
+
+  private final boolean sharedAccessor;
+
+  private final String[] attributeNames;
+
+  private final String[] extAttributeNames;
+
+  private final String[] allAttributeNames;
+
+  private final boolean stringTyped;
+
+  private final boolean extAttribute;
+
+  private final TreFieldAccessor<?> fieldAccessor;
+
+  private final int fieldIndex;
+
+  private final int groupsIndex;
+
+  private final CompiledTreGroup<TreGroup> indexedGroup;
+
+  /**
+   * @param fieldIndexes the field indexes of the TRE group the attribute belongs to, extended with
+   *     the fields of this attribute, or null if the attribute is not read from a TRE
+   */
+  private CompiledNitfAttribute(NitfAttribute<T> attribute, Map<String, Integer> fieldIndexes) {
+    this.attribute = attribute;
+    this.accessor = attribute.getAccessorFunction();
+    this.extAccessor = attribute.getExtAccessorFunction();
+    this.sharedAccessor = accessor == extAccessor;
+    this.extAttribute = ExtNitfUtility.isExtAttribute(attribute);
+
+    Set<AttributeDescriptor> descriptors = attribute.getAttributeDescriptors();
+    if (descriptors == null) {
+      this.attributeNames = null;
+      this.extAttributeNames = null;
+      this.allAttributeNames = NO_NAMES;
+      this.stringTyped = false;
+    } else {
+      List<String> names = new ArrayList<>();
+      List<String> extNames = new ArrayList<>();
+      boolean isString = false;
+      for (AttributeDescriptor descriptor : descriptors) {
+        if (descriptor.getName().contains(ExtNitfUtility.EXT_NITF_PREFIX)) {
+          extNames.add(descriptor.getName());
+        } else {
+          names.add(descriptor.getName());
+        }
+        isString |= BasicTypes.STRING_TYPE.equals(descriptor.getType());
+      }
+      this.attributeNames = names.toArray(NO_NAMES);
+      this.extAttributeNames = extNames.toArray(NO_NAMES);
+      this.allAttributeNames =
+          descriptors.stream().map(AttributeDescriptor::getName).toArray(String[]::new);
+      this.stringTyped = isString;
+    }
+
+    List<NitfAttribute<TreGroup>> indexed = null;
+    if (attribute instanceof NitfAttributeImpl) {
+      indexed = ((NitfAttributeImpl<T>) attribute).getIndexedAttributes();
+    }
+    this.indexedGroup =
+        indexed == null || indexed.isEmpty() ? null : CompiledTreGroup.compile(indexed);
+
+    if (fieldIndexes != null && accessor instanceof TreFieldAccessor) {
+      this.fieldAccessor = (TreFieldAccessor<?>) accessor;
+      this.fieldIndex = indexOf(fieldIndexes, fieldAccessor.getFieldName());
+    } else {
+      this.fieldAccessor = null;
+      this.fieldIndex = NO_FIELD;
+    }
+    this.groupsIndex =
+        fieldIndexes != null && indexedGroup != null
+            ? indexOf(fieldIndexes, attribute.getShortName())
+            : NO_FIELD;
+  }
+
+  /** Compile an attribute that is not read from a TRE. */
+  static <T> CompiledNitfAttribute<T> compile(NitfAttribute<T> attribute) {
+    return new CompiledNitfAttribute<>(attribute, null);
+  }
+
+  /** Compile an attribute of a TRE group, adding the fields it reads to the field indexes. */
+  static <T> CompiledNitfAttribute<T> compile(
+      NitfAttribute<T> attribute, Map<String, Integer> fieldIndexes) {
+    return new CompiledNitfAttribute<>(attribute, fieldIndexes);
+  }
+
+  NitfAttribute<T> getAttribute() {
+    return attribute;
+  }
+
+  /**
+   * @param segment the segment the value is extracted from
+   * @param fields the fields read by {@link CompiledTreGroup#readFields}, or null if the attribute
+   *     is not read from a TRE
+   */
+  Serializable getValue(T segment, TreEntry[] fields) {
+    if (fieldIndex != NO_FIELD) {
+      return normalize(fieldAccessor.convert(getFieldValue(fields[fieldIndex])));
+    }
+    return normalize(accessor.apply(segment));
+  }
+
+  /**
+   * @param segment the segment the value is extracted from
+   * @param value the value already returned by {@link #getValue}, reused when both accessors are
+   *     the same function
+   */
+  Serializable getExtValue(T segment, Serializable value) {
+    return sharedAccessor ? value : normalize(extAccessor.apply(segment));
+  }
+
+  /** @return the taxonomy attribute names, or null if the attribute has no descriptors. */
+  String[] getAttributeNames() {
+    return attributeNames;
+  }
+
+  /** @return the {@code ext.nitf.} attribute names, or null if the attribute has no descriptors. */
+  String[] getExtAttributeNames() {
+    return extAttributeNames;
+  }
+
+  String[] getAllAttributeNames() {
+    return allAttributeNames;
+  }
+
+  boolean isExtAttribute() {
+    return extAttribute;
+  }
+
+  /** @return the compiled indexed attributes of the TRE group, or null if there are none. */
+  CompiledTreGroup<TreGroup> getIndexedGroup() {
+    return indexedGroup;
+  }
+
+  /**
+   * @param fields the fields read by {@link CompiledTreGroup#readFields}
+   * @return the groups of the repeated TRE entry named by the attribute, or null if it is missing
+   */
+  List<TreGroup> getGroups(TreEntry[] fields) {
+    TreEntry entry = fields[groupsIndex];
+    return entry == null ? null : entry.getGroups();
+  }
+
+  private static int indexOf(Map<String, Integer> fieldIndexes, String fieldName) {
+    return fieldIndexes.computeIfAbsent(fieldName, name -> fieldIndexes.size());
+  }
+
+  /** Matches {@link TreUtility#getTreValue}, which trims the value of the field. */
+  private static String getFieldValue(TreEntry entry) {
+    if (entry == null || entry.getFieldValue() == null) {
+      return null;
+    }
+    return entry.getFieldValue().trim();
+  }
+
+  private Serializable normalize(Serializable value) {
+    if (stringTyped && value != null && value.toString().length() == 0) {
+      return null;
+    }
+    return value;
+  }
+}
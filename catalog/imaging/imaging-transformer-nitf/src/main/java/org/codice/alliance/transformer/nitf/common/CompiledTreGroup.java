@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.transformer.nitf.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import org.codice.imaging.nitf.core.tre.TreEntry;
+import org.codice.imaging.nitf.core.tre.TreGroup;
+
+/**
+ * The compiled attributes of one TRE or TRE group, with every field they read resolved to an index.
+ * {@link #readFields} collects those fields with a single pass over the entries of a TRE, so the
+ * attributes read their values by index instead of looking each field up by name.
+ *
+ * @param <T> the type of TRE or TRE group the attributes are extracted from
+ */
+final class CompiledTreGroup<T extends TreGroup> {
+
+  private final List<CompiledNitfAttribute<T>> attributes;
+
+  private final Map<String, Integer> fieldIndexes;
+
+  private CompiledTreGroup(List<NitfAttribute<T>> nitfAttributes) {
+    Map<String, Integer> indexes = new HashMap<>();
+    List<CompiledNitfAttribute<T>> compiled = new ArrayList<>(nitfAttributes.size());
+    for (NitfAttribute<T> attribute : nitfAttributes) {
+      compiled.add(CompiledNitfAttribute.compile(attribute, indexes));
+    }
+    this.attributes = Collections.unmodifiableList(compiled);
+    this.fieldIndexes = Collections.unmodifiableMap(indexes);
+  }
+
+  static <T extends TreGroup> CompiledTreGroup<T> compile(List<NitfAttribute<T>> attributes) {
+    return new CompiledTreGroup<>(attributes);
+  }
+
+  List<CompiledNitfAttribute<T>> getAttributes() {
+    return attributes;
+  }
+
+  /** @return the names of the fields read by index. */
+  Set<String> getFieldNames() {
+    return fieldIndexes.keySet();
+  }
+
+  /**
+   * @param treGroup the TRE or TRE group to read
+   * @return the entries of the fields read by the attributes, by field index. A missing field is
+   *     null. Like {@link TreGroup#getEntry}, the first entry of a name wins.
+   */
+  TreEntry[] readFields(TreGroup treGroup) {
+    TreEntry[] fields = new TreEntry[fieldIndexes.size()];
+    List<TreEntry> entries = treGroup.getEntries();
+    if (entries == null) {
+      return fields;
+    }
+
+    ListIterator<TreEntry> iterator = entries.listIterator(entries.size());
+    while (iterator.hasPrevious()) {
+      TreEntry entry = iterator.previous();
+      Integer index = fieldIndexes.get(entry.getName());
+      if (index != null) {
+        fields[index] = entry;
+      }
+    }
+    return fields;
+  }
+}
@@ -98,72 +98,60 @@ public class CsdidaAttribute extends NitfAttributeImpl<Tre> {
 
   static final CsdidaAttribute DAY_ATTRIBUTE =
       new CsdidaAttribute(
-          DAY,
-          DAY_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, DAY_SHORT_NAME),
-          BasicTypes.INTEGER_TYPE);
+          DAY, DAY_SHORT_NAME, TreUtility.integerField(DAY_SHORT_NAME), BasicTypes.INTEGER_TYPE);
 
   static final CsdidaAttribute MONTH_ATTRIBUTE =
       new CsdidaAttribute(
           MONTH,
           MONTH_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, MONTH_SHORT_NAME),
+          TreUtility.stringField(MONTH_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsdidaAttribute YEAR_ATTRIBUTE =
       new CsdidaAttribute(
-          YEAR,
-          YEAR_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, YEAR_SHORT_NAME),
-          BasicTypes.INTEGER_TYPE);
+          YEAR, YEAR_SHORT_NAME, TreUtility.integerField(YEAR_SHORT_NAME), BasicTypes.INTEGER_TYPE);
 
   static final CsdidaAttribute PASS_ATTRIBUTE =
       new CsdidaAttribute(
-          PASS,
-          PASS_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, PASS_SHORT_NAME),
-          BasicTypes.INTEGER_TYPE);
+          PASS, PASS_SHORT_NAME, TreUtility.integerField(PASS_SHORT_NAME), BasicTypes.INTEGER_TYPE);
 
   static final CsdidaAttribute OPERATION_ATTRIBUTE =
       new CsdidaAttribute(
           OPERATION,
           OPERATION_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, OPERATION_SHORT_NAME),
+          TreUtility.integerField(OPERATION_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final CsdidaAttribute SENSOR_ID_ATTRIBUTE =
       new CsdidaAttribute(
           SENSOR_ID,
           SENSOR_ID_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, SENSOR_ID_SHORT_NAME),
+          TreUtility.stringField(SENSOR_ID_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsdidaAttribute PRODUCT_ID_ATTRIBUTE =
       new CsdidaAttribute(
           PRODUCT_ID,
           PRODUCT_ID_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, PRODUCT_ID_SHORT_NAME),
+          TreUtility.stringField(PRODUCT_ID_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsdidaAttribute TIME_ATTRIBUTE =
       new CsdidaAttribute(
-          TIME,
-          TIME_SHORT_NAME,
-          tre -> TreUtility.convertToDate(tre, TIME_SHORT_NAME),
-          BasicTypes.DATE_TYPE);
+          TIME, TIME_SHORT_NAME, TreUtility.dateField(TIME_SHORT_NAME), BasicTypes.DATE_TYPE);
 
   static final CsdidaAttribute PROCESS_TIME_ATTRIBUTE =
       new CsdidaAttribute(
           PROCESS_TIME,
           PROCESS_TIME_SHORT_NAME,
-          tre -> TreUtility.convertToDate(tre, PROCESS_TIME_SHORT_NAME),
+          TreUtility.dateField(PROCESS_TIME_SHORT_NAME),
           BasicTypes.DATE_TYPE);
 
   static final CsdidaAttribute SOFTWARE_VERSION_NUMBER_ATTRIBUTE =
       new CsdidaAttribute(
           SOFTWARE_VERSION_NUMBER,
           SOFTWARE_VERSION_NUMBER_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, SOFTWARE_VERSION_NUMBER_SHORT_NAME),
+          TreUtility.stringField(SOFTWARE_VERSION_NUMBER_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   private CsdidaAttribute(
@@ -148,7 +148,7 @@ public class CsexraAttribute extends NitfAttributeImpl<Tre> {
       new CsexraAttribute(
           Isr.SNOW_COVER,
           GRD_COVER_SHORT_NAME,
-          CsexraAttribute::getSnowCoverFunction,
+          TreUtility.field(GRD_COVER_SHORT_NAME, CsexraAttribute::getSnowCover),
           new IsrAttributes().getAttributeDescriptor(Isr.SNOW_COVER),
           SNOW_COVER);
 
@@ -158,7 +158,7 @@ public class CsexraAttribute extends NitfAttributeImpl<Tre> {
       new CsexraAttribute(
           Isr.NATIONAL_IMAGERY_INTERPRETABILITY_RATING_SCALE,
           PREDICTED_NIIRS_SHORT_NAME,
-          CsexraAttribute::getNiirsFunction,
+          TreUtility.field(PREDICTED_NIIRS_SHORT_NAME, CsexraAttribute::getNiirs),
           new IsrAttributes()
               .getAttributeDescriptor(Isr.NATIONAL_IMAGERY_INTERPRETABILITY_RATING_SCALE),
           PREDICTED_NIIRS);
@@ -201,154 +201,154 @@ public class CsexraAttribute extends NitfAttributeImpl<Tre> {
       new CsexraAttribute(
           SNOW_DEPTH_CAT,
           SNOW_DEPTH_CAT_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, SNOW_DEPTH_CAT_SHORT_NAME),
+          TreUtility.integerField(SNOW_DEPTH_CAT_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final CsexraAttribute SENSOR_ATTRIBUTE =
       new CsexraAttribute(
           SENSOR,
           SENSOR_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, SENSOR_SHORT_NAME),
+          TreUtility.stringField(SENSOR_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute TIME_FIRST_LINE_IMAGE_ATTRIBUTE =
       new CsexraAttribute(
           TIME_FIRST_LINE_IMAGE,
           TIME_FIRST_LINE_IMAGE_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, TIME_FIRST_LINE_IMAGE_SHORT_NAME),
+          TreUtility.floatField(TIME_FIRST_LINE_IMAGE_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute TIME_IMAGE_DURATION_ATTRIBUTE =
       new CsexraAttribute(
           TIME_IMAGE_DURATION,
           TIME_IMAGE_DURATION_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, TIME_IMAGE_DURATION_SHORT_NAME),
+          TreUtility.floatField(TIME_IMAGE_DURATION_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute MAX_GSD_ATTRIBUTE =
       new CsexraAttribute(
           MAX_GSD,
           MAX_GSD_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, MAX_GSD_SHORT_NAME),
+          TreUtility.floatField(MAX_GSD_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute ALONG_SCAN_GSD_ATTRIBUTE =
       new CsexraAttribute(
           ALONG_SCAN_GSD,
           ALONG_SCAN_GSD_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, ALONG_SCAN_GSD_SHORT_NAME),
+          TreUtility.stringField(ALONG_SCAN_GSD_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute CROSS_SCAN_GSD_ATTRIBUTE =
       new CsexraAttribute(
           CROSS_SCAN_GSD,
           CROSS_SCAN_GSD_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, CROSS_SCAN_GSD_SHORT_NAME),
+          TreUtility.stringField(CROSS_SCAN_GSD_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute GEO_MEAN_GSD_ATTRIBUTE =
       new CsexraAttribute(
           GEO_MEAN_GSD,
           GEO_MEAN_GSD_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, GEO_MEAN_GSD_SHORT_NAME),
+          TreUtility.stringField(GEO_MEAN_GSD_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute A_S_VERT_GSD_ATTRIBUTE =
       new CsexraAttribute(
           A_S_VERT_GSD,
           A_S_VERT_GSD_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, A_S_VERT_GSD_SHORT_NAME),
+          TreUtility.stringField(A_S_VERT_GSD_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute C_S_VERT_GSD_ATTRIBUTE =
       new CsexraAttribute(
           C_S_VERT_GSD,
           C_S_VERT_GSD_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, C_S_VERT_GSD_SHORT_NAME),
+          TreUtility.stringField(C_S_VERT_GSD_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute GEO_MEAN_VERT_GSD_ATTRIBUTE =
       new CsexraAttribute(
           GEO_MEAN_VERT_GSD,
           GEO_MEAN_VERT_GSD_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, GEO_MEAN_VERT_GSD_SHORT_NAME),
+          TreUtility.stringField(GEO_MEAN_VERT_GSD_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute GSD_BETA_ANGLE_ATTRIBUTE =
       new CsexraAttribute(
           GSD_BETA_ANGLE,
           GSD_BETA_ANGLE_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, GSD_BETA_ANGLE_SHORT_NAME),
+          TreUtility.stringField(GSD_BETA_ANGLE_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final CsexraAttribute DYNAMIC_RANGE_ATTRIBUTE =
       new CsexraAttribute(
           DYNAMIC_RANGE,
           DYNAMIC_RANGE_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, DYNAMIC_RANGE_SHORT_NAME),
+          TreUtility.integerField(DYNAMIC_RANGE_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final CsexraAttribute NUM_LINES_ATTRIBUTE =
       new CsexraAttribute(
           NUM_LINES,
           NUM_LINES_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, NUM_LINES_SHORT_NAME),
+          TreUtility.integerField(NUM_LINES_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final CsexraAttribute NUM_SAMPLES_ATTRIBUTE =
       new CsexraAttribute(
           NUM_SAMPLES,
           NUM_SAMPLES_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, NUM_SAMPLES_SHORT_NAME),
+          TreUtility.integerField(NUM_SAMPLES_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final CsexraAttribute ANGLE_TO_NORTH_ATTRIBUTE =
       new CsexraAttribute(
           ANGLE_TO_NORTH,
           ANGLE_TO_NORTH_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, ANGLE_TO_NORTH_SHORT_NAME),
+          TreUtility.floatField(ANGLE_TO_NORTH_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute OBLIQUITY_ANGLE_ATTRIBUTE =
       new CsexraAttribute(
           OBLIQUITY_ANGLE,
           OBLIQUITY_ANGLE_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, OBLIQUITY_ANGLE_SHORT_NAME),
+          TreUtility.floatField(OBLIQUITY_ANGLE_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute AZ_OF_OBLIQUITY_ATTRIBUTE =
       new CsexraAttribute(
           AZ_OF_OBLIQUITY,
           AZ_OF_OBLIQUITY_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, AZ_OF_OBLIQUITY_SHORT_NAME),
+          TreUtility.floatField(AZ_OF_OBLIQUITY_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute SUN_AZIMUTH_ATTRIBUTE =
       new CsexraAttribute(
           SUN_AZIMUTH,
           SUN_AZIMUTH_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, SUN_AZIMUTH_SHORT_NAME),
+          TreUtility.floatField(SUN_AZIMUTH_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute SUN_ELEVATION_ATTRIBUTE =
       new CsexraAttribute(
           SUN_ELEVATION,
           SUN_ELEVATION_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, SUN_ELEVATION_SHORT_NAME),
+          TreUtility.floatField(SUN_ELEVATION_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final CsexraAttribute CIRCL_ERR_ATTRIBUTE =
       new CsexraAttribute(
           CIRCL_ERR,
           CIRCL_ERR_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, CIRCL_ERR_SHORT_NAME),
+          TreUtility.integerField(CIRCL_ERR_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final CsexraAttribute LINEAR_ERR_ATTRIBUTE =
       new CsexraAttribute(
           LINEAR_ERR,
           LINEAR_ERR_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, LINEAR_ERR_SHORT_NAME),
+          TreUtility.integerField(LINEAR_ERR_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   private CsexraAttribute(
@@ -374,10 +374,8 @@ public class CsexraAttribute extends NitfAttributeImpl<Tre> {
     return (float) INCHES_TO_CENTIMETERS_CONVERTER.convert(inches);
   }
 
-  private static Serializable getSnowCoverFunction(Tre tre) {
-    return Optional.ofNullable(TreUtility.getTreValue(tre, GRD_COVER_SHORT_NAME))
-        .filter(String.class::isInstance)
-        .map(String.class::cast)
+  private static Serializable getSnowCover(String snowCover) {
+    return Optional.ofNullable(snowCover)
         .map(
             value -> {
               switch (value) {
@@ -392,10 +390,7 @@ public class CsexraAttribute extends NitfAttributeImpl<Tre> {
         .orElse(null);
   }
 
-  private static Serializable getNiirsFunction(Tre tre) {
-
-    String value = TreUtility.getTreValue(tre, PREDICTED_NIIRS_SHORT_NAME);
-
+  private static Serializable getNiirs(String value) {
     if (StringUtils.isNotEmpty(value)) {
       return parseNiirs(value);
     }
@@ -409,15 +404,15 @@ public class CsexraAttribute extends NitfAttributeImpl<Tre> {
 
   private static Function<Tre, Serializable> getSnowDepthAccessorFunction(
       Function<Pair<Float, Float>, Float> pairFunction) {
-    return tre ->
-        Optional.ofNullable(TreUtility.getTreValue(tre, SNOW_DEPTH_CAT_SHORT_NAME))
-            .filter(String.class::isInstance)
-            .map(String.class::cast)
-            .filter(StringUtils::isNotEmpty)
-            .map(Integer::valueOf)
-            .map(CsexraAttribute::convertSnowDepthCat)
-            .map(pair -> pair.map(pairFunction).orElse(null))
-            .orElse(null);
+    return TreUtility.field(
+        SNOW_DEPTH_CAT_SHORT_NAME,
+        snowDepthCategory ->
+            Optional.ofNullable(snowDepthCategory)
+                .filter(StringUtils::isNotEmpty)
+                .map(Integer::valueOf)
+                .map(CsexraAttribute::convertSnowDepthCat)
+                .map(pair -> pair.map(pairFunction).orElse(null))
+                .orElse(null));
   }
 
   private static Optional<Pair<Float, Float>> convertSnowDepthCat(int category) {
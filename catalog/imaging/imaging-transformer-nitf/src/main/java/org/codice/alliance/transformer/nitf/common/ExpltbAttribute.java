@@ -68,99 +68,82 @@ public class ExpltbAttribute extends NitfAttributeImpl<Tre> {
       new ExpltbAttribute(
           ANGLE_TO_NORTH,
           "ANGLE_TO_NORTH",
-          tre -> TreUtility.convertToFloat(tre, "ANGLE_TO_NORTH"),
+          TreUtility.floatField("ANGLE_TO_NORTH"),
           BasicTypes.FLOAT_TYPE);
 
   public static final ExpltbAttribute ANGLE_TO_NORTH_ACCURACY_ATTRIBUTE =
       new ExpltbAttribute(
           ANGLE_TO_NORTH_ACCURACY,
           "ANGLE_TO_NORTH_ACCY",
-          tre -> TreUtility.convertToFloat(tre, "ANGLE_TO_NORTH_ACCY"),
+          TreUtility.floatField("ANGLE_TO_NORTH_ACCY"),
           BasicTypes.FLOAT_TYPE);
 
   public static final ExpltbAttribute SQUINT_ANGLE_ATTRIBUTE =
       new ExpltbAttribute(
           SQUINT_ANGLE,
           "SQUINT_ANGLE",
-          tre -> TreUtility.convertToFloat(tre, "SQUINT_ANGLE"),
+          TreUtility.floatField("SQUINT_ANGLE"),
           BasicTypes.FLOAT_TYPE);
 
   public static final ExpltbAttribute SQUINT_ANGLE_ACCURACY_ATTRIBUTE =
       new ExpltbAttribute(
           SQUINT_ANGLE_ACCURACY,
           "SQUINT_ANGLE_ACCY",
-          tre -> TreUtility.convertToFloat(tre, "SQUINT_ANGLE_ACCY"),
+          TreUtility.floatField("SQUINT_ANGLE_ACCY"),
           BasicTypes.FLOAT_TYPE);
 
   public static final ExpltbAttribute MODE_ATTRIBUTE =
-      new ExpltbAttribute(
-          MODE, "MODE", tre -> TreUtility.convertToString(tre, "MODE"), BasicTypes.STRING_TYPE);
+      new ExpltbAttribute(MODE, "MODE", TreUtility.stringField("MODE"), BasicTypes.STRING_TYPE);
 
   public static final ExpltbAttribute GRAZE_ANGLE_ATTRIBUTE =
       new ExpltbAttribute(
-          GRAZE_ANGLE,
-          "GRAZE_ANG",
-          tre -> TreUtility.convertToFloat(tre, "GRAZE_ANG"),
-          BasicTypes.FLOAT_TYPE);
+          GRAZE_ANGLE, "GRAZE_ANG", TreUtility.floatField("GRAZE_ANG"), BasicTypes.FLOAT_TYPE);
 
   public static final ExpltbAttribute GRAZE_ANGLE_ACCURACY_ATTRIBUTE =
       new ExpltbAttribute(
           GRAZE_ANGLE_ACCURACY,
           "GRAZE_ANG_ACCY",
-          tre -> TreUtility.convertToFloat(tre, "GRAZE_ANG_ACCY"),
+          TreUtility.floatField("GRAZE_ANG_ACCY"),
           BasicTypes.FLOAT_TYPE);
 
   public static final ExpltbAttribute SLOPE_ANGLE_ATTRIBUTE =
       new ExpltbAttribute(
-          SLOPE_ANGLE,
-          "SLOPE_ANG",
-          tre -> TreUtility.convertToFloat(tre, "SLOPE_ANG"),
-          BasicTypes.FLOAT_TYPE);
+          SLOPE_ANGLE, "SLOPE_ANG", TreUtility.floatField("SLOPE_ANG"), BasicTypes.FLOAT_TYPE);
 
   public static final ExpltbAttribute POLAR_ATTRIBUTE =
-      new ExpltbAttribute(
-          POLAR, "POLAR", tre -> TreUtility.convertToString(tre, "POLAR"), BasicTypes.STRING_TYPE);
+      new ExpltbAttribute(POLAR, "POLAR", TreUtility.stringField("POLAR"), BasicTypes.STRING_TYPE);
 
   public static final ExpltbAttribute PIXELS_PER_LINE_ATTRIBUTE =
       new ExpltbAttribute(
-          PIXELS_PER_LINE,
-          "NSAMP",
-          tre -> TreUtility.convertToInteger(tre, "NSAMP"),
-          BasicTypes.INTEGER_TYPE);
+          PIXELS_PER_LINE, "NSAMP", TreUtility.integerField("NSAMP"), BasicTypes.INTEGER_TYPE);
 
   public static final ExpltbAttribute SEQUENCE_NUMBER_ATTRIBUTE =
       new ExpltbAttribute(
-          SEQUENCE_NUMBER,
-          "SEQ_NUM",
-          tre -> TreUtility.convertToInteger(tre, "SEQ_NUM"),
-          BasicTypes.INTEGER_TYPE);
+          SEQUENCE_NUMBER, "SEQ_NUM", TreUtility.integerField("SEQ_NUM"), BasicTypes.INTEGER_TYPE);
 
   public static final ExpltbAttribute PRIME_ID_ATTRIBUTE =
       new ExpltbAttribute(
-          PRIME_ID,
-          "PRIME_ID",
-          tre -> TreUtility.convertToString(tre, "PRIME_ID"),
-          BasicTypes.STRING_TYPE);
+          PRIME_ID, "PRIME_ID", TreUtility.stringField("PRIME_ID"), BasicTypes.STRING_TYPE);
 
   public static final ExpltbAttribute PRIME_BASIC_ENCYCLOPEDIA_ATTRIBUTE =
       new ExpltbAttribute(
           PRIME_BASIC_ENCYCLOPEDIA,
           "PRIME_BE",
-          tre -> TreUtility.convertToString(tre, "PRIME_BE"),
+          TreUtility.stringField("PRIME_BE"),
           BasicTypes.STRING_TYPE);
 
   public static final ExpltbAttribute NUMBER_OF_SECONDARY_TARGETS_ATTRIBUTE =
       new ExpltbAttribute(
           NUMBER_OF_SECONDARY_TARGETS,
           "N_SEC",
-          tre -> TreUtility.convertToInteger(tre, "N_SEC"),
+          TreUtility.integerField("N_SEC"),
           BasicTypes.INTEGER_TYPE);
 
   public static final ExpltbAttribute COMMANDED_IMPULSE_RESPONSE_ATTRIBUTE =
       new ExpltbAttribute(
           COMMANDED_IMPULSE_RESPONSE,
           "IPR",
-          tre -> TreUtility.convertToInteger(tre, "IPR"),
+          TreUtility.integerField("IPR"),
           BasicTypes.INTEGER_TYPE);
 
   private ExpltbAttribute(
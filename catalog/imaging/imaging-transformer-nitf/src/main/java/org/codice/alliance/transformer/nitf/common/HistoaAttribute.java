@@ -56,38 +56,32 @@ public class HistoaAttribute extends NitfAttributeImpl<Tre> {
 
   static final HistoaAttribute SYSTYPE_ATTRIBUTE =
       new HistoaAttribute(
-          SYSTYPE,
-          SYSTYPE_NAME,
-          tre -> TreUtility.convertToString(tre, SYSTYPE_NAME),
-          BasicTypes.STRING_TYPE);
+          SYSTYPE, SYSTYPE_NAME, TreUtility.stringField(SYSTYPE_NAME), BasicTypes.STRING_TYPE);
 
   static final HistoaAttribute PC_ATTRIBUTE =
       new HistoaAttribute(
           PC,
           PRIOR_COMPRESSION_NAME,
-          tre -> TreUtility.convertToString(tre, PRIOR_COMPRESSION_NAME),
+          TreUtility.stringField(PRIOR_COMPRESSION_NAME),
           BasicTypes.STRING_TYPE);
 
   static final HistoaAttribute PE_ATTRIBUTE =
       new HistoaAttribute(
           PE,
           PRIOR_ENHANCEMENTS_NAME,
-          tre -> TreUtility.convertToString(tre, PRIOR_ENHANCEMENTS_NAME),
+          TreUtility.stringField(PRIOR_ENHANCEMENTS_NAME),
           BasicTypes.STRING_TYPE);
 
   static final HistoaAttribute REMAP_FLAG_ATTRIBUTE =
       new HistoaAttribute(
           REMAP_FLAG,
           REMAP_FLAG_NAME,
-          tre -> TreUtility.convertToString(tre, REMAP_FLAG_NAME),
+          TreUtility.stringField(REMAP_FLAG_NAME),
           BasicTypes.STRING_TYPE);
 
   static final HistoaAttribute LUTID_ATTRIBUTE =
       new HistoaAttribute(
-          LUTID,
-          LUTID_NAME,
-          tre -> TreUtility.convertToInteger(tre, LUTID_NAME),
-          BasicTypes.INTEGER_TYPE);
+          LUTID, LUTID_NAME, TreUtility.integerField(LUTID_NAME), BasicTypes.INTEGER_TYPE);
 
   private HistoaAttribute(
       String longName,
@@ -37,10 +37,7 @@ public class IndexedPiaprdAttribute extends NitfAttributeImpl<TreGroup> {
 
   public static final IndexedPiaprdAttribute KEYWORD_ATTRIBUTE =
       new IndexedPiaprdAttribute(
-          KEYWORD,
-          "KEYWORD",
-          tre -> TreUtility.getTreValue(tre, "KEYWORD"),
-          BasicTypes.STRING_TYPE);
+          KEYWORD, "KEYWORD", TreUtility.stringField("KEYWORD"), BasicTypes.STRING_TYPE);
 
   private IndexedPiaprdAttribute(
       String longName,
@@ -123,7 +123,7 @@ public class PiaimcAttribute extends NitfAttributeImpl<Tre> {
       new PiaimcAttribute(
           Isr.CLOUD_COVER,
           CLOUDCVR_SHORT_NAME,
-          PiaimcAttribute::getCloudCoverFunction,
+          TreUtility.field(CLOUDCVR_SHORT_NAME, PiaimcAttribute::getCloudCover),
           new IsrAttributes().getAttributeDescriptor(Isr.CLOUD_COVER),
           CLOUDCVR);
 
@@ -135,133 +135,133 @@ public class PiaimcAttribute extends NitfAttributeImpl<Tre> {
       new PiaimcAttribute(
           SRP,
           STANDARD_RADIOMETRIC_PRODUCT_SHORT_NAME,
-          tre -> TreUtility.convertYnToBoolean(tre, STANDARD_RADIOMETRIC_PRODUCT_SHORT_NAME),
+          TreUtility.ynBooleanField(STANDARD_RADIOMETRIC_PRODUCT_SHORT_NAME),
           BasicTypes.BOOLEAN_TYPE);
 
   static final PiaimcAttribute SENSMODE_ATTRIBUTE =
       new PiaimcAttribute(
           SENSMODE,
           SENSMODE_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, SENSMODE_SHORT_NAME),
+          TreUtility.stringField(SENSMODE_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute SENSNAME_ATTRIBUTE =
       new PiaimcAttribute(
           SENSNAME,
           SENSNAME_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, SENSNAME_SHORT_NAME),
+          TreUtility.stringField(SENSNAME_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute SOURCE_ATTRIBUTE =
       new PiaimcAttribute(
           SOURCE,
           SOURCE_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, SOURCE_SHORT_NAME),
+          TreUtility.stringField(SOURCE_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute COMGEN_ATTRIBUTE =
       new PiaimcAttribute(
           COMGEN,
           COMGEN_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, COMGEN_SHORT_NAME),
+          TreUtility.integerField(COMGEN_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final PiaimcAttribute SUBQUAL_ATTRIBUTE =
       new PiaimcAttribute(
           SUBQUAL,
           SUBQUAL_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, SUBQUAL_SHORT_NAME),
+          TreUtility.stringField(SUBQUAL_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute PIAMSNNUM_ATTRIBUTE =
       new PiaimcAttribute(
           PIAMSNNUM,
           PIAMSNNUM_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, PIAMSNNUM_SHORT_NAME),
+          TreUtility.stringField(PIAMSNNUM_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute CAMSPECS_ATTRIBUTE =
       new PiaimcAttribute(
           CAMSPECS,
           CAMSPECS_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, CAMSPECS_SHORT_NAME),
+          TreUtility.stringField(CAMSPECS_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute PROJID_ATTRIBUTE =
       new PiaimcAttribute(
           PROJID,
           PROJID_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, PROJID_SHORT_NAME),
+          TreUtility.stringField(PROJID_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute GENERATION_ATTRIBUTE =
       new PiaimcAttribute(
           GENERATION,
           GENERATION_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, GENERATION_SHORT_NAME),
+          TreUtility.integerField(GENERATION_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final PiaimcAttribute ESD_ATTRIBUTE =
       new PiaimcAttribute(
           ESD,
           EXPLOITATION_SUPPORT_DATA_SHORT_NAME,
-          tre -> TreUtility.convertYnToBoolean(tre, EXPLOITATION_SUPPORT_DATA_SHORT_NAME),
+          TreUtility.ynBooleanField(EXPLOITATION_SUPPORT_DATA_SHORT_NAME),
           BasicTypes.BOOLEAN_TYPE);
 
   static final PiaimcAttribute OTHERCOND_ATTRIBUTE =
       new PiaimcAttribute(
           OTHERCOND,
           OTHERCOND_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, OTHERCOND_SHORT_NAME),
+          TreUtility.stringField(OTHERCOND_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute MEANGSD_ATTRIBUTE =
       new PiaimcAttribute(
           MEANGSD,
           MEANGSD_SHORT_NAME,
-          tre -> TreUtility.convertToFloat(tre, MEANGSD_SHORT_NAME),
+          TreUtility.floatField(MEANGSD_SHORT_NAME),
           BasicTypes.FLOAT_TYPE);
 
   static final PiaimcAttribute IDATUM_ATTRIBUTE =
       new PiaimcAttribute(
           IDATUM,
           IDATUM_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, IDATUM_SHORT_NAME),
+          TreUtility.stringField(IDATUM_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute IELLIP_ATTRIBUTE =
       new PiaimcAttribute(
           IELLIP,
           IELLIP_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, IELLIP_SHORT_NAME),
+          TreUtility.stringField(IELLIP_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute PREPROC_ATTRIBUTE =
       new PiaimcAttribute(
           PREPROC,
           PREPROC_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, PREPROC_SHORT_NAME),
+          TreUtility.stringField(PREPROC_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute IPROJ_ATTRIBUTE =
       new PiaimcAttribute(
           IPROJ,
           IPROJ_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, IPROJ_SHORT_NAME),
+          TreUtility.stringField(IPROJ_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final PiaimcAttribute SATTRACK_PATH_ATTRIBUTE =
       new PiaimcAttribute(
           SATTRACK_PATH,
           SATTRACK_PATH_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, SATTRACK_PATH_SHORT_NAME),
+          TreUtility.integerField(SATTRACK_PATH_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   static final PiaimcAttribute SATTRACK_ROW_ATTRIBUTE =
       new PiaimcAttribute(
           SATTRACK_ROW,
           SATTRACK_ROW_SHORT_NAME,
-          tre -> TreUtility.convertToInteger(tre, SATTRACK_ROW_SHORT_NAME),
+          TreUtility.integerField(SATTRACK_ROW_SHORT_NAME),
           BasicTypes.INTEGER_TYPE);
 
   private PiaimcAttribute(
@@ -283,10 +283,8 @@ public class PiaimcAttribute extends NitfAttributeImpl<Tre> {
     ATTRIBUTES.add(this);
   }
 
-  private static Serializable getCloudCoverFunction(Tre tre) {
-    return Optional.ofNullable(TreUtility.getTreValue(tre, CLOUDCVR_SHORT_NAME))
-        .filter(String.class::isInstance)
-        .map(String.class::cast)
+  private static Serializable getCloudCover(String cloudCover) {
+    return Optional.ofNullable(cloudCover)
         .filter(StringUtils::isNotEmpty)
         .map(Double::valueOf)
         .filter(value -> value >= 0 && value <= 100)
@@ -61,83 +61,73 @@ public class PiaprdAttribute extends NitfAttributeImpl<Tre> {
 
   public static final PiaprdAttribute ACCESS_ID_ATTRIBUTE =
       new PiaprdAttribute(
-          ACCESS_ID,
-          "ACCESSID",
-          tre -> TreUtility.getTreValue(tre, "ACCESSID"),
-          BasicTypes.STRING_TYPE);
+          ACCESS_ID, "ACCESSID", TreUtility.stringField("ACCESSID"), BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute FM_CONTROL_NUMBER_ATTRIBUTE =
       new PiaprdAttribute(
           FM_CONTROL_NUMBER,
           "FMCONTROL",
-          tre -> TreUtility.getTreValue(tre, "FMCONTROL"),
+          TreUtility.stringField("FMCONTROL"),
           BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute SUBJECTIVE_DETAIL_ATTRIBUTE =
       new PiaprdAttribute(
-          SUBJECTIVE_DETAIL,
-          "SUBDET",
-          tre -> TreUtility.getTreValue(tre, "SUBDET"),
-          BasicTypes.STRING_TYPE);
+          SUBJECTIVE_DETAIL, "SUBDET", TreUtility.stringField("SUBDET"), BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute PRODUCT_CODE_ATTRIBUTE =
       new PiaprdAttribute(
-          PRODUCT_CODE,
-          "PRODCODE",
-          tre -> TreUtility.getTreValue(tre, "PRODCODE"),
-          BasicTypes.STRING_TYPE);
+          PRODUCT_CODE, "PRODCODE", TreUtility.stringField("PRODCODE"), BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute PRODUCER_SUPPLEMENT_ATTRIBUTE =
       new PiaprdAttribute(
           PRODUCER_SUPPLEMENT,
           "PRODUCERSE",
-          tre -> TreUtility.getTreValue(tre, "PRODUCERSE"),
+          TreUtility.stringField("PRODUCERSE"),
           BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute PRODUCT_ID_NUMBER_ATTRIBUTE =
       new PiaprdAttribute(
           PRODUCT_ID_NUMBER,
           "PRODIDNO",
-          tre -> TreUtility.getTreValue(tre, "PRODIDNO"),
+          TreUtility.stringField("PRODIDNO"),
           BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute PRODUCT_SHORT_NAME_ATTRIBUTE =
       new PiaprdAttribute(
           PRODUCT_SHORT_NAME,
           "PRODSNME",
-          tre -> TreUtility.getTreValue(tre, "PRODSNME"),
+          TreUtility.stringField("PRODSNME"),
           BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute PRODUCER_CODE_ATTRIBUTE =
       new PiaprdAttribute(
           PRODUCER_CODE,
           "PRODUCERCD",
-          tre -> TreUtility.getTreValue(tre, "PRODUCERCD"),
+          TreUtility.stringField("PRODUCERCD"),
           BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute PRODUCER_CREATE_TIME_ATTRIBUTE =
       new PiaprdAttribute(
           PRODUCER_CREATE_TIME,
           "PRODCRTIME",
-          tre -> TreUtility.getTreValue(tre, "PRODCRTIME"),
+          TreUtility.stringField("PRODCRTIME"),
           BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute MAP_ID_ATTRIBUTE =
-      new PiaprdAttribute(
-          MAP_ID, "MAPID", tre -> TreUtility.getTreValue(tre, "MAPID"), BasicTypes.STRING_TYPE);
+      new PiaprdAttribute(MAP_ID, "MAPID", TreUtility.stringField("MAPID"), BasicTypes.STRING_TYPE);
 
   public static final PiaprdAttribute KEYWORD_REPETITIONS_ATTRIBUTE =
       new PiaprdAttribute(
           KEYWORD_REPETITIONS,
           "KEYWORDREP",
-          tre -> TreUtility.convertToInteger(tre, "KEYWORDREP"),
+          TreUtility.integerField("KEYWORDREP"),
           BasicTypes.INTEGER_TYPE);
 
   public static final PiaprdAttribute KEYWORD_ATTRIBUTE =
       new PiaprdAttribute(
           KEYWORD,
           "KEYWORD",
-          tre -> TreUtility.getTreValue(tre, "KEYWORD"),
+          TreUtility.stringField("KEYWORD"),
           BasicTypes.STRING_TYPE,
           IndexedPiaprdAttribute.getAttributes());
 
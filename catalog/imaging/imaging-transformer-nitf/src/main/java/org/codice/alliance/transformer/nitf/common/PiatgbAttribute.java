@@ -57,73 +57,55 @@ public class PiatgbAttribute extends NitfAttributeImpl<Tre> {
 
   public static final PiatgbAttribute TARGET_UTM_ATTRIBUTE =
       new PiatgbAttribute(
-          TARGET_UTM,
-          "TGTUTM",
-          tre -> TreUtility.getTreValue(tre, "TGTUTM"),
-          BasicTypes.STRING_TYPE);
+          TARGET_UTM, "TGTUTM", TreUtility.stringField("TGTUTM"), BasicTypes.STRING_TYPE);
 
   public static final PiatgbAttribute PIA_TARGET_IDENTIFICATION_ATTRIBUTE =
       new PiatgbAttribute(
           PIA_TARGET_IDENTIFICATION,
           "PIATGAID",
-          tre -> TreUtility.getTreValue(tre, "PIATGAID"),
+          TreUtility.stringField("PIATGAID"),
           BasicTypes.STRING_TYPE);
 
   public static final PiatgbAttribute PIA_COUNTRY_ATTRIBUTE =
       new PiatgbAttribute(
-          PIA_COUNTRY,
-          "PIACTRY",
-          tre -> TreUtility.getTreValue(tre, "PIACTRY"),
-          BasicTypes.STRING_TYPE);
+          PIA_COUNTRY, "PIACTRY", TreUtility.stringField("PIACTRY"), BasicTypes.STRING_TYPE);
 
   public static final PiatgbAttribute PIA_CATEGORY_ATTRIBUTE =
       new PiatgbAttribute(
-          PIA_CATEGORY,
-          "PIACAT",
-          tre -> TreUtility.getTreValue(tre, "PIACAT"),
-          BasicTypes.STRING_TYPE);
+          PIA_CATEGORY, "PIACAT", TreUtility.stringField("PIACAT"), BasicTypes.STRING_TYPE);
 
   public static final PiatgbAttribute TARGET_GEOGRAPHIC_COORDINATES_ATTRIBUTE =
       new PiatgbAttribute(
           TARGET_GEOGRAPHIC_COORDINATES,
           "TGTGEO",
-          tre -> TreUtility.getTreValue(tre, "TGTGEO"),
+          TreUtility.stringField("TGTGEO"),
           BasicTypes.STRING_TYPE);
 
   public static final PiatgbAttribute TARGET_COORDINATE_DATUM_ATTRIBUTE =
       new PiatgbAttribute(
           TARGET_COORDINATE_DATUM,
           "DATUM",
-          tre -> TreUtility.convertToString(tre, "DATUM"),
+          TreUtility.stringField("DATUM"),
           BasicTypes.STRING_TYPE);
 
   public static final PiatgbAttribute TARGET_NAME_ATTRIBUTE =
       new PiatgbAttribute(
-          TARGET_NAME,
-          "TGTNAME",
-          tre -> TreUtility.getTreValue(tre, "TGTNAME"),
-          BasicTypes.STRING_TYPE);
+          TARGET_NAME, "TGTNAME", TreUtility.stringField("TGTNAME"), BasicTypes.STRING_TYPE);
 
   public static final PiatgbAttribute PERCENTAGE_OF_COVERAGE_ATTRIBUTE =
       new PiatgbAttribute(
           PERCENTAGE_OF_COVERAGE,
           "PERCOVER",
-          tre -> TreUtility.convertToInteger(tre, "PERCOVER"),
+          TreUtility.integerField("PERCOVER"),
           BasicTypes.INTEGER_TYPE);
 
   public static final PiatgbAttribute TARGET_LATITUDE_ATTRIBUTE =
       new PiatgbAttribute(
-          TARGET_LATITUDE,
-          "TGTLAT",
-          tre -> TreUtility.convertToFloat(tre, "TGTLAT"),
-          BasicTypes.FLOAT_TYPE);
+          TARGET_LATITUDE, "TGTLAT", TreUtility.floatField("TGTLAT"), BasicTypes.FLOAT_TYPE);
 
   public static final PiatgbAttribute TARGET_LONGITUDE_ATTRIBUTE =
       new PiatgbAttribute(
-          TARGET_LONGITUDE,
-          "TGTLON",
-          tre -> TreUtility.convertToFloat(tre, "TGTLON"),
-          BasicTypes.FLOAT_TYPE);
+          TARGET_LONGITUDE, "TGTLON", TreUtility.floatField("TGTLON"), BasicTypes.FLOAT_TYPE);
 
   private PiatgbAttribute(
       String longName,
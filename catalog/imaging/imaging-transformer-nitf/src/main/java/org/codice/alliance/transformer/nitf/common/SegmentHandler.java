@@ -14,21 +14,20 @@
 package org.codice.alliance.transformer.nitf.common;
 
 import ddf.catalog.data.Attribute;
-import ddf.catalog.data.AttributeDescriptor;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.impl.AttributeImpl;
-import ddf.catalog.data.impl.BasicTypes;
 import ddf.catalog.data.types.Validation;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.function.Function;
-import org.codice.alliance.transformer.nitf.ExtNitfUtility;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.codice.alliance.transformer.nitf.NitfAttributeTransformException;
 import org.codice.imaging.nitf.core.common.TaggedRecordExtensionHandler;
 import org.codice.imaging.nitf.core.tre.Tre;
+import org.codice.imaging.nitf.core.tre.TreEntry;
 import org.codice.imaging.nitf.core.tre.TreGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,9 +36,20 @@ public class SegmentHandler {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SegmentHandler.class);
 
+  /**
+   * Segment header attributes compiled on first use. The attribute constants are shared by every
+   * transform, so each is compiled once for the life of the transformer.
+   */
+  private static final Map<NitfAttribute<?>, CompiledNitfAttribute<?>> COMPILED_ATTRIBUTES =
+      new ConcurrentHashMap<>();
+
   protected <T> void handleSegmentHeader(
       Metacard metacard, T segment, List<NitfAttribute<T>> attributes) {
-    attributes.forEach(attribute -> handleValue(metacard, attribute, segment));
+    AttributeAccumulator accumulator = new AttributeAccumulator();
+    for (NitfAttribute<T> attribute : attributes) {
+      handleValue(metacard, accumulator, compiled(attribute), segment, null);
+    }
+    accumulator.writeTo(metacard);
   }
 
   protected <T> void handleSegmentHeader(Metacard metacard, T segment, NitfAttribute[] attributes) {
@@ -50,92 +60,104 @@ public class SegmentHandler {
       Metacard metacard, TaggedRecordExtensionHandler taggedRecordextensionHandler) {
     List<Tre> tres = taggedRecordextensionHandler.getTREsRawStructure().getTREs();
 
-    tres.forEach(
-        tre ->
-            Optional.ofNullable(TreDescriptor.forName(tre.getName().trim()))
-                .ifPresent(treDescriptor -> handleTre(metacard, tre, treDescriptor.getValues())));
+    AttributeAccumulator accumulator = new AttributeAccumulator();
+
+    for (Tre tre : tres) {
+      TreDescriptor treDescriptor = TreDescriptor.forName(tre.getName().trim());
+      if (treDescriptor != null) {
+        handleTre(metacard, accumulator, tre, treDescriptor.getCompiledTre());
+      }
+    }
+
+    accumulator.writeTo(metacard);
   }
 
-  private <T> void handleTre(Metacard metacard, Tre tre, List<NitfAttribute<T>> treValues) {
-    treValues.forEach(attribute -> handleTreValues(metacard, attribute, tre));
+  @SuppressWarnings("unchecked")
+  private static <T> CompiledNitfAttribute<T> compiled(NitfAttribute<T> attribute) {
+    return (CompiledNitfAttribute<T>)
+        COMPILED_ATTRIBUTES.computeIfAbsent(attribute, key -> CompiledNitfAttribute.compile(key));
   }
 
-  private void handleTreValues(Metacard metacard, NitfAttribute attribute, Tre tre) {
-    NitfAttributeImpl treAttribute = (NitfAttributeImpl) attribute;
-    List<NitfAttribute<TreGroup>> indexedAttributes = treAttribute.getIndexedAttributes();
-    if (indexedAttributes != null && !indexedAttributes.isEmpty()) {
-      List<TreGroup> treGroups = TreUtility.getTreGroups(tre, attribute.getShortName());
-      if (treGroups != null) {
-        treGroups.forEach(treGroup -> handleSegmentHeader(metacard, treGroup, indexedAttributes));
+  /** Reads the fields of the TRE once, then every attribute reads its field by index. */
+  private void handleTre(
+      Metacard metacard,
+      AttributeAccumulator accumulator,
+      Tre tre,
+      CompiledTreGroup<Tre> compiledTre) {
+    TreEntry[] fields = compiledTre.readFields(tre);
+
+    for (CompiledNitfAttribute<Tre> attribute : compiledTre.getAttributes()) {
+      CompiledTreGroup<TreGroup> indexedGroup = attribute.getIndexedGroup();
+      if (indexedGroup != null) {
+        List<TreGroup> treGroups = attribute.getGroups(fields);
+        if (treGroups != null) {
+          for (TreGroup treGroup : treGroups) {
+            TreEntry[] groupFields = indexedGroup.readFields(treGroup);
+            for (CompiledNitfAttribute<TreGroup> indexedAttribute : indexedGroup.getAttributes()) {
+              handleValue(metacard, accumulator, indexedAttribute, treGroup, groupFields);
+            }
+          }
+        }
       }
+      handleValue(metacard, accumulator, attribute, tre, fields);
     }
-    handleValue(metacard, attribute, tre);
   }
 
-  private <T> void handleValue(Metacard metacard, NitfAttribute attribute, T segment) {
-    Function<T, Serializable> accessor = attribute.getAccessorFunction();
-
+  private <T> void handleValue(
+      Metacard metacard,
+      AttributeAccumulator accumulator,
+      CompiledNitfAttribute<T> attribute,
+      T segment,
+      TreEntry[] fields) {
     Serializable value;
     try {
-      value = accessor.apply(segment);
+      value = attribute.getValue(segment, fields);
     } catch (NitfAttributeTransformException e) {
       LOGGER.debug(
           "Error accessing NITF attribute value. Skipping attribute [{}] on Metacard with ID [{}]",
-          attribute.getLongName(),
+          attribute.getAttribute().getLongName(),
           metacard.getId(),
           e);
 
-      if (!ExtNitfUtility.isExtAttribute(attribute)) {
-        handleBadAttribute(metacard, attribute, e.getOriginalValue());
+      if (!attribute.isExtAttribute()) {
+        handleBadAttribute(accumulator, attribute, e.getOriginalValue());
       }
       return;
     }
 
-    Function<T, Serializable> extAccessor = attribute.getExtAccessorFunction();
-    Serializable extValue = extAccessor.apply(segment);
+    Serializable extValue = attribute.getExtValue(segment, value);
 
-    Set<AttributeDescriptor> descriptors = attribute.getAttributeDescriptors();
+    String[] attributeNames = attribute.getAttributeNames();
 
-    if (descriptors == null) {
+    if (attributeNames == null) {
       LOGGER.debug(
           "Could not set metacard attribute {} since it does not belong to this metacard type.",
-          attribute.getLongName());
+          attribute.getAttribute().getLongName());
       return;
     }
 
-    for (AttributeDescriptor descriptor : descriptors) {
-      if (descriptor.getType().equals(BasicTypes.STRING_TYPE)) {
-        if (value != null && value.toString().length() == 0) {
-          value = null;
-        }
-        if (extValue != null && extValue.toString().length() == 0) {
-          extValue = null;
-        }
+    if (value != null) {
+      for (String attributeName : attributeNames) {
+        accumulator.add(attributeName, value);
       }
     }
 
-    for (AttributeDescriptor descriptor : descriptors) {
-      if (descriptor.getName().contains(ExtNitfUtility.EXT_NITF_PREFIX)) {
-        if (extValue != null) {
-          setMetacardAttribute(metacard, descriptor.getName(), extValue);
-        }
-      } else {
-        if (value != null) {
-          setMetacardAttribute(metacard, descriptor.getName(), value);
-        }
+    if (extValue != null) {
+      for (String attributeName : attribute.getExtAttributeNames()) {
+        accumulator.add(attributeName, extValue);
       }
     }
   }
 
   private void handleBadAttribute(
-      Metacard metacard, NitfAttribute attribute, Serializable originalValue) {
-    Set<AttributeDescriptor> attributeDescriptors = attribute.getAttributeDescriptors();
-
-    for (AttributeDescriptor descriptor : attributeDescriptors) {
-      setMetacardAttribute(metacard, descriptor.getName(), originalValue);
+      AttributeAccumulator accumulator,
+      CompiledNitfAttribute<?> attribute,
+      Serializable originalValue) {
+    for (String attributeName : attribute.getAllAttributeNames()) {
+      accumulator.add(attributeName, originalValue);
     }
 
-    attachValidationWarning(metacard, attribute);
+    attachValidationWarning(accumulator, attribute.getAttribute());
   }
 
   /**
@@ -143,26 +165,48 @@ public class SegmentHandler {
    * descriptors are defined in the {@link
    * org.codice.alliance.transformer.nitf.AbstractNitfMetacardType}
    */
-  private void attachValidationWarning(Metacard metacard, NitfAttribute attribute) {
+  private void attachValidationWarning(AttributeAccumulator accumulator, NitfAttribute attribute) {
     String warningMessage =
         String.format(
             "Error while processing NITF attribute %s (%s). This NITF attribute was set to its original value and needs to be fixed manually.",
             attribute.getLongName(), attribute.getShortName());
 
-    setMetacardAttribute(metacard, Validation.VALIDATION_WARNINGS, warningMessage);
+    accumulator.add(Validation.VALIDATION_WARNINGS, warningMessage);
   }
 
-  private void setMetacardAttribute(Metacard metacard, String attributeName, Serializable value) {
-    Attribute currentAttribute = metacard.getAttribute(attributeName);
+  /**
+   * Collects the values of each metacard attribute while a segment is handled, so that an attribute
+   * with many values (e.g. one per MTIRPB target) is written to the metacard once instead of being
+   * copied every time a value is added.
+   */
+  private static class AttributeAccumulator {
+
+    private final Map<String, List<Serializable>> values = new LinkedHashMap<>();
+
+    void add(String attributeName, Serializable value) {
+      LOGGER.trace("Adding the metacard attribute value [{}, {}]", attributeName, value);
+      values.computeIfAbsent(attributeName, name -> new ArrayList<>()).add(value);
+    }
 
-    if (currentAttribute == null) {
-      currentAttribute = new AttributeImpl(attributeName, value);
-    } else {
-      AttributeImpl newAttribute = new AttributeImpl(currentAttribute);
-      newAttribute.addValue(value);
-      currentAttribute = newAttribute;
+    void writeTo(Metacard metacard) {
+      values.forEach(
+          (attributeName, attributeValues) -> {
+            Attribute currentAttribute = metacard.getAttribute(attributeName);
+
+            List<Serializable> newValues = attributeValues;
+            if (currentAttribute != null && currentAttribute.getValues() != null) {
+              newValues =
+                  new ArrayList<>(currentAttribute.getValues().size() + attributeValues.size());
+              newValues.addAll(currentAttribute.getValues());
+              newValues.addAll(attributeValues);
+            }
+
+            LOGGER.trace(
+                "Setting the metacard attribute [{}] with {} values",
+                attributeName,
+                newValues.size());
+            metacard.setAttribute(new AttributeImpl(attributeName, newValues));
+          });
     }
-    LOGGER.trace("Setting the metacard attribute [{}, {}]", attributeName, value);
-    metacard.setAttribute(currentAttribute);
   }
 }
@@ -102,9 +102,7 @@ public class StdidcAttribute extends NitfAttributeImpl<Tre> {
       new StdidcAttribute(
           Location.COUNTRY_CODE,
           COUNTRY_SHORT_NAME,
-          tre ->
-              NitfAttributeConverters.fipsToStandardCountryCode(
-                  TreUtility.convertToString(tre, COUNTRY_SHORT_NAME)),
+          TreUtility.field(COUNTRY_SHORT_NAME, NitfAttributeConverters::fipsToStandardCountryCode),
           new LocationAttributes().getAttributeDescriptor(Location.COUNTRY_CODE),
           "");
 
@@ -116,105 +114,99 @@ public class StdidcAttribute extends NitfAttributeImpl<Tre> {
       new StdidcAttribute(
           ACQUISITION_DATE,
           ACQUISITION_DATE_SHORT_NAME,
-          tre -> TreUtility.convertToDate(tre, ACQUISITION_DATE_SHORT_NAME),
+          TreUtility.dateField(ACQUISITION_DATE_SHORT_NAME),
           BasicTypes.DATE_TYPE);
 
   static final StdidcAttribute COUNTRY_ATTRIBUTE =
       new StdidcAttribute(
           COUNTRY,
           COUNTRY_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, COUNTRY_SHORT_NAME),
+          TreUtility.stringField(COUNTRY_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute LOCATION_ATTRIBUTE =
       new StdidcAttribute(
           LOCATION,
           LOCATION_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, LOCATION_SHORT_NAME),
+          TreUtility.stringField(LOCATION_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute WAC_ATTRIBUTE =
       new StdidcAttribute(
-          WAC,
-          WAC_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, WAC_SHORT_NAME),
-          BasicTypes.STRING_TYPE);
+          WAC, WAC_SHORT_NAME, TreUtility.stringField(WAC_SHORT_NAME), BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute MISSION_ATTRIBUTE =
       new StdidcAttribute(
           MISSION,
           MISSION_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, MISSION_SHORT_NAME),
+          TreUtility.stringField(MISSION_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute OP_NUM_ATTRIBUTE =
       new StdidcAttribute(
           OP_NUM,
           OP_NUM_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, OP_NUM_SHORT_NAME),
+          TreUtility.stringField(OP_NUM_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute PASS_ATTRIBUTE =
       new StdidcAttribute(
-          PASS,
-          PASS_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, PASS_SHORT_NAME),
-          BasicTypes.STRING_TYPE);
+          PASS, PASS_SHORT_NAME, TreUtility.stringField(PASS_SHORT_NAME), BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute REPLAY_REGEN_ATTRIBUTE =
       new StdidcAttribute(
           REPLAY_REGEN,
           REPLAY_REGEN_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, REPLAY_REGEN_SHORT_NAME),
+          TreUtility.stringField(REPLAY_REGEN_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute REPRO_NUM_ATTRIBUTE =
       new StdidcAttribute(
           REPRO_NUM,
           REPRO_NUM_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, REPRO_NUM_SHORT_NAME),
+          TreUtility.stringField(REPRO_NUM_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute START_COLUMN_ATTRIBUTE =
       new StdidcAttribute(
           START_COLUMN,
           START_COLUMN_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, START_COLUMN_SHORT_NAME),
+          TreUtility.stringField(START_COLUMN_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute START_ROW_ATTRIBUTE =
       new StdidcAttribute(
           START_ROW,
           START_ROW_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, START_ROW_SHORT_NAME),
+          TreUtility.stringField(START_ROW_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute START_SEGMENT_ATTRIBUTE =
       new StdidcAttribute(
           START_SEGMENT,
           START_SEGMENT_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, START_SEGMENT_SHORT_NAME),
+          TreUtility.stringField(START_SEGMENT_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute END_COLUMN_ATTRIBUTE =
       new StdidcAttribute(
           END_COLUMN,
           END_COLUMN_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, END_COLUMN_SHORT_NAME),
+          TreUtility.stringField(END_COLUMN_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute END_ROW_ATTRIBUTE =
       new StdidcAttribute(
           END_ROW,
           END_ROW_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, END_ROW_SHORT_NAME),
+          TreUtility.stringField(END_ROW_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   static final StdidcAttribute END_SEGMENT_ATTRIBUTE =
       new StdidcAttribute(
           END_SEGMENT,
           END_SEGMENT_SHORT_NAME,
-          tre -> TreUtility.convertToString(tre, END_SEGMENT_SHORT_NAME),
+          TreUtility.stringField(END_SEGMENT_SHORT_NAME),
           BasicTypes.STRING_TYPE);
 
   private StdidcAttribute(
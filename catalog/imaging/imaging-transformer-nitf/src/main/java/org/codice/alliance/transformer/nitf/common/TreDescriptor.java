@@ -13,8 +13,10 @@
  */
 package org.codice.alliance.transformer.nitf.common;
 
-import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.codice.alliance.transformer.nitf.gmti.MtirpbAttribute;
 import org.codice.imaging.nitf.core.tre.Tre;
 
@@ -31,20 +33,38 @@ public enum TreDescriptor {
   PIATGB(PiatgbAttribute.getAttributes()),
   STDIDC(StdidcAttribute.getAttributes());
 
+  private static final Map<String, TreDescriptor> BY_NAME;
+
+  static {
+    Map<String, TreDescriptor> byName = new HashMap<>();
+    for (TreDescriptor treDescriptor : values()) {
+      byName.put(treDescriptor.name(), treDescriptor);
+    }
+    BY_NAME = Collections.unmodifiableMap(byName);
+  }
+
   private final List<NitfAttribute<Tre>> nitfAttributes;
 
+  private final CompiledTreGroup<Tre> compiledTre;
+
   TreDescriptor(List<NitfAttribute<Tre>> nitfAttributes) {
     this.nitfAttributes = nitfAttributes;
+    this.compiledTre = CompiledTreGroup.compile(nitfAttributes);
   }
 
   public static TreDescriptor forName(String name) {
-    return Arrays.stream(TreDescriptor.values())
-        .filter(treDescriptor -> treDescriptor.name().equals(name))
-        .findFirst()
-        .orElse(null);
+    return name == null ? null : BY_NAME.get(name);
   }
 
   public List<NitfAttribute<Tre>> getValues() {
     return nitfAttributes;
   }
+
+  /**
+   * @return the attributes of this TRE, compiled once when the descriptor is loaded, with the
+   *     fields they read resolved to indexes.
+   */
+  CompiledTreGroup<Tre> getCompiledTre() {
+    return compiledTre;
+  }
 }
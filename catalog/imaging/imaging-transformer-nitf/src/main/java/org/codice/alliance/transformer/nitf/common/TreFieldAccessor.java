@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.transformer.nitf.common;
+
+import java.io.Serializable;
+import java.util.function.Function;
+import org.codice.imaging.nitf.core.tre.TreGroup;
+
+/**
+ * Reads one named field of a TRE or TRE group and converts it. The field name is kept so that
+ * {@link CompiledNitfAttribute} can read the field by index instead of by name.
+ *
+ * @param <T> the type of TRE or TRE group the field is read from
+ */
+final class TreFieldAccessor<T extends TreGroup> implements Function<T, Serializable> {
+
+  private final String fieldName;
+
+  private final Function<String, Serializable> converter;
+
+  TreFieldAccessor(String fieldName, Function<String, Serializable> converter) {
+    this.fieldName = fieldName;
+    this.converter = converter;
+  }
+
+  @Override
+  public Serializable apply(T treGroup) {
+    return converter.apply(TreUtility.getTreValue(treGroup, fieldName));
+  }
+
+  String getFieldName() {
+    return fieldName;
+  }
+
+  /** @param value the trimmed field value, or null if the field is missing */
+  Serializable convert(String value) {
+    return converter.apply(value);
+  }
+}
@@ -13,11 +13,13 @@
  */
 package org.codice.alliance.transformer.nitf.common;
 
+import java.io.Serializable;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.StringUtils;
@@ -100,6 +102,39 @@ public final class TreUtility {
     return null;
   }
 
+  /**
+   * Create an accessor for one field of a TRE or TRE group. The accessor looks the field up by name
+   * when it is applied directly, but {@link SegmentHandler} resolves the field to an index once per
+   * {@link TreDescriptor} and passes the value to the converter without a lookup.
+   *
+   * @param fieldName the name of the field
+   * @param converter converts the trimmed field value, which is null if the field is missing
+   */
+  public static <T extends TreGroup> Function<T, Serializable> field(
+      String fieldName, Function<String, Serializable> converter) {
+    return new TreFieldAccessor<>(fieldName, converter);
+  }
+
+  public static <T extends TreGroup> Function<T, Serializable> stringField(String fieldName) {
+    return field(fieldName, value -> value);
+  }
+
+  public static <T extends TreGroup> Function<T, Serializable> integerField(String fieldName) {
+    return field(fieldName, TreUtility::toInteger);
+  }
+
+  public static <T extends TreGroup> Function<T, Serializable> floatField(String fieldName) {
+    return field(fieldName, TreUtility::toFloat);
+  }
+
+  public static <T extends TreGroup> Function<T, Serializable> ynBooleanField(String fieldName) {
+    return field(fieldName, TreUtility::ynToBoolean);
+  }
+
+  public static <T extends TreGroup> Function<T, Serializable> dateField(String fieldName) {
+    return field(fieldName, TreUtility::toDate);
+  }
+
   @Nullable
   public static String convertToString(Tre tre, String fieldName) {
     return TreUtility.getTreValue(tre, fieldName);
@@ -107,11 +142,7 @@ public final class TreUtility {
 
   @Nullable
   public static Integer convertToInteger(Tre tre, String fieldName) {
-    String value = TreUtility.getTreValue(tre, fieldName);
-    if (StringUtils.isNotEmpty(value) && INTEGER_PATTERN.matcher(value).matches()) {
-      return Integer.valueOf(value);
-    }
-    return null;
+    return toInteger(TreUtility.getTreValue(tre, fieldName));
   }
 
   public static Optional<Integer> findIntValue(Tre tre, String tagName) {
@@ -125,7 +156,29 @@ public final class TreUtility {
 
   @Nullable
   public static Float convertToFloat(Tre tre, String fieldName) {
-    String value = TreUtility.getTreValue(tre, fieldName);
+    return toFloat(TreUtility.getTreValue(tre, fieldName));
+  }
+
+  @Nullable
+  public static Boolean convertYnToBoolean(Tre tre, String fieldName) {
+    return ynToBoolean(TreUtility.getTreValue(tre, fieldName));
+  }
+
+  @Nullable
+  public static Date convertToDate(Tre tre, String fieldName) {
+    return toDate(TreUtility.getTreValue(tre, fieldName));
+  }
+
+  @Nullable
+  private static Integer toInteger(String value) {
+    if (StringUtils.isNotEmpty(value) && INTEGER_PATTERN.matcher(value).matches()) {
+      return Integer.valueOf(value);
+    }
+    return null;
+  }
+
+  @Nullable
+  private static Float toFloat(String value) {
     if (StringUtils.isNotEmpty(value) && FLOAT_PATTERN.matcher(value).matches()) {
       return Float.valueOf(value);
     }
@@ -133,8 +186,7 @@ public final class TreUtility {
   }
 
   @Nullable
-  public static Boolean convertYnToBoolean(Tre tre, String fieldName) {
-    String value = TreUtility.getTreValue(tre, fieldName);
+  private static Boolean ynToBoolean(String value) {
     if (value != null) {
       return value.equalsIgnoreCase("Y");
     } else {
@@ -143,8 +195,7 @@ public final class TreUtility {
   }
 
   @Nullable
-  public static Date convertToDate(Tre tre, String fieldName) {
-    String value = TreUtility.getTreValue(tre, fieldName);
+  private static Date toDate(String value) {
     if (StringUtils.isNotEmpty(value)) {
       try {
         return DATE_FORMATTER.parse(value);
@@ -58,7 +58,7 @@ public class IndexedMtirpbAttribute extends NitfAttributeImpl<TreGroup> {
       new IndexedMtirpbAttribute(
           Core.LOCATION,
           "TGT_LOC",
-          tre -> TreUtility.getTreValue(tre, "TGT_LOC"),
+          TreUtility.stringField("TGT_LOC"),
           new CoreAttributes().getAttributeDescriptor(Core.LOCATION),
           INDEXED_TARGET_LOCATION);
 
@@ -70,42 +70,42 @@ public class IndexedMtirpbAttribute extends NitfAttributeImpl<TreGroup> {
       new IndexedMtirpbAttribute(
           INDEXED_TARGET_CLASSIFICATION_CATEGORY,
           "TGT_CAT",
-          IndexedMtirpbAttribute::getClassificationCategory,
+          TreUtility.field("TGT_CAT", IndexedMtirpbAttribute::getClassificationCategory),
           BasicTypes.STRING_TYPE);
 
   public static final IndexedMtirpbAttribute INDEXED_TARGET_AMPLITUDE_ATTRIBUTE =
       new IndexedMtirpbAttribute(
           INDEXED_TARGET_AMPLITUDE,
           "TGT_AMPLITUDE",
-          tre -> TreUtility.getTreValue(tre, "TGT_AMPLITUDE"),
+          TreUtility.stringField("TGT_AMPLITUDE"),
           BasicTypes.STRING_TYPE);
 
   public static final IndexedMtirpbAttribute INDEXED_TARGET_HEADING_ATTRIBUTE =
       new IndexedMtirpbAttribute(
           INDEXED_TARGET_HEADING,
           "TGT_HEADING",
-          tre -> TreUtility.getTreValue(tre, "TGT_HEADING"),
+          TreUtility.stringField("TGT_HEADING"),
           BasicTypes.STRING_TYPE);
 
   public static final IndexedMtirpbAttribute INDEXED_TARGET_GROUND_SPEED_ATTRIBUTE =
       new IndexedMtirpbAttribute(
           INDEXED_TARGET_GROUND_SPEED,
           "TGT_SPEED",
-          tre -> TreUtility.getTreValue(tre, "TGT_SPEED"),
+          TreUtility.stringField("TGT_SPEED"),
           BasicTypes.STRING_TYPE);
 
   public static final IndexedMtirpbAttribute INDEXED_TARGET_RADIAL_VELOCITY_ATTRIBUTE =
       new IndexedMtirpbAttribute(
           INDEXED_TARGET_RADIAL_VELOCITY,
           "TGT_VEL_R",
-          tre -> TreUtility.getTreValue(tre, "TGT_VEL_R"),
+          TreUtility.stringField("TGT_VEL_R"),
           BasicTypes.STRING_TYPE);
 
   public static final IndexedMtirpbAttribute INDEXED_TARGET_LOCATION_ACCURACY_ATTRIBUTE =
       new IndexedMtirpbAttribute(
           INDEXED_TARGET_LOCATION_ACCURACY,
           "TGT_LOC_ACCY",
-          tre -> TreUtility.getTreValue(tre, "TGT_LOC_ACCY"),
+          TreUtility.stringField("TGT_LOC_ACCY"),
           BasicTypes.STRING_TYPE);
 
   private IndexedMtirpbAttribute(
@@ -127,10 +127,7 @@ public class IndexedMtirpbAttribute extends NitfAttributeImpl<TreGroup> {
     ATTRIBUTES.add(this);
   }
 
-  private static String getClassificationCategory(TreGroup treGroup) {
-    String value =
-        TreUtility.getTreValue(
-            treGroup, INDEXED_TARGET_CLASSIFICATION_CATEGORY_ATTRIBUTE.getShortName());
+  private static String getClassificationCategory(String value) {
     if (value == null) {
       return MtiTargetClassificationCategory.U.getLongName();
     }
@@ -72,7 +72,7 @@ public class MtirpbAttribute extends NitfAttributeImpl<Tre> {
       new MtirpbAttribute(
           Isr.TARGET_REPORT_COUNT,
           "NO_VALID_TARGETS",
-          tre -> TreUtility.getTreValue(tre, "NO_VALID_TARGETS"),
+          TreUtility.stringField("NO_VALID_TARGETS"),
           new IsrAttributes().getAttributeDescriptor(Isr.TARGET_REPORT_COUNT),
           NUMBER_OF_VALID_TARGETS);
 
@@ -84,88 +84,79 @@ public class MtirpbAttribute extends NitfAttributeImpl<Tre> {
       new MtirpbAttribute(
           AIRCRAFT_LOCATION,
           "ACFT_LOC",
-          tre -> TreUtility.getTreValue(tre, "ACFT_LOC"),
+          TreUtility.stringField("ACFT_LOC"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute AIRCRAFT_ALTITUDE_ATTRIBUTE =
       new MtirpbAttribute(
           AIRCRAFT_ALTITUDE,
           "ACFT_ALT",
-          tre -> TreUtility.getTreValue(tre, "ACFT_ALT"),
+          TreUtility.stringField("ACFT_ALT"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute AIRCRAFT_ALTITUDE_UNITS_ATTRIBUTE =
       new MtirpbAttribute(
           AIRCRAFT_ALTITUDE_UNITS,
           "ACFT_ALT_UNIT",
-          tre -> TreUtility.getTreValue(tre, "ACFT_ALT_UNIT"),
+          TreUtility.stringField("ACFT_ALT_UNIT"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute AIRCRAFT_HEADING_ATTRIBUTE =
       new MtirpbAttribute(
           AIRCRAFT_HEADING,
           "ACFT_HEADING",
-          tre -> TreUtility.getTreValue(tre, "ACFT_HEADING"),
+          TreUtility.stringField("ACFT_HEADING"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute COSINE_OF_GRAZE_ANGLE_ATTRIBUTE =
       new MtirpbAttribute(
           COSINE_OF_GRAZE_ANGLE,
           "COSGRZ",
-          tre -> TreUtility.getTreValue(tre, "COSGRZ"),
+          TreUtility.stringField("COSGRZ"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute DESTINATION_POINT_ATTRIBUTE =
       new MtirpbAttribute(
-          DESTINATION_POINT,
-          "MTI_DP",
-          tre -> TreUtility.getTreValue(tre, "MTI_DP"),
-          BasicTypes.STRING_TYPE);
+          DESTINATION_POINT, "MTI_DP", TreUtility.stringField("MTI_DP"), BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute MTI_LR_ATTRIBUTE =
       new MtirpbAttribute(
-          MTI_LR, "MTI_LR", tre -> TreUtility.getTreValue(tre, "MTI_LR"), BasicTypes.STRING_TYPE);
+          MTI_LR, "MTI_LR", TreUtility.stringField("MTI_LR"), BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute PATCH_NUMBER_ATTRIBUTE =
       new MtirpbAttribute(
-          PATCH_NUMBER,
-          "PATCH_NO",
-          tre -> TreUtility.getTreValue(tre, "PATCH_NO"),
-          BasicTypes.STRING_TYPE);
+          PATCH_NUMBER, "PATCH_NO", TreUtility.stringField("PATCH_NO"), BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute SCAN_DATE_AND_TIME_ATTRIBUTE =
       new MtirpbAttribute(
-          SCAN_DATE_AND_TIME,
-          "DATIME",
-          tre -> TreUtility.getTreValue(tre, "DATIME"),
-          BasicTypes.STRING_TYPE);
+          SCAN_DATE_AND_TIME, "DATIME", TreUtility.stringField("DATIME"), BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute SQUINT_ANGLE_ATTRIBUTE =
       new MtirpbAttribute(
           SQUINT_ANGLE,
           "SQUINT_ANGLE",
-          tre -> TreUtility.getTreValue(tre, "SQUINT_ANGLE"),
+          TreUtility.stringField("SQUINT_ANGLE"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute WIDE_AREA_MTI_FRAME_NUMBER_ATTRIBUTE =
       new MtirpbAttribute(
           WIDE_AREA_MTI_FRAME_NUMBER,
           "WAMTI_FRAME_NO",
-          tre -> TreUtility.getTreValue(tre, "WAMTI_FRAME_NO"),
+          TreUtility.stringField("WAMTI_FRAME_NO"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute WIDE_AREA_MTI_BAR_NUMBER_ATTRIBUTE =
       new MtirpbAttribute(
           WIDE_AREA_MTI_BAR_NUMBER,
           "WAMTI_BAR_NO",
-          tre -> TreUtility.getTreValue(tre, "WAMTI_BAR_NO"),
+          TreUtility.stringField("WAMTI_BAR_NO"),
           BasicTypes.STRING_TYPE);
 
   public static final MtirpbAttribute TARGETS_ATTRIBUTE =
       new MtirpbAttribute(
           TARGETS,
           "TARGETS",
-          tre -> TreUtility.getTreValue(tre, "TARGETS"),
+          TreUtility.stringField("TARGETS"),
           BasicTypes.STRING_TYPE,
           IndexedMtirpbAttribute.getAttributes());
 
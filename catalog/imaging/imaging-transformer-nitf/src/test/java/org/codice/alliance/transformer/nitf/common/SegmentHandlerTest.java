@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.transformer.nitf.common;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.codice.alliance.transformer.nitf.gmti.IndexedMtirpbAttribute;
+import org.codice.alliance.transformer.nitf.gmti.MtirpbAttribute;
+import org.codice.imaging.nitf.core.common.TaggedRecordExtensionHandler;
+import org.codice.imaging.nitf.core.tre.Tre;
+import org.codice.imaging.nitf.core.tre.TreCollection;
+import org.codice.imaging.nitf.core.tre.TreEntry;
+import org.codice.imaging.nitf.core.tre.TreGroup;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class SegmentHandlerTest {
+
+  private static final int TARGET_COUNT = 1_000;
+
+  private SegmentHandler segmentHandler;
+
+  @Before
+  public void setUp() {
+    segmentHandler = new SegmentHandler();
+  }
+
+  @Test
+  public void testValuesAreAppendedToExistingAttribute() {
+    Metacard metacard = new MetacardImpl();
+    metacard.setAttribute(
+        new AttributeImpl(IndexedMtirpbAttribute.INDEXED_TARGET_AMPLITUDE, "existing"));
+
+    segmentHandler.handleTres(metacard, createGmtiHandler(2));
+
+    assertThat(
+        metacard.getAttribute(IndexedMtirpbAttribute.INDEXED_TARGET_AMPLITUDE).getValues().size(),
+        is(3));
+    assertThat(
+        metacard.getAttribute(IndexedMtirpbAttribute.INDEXED_TARGET_AMPLITUDE).getValue(),
+        is("existing"));
+  }
+
+  /**
+   * Transforms a synthetic GMTI TRE with many target records. Before the values were accumulated
+   * per segment, every target copied all prior values of each indexed attribute into a new
+   * attribute, which made the transform quadratic in the number of targets. Each attribute is now
+   * written to the metacard exactly once, whatever the number of targets.
+   */
+  @Test
+  public void testEachAttributeIsWrittenOnce() {
+    TaggedRecordExtensionHandler handler = createGmtiHandler(TARGET_COUNT);
+    Metacard metacard = spy(new MetacardImpl());
+
+    segmentHandler.handleTres(metacard, handler);
+
+    ArgumentCaptor<Attribute> attributes = ArgumentCaptor.forClass(Attribute.class);
+    verify(metacard, atLeastOnce()).setAttribute(attributes.capture());
+
+    Map<String, Long> writesPerAttribute =
+        attributes.getAllValues().stream()
+            .collect(Collectors.groupingBy(Attribute::getName, Collectors.counting()));
+    assertThat(writesPerAttribute.get(IndexedMtirpbAttribute.INDEXED_TARGET_AMPLITUDE), is(1L));
+    assertThat(Collections.max(writesPerAttribute.values()), is(1L));
+
+    assertThat(
+        metacard.getAttribute(IndexedMtirpbAttribute.INDEXED_TARGET_AMPLITUDE).getValues().size(),
+        is(TARGET_COUNT));
+    assertThat(
+        metacard
+            .getAttribute(IndexedMtirpbAttribute.INDEXED_TARGET_CLASSIFICATION_CATEGORY)
+            .getValues()
+            .size(),
+        is(TARGET_COUNT));
+    assertThat(
+        metacard.getAttribute(MtirpbAttribute.NUMBER_OF_VALID_TARGETS).getValues().size(), is(1));
+  }
+
+  private TaggedRecordExtensionHandler createGmtiHandler(int targetCount) {
+    CompiledTreGroup<Tre> mtirpb = TreDescriptor.MTIRPB.getCompiledTre();
+    CompiledTreGroup<TreGroup> targetFields =
+        mtirpb.getAttributes().stream()
+            .map(CompiledNitfAttribute::getIndexedGroup)
+            .filter(Objects::nonNull)
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+
+    Map<String, String> targetValues = new HashMap<>();
+    targetValues.put("TGT_CAT", "U");
+    targetValues.put("TGT_LOC", "+52.1234567-004.1234567");
+    TreGroup target = mock(TreGroup.class);
+    List<TreEntry> targetEntries = createEntries(targetFields.getFieldNames(), targetValues, "06");
+    when(target.getEntries()).thenReturn(targetEntries);
+
+    List<TreEntry> entries = createEntries(mtirpb.getFieldNames(), Collections.emptyMap(), "001");
+    TreEntry targets = mock(TreEntry.class);
+    when(targets.getName()).thenReturn("TARGETS");
+    when(targets.getGroups()).thenReturn(Collections.nCopies(targetCount, target));
+    entries.add(0, targets);
+
+    Tre tre = mock(Tre.class);
+    when(tre.getName()).thenReturn("MTIRPB");
+    when(tre.getEntries()).thenReturn(entries);
+
+    TreCollection treCollection = mock(TreCollection.class);
+    when(treCollection.getTREs()).thenReturn(Collections.singletonList(tre));
+
+    TaggedRecordExtensionHandler handler = mock(TaggedRecordExtensionHandler.class);
+    when(handler.getTREsRawStructure()).thenReturn(treCollection);
+    return handler;
+  }
+
+  private List<TreEntry> createEntries(
+      Set<String> fieldNames, Map<String, String> values, String defaultValue) {
+    List<TreEntry> entries = new ArrayList<>();
+    for (String fieldName : fieldNames) {
+      TreEntry entry = mock(TreEntry.class);
+      when(entry.getName()).thenReturn(fieldName);
+      when(entry.getFieldValue()).thenReturn(values.getOrDefault(fieldName, defaultValue));
+      entries.add(entry);
+    }
+    return entries;
+  }
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.transformer.nitf.common;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.codice.alliance.transformer.nitf.NitfAttributeConverters;
+import org.codice.alliance.transformer.nitf.gmti.IndexedMtirpbAttribute;
+import org.codice.ddf.internal.country.converter.api.CountryCodeConverter;
+import org.codice.imaging.nitf.core.common.NitfFormatException;
+import org.codice.imaging.nitf.core.common.TaggedRecordExtensionHandler;
+import org.codice.imaging.nitf.core.tre.Tre;
+import org.codice.imaging.nitf.core.tre.TreCollection;
+import org.codice.imaging.nitf.core.tre.TreEntry;
+import org.codice.imaging.nitf.core.tre.TreGroup;
+import org.junit.Test;
+
+public class TreDescriptorTest {
+
+  private static final int TRANSFORMS = 2;
+
+  private static final int TARGETS = 4;
+
+  /** Field values that must parse, every other field is "1". */
+  private static final Map<String, String> FIELD_VALUES = Collections.singletonMap("TGT_CAT", "U");
+
+  @Test
+  public void testForName() {
+    for (TreDescriptor treDescriptor : TreDescriptor.values()) {
+      assertThat(TreDescriptor.forName(treDescriptor.name()), is(treDescriptor));
+    }
+  }
+
+  @Test
+  public void testForNameUnknown() {
+    assertThat(TreDescriptor.forName("XXXXXX"), is(nullValue()));
+    assertThat(TreDescriptor.forName(null), is(nullValue()));
+  }
+
+  @Test
+  public void testCompiledAttributesMatchValues() {
+    for (TreDescriptor treDescriptor : TreDescriptor.values()) {
+      List<CompiledNitfAttribute<Tre>> compiledAttributes =
+          treDescriptor.getCompiledTre().getAttributes();
+      assertThat(compiledAttributes.size(), is(treDescriptor.getValues().size()));
+      for (int i = 0; i < compiledAttributes.size(); i++) {
+        assertThat(compiledAttributes.get(i).getAttribute(), is(treDescriptor.getValues().get(i)));
+      }
+    }
+  }
+
+  @Test
+  public void testCompiledTreIsReused() {
+    for (TreDescriptor treDescriptor : TreDescriptor.values()) {
+      assertThat(treDescriptor.getCompiledTre(), is(sameInstance(treDescriptor.getCompiledTre())));
+    }
+  }
+
+  @Test
+  public void testFieldAccessorsAreResolvedToIndexes() {
+    for (TreDescriptor treDescriptor : TreDescriptor.values()) {
+      CompiledTreGroup<Tre> compiledTre = treDescriptor.getCompiledTre();
+      for (NitfAttribute<Tre> attribute : treDescriptor.getValues()) {
+        if (attribute.getAccessorFunction() instanceof TreFieldAccessor) {
+          assertThat(
+              compiledTre.getFieldNames(),
+              hasItem(((TreFieldAccessor<?>) attribute.getAccessorFunction()).getFieldName()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Extracts every supported TRE from a synthetic segment more than once. Each TRE is resolved by a
+   * single name lookup per transform, and its fields are read by index from a single pass over its
+   * entries instead of being looked up by name.
+   */
+  @Test
+  public void testExtractAllSupportedTres() throws NitfFormatException {
+    new NitfAttributeConverters(mock(CountryCodeConverter.class));
+    List<Tre> tres = createTres();
+    TaggedRecordExtensionHandler handler = createHandler(tres);
+    SegmentHandler segmentHandler = new SegmentHandler();
+
+    Metacard metacard = null;
+    for (int i = 0; i < TRANSFORMS; i++) {
+      metacard = new MetacardImpl();
+      segmentHandler.handleTres(metacard, handler);
+    }
+
+    assertThat(metacard.getAttribute(AcftbAttribute.AIRCRAFT_MISSION_ID), is(notNullValue()));
+    assertThat(
+        metacard
+            .getAttribute(IndexedMtirpbAttribute.INDEXED_TARGET_AMPLITUDE_ATTRIBUTE.getLongName())
+            .getValues()
+            .size(),
+        is(TARGETS));
+    for (Tre tre : tres) {
+      verify(tre, times(TRANSFORMS)).getName();
+      verify(tre, times(TRANSFORMS)).getEntries();
+      verify(tre, never()).getEntry(anyString());
+    }
+  }
+
+  private List<Tre> createTres() {
+    List<Tre> tres = new ArrayList<>();
+    for (TreDescriptor treDescriptor : TreDescriptor.values()) {
+      CompiledTreGroup<Tre> compiledTre = treDescriptor.getCompiledTre();
+      Tre tre = mock(Tre.class);
+      when(tre.getName()).thenReturn(treDescriptor.name());
+      List<TreEntry> entries = createEntries(compiledTre);
+      when(tre.getEntries()).thenReturn(entries);
+      tres.add(tre);
+    }
+    return tres;
+  }
+
+  private List<TreEntry> createEntries(CompiledTreGroup<?> compiledTreGroup) {
+    Map<String, CompiledTreGroup<TreGroup>> indexedGroups = new HashMap<>();
+    for (CompiledNitfAttribute<?> attribute : compiledTreGroup.getAttributes()) {
+      if (attribute.getIndexedGroup() != null) {
+        indexedGroups.put(attribute.getAttribute().getShortName(), attribute.getIndexedGroup());
+      }
+    }
+
+    List<TreEntry> entries = new ArrayList<>();
+    for (String fieldName : compiledTreGroup.getFieldNames()) {
+      TreEntry entry = mock(TreEntry.class);
+      when(entry.getName()).thenReturn(fieldName);
+      if (indexedGroups.containsKey(fieldName)) {
+        TreGroup treGroup = mock(TreGroup.class);
+        List<TreEntry> groupEntries = createEntries(indexedGroups.get(fieldName));
+        when(treGroup.getEntries()).thenReturn(groupEntries);
+        when(entry.getGroups()).thenReturn(Collections.nCopies(TARGETS, treGroup));
+      } else {
+        when(entry.getFieldValue()).thenReturn(" " + FIELD_VALUES.getOrDefault(fieldName, "1"));
+      }
+      entries.add(entry);
+    }
+    return entries;
+  }
+
+  private TaggedRecordExtensionHandler createHandler(List<Tre> tres) {
+    TreCollection treCollection = mock(TreCollection.class);
+    when(treCollection.getTREs()).thenReturn(tres);
+
+    TaggedRecordExtensionHandler handler = mock(TaggedRecordExtensionHandler.class);
+    when(handler.getTREsRawStructure()).thenReturn(treCollection);
+    return handler;
+  }
+}
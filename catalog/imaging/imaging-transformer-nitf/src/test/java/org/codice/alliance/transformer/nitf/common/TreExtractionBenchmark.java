@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.transformer.nitf.common;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.codice.alliance.transformer.nitf.NitfAttributeConverters;
+import org.codice.ddf.internal.country.converter.api.CountryCodeConverter;
+import org.codice.imaging.nitf.core.common.TaggedRecordExtensionHandler;
+import org.codice.imaging.nitf.core.tre.Tre;
+import org.codice.imaging.nitf.core.tre.TreGroup;
+import org.codice.imaging.nitf.core.tre.TreSource;
+import org.codice.imaging.nitf.core.tre.impl.TreCollectionImpl;
+import org.codice.imaging.nitf.core.tre.impl.TreEntryImpl;
+import org.codice.imaging.nitf.core.tre.impl.TreFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the extraction of every supported TRE from one segment. Each TRE holds every field its
+ * attributes read, and the repeated groups (e.g. the MTIRPB targets) hold {@code groups} records.
+ * This is not a unit test; run it with {@link #main}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreExtractionBenchmark {
+
+  /** Field values that must parse, every other field is "1". */
+  private static final Map<String, String> FIELD_VALUES = Collections.singletonMap("TGT_CAT", "U");
+
+  @Param({"1", "100"})
+  private int groups;
+
+  private SegmentHandler segmentHandler;
+
+  private TaggedRecordExtensionHandler handler;
+
+  @Setup
+  public void setUp() {
+    new NitfAttributeConverters(mock(CountryCodeConverter.class));
+    segmentHandler = new SegmentHandler();
+
+    TreCollectionImpl treCollection = new TreCollectionImpl();
+    for (TreDescriptor treDescriptor : TreDescriptor.values()) {
+      Tre tre = TreFactory.getDefault(treDescriptor.name(), TreSource.ImageExtendedSubheaderData);
+      addFields(tre, treDescriptor.getCompiledTre());
+      treCollection.add(tre);
+    }
+
+    handler = mock(TaggedRecordExtensionHandler.class);
+    when(handler.getTREsRawStructure()).thenReturn(treCollection);
+  }
+
+  @Benchmark
+  public Metacard extractSupportedTres() {
+    Metacard metacard = new MetacardImpl();
+    segmentHandler.handleTres(metacard, handler);
+    return metacard;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(TreExtractionBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  private void addFields(TreGroup treGroup, CompiledTreGroup<?> compiledTreGroup) {
+    Map<String, CompiledTreGroup<TreGroup>> indexedGroups = new HashMap<>();
+    for (CompiledNitfAttribute<?> attribute : compiledTreGroup.getAttributes()) {
+      if (attribute.getIndexedGroup() != null) {
+        indexedGroups.put(attribute.getAttribute().getShortName(), attribute.getIndexedGroup());
+      }
+    }
+
+    for (String fieldName : compiledTreGroup.getFieldNames()) {
+      if (indexedGroups.containsKey(fieldName)) {
+        TreEntryImpl entry = new TreEntryImpl(fieldName, null, "string");
+        for (int i = 0; i < groups; i++) {
+          Tre group = TreFactory.getDefault(fieldName, TreSource.ImageExtendedSubheaderData);
+          addFields(group, indexedGroups.get(fieldName));
+          entry.addGroup(group);
+        }
+        treGroup.add(entry);
+      } else {
+        treGroup.add(
+            new TreEntryImpl(fieldName, FIELD_VALUES.getOrDefault(fieldName, "1"), "string"));
+      }
+    }
+  }
+}
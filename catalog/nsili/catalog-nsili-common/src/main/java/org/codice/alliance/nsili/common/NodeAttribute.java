@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.common;
+
+/**
+ * An attribute added to an outgoing DAG, kept as the scoped name of its node and the attribute name
+ * so that checking mandatory attributes does not need to build or parse qualified names.
+ */
+public final class NodeAttribute {
+
+  private final String parentAttr;
+
+  private final String attribute;
+
+  /**
+   * @param parentAttr the scoped name of the node the attribute belongs to, e.g. {@code
+   *     NSIL_PRODUCT:NSIL_CARD}
+   * @param attribute the simple attribute name
+   */
+  public NodeAttribute(String parentAttr, String attribute) {
+    this.parentAttr = parentAttr;
+    this.attribute = attribute;
+  }
+
+  public String getParentAttr() {
+    return parentAttr;
+  }
+
+  public String getAttribute() {
+    return attribute;
+  }
+
+  @Override
+  public String toString() {
+    return parentAttr + "." + attribute;
+  }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.common;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The result attributes and mandatory attributes of a query, compiled once so that converting each
+ * result only performs hash lookups instead of scanning the requested attribute list.
+ *
+ * <p>A requested attribute matches a candidate {@code parent.attribute} if it equals the fully
+ * scoped name, the name without its scope ({@code NSIL_CARD.identifier}) or the simple attribute
+ * name ({@code identifier}). An empty or null list of requested attributes includes everything.
+ *
+ * <p>Projections compiled from the same attributes are equal, so they can be used to key converted
+ * results.
+ */
+public final class ResultAttributeProjection {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResultAttributeProjection.class);
+
+  private static final ResultAttributeProjection ALL =
+      new ResultAttributeProjection(
+          true, Collections.emptySet(), Collections.emptyMap(), Collections.emptyMap());
+
+  private final boolean includeAll;
+
+  private final Set<String> simpleNames;
+
+  /** Requested qualified names indexed by attribute name, holding the requested parent names. */
+  private final Map<String, Set<String>> parentsByAttribute;
+
+  private final Map<String, Set<String>> mandatoryAttributes;
+
+  /**
+   * Mandatory attributes indexed by node. Each node owns a contiguous range of bits: one recording
+   * that the node is present in a result, followed by one per mandatory attribute.
+   */
+  private final Map<String, MandatoryNode> mandatoryNodes;
+
+  private final int mandatoryBitCount;
+
+  private final int hashCode;
+
+  private final Map<String, String> unscopedParents = new ConcurrentHashMap<>();
+
+  private ResultAttributeProjection(
+      boolean includeAll,
+      Set<String> simpleNames,
+      Map<String, Set<String>> parentsByAttribute,
+      Map<String, Set<String>> mandatoryAttributes) {
+    this.includeAll = includeAll;
+    this.simpleNames = simpleNames;
+    this.parentsByAttribute = parentsByAttribute;
+    this.mandatoryAttributes = mandatoryAttributes;
+
+    Map<String, MandatoryNode> nodes = new HashMap<>();
+    int nextBit = 0;
+    for (Map.Entry<String, Set<String>> entry : mandatoryAttributes.entrySet()) {
+      MandatoryNode node = new MandatoryNode(entry.getKey(), nextBit, entry.getValue());
+      nodes.put(entry.getKey(), node);
+      nextBit = node.endBit;
+    }
+    this.mandatoryNodes = nodes;
+    this.mandatoryBitCount = nextBit;
+    this.hashCode = Objects.hash(includeAll, simpleNames, parentsByAttribute, mandatoryAttributes);
+  }
+
+  public static ResultAttributeProjection compile(
+      List<String> resultAttributes, Map<String, List<String>> mandatoryAttributes) {
+    boolean includeAll = resultAttributes == null || resultAttributes.isEmpty();
+    Map<String, Set<String>> mandatory = compileMandatory(mandatoryAttributes);
+    if (includeAll && mandatory.isEmpty()) {
+      return ALL;
+    }
+
+    Set<String> simpleNames = new HashSet<>();
+    Map<String, Set<String>> parentsByAttribute = new HashMap<>();
+    if (!includeAll) {
+      for (String resultAttribute : resultAttributes) {
+        int lastDot = resultAttribute.lastIndexOf('.');
+        if (lastDot == -1) {
+          simpleNames.add(resultAttribute);
+        } else {
+          parentsByAttribute
+              .computeIfAbsent(resultAttribute.substring(lastDot + 1), k -> new HashSet<>())
+              .add(resultAttribute.substring(0, lastDot));
+        }
+      }
+    }
+
+    return new ResultAttributeProjection(includeAll, simpleNames, parentsByAttribute, mandatory);
+  }
+
+  private static Map<String, Set<String>> compileMandatory(
+      Map<String, List<String>> mandatoryAttributes) {
+    if (mandatoryAttributes == null || mandatoryAttributes.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, Set<String>> mandatory = new HashMap<>();
+    mandatoryAttributes.forEach(
+        (node, attributes) -> {
+          if (attributes != null) {
+            mandatory.put(node, new HashSet<>(attributes));
+          }
+        });
+    return mandatory;
+  }
+
+  /**
+   * @param parentAttr the scoped name of the node the attribute belongs to, e.g. {@code
+   *     NSIL_PRODUCT:NSIL_CARD}
+   * @param attribute the simple attribute name
+   * @return true if the attribute should be added to the outgoing DAG
+   */
+  public boolean includes(String parentAttr, String attribute) {
+    if (includeAll || simpleNames.contains(attribute)) {
+      return true;
+    }
+
+    Set<String> parents = parentsByAttribute.get(attribute);
+    boolean included =
+        parents != null
+            && (parents.contains(parentAttr) || parents.contains(unscoped(parentAttr)));
+
+    if (!included) {
+      LOGGER.trace(
+          "Attribute is not supported in destination data model: {}.{}", parentAttr, attribute);
+    }
+
+    return included;
+  }
+
+  /**
+   * Checks the attributes added to a result against the mandatory attributes. Only nodes that are
+   * present in the result are checked.
+   *
+   * @param addedAttributes the attributes added to the result
+   * @return true if every node in the result carries all of its mandatory attributes
+   */
+  public boolean containsMandatoryAttributes(Collection<NodeAttribute> addedAttributes) {
+    if (mandatoryNodes.isEmpty()) {
+      return true;
+    }
+
+    BitSet added = new BitSet(mandatoryBitCount);
+    for (NodeAttribute addedAttribute : addedAttributes) {
+      MandatoryNode node = mandatoryNodes.get(unscoped(addedAttribute.getParentAttr()));
+      if (node != null) {
+        added.set(node.presentBit);
+        Integer bit = node.attributeBits.get(addedAttribute.getAttribute());
+        if (bit != null) {
+          added.set(bit);
+        }
+      }
+    }
+
+    boolean dataIsValid = true;
+    for (MandatoryNode node : mandatoryNodes.values()) {
+      if (added.get(node.presentBit) && added.nextClearBit(node.presentBit + 1) < node.endBit) {
+        dataIsValid = false;
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Node: {} is missing attributes: {}", node.name, node.missing(added));
+        }
+      }
+    }
+
+    return dataIsValid;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ResultAttributeProjection that = (ResultAttributeProjection) o;
+    return includeAll == that.includeAll
+        && hashCode == that.hashCode
+        && simpleNames.equals(that.simpleNames)
+        && parentsByAttribute.equals(that.parentsByAttribute)
+        && mandatoryAttributes.equals(that.mandatoryAttributes);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  private String unscoped(String parentAttr) {
+    return unscopedParents.computeIfAbsent(
+        parentAttr, p -> p.lastIndexOf(':') == -1 ? p : p.substring(p.lastIndexOf(':') + 1));
+  }
+
+  private static final class MandatoryNode {
+
+    private final String name;
+
+    private final int presentBit;
+
+    private final int endBit;
+
+    private final Map<String, Integer> attributeBits = new HashMap<>();
+
+    private MandatoryNode(String name, int presentBit, Set<String> attributes) {
+      this.name = name;
+      this.presentBit = presentBit;
+      int bit = presentBit + 1;
+      for (String attribute : attributes) {
+        attributeBits.put(attribute, bit++);
+      }
+      this.endBit = bit;
+    }
+
+    private List<String> missing(BitSet added) {
+      List<String> missing = new ArrayList<>();
+      attributeBits.forEach(
+          (attribute, bit) -> {
+            if (!added.get(bit)) {
+              missing.add(attribute);
+            }
+          });
+      return missing;
+    }
+  }
+}
@@ -38,8 +38,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.codice.alliance.catalog.core.api.types.Isr;
@@ -81,9 +79,6 @@ public class ResultDAGConverter {
 
   private static final String ENCODING = StandardCharsets.UTF_8.name();
 
-  private static final Pattern ATTRIBUTE_PATTERN =
-      Pattern.compile("([a-zA-Z0-9_:]+):([a-zA-Z0-9_]+).([a-zA-Z0-9]+)");
-
   public static DAG convertResult(
       Result result,
       ORB orb,
@@ -91,6 +86,17 @@ public class ResultDAGConverter {
       List<String> resultAttributes,
       Map<String, List<String>> mandatoryAttributes)
       throws DagParsingException {
+    return convertResult(
+        result, orb, poa, ResultAttributeProjection.compile(resultAttributes, mandatoryAttributes));
+  }
+
+  /**
+   * Converts a result using a projection compiled once per query, avoiding the per result cost of
+   * matching the requested and mandatory attribute lists.
+   */
+  public static DAG convertResult(
+      Result result, ORB orb, POA poa, ResultAttributeProjection projection)
+      throws DagParsingException {
     Metacard metacard = result.getMetacard();
 
     DAG dag = new DAG();
@@ -124,47 +130,30 @@ public class ResultDAGConverter {
 
     graph.addVertex(productNode);
 
-    List<String> addedAttributes = new ArrayList<>();
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     addedAttributes.addAll(
         addCardNodeWithAttributes(
-            graph, productNode, metacard, orb, attributeName + ":", resultAttributes));
+            graph, productNode, metacard, orb, attributeName + ":", projection));
     addedAttributes.addAll(
         addFileNodeWithAttributes(
-            graph, productNode, metacard, orb, attributeName + ":", resultAttributes));
+            graph, productNode, metacard, orb, attributeName + ":", projection));
     addedAttributes.addAll(
         addSecurityNodeWithAttributes(
-            graph, productNode, metacard, orb, attributeName + ":", resultAttributes));
+            graph, productNode, metacard, orb, attributeName + ":", projection));
     addedAttributes.addAll(
         addMetadataSecurityNodeWithAttributes(
-            graph, productNode, metacard, orb, attributeName + ":", resultAttributes));
+            graph, productNode, metacard, orb, attributeName + ":", projection));
     addedAttributes.addAll(
-        addParts(graph, productNode, metacard, orb, attributeName + ":", resultAttributes));
+        addParts(graph, productNode, metacard, orb, attributeName + ":", projection));
 
     if (metacard.getThumbnail() != null && metacard.getThumbnail().length > 0) {
       addedAttributes.addAll(
           addThumbnailRelatedFile(
-              graph, productNode, metacard, orb, attributeName + ":", resultAttributes));
-    }
-
-    if (mandatoryAttributes != null && !mandatoryAttributes.isEmpty()) {
-      final ThreadLocal<Boolean> dataIsValid = new ThreadLocal<>();
-      dataIsValid.set(true);
-      Map<String, List<String>> addedAttrMap = getAttrMap(addedAttributes);
-      addedAttrMap
-          .entrySet()
-          .forEach(
-              entry ->
-                  dataIsValid.set(
-                      dataIsValid.get()
-                          && processEntry(
-                              entry.getKey(),
-                              mandatoryAttributes.get(entry.getKey()),
-                              entry.getValue())));
-
-      if (!dataIsValid.get()) {
-        throw new DagParsingException(
-            "One or more mandatory attributes is missing on outgoing data");
-      }
+              graph, productNode, metacard, orb, attributeName + ":", projection));
+    }
+
+    if (!projection.containsMandatoryAttributes(addedAttributes)) {
+      throw new DagParsingException("One or more mandatory attributes is missing on outgoing data");
     }
 
     graph.addVertex(productNode);
@@ -177,14 +166,14 @@ public class ResultDAGConverter {
     return dag;
   }
 
-  public static List<String> addCardNodeWithAttributes(
+  public static List<NodeAttribute> addCardNodeWithAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node productNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any any = orb.create_any();
     Node cardNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_CARD, any);
     graph.addVertex(cardNode);
@@ -192,15 +181,14 @@ public class ResultDAGConverter {
 
     String attribute = parentAttrName + NsiliConstants.NSIL_CARD;
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.IDENTIFIER), resultAttributes)
-        && metacard.getId() != null) {
+    if (projection.includes(attribute, NsiliConstants.IDENTIFIER) && metacard.getId() != null) {
       addStringAttribute(graph, cardNode, NsiliConstants.IDENTIFIER, metacard.getId(), orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.IDENTIFIER));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.IDENTIFIER));
     }
 
-    addDateAttributes(graph, metacard, orb, resultAttributes, addedAttributes, cardNode, attribute);
+    addDateAttributes(graph, metacard, orb, projection, addedAttributes, cardNode, attribute);
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.SOURCE_LIBRARY), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.SOURCE_LIBRARY)) {
       if (StringUtils.isNotBlank(metacard.getSourceId())) {
         addStringAttribute(
             graph, cardNode, NsiliConstants.SOURCE_LIBRARY, metacard.getSourceId(), orb);
@@ -208,17 +196,16 @@ public class ResultDAGConverter {
         addStringAttribute(
             graph, cardNode, NsiliConstants.SOURCE_LIBRARY, NsiliConstants.UNKNOWN, orb);
       }
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.SOURCE_LIBRARY));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.SOURCE_LIBRARY));
     }
 
-    addStatusAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, cardNode, attribute);
+    addStatusAttributes(graph, metacard, orb, projection, addedAttributes, cardNode, attribute);
 
     addStrAttribute(
         graph,
         metacard.getAttribute(Contact.PUBLISHER_NAME),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         cardNode,
         attribute,
@@ -231,11 +218,11 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node cardNode,
       String attribute) {
-    if (!shouldAdd(buildAttr(attribute, NsiliConstants.STATUS), resultAttributes)) {
+    if (!projection.includes(attribute, NsiliConstants.STATUS)) {
       return;
     }
     String status = NsiliCardStatus.CHANGED.name();
@@ -262,46 +249,45 @@ public class ResultDAGConverter {
 
     addStringAttribute(graph, cardNode, NsiliConstants.STATUS, status, orb);
 
-    addedAttributes.add(buildAttr(attribute, NsiliConstants.STATUS));
+    addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.STATUS));
   }
 
   private static void addDateAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node cardNode,
       String attribute) {
     if (metacard.getCreatedDate() != null
-        && shouldAdd(
-            buildAttr(attribute, NsiliConstants.SOURCE_DATE_TIME_MODIFIED), resultAttributes)) {
+        && projection.includes(attribute, NsiliConstants.SOURCE_DATE_TIME_MODIFIED)) {
       addDateAttribute(
           graph,
           cardNode,
           NsiliConstants.SOURCE_DATE_TIME_MODIFIED,
           metacard.getCreatedDate(),
           orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.SOURCE_DATE_TIME_MODIFIED));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.SOURCE_DATE_TIME_MODIFIED));
     }
 
     if (metacard.getModifiedDate() != null
-        && shouldAdd(buildAttr(attribute, NsiliConstants.DATE_TIME_MODIFIED), resultAttributes)) {
+        && projection.includes(attribute, NsiliConstants.DATE_TIME_MODIFIED)) {
       addDateAttribute(
           graph, cardNode, NsiliConstants.DATE_TIME_MODIFIED, metacard.getModifiedDate(), orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.DATE_TIME_MODIFIED));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.DATE_TIME_MODIFIED));
     }
   }
 
-  public static List<String> addFileNodeWithAttributes(
+  public static List<NodeAttribute> addFileNodeWithAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node productNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
+      ResultAttributeProjection projection) {
 
-    List<String> addedAttributes = new ArrayList<>();
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
 
     Attribute downloadUrlAttr = metacard.getAttribute(Core.RESOURCE_DOWNLOAD_URL);
 
@@ -316,37 +302,36 @@ public class ResultDAGConverter {
     String attribute = parentAttrName + NsiliConstants.NSIL_FILE;
 
     // Although not required, CSD Alpha requires this field to be populated on synchronization
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.ARCHIVED), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.ARCHIVED)) {
       addBooleanAttribute(graph, fileNode, NsiliConstants.ARCHIVED, false, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.ARCHIVED));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.ARCHIVED));
     }
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.TITLE), resultAttributes)
-        && metacard.getTitle() != null) {
+    if (projection.includes(attribute, NsiliConstants.TITLE) && metacard.getTitle() != null) {
       addStringAttribute(graph, fileNode, NsiliConstants.TITLE, metacard.getTitle(), orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.TITLE));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.TITLE));
     }
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.PRODUCT_URL), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.PRODUCT_URL)) {
       String downloadUrl = String.valueOf(downloadUrlAttr.getValue());
       if (downloadUrl != null) {
         downloadUrl = modifyUrl(downloadUrl, metacard.getTitle());
         addStringAttribute(graph, fileNode, NsiliConstants.PRODUCT_URL, downloadUrl, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.PRODUCT_URL));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.PRODUCT_URL));
       }
     }
 
     addExtentResourceSizeAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, fileNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, fileNode, attribute);
 
     addTimeDeclaredAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, fileNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, fileNode, attribute);
 
     addStrAttribute(
         graph,
         metacard.getAttribute(Media.FORMAT),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         fileNode,
         attribute,
@@ -356,16 +341,15 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Media.FORMAT_VERSION),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         fileNode,
         attribute,
         NsiliConstants.FORMAT_VERSION);
 
-    addCreatorAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, fileNode, attribute);
+    addCreatorAttribute(graph, metacard, orb, projection, addedAttributes, fileNode, attribute);
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.IS_PRODUCT_LOCAL), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.IS_PRODUCT_LOCAL)) {
       String siteName = SystemInfo.getSiteName();
       boolean productLocal = true;
       if (siteName != null
@@ -374,7 +358,7 @@ public class ResultDAGConverter {
         productLocal = false;
       }
       addBooleanAttribute(graph, fileNode, NsiliConstants.IS_PRODUCT_LOCAL, productLocal, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.IS_PRODUCT_LOCAL));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.IS_PRODUCT_LOCAL));
     }
     return addedAttributes;
   }
@@ -383,18 +367,18 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node fileNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.EXTENT), resultAttributes)
+    if (projection.includes(attribute, NsiliConstants.EXTENT)
         && metacard.getResourceSize() != null) {
       try {
         Double resSize = Double.valueOf(metacard.getResourceSize());
         Double resSizeMB = convertToMegabytes(resSize);
         if (resSizeMB != null) {
           addDoubleAttribute(graph, fileNode, NsiliConstants.EXTENT, resSizeMB, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.EXTENT));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.EXTENT));
         }
       } catch (NumberFormatException nfe) {
         LOGGER.debug(
@@ -407,11 +391,11 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node fileNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.CREATOR), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.CREATOR)) {
       Attribute pocAttr = metacard.getAttribute(Contact.CREATOR_NAME);
       if (pocAttr != null) {
         String pocString = String.valueOf(pocAttr.getValue());
@@ -424,7 +408,7 @@ public class ResultDAGConverter {
       } else {
         addStringAttribute(graph, fileNode, NsiliConstants.CREATOR, SystemInfo.getSiteName(), orb);
       }
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.CREATOR));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.CREATOR));
     }
   }
 
@@ -432,29 +416,29 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node fileNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.DATE_TIME_DECLARED), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.DATE_TIME_DECLARED)) {
       if (metacard.getCreatedDate() != null) {
         addDateAttribute(
             graph, fileNode, NsiliConstants.DATE_TIME_DECLARED, metacard.getCreatedDate(), orb);
       } else {
         addDateAttribute(graph, fileNode, NsiliConstants.DATE_TIME_DECLARED, new Date(), orb);
       }
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.DATE_TIME_DECLARED));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.DATE_TIME_DECLARED));
     }
   }
 
-  public static List<String> addSecurityNodeWithAttributes(
+  public static List<NodeAttribute> addSecurityNodeWithAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node productNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any any = orb.create_any();
     Node securityNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_SECURITY, any);
     graph.addVertex(securityNode);
@@ -464,13 +448,12 @@ public class ResultDAGConverter {
 
     boolean classificationAdded =
         isClassificationAdded(
-            graph, metacard, orb, resultAttributes, addedAttributes, securityNode, attribute);
+            graph, metacard, orb, projection, addedAttributes, securityNode, attribute);
 
-    addPolicyAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, securityNode, attribute);
+    addPolicyAttributes(graph, metacard, orb, projection, addedAttributes, securityNode, attribute);
 
     addReleasabilityAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, securityNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, securityNode, attribute);
 
     addClassificationAttributes(
         graph, orb, addedAttributes, securityNode, attribute, classificationAdded);
@@ -481,7 +464,7 @@ public class ResultDAGConverter {
   private static void addClassificationAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       ORB orb,
-      List<String> addedAttributes,
+      List<NodeAttribute> addedAttributes,
       Node securityNode,
       String attribute,
       boolean classificationAdded) {
@@ -493,14 +476,14 @@ public class ResultDAGConverter {
           NsiliConstants.CLASSIFICATION,
           NsiliClassification.NO_CLASSIFICATION.getSpecName(),
           orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.CLASSIFICATION));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.CLASSIFICATION));
 
       addStringAttribute(graph, securityNode, NsiliConstants.POLICY, NsiliConstants.NATO, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.POLICY));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.POLICY));
 
       addStringAttribute(
           graph, securityNode, NsiliConstants.RELEASABILITY, NsiliConstants.NATO, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.RELEASABILITY));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.RELEASABILITY));
     }
   }
 
@@ -508,11 +491,11 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node securityNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.POLICY), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.POLICY)) {
       Attribute metadataPolicyAttr = metacard.getAttribute(Security.METADATA_CLASSIFICATION_SYSTEM);
       String metadataPolicy = null;
       if (metadataPolicyAttr != null) {
@@ -526,19 +509,19 @@ public class ResultDAGConverter {
 
       if (metadataPolicy != null) {
         addStringAttribute(graph, securityNode, NsiliConstants.POLICY, metadataPolicy, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.POLICY));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.POLICY));
       }
     }
   }
 
-  public static List<String> addMetadataSecurityNodeWithAttributes(
+  public static List<NodeAttribute> addMetadataSecurityNodeWithAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node productNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any any = orb.create_any();
     Node metadataSecurityNode =
         new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_METADATA_SECURITY, any);
@@ -549,19 +532,13 @@ public class ResultDAGConverter {
 
     boolean classificationAdded =
         isClassificationAdded(
-            graph,
-            metacard,
-            orb,
-            resultAttributes,
-            addedAttributes,
-            metadataSecurityNode,
-            attribute);
+            graph, metacard, orb, projection, addedAttributes, metadataSecurityNode, attribute);
 
     addPolicyAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, metadataSecurityNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, metadataSecurityNode, attribute);
 
     addReleasabilityAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, metadataSecurityNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, metadataSecurityNode, attribute);
 
     addClassificationAttributes(
         graph, orb, addedAttributes, metadataSecurityNode, attribute, classificationAdded);
@@ -573,11 +550,11 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node metadataSecurityNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.RELEASABILITY), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.RELEASABILITY)) {
       Attribute metadataReleasabilityAttr = metacard.getAttribute(Security.METADATA_RELEASABILITY);
       String metadataReleasability = null;
       if (metadataReleasabilityAttr != null) {
@@ -592,7 +569,7 @@ public class ResultDAGConverter {
       if (metadataReleasability != null) {
         addStringAttribute(
             graph, metadataSecurityNode, NsiliConstants.RELEASABILITY, metadataReleasability, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.RELEASABILITY));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.RELEASABILITY));
       }
     }
   }
@@ -601,12 +578,12 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node metadataSecurityNode,
       String attribute) {
     Boolean classificationAdded = false;
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.CLASSIFICATION), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.CLASSIFICATION)) {
       Attribute metadataClassificationAttr =
           metacard.getAttribute(Security.METADATA_CLASSIFICATION);
       String classification = null;
@@ -622,21 +599,21 @@ public class ResultDAGConverter {
       if (classification != null) {
         addStringAttribute(
             graph, metadataSecurityNode, NsiliConstants.CLASSIFICATION, classification, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.CLASSIFICATION));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.CLASSIFICATION));
         classificationAdded = true;
       }
     }
     return classificationAdded;
   }
 
-  public static List<String> addParts(
+  public static List<NodeAttribute> addParts(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node productNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any any = orb.create_any();
     Node partNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_PART, any);
     graph.addVertex(partNode);
@@ -647,17 +624,17 @@ public class ResultDAGConverter {
     String type = NsiliProductType.DOCUMENT.getSpecName();
 
     String partIdentifier = "1";
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.PART_IDENTIFIER), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.PART_IDENTIFIER)) {
       addStringAttribute(graph, partNode, NsiliConstants.PART_IDENTIFIER, partIdentifier, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.PART_IDENTIFIER));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.PART_IDENTIFIER));
     }
 
     addedAttributes.addAll(
         addSecurityNodeWithAttributes(
-            graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+            graph, partNode, metacard, orb, attribute + ":", projection));
     addedAttributes.addAll(
         addCoverageNodeWithAttributes(
-            graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+            graph, partNode, metacard, orb, attribute + ":", projection));
 
     Attribute typeAttr = metacard.getAttribute(Core.DATATYPE);
     if (typeAttr != null) {
@@ -666,48 +643,48 @@ public class ResultDAGConverter {
 
     if (type.equalsIgnoreCase(NsiliProductType.IMAGERY.getSpecName())) {
       addedAttributes.addAll(
-          addImageryPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+          addImageryPart(graph, partNode, metacard, orb, attribute + ":", projection));
     } else if (type.equalsIgnoreCase(NsiliProductType.VIDEO.getSpecName())) {
       addedAttributes.addAll(
-          addVideoPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+          addVideoPart(graph, partNode, metacard, orb, attribute + ":", projection));
     } else if (type.equalsIgnoreCase(NsiliProductType.TDL_DATA.getSpecName())) {
       addedAttributes.addAll(
-          addTdlPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+          addTdlPart(graph, partNode, metacard, orb, attribute + ":", projection));
     } else if (type.equalsIgnoreCase(NsiliProductType.GMTI.getSpecName())) {
       addedAttributes.addAll(
-          addGmtiPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+          addGmtiPart(graph, partNode, metacard, orb, attribute + ":", projection));
     } else if (type.equalsIgnoreCase(NsiliProductType.REPORT.getSpecName())) {
       addedAttributes.addAll(
-          addReportPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+          addReportPart(graph, partNode, metacard, orb, attribute + ":", projection));
     } else if (type.equalsIgnoreCase(NsiliProductType.RFI.getSpecName())) {
       addedAttributes.addAll(
-          addRfiPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+          addRfiPart(graph, partNode, metacard, orb, attribute + ":", projection));
     } else if (type.equalsIgnoreCase(NsiliProductType.TASK.getSpecName())) {
       addedAttributes.addAll(
-          addTaskPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+          addTaskPart(graph, partNode, metacard, orb, attribute + ":", projection));
     }
 
     addedAttributes.addAll(
-        addExploitationInfoPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+        addExploitationInfoPart(graph, partNode, metacard, orb, attribute + ":", projection));
 
     addedAttributes.addAll(
-        addCbrnPart(graph, partNode, metacard, orb, attribute + ":", resultAttributes));
+        addCbrnPart(graph, partNode, metacard, orb, attribute + ":", projection));
 
     addedAttributes.addAll(
         addCommonNodeWithAttributes(
-            graph, partNode, metacard, type, orb, attribute + ":", resultAttributes));
+            graph, partNode, metacard, type, orb, attribute + ":", projection));
 
     return addedAttributes;
   }
 
-  public static List<String> addImageryPart(
+  public static List<NodeAttribute> addImageryPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any imageryAny = orb.create_any();
     Node imageryNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_IMAGERY, imageryAny);
     graph.addVertex(imageryNode);
@@ -719,7 +696,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Core.TITLE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         imageryNode,
         attribute,
@@ -729,7 +706,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Media.HEIGHT),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         imageryNode,
         attribute,
@@ -739,49 +716,48 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Media.WIDTH),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         imageryNode,
         attribute,
         NsiliConstants.NUMBER_OF_COLS);
 
     addDecompressionAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, imageryNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, imageryNode, attribute);
 
-    addBandsAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, imageryNode, attribute);
+    addBandsAttribute(graph, metacard, orb, projection, addedAttributes, imageryNode, attribute);
 
     addDblAsIntAttribute(
         graph,
         metacard.getAttribute(Isr.NATIONAL_IMAGERY_INTERPRETABILITY_RATING_SCALE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         imageryNode,
         attribute,
         NsiliConstants.NIIRS);
 
     addCategoryAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, imageryNode, attribute, true);
+        graph, metacard, orb, projection, addedAttributes, imageryNode, attribute, true);
 
     addDblAsIntAttribute(
         graph,
         metacard.getAttribute(Isr.CLOUD_COVER),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         imageryNode,
         attribute,
         NsiliConstants.CLOUD_COVER_PCT);
 
     addIdentifierAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, imageryNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, imageryNode, attribute);
 
     addStrAttribute(
         graph,
         metacard.getAttribute(Isr.COMMENTS),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         imageryNode,
         attribute,
@@ -794,18 +770,18 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node imageryNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.IDENTIFIER), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.IDENTIFIER)) {
       Attribute imageIdAttr = metacard.getAttribute(Isr.IMAGE_ID);
       if (imageIdAttr != null) {
         String imageId = String.valueOf(imageIdAttr.getValue());
         if (imageId != null) {
           imageId = imageId.substring(0, 10);
           addStringAttribute(graph, imageryNode, NsiliConstants.IDENTIFIER, imageId, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.IDENTIFIER));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.IDENTIFIER));
         }
       } else {
         // Default to 10 characters of title or 10 characters of ID
@@ -817,7 +793,7 @@ public class ResultDAGConverter {
         }
 
         addStringAttribute(graph, imageryNode, NsiliConstants.IDENTIFIER, identifier, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.IDENTIFIER));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.IDENTIFIER));
       }
     }
   }
@@ -826,24 +802,24 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node node,
       String attribute,
       Boolean visDefault) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.CATEGORY), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.CATEGORY)) {
       Attribute categoryAttr = metacard.getAttribute(Isr.CATEGORY);
       if (categoryAttr != null) {
         String categoryStr = String.valueOf(categoryAttr.getValue());
         if (categoryStr != null) {
           addStringAttribute(graph, node, NsiliConstants.CATEGORY, categoryStr, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.CATEGORY));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.CATEGORY));
         }
       } else if (visDefault) {
         // Default to VIS if we don't know the category from data.
         addStringAttribute(
             graph, node, NsiliConstants.CATEGORY, NsiliImageryType.VIS.toString(), orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.CATEGORY));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.CATEGORY));
       }
     }
   }
@@ -852,22 +828,22 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node imageryNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.NUMBER_OF_BANDS), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.NUMBER_OF_BANDS)) {
       Attribute numBandsAttr = metacard.getAttribute(Media.NUMBER_OF_BANDS);
       if (numBandsAttr != null) {
         Integer numBands = getInteger(numBandsAttr.getValue());
         if (numBands != null) {
           addIntegerAttribute(graph, imageryNode, NsiliConstants.NUMBER_OF_BANDS, numBands, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.NUMBER_OF_BANDS));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.NUMBER_OF_BANDS));
         }
       } else {
         // Default to 0 if not set
         addIntegerAttribute(graph, imageryNode, NsiliConstants.NUMBER_OF_BANDS, 0, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.NUMBER_OF_BANDS));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.NUMBER_OF_BANDS));
       }
     }
   }
@@ -876,11 +852,11 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node imageryNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.DECOMPRESSION_TECHNIQUE), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.DECOMPRESSION_TECHNIQUE)) {
       Attribute compressionAttr = metacard.getAttribute(Media.COMPRESSION);
       if (compressionAttr != null) {
         String compressionStr = String.valueOf(compressionAttr.getValue());
@@ -893,7 +869,8 @@ public class ResultDAGConverter {
                 NsiliConstants.DECOMPRESSION_TECHNIQUE,
                 compressionTechValue,
                 orb);
-            addedAttributes.add(buildAttr(attribute, NsiliConstants.DECOMPRESSION_TECHNIQUE));
+            addedAttributes.add(
+                new NodeAttribute(attribute, NsiliConstants.DECOMPRESSION_TECHNIQUE));
           }
         }
       } else {
@@ -904,19 +881,19 @@ public class ResultDAGConverter {
             NsiliConstants.DECOMPRESSION_TECHNIQUE,
             NsiliImageryDecompressionTech.C3.toString(),
             orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.DECOMPRESSION_TECHNIQUE));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.DECOMPRESSION_TECHNIQUE));
       }
     }
   }
 
-  public static List<String> addVideoPart(
+  public static List<NodeAttribute> addVideoPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any videoAny = orb.create_any();
     Node videoNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_VIDEO, videoAny);
     graph.addVertex(videoNode);
@@ -928,7 +905,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Media.HEIGHT),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         videoNode,
         attribute,
@@ -938,20 +915,20 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Media.WIDTH),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         videoNode,
         attribute,
         NsiliConstants.NUMBER_OF_COLS);
 
     addEncodingSchemeAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, videoNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, videoNode, attribute);
 
     addDblAttribute(
         graph,
         metacard.getAttribute(Media.BITS_PER_SECOND),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         videoNode,
         attribute,
@@ -961,7 +938,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Media.FRAMES_PER_SECOND),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         videoNode,
         attribute,
@@ -971,23 +948,22 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Media.SCANNING_MODE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         videoNode,
         attribute,
         NsiliConstants.SCANNING_MODE);
 
-    addVmtiAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, videoNode, attribute);
+    addVmtiAttributes(graph, metacard, orb, projection, addedAttributes, videoNode, attribute);
 
     addCategoryAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, videoNode, attribute, false);
+        graph, metacard, orb, projection, addedAttributes, videoNode, attribute, false);
 
     addIntAttribute(
         graph,
         metacard.getAttribute(Isr.VIDEO_MOTION_IMAGERY_SYSTEMS_MATRIX_LEVEL),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         videoNode,
         attribute,
@@ -1000,18 +976,18 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node videoNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.VMTI_PROCESSED), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.VMTI_PROCESSED)) {
       Attribute vmtiProcessedAttr =
           metacard.getAttribute(Isr.VIDEO_MOVING_TARGET_INDICATOR_PROCESSED);
       if (vmtiProcessedAttr != null && vmtiProcessedAttr.getValue() instanceof Boolean) {
         Boolean vmtiProcessed = (Boolean) vmtiProcessedAttr.getValue();
         if (vmtiProcessed != null) {
           addBooleanAttribute(graph, videoNode, NsiliConstants.VMTI_PROCESSED, vmtiProcessed, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.VMTI_PROCESSED));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.VMTI_PROCESSED));
         }
       }
     }
@@ -1020,7 +996,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TARGET_REPORT_COUNT),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         videoNode,
         attribute,
@@ -1031,30 +1007,30 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node videoNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.ENCODING_SCHEME), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.ENCODING_SCHEME)) {
       Attribute encodingSchemeAttr = metacard.getAttribute(Media.ENCODING);
       if (encodingSchemeAttr != null) {
         String encodingScheme = getEncodingScheme(encodingSchemeAttr.getValue());
         if (encodingScheme != null) {
           addStringAttribute(graph, videoNode, NsiliConstants.ENCODING_SCHEME, encodingScheme, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.ENCODING_SCHEME));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.ENCODING_SCHEME));
         }
       }
     }
   }
 
-  public static List<String> addTdlPart(
+  public static List<NodeAttribute> addTdlPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any tdlAny = orb.create_any();
     Node tdlNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_TDL, tdlAny);
     graph.addVertex(tdlNode);
@@ -1066,7 +1042,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TACTICAL_DATA_LINK_PLATFORM),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         tdlNode,
         attribute,
@@ -1076,7 +1052,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TACTICAL_DATA_LINK_ACTIVITY),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         tdlNode,
         attribute,
@@ -1086,7 +1062,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TACTICAL_DATA_LINK_MESSAGE_NUMBER),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         tdlNode,
         attribute,
@@ -1096,7 +1072,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TACTICAL_DATA_LINK_TRACK_NUMBER),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         tdlNode,
         attribute,
@@ -1105,14 +1081,14 @@ public class ResultDAGConverter {
     return addedAttributes;
   }
 
-  public static List<String> addGmtiPart(
+  public static List<NodeAttribute> addGmtiPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any gmtiAny = orb.create_any();
     Node gmtiNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_GMTI, gmtiAny);
     graph.addVertex(gmtiNode);
@@ -1124,7 +1100,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.MOVING_TARGET_INDICATOR_JOB_ID),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         gmtiNode,
         attribute,
@@ -1134,7 +1110,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TARGET_REPORT_COUNT),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         gmtiNode,
         attribute,
@@ -1143,14 +1119,14 @@ public class ResultDAGConverter {
     return addedAttributes;
   }
 
-  public static List<String> addReportPart(
+  public static List<NodeAttribute> addReportPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any reportAny = orb.create_any();
     Node reportNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_REPORT, reportAny);
     graph.addVertex(reportNode);
@@ -1162,33 +1138,31 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.REPORT_SERIAL_NUMBER),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         reportNode,
         attribute,
         NsiliConstants.ORIGINATORS_REQ_SERIAL_NUM);
 
-    addTypeAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, reportNode, attribute);
+    addTypeAttribute(graph, metacard, orb, projection, addedAttributes, reportNode, attribute);
 
     addStrAttribute(
         graph,
         metacard.getAttribute(Isr.REPORT_INFO_RATING),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         reportNode,
         attribute,
         NsiliConstants.INFORMATION_RATING);
 
-    addPriorityAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, reportNode, attribute);
+    addPriorityAttribute(graph, metacard, orb, projection, addedAttributes, reportNode, attribute);
 
     addedAttributes.addAll(
-        addIntRepPart(graph, reportNode, metacard, orb, attribute + ":", resultAttributes));
+        addIntRepPart(graph, reportNode, metacard, orb, attribute + ":", projection));
 
     addedAttributes.addAll(
-        addEntityPart(graph, reportNode, metacard, orb, attribute + ":", resultAttributes));
+        addEntityPart(graph, reportNode, metacard, orb, attribute + ":", projection));
 
     return addedAttributes;
   }
@@ -1197,17 +1171,17 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node reportNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.PRIORITY), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.PRIORITY)) {
       Attribute priorityAttr = metacard.getAttribute(Isr.REPORT_PRIORITY);
       if (priorityAttr != null) {
         String priority = getReportPriority(priorityAttr.getValue());
         if (priority != null) {
           addStringAttribute(graph, reportNode, NsiliConstants.PRIORITY, priority, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.PRIORITY));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.PRIORITY));
         }
       }
     }
@@ -1217,17 +1191,17 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node reportNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.TYPE), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.TYPE)) {
       Attribute reportTypeAttr = metacard.getAttribute(Isr.REPORT_TYPE);
       if (reportTypeAttr != null) {
         String reportType = getReportType(reportTypeAttr.getValue());
         if (reportType != null) {
           addStringAttribute(graph, reportNode, NsiliConstants.TYPE, reportType, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.TYPE));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.TYPE));
         }
       }
     }
@@ -1237,16 +1211,16 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Attribute attr,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node node,
       String attribute,
       String entry) {
-    if (shouldAdd(buildAttr(attribute, entry), resultAttributes) && attr != null) {
+    if (projection.includes(attribute, entry) && attr != null) {
       Double attrValue = getDouble(attr.getValue());
       if (attrValue != null) {
         addDoubleAttribute(graph, node, entry, attrValue, orb);
-        addedAttributes.add(buildAttr(attribute, entry));
+        addedAttributes.add(new NodeAttribute(attribute, entry));
       }
     }
   }
@@ -1255,17 +1229,17 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Attribute attr,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node node,
       String attribute,
       String entry) {
-    if (shouldAdd(buildAttr(attribute, entry), resultAttributes) && attr != null) {
+    if (projection.includes(attribute, entry) && attr != null) {
       Double attrValue = getDouble(attr.getValue());
       if (attrValue != null) {
         Integer integer = attrValue.intValue();
         addIntegerAttribute(graph, node, entry, integer, orb);
-        addedAttributes.add(buildAttr(attribute, entry));
+        addedAttributes.add(new NodeAttribute(attribute, entry));
       }
     }
   }
@@ -1274,16 +1248,16 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Attribute attr,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node node,
       String attribute,
       String entry) {
-    if (shouldAdd(buildAttr(attribute, entry), resultAttributes) && attr != null) {
+    if (projection.includes(attribute, entry) && attr != null) {
       Integer attrValue = getInteger(attr.getValue());
       if (attrValue != null) {
         addIntegerAttribute(graph, node, entry, attrValue, orb);
-        addedAttributes.add(buildAttr(attribute, entry));
+        addedAttributes.add(new NodeAttribute(attribute, entry));
       }
     }
   }
@@ -1292,16 +1266,16 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Attribute attr,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node node,
       String attribute,
       String entry) {
-    if (shouldAdd(buildAttr(attribute, entry), resultAttributes) && attr != null) {
+    if (projection.includes(attribute, entry) && attr != null) {
       String attrValue = String.valueOf(attr.getValue());
       if (attrValue != null) {
         addStringAttribute(graph, node, entry, attrValue, orb);
-        addedAttributes.add(buildAttr(attribute, entry));
+        addedAttributes.add(new NodeAttribute(attribute, entry));
       }
     }
   }
@@ -1310,28 +1284,28 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Attribute attr,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node node,
       String attribute,
       String entry) {
-    if (shouldAdd(buildAttr(attribute, entry), resultAttributes) && attr != null) {
+    if (projection.includes(attribute, entry) && attr != null) {
       String attrValue = getValueString(attr.getValues());
       if (attrValue != null) {
         addStringAttribute(graph, node, entry, attrValue, orb);
-        addedAttributes.add(buildAttr(attribute, entry));
+        addedAttributes.add(new NodeAttribute(attribute, entry));
       }
     }
   }
 
-  public static List<String> addRfiPart(
+  public static List<NodeAttribute> addRfiPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any rfiAny = orb.create_any();
     Node rfiNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_RFI, rfiAny);
     graph.addVertex(rfiNode);
@@ -1343,7 +1317,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.REQUEST_FOR_INFORMATION_FOR_ACTION),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         rfiNode,
         attribute,
@@ -1353,7 +1327,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.REQUEST_FOR_INFORMATION_FOR_INFORMATION),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         rfiNode,
         attribute,
@@ -1363,16 +1337,16 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.REQUEST_FOR_INFORMATION_SERIAL_NUMBER),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         rfiNode,
         attribute,
         NsiliConstants.SERIAL_NUMBER);
 
-    addStatusAttribute(graph, metacard, orb, resultAttributes, addedAttributes, rfiNode, attribute);
+    addStatusAttribute(graph, metacard, orb, projection, addedAttributes, rfiNode, attribute);
 
     addWorkflowStatusAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, rfiNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, rfiNode, attribute);
 
     return addedAttributes;
   }
@@ -1381,11 +1355,11 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node rfiNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.WORKFLOW_STATUS), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.WORKFLOW_STATUS)) {
       Attribute rfiWorkflowStatusAttr =
           metacard.getAttribute(Isr.REQUEST_FOR_INFORMATION_WORKFLOW_STATUS);
       if (rfiWorkflowStatusAttr != null) {
@@ -1393,7 +1367,7 @@ public class ResultDAGConverter {
         if (rfiWorkflowStatus != null) {
           addStringAttribute(
               graph, rfiNode, NsiliConstants.WORKFLOW_STATUS, rfiWorkflowStatus, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.WORKFLOW_STATUS));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.WORKFLOW_STATUS));
         }
       }
     }
@@ -1403,30 +1377,30 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node rfiNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.STATUS), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.STATUS)) {
       Attribute rfiStatusAttr = metacard.getAttribute(Isr.REQUEST_FOR_INFORMATION_STATUS);
       if (rfiStatusAttr != null) {
         String rfiStatus = getRfiStatus(rfiStatusAttr.getValue());
         if (rfiStatus != null) {
           addStringAttribute(graph, rfiNode, NsiliConstants.STATUS, rfiStatus, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.STATUS));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.STATUS));
         }
       }
     }
   }
 
-  public static List<String> addTaskPart(
+  public static List<NodeAttribute> addTaskPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any taskAny = orb.create_any();
     Node taskNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_TASK, taskAny);
     graph.addVertex(taskNode);
@@ -1438,19 +1412,19 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TASK_COMMENTS),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         taskNode,
         attribute,
         NsiliConstants.COMMENTS);
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.STATUS), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.STATUS)) {
       Attribute taskStatusAttr = metacard.getAttribute(Isr.TASK_STATUS);
       if (taskStatusAttr != null) {
         String taskStatus = getTaskStatus(taskStatusAttr.getValue());
         if (taskStatus != null) {
           addStringAttribute(graph, taskNode, NsiliConstants.STATUS, taskStatus, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.STATUS));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.STATUS));
         }
       }
     }
@@ -1458,14 +1432,14 @@ public class ResultDAGConverter {
     return addedAttributes;
   }
 
-  public static List<String> addCbrnPart(
+  public static List<NodeAttribute> addCbrnPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any cbrnAny = orb.create_any();
     Node cbrnNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_CBRN, cbrnAny);
     graph.addVertex(cbrnNode);
@@ -1477,7 +1451,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.CHEMICAL_BIOLOGICAL_RADIOLOGICAL_NUCLEAR_OPERATION_NAME),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         cbrnNode,
         attribute,
@@ -1487,20 +1461,19 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.CHEMICAL_BIOLOGICAL_RADIOLOGICAL_NUCLEAR_INCIDENT_NUMBER),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         cbrnNode,
         attribute,
         NsiliConstants.INCIDENT_NUM);
 
-    addEventTypeAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, cbrnNode, attribute);
+    addEventTypeAttribute(graph, metacard, orb, projection, addedAttributes, cbrnNode, attribute);
 
     addStrAttribute(
         graph,
         metacard.getAttribute(Isr.CHEMICAL_BIOLOGICAL_RADIOLOGICAL_NUCLEAR_CATEGORY),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         cbrnNode,
         attribute,
@@ -1510,14 +1483,14 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.CHEMICAL_BIOLOGICAL_RADIOLOGICAL_NUCLEAR_SUBSTANCE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         cbrnNode,
         attribute,
         NsiliConstants.SUBSTANCE);
 
     addAlarmClassificationAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, cbrnNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, cbrnNode, attribute);
 
     if (addedAttributes.isEmpty()) {
       graph.removeEdge(partNode, cbrnNode);
@@ -1531,18 +1504,18 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node cbrnNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.ALARM_CLASSIFICATION), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.ALARM_CLASSIFICATION)) {
       Attribute alarmClassAttr =
           metacard.getAttribute(Isr.CHEMICAL_BIOLOGICAL_RADIOLOGICAL_NUCLEAR_ALARM_CLASSIFICATION);
       if (alarmClassAttr != null) {
         String alarmClass = getCbrnAlarmClassification(alarmClassAttr.getValue());
         if (alarmClass != null) {
           addStringAttribute(graph, cbrnNode, NsiliConstants.ALARM_CLASSIFICATION, alarmClass, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.ALARM_CLASSIFICATION));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.ALARM_CLASSIFICATION));
         }
       }
     }
@@ -1552,31 +1525,31 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node cbrnNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.EVENT_TYPE), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.EVENT_TYPE)) {
       Attribute eventTypeAttr =
           metacard.getAttribute(Isr.CHEMICAL_BIOLOGICAL_RADIOLOGICAL_NUCLEAR_TYPE);
       if (eventTypeAttr != null) {
         String eventType = getCbrnEventType(eventTypeAttr.getValue());
         if (eventType != null) {
           addStringAttribute(graph, cbrnNode, NsiliConstants.EVENT_TYPE, eventType, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.EVENT_TYPE));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.EVENT_TYPE));
         }
       }
     }
   }
 
-  public static List<String> addIntRepPart(
+  public static List<NodeAttribute> addIntRepPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any intRepAny = orb.create_any();
     Node intRepNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_INTREP, intRepAny);
     graph.addVertex(intRepNode);
@@ -1584,13 +1557,13 @@ public class ResultDAGConverter {
 
     String attribute = parentAttrName + NsiliConstants.NSIL_INTREP;
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.SITUATION_TYPE), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.SITUATION_TYPE)) {
       Attribute situationTypeAttr = metacard.getAttribute(Isr.REPORT_SITUATION_TYPE);
       if (situationTypeAttr != null) {
         String situationType = getIntRepSituationType(situationTypeAttr.getValue());
         if (situationType != null) {
           addStringAttribute(graph, intRepNode, NsiliConstants.SITUATION_TYPE, situationType, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.SITUATION_TYPE));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.SITUATION_TYPE));
         }
       }
     }
@@ -1598,14 +1571,14 @@ public class ResultDAGConverter {
     return addedAttributes;
   }
 
-  public static List<String> addEntityPart(
+  public static List<NodeAttribute> addEntityPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any entityAny = orb.create_any();
     Node entityPartNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_ENTITY, entityAny);
     graph.addVertex(entityPartNode);
@@ -1613,13 +1586,13 @@ public class ResultDAGConverter {
 
     String attribute = parentAttrName + NsiliConstants.NSIL_ENTITY;
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.TYPE), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.TYPE)) {
       Attribute situationTypeAttr = metacard.getAttribute(Isr.REPORT_ENTITY_TYPE);
       if (situationTypeAttr != null) {
         String situationType = getEntityType(situationTypeAttr.getValue());
         if (situationType != null) {
           addStringAttribute(graph, entityPartNode, NsiliConstants.TYPE, situationType, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.TYPE));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.TYPE));
         }
       }
     }
@@ -1628,7 +1601,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.REPORT_ENTITY_NAME),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         entityPartNode,
         attribute,
@@ -1638,7 +1611,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.REPORT_ENTITY_ALIAS),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         entityPartNode,
         attribute,
@@ -1647,14 +1620,14 @@ public class ResultDAGConverter {
     return addedAttributes;
   }
 
-  public static List<String> addExploitationInfoPart(
+  public static List<NodeAttribute> addExploitationInfoPart(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any exploitationInfoAny = orb.create_any();
     Node exploitationInfoNode =
         new Node(
@@ -1668,17 +1641,17 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.EXPLOITATION_LEVEL),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         exploitationInfoNode,
         attribute,
         NsiliConstants.LEVEL);
 
     addAutoGeneratedAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, exploitationInfoNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, exploitationInfoNode, attribute);
 
     addSubjQualityAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, exploitationInfoNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, exploitationInfoNode, attribute);
 
     if (addedAttributes.isEmpty()) {
       graph.removeEdge(partNode, exploitationInfoNode);
@@ -1692,18 +1665,18 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node exploitationInfoNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.SUBJ_QUALITY_CODE), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.SUBJ_QUALITY_CODE)) {
       Attribute subQualCodeAttr = metacard.getAttribute(Isr.EXPLOITATION_SUBJECTIVE_QUALITY_CODE);
       if (subQualCodeAttr != null) {
         String subQualCodeStr = getSubjectiveQualityCode(subQualCodeAttr.getValue());
         if (subQualCodeStr != null) {
           addStringAttribute(
               graph, exploitationInfoNode, NsiliConstants.SUBJ_QUALITY_CODE, subQualCodeStr, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.SUBJ_QUALITY_CODE));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.SUBJ_QUALITY_CODE));
         }
       }
     }
@@ -1713,32 +1686,32 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       Node exploitationInfoNode,
       String attribute) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.AUTO_GENERATED), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.AUTO_GENERATED)) {
       Attribute autoGenAttr = metacard.getAttribute(Isr.EXPLOTATION_AUTO_GENERATED);
       if (autoGenAttr != null && autoGenAttr.getValue() instanceof Boolean) {
         Boolean autoGen = (Boolean) autoGenAttr.getValue();
         if (autoGen != null) {
           addBooleanAttribute(
               graph, exploitationInfoNode, NsiliConstants.AUTO_GENERATED, autoGen, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.AUTO_GENERATED));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.AUTO_GENERATED));
         }
       }
     }
   }
 
-  public static List<String> addCommonNodeWithAttributes(
+  public static List<NodeAttribute> addCommonNodeWithAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       String type,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any any = orb.create_any();
     Node commonNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_COMMON, any);
     graph.addVertex(commonNode);
@@ -1746,25 +1719,25 @@ public class ResultDAGConverter {
 
     String attribute = parentAttrName + NsiliConstants.NSIL_COMMON;
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.IDENTIFIER_UUID), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.IDENTIFIER_UUID)) {
       String metacardId = getMetacardId(metacard);
       if (metacardId != null) {
         UUID uuid = getUUIDFromCard(metacardId);
         addStringAttribute(graph, commonNode, NsiliConstants.IDENTIFIER_UUID, uuid.toString(), orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.IDENTIFIER_UUID));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.IDENTIFIER_UUID));
       }
     }
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.TYPE), resultAttributes) && type != null) {
+    if (projection.includes(attribute, NsiliConstants.TYPE) && type != null) {
       addStringAttribute(graph, commonNode, NsiliConstants.TYPE, type, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.TYPE));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.TYPE));
     }
 
     addValStrAttribute(
         graph,
         metacard.getAttribute(Core.DESCRIPTION),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         commonNode,
         attribute,
@@ -1774,7 +1747,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Core.LANGUAGE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         commonNode,
         attribute,
@@ -1784,7 +1757,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TARGET_ID),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         commonNode,
         attribute,
@@ -1794,7 +1767,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.TARGET_CATEGORY_CODE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         commonNode,
         attribute,
@@ -1804,7 +1777,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.ORIGINAL_SOURCE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         commonNode,
         attribute,
@@ -1814,7 +1787,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.MISSION_ID),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         commonNode,
         attribute,
@@ -1824,7 +1797,7 @@ public class ResultDAGConverter {
         graph,
         metacard.getAttribute(Isr.JC3IEDM_ID),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         commonNode,
         attribute,
@@ -1833,14 +1806,14 @@ public class ResultDAGConverter {
     return addedAttributes;
   }
 
-  public static List<String> addCoverageNodeWithAttributes(
+  public static List<NodeAttribute> addCoverageNodeWithAttributes(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node partNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any any = orb.create_any();
 
     String attribute = parentAttrName + NsiliConstants.NSIL_COVERAGE;
@@ -1855,24 +1828,24 @@ public class ResultDAGConverter {
           graph,
           metacard.getAttribute(Core.LOCATION),
           orb,
-          resultAttributes,
+          projection,
           addedAttributes,
           coverageNode,
           attribute,
           NsiliConstants.ADVANCED_GEOSPATIAL);
 
       addSpatialGeoRefBoxAttribute(
-          graph, metacard, orb, resultAttributes, addedAttributes, attribute, coverageNode);
+          graph, metacard, orb, projection, addedAttributes, attribute, coverageNode);
     }
 
     addTemporalAttributes(
-        graph, metacard, orb, resultAttributes, addedAttributes, attribute, coverageNode);
+        graph, metacard, orb, projection, addedAttributes, attribute, coverageNode);
 
     addValStrAttribute(
         graph,
         metacard.getAttribute(Location.COUNTRY_CODE),
         orb,
-        resultAttributes,
+        projection,
         addedAttributes,
         coverageNode,
         attribute,
@@ -1885,28 +1858,28 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       String attribute,
       Node coverageNode) {
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.TEMPORAL_END), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.TEMPORAL_END)) {
       Attribute endAttr = metacard.getAttribute(DateTime.END);
       if (endAttr != null) {
         Date endDate = (Date) endAttr.getValue();
         if (endDate != null) {
           addDateAttribute(graph, coverageNode, NsiliConstants.TEMPORAL_END, endDate, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.TEMPORAL_END));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.TEMPORAL_END));
         }
       }
     }
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.TEMPORAL_START), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.TEMPORAL_START)) {
       Attribute startAttr = metacard.getAttribute(DateTime.START);
       if (startAttr != null) {
         Date startDate = (Date) startAttr.getValue();
         if (startDate != null) {
           addDateAttribute(graph, coverageNode, NsiliConstants.TEMPORAL_START, startDate, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.TEMPORAL_START));
+          addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.TEMPORAL_START));
         }
       }
     }
@@ -1916,12 +1889,11 @@ public class ResultDAGConverter {
       DirectedAcyclicGraph<Node, Edge> graph,
       Metacard metacard,
       ORB orb,
-      List<String> resultAttributes,
-      List<String> addedAttributes,
+      ResultAttributeProjection projection,
+      List<NodeAttribute> addedAttributes,
       String attribute,
       Node coverageNode) {
-    if (shouldAdd(
-        buildAttr(attribute, NsiliConstants.SPATIAL_GEOGRAPHIC_REF_BOX), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.SPATIAL_GEOGRAPHIC_REF_BOX)) {
       Attribute geoAttr = metacard.getAttribute(Core.LOCATION);
       if (geoAttr != null) {
         String wktGeo = String.valueOf(geoAttr.getValue());
@@ -1930,7 +1902,8 @@ public class ResultDAGConverter {
           Rectangle rect = NsiliGeomUtil.getRectangle(boundingGeo);
           addGeomAttribute(
               graph, coverageNode, NsiliConstants.SPATIAL_GEOGRAPHIC_REF_BOX, rect, orb);
-          addedAttributes.add(buildAttr(attribute, NsiliConstants.SPATIAL_GEOGRAPHIC_REF_BOX));
+          addedAttributes.add(
+              new NodeAttribute(attribute, NsiliConstants.SPATIAL_GEOGRAPHIC_REF_BOX));
         } catch (ParseException pe) {
           LOGGER.debug("Unable to parse WKT for bounding box: {}", wktGeo, pe);
         }
@@ -1938,14 +1911,14 @@ public class ResultDAGConverter {
     }
   }
 
-  public static List<String> addThumbnailRelatedFile(
+  public static List<NodeAttribute> addThumbnailRelatedFile(
       DirectedAcyclicGraph<Node, Edge> graph,
       Node productNode,
       Metacard metacard,
       ORB orb,
       String parentAttrName,
-      List<String> resultAttributes) {
-    List<String> addedAttributes = new ArrayList<>();
+      ResultAttributeProjection projection) {
+    List<NodeAttribute> addedAttributes = new ArrayList<>();
     Any any = orb.create_any();
     Node relatedFileNode = new Node(0, NodeType.ENTITY_NODE, NsiliConstants.NSIL_RELATED_FILE, any);
     graph.addVertex(relatedFileNode);
@@ -1954,25 +1927,24 @@ public class ResultDAGConverter {
     String attribute = parentAttrName + NsiliConstants.NSIL_RELATED_FILE;
 
     addCreatorAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, relatedFileNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, relatedFileNode, attribute);
 
     addTimeDeclaredAttribute(
-        graph, metacard, orb, resultAttributes, addedAttributes, relatedFileNode, attribute);
+        graph, metacard, orb, projection, addedAttributes, relatedFileNode, attribute);
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.EXTENT), resultAttributes)
-        && metacard.getThumbnail() != null) {
+    if (projection.includes(attribute, NsiliConstants.EXTENT) && metacard.getThumbnail() != null) {
       try {
         Double resSize = (double) metacard.getThumbnail().length;
         Double resSizeMB = convertToMegabytes(resSize);
         addDoubleAttribute(graph, relatedFileNode, NsiliConstants.EXTENT, resSizeMB, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.EXTENT));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.EXTENT));
       } catch (NumberFormatException nfe) {
         LOGGER.debug(
             "Couldn't convert the thumbnail size to double: {}", metacard.getResourceSize());
       }
     }
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.URL), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.URL)) {
       try {
         String thumbnailURL =
             new URI(
@@ -1987,13 +1959,13 @@ public class ResultDAGConverter {
                         true))
                 .toASCIIString();
         addStringAttribute(graph, relatedFileNode, NsiliConstants.URL, thumbnailURL, orb);
-        addedAttributes.add(buildAttr(attribute, NsiliConstants.URL));
+        addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.URL));
       } catch (URISyntaxException e) {
         LOGGER.debug("Unable to construct URI: ", e);
       }
     }
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.IS_FILE_LOCAL), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.IS_FILE_LOCAL)) {
       String siteName = SystemInfo.getSiteName();
 
       boolean fileLocal = true;
@@ -2003,13 +1975,13 @@ public class ResultDAGConverter {
         fileLocal = false;
       }
       addBooleanAttribute(graph, relatedFileNode, NsiliConstants.IS_FILE_LOCAL, fileLocal, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.IS_FILE_LOCAL));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.IS_FILE_LOCAL));
     }
 
-    if (shouldAdd(buildAttr(attribute, NsiliConstants.FILE_TYPE), resultAttributes)) {
+    if (projection.includes(attribute, NsiliConstants.FILE_TYPE)) {
       addStringAttribute(
           graph, relatedFileNode, NsiliConstants.FILE_TYPE, NsiliConstants.THUMBNAIL_TYPE, orb);
-      addedAttributes.add(buildAttr(attribute, NsiliConstants.FILE_TYPE));
+      addedAttributes.add(new NodeAttribute(attribute, NsiliConstants.FILE_TYPE));
     }
 
     return addedAttributes;
@@ -2279,75 +2251,6 @@ public class ResultDAGConverter {
     return uuid;
   }
 
-  private static boolean shouldAdd(String attributeName, List<String> resultAttributes) {
-    boolean shouldAddAttribute = false;
-
-    if (resultAttributes != null && !resultAttributes.isEmpty()) {
-      if (resultAttributes.contains(attributeName)) {
-        shouldAddAttribute = true;
-      } else {
-        if (attributeName.lastIndexOf(':') != -1) {
-          String nonScopeAttr = attributeName.substring(attributeName.lastIndexOf(':') + 1);
-          if (resultAttributes.contains(nonScopeAttr)) {
-            shouldAddAttribute = true;
-          }
-        }
-
-        if (!shouldAddAttribute) {
-          int lastDot = attributeName.lastIndexOf('.');
-          if (lastDot != -1) {
-            String simpleAttrName = attributeName.substring(lastDot + 1);
-            if (resultAttributes.contains(simpleAttrName)) {
-              shouldAddAttribute = true;
-            }
-          }
-        }
-      }
-    } else {
-      shouldAddAttribute = true;
-    }
-
-    if (!shouldAddAttribute) {
-      LOGGER.trace("Attribute is not supported in destination data model: {}", attributeName);
-    }
-
-    return shouldAddAttribute;
-  }
-
-  private static String buildAttr(String parentAttr, String attribute) {
-    return parentAttr + "." + attribute;
-  }
-
-  private static Map<String, List<String>> getAttrMap(List<String> attributes) {
-    return attributes
-        .stream()
-        .map(ATTRIBUTE_PATTERN::matcher)
-        .filter(Matcher::matches)
-        .collect(
-            Collectors.groupingBy(
-                m -> m.group(2), Collectors.mapping(m -> m.group(3), Collectors.toList())));
-  }
-
-  private static boolean processEntry(
-      String entryName, List<String> requiredAttrs, List<String> parsedAttrs) {
-    final ThreadLocal<Boolean> dataIsValid = new ThreadLocal<>();
-    dataIsValid.set(true);
-
-    if (requiredAttrs != null) {
-      List<String> missingAttrs =
-          requiredAttrs
-              .stream()
-              .filter(requiredAttr -> !parsedAttrs.contains(requiredAttr))
-              .collect(Collectors.toList());
-      if (!missingAttrs.isEmpty()) {
-        dataIsValid.set(false);
-        LOGGER.debug("Node: {} is missing attributes: {}", entryName, missingAttrs);
-      }
-    }
-
-    return dataIsValid.get();
-  }
-
   public static String getMetacardId(Metacard metacard) {
     String id = metacard.getId();
 
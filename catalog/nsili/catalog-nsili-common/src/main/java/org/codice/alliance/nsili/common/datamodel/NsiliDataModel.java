@@ -15,10 +15,12 @@ package org.codice.alliance.nsili.common.datamodel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -34,6 +36,12 @@ import org.codice.alliance.nsili.common.UCO.EntityRelationship;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The NSILI data model. It is built once and shared, and every lookup returns the same unmodifiable
+ * collections, so it can be used concurrently and per request without rebuilding the model. The
+ * CORBA structures it returns, such as the entity graphs, are shared as well and must not be
+ * modified.
+ */
 public class NsiliDataModel {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NsiliDataModel.class);
@@ -301,10 +309,21 @@ public class NsiliDataModel {
 
   private Map<String, Map<String, List<String>>> requiredAttrMap = new HashMap<>();
 
-  public NsiliDataModel() {
+  private final ConcurrentMap<String, List<AttributeInformation>> entityAttributeMap =
+      new ConcurrentHashMap<>();
+
+  private Map<String, List<AttributeInformation>> viewAttributeMap = new HashMap<>();
+
+  private List<String> aliasCategories;
+
+  private NsiliDataModel() {
     init();
   }
 
+  public static NsiliDataModel getInstance() {
+    return Holder.INSTANCE;
+  }
+
   private void init() {
     initAllViewGraph();
     initImageryViewGraph();
@@ -319,14 +338,39 @@ public class NsiliDataModel {
 
     initAliasCategoryMap();
     initAssociations();
+
+    for (Map.Entry<String, EntityGraph> view : viewGraphMap.entrySet()) {
+      viewAttributeMap.put(view.getKey(), createAttributesForView(view.getValue()));
+    }
+    aliasCategoryMap.replaceAll((category, aliases) -> Collections.unmodifiableList(aliases));
+    aliasCategories = Collections.unmodifiableList(new ArrayList<>(aliasCategoryMap.keySet()));
+    conceptualAttrMap.replaceAll((view, attrs) -> Collections.unmodifiableList(attrs));
+    associations = Collections.unmodifiableList(associations);
   }
 
+  /**
+   * @return the attributes of the entity, or an empty list if the entity has no attributes or is
+   *     not part of the data model
+   */
   public List<AttributeInformation> getAttributeInformation(String entityName) {
-    List<AttributeInformation> attributes = new ArrayList<>();
+    List<AttributeInformation> attributes = entityAttributeMap.get(entityName);
+    if (attributes == null) {
+      attributes =
+          entityAttributeMap.computeIfAbsent(entityName, NsiliDataModel::createAttributeInformation);
+    }
+    return attributes == null ? Collections.emptyList() : attributes;
+  }
+
+  /**
+   * @return the attributes of the entity, which are cached even if empty, or null if the entity is
+   *     not part of the data model so that unknown names are not cached
+   */
+  private static List<AttributeInformation> createAttributeInformation(String entityName) {
+    List<AttributeInformation> attributes;
 
     switch (entityName) {
       case NsiliConstants.NSIL_PRODUCT:
-        attributes = new ArrayList<>();
+        attributes = Collections.emptyList();
         break;
       case NsiliConstants.NSIL_CARD:
         attributes = NsiliAttributesGenerator.getNsilCardAttributes();
@@ -416,10 +460,10 @@ public class NsiliDataModel {
         attributes = NsiliAttributesGenerator.getNsilEntityAttributes();
         break;
       default:
-        break;
+        return null;
     }
 
-    return attributes;
+    return Collections.unmodifiableList(attributes);
   }
 
   private void initAllViewGraph() {
@@ -1312,26 +1356,31 @@ public class NsiliDataModel {
     return entityGraph;
   }
 
+  /** @return the attributes of every entity in the view, or an empty list for an unknown view */
   public List<AttributeInformation> getAttributesForView(String viewName) {
-    List<AttributeInformation> attributeInformation = new ArrayList<>();
+    List<AttributeInformation> attributeInformation = viewAttributeMap.get(viewName);
+    if (attributeInformation == null) {
+      LOGGER.debug("Returning no attributes for view name: {}", viewName);
+      return Collections.emptyList();
+    }
+    return attributeInformation;
+  }
 
-    EntityGraph graph = getEntityGraph(viewName);
+  private List<AttributeInformation> createAttributesForView(EntityGraph graph) {
+    List<AttributeInformation> attributeInformation = new ArrayList<>();
     for (EntityNode node : graph.nodes) {
-      List<AttributeInformation> nodeAttrs = getAttributeInformation(node.entity_name);
-      if (nodeAttrs != null) {
-        attributeInformation.addAll(nodeAttrs);
-      }
+      attributeInformation.addAll(getAttributeInformation(node.entity_name));
     }
-
-    return attributeInformation;
+    return Collections.unmodifiableList(attributeInformation);
   }
 
   public List<String> getAliasCategories() {
-    return new ArrayList<>(aliasCategoryMap.keySet());
+    return aliasCategories;
   }
 
+  /** @return the aliases of the category, or null for an unknown category */
   public List<Pair<String, String>> getAliasesForCategory(String categoryName) {
-    return new ArrayList<>(aliasCategoryMap.get(categoryName));
+    return aliasCategoryMap.get(categoryName);
   }
 
   public List<Pair<ConceptualAttributeType, String>> getConceptualAttrsForView(String viewName) {
@@ -1353,7 +1402,6 @@ public class NsiliDataModel {
         Arrays.stream(viewNodes)
             .map(e -> e.entity_name)
             .map(this::getAttributeInformation)
-            .filter(Objects::nonNull)
             .flatMap(List::stream)
             .collect(Collectors.toList());
     for (AttributeInformation nodeAttr : nodeAttrs) {
@@ -1372,6 +1420,11 @@ public class NsiliDataModel {
         }
       }
     }
-    requiredAttrMap.put(viewName, attrMap);
+    attrMap.replaceAll((parentNode, attrs) -> Collections.unmodifiableList(attrs));
+    requiredAttrMap.put(viewName, Collections.unmodifiableMap(attrMap));
+  }
+
+  private static class Holder {
+    private static final NsiliDataModel INSTANCE = new NsiliDataModel();
   }
 }
@@ -15,8 +15,13 @@ package org.codice.alliance.nsili.common;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assume.assumeTrue;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
@@ -28,7 +33,7 @@ import org.junit.Test;
 
 public class NsiliDataModelTest {
 
-  protected NsiliDataModel nsiliDataModel = new NsiliDataModel();
+  protected NsiliDataModel nsiliDataModel = NsiliDataModel.getInstance();
 
   @Test
   public void testAliasCategories() {
@@ -126,4 +131,66 @@ public class NsiliDataModelTest {
     assertThat(advancedGeoSpatialExists, is(true));
     assertThat(numEntityNodeAttrs, is(3));
   }
+
+  @Test
+  public void testDataModelIsShared() {
+    assertThat(NsiliDataModel.getInstance(), sameInstance(nsiliDataModel));
+    assertThat(
+        nsiliDataModel.getAttributesForView(NsiliConstants.NSIL_ALL_VIEW),
+        sameInstance(nsiliDataModel.getAttributesForView(NsiliConstants.NSIL_ALL_VIEW)));
+    assertThat(
+        nsiliDataModel.getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW),
+        sameInstance(nsiliDataModel.getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW)));
+  }
+
+  @Test
+  public void testEntityWithoutAttributesIsCached() {
+    List<AttributeInformation> productAttributes =
+        nsiliDataModel.getAttributeInformation(NsiliConstants.NSIL_PRODUCT);
+
+    assertThat(productAttributes.isEmpty(), is(true));
+    assertThat(
+        nsiliDataModel.getAttributeInformation(NsiliConstants.NSIL_PRODUCT),
+        sameInstance(productAttributes));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testAttributesAreUnmodifiable() {
+    nsiliDataModel.getAttributesForView(NsiliConstants.NSIL_ALL_VIEW).clear();
+  }
+
+  @Test
+  public void testLookupsDoNotAllocate() {
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+    assumeTrue(allocationBean.isThreadAllocatedMemoryEnabled());
+
+    long threadId = Thread.currentThread().getId();
+    int lookups = 0;
+    for (int i = 0; i < 1000; i++) {
+      lookups += performLookups();
+    }
+
+    long before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10_000; i++) {
+      lookups += performLookups();
+    }
+    long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    assertThat(lookups > 0, is(true));
+    assertThat(allocated, lessThan(4096L));
+  }
+
+  private int performLookups() {
+    return nsiliDataModel.getAttributesForView(NsiliConstants.NSIL_IMAGERY_VIEW).size()
+        + nsiliDataModel.getAttributeInformation(NsiliConstants.NSIL_CARD).size()
+        + nsiliDataModel.getAttributeInformation(NsiliConstants.NSIL_PRODUCT).size()
+        + nsiliDataModel.getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW).size()
+        + nsiliDataModel.getEntityGraph(NsiliConstants.NSIL_ALL_VIEW).nodes.length
+        + nsiliDataModel.getConceptualAttrsForView(NsiliConstants.NSIL_ALL_VIEW).size()
+        + nsiliDataModel.getAliasesForCategory(NsiliConstants.NSIL_CORE).size()
+        + nsiliDataModel.getAliasCategories().size()
+        + nsiliDataModel.getAssociations().size();
+  }
 }
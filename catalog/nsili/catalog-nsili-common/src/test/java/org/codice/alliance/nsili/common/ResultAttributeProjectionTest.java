@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.common;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class ResultAttributeProjectionTest {
+
+  private static final String CARD = NsiliConstants.NSIL_PRODUCT + ":" + NsiliConstants.NSIL_CARD;
+
+  private static final String FILE = NsiliConstants.NSIL_PRODUCT + ":" + NsiliConstants.NSIL_FILE;
+
+  @Test
+  public void testEmptyAttributesIncludeEverything() {
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(Collections.emptyList(), null);
+
+    assertThat(projection.includes(CARD, NsiliConstants.IDENTIFIER), is(true));
+    assertThat(projection.includes(FILE, NsiliConstants.TITLE), is(true));
+  }
+
+  @Test
+  public void testNullAttributesIncludeEverything() {
+    ResultAttributeProjection projection = ResultAttributeProjection.compile(null, null);
+
+    assertThat(projection.includes(CARD, NsiliConstants.IDENTIFIER), is(true));
+  }
+
+  @Test
+  public void testScopedAttribute() {
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(
+            Collections.singletonList(CARD + "." + NsiliConstants.IDENTIFIER), null);
+
+    assertThat(projection.includes(CARD, NsiliConstants.IDENTIFIER), is(true));
+    assertThat(projection.includes(CARD, NsiliConstants.SOURCE_LIBRARY), is(false));
+    assertThat(projection.includes(FILE, NsiliConstants.IDENTIFIER), is(false));
+  }
+
+  @Test
+  public void testUnscopedAttribute() {
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(
+            Collections.singletonList(NsiliConstants.NSIL_CARD + "." + NsiliConstants.IDENTIFIER),
+            null);
+
+    assertThat(projection.includes(CARD, NsiliConstants.IDENTIFIER), is(true));
+    assertThat(projection.includes(NsiliConstants.NSIL_CARD, NsiliConstants.IDENTIFIER), is(true));
+    assertThat(projection.includes(FILE, NsiliConstants.IDENTIFIER), is(false));
+  }
+
+  @Test
+  public void testSimpleAttribute() {
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(Collections.singletonList(NsiliConstants.TITLE), null);
+
+    assertThat(projection.includes(FILE, NsiliConstants.TITLE), is(true));
+    assertThat(projection.includes(CARD, NsiliConstants.TITLE), is(true));
+    assertThat(projection.includes(FILE, NsiliConstants.EXTENT), is(false));
+  }
+
+  @Test
+  public void testMandatoryAttributesPresent() {
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(Collections.emptyList(), getMandatoryAttributes());
+
+    assertThat(
+        projection.containsMandatoryAttributes(
+            Arrays.asList(
+                new NodeAttribute(CARD, NsiliConstants.IDENTIFIER),
+                new NodeAttribute(CARD, NsiliConstants.STATUS),
+                new NodeAttribute(FILE, NsiliConstants.TITLE))),
+        is(true));
+  }
+
+  @Test
+  public void testMandatoryAttributesMissing() {
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(Collections.emptyList(), getMandatoryAttributes());
+
+    assertThat(
+        projection.containsMandatoryAttributes(
+            Collections.singletonList(new NodeAttribute(CARD, NsiliConstants.STATUS))),
+        is(false));
+  }
+
+  @Test
+  public void testMandatoryAttributesOnlyCheckedForPresentNodes() {
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(Collections.emptyList(), getMandatoryAttributes());
+
+    assertThat(
+        projection.containsMandatoryAttributes(
+            Collections.singletonList(new NodeAttribute(FILE, NsiliConstants.TITLE))),
+        is(true));
+  }
+
+  @Test
+  public void testMandatoryAttributesCheckedPerNode() {
+    Map<String, List<String>> mandatoryAttrs = getMandatoryAttributes();
+    mandatoryAttrs.put(NsiliConstants.NSIL_FILE, Collections.singletonList(NsiliConstants.TITLE));
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(Collections.emptyList(), mandatoryAttrs);
+
+    assertThat(
+        projection.containsMandatoryAttributes(
+            Arrays.asList(
+                new NodeAttribute(CARD, NsiliConstants.IDENTIFIER),
+                new NodeAttribute(CARD, NsiliConstants.STATUS),
+                new NodeAttribute(FILE, NsiliConstants.EXTENT))),
+        is(false));
+    assertThat(
+        projection.containsMandatoryAttributes(
+            Arrays.asList(
+                new NodeAttribute(CARD, NsiliConstants.IDENTIFIER),
+                new NodeAttribute(CARD, NsiliConstants.STATUS),
+                new NodeAttribute(FILE, NsiliConstants.TITLE))),
+        is(true));
+  }
+
+  private static Map<String, List<String>> getMandatoryAttributes() {
+    Map<String, List<String>> mandatoryAttrs = new HashMap<>();
+    mandatoryAttrs.put(
+        NsiliConstants.NSIL_CARD, Arrays.asList(NsiliConstants.IDENTIFIER, NsiliConstants.STATUS));
+    return mandatoryAttrs;
+  }
+}
@@ -286,6 +286,56 @@ public class ResultDAGConverterTest {
     assertThat(value, is(NsiliCardStatus.OBSOLETE.name()));
   }
 
+  @Test
+  public void testCompiledProjectionOverThousandResults() throws Exception {
+    List<String> resultAttributes =
+        Arrays.asList(
+            NsiliConstants.NSIL_CARD + "." + NsiliConstants.IDENTIFIER,
+            NsiliConstants.NSIL_PRODUCT
+                + ":"
+                + NsiliConstants.NSIL_FILE
+                + "."
+                + NsiliConstants.TITLE,
+            NsiliConstants.STATUS);
+    Map<String, List<String>> mandatoryAttrs = new HashMap<>();
+    mandatoryAttrs.put(
+        NsiliConstants.NSIL_CARD, Collections.singletonList(NsiliConstants.IDENTIFIER));
+
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(resultAttributes, mandatoryAttrs);
+
+    String identifierAttr =
+        NsiliConstants.NSIL_PRODUCT
+            + ":"
+            + NsiliConstants.NSIL_CARD
+            + "."
+            + NsiliConstants.IDENTIFIER;
+    String sourceAttr =
+        NsiliConstants.NSIL_PRODUCT
+            + ":"
+            + NsiliConstants.NSIL_CARD
+            + "."
+            + NsiliConstants.SOURCE_LIBRARY;
+
+    for (int i = 0; i < 1000; i++) {
+      ResultImpl result = new ResultImpl();
+      result.setMetacard(getTestCard());
+
+      DAG dag = ResultDAGConverter.convertResult(result, orb, rootPOA, projection);
+      assertThat(checkDagContains(dag, identifierAttr), is(true));
+      assertThat(checkDagContains(dag, STATUS_ATTR_NAME), is(true));
+      assertThat(checkDagContains(dag, sourceAttr), is(false));
+
+      if (i % 100 == 0) {
+        DAG listDag =
+            ResultDAGConverter.convertResult(
+                result, orb, rootPOA, resultAttributes, mandatoryAttrs);
+        assertThat(
+            ResultDAGConverter.getAttributes(dag), is(ResultDAGConverter.getAttributes(listDag)));
+      }
+    }
+  }
+
   private static boolean checkDagContains(DAG dag, String attribute) {
     List<String> dagAttrs = ResultDAGConverter.getAttributes(dag);
     return dagAttrs.contains(attribute);
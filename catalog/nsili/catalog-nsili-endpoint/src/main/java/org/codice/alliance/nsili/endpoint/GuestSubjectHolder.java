@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint;
+
+import ddf.security.Subject;
+import ddf.security.service.SecurityServiceException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the guest subject that NSILI requests are executed as. Reading the subject is a volatile
+ * read as long as it has been checked within the check interval. Once started, a background thread
+ * checks the subject twice per interval and replaces it before its token expires, so request
+ * threads do not wait for a new token. When the subject has not been checked recently, the first
+ * request to notice checks it while the others wait for that check instead of starting their own.
+ */
+public class GuestSubjectHolder implements GuestSubjectHolderMBean {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GuestSubjectHolder.class);
+
+  private final SubjectFactory subjectFactory;
+
+  private final Predicate<Subject> aboutToExpire;
+
+  private final long checkIntervalNanos;
+
+  private final Object refreshLock = new Object();
+
+  private volatile Subject subject;
+
+  private volatile long nextCheckNanos;
+
+  private volatile long lastRefreshTime;
+
+  private final LongAdder refreshCount = new LongAdder();
+
+  private final LongAdder refreshFailureCount = new LongAdder();
+
+  private final LongAdder inlineCheckCount = new LongAdder();
+
+  private final LongAdder totalRefreshNanos = new LongAdder();
+
+  private ScheduledExecutorService scheduler;
+
+  private ObjectName objectName;
+
+  private MBeanServer mBeanServer;
+
+  /**
+   * @param subjectFactory creates a new guest subject
+   * @param aboutToExpire tests whether the token of a subject is about to expire, which must be
+   *     true at least two check intervals before it expires
+   * @param checkIntervalMillis the longest time a subject is used without being checked
+   */
+  GuestSubjectHolder(
+      SubjectFactory subjectFactory, Predicate<Subject> aboutToExpire, long checkIntervalMillis) {
+    this.subjectFactory = subjectFactory;
+    this.aboutToExpire = aboutToExpire;
+    this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMillis);
+  }
+
+  /** Start checking the subject in the background and register the MBean. */
+  public synchronized void start() {
+    if (scheduler != null) {
+      return;
+    }
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder()
+                .namingPattern("nsili-guest-subject-%d")
+                .daemon(true)
+                .build());
+    long periodNanos = checkIntervalNanos / 2;
+    scheduler.scheduleWithFixedDelay(this::checkInBackground, 0, periodNanos, TimeUnit.NANOSECONDS);
+    registerMbean();
+  }
+
+  public synchronized void stop() {
+    if (scheduler == null) {
+      return;
+    }
+    scheduler.shutdownNow();
+    scheduler = null;
+    try {
+      if (objectName != null && mBeanServer != null) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      LOGGER.info("Exception unregistering MBean: ", e);
+    }
+  }
+
+  public Subject getSubject() throws SecurityServiceException {
+    Subject current = subject;
+    if (current != null && System.nanoTime() - nextCheckNanos < 0) {
+      return current;
+    }
+    inlineCheckCount.increment();
+    return check(false);
+  }
+
+  /** Replace the subject, which is then used until the next check. */
+  public void setSubject(Subject subject) {
+    synchronized (refreshLock) {
+      this.subject = subject;
+      nextCheckNanos = System.nanoTime() + checkIntervalNanos;
+    }
+  }
+
+  @Override
+  public long getRefreshCount() {
+    return refreshCount.sum();
+  }
+
+  @Override
+  public long getRefreshFailureCount() {
+    return refreshFailureCount.sum();
+  }
+
+  @Override
+  public long getInlineCheckCount() {
+    return inlineCheckCount.sum();
+  }
+
+  @Override
+  public double getAverageRefreshMillis() {
+    long attempts = getRefreshCount() + getRefreshFailureCount();
+    return attempts == 0
+        ? 0
+        : totalRefreshNanos.sum() / (double) attempts / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  @Override
+  public long getLastRefreshTime() {
+    return lastRefreshTime;
+  }
+
+  /**
+   * Replace the subject if its token is about to expire. If a new subject cannot be created, the
+   * current one is kept until the next check.
+   *
+   * @param force check the subject even if it was checked within the check interval
+   */
+  private Subject check(boolean force) throws SecurityServiceException {
+    synchronized (refreshLock) {
+      Subject current = subject;
+      if (!force && current != null && System.nanoTime() - nextCheckNanos < 0) {
+        return current;
+      }
+
+      if (current == null || aboutToExpire.test(current)) {
+        try {
+          current = refresh();
+        } catch (SecurityServiceException | RuntimeException e) {
+          if (current == null) {
+            throw e;
+          }
+          LOGGER.debug("Unable to refresh the guest subject, keeping the current one.", e);
+        }
+      }
+
+      nextCheckNanos = System.nanoTime() + checkIntervalNanos;
+      return current;
+    }
+  }
+
+  private Subject refresh() throws SecurityServiceException {
+    long start = System.nanoTime();
+    try {
+      Subject newSubject = subjectFactory.createSubject();
+      subject = newSubject;
+      lastRefreshTime = System.currentTimeMillis();
+      refreshCount.increment();
+      LOGGER.debug("Refreshed the guest subject.");
+      return newSubject;
+    } catch (SecurityServiceException | RuntimeException e) {
+      refreshFailureCount.increment();
+      throw e;
+    } finally {
+      totalRefreshNanos.add(System.nanoTime() - start);
+    }
+  }
+
+  private void checkInBackground() {
+    try {
+      check(true);
+    } catch (SecurityServiceException | RuntimeException e) {
+      LOGGER.debug("Unable to create the guest subject.", e);
+    }
+  }
+
+  private void registerMbean() {
+    try {
+      objectName =
+          new ObjectName(GuestSubjectHolder.class.getName() + ":service=nsili-guest-subject");
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    } catch (MalformedObjectNameException e) {
+      LOGGER.info("Unable to create NSILI Guest Subject MBean.", e);
+    }
+    if (mBeanServer == null) {
+      return;
+    }
+    try {
+      try {
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Registered NSILI Guest Subject MBean under object name: {}", objectName);
+      } catch (InstanceAlreadyExistsException e) {
+        mBeanServer.unregisterMBean(objectName);
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Re-registered NSILI Guest Subject MBean", e);
+      }
+    } catch (MBeanRegistrationException
+        | InstanceNotFoundException
+        | InstanceAlreadyExistsException
+        | NotCompliantMBeanException e) {
+      LOGGER.info("Could not register MBean [{}].", objectName, e);
+    }
+  }
+
+  /** Creates a new guest subject. */
+  @FunctionalInterface
+  interface SubjectFactory {
+    Subject createSubject() throws SecurityServiceException;
+  }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint;
+
+/** Reports how often the guest subject used by the NSILI endpoint is refreshed. */
+public interface GuestSubjectHolderMBean {
+
+  /** @return the number of guest subjects that have been created */
+  long getRefreshCount();
+
+  /** @return the number of attempts to create a guest subject that failed */
+  long getRefreshFailureCount();
+
+  /**
+   * @return the number of requests that had to check the guest subject themselves because the
+   *     background refresh had not checked it recently
+   */
+  long getInlineCheckCount();
+
+  /** @return the average time taken to create a guest subject */
+  double getAverageRefreshMillis();
+
+  /** @return the time the current guest subject was created, in milliseconds since the epoch */
+  long getLastRefreshTime();
+}
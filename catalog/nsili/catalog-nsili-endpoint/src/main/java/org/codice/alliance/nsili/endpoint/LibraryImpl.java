@@ -53,6 +53,7 @@ import org.codice.alliance.nsili.endpoint.managers.DataModelMgrImpl;
 import org.codice.alliance.nsili.endpoint.managers.EmailConfiguration;
 import org.codice.alliance.nsili.endpoint.managers.OrderMgrImpl;
 import org.codice.alliance.nsili.endpoint.managers.ProductMgrImpl;
+import org.codice.alliance.nsili.endpoint.managers.RelatedFilesResources;
 import org.codice.alliance.nsili.endpoint.managers.StandingQueryMgrImpl;
 import org.codice.ddf.configuration.SystemBaseUrl;
 import org.omg.CORBA.NO_IMPLEMENT;
@@ -85,6 +86,8 @@ public class LibraryImpl extends LibraryPOA {
 
   private EmailConfiguration emailConfiguration;
 
+  private RelatedFilesResources relatedFilesResources;
+
   private FilterBuilder filterBuilder;
 
   private int maxNumResults = NsiliEndpoint.DEFAULT_MAX_NUM_RESULTS;
@@ -266,6 +269,7 @@ public class LibraryImpl extends LibraryPOA {
     productMgr.setCatalogFramework(catalogFramework);
     productMgr.setFilterBuilder(filterBuilder);
     productMgr.setOutgoingValidationEnabled(outgoingValidationEnabled);
+    productMgr.setRelatedFilesResources(relatedFilesResources);
     if (!CorbaUtils.isIdActive(poa, managerId.getBytes(Charset.forName(NsiliEndpoint.ENCODING)))) {
       try {
         poa.activate_object_with_id(
@@ -378,4 +382,10 @@ public class LibraryImpl extends LibraryPOA {
     notNull(emailConfiguration, "emailConfiguration must be non-null");
     this.emailConfiguration = emailConfiguration;
   }
+
+  /** @param relatedFilesResources must be non-null */
+  public void setRelatedFilesResources(RelatedFilesResources relatedFilesResources) {
+    notNull(relatedFilesResources, "relatedFilesResources must be non-null");
+    this.relatedFilesResources = relatedFilesResources;
+  }
 }
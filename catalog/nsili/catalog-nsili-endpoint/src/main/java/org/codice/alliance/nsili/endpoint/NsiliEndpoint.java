@@ -30,6 +30,9 @@ import java.util.concurrent.TimeUnit;
 import org.codice.alliance.core.email.EmailSender;
 import org.codice.alliance.nsili.common.NsilCorbaExceptionUtil;
 import org.codice.alliance.nsili.endpoint.managers.EmailConfiguration;
+import org.codice.alliance.nsili.endpoint.managers.MetacardCache;
+import org.codice.alliance.nsili.endpoint.managers.RelatedFilesResources;
+import org.codice.alliance.nsili.endpoint.managers.ResultDagCache;
 import org.codice.alliance.nsili.orb.api.CorbaOrb;
 import org.codice.alliance.nsili.orb.api.CorbaServiceListener;
 import org.codice.ddf.security.common.Security;
@@ -95,10 +98,18 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
 
   private boolean removeSourceLibrary = true;
 
-  private static Subject guestSubject = null;
+  private RelatedFilesResources relatedFilesResources;
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NsiliEndpoint.class);
 
+  private static final long GUEST_SUBJECT_CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  private static final GuestSubjectHolder GUEST_SUBJECT =
+      new GuestSubjectHolder(
+          NsiliEndpoint::createGuestSubject,
+          subject -> Security.getInstance().tokenAboutToExpire(subject),
+          GUEST_SUBJECT_CHECK_INTERVAL_MILLIS);
+
   public NsiliEndpoint() {
     LOGGER.debug("NSILI Endpoint constructed");
   }
@@ -221,6 +232,26 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
     }
   }
 
+  /** @param metacardCacheTimeToLiveSec how long resolved product metacards are cached */
+  public void setMetacardCacheTimeToLiveSec(int metacardCacheTimeToLiveSec) {
+    MetacardCache.getInstance().setTimeToLiveSec(metacardCacheTimeToLiveSec);
+  }
+
+  /** @param metacardQueryBatchSize the number of product ids resolved by one catalog query */
+  public void setMetacardQueryBatchSize(int metacardQueryBatchSize) {
+    MetacardCache.getInstance().setBatchSize(metacardQueryBatchSize);
+  }
+
+  /** @param resultDagCacheTimeToLiveSec how long converted query result DAGs are cached */
+  public void setResultDagCacheTimeToLiveSec(int resultDagCacheTimeToLiveSec) {
+    ResultDagCache.getInstance().setTimeToLiveSec(resultDagCacheTimeToLiveSec);
+  }
+
+  /** @param resultDagCacheMaxNodes the total number of DAG nodes the result DAG cache holds */
+  public void setResultDagCacheMaxNodes(long resultDagCacheMaxNodes) {
+    ResultDagCache.getInstance().setMaxNodes(resultDagCacheMaxNodes);
+  }
+
   public void setCorbaOrb(CorbaOrb corbaOrb) {
     this.corbaOrb = corbaOrb;
     this.orb = corbaOrb.getOrb();
@@ -298,6 +329,16 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
     }
   }
 
+  /** @param relatedFilesResources must be non-null */
+  public void setRelatedFilesResources(RelatedFilesResources relatedFilesResources) {
+    notNull(relatedFilesResources, "relatedFilesResources must be non-null");
+
+    this.relatedFilesResources = relatedFilesResources;
+    if (library != null) {
+      library.setRelatedFilesResources(relatedFilesResources);
+    }
+  }
+
   public void destroy() {
     LOGGER.debug("Destroying NSILI Endpoint");
     if (corbaOrb != null) {
@@ -305,6 +346,7 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
     }
     library = null;
     iorString = "";
+    GUEST_SUBJECT.stop();
   }
 
   @Override
@@ -327,6 +369,7 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
       }
       rootPOA.destroy(true, true);
     }
+    ResultDagCache.getInstance().invalidateAll();
 
     orb = null;
     library = null;
@@ -334,6 +377,7 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
 
   public void init() {
     LOGGER.debug("Initializing NSILI Endpoint");
+    GUEST_SUBJECT.start();
     try {
       initCorba();
     } catch (InvalidName | AdapterInactive | WrongPolicy | ServantNotActive e) {
@@ -365,6 +409,9 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
     library.setOutgoingValidationEnabled(outgoingValidationEnabled);
     library.setMaxWaitToStartTimeMsecs(TimeUnit.SECONDS.toMillis(maxWaitToStartTimeSec));
     library.setEmailConfiguration(emailConfiguration);
+    if (relatedFilesResources != null) {
+      library.setRelatedFilesResources(relatedFilesResources);
+    }
 
     libraryRef = rootPOA.servant_to_reference(library);
 
@@ -373,27 +420,26 @@ public class NsiliEndpoint implements CorbaServiceListener, QuerySources {
     LOGGER.debug("Initialized NSILI Endpoint with IOR: {}", iorString);
   }
 
-  public static synchronized Subject getGuestSubject() throws SecurityServiceException {
-    if (guestSubject == null || Security.getInstance().tokenAboutToExpire(guestSubject)) {
+  public static Subject getGuestSubject() throws SecurityServiceException {
+    return GUEST_SUBJECT.getSubject();
+  }
 
-      String ip = DEFAULT_IP_ADDRESS;
-      try {
-        ip = InetAddress.getLocalHost().getHostAddress();
-        LOGGER.debug("Guest token ip: {}", ip);
-      } catch (UnknownHostException e) {
-        LOGGER.info("Could not get IP address for localhost", e);
-      }
+  public static void setGuestSubject(Subject subject) {
+    GUEST_SUBJECT.setSubject(subject);
+  }
 
-      String guestTokenId = ip;
-      GuestAuthenticationToken guestToken =
-          new GuestAuthenticationToken(BaseAuthenticationToken.ALL_REALM, guestTokenId);
-      guestSubject = securityManager.getSubject(guestToken);
+  private static Subject createGuestSubject() throws SecurityServiceException {
+    String ip = DEFAULT_IP_ADDRESS;
+    try {
+      ip = InetAddress.getLocalHost().getHostAddress();
+      LOGGER.debug("Guest token ip: {}", ip);
+    } catch (UnknownHostException e) {
+      LOGGER.info("Could not get IP address for localhost", e);
     }
 
-    return guestSubject;
-  }
-
-  public static synchronized void setGuestSubject(Subject subject) {
-    guestSubject = subject;
+    String guestTokenId = ip;
+    GuestAuthenticationToken guestToken =
+        new GuestAuthenticationToken(BaseAuthenticationToken.ALL_REALM, guestTokenId);
+    return securityManager.getSubject(guestToken);
   }
 }
@@ -24,11 +24,14 @@ import ddf.catalog.operation.impl.QueryRequestImpl;
 import ddf.security.service.SecurityServiceException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import org.apache.shiro.subject.ExecutionException;
@@ -57,6 +60,9 @@ public class AccessManagerImpl extends AccessManagerPOA {
 
   private static final String ORDER_ACCESS_USE_MODE = "OrderAccess";
 
+  /** The page size of a metacard query per id, which allows for the same id in several sources. */
+  private static final int PAGE_SIZE_PER_ID = 10;
+
   private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(AccessManagerImpl.class);
 
   private CatalogFramework catalogFramework;
@@ -67,6 +73,11 @@ public class AccessManagerImpl extends AccessManagerPOA {
 
   private int defaultTimeout = DEFAULT_TIMEOUT;
 
+  private final MetacardCache metacardCache = MetacardCache.getInstance();
+
+  private final ProductAvailabilityChecker availabilityChecker =
+      ProductAvailabilityChecker.getInstance();
+
   public void setCatalogFramework(CatalogFramework catalogFramework) {
     this.catalogFramework = catalogFramework;
   }
@@ -131,6 +142,7 @@ public class AccessManagerImpl extends AccessManagerPOA {
       String use_mode,
       short priority)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
+    prefetchAvailability(products);
     return new _SetAvailabilityRequestStub();
   }
 
@@ -183,14 +195,87 @@ public class AccessManagerImpl extends AccessManagerPOA {
   }
 
   public Metacard getMetacard(String id) {
-    Metacard metacard = null;
-    List<Result> results = new ArrayList<>();
+    return getMetacards(Collections.singletonList(id)).get(id);
+  }
+
+  /**
+   * @return the metacards of the products that were found, in the order of the products
+   * @see #getMetacards(Collection)
+   */
+  public List<Metacard> getMetacards(Product[] products)
+      throws UnsupportedEncodingException, WrongAdapter, WrongPolicy {
+    List<String> ids = getProductIds(products);
+    Map<String, Metacard> metacards = getMetacards(ids);
+
+    List<Metacard> orderedMetacards = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      Metacard metacard = metacards.get(id);
+      if (metacard != null) {
+        orderedMetacards.add(metacard);
+      }
+    }
+    return orderedMetacards;
+  }
+
+  /**
+   * Resolve the products so that the following calls to {@link #getMetacard(Product)} are answered
+   * from the {@link MetacardCache}.
+   */
+  public void prefetchMetacards(Product[] products)
+      throws UnsupportedEncodingException, WrongAdapter, WrongPolicy {
+    getMetacards(getProductIds(products));
+  }
+
+  /**
+   * Look up the metacards of the ids in the {@link MetacardCache}, and query the catalog for the
+   * rest with one query per {@link MetacardCache#getBatchSize()} ids.
+   *
+   * @return the metacards that were found, keyed by id
+   */
+  public Map<String, Metacard> getMetacards(Collection<String> ids) {
+    Set<String> uniqueIds = new LinkedHashSet<>(ids);
+    uniqueIds.remove(null);
+
+    Map<String, Metacard> metacards = new HashMap<>(metacardCache.getAll(uniqueIds));
+    uniqueIds.removeAll(metacards.keySet());
+    if (uniqueIds.isEmpty()) {
+      return metacards;
+    }
+
+    List<String> missingIds = new ArrayList<>(uniqueIds);
+    int batchSize = metacardCache.getBatchSize();
+    for (int i = 0; i < missingIds.size(); i += batchSize) {
+      List<String> batch = missingIds.subList(i, Math.min(i + batchSize, missingIds.size()));
+      Map<String, Metacard> queriedMetacards = queryMetacards(batch);
+      metacardCache.putAll(queriedMetacards);
+      metacards.putAll(queriedMetacards);
+    }
+    return metacards;
+  }
 
-    Filter filter = filterBuilder.attribute(Metacard.ID).is().equalTo().text(id);
+  private List<String> getProductIds(Product[] products)
+      throws UnsupportedEncodingException, WrongAdapter, WrongPolicy {
+    List<String> ids = new ArrayList<>();
+    if (products != null) {
+      for (Product product : products) {
+        if (product != null) {
+          ids.add(getProductId(product));
+        }
+      }
+    }
+    return ids;
+  }
+
+  private Map<String, Metacard> queryMetacards(List<String> ids) {
+    List<Filter> idFilters = new ArrayList<>(ids.size());
+    for (String id : ids) {
+      idFilters.add(filterBuilder.attribute(Metacard.ID).is().equalTo().text(id));
+    }
+    Filter filter = idFilters.size() == 1 ? idFilters.get(0) : filterBuilder.anyOf(idFilters);
 
     QueryImpl catalogQuery = new QueryImpl(filter);
     catalogQuery.setRequestsTotalResultsCount(false);
-    catalogQuery.setPageSize(10);
+    catalogQuery.setPageSize(ids.size() * PAGE_SIZE_PER_ID);
 
     QueryRequestImpl catalogQueryRequest;
 
@@ -200,37 +285,48 @@ public class AccessManagerImpl extends AccessManagerPOA {
       catalogQueryRequest = new QueryRequestImpl(catalogQuery, false, querySources, null);
     }
 
+    List<Result> results = new ArrayList<>();
     try {
       QueryResultsCallable queryCallable = new QueryResultsCallable(catalogQueryRequest);
+      metacardCache.recordQuery();
       results.addAll(NsiliEndpoint.getGuestSubject().execute(queryCallable));
-
     } catch (ExecutionException | SecurityServiceException e) {
       LOGGER.debug("Unable to query catalog", e);
     }
 
-    if (!results.isEmpty()) {
-      metacard = results.iterator().next().getMetacard();
+    Set<String> requestedIds = new HashSet<>(ids);
+    Map<String, Metacard> metacards = new HashMap<>();
+    for (Result result : results) {
+      Metacard metacard = result.getMetacard();
+      if (metacard != null && requestedIds.contains(metacard.getId())) {
+        metacards.putIfAbsent(metacard.getId(), metacard);
+      }
     }
-
-    return metacard;
+    return metacards;
   }
 
+  /** @return true if the product at the URL can be retrieved, see {@link #is_available} */
   public boolean isUrlValid(String urlStr) {
-    if (urlStr != null) {
-      try {
-        URL url = new URL(urlStr);
-        URLConnection urlConnection = url.openConnection();
-        urlConnection.connect();
+    return urlStr != null && availabilityChecker.isAvailable(urlStr);
+  }
 
-        int contentLength = urlConnection.getContentLength();
-        if (contentLength > 0) {
-          return true;
+  /**
+   * Check the availability of the products in the background, so that the clients that poll {@link
+   * #is_available} for them afterwards are answered from the cache.
+   */
+  private void prefetchAvailability(Product[] products) {
+    try {
+      List<String> urls = new ArrayList<>();
+      for (Metacard metacard : getMetacards(products)) {
+        Attribute downloadUrlAttr = metacard.getAttribute(Metacard.RESOURCE_DOWNLOAD_URL);
+        if (downloadUrlAttr != null && downloadUrlAttr.getValue() != null) {
+          urls.add(downloadUrlAttr.getValue().toString());
         }
-      } catch (IOException ignore) {
       }
+      availabilityChecker.prefetch(urls);
+    } catch (UnsupportedEncodingException | WrongAdapter | WrongPolicy e) {
+      LOGGER.debug("Unable to check the availability of the products", e);
     }
-
-    return false;
   }
 
   class QueryResultsCallable implements Callable<List<Result>> {
@@ -13,8 +13,9 @@
  */
 package org.codice.alliance.nsili.endpoint.managers;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.apache.commons.lang3.tuple.Pair;
 import org.codice.alliance.nsili.common.GIAS.Association;
 import org.codice.alliance.nsili.common.GIAS.AttributeInformation;
@@ -26,6 +27,7 @@ import org.codice.alliance.nsili.common.NsiliConstants;
 import org.codice.alliance.nsili.common.UCO.AbsTime;
 import org.codice.alliance.nsili.common.UCO.Date;
 import org.codice.alliance.nsili.common.UCO.EntityGraph;
+import org.codice.alliance.nsili.common.UCO.EntityNode;
 import org.codice.alliance.nsili.common.UCO.InvalidInputParameter;
 import org.codice.alliance.nsili.common.UCO.NameName;
 import org.codice.alliance.nsili.common.UCO.NameValue;
@@ -58,13 +60,55 @@ public class DataModelMgrImpl extends DataModelMgrPOA {
 
   private static final short MAX_VERTICES = 10;
 
-  private NsiliDataModel nsiliDataModel = new NsiliDataModel();
+  private static final AttributeInformation[] NO_ATTRIBUTES = new AttributeInformation[0];
+
+  private static final NameName[] NO_ALIASES = new NameName[0];
+
+  // The data model does not change, so the arrays returned to clients are built once and shared
+  private static final Map<String, AttributeInformation[]> VIEW_ATTRIBUTES = new HashMap<>();
+
+  private static final Map<String, AttributeInformation[]> ENTITY_ATTRIBUTES = new HashMap<>();
+
+  private static final Map<String, NameName[]> LOGICAL_ALIASES = new HashMap<>();
+
+  private static final String[] ALIAS_CATEGORIES;
+
+  private static final Association[] ASSOCIATIONS;
+
+  private NsiliDataModel nsiliDataModel = NsiliDataModel.getInstance();
 
   static {
     VIEWS = new View[VIEW_NAMES.length];
     for (int i = 0; i < VIEW_NAMES.length; i++) {
       VIEWS[i] = new View(VIEW_NAMES[i], true, new String[0]);
     }
+
+    NsiliDataModel dataModel = NsiliDataModel.getInstance();
+    for (String viewName : VIEW_NAMES) {
+      VIEW_ATTRIBUTES.put(viewName, dataModel.getAttributesForView(viewName).toArray(NO_ATTRIBUTES));
+      EntityGraph graph = dataModel.getEntityGraph(viewName);
+      if (graph != null) {
+        for (EntityNode node : graph.nodes) {
+          ENTITY_ATTRIBUTES.computeIfAbsent(
+              node.entity_name,
+              entity -> dataModel.getAttributeInformation(entity).toArray(NO_ATTRIBUTES));
+        }
+      }
+    }
+
+    List<String> aliasCategories = dataModel.getAliasCategories();
+    ALIAS_CATEGORIES = aliasCategories.toArray(new String[0]);
+    for (String category : aliasCategories) {
+      LOGICAL_ALIASES.put(
+          category,
+          dataModel
+              .getAliasesForCategory(category)
+              .stream()
+              .map(alias -> new NameName(alias.getLeft(), alias.getRight()))
+              .toArray(NameName[]::new));
+    }
+
+    ASSOCIATIONS = dataModel.getAssociations().toArray(new Association[0]);
   }
 
   @Override
@@ -77,23 +121,13 @@ public class DataModelMgrImpl extends DataModelMgrPOA {
   public String[] get_alias_categories(NameValue[] properties)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
 
-    return nsiliDataModel.getAliasCategories().toArray(new String[0]);
+    return ALIAS_CATEGORIES;
   }
 
   @Override
   public NameName[] get_logical_aliases(String category, NameValue[] properties)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
-    NameName[] logicalAliases = new NameName[0];
-    List<Pair<String, String>> aliases = nsiliDataModel.getAliasesForCategory(category);
-    if (aliases != null && !aliases.isEmpty()) {
-      logicalAliases =
-          aliases
-              .stream()
-              .map(alias -> new NameName(alias.getLeft(), alias.getRight()))
-              .collect(Collectors.toList())
-              .toArray(new NameName[0]);
-    }
-    return logicalAliases;
+    return LOGICAL_ALIASES.getOrDefault(category, NO_ALIASES);
   }
 
   @Override
@@ -123,15 +157,13 @@ public class DataModelMgrImpl extends DataModelMgrPOA {
   @Override
   public AttributeInformation[] get_attributes(String view_name, NameValue[] properties)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
-    AttributeInformation[] attributes =
-        nsiliDataModel.getAttributesForView(view_name).toArray(new AttributeInformation[0]);
-    return attributes;
+    return VIEW_ATTRIBUTES.getOrDefault(view_name, NO_ATTRIBUTES);
   }
 
   @Override
   public AttributeInformation[] get_queryable_attributes(String view_name, NameValue[] properties)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
-    return nsiliDataModel.getAttributesForView(view_name).toArray(new AttributeInformation[0]);
+    return VIEW_ATTRIBUTES.getOrDefault(view_name, NO_ATTRIBUTES);
   }
 
   @Override
@@ -143,13 +175,13 @@ public class DataModelMgrImpl extends DataModelMgrPOA {
   @Override
   public AttributeInformation[] get_entity_attributes(String aEntity, NameValue[] properties)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
-    return nsiliDataModel.getAttributeInformation(aEntity).toArray(new AttributeInformation[0]);
+    return ENTITY_ATTRIBUTES.getOrDefault(aEntity, NO_ATTRIBUTES);
   }
 
   @Override
   public Association[] get_associations(NameValue[] properties)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
-    return nsiliDataModel.getAssociations().toArray(new Association[0]);
+    return ASSOCIATIONS;
   }
 
   @Override
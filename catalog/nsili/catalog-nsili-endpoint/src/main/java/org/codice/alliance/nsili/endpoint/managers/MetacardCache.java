@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.operation.CreateResponse;
+import ddf.catalog.operation.DeleteResponse;
+import ddf.catalog.operation.Update;
+import ddf.catalog.operation.UpdateResponse;
+import ddf.catalog.plugin.PostIngestPlugin;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the metacards that NSILI product references resolve to for a short time, so that the
+ * products of an order or related files request are resolved with a few batched queries instead of
+ * one query per product, and repeated requests for the same products do not query the catalog
+ * again. Metacards that are updated or deleted in the local catalog are removed from the cache as
+ * the catalog reports them. Changes to remote sources are only seen once the cached metacard
+ * expires.
+ *
+ * <p>The cache is shared by every {@link AccessManagerImpl}, since a new one is created for each
+ * manager.
+ */
+public class MetacardCache implements PostIngestPlugin, MetacardCacheMBean {
+
+  public static final int DEFAULT_TIME_TO_LIVE_SEC = 30;
+
+  public static final int DEFAULT_BATCH_SIZE = 100;
+
+  private static final int MAX_BATCH_SIZE = 1000;
+
+  private static final long MAXIMUM_SIZE = 10_000;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MetacardCache.class);
+
+  private static final MetacardCache INSTANCE = new MetacardCache();
+
+  private volatile Cache<String, Metacard> cache = createCache(DEFAULT_TIME_TO_LIVE_SEC);
+
+  private volatile int batchSize = DEFAULT_BATCH_SIZE;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final LongAdder queryCount = new LongAdder();
+
+  private final LongAdder invalidationCount = new LongAdder();
+
+  private ObjectName objectName;
+
+  private MBeanServer mBeanServer;
+
+  MetacardCache() {}
+
+  public static MetacardCache getInstance() {
+    return INSTANCE;
+  }
+
+  public void init() {
+    registerMbean();
+  }
+
+  public void destroy() {
+    try {
+      if (objectName != null && mBeanServer != null) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      LOGGER.info("Exception unregistering MBean: ", e);
+    }
+    cache.invalidateAll();
+  }
+
+  /**
+   * @param timeToLiveSec how long a metacard is cached after it was queried, 0 to disable the
+   *     cache
+   */
+  public void setTimeToLiveSec(int timeToLiveSec) {
+    inclusiveBetween(0, Integer.MAX_VALUE, timeToLiveSec, "timeToLiveSec must not be negative");
+    cache = createCache(timeToLiveSec);
+  }
+
+  /** @param batchSize the number of product ids queried at once, 1 to 1000 */
+  public void setBatchSize(int batchSize) {
+    inclusiveBetween(
+        1, MAX_BATCH_SIZE, batchSize, "batchSize must be between 1 and " + MAX_BATCH_SIZE);
+    this.batchSize = batchSize;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /** @return the cached metacards of the ids, which omits the ids that are not cached */
+  public Map<String, Metacard> getAll(Collection<String> ids) {
+    Map<String, Metacard> metacards = cache.getAllPresent(ids);
+    hitCount.add(metacards.size());
+    missCount.add(ids.size() - metacards.size());
+    return metacards;
+  }
+
+  /** @param metacards the queried metacards keyed by the id they were queried with */
+  public void putAll(Map<String, Metacard> metacards) {
+    cache.putAll(metacards);
+  }
+
+  void recordQuery() {
+    queryCount.increment();
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public CreateResponse process(CreateResponse input) {
+    return input;
+  }
+
+  @Override
+  public UpdateResponse process(UpdateResponse input) {
+    List<Update> updates = input.getUpdatedMetacards();
+    if (updates != null) {
+      List<String> ids = new ArrayList<>(updates.size());
+      for (Update update : updates) {
+        if (update.getOldMetacard() != null) {
+          ids.add(update.getOldMetacard().getId());
+        }
+        if (update.getNewMetacard() != null) {
+          ids.add(update.getNewMetacard().getId());
+        }
+      }
+      invalidate(ids);
+    }
+    return input;
+  }
+
+  @Override
+  public DeleteResponse process(DeleteResponse input) {
+    List<Metacard> deletedMetacards = input.getDeletedMetacards();
+    if (deletedMetacards != null) {
+      List<String> ids = new ArrayList<>(deletedMetacards.size());
+      for (Metacard metacard : deletedMetacards) {
+        ids.add(metacard.getId());
+      }
+      invalidate(ids);
+    }
+    return input;
+  }
+
+  @Override
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  @Override
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  @Override
+  public double getHitRate() {
+    long hits = getHitCount();
+    long requests = hits + getMissCount();
+    return requests == 0 ? 0 : hits / (double) requests;
+  }
+
+  @Override
+  public long getQueryCount() {
+    return queryCount.sum();
+  }
+
+  @Override
+  public long getSize() {
+    return cache.size();
+  }
+
+  @Override
+  public long getInvalidationCount() {
+    return invalidationCount.sum();
+  }
+
+  private void invalidate(List<String> ids) {
+    ids.removeIf(id -> id == null);
+    if (!ids.isEmpty()) {
+      cache.invalidateAll(ids);
+      invalidationCount.add(ids.size());
+      LOGGER.trace("Removed updated or deleted metacards from the cache: {}", ids);
+    }
+  }
+
+  private static Cache<String, Metacard> createCache(int timeToLiveSec) {
+    return CacheBuilder.newBuilder()
+        .maximumSize(timeToLiveSec == 0 ? 0 : MAXIMUM_SIZE)
+        .expireAfterWrite(timeToLiveSec, TimeUnit.SECONDS)
+        .build();
+  }
+
+  private void registerMbean() {
+    try {
+      objectName = new ObjectName(MetacardCache.class.getName() + ":service=nsili-metacard-cache");
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    } catch (MalformedObjectNameException e) {
+      LOGGER.info("Unable to create NSILI Metacard Cache MBean.", e);
+    }
+    if (mBeanServer == null) {
+      return;
+    }
+    try {
+      try {
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Registered NSILI Metacard Cache MBean under object name: {}", objectName);
+      } catch (InstanceAlreadyExistsException e) {
+        mBeanServer.unregisterMBean(objectName);
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Re-registered NSILI Metacard Cache MBean", e);
+      }
+    } catch (MBeanRegistrationException
+        | InstanceNotFoundException
+        | InstanceAlreadyExistsException
+        | NotCompliantMBeanException e) {
+      LOGGER.info("Could not register MBean [{}].", objectName, e);
+    }
+  }
+}
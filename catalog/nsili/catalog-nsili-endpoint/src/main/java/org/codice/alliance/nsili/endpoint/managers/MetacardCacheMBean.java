@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+/** Reports how well the metacards of NSILI product references are cached. */
+public interface MetacardCacheMBean {
+
+  /** @return the number of product ids that were answered from the cache */
+  long getHitCount();
+
+  /** @return the number of product ids that had to be queried */
+  long getMissCount();
+
+  /** @return the fraction of product ids that were answered from the cache */
+  double getHitRate();
+
+  /** @return the number of catalog queries issued to resolve product ids */
+  long getQueryCount();
+
+  /** @return the number of metacards in the cache */
+  long getSize();
+
+  /** @return the number of metacards removed because they were updated or deleted */
+  long getInvalidationCount();
+}
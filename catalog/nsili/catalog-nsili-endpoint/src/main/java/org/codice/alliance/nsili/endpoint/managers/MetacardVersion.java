@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import ddf.catalog.data.Attribute;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.types.Core;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Identifies one version of a metacard by its id, source and modified dates, so that values derived
+ * from a metacard can be cached until the metacard is updated.
+ */
+public final class MetacardVersion {
+
+  private final String id;
+
+  private final String sourceId;
+
+  private final long modified;
+
+  private final long metacardModified;
+
+  private final int hashCode;
+
+  private MetacardVersion(String id, String sourceId, long modified, long metacardModified) {
+    this.id = id;
+    this.sourceId = sourceId;
+    this.modified = modified;
+    this.metacardModified = metacardModified;
+    this.hashCode = Objects.hash(id, sourceId, modified, metacardModified);
+  }
+
+  /**
+   * @return the version of the metacard, or null if the metacard has no id or no modified date, in
+   *     which case a change to it could not be detected
+   */
+  public static MetacardVersion of(Metacard metacard) {
+    if (metacard == null || metacard.getId() == null) {
+      return null;
+    }
+
+    Date modified = metacard.getModifiedDate();
+    Date metacardModified = getDate(metacard.getAttribute(Core.METACARD_MODIFIED));
+    if (modified == null && metacardModified == null) {
+      return null;
+    }
+
+    return new MetacardVersion(
+        metacard.getId(),
+        metacard.getSourceId(),
+        modified == null ? 0 : modified.getTime(),
+        metacardModified == null ? 0 : metacardModified.getTime());
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof MetacardVersion)) {
+      return false;
+    }
+    MetacardVersion that = (MetacardVersion) o;
+    return modified == that.modified
+        && metacardModified == that.metacardModified
+        && id.equals(that.id)
+        && Objects.equals(sourceId, that.sourceId);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return id + "/" + sourceId + "/" + modified + "/" + metacardModified;
+  }
+
+  private static Date getDate(Attribute attribute) {
+    if (attribute != null && attribute.getValue() instanceof Date) {
+      return (Date) attribute.getValue();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks whether product download URLs can be retrieved, without downloading them. HTTP(S) URLs are
+ * checked with a HEAD request over a shared pool of connections, falling back to a GET whose body
+ * is not read when the server does not support HEAD. {@code file:} URLs are checked on the local
+ * file system. The result for each URL is cached for a short time, so clients polling the
+ * availability of many products do not cause a request per poll. A product that is not available is
+ * checked again sooner than one that is, so that it is reported soon after it becomes available.
+ */
+class ProductAvailabilityChecker {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProductAvailabilityChecker.class);
+
+  private static final long TIME_TO_LIVE_SEC = 30;
+
+  private static final long UNAVAILABLE_TIME_TO_LIVE_SEC = 5;
+
+  private static final long MAXIMUM_SIZE = 10_000;
+
+  private static final int CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(5);
+
+  private static final int SOCKET_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+
+  private static final int MAX_CONNECTIONS = 20;
+
+  private static final int PARALLELISM = 8;
+
+  private static final int PREFETCH_QUEUE_SIZE = 1000;
+
+  private static final String FILE_SCHEME = "file";
+
+  private static final String HTTP_SCHEME = "http";
+
+  private static final String HTTPS_SCHEME = "https";
+
+  private static final ProductAvailabilityChecker INSTANCE = new ProductAvailabilityChecker();
+
+  private final Cache<String, Availability> availability =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAXIMUM_SIZE)
+          .expireAfterWrite(TIME_TO_LIVE_SEC, TimeUnit.SECONDS)
+          .build();
+
+  private final CloseableHttpClient httpClient;
+
+  private final ThreadPoolExecutor executor;
+
+  private final long unavailableTimeToLiveNanos;
+
+  ProductAvailabilityChecker() {
+    this(TimeUnit.SECONDS.toMillis(UNAVAILABLE_TIME_TO_LIVE_SEC), PREFETCH_QUEUE_SIZE);
+  }
+
+  /**
+   * @param unavailableTimeToLiveMillis how long a result that the URL is not available is cached
+   * @param prefetchQueueSize the number of URLs waiting to be prefetched, further URLs are dropped
+   */
+  ProductAvailabilityChecker(long unavailableTimeToLiveMillis, int prefetchQueueSize) {
+    unavailableTimeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(unavailableTimeToLiveMillis);
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(MAX_CONNECTIONS);
+    connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+
+    httpClient =
+        HttpClients.custom()
+            .useSystemProperties()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+                    .setConnectionRequestTimeout(SOCKET_TIMEOUT_MILLIS)
+                    .setSocketTimeout(SOCKET_TIMEOUT_MILLIS)
+                    .build())
+            .build();
+
+    executor =
+        new ThreadPoolExecutor(
+            PARALLELISM,
+            PARALLELISM,
+            1,
+            TimeUnit.MINUTES,
+            new ArrayBlockingQueue<>(prefetchQueueSize),
+            new BasicThreadFactory.Builder()
+                .namingPattern("nsili-availability-%d")
+                .daemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  static ProductAvailabilityChecker getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return true if the URL can be retrieved and is not empty. Concurrent checks of the same URL
+   *     wait for a single request.
+   */
+  boolean isAvailable(String url) {
+    try {
+      Availability result = availability.getIfPresent(url);
+      if (result == null || result.isExpired()) {
+        if (result != null) {
+          availability.asMap().remove(url, result);
+        }
+        result = availability.get(url, () -> new Availability(check(url)));
+      }
+      return result.available;
+    } catch (ExecutionException e) {
+      LOGGER.debug("Unable to check the availability of {}", url, e);
+      return false;
+    }
+  }
+
+  /**
+   * Check the URLs that are not cached in the background, at most {@value #PARALLELISM} at a time,
+   * so that later calls to {@link #isAvailable(String)} are answered from the cache. When too many
+   * URLs are waiting to be checked, the remaining URLs are dropped and checked when they are asked
+   * for.
+   *
+   * @return the number of URLs that were dropped
+   */
+  int prefetch(Collection<String> urls) {
+    int dropped = 0;
+    for (String url : new LinkedHashSet<>(urls)) {
+      if (url != null && availability.getIfPresent(url) == null) {
+        if (dropped > 0) {
+          dropped++;
+          continue;
+        }
+        try {
+          executor.execute(() -> isAvailable(url));
+        } catch (RejectedExecutionException e) {
+          dropped++;
+        }
+      }
+    }
+    if (dropped > 0) {
+      LOGGER.debug("The availability check queue is full, not prefetching {} URLs", dropped);
+    }
+    return dropped;
+  }
+
+  private boolean check(String url) {
+    URI uri;
+    try {
+      uri = new URI(url);
+    } catch (URISyntaxException e) {
+      LOGGER.debug("Invalid product URL: {}", url, e);
+      return false;
+    }
+
+    String scheme = uri.getScheme();
+    try {
+      if (FILE_SCHEME.equalsIgnoreCase(scheme)) {
+        return checkFile(uri);
+      } else if (HTTP_SCHEME.equalsIgnoreCase(scheme) || HTTPS_SCHEME.equalsIgnoreCase(scheme)) {
+        return checkHttp(uri);
+      }
+      return checkConnection(uri);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("Product URL is not available: {}", url, e);
+      return false;
+    }
+  }
+
+  private boolean checkFile(URI uri) throws IOException {
+    Path path = Paths.get(uri);
+    return Files.isRegularFile(path) && Files.size(path) > 0;
+  }
+
+  private boolean checkHttp(URI uri) throws IOException {
+    try (CloseableHttpResponse response = httpClient.execute(new HttpHead(uri))) {
+      int status = response.getStatusLine().getStatusCode();
+      if (status != HttpStatus.SC_METHOD_NOT_ALLOWED && status != HttpStatus.SC_NOT_IMPLEMENTED) {
+        return isAvailable(response);
+      }
+    }
+
+    // Closing the response without reading the body discards the connection instead of
+    // downloading the product.
+    try (CloseableHttpResponse response = httpClient.execute(new HttpGet(uri))) {
+      return isAvailable(response);
+    }
+  }
+
+  /** Check a URL of any other scheme by connecting to it, as was done for every URL. */
+  private boolean checkConnection(URI uri) throws IOException {
+    URLConnection urlConnection = uri.toURL().openConnection();
+    urlConnection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+    urlConnection.setReadTimeout(SOCKET_TIMEOUT_MILLIS);
+    urlConnection.connect();
+    return urlConnection.getContentLengthLong() > 0;
+  }
+
+  private static boolean isAvailable(HttpResponse response) {
+    int status = response.getStatusLine().getStatusCode();
+    if (status < HttpStatus.SC_OK || status >= HttpStatus.SC_MULTIPLE_CHOICES) {
+      return false;
+    }
+    Header contentLength = response.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+    return contentLength == null || !"0".equals(contentLength.getValue().trim());
+  }
+
+  /** The result of a check, which expires sooner if the URL is not available. */
+  private class Availability {
+
+    private final boolean available;
+
+    private final long checkedNanos = System.nanoTime();
+
+    private Availability(boolean available) {
+      this.available = available;
+    }
+
+    private boolean isExpired() {
+      return !available && System.nanoTime() - checkedNanos >= unavailableTimeToLiveNanos;
+    }
+  }
+}
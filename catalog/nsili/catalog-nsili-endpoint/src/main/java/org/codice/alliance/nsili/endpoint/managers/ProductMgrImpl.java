@@ -18,7 +18,6 @@ import ddf.catalog.data.Metacard;
 import ddf.catalog.filter.FilterBuilder;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -74,6 +73,8 @@ public class ProductMgrImpl extends ProductMgrPOA {
 
   private boolean outgoingValidationEnabled;
 
+  private RelatedFilesResources relatedFilesResources;
+
   public ProductMgrImpl(Set<String> querySources) {
     if (querySources != null) {
       this.querySources = new HashSet<>(querySources);
@@ -92,6 +93,10 @@ public class ProductMgrImpl extends ProductMgrPOA {
     this.outgoingValidationEnabled = outgoingValidationEnabled;
   }
 
+  public void setRelatedFilesResources(RelatedFilesResources relatedFilesResources) {
+    this.relatedFilesResources = relatedFilesResources;
+  }
+
   @Override
   public GetParametersRequest get_parameters(
       Product prod, String[] desired_parameters, NameValue[] properties)
@@ -151,18 +156,11 @@ public class ProductMgrImpl extends ProductMgrPOA {
     String id = UUID.randomUUID().toString();
 
     try {
-      List<Metacard> metacards = new ArrayList<>();
-      AccessManagerImpl accessMgr = getAccessManager();
-      for (Product product : products) {
-        Metacard metacard = accessMgr.getMetacard(accessMgr.getProductId(product));
-        if (metacard != null) {
-          metacards.add(metacard);
-        }
-      }
+      List<Metacard> metacards = getAccessManager().getMetacards(products);
 
       Integer port = getPort(properties);
       GetRelatedFilesRequestImpl getRelatedFilesRequest =
-          new GetRelatedFilesRequestImpl(metacards, location, type, port);
+          new GetRelatedFilesRequestImpl(metacards, location, type, port, relatedFilesResources);
       _poa()
           .activate_object_with_id(
               id.getBytes(Charset.forName(NsiliEndpoint.ENCODING)), getRelatedFilesRequest);
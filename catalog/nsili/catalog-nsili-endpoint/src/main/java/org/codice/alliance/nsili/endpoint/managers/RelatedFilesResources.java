@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The threads and HTTP connections that related files are stored with. They are shared by every
+ * related files request, so that connections to the same host are reused, and are released when the
+ * endpoint is destroyed.
+ */
+public class RelatedFilesResources {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RelatedFilesResources.class);
+
+  private static final int PARALLELISM = 8;
+
+  private static final int CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(10);
+
+  private static final int SOCKET_TIMEOUT_MILLIS = (int) TimeUnit.SECONDS.toMillis(60);
+
+  private final CloseableHttpClient httpClient = createHttpClient();
+
+  private final ExecutorService executor = createExecutor();
+
+  public HttpClient getHttpClient() {
+    return httpClient;
+  }
+
+  /** @return the executor that stores the related files, at most {@value #PARALLELISM} at a time */
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  public void destroy() {
+    executor.shutdownNow();
+    try {
+      httpClient.close();
+    } catch (IOException e) {
+      LOGGER.debug("Unable to close the related files HTTP client", e);
+    }
+  }
+
+  private static CloseableHttpClient createHttpClient() {
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(PARALLELISM * 2);
+    connectionManager.setDefaultMaxPerRoute(PARALLELISM);
+
+    return HttpClientBuilder.create()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(
+            RequestConfig.custom()
+                .setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+                .setSocketTimeout(SOCKET_TIMEOUT_MILLIS)
+                .build())
+        .build();
+  }
+
+  private static ExecutorService createExecutor() {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            PARALLELISM,
+            PARALLELISM,
+            1,
+            TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(),
+            new BasicThreadFactory.Builder()
+                .namingPattern("nsili-related-files-%d")
+                .daemon(true)
+                .build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
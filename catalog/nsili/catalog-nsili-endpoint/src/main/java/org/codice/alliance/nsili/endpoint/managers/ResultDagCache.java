@@ -0,0 +1,374 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.Result;
+import ddf.catalog.operation.CreateResponse;
+import ddf.catalog.operation.DeleteResponse;
+import ddf.catalog.operation.Update;
+import ddf.catalog.operation.UpdateResponse;
+import ddf.catalog.plugin.PostIngestPlugin;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.codice.alliance.nsili.common.DagParsingException;
+import org.codice.alliance.nsili.common.ResultAttributeProjection;
+import org.codice.alliance.nsili.common.ResultDAGConverter;
+import org.codice.alliance.nsili.common.UCO.DAG;
+import org.omg.CORBA.ORB;
+import org.omg.PortableServer.POA;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the DAGs that query results are converted to, so that standing queries, paged clients and
+ * repeated searches return the DAG of an unchanged metacard without building its nodes again.
+ *
+ * <p>A DAG is keyed by the POA its product was activated on, the {@link MetacardVersion} of its
+ * metacard and the {@link ResultAttributeProjection} of the query. Results without a modified date
+ * are not cached, since a change to them could not be detected. The cache is bounded by the total
+ * number of DAG nodes it holds. Metacards that are updated or deleted in the local catalog are
+ * removed from the cache as the catalog reports them, using an index of the cached keys by metacard
+ * id so that an update does not scan the whole cache.
+ *
+ * <p>Cached DAGs are shared between requests and must not be modified.
+ */
+public class ResultDagCache implements PostIngestPlugin, ResultDagCacheMBean {
+
+  public static final int DEFAULT_TIME_TO_LIVE_SEC = 300;
+
+  public static final long DEFAULT_MAX_NODES = 250_000;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ResultDagCache.class);
+
+  private static final ResultDagCache INSTANCE = new ResultDagCache();
+
+  private volatile DagCache cache = new DagCache(DEFAULT_TIME_TO_LIVE_SEC, DEFAULT_MAX_NODES);
+
+  private int timeToLiveSec = DEFAULT_TIME_TO_LIVE_SEC;
+
+  private long maxNodes = DEFAULT_MAX_NODES;
+
+  private final LongAdder invalidationCount = new LongAdder();
+
+  private ObjectName objectName;
+
+  private MBeanServer mBeanServer;
+
+  ResultDagCache() {}
+
+  public static ResultDagCache getInstance() {
+    return INSTANCE;
+  }
+
+  public void init() {
+    registerMbean();
+  }
+
+  public void destroy() {
+    try {
+      if (objectName != null && mBeanServer != null) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      LOGGER.info("Exception unregistering MBean: ", e);
+    }
+    invalidateAll();
+  }
+
+  /**
+   * @param timeToLiveSec how long a converted DAG is cached after it was built, 0 to disable the
+   *     cache
+   */
+  public synchronized void setTimeToLiveSec(int timeToLiveSec) {
+    inclusiveBetween(0, Integer.MAX_VALUE, timeToLiveSec, "timeToLiveSec must not be negative");
+    this.timeToLiveSec = timeToLiveSec;
+    cache = new DagCache(timeToLiveSec, maxNodes);
+  }
+
+  /** @param maxNodes the total number of DAG nodes the cache holds, 0 to disable the cache */
+  public synchronized void setMaxNodes(long maxNodes) {
+    inclusiveBetween(0, Long.MAX_VALUE, maxNodes, "maxNodes must not be negative");
+    this.maxNodes = maxNodes;
+    cache = new DagCache(timeToLiveSec, maxNodes);
+  }
+
+  /**
+   * Returns the cached DAG of the result, converting and caching it if it is not cached.
+   *
+   * @see ResultDAGConverter#convertResult(Result, ORB, POA, ResultAttributeProjection)
+   */
+  public DAG convertResult(Result result, ORB orb, POA poa, ResultAttributeProjection projection)
+      throws DagParsingException {
+    Key key = createKey(result.getMetacard(), poa, projection);
+    if (key == null) {
+      return ResultDAGConverter.convertResult(result, orb, poa, projection);
+    }
+
+    DagCache currentCache = cache;
+    DAG dag = currentCache.dags.getIfPresent(key);
+    if (dag == null) {
+      dag = ResultDAGConverter.convertResult(result, orb, poa, projection);
+      currentCache.put(key, dag);
+    }
+    return dag;
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public CreateResponse process(CreateResponse input) {
+    return input;
+  }
+
+  @Override
+  public UpdateResponse process(UpdateResponse input) {
+    List<Update> updates = input.getUpdatedMetacards();
+    if (updates != null) {
+      Set<String> ids = new HashSet<>();
+      for (Update update : updates) {
+        if (update.getOldMetacard() != null) {
+          ids.add(update.getOldMetacard().getId());
+        }
+        if (update.getNewMetacard() != null) {
+          ids.add(update.getNewMetacard().getId());
+        }
+      }
+      invalidate(ids);
+    }
+    return input;
+  }
+
+  @Override
+  public DeleteResponse process(DeleteResponse input) {
+    List<Metacard> deletedMetacards = input.getDeletedMetacards();
+    if (deletedMetacards != null) {
+      Set<String> ids = new HashSet<>();
+      for (Metacard metacard : deletedMetacards) {
+        ids.add(metacard.getId());
+      }
+      invalidate(ids);
+    }
+    return input;
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache.dags.stats().hitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.dags.stats().missCount();
+  }
+
+  @Override
+  public double getHitRate() {
+    CacheStats stats = cache.dags.stats();
+    return stats.requestCount() == 0 ? 0 : stats.hitRate();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.dags.stats().evictionCount();
+  }
+
+  @Override
+  public long getInvalidationCount() {
+    return invalidationCount.sum();
+  }
+
+  @Override
+  public long getSize() {
+    return cache.dags.size();
+  }
+
+  private void invalidate(Set<String> ids) {
+    ids.remove(null);
+    if (!ids.isEmpty()) {
+      invalidationCount.add(cache.invalidate(ids));
+      LOGGER.trace("Removed DAGs of updated or deleted metacards from the cache: {}", ids);
+    }
+  }
+
+  private static Key createKey(Metacard metacard, POA poa, ResultAttributeProjection projection) {
+    MetacardVersion version = MetacardVersion.of(metacard);
+    return version == null ? null : new Key(poa, version, projection);
+  }
+
+  private static int getNodeCount(DAG dag) {
+    int nodes = dag.nodes == null ? 0 : dag.nodes.length;
+    int edges = dag.edges == null ? 0 : dag.edges.length;
+    return Math.max(1, nodes + edges);
+  }
+
+  private void registerMbean() {
+    try {
+      objectName =
+          new ObjectName(ResultDagCache.class.getName() + ":service=nsili-result-dag-cache");
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    } catch (MalformedObjectNameException e) {
+      LOGGER.info("Unable to create NSILI Result DAG Cache MBean.", e);
+    }
+    if (mBeanServer == null) {
+      return;
+    }
+    try {
+      try {
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Registered NSILI Result DAG Cache MBean under object name: {}", objectName);
+      } catch (InstanceAlreadyExistsException e) {
+        mBeanServer.unregisterMBean(objectName);
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Re-registered NSILI Result DAG Cache MBean", e);
+      }
+    } catch (MBeanRegistrationException
+        | InstanceNotFoundException
+        | InstanceAlreadyExistsException
+        | NotCompliantMBeanException e) {
+      LOGGER.info("Could not register MBean [{}].", objectName, e);
+    }
+  }
+
+  /**
+   * The cached DAGs together with their keys indexed by metacard id. Each instance has its own
+   * index, so replacing the cache when it is reconfigured also drops the index of the old one.
+   */
+  private static final class DagCache {
+
+    private final ConcurrentMap<String, Set<Key>> keysById = new ConcurrentHashMap<>();
+
+    private final Cache<Key, DAG> dags;
+
+    DagCache(int timeToLiveSec, long maxNodes) {
+      dags =
+          CacheBuilder.newBuilder()
+              .maximumWeight(timeToLiveSec == 0 ? 0 : maxNodes)
+              .weigher((Key key, DAG dag) -> getNodeCount(dag))
+              .expireAfterWrite(timeToLiveSec, TimeUnit.SECONDS)
+              .removalListener(this::onRemoval)
+              .recordStats()
+              .build();
+    }
+
+    void put(Key key, DAG dag) {
+      keysById.compute(
+          key.getId(),
+          (id, keys) -> {
+            Set<Key> indexedKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            indexedKeys.add(key);
+            return indexedKeys;
+          });
+      dags.put(key, dag);
+    }
+
+    /** @return the number of DAGs that were removed */
+    long invalidate(Set<String> ids) {
+      long removed = 0;
+      for (String id : ids) {
+        Set<Key> keys = keysById.remove(id);
+        if (keys != null) {
+          for (Key key : keys) {
+            if (dags.asMap().remove(key) != null) {
+              removed++;
+            }
+          }
+        }
+      }
+      return removed;
+    }
+
+    void invalidateAll() {
+      dags.invalidateAll();
+      keysById.clear();
+    }
+
+    /**
+     * Drops evicted and expired keys from the index. Explicit removals have already been dropped
+     * from the index by {@link #invalidate(Set)} or {@link #invalidateAll()}.
+     */
+    private void onRemoval(RemovalNotification<Key, DAG> notification) {
+      Key key = notification.getKey();
+      if (notification.wasEvicted() && key != null) {
+        keysById.computeIfPresent(
+            key.getId(),
+            (id, keys) -> {
+              keys.remove(key);
+              return keys.isEmpty() ? null : keys;
+            });
+      }
+    }
+  }
+
+  private static final class Key {
+
+    private final POA poa;
+
+    private final MetacardVersion version;
+
+    private final ResultAttributeProjection projection;
+
+    private final int hashCode;
+
+    Key(POA poa, MetacardVersion version, ResultAttributeProjection projection) {
+      this.poa = poa;
+      this.version = version;
+      this.projection = projection;
+      this.hashCode = Objects.hash(System.identityHashCode(poa), version, projection);
+    }
+
+    String getId() {
+      return version.getId();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return poa == that.poa && version.equals(that.version) && projection.equals(that.projection);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+/** Reports how well converted NSILI result DAGs are cached. */
+public interface ResultDagCacheMBean {
+
+  /** @return the number of results whose DAG was answered from the cache */
+  long getHitCount();
+
+  /** @return the number of results that had to be converted */
+  long getMissCount();
+
+  /** @return the fraction of results whose DAG was answered from the cache */
+  double getHitRate();
+
+  /** @return the number of DAGs evicted because they expired or the cache was full */
+  long getEvictionCount();
+
+  /** @return the number of DAGs removed because their metacard was updated or deleted */
+  long getInvalidationCount();
+
+  /** @return the number of DAGs in the cache */
+  long getSize();
+}
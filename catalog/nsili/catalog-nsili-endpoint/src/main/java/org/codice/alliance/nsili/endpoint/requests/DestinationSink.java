@@ -17,20 +17,24 @@ import ddf.catalog.data.Metacard;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface DestinationSink {
 
   /**
-   * Write a data stream to a destination.
+   * Write a data stream to a destination. The data is read before this method returns, but the
+   * destination may accept it later.
    *
    * @param fileData the data to write
    * @param size the number of bytes to be written
    * @param name the name of the file to be written
    * @param contentType the content type of the file to be written
    * @param metacards the metacards associated with the fileData
+   * @return a future that completes once the destination has accepted the file, or completes
+   *     exceptionally with an {@link IOException} if it was not accepted
    * @throws IOException exception indicating that data could not be written
    */
-  void writeFile(
+  CompletableFuture<Void> writeFile(
       InputStream fileData, long size, String name, String contentType, List<Metacard> metacards)
       throws IOException;
 }
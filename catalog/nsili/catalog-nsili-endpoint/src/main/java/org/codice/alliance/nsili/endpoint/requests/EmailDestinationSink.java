@@ -18,11 +18,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.codice.alliance.nsili.endpoint.managers.EmailConfiguration;
 
-/** Send data as an email attachment. */
+/**
+ * Send data as an email attachment. The email is queued for delivery and the returned future
+ * completes once the mail server has accepted it, so the caller is never blocked on the delivery.
+ */
 public class EmailDestinationSink implements DestinationSink {
 
   private static final String METACARD_IDS = "%metacard.ids%";
@@ -39,17 +44,36 @@ public class EmailDestinationSink implements DestinationSink {
   }
 
   @Override
-  public void writeFile(
+  public CompletableFuture<Void> writeFile(
       InputStream fileData, long size, String name, String contentType, List<Metacard> metacards)
       throws IOException {
-    emailConfiguration
-        .getEmailSender()
-        .sendEmail(
-            emailConfiguration.getFromEmail(),
-            emailDest,
-            emailConfiguration.getSubject(),
-            replaceTitles(replaceIds(emailConfiguration.getBody(), metacards), metacards),
-            Collections.singletonList(new ImmutablePair<>(name, fileData)));
+    CompletableFuture<Void> delivery =
+        emailConfiguration
+            .getEmailSender()
+            .sendEmailAsync(
+                emailConfiguration.getFromEmail(),
+                emailDest,
+                emailConfiguration.getSubject(),
+                replaceTitles(replaceIds(emailConfiguration.getBody(), metacards), metacards),
+                Collections.singletonList(new ImmutablePair<>(name, fileData)));
+
+    CompletableFuture<Void> accepted = new CompletableFuture<>();
+    delivery.whenComplete(
+        (result, throwable) -> {
+          if (throwable == null) {
+            accepted.complete(null);
+          } else {
+            accepted.completeExceptionally(
+                new IOException("unable to email " + name + " to " + emailDest, unwrap(throwable)));
+          }
+        });
+    return accepted;
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null
+        ? throwable.getCause()
+        : throwable;
   }
 
   private String replaceIds(String bodyTemplate, List<Metacard> metacards) {
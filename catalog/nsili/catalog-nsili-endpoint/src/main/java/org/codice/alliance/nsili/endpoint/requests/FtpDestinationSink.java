@@ -17,6 +17,7 @@ import ddf.catalog.data.Metacard;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpEntity;
 import org.apache.http.auth.AuthScope;
@@ -51,7 +52,7 @@ public class FtpDestinationSink implements DestinationSink {
   }
 
   @Override
-  public void writeFile(
+  public CompletableFuture<Void> writeFile(
       InputStream fileData, long size, String name, String contentType, List<Metacard> metacards)
       throws IOException {
     CloseableHttpClient httpClient = null;
@@ -92,5 +93,6 @@ public class FtpDestinationSink implements DestinationSink {
         httpClient.close();
       }
     }
+    return CompletableFuture.completedFuture(null);
   }
 }
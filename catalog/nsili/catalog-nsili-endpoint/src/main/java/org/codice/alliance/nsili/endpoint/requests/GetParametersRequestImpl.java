@@ -103,8 +103,8 @@ public class GetParametersRequestImpl extends GetParametersRequestPOA {
     Map<String, List<String>> mandatoryAttributes = new HashMap<>();
 
     if (outgoingValidationEnabled) {
-      NsiliDataModel nsiliDataModel = new NsiliDataModel();
-      mandatoryAttributes = nsiliDataModel.getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW);
+      mandatoryAttributes =
+          NsiliDataModel.getInstance().getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW);
     }
     try {
       if (desiredParameters != null) {
@@ -13,10 +13,15 @@
  */
 package org.codice.alliance.nsili.endpoint.requests;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import ddf.catalog.data.Metacard;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
@@ -25,8 +30,8 @@ import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.entity.ByteArrayEntity;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 import org.apache.tika.config.TikaConfig;
 import org.apache.tika.detect.DefaultDetector;
 import org.apache.tika.detect.Detector;
@@ -49,7 +54,9 @@ import org.codice.alliance.nsili.common.UCO.RequestDescription;
 import org.codice.alliance.nsili.common.UCO.State;
 import org.codice.alliance.nsili.common.UCO.Status;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
+import org.codice.alliance.nsili.endpoint.managers.MetacardVersion;
 import org.codice.alliance.nsili.endpoint.managers.ProductMgrImpl;
+import org.codice.alliance.nsili.endpoint.managers.RelatedFilesResources;
 import org.omg.CORBA.NO_IMPLEMENT;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +66,18 @@ public class GetRelatedFilesRequestImpl extends GetRelatedFilesRequestPOA {
 
   private static final Detector DETECTOR = new DefaultDetector(MimeTypes.getDefaultMimeTypes());
 
+  private static final MimeTypes MIME_REPOSITORY =
+      TikaConfig.getDefaultConfig().getMimeRepository();
+
+  private static final long MAXIMUM_CACHED_MIME_TYPES = 10_000;
+
+  /**
+   * The detected MIME type of each thumbnail, keyed by the version of its metacard, so that the
+   * thumbnail of an updated metacard is detected again.
+   */
+  private static final Cache<MetacardVersion, ThumbnailType> THUMBNAIL_TYPES =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_MIME_TYPES).build();
+
   private static final org.slf4j.Logger LOGGER =
       LoggerFactory.getLogger(GetRelatedFilesRequestImpl.class);
 
@@ -72,10 +91,16 @@ public class GetRelatedFilesRequestImpl extends GetRelatedFilesRequestPOA {
 
   private HttpClient httpClient;
 
+  private final ExecutorService executor;
+
   public GetRelatedFilesRequestImpl(
-      List<Metacard> metacards, FileLocation location, String type, Integer port) {
-    HttpClientBuilder clientBuilder = HttpClientBuilder.create();
-    httpClient = clientBuilder.build();
+      List<Metacard> metacards,
+      FileLocation location,
+      String type,
+      Integer port,
+      RelatedFilesResources relatedFilesResources) {
+    httpClient = relatedFilesResources.getHttpClient();
+    executor = relatedFilesResources.getExecutor();
 
     setMetacards(metacards);
     setFileLocation(location);
@@ -99,14 +124,22 @@ public class GetRelatedFilesRequestImpl extends GetRelatedFilesRequestPOA {
     this.port = port;
   }
 
+  /**
+   * Stores the thumbnails in parallel. The names of the stored thumbnails are returned in the order
+   * of the metacards.
+   */
   @Override
   public State complete(NameListHolder locations) throws ProcessingFault, SystemFault {
     List<String> fileNames = new ArrayList<>();
     if (type.equals(ProductMgrImpl.THUMBNAIL_RELATED_FILE)
         && StringUtils.isNotBlank(location.host_name)) {
+      List<Future<String>> thumbnailNames = new ArrayList<>(metacards.size());
       for (Metacard metacard : metacards) {
-        evaluateThumbnailNames(fileNames, metacard);
+        if (metacard.getThumbnail() != null) {
+          thumbnailNames.add(executor.submit(() -> storeThumbnail(metacard)));
+        }
       }
+      collectThumbnailNames(fileNames, thumbnailNames);
     }
 
     if (fileNames.isEmpty()) {
@@ -117,15 +150,19 @@ public class GetRelatedFilesRequestImpl extends GetRelatedFilesRequestPOA {
     return State.COMPLETED;
   }
 
-  private void evaluateThumbnailNames(List<String> fileNames, Metacard metacard) {
-    if (metacard.getThumbnail() != null) {
+  private void collectThumbnailNames(List<String> fileNames, List<Future<String>> thumbnailNames) {
+    for (int i = 0; i < thumbnailNames.size(); i++) {
       try {
-        String thumbnailName = storeThumbnail(metacard);
+        String thumbnailName = thumbnailNames.get(i).get();
         if (thumbnailName != null) {
           fileNames.add(thumbnailName);
         }
-      } catch (IOException | MimeTypeException e) {
-        LOGGER.debug("Unable to store thumbnail:", e);
+      } catch (ExecutionException e) {
+        LOGGER.debug("Unable to store thumbnail:", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        thumbnailNames.subList(i, thumbnailNames.size()).forEach(name -> name.cancel(true));
+        return;
       }
     }
   }
@@ -176,12 +213,9 @@ public class GetRelatedFilesRequestImpl extends GetRelatedFilesRequestPOA {
     String id = metacard.getId();
 
     byte[] thumbnailBytes = metacard.getThumbnail();
-    TikaInputStream tis = TikaInputStream.get(thumbnailBytes);
-    MediaType mediaType = DETECTOR.detect(tis, new Metadata());
-    MimeType mimeType =
-        TikaConfig.getDefaultConfig().getMimeRepository().forName(mediaType.toString());
+    ThumbnailType thumbnailType = getThumbnailType(metacard, thumbnailBytes);
 
-    String fileName = id + "-THUMBNAIL" + mimeType.getExtension();
+    String fileName = id + "-THUMBNAIL" + thumbnailType.extension;
 
     String urlStr =
         DEFAULT_PROTOCOL
@@ -198,25 +232,58 @@ public class GetRelatedFilesRequestImpl extends GetRelatedFilesRequestPOA {
     HttpEntity entity = new ByteArrayEntity(thumbnailBytes);
     httpPut.setEntity(entity);
 
-    Header contentTypeHeader = new BasicHeader("Content-Type", mediaType.toString());
+    Header contentTypeHeader = new BasicHeader("Content-Type", thumbnailType.mediaType);
     httpPut.addHeader(contentTypeHeader);
     HttpResponse response = httpClient.execute(httpPut);
-    int statusCode = response.getStatusLine().getStatusCode();
-    if (!(statusCode == HttpStatus.SC_OK
-        || statusCode == HttpStatus.SC_CREATED
-        || statusCode == HttpStatus.SC_ACCEPTED
-        || statusCode == HttpStatus.SC_NO_CONTENT)) {
-      fileName = null;
-      LOGGER.debug(
-          "Unable to PUT file: code: {}, status: {}",
-          statusCode,
-          response.getStatusLine().getReasonPhrase());
+    try {
+      int statusCode = response.getStatusLine().getStatusCode();
+      if (!(statusCode == HttpStatus.SC_OK
+          || statusCode == HttpStatus.SC_CREATED
+          || statusCode == HttpStatus.SC_ACCEPTED
+          || statusCode == HttpStatus.SC_NO_CONTENT)) {
+        fileName = null;
+        LOGGER.debug(
+            "Unable to PUT file: code: {}, status: {}",
+            statusCode,
+            response.getStatusLine().getReasonPhrase());
+      }
+    } finally {
+      // Release the connection back to the pool.
+      EntityUtils.consumeQuietly(response.getEntity());
     }
 
     return fileName;
   }
 
+  private static ThumbnailType getThumbnailType(Metacard metacard, byte[] thumbnailBytes)
+      throws IOException, MimeTypeException {
+    MetacardVersion version = MetacardVersion.of(metacard);
+    ThumbnailType thumbnailType = version == null ? null : THUMBNAIL_TYPES.getIfPresent(version);
+    if (thumbnailType == null) {
+      MediaType mediaType = DETECTOR.detect(TikaInputStream.get(thumbnailBytes), new Metadata());
+      MimeType mimeType = MIME_REPOSITORY.forName(mediaType.toString());
+      thumbnailType = new ThumbnailType(mediaType.toString(), mimeType.getExtension());
+      if (version != null) {
+        THUMBNAIL_TYPES.put(version, thumbnailType);
+      }
+    }
+    return thumbnailType;
+  }
+
   public void setHttpClient(HttpClient httpClient) {
     this.httpClient = httpClient;
   }
+
+  /** The detected media type of a thumbnail and the file extension of that type. */
+  private static class ThumbnailType {
+
+    private final String mediaType;
+
+    private final String extension;
+
+    private ThumbnailType(String mediaType, String extension) {
+      this.mediaType = mediaType;
+      this.extension = extension;
+    }
+  }
 }
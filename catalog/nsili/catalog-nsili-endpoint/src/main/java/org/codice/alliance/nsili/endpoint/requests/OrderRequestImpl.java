@@ -27,10 +27,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPOutputStream;
@@ -52,6 +59,7 @@ import org.codice.alliance.nsili.common.GIAS.PackagingSpec;
 import org.codice.alliance.nsili.common.GIAS.ProductDetails;
 import org.codice.alliance.nsili.common.GIAS.RequestManager;
 import org.codice.alliance.nsili.common.GIAS._RequestManagerStub;
+import org.codice.alliance.nsili.common.NsilCorbaExceptionUtil;
 import org.codice.alliance.nsili.common.PackagingSpecFormatType;
 import org.codice.alliance.nsili.common.UCO.InvalidInputParameter;
 import org.codice.alliance.nsili.common.UCO.ProcessingFault;
@@ -59,6 +67,7 @@ import org.codice.alliance.nsili.common.UCO.RequestDescription;
 import org.codice.alliance.nsili.common.UCO.State;
 import org.codice.alliance.nsili.common.UCO.Status;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
+import org.codice.alliance.nsili.common.UID.Product;
 import org.codice.alliance.nsili.endpoint.NsiliEndpoint;
 import org.codice.alliance.nsili.endpoint.managers.AccessManagerImpl;
 import org.codice.alliance.nsili.endpoint.managers.EmailConfiguration;
@@ -86,6 +95,12 @@ public class OrderRequestImpl extends OrderRequestPOA {
 
   private final Function<Destination, Optional<DestinationSink>> destinationSinkFactory;
 
+  private final List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+
+  private final Map<String, Callback> callbacks = new ConcurrentHashMap<>();
+
+  private volatile Status status = new Status(State.PENDING, false, "Order has not been started");
+
   private OrderContents order;
 
   private AccessManagerImpl accessManager;
@@ -146,6 +161,11 @@ public class OrderRequestImpl extends OrderRequestPOA {
       if (order.prod_list == null) {
         throw new BAD_OPERATION("No products specified for the order");
       }
+      accessManager.prefetchMetacards(
+          Arrays.stream(order.prod_list)
+              .filter(Objects::nonNull)
+              .map(productDetails -> productDetails.aProduct)
+              .toArray(Product[]::new));
       for (ProductDetails productDetails : order.prod_list) {
         requestProductResource(files, productDetails);
       }
@@ -184,7 +204,45 @@ public class OrderRequestImpl extends OrderRequestPOA {
     deliveryManifest.elements = packageElements.toArray(new PackageElement[packageElements.size()]);
     deliveryManifestHolder.value = deliveryManifest;
 
-    return State.COMPLETED;
+    return trackDeliveries();
+  }
+
+  /**
+   * Completes the order status once every destination has accepted its files. The deliveries finish
+   * in the background, so the order may still be in progress when this returns.
+   */
+  private State trackDeliveries() {
+    status = new Status(State.IN_PROGRESS, false, "Delivering the ordered files");
+    CompletableFuture.allOf(deliveries.toArray(new CompletableFuture[deliveries.size()]))
+        .whenComplete((result, throwable) -> deliveriesCompleted(throwable));
+    return status.completion_state;
+  }
+
+  private void deliveriesCompleted(Throwable throwable) {
+    if (throwable == null) {
+      status = new Status(State.COMPLETED, false, "The ordered files have been delivered");
+    } else {
+      Throwable cause =
+          throwable instanceof CompletionException && throwable.getCause() != null
+              ? throwable.getCause()
+              : throwable;
+      LOGGER.debug("Unable to deliver the ordered files:", cause);
+      status =
+          new Status(
+              State.ABORTED, false, "Unable to deliver the ordered files: " + cause.getMessage());
+    }
+    notifyCallbacks(status.completion_state);
+  }
+
+  private void notifyCallbacks(State state) {
+    for (Callback callback : callbacks.values()) {
+      try {
+        callback._notify(state, new RequestDescription());
+      } catch (InvalidInputParameter | SystemFault | ProcessingFault e) {
+        LOGGER.debug(
+            "Unable to notify callback {}", NsilCorbaExceptionUtil.getExceptionDetails(e), e);
+      }
+    }
   }
 
   private void requestProductResource(List<ResourceContainer> files, ProductDetails productDetails)
@@ -228,7 +286,7 @@ public class OrderRequestImpl extends OrderRequestPOA {
 
   @Override
   public Status get_status() throws ProcessingFault, SystemFault {
-    return new Status();
+    return status;
   }
 
   @Override
@@ -244,12 +302,15 @@ public class OrderRequestImpl extends OrderRequestPOA {
   @Override
   public String register_callback(Callback acallback)
       throws InvalidInputParameter, ProcessingFault, SystemFault {
-    return "";
+    String id = UUID.randomUUID().toString();
+    callbacks.put(id, acallback);
+
+    return id;
   }
 
   @Override
   public void free_callback(String id) throws InvalidInputParameter, ProcessingFault, SystemFault {
-    // This method is not expected to be called
+    callbacks.remove(id);
   }
 
   @Override
@@ -312,8 +373,9 @@ public class OrderRequestImpl extends OrderRequestPOA {
       case FILESUNC:
         {
           try (InputStream fileInputStream = file.getInputStream()) {
-            destinationSink.writeFile(
-                fileInputStream, file.getSize(), filename, file.getMimeTypeValue(), metacards);
+            deliveries.add(
+                destinationSink.writeFile(
+                    fileInputStream, file.getSize(), filename, file.getMimeTypeValue(), metacards));
             sentFiles.add(filename);
           }
         }
@@ -422,12 +484,13 @@ public class OrderRequestImpl extends OrderRequestPOA {
             String currNumPortion = String.format(FILE_COUNT_FORMAT, currNum);
             String currFileName = filename + "." + currNumPortion + "." + totalNumPortion;
             try (InputStream fileInputStream = file.getInputStream()) {
-              destinationSink.writeFile(
-                  fileInputStream,
-                  file.getSize(),
-                  currFileName,
-                  file.getMimeTypeValue(),
-                  Collections.singletonList(file.getMetacard()));
+              deliveries.add(
+                  destinationSink.writeFile(
+                      fileInputStream,
+                      file.getSize(),
+                      currFileName,
+                      file.getMimeTypeValue(),
+                      Collections.singletonList(file.getMetacard())));
               currNum++;
               sentFiles.add(currFileName);
             }
@@ -453,12 +516,13 @@ public class OrderRequestImpl extends OrderRequestPOA {
                       + totalNumPortion
                       + packagingSpecFormatType.getExtension();
               try (InputStream inputStream = contents.openStream()) {
-                destinationSink.writeFile(
-                    inputStream,
-                    contents.size(),
-                    currFileName,
-                    packagingSpecFormatType.getContentType(),
-                    Collections.singletonList(file.getMetacard()));
+                deliveries.add(
+                    destinationSink.writeFile(
+                        inputStream,
+                        contents.size(),
+                        currFileName,
+                        packagingSpecFormatType.getContentType(),
+                        Collections.singletonList(file.getMetacard())));
                 sentFiles.add(currFileName);
               }
               currNum++;
@@ -502,12 +566,13 @@ public class OrderRequestImpl extends OrderRequestPOA {
                       + totalNumPortion
                       + packagingSpecFormatType.getExtension();
               try (InputStream inputStream = contents.openStream()) {
-                destinationSink.writeFile(
-                    inputStream,
-                    contents.size(),
-                    currFileName,
-                    packagingSpecFormatType.getContentType(),
-                    Collections.singletonList(file.getMetacard()));
+                deliveries.add(
+                    destinationSink.writeFile(
+                        inputStream,
+                        contents.size(),
+                        currFileName,
+                        packagingSpecFormatType.getContentType(),
+                        Collections.singletonList(file.getMetacard())));
                 sentFiles.add(currFileName);
               }
               currNum++;
@@ -637,12 +702,13 @@ public class OrderRequestImpl extends OrderRequestPOA {
       throws IOException {
     String filenameWithExt = filename + packagingSpecFormatType.getExtension();
     try (InputStream inputStream = contents.openStream()) {
-      destinationSink.writeFile(
-          inputStream,
-          contents.size(),
-          filenameWithExt,
-          packagingSpecFormatType.getContentType(),
-          metacards);
+      deliveries.add(
+          destinationSink.writeFile(
+              inputStream,
+              contents.size(),
+              filenameWithExt,
+              packagingSpecFormatType.getContentType(),
+              metacards));
       sentFiles.add(filenameWithExt);
     }
   }
@@ -42,7 +42,7 @@ import org.codice.alliance.nsili.common.GIAS.SubmitQueryRequestPOA;
 import org.codice.alliance.nsili.common.GIAS._RequestManagerStub;
 import org.codice.alliance.nsili.common.NsilCorbaExceptionUtil;
 import org.codice.alliance.nsili.common.NsiliConstants;
-import org.codice.alliance.nsili.common.ResultDAGConverter;
+import org.codice.alliance.nsili.common.ResultAttributeProjection;
 import org.codice.alliance.nsili.common.UCO.DAG;
 import org.codice.alliance.nsili.common.UCO.DAGListHolder;
 import org.codice.alliance.nsili.common.UCO.InvalidInputParameter;
@@ -55,6 +55,7 @@ import org.codice.alliance.nsili.common.UCO.SystemFault;
 import org.codice.alliance.nsili.common.datamodel.NsiliDataModel;
 import org.codice.alliance.nsili.endpoint.LibraryImpl;
 import org.codice.alliance.nsili.endpoint.NsiliEndpoint;
+import org.codice.alliance.nsili.endpoint.managers.ResultDagCache;
 import org.omg.CORBA.NO_IMPLEMENT;
 import org.opengis.filter.Filter;
 import org.slf4j.Logger;
@@ -142,14 +143,14 @@ public class SubmitQueryRequestImpl extends SubmitQueryRequestPOA {
 
     Map<String, List<String>> mandatoryAttributes = new HashMap<>();
     if (outgoingValidationEnabled) {
-      NsiliDataModel nsiliDataModel = new NsiliDataModel();
-      mandatoryAttributes = nsiliDataModel.getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW);
+      mandatoryAttributes =
+          NsiliDataModel.getInstance().getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW);
     }
+    ResultAttributeProjection projection =
+        ResultAttributeProjection.compile(resultAttributes, mandatoryAttributes);
     for (Result result : queryResults) {
       try {
-        DAG dag =
-            ResultDAGConverter.convertResult(
-                result, _orb(), _poa(), resultAttributes, mandatoryAttributes);
+        DAG dag = ResultDagCache.getInstance().convertResult(result, _orb(), _poa(), projection);
         if (dag != null) {
           dags.add(dag);
           totalHits++;
@@ -56,6 +56,7 @@ import org.codice.alliance.nsili.common.GIAS.RequestManagerHelper;
 import org.codice.alliance.nsili.common.GIAS.SortAttribute;
 import org.codice.alliance.nsili.common.GIAS.SubmitStandingQueryRequestPOA;
 import org.codice.alliance.nsili.common.NsiliConstants;
+import org.codice.alliance.nsili.common.ResultAttributeProjection;
 import org.codice.alliance.nsili.common.ResultDAGConverter;
 import org.codice.alliance.nsili.common.UCO.AbsTime;
 import org.codice.alliance.nsili.common.UCO.DAG;
@@ -73,6 +74,7 @@ import org.codice.alliance.nsili.common.datamodel.NsiliDataModel;
 import org.codice.alliance.nsili.endpoint.LibraryImpl;
 import org.codice.alliance.nsili.endpoint.NsiliEndpoint;
 import org.codice.alliance.nsili.endpoint.managers.RequestManagerImpl;
+import org.codice.alliance.nsili.endpoint.managers.ResultDagCache;
 import org.codice.alliance.nsili.transformer.DAGConverter;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -541,14 +543,15 @@ public class SubmitStandingQueryRequestImpl extends SubmitStandingQueryRequestPO
 
       Map<String, List<String>> mandatoryAttributes = new HashMap<>();
       if (outgoingValidationEnabled) {
-        NsiliDataModel nsiliDataModel = new NsiliDataModel();
-        mandatoryAttributes = nsiliDataModel.getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW);
+        mandatoryAttributes =
+            NsiliDataModel.getInstance().getRequiredAttrsForView(NsiliConstants.NSIL_ALL_VIEW);
       }
+      ResultAttributeProjection projection =
+          ResultAttributeProjection.compile(resultAttributes, mandatoryAttributes);
       for (Result catalogResult : catalogResults) {
         try {
           DAG dag =
-              ResultDAGConverter.convertResult(
-                  catalogResult, _orb(), _poa(), resultAttributes, mandatoryAttributes);
+              ResultDagCache.getInstance().convertResult(catalogResult, _orb(), _poa(), projection);
           dags.add(dag);
         } catch (DagParsingException dpe) {
           LOGGER.debug("DAG could not be parsed and will not be returned to caller:", dpe);
@@ -17,6 +17,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ddf.catalog.data.Metacard;
@@ -27,13 +29,17 @@ import ddf.catalog.data.impl.ResultImpl;
 import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
 import ddf.catalog.operation.QueryRequest;
 import ddf.catalog.operation.QueryResponse;
+import ddf.catalog.operation.impl.DeleteResponseImpl;
 import ddf.catalog.operation.impl.QueryResponseImpl;
 import ddf.security.service.SecurityServiceException;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.codice.alliance.nsili.common.CorbaUtils;
 import org.codice.alliance.nsili.common.GIAS.ProductMgrHelper;
@@ -45,6 +51,7 @@ import org.codice.alliance.nsili.common.UCO.DAG;
 import org.codice.alliance.nsili.common.UID.Product;
 import org.codice.alliance.nsili.common.UID.ProductHelper;
 import org.codice.alliance.nsili.endpoint.managers.AccessManagerImpl;
+import org.codice.alliance.nsili.endpoint.managers.MetacardCache;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -151,6 +158,50 @@ public class AccessManagerImplTest extends NsiliTestCommon {
     assertThat(avail, is(false));
   }
 
+  @Test
+  public void testGetMetacardsIsBatched() throws Exception {
+    MetacardCache metacardCache = MetacardCache.getInstance();
+    metacardCache.setBatchSize(2);
+    try {
+      List<String> ids = new ArrayList<>();
+      List<Result> results = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        MetacardImpl metacard = new MetacardImpl();
+        metacard.setId(UUID.randomUUID().toString().replaceAll("-", ""));
+        ids.add(metacard.getId());
+        results.add(new ResultImpl(metacard));
+      }
+      QueryResponse testResponse = new QueryResponseImpl(null, results, results.size());
+      when(mockCatalogFramework.query(any(QueryRequest.class))).thenReturn(testResponse);
+
+      Map<String, Metacard> metacards = accessManager.getMetacards(ids);
+      assertThat(metacards.keySet(), is(new HashSet<>(ids)));
+      verify(mockCatalogFramework, times(2)).query(any(QueryRequest.class));
+
+      long hitCount = metacardCache.getHitCount();
+      metacards = accessManager.getMetacards(ids);
+      assertThat(metacards.size(), is(3));
+      assertThat(metacardCache.getHitCount() - hitCount, is(3L));
+      verify(mockCatalogFramework, times(2)).query(any(QueryRequest.class));
+    } finally {
+      metacardCache.setBatchSize(MetacardCache.DEFAULT_BATCH_SIZE);
+    }
+  }
+
+  @Test
+  public void testDeletedMetacardIsQueriedAgain() throws Exception {
+    Metacard metacard = accessManager.getMetacard(testMetacardId);
+    assertThat(metacard.getId(), is(testMetacardId));
+    assertThat(accessManager.getMetacard(testMetacardId), is(metacard));
+    verify(mockCatalogFramework, times(1)).query(any(QueryRequest.class));
+
+    MetacardCache.getInstance()
+        .process(new DeleteResponseImpl(null, null, Collections.singletonList(metacard)));
+
+    accessManager.getMetacard(testMetacardId);
+    verify(mockCatalogFramework, times(2)).query(any(QueryRequest.class));
+  }
+
   @Test
   public void testIsUrlValidBadUrls() throws IOException {
     boolean valid = accessManager.isUrlValid(null);
@@ -20,12 +20,22 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpServer;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.impl.MetacardImpl;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.http.Header;
 import org.apache.http.HeaderIterator;
 import org.apache.http.HttpEntity;
@@ -38,7 +48,9 @@ import org.apache.http.params.HttpParams;
 import org.codice.alliance.nsili.common.UCO.FileLocation;
 import org.codice.alliance.nsili.common.UCO.NameListHolder;
 import org.codice.alliance.nsili.common.UCO.State;
+import org.codice.alliance.nsili.endpoint.managers.RelatedFilesResources;
 import org.codice.alliance.nsili.endpoint.requests.GetRelatedFilesRequestImpl;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.omg.CORBA.NO_IMPLEMENT;
@@ -47,20 +59,39 @@ public class GetRelatedFilesRequestImplTest {
 
   private static final int TEST_PORT = 21000;
 
+  private static final int THUMBNAIL_COUNT = 32;
+
+  /** The number of thumbnails that are stored at a time. */
+  private static final int PARALLEL_PUTS = 8;
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private static final byte[] PNG_SIGNATURE = {
+    (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d, 'I', 'H', 'D', 'R'
+  };
+
   private GetRelatedFilesRequestImpl relatedFilesRequest;
 
   private HttpClient mockHttpClient = mock(HttpClient.class);
 
+  private RelatedFilesResources relatedFilesResources = new RelatedFilesResources();
+
   @Before
   public void setUp() throws Exception {
     List<Metacard> testMetacards = getTestMetacards();
     FileLocation location = getTestFileLocation();
     relatedFilesRequest =
-        new GetRelatedFilesRequestImpl(testMetacards, location, "THUMBNAIL", TEST_PORT);
+        new GetRelatedFilesRequestImpl(
+            testMetacards, location, "THUMBNAIL", TEST_PORT, relatedFilesResources);
     relatedFilesRequest.setHttpClient(mockHttpClient);
     setupMocks();
   }
 
+  @After
+  public void tearDown() {
+    relatedFilesResources.destroy();
+  }
+
   @Test
   public void testComplete200() throws Exception {
     when(mockHttpClient.execute(any(HttpUriRequest.class))).thenReturn(getGoodResponse(200));
@@ -98,7 +129,7 @@ public class GetRelatedFilesRequestImplTest {
     NameListHolder locations = new NameListHolder();
     GetRelatedFilesRequestImpl noPortRequest =
         new GetRelatedFilesRequestImpl(
-            getTestMetacards(), getTestFileLocation(), "THUMBNAIL", null);
+            getTestMetacards(), getTestFileLocation(), "THUMBNAIL", null, relatedFilesResources);
     noPortRequest.setHttpClient(mockHttpClient);
     State state = noPortRequest.complete(locations);
     assertValidState(state, locations);
@@ -118,7 +149,8 @@ public class GetRelatedFilesRequestImplTest {
     fileLocation.host_name = "";
     NameListHolder locations = new NameListHolder();
     GetRelatedFilesRequestImpl noPortRequest =
-        new GetRelatedFilesRequestImpl(getTestMetacards(), fileLocation, "THUMBNAIL", null);
+        new GetRelatedFilesRequestImpl(
+            getTestMetacards(), fileLocation, "THUMBNAIL", null, relatedFilesResources);
     noPortRequest.setHttpClient(mockHttpClient);
     State state = noPortRequest.complete(locations);
     assertValidStateNoLocs(state, locations);
@@ -128,7 +160,8 @@ public class GetRelatedFilesRequestImplTest {
   public void testNoThumbnail() throws Exception {
     NameListHolder locations = new NameListHolder();
     GetRelatedFilesRequestImpl noPortRequest =
-        new GetRelatedFilesRequestImpl(getBadMetacards(), getTestFileLocation(), "THUMBNAIL", null);
+        new GetRelatedFilesRequestImpl(
+            getBadMetacards(), getTestFileLocation(), "THUMBNAIL", null, relatedFilesResources);
     noPortRequest.setHttpClient(mockHttpClient);
     State state = noPortRequest.complete(locations);
     assertValidStateNoLocs(state, locations);
@@ -138,12 +171,78 @@ public class GetRelatedFilesRequestImplTest {
   public void testNotThumbnailType() throws Exception {
     NameListHolder locations = new NameListHolder();
     GetRelatedFilesRequestImpl noPortRequest =
-        new GetRelatedFilesRequestImpl(getBadMetacards(), getTestFileLocation(), "OVERVIEW", null);
+        new GetRelatedFilesRequestImpl(
+            getBadMetacards(), getTestFileLocation(), "OVERVIEW", null, relatedFilesResources);
     noPortRequest.setHttpClient(mockHttpClient);
     State state = noPortRequest.complete(locations);
     assertValidStateNoLocs(state, locations);
   }
 
+  /**
+   * Stores thumbnails on a local HTTP server that holds each PUT until {@value #PARALLEL_PUTS} PUTs
+   * are in flight, and records the largest number of PUTs in flight at once.
+   */
+  @Test
+  public void testThumbnailsAreStoredInParallel() throws Exception {
+    List<String> storedPaths = new CopyOnWriteArrayList<>();
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger peakInFlight = new AtomicInteger();
+    CountDownLatch allInFlight = new CountDownLatch(PARALLEL_PUTS);
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    server.setExecutor(serverExecutor);
+    server.createContext(
+        "/nsili/file",
+        exchange -> {
+          peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          allInFlight.countDown();
+          try {
+            allInFlight.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          inFlight.decrementAndGet();
+          storedPaths.add(exchange.getRequestURI().getPath());
+          ByteStreams.exhaust(exchange.getRequestBody());
+          exchange.sendResponseHeaders(201, -1);
+          exchange.close();
+        });
+    server.start();
+
+    try {
+      List<Metacard> metacards = new ArrayList<>();
+      for (int i = 0; i < THUMBNAIL_COUNT; i++) {
+        MetacardImpl metacard = new MetacardImpl();
+        metacard.setId(String.format("%03d", i));
+        metacard.setThumbnail(PNG_SIGNATURE);
+        metacards.add(metacard);
+      }
+
+      GetRelatedFilesRequestImpl request =
+          new GetRelatedFilesRequestImpl(
+              metacards,
+              getTestFileLocation(),
+              "THUMBNAIL",
+              server.getAddress().getPort(),
+              relatedFilesResources);
+      NameListHolder locations = new NameListHolder();
+
+      State state = request.complete(locations);
+
+      assertThat(state, is(State.COMPLETED));
+      assertThat(storedPaths.size(), is(THUMBNAIL_COUNT));
+      assertThat(locations.value.length, is(THUMBNAIL_COUNT));
+      for (int i = 0; i < THUMBNAIL_COUNT; i++) {
+        assertThat(locations.value[i], is(String.format("%03d", i) + "-THUMBNAIL.png"));
+      }
+      assertThat(peakInFlight.get(), is(PARALLEL_PUTS));
+    } finally {
+      server.stop(0);
+      serverExecutor.shutdownNow();
+    }
+  }
+
   @Test(expected = NO_IMPLEMENT.class)
   public void testRegisterCallback() throws Exception {
     relatedFilesRequest.register_callback(null);
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import ddf.security.Subject;
+import ddf.security.service.SecurityServiceException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class GuestSubjectHolderTest {
+
+  private static final int THREADS = 32;
+
+  private static final int READS_PER_THREAD = 1000;
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private final AtomicInteger createdCount = new AtomicInteger();
+
+  private final AtomicBoolean aboutToExpire = new AtomicBoolean();
+
+  private GuestSubjectHolder holder;
+
+  @After
+  public void tearDown() {
+    if (holder != null) {
+      holder.stop();
+    }
+  }
+
+  @Test
+  public void testSubjectIsCreatedOnce() throws SecurityServiceException {
+    holder = createHolder(TimeUnit.MINUTES.toMillis(1));
+
+    Subject subject = holder.getSubject();
+
+    assertThat(holder.getSubject(), is(sameInstance(subject)));
+    assertThat(createdCount.get(), is(1));
+    assertThat(holder.getRefreshCount(), is(1L));
+  }
+
+  @Test
+  public void testExpiringSubjectIsRefreshed() throws SecurityServiceException {
+    holder = createHolder(0);
+
+    Subject subject = holder.getSubject();
+    assertThat(holder.getSubject(), is(sameInstance(subject)));
+
+    aboutToExpire.set(true);
+
+    assertThat(holder.getSubject(), is(not(sameInstance(subject))));
+    assertThat(holder.getRefreshCount(), is(2L));
+  }
+
+  @Test
+  public void testFailedRefreshKeepsCurrentSubject() throws SecurityServiceException {
+    Subject subject = mock(Subject.class);
+    holder =
+        new GuestSubjectHolder(
+            () -> {
+              throw new SecurityServiceException("the STS is unavailable");
+            },
+            s -> true,
+            0);
+    holder.setSubject(subject);
+
+    assertThat(holder.getSubject(), is(sameInstance(subject)));
+    assertThat(holder.getRefreshFailureCount(), is(1L));
+  }
+
+  @Test(expected = SecurityServiceException.class)
+  public void testFailedRefreshWithoutSubject() throws SecurityServiceException {
+    holder =
+        new GuestSubjectHolder(
+            () -> {
+              throw new SecurityServiceException("the STS is unavailable");
+            },
+            s -> false,
+            0);
+
+    holder.getSubject();
+  }
+
+  @Test
+  public void testSubjectIsRefreshedInBackground() throws Exception {
+    CountDownLatch firstRefresh = new CountDownLatch(1);
+    CountDownLatch thirdRefresh = new CountDownLatch(3);
+    holder =
+        new GuestSubjectHolder(
+            () -> {
+              firstRefresh.countDown();
+              thirdRefresh.countDown();
+              return mock(Subject.class);
+            },
+            s -> aboutToExpire.get(),
+            20);
+    holder.start();
+
+    assertThat(firstRefresh.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), is(true));
+    Subject subject = holder.getSubject();
+
+    aboutToExpire.set(true);
+
+    assertThat(thirdRefresh.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), is(true));
+    assertThat(holder.getSubject(), is(not(sameInstance(subject))));
+  }
+
+  /**
+   * Reads the subject from many threads at once while creating a subject is slow. Only the first
+   * read creates the subject, and every thread reads the same subject.
+   */
+  @Test
+  public void testConcurrentReads() throws Exception {
+    holder =
+        new GuestSubjectHolder(
+            () -> {
+              createdCount.incrementAndGet();
+              try {
+                Thread.sleep(50);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return mock(Subject.class);
+            },
+            s -> aboutToExpire.get(),
+            TimeUnit.MINUTES.toMillis(1));
+
+    CountDownLatch ready = new CountDownLatch(THREADS);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Callable<Subject>> readers = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      readers.add(
+          () -> {
+            ready.countDown();
+            ready.await();
+            Subject last = null;
+            for (int j = 0; j < READS_PER_THREAD; j++) {
+              last = holder.getSubject();
+            }
+            return last;
+          });
+    }
+
+    Set<Subject> subjects = new HashSet<>();
+    try {
+      for (Future<Subject> result : executor.invokeAll(readers)) {
+        subjects.add(result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(subjects.size(), is(1));
+    assertThat(createdCount.get(), is(1));
+    assertThat(holder.getInlineCheckCount() <= THREADS, is(true));
+  }
+
+  private GuestSubjectHolder createHolder(long checkIntervalMillis) {
+    return new GuestSubjectHolder(
+        () -> {
+          createdCount.incrementAndGet();
+          return mock(Subject.class);
+        },
+        s -> aboutToExpire.get(),
+        checkIntervalMillis);
+  }
+}
@@ -51,6 +51,7 @@ import org.codice.alliance.nsili.common.UCO.NameValue;
 import org.codice.alliance.nsili.common.UID.Product;
 import org.codice.alliance.nsili.common.UID.ProductHelper;
 import org.codice.alliance.nsili.endpoint.managers.ProductMgrImpl;
+import org.codice.alliance.nsili.endpoint.managers.RelatedFilesResources;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -69,6 +70,8 @@ public class ProductMgrImplTest extends NsiliTestCommon {
 
   private ProductMgrImpl productMgr;
 
+  private RelatedFilesResources relatedFilesResources = new RelatedFilesResources();
+
   private Product testProduct = null;
 
   private String testMetacardId = UUID.randomUUID().toString().replaceAll("-", "");
@@ -96,6 +99,7 @@ public class ProductMgrImplTest extends NsiliTestCommon {
     productMgr.setFilterBuilder(new GeotoolsFilterBuilder());
     productMgr.setCatalogFramework(mockCatalogFramework);
     productMgr.setOutgoingValidationEnabled(false);
+    productMgr.setRelatedFilesResources(relatedFilesResources);
 
     if (!CorbaUtils.isIdActive(
         rootPOA, managerId.getBytes(Charset.forName(NsiliEndpoint.ENCODING)))) {
@@ -325,6 +329,8 @@ public class ProductMgrImplTest extends NsiliTestCommon {
 
   @After
   public void tearDown() {
+    relatedFilesResources.destroy();
+
     if (orb != null) {
       orb.destroy();
     }
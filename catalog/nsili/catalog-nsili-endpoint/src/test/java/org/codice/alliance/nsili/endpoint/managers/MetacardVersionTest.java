@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.types.Core;
+import java.util.Date;
+import org.junit.Test;
+
+public class MetacardVersionTest {
+
+  private static final Date TEST_DATE = new Date(1000);
+
+  @Test
+  public void testSameVersionIsEqual() {
+    assertThat(MetacardVersion.of(createMetacard()), is(MetacardVersion.of(createMetacard())));
+  }
+
+  @Test
+  public void testModifiedMetacardIsANewVersion() {
+    MetacardImpl modified = createMetacard();
+    modified.setModifiedDate(new Date(2000));
+
+    assertThat(MetacardVersion.of(modified), is(not(MetacardVersion.of(createMetacard()))));
+  }
+
+  @Test
+  public void testMetacardFromAnotherSourceIsANewVersion() {
+    MetacardImpl remote = createMetacard();
+    remote.setSourceId("remote");
+
+    assertThat(MetacardVersion.of(remote), is(not(MetacardVersion.of(createMetacard()))));
+  }
+
+  @Test
+  public void testMetacardWithoutModifiedDateHasNoVersion() {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId("id");
+
+    assertThat(MetacardVersion.of(metacard), is(nullValue()));
+  }
+
+  @Test
+  public void testMetacardWithoutIdHasNoVersion() {
+    MetacardImpl metacard = createMetacard();
+    metacard.setId(null);
+
+    assertThat(MetacardVersion.of(metacard), is(nullValue()));
+  }
+
+  private static MetacardImpl createMetacard() {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId("id");
+    metacard.setSourceId("local");
+    metacard.setAttribute(new AttributeImpl(Core.METACARD_MODIFIED, TEST_DATE));
+    metacard.setModifiedDate(TEST_DATE);
+    return metacard;
+  }
+}
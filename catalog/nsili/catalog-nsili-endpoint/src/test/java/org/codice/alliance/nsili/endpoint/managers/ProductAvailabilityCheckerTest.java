@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProductAvailabilityCheckerTest {
+
+  private static final byte[] PRODUCT = "product".getBytes(StandardCharsets.UTF_8);
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private HttpServer server;
+
+  private ProductAvailabilityChecker availabilityChecker;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/product", exchange -> respond(exchange, PRODUCT.length, true));
+    server.createContext("/empty", exchange -> respond(exchange, 0, true));
+    server.createContext("/nohead", exchange -> respond(exchange, PRODUCT.length, false));
+    server.createContext(
+        "/missing",
+        exchange -> {
+          requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+          exchange.sendResponseHeaders(404, -1);
+          exchange.close();
+        });
+    server.createContext(
+        "/slow",
+        exchange -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          respond(exchange, PRODUCT.length, true);
+        });
+    server.start();
+    availabilityChecker = new ProductAvailabilityChecker();
+  }
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    server.stop(0);
+  }
+
+  @Test
+  public void testAvailabilityIsCheckedWithHead() {
+    assertThat(availabilityChecker.isAvailable(url("/product")), is(true));
+    assertThat(availabilityChecker.isAvailable(url("/product")), is(true));
+
+    assertThat(requests, is(Arrays.asList("HEAD /product")));
+  }
+
+  @Test
+  public void testEmptyProductIsNotAvailable() {
+    assertThat(availabilityChecker.isAvailable(url("/empty")), is(false));
+  }
+
+  @Test
+  public void testMissingProductIsNotAvailable() {
+    assertThat(availabilityChecker.isAvailable(url("/missing")), is(false));
+  }
+
+  @Test
+  public void testUnavailableProductIsCheckedAgain() {
+    availabilityChecker = new ProductAvailabilityChecker(0, 1);
+
+    assertThat(availabilityChecker.isAvailable(url("/missing")), is(false));
+    assertThat(availabilityChecker.isAvailable(url("/missing")), is(false));
+    assertThat(availabilityChecker.isAvailable(url("/product")), is(true));
+    assertThat(availabilityChecker.isAvailable(url("/product")), is(true));
+
+    assertThat(requests, is(Arrays.asList("HEAD /missing", "HEAD /missing", "HEAD /product")));
+  }
+
+  @Test
+  public void testGetIsUsedWhenHeadIsNotSupported() {
+    assertThat(availabilityChecker.isAvailable(url("/nohead")), is(true));
+
+    assertThat(requests, is(Arrays.asList("HEAD /nohead", "GET /nohead")));
+  }
+
+  @Test
+  public void testFileAvailability() throws IOException {
+    File product = temporaryFolder.newFile("product.ntf");
+    File empty = temporaryFolder.newFile("empty.ntf");
+    Files.write(product.toPath(), PRODUCT);
+
+    assertThat(availabilityChecker.isAvailable(product.toURI().toString()), is(true));
+    assertThat(availabilityChecker.isAvailable(empty.toURI().toString()), is(false));
+    assertThat(availabilityChecker.isAvailable("not a url"), is(false));
+  }
+
+  @Test
+  public void testPrefetch() throws InterruptedException {
+    availabilityChecker.prefetch(Arrays.asList(url("/product"), url("/empty"), url("/product")));
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (requests.size() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+
+    assertThat(availabilityChecker.isAvailable(url("/product")), is(true));
+    assertThat(availabilityChecker.isAvailable(url("/empty")), is(false));
+    assertThat(requests.size(), is(2));
+  }
+
+  /**
+   * Prefetch more URLs than there are threads and queue entries while the server does not answer,
+   * and expect the remaining URLs to be dropped.
+   */
+  @Test
+  public void testPrefetchDropsUrlsWhenQueueIsFull() {
+    availabilityChecker = new ProductAvailabilityChecker(0, 1);
+
+    List<String> urls = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      urls.add(url("/slow") + "?i=" + i);
+    }
+
+    assertThat(availabilityChecker.prefetch(urls), is(11));
+  }
+
+  private String url(String path) {
+    return "http://"
+        + server.getAddress().getHostString()
+        + ":"
+        + server.getAddress().getPort()
+        + path;
+  }
+
+  private void respond(HttpExchange exchange, int length, boolean headSupported)
+      throws IOException {
+    String method = exchange.getRequestMethod();
+    requests.add(method + " " + exchange.getRequestURI().getPath());
+    if ("HEAD".equals(method)) {
+      if (headSupported) {
+        exchange.getResponseHeaders().set("Content-Length", Integer.toString(length));
+        exchange.sendResponseHeaders(200, -1);
+      } else {
+        exchange.sendResponseHeaders(405, -1);
+      }
+    } else {
+      exchange.sendResponseHeaders(200, length == 0 ? -1 : length);
+      try (OutputStream body = exchange.getResponseBody()) {
+        body.write(PRODUCT, 0, length);
+      }
+    }
+    exchange.close();
+  }
+}
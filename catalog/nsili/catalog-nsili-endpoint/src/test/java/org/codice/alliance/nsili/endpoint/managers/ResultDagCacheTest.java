@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.managers;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.data.impl.AttributeImpl;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.data.types.Core;
+import ddf.catalog.operation.impl.DeleteResponseImpl;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.UUID;
+import org.codice.alliance.nsili.common.NsiliConstants;
+import org.codice.alliance.nsili.common.ResultAttributeProjection;
+import org.codice.alliance.nsili.common.UCO.DAG;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.omg.CORBA.ORB;
+import org.omg.PortableServer.POA;
+import org.omg.PortableServer.POAHelper;
+
+public class ResultDagCacheTest {
+
+  private static final Date TEST_DATE = new Date(1000);
+
+  private static final ResultAttributeProjection ALL_ATTRIBUTES =
+      ResultAttributeProjection.compile(Collections.emptyList(), new HashMap<>());
+
+  private ORB orb;
+
+  private POA rootPOA;
+
+  private ResultDagCache resultDagCache;
+
+  @Before
+  public void setUp() throws Exception {
+    orb = ORB.init(new String[0], null);
+    rootPOA = POAHelper.narrow(orb.resolve_initial_references("RootPOA"));
+    rootPOA.the_POAManager().activate();
+    resultDagCache = new ResultDagCache();
+  }
+
+  @After
+  public void tearDown() {
+    resultDagCache.invalidateAll();
+    orb.destroy();
+  }
+
+  @Test
+  public void testRepeatedResultIsCached() throws Exception {
+    ResultImpl result = new ResultImpl(getTestCard());
+
+    DAG first = resultDagCache.convertResult(result, orb, rootPOA, ALL_ATTRIBUTES);
+    DAG second =
+        resultDagCache.convertResult(
+            new ResultImpl(copy(result.getMetacard())),
+            orb,
+            rootPOA,
+            ResultAttributeProjection.compile(null, null));
+
+    assertThat(second, sameInstance(first));
+    assertThat(resultDagCache.getHitCount(), is(1L));
+    assertThat(resultDagCache.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void testDifferentProjectionIsConverted() throws Exception {
+    ResultImpl result = new ResultImpl(getTestCard());
+
+    DAG all = resultDagCache.convertResult(result, orb, rootPOA, ALL_ATTRIBUTES);
+    DAG identifierOnly =
+        resultDagCache.convertResult(
+            result,
+            orb,
+            rootPOA,
+            ResultAttributeProjection.compile(
+                Collections.singletonList(NsiliConstants.IDENTIFIER), null));
+
+    assertThat(identifierOnly, not(sameInstance(all)));
+    assertThat(identifierOnly.nodes.length < all.nodes.length, is(true));
+  }
+
+  @Test
+  public void testModifiedMetacardIsConverted() throws Exception {
+    MetacardImpl metacard = getTestCard();
+    DAG original =
+        resultDagCache.convertResult(new ResultImpl(metacard), orb, rootPOA, ALL_ATTRIBUTES);
+
+    MetacardImpl modified = copy(metacard);
+    modified.setModifiedDate(new Date(2000));
+    DAG converted =
+        resultDagCache.convertResult(new ResultImpl(modified), orb, rootPOA, ALL_ATTRIBUTES);
+
+    assertThat(converted, not(sameInstance(original)));
+  }
+
+  @Test
+  public void testMetacardWithoutModifiedDateIsNotCached() throws Exception {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId(UUID.randomUUID().toString());
+    ResultImpl result = new ResultImpl(metacard);
+
+    DAG first = resultDagCache.convertResult(result, orb, rootPOA, ALL_ATTRIBUTES);
+    DAG second = resultDagCache.convertResult(result, orb, rootPOA, ALL_ATTRIBUTES);
+
+    assertThat(second, not(sameInstance(first)));
+    assertThat(resultDagCache.getSize(), is(0L));
+  }
+
+  @Test
+  public void testDeletedMetacardIsRemoved() throws Exception {
+    MetacardImpl metacard = getTestCard();
+    ResultImpl result = new ResultImpl(metacard);
+    DAG first = resultDagCache.convertResult(result, orb, rootPOA, ALL_ATTRIBUTES);
+
+    resultDagCache.process(
+        new DeleteResponseImpl(null, null, Collections.singletonList((Metacard) metacard)));
+    DAG second = resultDagCache.convertResult(result, orb, rootPOA, ALL_ATTRIBUTES);
+
+    assertThat(second, not(sameInstance(first)));
+    assertThat(resultDagCache.getInvalidationCount(), is(1L));
+  }
+
+  @Test
+  public void testDeletedMetacardOnlyRemovesItsDags() throws Exception {
+    MetacardImpl deleted = getTestCard();
+    ResultImpl deletedResult = new ResultImpl(deleted);
+    resultDagCache.convertResult(deletedResult, orb, rootPOA, ALL_ATTRIBUTES);
+    resultDagCache.convertResult(
+        deletedResult,
+        orb,
+        rootPOA,
+        ResultAttributeProjection.compile(
+            Collections.singletonList(NsiliConstants.IDENTIFIER), null));
+    ResultImpl kept = new ResultImpl(getTestCard());
+    DAG keptDag = resultDagCache.convertResult(kept, orb, rootPOA, ALL_ATTRIBUTES);
+
+    resultDagCache.process(
+        new DeleteResponseImpl(null, null, Collections.singletonList((Metacard) deleted)));
+
+    assertThat(resultDagCache.getInvalidationCount(), is(2L));
+    assertThat(resultDagCache.getSize(), is(1L));
+    assertThat(
+        resultDagCache.convertResult(kept, orb, rootPOA, ALL_ATTRIBUTES), sameInstance(keptDag));
+  }
+
+  @Test
+  public void testCacheIsBoundedByNodes() throws Exception {
+    DAG dag =
+        resultDagCache.convertResult(new ResultImpl(getTestCard()), orb, rootPOA, ALL_ATTRIBUTES);
+    resultDagCache.setMaxNodes(dag.nodes.length + dag.edges.length);
+
+    for (int i = 0; i < 10; i++) {
+      resultDagCache.convertResult(new ResultImpl(getTestCard()), orb, rootPOA, ALL_ATTRIBUTES);
+    }
+
+    assertThat(resultDagCache.getSize() < 10, is(true));
+    assertThat(resultDagCache.getEvictionCount(), greaterThan(0L));
+  }
+
+  private static MetacardImpl getTestCard() {
+    MetacardImpl metacard = new MetacardImpl();
+    metacard.setId(UUID.randomUUID().toString());
+    metacard.setTitle("Test Title");
+    metacard.setSourceId("Test Source");
+    metacard.setAttribute(new AttributeImpl(Core.METACARD_CREATED, TEST_DATE));
+    metacard.setCreatedDate(TEST_DATE);
+    metacard.setAttribute(new AttributeImpl(Core.METACARD_MODIFIED, TEST_DATE));
+    metacard.setModifiedDate(TEST_DATE);
+    return metacard;
+  }
+
+  private static MetacardImpl copy(Metacard metacard) {
+    MetacardImpl copy = new MetacardImpl(metacard);
+    copy.setSourceId(metacard.getSourceId());
+    return copy;
+  }
+}
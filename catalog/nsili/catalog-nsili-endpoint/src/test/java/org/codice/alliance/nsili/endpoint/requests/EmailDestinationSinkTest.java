@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.endpoint.requests;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import ddf.catalog.data.Metacard;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.codice.alliance.core.email.EmailSender;
+import org.codice.alliance.nsili.endpoint.managers.EmailConfiguration;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EmailDestinationSinkTest {
+
+  private static final String EMAIL_DEST = "to@test.com";
+
+  private static final String FILE_NAME = "file.txt";
+
+  private EmailSender emailSender;
+
+  private EmailDestinationSink emailDestinationSink;
+
+  @Before
+  public void setUp() {
+    emailSender = mock(EmailSender.class);
+
+    EmailConfiguration emailConfiguration = new EmailConfiguration();
+    emailConfiguration.setEmailSender(emailSender);
+    emailConfiguration.setFromEmail("from@test.com");
+    emailConfiguration.setSubject("subject");
+    emailConfiguration.setBody("body");
+
+    emailDestinationSink = new EmailDestinationSink(EMAIL_DEST, emailConfiguration);
+  }
+
+  @Test
+  public void testWriteFileCompletesWhenDelivered() throws IOException {
+    CompletableFuture<Void> delivery = new CompletableFuture<>();
+    whenEmailSent(delivery);
+
+    CompletableFuture<Void> written = writeFile();
+    assertThat(written.isDone(), is(false));
+
+    delivery.complete(null);
+    assertThat(written.isDone(), is(true));
+    assertThat(written.isCompletedExceptionally(), is(false));
+  }
+
+  @Test
+  public void testWriteFileFailsWhenDeliveryFails() throws IOException, InterruptedException {
+    CompletableFuture<Void> delivery = new CompletableFuture<>();
+    whenEmailSent(delivery);
+
+    CompletableFuture<Void> written = writeFile();
+    delivery.completeExceptionally(new IOException("mailbox unavailable"));
+
+    try {
+      written.get();
+      fail("expected the email delivery to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(IOException.class));
+      assertThat(e.getCause().getMessage(), containsString(FILE_NAME));
+      assertThat(e.getCause().getCause().getMessage(), is("mailbox unavailable"));
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testWriteFileFailsWhenEmailIsNotQueued() throws IOException {
+    when(emailSender.sendEmailAsync(any(), eq(EMAIL_DEST), any(), any(), any()))
+        .thenThrow(new IOException("the email delivery queue is full"));
+
+    writeFile();
+  }
+
+  private void whenEmailSent(CompletableFuture<Void> delivery) throws IOException {
+    when(emailSender.sendEmailAsync(any(), eq(EMAIL_DEST), any(), any(), any()))
+        .thenReturn(delivery);
+  }
+
+  private CompletableFuture<Void> writeFile() throws IOException {
+    return emailDestinationSink.writeFile(
+        new ByteArrayInputStream(new byte[] {1, 2, 3}),
+        3,
+        FILE_NAME,
+        "text/plain",
+        Collections.singletonList(mock(Metacard.class)));
+  }
+}
@@ -13,12 +13,16 @@
  */
 package org.codice.alliance.nsili.endpoint.requests;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ddf.catalog.CatalogFramework;
@@ -28,14 +32,17 @@ import ddf.catalog.operation.ResourceResponse;
 import ddf.catalog.resource.Resource;
 import ddf.security.service.SecurityServiceException;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import org.apache.cxf.common.i18n.Exception;
 import org.codice.alliance.core.email.EmailSender;
+import org.codice.alliance.nsili.common.CB.Callback;
 import org.codice.alliance.nsili.common.GIAS.DelayEstimate;
 import org.codice.alliance.nsili.common.GIAS.DeliveryDetails;
 import org.codice.alliance.nsili.common.GIAS.DeliveryManifestHolder;
@@ -48,6 +55,7 @@ import org.codice.alliance.nsili.common.UCO.FileLocation;
 import org.codice.alliance.nsili.common.UCO.InvalidInputParameter;
 import org.codice.alliance.nsili.common.UCO.ProcessingFault;
 import org.codice.alliance.nsili.common.UCO.RequestDescription;
+import org.codice.alliance.nsili.common.UCO.State;
 import org.codice.alliance.nsili.common.UCO.Status;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
 import org.codice.alliance.nsili.common.UID.Product;
@@ -117,7 +125,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -135,7 +143,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -153,7 +161,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -171,7 +179,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -189,7 +197,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -207,7 +215,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -225,7 +233,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -243,12 +251,13 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
-    orderRequest.complete(holder);
+    assertThat(orderRequest.complete(holder), is(State.COMPLETED));
     assertThat(holder.value, notNullValue());
     assertThat(holder.value.elements[0].files.length, is(1));
+    assertThat(orderRequest.get_status().completion_state, is(State.COMPLETED));
   }
 
   @Test
@@ -260,7 +269,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -278,7 +287,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -296,7 +305,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -314,7 +323,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -332,7 +341,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -350,7 +359,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -368,7 +377,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -386,7 +395,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -407,12 +416,75 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
   }
 
+  @Test
+  public void testFailedEmailDeliveryAbortsOrder()
+      throws SystemFault, ProcessingFault, IOException {
+    OrderContents order = getUncompressedTestOrder();
+
+    DeliveryDetails deliveryDetail = new DeliveryDetails();
+    deliveryDetail.dests = getGoodEmailDestination();
+    order.del_list = new DeliveryDetails[] {deliveryDetail};
+
+    CompletableFuture<Void> delivery = new CompletableFuture<>();
+    delivery.completeExceptionally(new IOException("mailbox unavailable"));
+    when(emailConfiguration.getEmailSender().sendEmailAsync(any(), any(), any(), any(), any()))
+        .thenReturn(delivery);
+
+    OrderRequestImpl orderRequest =
+        new OrderRequestImpl(
+            order,
+            accessManager,
+            mockCatalogFramework,
+            destination ->
+                Optional.of(new EmailDestinationSink(destination.e_dest(), emailConfiguration)));
+
+    DeliveryManifestHolder holder = new DeliveryManifestHolder();
+    assertThat(orderRequest.complete(holder), is(State.ABORTED));
+    assertThat(orderRequest.get_status().completion_state, is(State.ABORTED));
+    assertThat(orderRequest.get_status().status_message, containsString("mailbox unavailable"));
+  }
+
+  @Test
+  public void testEmailDeliveryCompletesOrderWhenAccepted()
+      throws SystemFault, ProcessingFault, InvalidInputParameter, IOException {
+    OrderContents order = getUncompressedTestOrder();
+
+    DeliveryDetails deliveryDetail = new DeliveryDetails();
+    deliveryDetail.dests = getGoodEmailDestination();
+    order.del_list = new DeliveryDetails[] {deliveryDetail};
+
+    CompletableFuture<Void> delivery = new CompletableFuture<>();
+    when(emailConfiguration.getEmailSender().sendEmailAsync(any(), any(), any(), any(), any()))
+        .thenReturn(delivery);
+
+    OrderRequestImpl orderRequest =
+        new OrderRequestImpl(
+            order,
+            accessManager,
+            mockCatalogFramework,
+            destination ->
+                Optional.of(new EmailDestinationSink(destination.e_dest(), emailConfiguration)));
+    Callback callback = mock(Callback.class);
+    orderRequest.register_callback(callback);
+
+    DeliveryManifestHolder holder = new DeliveryManifestHolder();
+    assertThat(orderRequest.complete(holder), is(State.IN_PROGRESS));
+    assertThat(holder.value.elements[0].files.length, is(1));
+    assertThat(orderRequest.get_status().completion_state, is(State.IN_PROGRESS));
+    verify(callback, never())._notify(any(), any());
+
+    delivery.complete(null);
+
+    assertThat(orderRequest.get_status().completion_state, is(State.COMPLETED));
+    verify(callback)._notify(eq(State.COMPLETED), any());
+  }
+
   @Test
   public void testUnsetOutputName() throws SystemFault, ProcessingFault {
     OrderContents order = getUncompressedTestOrder();
@@ -423,7 +495,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -444,7 +516,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -462,7 +534,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -478,7 +550,7 @@ public class OrderRequestImplTest extends NsiliTestCommon {
             order,
             accessManager,
             mockCatalogFramework,
-            destination -> Optional.of(mock(DestinationSink.class)));
+            destination -> Optional.of(deliveredSink()));
 
     DeliveryManifestHolder holder = new DeliveryManifestHolder();
     orderRequest.complete(holder);
@@ -544,6 +616,10 @@ public class OrderRequestImplTest extends NsiliTestCommon {
     orderRequest.cancel();
   }
 
+  private static DestinationSink deliveredSink() {
+    return mock(DestinationSink.class, invocation -> CompletableFuture.completedFuture(null));
+  }
+
   private Destination getTestDestination() {
     Destination destination = new Destination();
     FileLocation location = new FileLocation();
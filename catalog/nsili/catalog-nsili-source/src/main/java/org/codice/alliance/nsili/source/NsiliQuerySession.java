@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.source;
+
+import ddf.catalog.data.Result;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.codice.alliance.nsili.common.GIAS.SubmitQueryRequest;
+import org.codice.alliance.nsili.common.NsilCorbaExceptionUtil;
+import org.codice.alliance.nsili.common.UCO.ProcessingFault;
+import org.codice.alliance.nsili.common.UCO.SystemFault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds an open remote {@link SubmitQueryRequest} along with the results that have been retrieved
+ * and converted so far, in server order. Each call to complete_DAG_results on the remote request
+ * returns the next window of results, so later pages are fetched by continuing the same request
+ * and earlier pages are served from the converted results.
+ */
+class NsiliQuerySession {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NsiliQuerySession.class);
+
+  private final SubmitQueryRequest submitQueryRequest;
+
+  private final long hitCount;
+
+  private final int resultLimit;
+
+  private final List<Result> results = new ArrayList<>();
+
+  private final Set<String> retrievedIds = new HashSet<>();
+
+  private boolean exhausted = false;
+
+  /**
+   * @param submitQueryRequest - the open remote query request
+   * @param hitCount - the number of hits reported by the server for the query
+   * @param maxHitCount - the maximum number of results that will be retrieved for the query
+   */
+  NsiliQuerySession(SubmitQueryRequest submitQueryRequest, long hitCount, int maxHitCount) {
+    this.submitQueryRequest = submitQueryRequest;
+    this.hitCount = hitCount;
+    this.resultLimit = (int) Math.max(0, Math.min(hitCount, maxHitCount));
+  }
+
+  SubmitQueryRequest getSubmitQueryRequest() {
+    return submitQueryRequest;
+  }
+
+  long getHitCount() {
+    return hitCount;
+  }
+
+  int getRetrievedCount() {
+    return results.size();
+  }
+
+  /**
+   * Returns the number of results that still have to be retrieved from the server before the
+   * results up to {@code endIndex} (exclusive, 0-based) are available, or 0 when they already are
+   * or the server has no more results to return.
+   */
+  int getRemainingCount(int endIndex) {
+    if (exhausted) {
+      return 0;
+    }
+    return Math.max(0, Math.min(endIndex, resultLimit) - results.size());
+  }
+
+  /**
+   * Appends the next window of converted results, unless the window starts with a result that was
+   * already retrieved. Servers that do not continue the query from the previous window return the
+   * first window again, which would otherwise be served as the following page.
+   *
+   * @param converted - the converted results, in server order
+   * @param received - the number of DAGs the server returned for the window
+   * @param requested - the number of DAGs that were requested for the window
+   * @return - false if the window repeats retrieved results and was not added
+   */
+  boolean addResults(List<Result> converted, int received, int requested) {
+    if (!converted.isEmpty() && retrievedIds.contains(getId(converted.get(0)))) {
+      exhausted = true;
+      return false;
+    }
+
+    for (Result result : converted) {
+      String id = getId(result);
+      if (id != null) {
+        retrievedIds.add(id);
+      }
+    }
+    results.addAll(converted);
+    if (received < requested || results.size() >= resultLimit) {
+      exhausted = true;
+    }
+    return true;
+  }
+
+  /**
+   * Returns a copy of the retrieved results in the window starting at {@code offset} (0-based).
+   */
+  List<Result> getResults(int offset, int count) {
+    int from = Math.max(0, offset);
+    int to = (int) Math.min((long) from + count, Math.min(results.size(), resultLimit));
+    if (from >= to) {
+      return Collections.emptyList();
+    }
+    return new ArrayList<>(results.subList(from, to));
+  }
+
+  private static String getId(Result result) {
+    return result.getMetacard() == null ? null : result.getMetacard().getId();
+  }
+
+  /** Cancels the remote query request so the server can release it. */
+  void close() {
+    try {
+      submitQueryRequest.cancel();
+    } catch (ProcessingFault | SystemFault e) {
+      LOGGER.debug(
+          "Unable to cancel query request. {}", NsilCorbaExceptionUtil.getExceptionDetails(e), e);
+    } catch (RuntimeException e) {
+      LOGGER.debug("Unable to cancel query request.", e);
+    }
+  }
+}
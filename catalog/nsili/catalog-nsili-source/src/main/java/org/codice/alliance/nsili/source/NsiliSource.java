@@ -13,6 +13,10 @@
  */
 package org.codice.alliance.nsili.source;
 
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import ddf.catalog.data.ContentType;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
@@ -132,6 +136,8 @@ public class NsiliSource extends MaskableImpl
 
   public static final String ACCESS_LICENSE_KEY = "accessLicenseKey";
 
+  public static final String QUERY_SESSION_TIMEOUT = "querySessionTimeout";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(NsiliSource.class);
 
   private static final String DESCRIBABLE_PROPERTIES_FILE = "/describable.properties";
@@ -168,6 +174,12 @@ public class NsiliSource extends MaskableImpl
 
   private static final String FTP_SCHEME = "ftp";
 
+  private static final int DEFAULT_QUERY_SESSION_TIMEOUT = 300;
+
+  static final int MAX_QUERY_SESSIONS = 20;
+
+  private static final long QUERY_SESSION_CLEANUP_INTERVAL = 30;
+
   private static Library library;
 
   private static Properties describableProperties = new Properties();
@@ -210,6 +222,8 @@ public class NsiliSource extends MaskableImpl
 
   private ScheduledFuture<?> availabilityPollFuture;
 
+  private ScheduledFuture<?> querySessionCleanupFuture;
+
   private ScheduledExecutorService scheduler;
 
   private Integer pollInterval;
@@ -258,6 +272,16 @@ public class NsiliSource extends MaskableImpl
 
   private MetacardType nsiliMetacardType = null;
 
+  private int querySessionTimeout = DEFAULT_QUERY_SESSION_TIMEOUT;
+
+  private Ticker querySessionTicker = Ticker.systemTicker();
+
+  private volatile Cache<String, NsiliQuerySession> querySessions =
+      createQuerySessionCache(DEFAULT_QUERY_SESSION_TIMEOUT);
+
+  /** Set when the server was found to not continue a query from its previous window. */
+  private volatile boolean querySessionsUnsupported = false;
+
   private ClientFactoryFactory clientFactoryFactory;
 
   static {
@@ -295,6 +319,7 @@ public class NsiliSource extends MaskableImpl
     corbaOrb.addCorbaServiceListener(this);
     initCorbaClient();
     setupAvailabilityPoll();
+    setupQuerySessionCleanup();
   }
 
   @Override
@@ -305,6 +330,7 @@ public class NsiliSource extends MaskableImpl
 
   @Override
   public void corbaShutdown() {
+    querySessions.invalidateAll();
     orb = null;
     corbaOrb = null;
   }
@@ -637,7 +663,11 @@ public class NsiliSource extends MaskableImpl
       corbaOrb.removeCorbaServiceListener(this);
     }
     availabilityPollFuture.cancel(true);
+    if (querySessionCleanupFuture != null) {
+      querySessionCleanupFuture.cancel(true);
+    }
     scheduler.shutdownNow();
+    querySessions.invalidateAll();
   }
 
   public void refresh(Map<String, Object> configuration) {
@@ -692,6 +722,10 @@ public class NsiliSource extends MaskableImpl
     if (StringUtils.isNotBlank(accessLicenseKey)) {
       setAccessLicenseKey(accessLicenseKey);
     }
+    Integer querySessionTimeout = (Integer) configuration.get(QUERY_SESSION_TIMEOUT);
+    if (querySessionTimeout != null && querySessionTimeout != this.querySessionTimeout) {
+      setQuerySessionTimeout(querySessionTimeout);
+    }
     init();
   }
 
@@ -768,7 +802,9 @@ public class NsiliSource extends MaskableImpl
   }
 
   /**
-   * Submits and completes a BQS Query to the STANAG 4559 server and returns the response.
+   * Submits and completes a BQS Query to the STANAG 4559 server and returns the response. When
+   * query sessions are enabled and supported by the server the query is answered from a paged query
+   * session instead.
    *
    * @param queryRequest - the query request generated from the search
    * @param query - a BQS query
@@ -783,6 +819,18 @@ public class NsiliSource extends MaskableImpl
       String[] resultAttributes,
       SortAttribute[] sortAttributes,
       NameValue[] properties) {
+    if (querySessionTimeout > 0 && !querySessionsUnsupported) {
+      return submitPagedQuery(queryRequest, query, resultAttributes, sortAttributes, properties);
+    }
+    return submitUnpagedQuery(queryRequest, query, resultAttributes, sortAttributes, properties);
+  }
+
+  private SourceResponse submitUnpagedQuery(
+      QueryRequest queryRequest,
+      org.codice.alliance.nsili.common.GIAS.Query query,
+      String[] resultAttributes,
+      SortAttribute[] sortAttributes,
+      NameValue[] properties) {
     DAGListHolder dagListHolder = new DAGListHolder();
 
     SourceResponseImpl sourceResponse = null;
@@ -825,22 +873,7 @@ public class NsiliSource extends MaskableImpl
       List<Future> futures = new ArrayList<>(dagListHolder.value.length);
 
       for (DAG dag : dagListHolder.value) {
-        Callable<Result> convertRunner =
-            () -> {
-              DAGConverter dagConverter = new DAGConverter(resourceReader);
-              dagConverter.setNsiliMetacardType(nsiliMetacardType);
-              Metacard card = dagConverter.convertDAG(dag, swapCoordinates, id);
-              if (card != null) {
-                if (LOGGER.isTraceEnabled()) {
-                  DAGConverter.logMetacard(card, getId());
-                }
-                return new ResultImpl(card);
-              } else {
-                LOGGER.debug(
-                    "{} : Unable to convert DAG to metacard, returned card is null", getId());
-              }
-              return null;
-            };
+        Callable<Result> convertRunner = () -> convertDag(dag, id);
         futures.add(completionService.submit(convertRunner));
       }
 
@@ -866,6 +899,239 @@ public class NsiliSource extends MaskableImpl
     return sourceResponse;
   }
 
+  /**
+   * Answers a query from the query session for the given BQS query and sort order, opening a new
+   * session on the server if none is active or the first page is requested. Only the results needed
+   * to fill the requested page are retrieved from the server; pages that were already retrieved are
+   * served from the session. If the server returns results that were already retrieved instead of
+   * the next window, query sessions are no longer used and the query is submitted unpaged.
+   *
+   * @param queryRequest - the query request generated from the search
+   * @param query - a BQS query
+   * @param resultAttributes - a list of desired result attributes
+   * @param sortAttributes - a list of attributes to sort by
+   * @param properties - a list of properties for the query
+   * @return - the requested page of results
+   */
+  private SourceResponse submitPagedQuery(
+      QueryRequest queryRequest,
+      org.codice.alliance.nsili.common.GIAS.Query query,
+      String[] resultAttributes,
+      SortAttribute[] sortAttributes,
+      NameValue[] properties) {
+    int startIndex = Math.max(queryRequest.getQuery().getStartIndex(), 1);
+    int pageSize = queryRequest.getQuery().getPageSize();
+    if (pageSize <= 0) {
+      pageSize = maxHitCount;
+    }
+    int endIndex = (int) Math.min((long) startIndex - 1 + pageSize, Integer.MAX_VALUE);
+
+    String sessionKey = getQuerySessionKey(query, sortAttributes);
+    NsiliQuerySession session;
+    synchronized (queryLockObj) {
+      if (startIndex == 1) {
+        // The first page starts a new search, which must not be answered with stale results
+        querySessions.invalidate(sessionKey);
+      }
+      session = querySessions.getIfPresent(sessionKey);
+      if (session == null) {
+        session = openQuerySession(query, resultAttributes, sortAttributes, properties);
+        if (session == null) {
+          return null;
+        }
+        querySessions.put(sessionKey, session);
+      }
+    }
+
+    List<Result> results;
+    boolean windowRepeated = false;
+    synchronized (session) {
+      int remaining = session.getRemainingCount(endIndex);
+      while (remaining > 0) {
+        DAG[] dags = completeDagResults(session.getSubmitQueryRequest(), remaining);
+        if (dags == null) {
+          querySessions.asMap().remove(sessionKey, session);
+          break;
+        }
+        if (!session.addResults(convertDags(dags), dags.length, remaining)) {
+          windowRepeated = true;
+          break;
+        }
+        remaining = session.getRemainingCount(endIndex);
+      }
+      results = session.getResults(startIndex - 1, pageSize);
+      LOGGER.debug(
+          "{} : Returning {} result(s) from index {}, {} result(s) retrieved for the query.",
+          getId(),
+          results.size(),
+          startIndex,
+          session.getRetrievedCount());
+    }
+
+    if (windowRepeated) {
+      LOGGER.info(
+          "{} : Server returned results of a previous window when continuing a query, query "
+              + "sessions will not be used for it.",
+          getId());
+      querySessionsUnsupported = true;
+      querySessions.invalidateAll();
+      return submitUnpagedQuery(queryRequest, query, resultAttributes, sortAttributes, properties);
+    }
+
+    return new SourceResponseImpl(queryRequest, results, session.getHitCount());
+  }
+
+  /**
+   * Obtains the hit count for a query and submits it to the server, without retrieving any
+   * results. Must be called while holding the query lock.
+   *
+   * @return - the new query session, or null if the query could not be submitted
+   */
+  private NsiliQuerySession openQuerySession(
+      org.codice.alliance.nsili.common.GIAS.Query query,
+      String[] resultAttributes,
+      SortAttribute[] sortAttributes,
+      NameValue[] properties) {
+    try {
+      LOGGER.debug("{} : Submit query: {}", sourceId, query.bqs_query);
+      LOGGER.debug("{} : Requesting result attributes: {}", sourceId, resultAttributes);
+      LOGGER.debug("{} : Sort Attributes: {}", sourceId, sortAttributes);
+      LOGGER.debug("{} : Properties: {}", sourceId, properties);
+      HitCountRequest hitCountRequest = catalogMgr.hit_count(query, properties);
+      IntHolder hitHolder = new IntHolder();
+      hitCountRequest.complete(hitHolder);
+      SubmitQueryRequest submitQueryRequest;
+      if (hitHolder.value > 1) {
+        submitQueryRequest =
+            catalogMgr.submit_query(query, resultAttributes, sortAttributes, properties);
+      } else {
+        submitQueryRequest =
+            catalogMgr.submit_query(
+                query, resultAttributes, new SortAttribute[0], new NameValue[0]);
+      }
+      submitQueryRequest.set_user_info(ddfOrgName);
+      return new NsiliQuerySession(submitQueryRequest, hitHolder.value, maxHitCount);
+    } catch (ProcessingFault | SystemFault | InvalidInputParameter e) {
+      LOGGER.debug(
+          "{} : Unable to query source. {}",
+          sourceId,
+          NsilCorbaExceptionUtil.getExceptionDetails(e),
+          e);
+    }
+    return null;
+  }
+
+  /**
+   * Retrieves the next window of results from an open query request.
+   *
+   * @param submitQueryRequest - the open query request
+   * @param numberOfHits - the maximum number of results to retrieve
+   * @return - the retrieved DAGs, or null if the results could not be retrieved
+   */
+  private DAG[] completeDagResults(SubmitQueryRequest submitQueryRequest, int numberOfHits) {
+    DAGListHolder dagListHolder = new DAGListHolder();
+    try {
+      synchronized (queryLockObj) {
+        submitQueryRequest.set_number_of_hits(numberOfHits);
+        submitQueryRequest.complete_DAG_results(dagListHolder);
+      }
+    } catch (ProcessingFault | SystemFault | InvalidInputParameter e) {
+      LOGGER.debug(
+          "{} : Unable to retrieve query results. {}",
+          sourceId,
+          NsilCorbaExceptionUtil.getExceptionDetails(e),
+          e);
+      return null;
+    }
+
+    if (dagListHolder.value == null) {
+      LOGGER.debug("{} : Source returned empty DAG list", getId());
+      return new DAG[0];
+    }
+    return dagListHolder.value;
+  }
+
+  /** Converts DAGs to results in parallel, keeping the order in which the server returned them. */
+  private List<Result> convertDags(DAG[] dags) {
+    String id = getId();
+    List<Future<Result>> futures = new ArrayList<>(dags.length);
+    for (DAG dag : dags) {
+      futures.add(executorService.submit(() -> convertDag(dag, id)));
+    }
+
+    List<Result> results = new ArrayList<>(dags.length);
+    for (Future<Result> future : futures) {
+      try {
+        Result result = future.get();
+        if (result != null) {
+          results.add(result);
+        }
+      } catch (ExecutionException e) {
+        LOGGER.debug("Unable to create result.", e);
+      } catch (InterruptedException e) {
+        futures.forEach(remaining -> remaining.cancel(true));
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    return results;
+  }
+
+  Result convertDag(DAG dag, String id) {
+    DAGConverter dagConverter = new DAGConverter(resourceReader);
+    dagConverter.setNsiliMetacardType(nsiliMetacardType);
+    Metacard card = dagConverter.convertDAG(dag, swapCoordinates, id);
+    if (card != null) {
+      if (LOGGER.isTraceEnabled()) {
+        DAGConverter.logMetacard(card, getId());
+      }
+      return new ResultImpl(card);
+    } else {
+      LOGGER.debug("{} : Unable to convert DAG to metacard, returned card is null", getId());
+    }
+    return null;
+  }
+
+  private static String getQuerySessionKey(
+      org.codice.alliance.nsili.common.GIAS.Query query, SortAttribute[] sortAttributes) {
+    StringBuilder key = new StringBuilder(query.view).append('\n').append(query.bqs_query);
+    for (SortAttribute sortAttribute : sortAttributes) {
+      key.append('\n')
+          .append(sortAttribute.attribute_name)
+          .append(' ')
+          .append(sortAttribute.sort_polarity.value());
+    }
+    return key.toString();
+  }
+
+  private Cache<String, NsiliQuerySession> createQuerySessionCache(int timeoutSeconds) {
+    RemovalListener<String, NsiliQuerySession> closeSession =
+        notification -> {
+          synchronized (queryLockObj) {
+            notification.getValue().close();
+          }
+        };
+    return CacheBuilder.newBuilder()
+        .maximumSize(MAX_QUERY_SESSIONS)
+        .expireAfterAccess(Math.max(timeoutSeconds, 1), TimeUnit.SECONDS)
+        .ticker(querySessionTicker)
+        .removalListener(closeSession)
+        .build();
+  }
+
+  private void setupQuerySessionCleanup() {
+    if (querySessionCleanupFuture == null || querySessionCleanupFuture.isCancelled()) {
+      // Expired sessions are otherwise only removed when the cache is next used, which would
+      // leave the remote query requests open while the source is idle.
+      querySessionCleanupFuture =
+          scheduler.scheduleWithFixedDelay(
+              () -> querySessions.cleanUp(),
+              QUERY_SESSION_CLEANUP_INTERVAL,
+              QUERY_SESSION_CLEANUP_INTERVAL,
+              TimeUnit.SECONDS);
+    }
+  }
+
   private void setFilterDelegate() {
     nsiliFilterDelegate =
         new NsiliFilterDelegate(queryableAttributes, NsiliConstants.NSIL_ALL_VIEW);
@@ -980,6 +1246,7 @@ public class NsiliSource extends MaskableImpl
 
   public void setMaxHitCount(Integer maxHitCount) {
     this.maxHitCount = maxHitCount;
+    querySessions.invalidateAll();
   }
 
   public void setCorbaOrb(CorbaOrb corbaOrb) {
@@ -1071,6 +1338,30 @@ public class NsiliSource extends MaskableImpl
     }
   }
 
+  public int getQuerySessionTimeout() {
+    return querySessionTimeout;
+  }
+
+  /**
+   * Sets the number of seconds a paged query session is kept open on the server after its last use.
+   * A value of 0 disables query sessions, so every query is submitted to the server again.
+   */
+  public void setQuerySessionTimeout(int querySessionTimeout) {
+    Cache<String, NsiliQuerySession> previousSessions = querySessions;
+    this.querySessionTimeout = querySessionTimeout;
+    querySessions = createQuerySessionCache(querySessionTimeout);
+    querySessionsUnsupported = false;
+    previousSessions.invalidateAll();
+  }
+
+  /** Sets the time source used to expire idle query sessions. Used for testing. */
+  void setQuerySessionTicker(Ticker querySessionTicker) {
+    Cache<String, NsiliQuerySession> previousSessions = querySessions;
+    this.querySessionTicker = querySessionTicker;
+    querySessions = createQuerySessionCache(querySessionTimeout);
+    previousSessions.invalidateAll();
+  }
+
   public void setResourceReader(ResourceReader resourceReader) {
     this.resourceReader = resourceReader;
   }
@@ -1085,6 +1376,8 @@ public class NsiliSource extends MaskableImpl
 
   public void setCatalogMgr(CatalogMgr catalogMgr) {
     this.catalogMgr = catalogMgr;
+    querySessionsUnsupported = false;
+    querySessions.invalidateAll();
   }
 
   public void setOrderMgr(OrderMgr orderMgr) {
@@ -14,16 +14,27 @@
 package org.codice.alliance.nsili.source;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Ticker;
 import ddf.catalog.data.Metacard;
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.MetacardImpl;
+import ddf.catalog.data.impl.ResultImpl;
 import ddf.catalog.filter.impl.SortByImpl;
 import ddf.catalog.filter.proxy.adapter.GeotoolsFilterAdapterImpl;
 import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
@@ -36,13 +47,23 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import javax.ws.rs.core.Response;
+import org.codice.alliance.nsili.common.CorbaUtils;
+import org.codice.alliance.nsili.common.GIAS.AccessCriteria;
 import org.codice.alliance.nsili.common.GIAS.AttributeInformation;
 import org.codice.alliance.nsili.common.GIAS.AttributeType;
 import org.codice.alliance.nsili.common.GIAS.CatalogMgr;
+import org.codice.alliance.nsili.common.GIAS.CatalogMgrHelper;
 import org.codice.alliance.nsili.common.GIAS.DataModelMgr;
 import org.codice.alliance.nsili.common.GIAS.Domain;
 import org.codice.alliance.nsili.common.GIAS.HitCountRequest;
+import org.codice.alliance.nsili.common.GIAS.Library;
+import org.codice.alliance.nsili.common.GIAS.LibraryHelper;
 import org.codice.alliance.nsili.common.GIAS.Polarity;
 import org.codice.alliance.nsili.common.GIAS.Query;
 import org.codice.alliance.nsili.common.GIAS.RequirementMode;
@@ -51,11 +72,15 @@ import org.codice.alliance.nsili.common.GIAS.SubmitQueryRequest;
 import org.codice.alliance.nsili.common.GIAS.View;
 import org.codice.alliance.nsili.common.Nsili;
 import org.codice.alliance.nsili.common.NsiliConstants;
+import org.codice.alliance.nsili.common.NsiliManagerType;
 import org.codice.alliance.nsili.common.UCO.DAG;
 import org.codice.alliance.nsili.common.UCO.DAGListHolder;
 import org.codice.alliance.nsili.common.UCO.NameValue;
 import org.codice.alliance.nsili.common.UCO.State;
 import org.codice.alliance.nsili.common.UCO.Status;
+import org.codice.alliance.nsili.mockserver.data.DAGGenerator;
+import org.codice.alliance.nsili.mockserver.impl.LibraryImpl;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 import org.codice.ddf.cxf.client.SecureCxfClientFactory;
 import org.codice.ddf.spatial.ogc.catalog.common.AvailabilityTask;
 import org.junit.After;
@@ -66,6 +91,8 @@ import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.omg.CORBA.IntHolder;
 import org.omg.CORBA.ORB;
+import org.omg.PortableServer.POA;
+import org.omg.PortableServer.POAHelper;
 import org.opengis.filter.sort.SortBy;
 import org.opengis.filter.sort.SortOrder;
 
@@ -108,6 +135,8 @@ public class NsiliSourceTest {
   private HashMap<String, List<AttributeInformation>> attributeInformationMap =
       getAttributeInformationMap();
 
+  private List<DAG> pagedDags;
+
   @Before
   public void setUp() throws Exception {
     orb = ORB.init(new String[0], null);
@@ -344,6 +373,381 @@ public class NsiliSourceTest {
     assertChangedConfiguration(source, GMTI, 0);
   }
 
+  @Test
+  public void testPagedQueryRetrievesOnlyRequestedPage() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+
+    SourceResponse firstPage = source.query(getPageRequest(1, 25));
+    SourceResponse secondPage = source.query(getPageRequest(26, 25));
+
+    assertThat(firstPage.getHits(), is(100L));
+    assertThat(getResultIds(firstPage), is(getExpectedIds(0, 25)));
+    assertThat(getResultIds(secondPage), is(getExpectedIds(25, 50)));
+    verify(catalogMgr).hit_count(any(Query.class), any(NameValue[].class));
+    verify(catalogMgr)
+        .submit_query(
+            any(Query.class),
+            any(String[].class),
+            any(SortAttribute[].class),
+            any(NameValue[].class));
+    verify(submitQueryRequest, times(2)).set_number_of_hits(25);
+    verify(submitQueryRequest, times(2)).complete_DAG_results(any(DAGListHolder.class));
+  }
+
+  @Test
+  public void testPagedQueryReusesRetrievedPages() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+
+    source.query(getPageRequest(1, 25));
+    source.query(getPageRequest(51, 25));
+    SourceResponse secondPage = source.query(getPageRequest(26, 25));
+
+    assertThat(getResultIds(secondPage), is(getExpectedIds(25, 50)));
+    verify(submitQueryRequest).set_number_of_hits(25);
+    verify(submitQueryRequest).set_number_of_hits(50);
+    verify(submitQueryRequest, times(2)).complete_DAG_results(any(DAGListHolder.class));
+  }
+
+  @Test
+  public void testFirstPageStartsNewSession() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+
+    source.query(getPageRequest(1, 25));
+    source.query(getPageRequest(26, 25));
+    SourceResponse firstPage = source.query(getPageRequest(1, 25));
+
+    assertThat(getResultIds(firstPage), is(getExpectedIds(0, 25)));
+    verify(submitQueryRequest).cancel();
+    verify(catalogMgr, times(2))
+        .submit_query(
+            any(Query.class),
+            any(String[].class),
+            any(SortAttribute[].class),
+            any(NameValue[].class));
+  }
+
+  @Test
+  public void testServerRepeatingWindowDisablesQuerySessions() throws Exception {
+    // Servers that do not continue the query return the first window again
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+    int[] windowSize = {0};
+    doAnswer(
+            invocationOnMock -> {
+              windowSize[0] = (int) invocationOnMock.getArguments()[0];
+              return null;
+            })
+        .when(submitQueryRequest)
+        .set_number_of_hits(anyInt());
+    doAnswer(
+            invocationOnMock -> {
+              DAGListHolder dagListHolder = (DAGListHolder) invocationOnMock.getArguments()[0];
+              dagListHolder.value =
+                  pagedDags
+                      .subList(0, Math.min(windowSize[0], pagedDags.size()))
+                      .toArray(new DAG[0]);
+              return State.COMPLETED;
+            })
+        .when(submitQueryRequest)
+        .complete_DAG_results(any(DAGListHolder.class));
+
+    SourceResponse firstPage = source.query(getPageRequest(1, 25));
+    SourceResponse secondPage = source.query(getPageRequest(26, 25));
+    source.query(getPageRequest(51, 25));
+
+    assertThat(getResultIds(firstPage), is(getExpectedIds(0, 25)));
+    assertThat(secondPage.getResults().size(), is(100));
+    verify(submitQueryRequest).cancel();
+    verify(submitQueryRequest, times(2)).set_number_of_hits(25);
+    verify(submitQueryRequest, times(2)).set_number_of_hits(MAX_HIT_COUNT);
+  }
+
+  @Test
+  public void testQuerySessionsAreBounded() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+
+    for (int i = 0; i <= NsiliSource.MAX_QUERY_SESSIONS; i++) {
+      source.query(getPageRequest("query" + i, 1, 25));
+    }
+
+    verify(submitQueryRequest, atLeastOnce()).cancel();
+  }
+
+  @Test
+  public void testPagedQueryStopsAtLastResult() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(30);
+
+    SourceResponse lastPage = source.query(getPageRequest(26, 25));
+    SourceResponse pastLastPage = source.query(getPageRequest(51, 25));
+
+    assertThat(getResultIds(lastPage), is(getExpectedIds(25, 30)));
+    assertThat(pastLastPage.getResults(), is(empty()));
+    verify(submitQueryRequest).set_number_of_hits(30);
+    verify(submitQueryRequest).complete_DAG_results(any(DAGListHolder.class));
+  }
+
+  @Test
+  public void testPagedQueryLimitedToMaxHitCount() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+    source.setMaxHitCount(40);
+
+    SourceResponse page = source.query(getPageRequest(26, 25));
+
+    assertThat(page.getHits(), is(100L));
+    assertThat(getResultIds(page), is(getExpectedIds(25, 40)));
+    verify(submitQueryRequest).set_number_of_hits(40);
+  }
+
+  @Test
+  public void testPagedQueryIgnoringWindowSize() throws Exception {
+    // Servers that ignore set_number_of_hits return every result in the first window
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(30);
+    doAnswer(
+            invocationOnMock -> {
+              DAGListHolder dagListHolder = (DAGListHolder) invocationOnMock.getArguments()[0];
+              dagListHolder.value = pagedDags.toArray(new DAG[0]);
+              return State.COMPLETED;
+            })
+        .when(submitQueryRequest)
+        .complete_DAG_results(any(DAGListHolder.class));
+
+    SourceResponse firstPage = source.query(getPageRequest(1, 10));
+    SourceResponse lastPage = source.query(getPageRequest(21, 10));
+
+    assertThat(getResultIds(firstPage), is(getExpectedIds(0, 10)));
+    assertThat(getResultIds(lastPage), is(getExpectedIds(20, 30)));
+    verify(submitQueryRequest).complete_DAG_results(any(DAGListHolder.class));
+  }
+
+  @Test
+  public void testDifferentQueriesUseSeparateSessions() throws Exception {
+    setupPagedQuery(100);
+
+    source.query(getPageRequest(1, 25));
+    QueryRequestImpl otherQuery = getPageRequest(1, 25);
+    ((QueryImpl) otherQuery.getQuery())
+        .setSortBy(new SortByImpl(Metacard.MODIFIED, SortOrder.ASCENDING));
+    source.query(otherQuery);
+
+    verify(catalogMgr, times(2))
+        .submit_query(
+            any(Query.class),
+            any(String[].class),
+            any(SortAttribute[].class),
+            any(NameValue[].class));
+  }
+
+  @Test
+  public void testIdleQuerySessionIsClosed() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+    AtomicLong nanos = new AtomicLong();
+    source.setQuerySessionTicker(
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos.get();
+          }
+        });
+    source.setQuerySessionTimeout(1);
+
+    source.query(getPageRequest(1, 25));
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+    SourceResponse secondPage = source.query(getPageRequest(26, 25));
+
+    assertThat(getResultIds(secondPage), is(getExpectedIds(25, 50)));
+    verify(submitQueryRequest).cancel();
+    verify(catalogMgr, times(2))
+        .submit_query(
+            any(Query.class),
+            any(String[].class),
+            any(SortAttribute[].class),
+            any(NameValue[].class));
+  }
+
+  @Test
+  public void testPagedQueryAgainstMockServer() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(MockNsiliConfiguration.PRODUCT_COUNT, "60");
+    MockNsiliConfiguration configuration = new MockNsiliConfiguration(properties);
+    CatalogMgr mockServerCatalogMgr = spy(getMockServerCatalogMgr(configuration));
+    source.setCatalogMgr(mockServerCatalogMgr);
+    doAnswer(
+            invocationOnMock -> {
+              MetacardImpl metacard = new MetacardImpl();
+              metacard.setId(getProductId((DAG) invocationOnMock.getArguments()[0]));
+              return new ResultImpl(metacard);
+            })
+        .when(source)
+        .convertDag(any(DAG.class), anyString());
+
+    SourceResponse firstPage = source.query(getPageRequest(1, 25));
+    SourceResponse secondPage = source.query(getPageRequest(26, 25));
+    SourceResponse lastPage = source.query(getPageRequest(51, 25));
+
+    assertThat(firstPage.getHits(), is(60L));
+    assertThat(getResultIds(firstPage), is(getProductIds(configuration, 0, 25)));
+    assertThat(getResultIds(secondPage), is(getProductIds(configuration, 25, 50)));
+    assertThat(getResultIds(lastPage), is(getProductIds(configuration, 50, 60)));
+    verify(mockServerCatalogMgr)
+        .submit_query(
+            any(Query.class),
+            any(String[].class),
+            any(SortAttribute[].class),
+            any(NameValue[].class));
+  }
+
+  @Test
+  public void testQuerySessionsDisabled() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+    source.setQuerySessionTimeout(0);
+
+    source.query(getPageRequest(1, 25));
+    source.query(getPageRequest(26, 25));
+
+    verify(catalogMgr, times(2))
+        .submit_query(
+            any(Query.class),
+            any(String[].class),
+            any(SortAttribute[].class),
+            any(NameValue[].class));
+    verify(submitQueryRequest, times(2)).set_number_of_hits(MAX_HIT_COUNT);
+    verify(submitQueryRequest, never()).set_number_of_hits(25);
+  }
+
+  @Test
+  public void testQuerySessionsClosedOnDestroy() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+    source.setupAvailabilityPoll();
+
+    source.query(getPageRequest(1, 25));
+    source.destroy();
+
+    verify(submitQueryRequest).cancel();
+  }
+
+  @Test
+  public void testRefreshQuerySessionTimeout() throws Exception {
+    SubmitQueryRequest submitQueryRequest = setupPagedQuery(100);
+    source.query(getPageRequest(1, 25));
+
+    HashMap<String, Object> configuration = new HashMap<>();
+    configuration.put(NsiliSource.QUERY_SESSION_TIMEOUT, 60);
+    source.refresh(configuration);
+
+    assertThat(source.getQuerySessionTimeout(), is(60));
+    verify(submitQueryRequest).cancel();
+  }
+
+  /**
+   * Sets up the catalog manager to behave like a NSILI server holding {@code hits} results, where
+   * each complete_DAG_results call returns the next window of the size set by set_number_of_hits.
+   */
+  private SubmitQueryRequest setupPagedQuery(int hits) throws Exception {
+    pagedDags = IntStream.range(0, hits).mapToObj(i -> new DAG()).collect(Collectors.toList());
+    SubmitQueryRequest submitQueryRequest = mock(SubmitQueryRequest.class);
+    HitCountRequest hitCountRequest = mock(HitCountRequest.class);
+    int[] windowSize = {0};
+    int[] returned = {0};
+
+    doAnswer(
+            invocationOnMock -> {
+              IntHolder intHolder = (IntHolder) invocationOnMock.getArguments()[0];
+              intHolder.value = hits;
+              return State.COMPLETED;
+            })
+        .when(hitCountRequest)
+        .complete(any(IntHolder.class));
+    doAnswer(
+            invocationOnMock -> {
+              windowSize[0] = (int) invocationOnMock.getArguments()[0];
+              return null;
+            })
+        .when(submitQueryRequest)
+        .set_number_of_hits(anyInt());
+    doAnswer(
+            invocationOnMock -> {
+              DAGListHolder dagListHolder = (DAGListHolder) invocationOnMock.getArguments()[0];
+              int end = Math.min(returned[0] + windowSize[0], hits);
+              dagListHolder.value = pagedDags.subList(returned[0], end).toArray(new DAG[0]);
+              returned[0] = end;
+              return State.COMPLETED;
+            })
+        .when(submitQueryRequest)
+        .complete_DAG_results(any(DAGListHolder.class));
+
+    doAnswer(
+            invocationOnMock -> {
+              returned[0] = 0;
+              return submitQueryRequest;
+            })
+        .when(catalogMgr)
+        .submit_query(
+            any(Query.class),
+            any(String[].class),
+            any(SortAttribute[].class),
+            any(NameValue[].class));
+    doReturn(hitCountRequest).when(catalogMgr).hit_count(any(Query.class), any(NameValue[].class));
+
+    doAnswer(
+            invocationOnMock -> {
+              MetacardImpl metacard = new MetacardImpl();
+              metacard.setId(String.valueOf(pagedDags.indexOf(invocationOnMock.getArguments()[0])));
+              return new ResultImpl(metacard);
+            })
+        .when(source)
+        .convertDag(any(DAG.class), anyString());
+    return submitQueryRequest;
+  }
+
+  /** Serves the products of the mock NSILI server from a library activated on the test ORB. */
+  private CatalogMgr getMockServerCatalogMgr(MockNsiliConfiguration configuration)
+      throws Exception {
+    POA rootPoa = POAHelper.narrow(orb.resolve_initial_references("RootPOA"));
+    rootPoa.the_POAManager().activate();
+    Library library =
+        LibraryHelper.narrow(rootPoa.servant_to_reference(new LibraryImpl(rootPoa, configuration)));
+    return CatalogMgrHelper.narrow(
+        library.get_manager(
+            NsiliManagerType.CATALOG_MGR.getSpecName(), new AccessCriteria("", "", "")));
+  }
+
+  private List<String> getProductIds(MockNsiliConfiguration configuration, int from, int to) {
+    return Arrays.stream(DAGGenerator.generateProducts(orb, configuration, from, to))
+        .map(this::getProductId)
+        .collect(Collectors.toList());
+  }
+
+  private String getProductId(DAG dag) {
+    return Arrays.stream(dag.nodes)
+        .filter(node -> NsiliConstants.IDENTIFIER_UUID.equals(node.attribute_name))
+        .map(node -> CorbaUtils.getNodeValue(node.value))
+        .findFirst()
+        .orElse(null);
+  }
+
+  private QueryRequestImpl getPageRequest(int startIndex, int pageSize) {
+    return getPageRequest("*", startIndex, pageSize);
+  }
+
+  private QueryRequestImpl getPageRequest(String text, int startIndex, int pageSize) {
+    QueryImpl query = new QueryImpl(builder.attribute(Metacard.ANY_TEXT).is().like().text(text));
+    query.setStartIndex(startIndex);
+    query.setPageSize(pageSize);
+    return new QueryRequestImpl(query);
+  }
+
+  private List<String> getResultIds(SourceResponse sourceResponse) {
+    return sourceResponse
+        .getResults()
+        .stream()
+        .map(Result::getMetacard)
+        .map(Metacard::getId)
+        .collect(Collectors.toList());
+  }
+
+  private List<String> getExpectedIds(int from, int to) {
+    return IntStream.range(from, to).mapToObj(String::valueOf).collect(Collectors.toList());
+  }
+
   private NsiliSource buildSource() throws Exception {
     NsiliSource source;
     Nsili nsili = mock(Nsili.class);
@@ -15,9 +15,9 @@ package org.codice.alliance.security.banner.marking;
 
 import com.google.common.collect.ImmutableList;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
@@ -25,15 +25,13 @@ import org.slf4j.LoggerFactory;
 
 /** Atomic Energy Act marking parser. */
 public class AeaMarking implements Serializable {
-  private static final Pattern SIGMAS_PATTERN = Pattern.compile(" ");
-
   private static final Logger LOGGER = LoggerFactory.getLogger(AeaMarking.class);
 
-  private AeaType type;
+  private final AeaType type;
 
-  private boolean criticalNuclearWeaponDesignInformation;
+  private final boolean criticalNuclearWeaponDesignInformation;
 
-  private List<Integer> sigmas;
+  private final List<Integer> sigmas;
 
   /**
    * Parses and instantiates an AEA marking class from marking string.
@@ -43,7 +41,7 @@ public class AeaMarking implements Serializable {
   public AeaMarking(String marking) {
     type = AeaType.lookupType(marking);
 
-    String[] split = marking.split("[-]");
+    String[] split = MarkingTokenizer.split(marking, '-');
     if (split.length == 1) {
       criticalNuclearWeaponDesignInformation = false;
       sigmas = ImmutableList.of();
@@ -58,8 +56,8 @@ public class AeaMarking implements Serializable {
       }
       sigmas =
           ImmutableList.copyOf(
-              SIGMAS_PATTERN
-                  .splitAsStream(split[1].substring(sigmaMarking.length()).trim())
+              Arrays.stream(
+                      MarkingTokenizer.split(split[1].substring(sigmaMarking.length()).trim(), ' '))
                   .map(AeaMarking::parseSigma)
                   .filter(Objects::nonNull)
                   .collect(Collectors.toList()));
@@ -15,159 +15,68 @@ package org.codice.alliance.security.banner.marking;
 
 import com.google.common.collect.ImmutableList;
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import org.apache.commons.lang.StringUtils;
 
+/**
+ * The classification in the banner marking syntax. Banner markings are immutable, so the {@link
+ * MarkingsCache} shares the parsed markings with every caller.
+ */
 public class BannerMarkings implements Serializable {
-  protected static final String NATO_FGI = "NATO";
-
-  protected static final String COSMIC_FGI = "COSMIC";
-
-  protected static final List<String> NATO_CLASS_QUALIFIERS =
-      ImmutableList.of("ATOMAL", "BALK", "BOHEMIA");
+  private final String inputMarkings;
 
-  protected static final Pattern SPACE_PATTERN = Pattern.compile(" ");
+  private final ClassificationLevel classification;
 
-  protected static final Pattern COMMA_PATTERN = Pattern.compile(",");
+  private final MarkingType type;
 
-  protected String inputMarkings;
+  private final String fgiAuthority;
 
-  protected ClassificationLevel classification;
+  private final String natoQualifier;
 
-  protected MarkingType type;
+  private final List<String> jointAuthorities;
 
-  protected String fgiAuthority;
+  private final List<String> usFgiCountryCodes;
 
-  protected String natoQualifier;
+  private final List<SciControl> sciControls;
 
-  protected List<String> jointAuthorities;
+  private final SapControl sapControl;
 
-  protected List<String> usFgiCountryCodes;
+  private final AeaMarking aeaMarking;
 
-  protected List<SciControl> sciControls;
-
-  protected SapControl sapControl = null;
-
-  protected AeaMarking aeaMarking = null;
-
-  protected List<DissemControl> disseminationControls;
+  private final List<DissemControl> disseminationControls;
 
   // 10.e.
-  protected List<String> relTo;
+  private final List<String> relTo;
 
   // 10.g.
-  protected List<String> displayOnly;
+  private final List<String> displayOnly;
 
-  protected List<OtherDissemControl> otherDissemControl;
+  private final List<OtherDissemControl> otherDissemControl;
 
   // ACCS
   // 11.b.
-  protected List<String> accm;
-
-  protected BannerMarkings(MarkingType type, String classificationSegment, String inputMarkings)
-      throws MarkingsValidationException {
-    this.type = type;
-    this.inputMarkings = inputMarkings;
-
-    switch (type) {
-      case US:
-        classification = ClassificationLevel.lookup(classificationSegment);
-        if (classification == null) {
-          classification = ClassificationLevel.lookupByShortname(classificationSegment);
-          if (classification == null) {
-            throw new MarkingsValidationException("Unknown classification marking", inputMarkings);
-          }
-        }
-        break;
-      case FGI:
-        fgiAuthority = classificationSegment.split(" ")[0];
-        classification =
-            ClassificationLevel.lookup(
-                classificationSegment.substring(fgiAuthority.length()).trim());
-        if (classification == null) {
-          switch (classificationSegment) {
-            case "NU":
-              classification = ClassificationLevel.UNCLASSIFIED;
-              fgiAuthority = NATO_FGI;
-              break;
-            case "NR":
-              classification = ClassificationLevel.RESTRICTED;
-              fgiAuthority = NATO_FGI;
-              break;
-            case "NC":
-              classification = ClassificationLevel.CONFIDENTIAL;
-              fgiAuthority = NATO_FGI;
-              break;
-            case "NS":
-              classification = ClassificationLevel.SECRET;
-              fgiAuthority = NATO_FGI;
-              break;
-            case "CTS":
-              classification = ClassificationLevel.TOP_SECRET;
-              fgiAuthority = COSMIC_FGI;
-              break;
-            default:
-              break;
-          }
-        }
-        if (classification == null) {
-          classification =
-              ClassificationLevel.lookupByShortname(
-                  classificationSegment.substring(fgiAuthority.length()).trim());
-        }
-        if (classification == null) {
-          throw new MarkingsValidationException("Unknown classification marking", inputMarkings);
-        }
-
-        break;
-      case JOINT:
-        String suffix = classificationSegment.substring("JOINT".length()).trim();
-
-        classification =
-            ClassificationLevel.lookup(
-                Arrays.stream(ClassificationLevel.values())
-                    .map(ClassificationLevel::getName)
-                    .filter(suffix::startsWith)
-                    .findFirst()
-                    .orElse(null));
-        if (classification != null) {
-          suffix = suffix.substring(classification.getName().length());
-        } else {
-          classification =
-              ClassificationLevel.lookupByShortname(
-                  Arrays.stream(ClassificationLevel.values())
-                      .map(ClassificationLevel::getShortName)
-                      .filter(suffix::startsWith)
-                      .findFirst()
-                      .orElse(null));
-          if (classification != null && classification.getShortName() != null) {
-            suffix = suffix.substring(classification.getShortName().length());
-          }
-        }
-        if (classification == null) {
-          throw new MarkingsValidationException(
-              "Unknown JOINT classification marking", inputMarkings);
-        }
-
-        List<String> allJointAuthorities =
-            SPACE_PATTERN
-                .splitAsStream(suffix)
-                .filter(StringUtils::isNotBlank)
-                .collect(Collectors.toList());
-        Collections.sort(allJointAuthorities);
-        jointAuthorities = ImmutableList.copyOf(allJointAuthorities);
-        break;
-      default:
-        break;
-    }
+  private final List<String> accm;
+
+  /**
+   * Create the markings from the state of a parser. Collections that were not parsed are empty.
+   *
+   * @param parser the parser of the markings
+   */
+  BannerMarkings(MarkingParser parser) {
+    inputMarkings = parser.inputMarkings;
+    classification = parser.classification;
+    type = parser.type;
+    fgiAuthority = parser.fgiAuthority;
+    natoQualifier = parser.natoQualifier;
+    jointAuthorities = ensureCollectionInitialized(parser.jointAuthorities);
+    usFgiCountryCodes = ensureCollectionInitialized(parser.usFgiCountryCodes);
+    sciControls = ensureCollectionInitialized(parser.sciControls);
+    sapControl = parser.sapControl;
+    aeaMarking = parser.aeaMarking;
+    disseminationControls = ensureCollectionInitialized(parser.disseminationControls);
+    relTo = ensureCollectionInitialized(parser.relTo);
+    displayOnly = ensureCollectionInitialized(parser.displayOnly);
+    otherDissemControl = ensureCollectionInitialized(parser.otherDissemControl);
+    accm = ensureCollectionInitialized(parser.accm);
   }
 
   public String getInputMarkings() {
@@ -246,200 +155,15 @@ public class BannerMarkings implements Serializable {
 
   public boolean isNato() {
     return (type == MarkingType.FGI
-        && (COSMIC_FGI.equals(fgiAuthority) || NATO_FGI.equals(fgiAuthority)));
+        && (MarkingParser.COSMIC_FGI.equals(fgiAuthority)
+            || MarkingParser.NATO_FGI.equals(fgiAuthority)));
   }
 
   public static BannerMarkings parseMarkings(String markings) throws MarkingsValidationException {
-    MarkingType type;
-    String trimmedMarkings;
-    if (markings.startsWith("//JOINT")) {
-      type = MarkingType.JOINT;
-      trimmedMarkings = markings.substring(2);
-    } else if (markings.startsWith("//")) {
-      type = MarkingType.FGI;
-      trimmedMarkings = markings.substring(2);
-    } else {
-      type = MarkingType.US;
-      trimmedMarkings = markings;
-    }
-
-    String[] split = trimmedMarkings.split("[/][/]");
-    BannerMarkings bannerMarkings = new BannerMarkings(type, split[0], markings);
-
-    List<Function<String, Boolean>> processors = new ArrayList<>();
-    if (type == MarkingType.FGI) {
-      processors.add(bannerMarkings::processNato);
-    }
-
-    processors.add(bannerMarkings::processUsFgi);
-    processors.add(bannerMarkings::processSap);
-    processors.add(bannerMarkings::processAea);
-    processors.add(bannerMarkings::processOtherDissem);
-    processors.add(bannerMarkings::processDisseminationControls);
-    processors.add(bannerMarkings::processSciControls);
-
-    for (int i = 1; i < split.length; i++) {
-      for (Function<String, Boolean> processor : processors) {
-        if (processor.apply(split[i])) {
-          break;
-        }
-      }
-    }
-
-    // Ensure that all Collection types have been initialized
-    bannerMarkings.jointAuthorities = ensureCollectionInitialized(bannerMarkings.jointAuthorities);
-    bannerMarkings.usFgiCountryCodes =
-        ensureCollectionInitialized(bannerMarkings.usFgiCountryCodes);
-    bannerMarkings.sciControls = ensureCollectionInitialized(bannerMarkings.sciControls);
-    bannerMarkings.disseminationControls =
-        ensureCollectionInitialized(bannerMarkings.disseminationControls);
-    bannerMarkings.relTo = ensureCollectionInitialized(bannerMarkings.relTo);
-    bannerMarkings.displayOnly = ensureCollectionInitialized(bannerMarkings.displayOnly);
-    bannerMarkings.otherDissemControl =
-        ensureCollectionInitialized(bannerMarkings.otherDissemControl);
-    bannerMarkings.accm = ensureCollectionInitialized(bannerMarkings.accm);
-
-    BannerValidator.validate(bannerMarkings);
-    return bannerMarkings;
-  }
-
-  protected static <T> List<T> ensureCollectionInitialized(List<T> collection) {
-    return collection == null ? ImmutableList.of() : collection;
-  }
-
-  protected boolean processSap(String segment) {
-    if ((sapControl != null)
-        || (!segment.startsWith("SAR-")
-            && !segment.startsWith("SPECIAL ACCESS REQUIRED-")
-            && !segment.equals("HVSACO"))) {
-      return false;
-    }
-
-    if (segment.equals("HVSACO")) {
-      sapControl = new SapControl();
-    } else {
-      sapControl = new SapControl(segment.split("[-]")[1]);
-    }
-    return true;
-  }
-
-  protected boolean processAea(String segment) {
-    if (aeaMarking != null || AeaType.lookupType(segment) == null) {
-      return false;
-    }
-
-    aeaMarking = new AeaMarking(segment);
-    return true;
-  }
-
-  protected boolean processUsFgi(String segment) {
-    if (usFgiCountryCodes != null
-        || (!segment.startsWith("FGI") && !segment.startsWith("FOREIGN GOVERNMENT INFORMATION"))) {
-      return false;
-    }
-
-    String suffix = null;
-    if (segment.startsWith("FGI")) {
-      suffix = segment.substring("FGI".length()).trim();
-
-    } else if (segment.startsWith("FOREIGN GOVERNMENT INFORMATION")) {
-      suffix = segment.substring("FOREIGN GOVERNMENT INFORMATION".length()).trim();
-    }
-
-    if (suffix == null || suffix.isEmpty()) {
-      usFgiCountryCodes = ImmutableList.of();
-    } else {
-      usFgiCountryCodes =
-          ImmutableList.copyOf(SPACE_PATTERN.splitAsStream(suffix).collect(Collectors.toList()));
-    }
-
-    return true;
-  }
-
-  protected boolean processNato(String segment) {
-    if (natoQualifier != null || !NATO_CLASS_QUALIFIERS.contains(segment)) {
-      return false;
-    }
-
-    natoQualifier = segment;
-    return true;
-  }
-
-  protected boolean processOtherDissem(String segment) {
-    if (otherDissemControl != null || !OtherDissemControl.prefixBannerMatch(segment)) {
-      return false;
-    }
-
-    // Process each OtherDissem control sequentially. If ACCM- is found, attempt to process
-    // the next tokens as ACCM markers unless they are in the OTHER_DISSEM set
-    String[] tokens = segment.split("[/]");
-    HashSet<OtherDissemControl> tempOther = new HashSet<>();
-    HashSet<String> tempAccm = new HashSet<>();
-    boolean processingAccm = false;
-    for (String tok : tokens) {
-      // This if/elif will leave the processingAcm as true once ACCM processing has started
-      // until a non-ACCM control is encountered
-      if (tok.startsWith("ACCM-")) {
-        processingAccm = true;
-      } else if (OtherDissemControl.lookupBannerName(tok) != null) {
-        processingAccm = false;
-      }
-
-      if (processingAccm) {
-        if (tok.startsWith("ACCM-")) {
-          tempAccm.add(tok.substring("ACCM-".length()));
-        } else {
-          tempAccm.add(tok);
-        }
-      } else {
-        tempOther.add(OtherDissemControl.lookupBannerName(tok));
-      }
-    }
-
-    otherDissemControl = ImmutableList.copyOf(tempOther);
-    accm = ImmutableList.copyOf(tempAccm);
-    return true;
+    return MarkingParser.parseBanner(markings);
   }
 
-  protected boolean processDisseminationControls(String segment) {
-    String[] split = segment.split("[/]");
-
-    if (!(split[0].startsWith("REL TO")
-        || split[0].startsWith("DISPLAY ONLY")
-        || DissemControl.lookupBannerName(split[0]) != null)) {
-      return false;
-    }
-
-    Set<DissemControl> tempDissem = new HashSet<>();
-
-    for (String s : split) {
-      if (s.startsWith("REL TO")) {
-        String suffix = s.substring("REL TO".length());
-        relTo =
-            ImmutableList.copyOf(
-                COMMA_PATTERN.splitAsStream(suffix).map(String::trim).collect(Collectors.toList()));
-      } else if (s.startsWith("DISPLAY ONLY")) {
-        String suffix = s.substring("DISPLAY ONLY".length());
-        displayOnly =
-            ImmutableList.copyOf(
-                COMMA_PATTERN.splitAsStream(suffix).map(String::trim).collect(Collectors.toList()));
-      } else {
-        tempDissem.add(DissemControl.lookupBannerName(s.trim()));
-      }
-    }
-    disseminationControls = ImmutableList.copyOf(tempDissem);
-    return true;
-  }
-
-  protected boolean processSciControls(String segment) {
-    String[] split = segment.split("[/]");
-
-    List<SciControl> tempSci = new ArrayList<>();
-    for (String s : split) {
-      tempSci.add(new SciControl(s));
-    }
-
-    sciControls = ImmutableList.copyOf(tempSci);
-    return true;
+  private static <T> List<T> ensureCollectionInitialized(List<T> collection) {
+    return collection == null ? ImmutableList.of() : ImmutableList.copyOf(collection);
   }
 }
@@ -32,8 +32,6 @@ import static org.codice.alliance.security.banner.marking.MarkingType.JOINT;
 import static org.codice.alliance.security.banner.marking.OtherDissemControl.EXDIS;
 import static org.codice.alliance.security.banner.marking.OtherDissemControl.NODIS;
 
-import com.google.common.collect.ImmutableList;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
@@ -252,10 +250,7 @@ public class BannerValidator {
       }
 
       // The correct ordering for FGI entries is alpha trigraphs followed by alpha tetragraphs
-      List<String> sortedFgi = new ArrayList<>(bannerMarkings.getUsFgiCountryCodes());
-      sortedFgi.sort(COUNTRY_CODE_COMPARATOR);
-
-      if (!ImmutableList.copyOf(sortedFgi).equals(bannerMarkings.getUsFgiCountryCodes())) {
+      if (!isOrdered(bannerMarkings.getUsFgiCountryCodes(), COUNTRY_CODE_COMPARATOR)) {
         errors.add(
             new ValidationError(
                 "FGI country codes must have alpha trigraphs followed by alpha tetragraphs",
@@ -354,10 +349,7 @@ public class BannerValidator {
 
       // The correct ordering for REL TO entries is USA first followed by alpha trigraphs
       // then by alpha tetragraphs
-      List<String> sortedRelTo = new ArrayList<>(bannerMarkings.getRelTo());
-      sortedRelTo.sort(USA_FIRST_COUNTRY_CODE_COMPARATOR);
-
-      if (!ImmutableList.copyOf(sortedRelTo).equals(bannerMarkings.getRelTo())) {
+      if (!isOrdered(bannerMarkings.getRelTo(), USA_FIRST_COUNTRY_CODE_COMPARATOR)) {
         errors.add(
             new ValidationError(
                 "REL TO country codes must have USA first followed by alpha trigraphs then alpha tetragraphs",
@@ -383,10 +375,7 @@ public class BannerValidator {
 
       // The correct ordering for DISPLAY ONLY entries is alpha trigraphs followed by alpha
       // tetragraphs
-      List<String> sortedDisplayOnly = new ArrayList<>(bannerMarkings.getDisplayOnly());
-      sortedDisplayOnly.sort(COUNTRY_CODE_COMPARATOR);
-
-      if (!ImmutableList.copyOf(sortedDisplayOnly).equals(bannerMarkings.getDisplayOnly())) {
+      if (!isOrdered(bannerMarkings.getDisplayOnly(), COUNTRY_CODE_COMPARATOR)) {
         errors.add(
             new ValidationError(
                 "DISPLAY ONLY country codes must have alpha trigraphs followed by alpha tetragraphs",
@@ -426,4 +415,17 @@ public class BannerValidator {
 
     return errors;
   }
+
+  /**
+   * Checks the order of the country codes in one pass instead of sorting a copy of the list and
+   * comparing it to the original.
+   */
+  protected static boolean isOrdered(List<String> countryCodes, Comparator<String> comparator) {
+    for (int i = 1; i < countryCodes.size(); i++) {
+      if (comparator.compare(countryCodes.get(i - 1), countryCodes.get(i)) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
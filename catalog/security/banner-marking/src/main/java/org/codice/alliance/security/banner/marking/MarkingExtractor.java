@@ -23,15 +23,17 @@ import ddf.catalog.data.Attribute;
 import ddf.catalog.data.Metacard;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.function.BiFunction;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
@@ -42,6 +44,8 @@ public abstract class MarkingExtractor implements ContentMetadataExtractor {
 
   private Map<String, BiFunction<Metacard, BannerMarkings, Attribute>> attProcessors;
 
+  private boolean scanPortionMarkings = false;
+
   @Override
   public void process(String input, Metacard metacard) {
     process(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), metacard);
@@ -51,18 +55,18 @@ public abstract class MarkingExtractor implements ContentMetadataExtractor {
   public void process(InputStream input, Metacard metacard) {
     BannerMarkings bannerMarkings = null;
     try {
-      Optional<String> bannerLine =
-          new BufferedReader(new InputStreamReader(input))
-              .lines()
-              .map(String::trim)
-              .filter(s -> !s.isEmpty())
-              .findFirst();
-
-      if (bannerLine.isPresent()) {
-        bannerMarkings = BannerMarkings.parseMarkings(bannerLine.get());
+      BufferedReader reader = new BufferedReader(new InputStreamReader(input));
+      String bannerLine = readBannerLine(reader);
+
+      if (bannerLine != null) {
+        bannerMarkings = parseBannerLine(bannerLine);
       }
-    } catch (MarkingsValidationException e) {
-      LOGGER.debug("Errors validating document markings", e);
+
+      if (bannerMarkings == null && scanPortionMarkings) {
+        bannerMarkings = rollUpPortionMarkings(bannerLine, reader);
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Unable to read document markings", e);
     }
 
     if (bannerMarkings == null) {
@@ -74,6 +78,51 @@ public abstract class MarkingExtractor implements ContentMetadataExtractor {
     }
   }
 
+  /**
+   * When enabled, documents without a valid banner line are read to the end and the security
+   * attributes are extracted from the roll up of their portion markings.
+   *
+   * @param scanPortionMarkings true to scan documents without a valid banner for portion markings
+   */
+  public void setScanPortionMarkings(boolean scanPortionMarkings) {
+    this.scanPortionMarkings = scanPortionMarkings;
+  }
+
+  private String readBannerLine(BufferedReader reader) throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.trim();
+      if (!line.isEmpty()) {
+        return line;
+      }
+    }
+    return null;
+  }
+
+  private BannerMarkings parseBannerLine(String bannerLine) {
+    try {
+      return MarkingsCache.getBannerMarkings(bannerLine);
+    } catch (MarkingsValidationException e) {
+      LOGGER.debug("Errors validating document markings", e);
+    }
+    return null;
+  }
+
+  private BannerMarkings rollUpPortionMarkings(String bannerLine, Reader reader)
+      throws IOException {
+    PortionMarkingScanner scanner = new PortionMarkingScanner();
+    if (bannerLine != null) {
+      scanner.scan(new StringReader(bannerLine));
+    }
+    scanner.scan(reader);
+
+    LOGGER.debug(
+        "Found {} portion markings and {} invalid portion markings in document without a valid banner",
+        scanner.getPortionCount(),
+        scanner.getInvalidPortionCount());
+    return scanner.getBannerMarkings();
+  }
+
   public String translateClassification(
       ClassificationLevel classLevel, boolean isNato, String natoQualifier) {
     if (!isNato) {
@@ -0,0 +1,386 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang.StringUtils;
+import org.codice.alliance.security.banner.marking.MarkingTokenizer.Segment;
+
+/**
+ * Parses the text of a banner or portion marking into {@link BannerMarkings} or {@link
+ * PortionMarkings}. The marking is split into segments and controls in a single pass by {@link
+ * MarkingTokenizer#segments(String)}, then each segment after the classification is handed to the
+ * first control parser that accepts it. A parser holds the state of one marking while it is parsed;
+ * the markings it builds are immutable.
+ */
+final class MarkingParser {
+
+  static final String NATO_FGI = "NATO";
+
+  static final String COSMIC_FGI = "COSMIC";
+
+  private static final List<String> NATO_CLASS_QUALIFIERS =
+      ImmutableList.of("ATOMAL", "BALK", "BOHEMIA");
+
+  private final boolean portion;
+
+  String inputMarkings;
+
+  ClassificationLevel classification;
+
+  MarkingType type;
+
+  String fgiAuthority;
+
+  String natoQualifier;
+
+  List<String> jointAuthorities;
+
+  List<String> usFgiCountryCodes;
+
+  List<SciControl> sciControls;
+
+  SapControl sapControl;
+
+  AeaMarking aeaMarking;
+
+  List<DissemControl> disseminationControls;
+
+  List<String> relTo;
+
+  List<String> displayOnly;
+
+  List<OtherDissemControl> otherDissemControl;
+
+  List<String> accm;
+
+  /** @param portion true to parse the short form portion marking syntax */
+  MarkingParser(boolean portion) {
+    this.portion = portion;
+  }
+
+  static BannerMarkings parseBanner(String markings) throws MarkingsValidationException {
+    BannerMarkings bannerMarkings = new BannerMarkings(new MarkingParser(false).parse(markings));
+    BannerValidator.validate(bannerMarkings);
+    return bannerMarkings;
+  }
+
+  static PortionMarkings parsePortion(String markings) throws MarkingsValidationException {
+    PortionMarkings portionMarkings = new PortionMarkings(new MarkingParser(true).parse(markings));
+    BannerValidator.validate(portionMarkings);
+    return portionMarkings;
+  }
+
+  /**
+   * Parse the classification segment of a marking.
+   *
+   * @return this parser
+   * @throws MarkingsValidationException if the classification is unknown
+   */
+  private MarkingParser parseClassification(
+      MarkingType type, String classificationSegment, String inputMarkings)
+      throws MarkingsValidationException {
+    this.type = type;
+    this.inputMarkings = inputMarkings;
+
+    switch (type) {
+      case US:
+        classification = ClassificationLevel.lookup(classificationSegment);
+        if (classification == null) {
+          classification = ClassificationLevel.lookupByShortname(classificationSegment);
+          if (classification == null) {
+            throw new MarkingsValidationException("Unknown classification marking", inputMarkings);
+          }
+        }
+        break;
+      case FGI:
+        fgiAuthority = MarkingTokenizer.split(classificationSegment, ' ')[0];
+        classification =
+            ClassificationLevel.lookup(
+                classificationSegment.substring(fgiAuthority.length()).trim());
+        if (classification == null) {
+          switch (classificationSegment) {
+            case "NU":
+              classification = ClassificationLevel.UNCLASSIFIED;
+              fgiAuthority = NATO_FGI;
+              break;
+            case "NR":
+              classification = ClassificationLevel.RESTRICTED;
+              fgiAuthority = NATO_FGI;
+              break;
+            case "NC":
+              classification = ClassificationLevel.CONFIDENTIAL;
+              fgiAuthority = NATO_FGI;
+              break;
+            case "NS":
+              classification = ClassificationLevel.SECRET;
+              fgiAuthority = NATO_FGI;
+              break;
+            case "CTS":
+              classification = ClassificationLevel.TOP_SECRET;
+              fgiAuthority = COSMIC_FGI;
+              break;
+            default:
+              break;
+          }
+        }
+        if (classification == null) {
+          classification =
+              ClassificationLevel.lookupByShortname(
+                  classificationSegment.substring(fgiAuthority.length()).trim());
+        }
+        if (classification == null) {
+          throw new MarkingsValidationException("Unknown classification marking", inputMarkings);
+        }
+
+        break;
+      case JOINT:
+        String suffix = classificationSegment.substring("JOINT".length()).trim();
+
+        classification = lookupPrefix(suffix, false);
+        if (classification != null) {
+          suffix = suffix.substring(classification.getName().length());
+        } else {
+          classification = lookupPrefix(suffix, true);
+          if (classification != null) {
+            suffix = suffix.substring(classification.getShortName().length());
+          }
+        }
+        if (classification == null) {
+          throw new MarkingsValidationException(
+              "Unknown JOINT classification marking", inputMarkings);
+        }
+
+        List<String> allJointAuthorities = new ArrayList<>();
+        for (String authority : MarkingTokenizer.split(suffix, ' ')) {
+          if (StringUtils.isNotBlank(authority)) {
+            allJointAuthorities.add(authority);
+          }
+        }
+        Collections.sort(allJointAuthorities);
+        jointAuthorities = ImmutableList.copyOf(allJointAuthorities);
+        break;
+      default:
+        break;
+    }
+    return this;
+  }
+
+  private MarkingParser parse(String markings) throws MarkingsValidationException {
+    MarkingType markingType;
+    String trimmedMarkings;
+    if (markings.startsWith("//JOINT")) {
+      markingType = MarkingType.JOINT;
+      trimmedMarkings = markings.substring(2);
+    } else if (markings.startsWith("//")) {
+      markingType = MarkingType.FGI;
+      trimmedMarkings = markings.substring(2);
+    } else {
+      markingType = MarkingType.US;
+      trimmedMarkings = markings;
+    }
+
+    List<Segment> segments = MarkingTokenizer.segments(trimmedMarkings);
+    parseClassification(markingType, segments.get(0).getText(), markings);
+
+    for (int i = 1; i < segments.size(); i++) {
+      Segment segment = segments.get(i);
+      boolean parsed =
+          (markingType == MarkingType.FGI && parseNato(segment.getText()))
+              || parseUsFgi(segment.getText())
+              || parseSap(segment.getText())
+              || parseAea(segment.getText())
+              || parseOtherDissem(segment)
+              || parseDisseminationControls(segment);
+      if (!parsed) {
+        parseSciControls(segment);
+      }
+    }
+    return this;
+  }
+
+  private static ClassificationLevel lookupPrefix(String segment, boolean shortName) {
+    for (ClassificationLevel level : ClassificationLevel.values()) {
+      if (segment.startsWith(shortName ? level.getShortName() : level.getName())) {
+        return level;
+      }
+    }
+    return null;
+  }
+
+  private boolean parseSap(String segment) {
+    if ((sapControl != null)
+        || (!segment.startsWith("SAR-")
+            && !segment.startsWith("SPECIAL ACCESS REQUIRED-")
+            && !segment.equals("HVSACO"))) {
+      return false;
+    }
+
+    if (segment.equals("HVSACO")) {
+      sapControl = new SapControl();
+    } else {
+      sapControl = new SapControl(MarkingTokenizer.split(segment, '-')[1]);
+    }
+    return true;
+  }
+
+  private boolean parseAea(String segment) {
+    if (aeaMarking != null || AeaType.lookupType(segment) == null) {
+      return false;
+    }
+
+    aeaMarking = new AeaMarking(segment);
+    return true;
+  }
+
+  private boolean parseUsFgi(String segment) {
+    if (usFgiCountryCodes != null
+        || (!segment.startsWith("FGI") && !segment.startsWith("FOREIGN GOVERNMENT INFORMATION"))) {
+      return false;
+    }
+
+    String suffix = null;
+    if (segment.startsWith("FGI")) {
+      suffix = segment.substring("FGI".length()).trim();
+
+    } else if (segment.startsWith("FOREIGN GOVERNMENT INFORMATION")) {
+      suffix = segment.substring("FOREIGN GOVERNMENT INFORMATION".length()).trim();
+    }
+
+    if (suffix == null || suffix.isEmpty()) {
+      usFgiCountryCodes = ImmutableList.of();
+    } else {
+      usFgiCountryCodes = ImmutableList.copyOf(MarkingTokenizer.split(suffix, ' '));
+    }
+
+    return true;
+  }
+
+  private boolean parseNato(String segment) {
+    if (natoQualifier != null || !NATO_CLASS_QUALIFIERS.contains(segment)) {
+      return false;
+    }
+
+    natoQualifier = segment;
+    return true;
+  }
+
+  /**
+   * Process each OtherDissem control sequentially. If ACCM- is found, attempt to process the next
+   * controls as ACCM markers unless they are OtherDissem controls. A portion marking with an
+   * unknown control is not an OtherDissem segment.
+   */
+  private boolean parseOtherDissem(Segment segment) {
+    if (otherDissemControl != null
+        || !(portion
+            ? OtherDissemControl.prefixPortionMatch(segment.getText())
+            : OtherDissemControl.prefixBannerMatch(segment.getText()))) {
+      return false;
+    }
+
+    Set<OtherDissemControl> tempOther = new HashSet<>();
+    Set<String> tempAccm = new HashSet<>();
+    boolean processingAccm = false;
+    for (String tok : segment.getControls()) {
+      OtherDissemControl control = lookupOtherDissemControl(tok);
+      // This if/elif will leave the processingAcm as true once ACCM processing has started
+      // until a non-ACCM control is encountered
+      if (tok.startsWith("ACCM-")) {
+        processingAccm = true;
+      } else if (control != null) {
+        processingAccm = false;
+      }
+
+      if (processingAccm) {
+        if (tok.startsWith("ACCM-")) {
+          tempAccm.add(tok.substring("ACCM-".length()));
+        } else {
+          tempAccm.add(tok);
+        }
+      } else if (control != null || !portion) {
+        tempOther.add(control);
+      } else {
+        return false;
+      }
+    }
+
+    otherDissemControl = ImmutableList.copyOf(tempOther);
+    accm = ImmutableList.copyOf(tempAccm);
+    return true;
+  }
+
+  private boolean parseDisseminationControls(Segment segment) {
+    String[] controls = segment.getControls();
+
+    if (!(controls[0].startsWith("REL TO")
+        || controls[0].startsWith("DISPLAY ONLY")
+        || lookupDissemControl(controls[0]) != null)) {
+      return false;
+    }
+
+    Set<DissemControl> tempDissem = new HashSet<>();
+
+    for (String s : controls) {
+      if (s.startsWith("REL TO")) {
+        relTo = countryList(s.substring("REL TO".length()));
+      } else if (s.startsWith("DISPLAY ONLY")) {
+        displayOnly = countryList(s.substring("DISPLAY ONLY".length()));
+      } else {
+        DissemControl dissemControl = lookupDissemControl(s.trim());
+        if (dissemControl != null || !portion) {
+          tempDissem.add(dissemControl);
+        } else {
+          return false;
+        }
+      }
+    }
+    disseminationControls = ImmutableList.copyOf(tempDissem);
+    return true;
+  }
+
+  private void parseSciControls(Segment segment) {
+    List<SciControl> tempSci = new ArrayList<>();
+    for (String s : segment.getControls()) {
+      tempSci.add(new SciControl(s));
+    }
+
+    sciControls = ImmutableList.copyOf(tempSci);
+  }
+
+  private OtherDissemControl lookupOtherDissemControl(String control) {
+    return portion
+        ? OtherDissemControl.lookupPortionName(control)
+        : OtherDissemControl.lookupBannerName(control);
+  }
+
+  private DissemControl lookupDissemControl(String control) {
+    return portion
+        ? DissemControl.lookupPortionName(control)
+        : DissemControl.lookupBannerName(control);
+  }
+
+  private static List<String> countryList(String countries) {
+    String[] split = MarkingTokenizer.split(countries, ',');
+    List<String> trimmed = new ArrayList<>(split.length);
+    for (String country : split) {
+      trimmed.add(country.trim());
+    }
+    return ImmutableList.copyOf(trimmed);
+  }
+}
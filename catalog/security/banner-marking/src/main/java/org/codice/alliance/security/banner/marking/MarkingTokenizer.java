@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits marking strings in a single pass. The results are the same as {@link String#split(String)}
+ * with the equivalent regular expression (e.g. {@code "[/]"} for {@code '/'}): delimiters are
+ * matched left to right without overlapping, leading empty tokens are kept and trailing empty
+ * tokens are removed. Unlike {@link String#split(String)}, no pattern is compiled for each call.
+ */
+final class MarkingTokenizer {
+
+  private static final String[] EMPTY = new String[0];
+
+  private MarkingTokenizer() {}
+
+  /**
+   * Split a marking into its {@code //} separated segments, and each segment into its {@code /}
+   * separated controls, in one pass over the text. The segments are the same as {@code
+   * text.split("[/][/]")} and the controls of each segment are the same as {@code
+   * segment.split("[/]")}.
+   *
+   * @param text the marking
+   * @return the segments of the marking
+   */
+  static List<Segment> segments(String text) {
+    List<Segment> segments = new ArrayList<>();
+    List<String> controls = new ArrayList<>();
+    int segmentStart = 0;
+    int controlStart = 0;
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      if (text.charAt(i) != '/') {
+        i++;
+        continue;
+      }
+      controls.add(text.substring(controlStart, i));
+      if (i + 1 < length && text.charAt(i + 1) == '/') {
+        segments.add(new Segment(text.substring(segmentStart, i), controls));
+        controls = new ArrayList<>();
+        i += 2;
+        segmentStart = i;
+      } else {
+        i++;
+      }
+      controlStart = i;
+    }
+    controls.add(text.substring(controlStart));
+    segments.add(new Segment(text.substring(segmentStart, length), controls));
+
+    if (segments.size() == 1) {
+      return segments;
+    }
+    int size = segments.size();
+    while (size > 0 && segments.get(size - 1).getText().isEmpty()) {
+      size--;
+    }
+    return segments.subList(0, size);
+  }
+
+  static String[] split(String text, char delimiter) {
+    int start = 0;
+    int next = text.indexOf(delimiter);
+    if (next < 0) {
+      return new String[] {text};
+    }
+
+    List<String> tokens = new ArrayList<>();
+    while (next >= 0) {
+      tokens.add(text.substring(start, next));
+      start = next + 1;
+      next = text.indexOf(delimiter, start);
+    }
+    tokens.add(text.substring(start));
+    return trimTrailingEmpty(tokens);
+  }
+
+  private static String[] trimTrailingEmpty(List<String> tokens) {
+    if (tokens.size() == 1) {
+      return tokens.toArray(EMPTY);
+    }
+    int size = tokens.size();
+    while (size > 0 && tokens.get(size - 1).isEmpty()) {
+      size--;
+    }
+    return tokens.subList(0, size).toArray(EMPTY);
+  }
+
+  /** A {@code //} separated segment of a marking. */
+  static final class Segment {
+
+    private final String text;
+
+    private final String[] controls;
+
+    private Segment(String text, List<String> controls) {
+      this.text = text;
+      this.controls = trimTrailingEmpty(controls);
+    }
+
+    /** @return the text of the segment */
+    String getText() {
+      return text;
+    }
+
+    /** @return the {@code /} separated controls of the segment */
+    String[] getControls() {
+      return controls;
+    }
+  }
+}
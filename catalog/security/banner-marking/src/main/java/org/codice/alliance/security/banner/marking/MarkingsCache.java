@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bounded cache of parsed and validated markings, keyed by the marking text. A production corpus
+ * contains only a few hundred distinct banners, so most documents are marked with a banner that has
+ * already been parsed. The markings are immutable, so the cached instance is shared with every
+ * caller. Markings that fail validation are not cached.
+ */
+public final class MarkingsCache {
+
+  static final int MAXIMUM_SIZE = 1024;
+
+  private static final Cache<String, BannerMarkings> BANNER_MARKINGS =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+  private static final Cache<String, PortionMarkings> PORTION_MARKINGS =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+  private MarkingsCache() {}
+
+  /**
+   * Get the banner markings for the marking text, parsing them on a cache miss.
+   *
+   * @param markings the banner marking text
+   * @return the parsed banner markings
+   * @throws MarkingsValidationException if the markings are not valid
+   */
+  public static BannerMarkings getBannerMarkings(String markings)
+      throws MarkingsValidationException {
+    try {
+      return BANNER_MARKINGS.get(markings, () -> BannerMarkings.parseMarkings(markings));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw unwrap(e);
+    }
+  }
+
+  /**
+   * Get the portion markings for the marking text, parsing them on a cache miss.
+   *
+   * @param markings the portion marking text
+   * @return the parsed portion markings
+   * @throws MarkingsValidationException if the markings are not valid
+   */
+  public static PortionMarkings getPortionMarkings(String markings)
+      throws MarkingsValidationException {
+    try {
+      return PORTION_MARKINGS.get(markings, () -> PortionMarkings.parseMarkings(markings));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      throw unwrap(e);
+    }
+  }
+
+  static long size() {
+    return BANNER_MARKINGS.size() + PORTION_MARKINGS.size();
+  }
+
+  static void invalidateAll() {
+    BANNER_MARKINGS.invalidateAll();
+    PORTION_MARKINGS.invalidateAll();
+  }
+
+  private static MarkingsValidationException unwrap(Exception e) {
+    if (e.getCause() instanceof MarkingsValidationException) {
+      return (MarkingsValidationException) e.getCause();
+    }
+    if (e.getCause() instanceof RuntimeException) {
+      throw (RuntimeException) e.getCause();
+    }
+    throw new IllegalStateException("Unexpected exception parsing markings", e.getCause());
+  }
+}
@@ -0,0 +1,296 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking;
+
+import static org.codice.alliance.security.banner.marking.ClassificationLevel.UNCLASSIFIED;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans the text of a document for portion markings such as {@code (S//REL TO USA, GBR)} and rolls
+ * them up into banner level markings. The text is read once through a fixed size buffer and only
+ * the text between the current pair of parentheses is held, so the cost is linear in the length of
+ * the document and the memory used does not depend on it.
+ *
+ * <p>The roll up uses the highest classification of the portions, the union of the SCI,
+ * dissemination and other dissemination controls, the FGI authorities of foreign portions, and the
+ * countries that every classified portion is releasable to. Any parenthesized text that parses as a
+ * portion marking is counted, so text such as {@code (C)} in the body of a document is read as a
+ * CONFIDENTIAL portion. A scanner holds the roll up of one document and is not thread safe.
+ */
+public class PortionMarkingScanner {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PortionMarkingScanner.class);
+
+  /** Text between parentheses longer than this is not treated as a portion marking. */
+  static final int MAX_PORTION_LENGTH = 256;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final StringBuilder candidate = new StringBuilder(MAX_PORTION_LENGTH);
+
+  private boolean inPortion = false;
+
+  private long portionCount = 0;
+
+  private long invalidPortionCount = 0;
+
+  private ClassificationLevel classification;
+
+  private final Set<String> fgiCountryCodes =
+      new TreeSet<>(BannerValidator.COUNTRY_CODE_COMPARATOR);
+
+  private final Map<String, Map<String, Set<String>>> sciControls = new TreeMap<>();
+
+  private final Set<DissemControl> disseminationControls = EnumSet.noneOf(DissemControl.class);
+
+  private final Set<OtherDissemControl> otherDissemControls =
+      EnumSet.noneOf(OtherDissemControl.class);
+
+  private final Set<String> accm = new TreeSet<>();
+
+  private Set<String> relTo;
+
+  private boolean releasable = true;
+
+  /**
+   * Scans the text for portion markings and adds them to the roll up. A portion marking may not be
+   * split across calls.
+   *
+   * @param reader the text to scan, is read to the end but not closed
+   * @throws IOException if the text cannot be read
+   */
+  public void scan(Reader reader) throws IOException {
+    char[] buffer = new char[BUFFER_SIZE];
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      for (int i = 0; i < read; i++) {
+        accept(buffer[i]);
+      }
+    }
+    inPortion = false;
+  }
+
+  /** @return the number of valid portion markings found */
+  public long getPortionCount() {
+    return portionCount;
+  }
+
+  /** @return the number of parenthesized markings that failed to parse or validate */
+  public long getInvalidPortionCount() {
+    return invalidPortionCount;
+  }
+
+  /**
+   * Get the banner markings rolled up from the portion markings found so far. The markings are not
+   * validated against the banner rules, since the rules apply to a banner written by the author of
+   * the document.
+   *
+   * @return the rolled up markings, or null if no portion markings were found
+   */
+  public BannerMarkings getBannerMarkings() {
+    if (classification == null) {
+      return null;
+    }
+
+    MarkingParser parser = new MarkingParser(false);
+    parser.type = MarkingType.US;
+    parser.classification = classification;
+    parser.inputMarkings = toBanner();
+    parser.usFgiCountryCodes = ImmutableList.copyOf(fgiCountryCodes);
+    parser.sciControls =
+        ImmutableList.copyOf(
+            sciMarkings().stream().map(SciControl::new).collect(Collectors.toList()));
+    parser.disseminationControls = ImmutableList.copyOf(rolledUpDissemControls());
+    parser.relTo = ImmutableList.copyOf(rolledUpRelTo());
+    parser.otherDissemControl = ImmutableList.copyOf(otherDissemControls);
+    parser.accm = ImmutableList.copyOf(accm);
+    return new BannerMarkings(parser);
+  }
+
+  private void accept(char c) {
+    if (c == '(') {
+      inPortion = true;
+      candidate.setLength(0);
+    } else if (!inPortion) {
+      return;
+    } else if (c == ')') {
+      inPortion = false;
+      addPortion(candidate.toString());
+    } else if (candidate.length() >= MAX_PORTION_LENGTH || !isMarkingCharacter(c)) {
+      inPortion = false;
+    } else {
+      candidate.append(c);
+    }
+  }
+
+  private static boolean isMarkingCharacter(char c) {
+    return (c >= 'A' && c <= 'Z')
+        || (c >= '0' && c <= '9')
+        || c == '/'
+        || c == '-'
+        || c == ' '
+        || c == ',';
+  }
+
+  private static boolean isMarking(String text) {
+    if (text.startsWith("//")) {
+      return text.length() > 2 && Character.isLetter(text.charAt(2));
+    }
+    return !text.isEmpty() && Character.isLetter(text.charAt(0));
+  }
+
+  private void addPortion(String text) {
+    if (!isMarking(text)) {
+      return;
+    }
+
+    PortionMarkings portionMarkings;
+    try {
+      portionMarkings = MarkingsCache.getPortionMarkings(text);
+    } catch (MarkingsValidationException | RuntimeException e) {
+      LOGGER.trace("Ignoring parenthesized text that is not a valid portion marking: {}", text, e);
+      invalidPortionCount++;
+      return;
+    }
+
+    portionCount++;
+    add(portionMarkings);
+  }
+
+  private void add(PortionMarkings portionMarkings) {
+    ClassificationLevel portionClassification = portionMarkings.getClassification();
+    if (classification == null || portionClassification.compareTo(classification) > 0) {
+      classification = portionClassification;
+    }
+
+    if (portionMarkings.getType() == MarkingType.FGI) {
+      fgiCountryCodes.add(portionMarkings.getFgiAuthority());
+    } else if (portionMarkings.getType() == MarkingType.JOINT) {
+      fgiCountryCodes.addAll(portionMarkings.getJointAuthorities());
+    }
+    fgiCountryCodes.addAll(portionMarkings.getUsFgiCountryCodes());
+    fgiCountryCodes.remove("USA");
+
+    for (SciControl sciControl : portionMarkings.getSciControls()) {
+      Map<String, Set<String>> compartments =
+          sciControls.computeIfAbsent(sciControl.getControl(), control -> new TreeMap<>());
+      sciControl
+          .getCompartments()
+          .forEach(
+              (compartment, subCompartments) ->
+                  compartments
+                      .computeIfAbsent(compartment, key -> new TreeSet<>())
+                      .addAll(subCompartments));
+    }
+
+    disseminationControls.addAll(portionMarkings.getDisseminationControls());
+    otherDissemControls.addAll(portionMarkings.getOtherDissemControl());
+    accm.addAll(portionMarkings.getAccm());
+
+    if (portionClassification != UNCLASSIFIED) {
+      if (portionMarkings.getRelTo().isEmpty()) {
+        releasable = false;
+      } else if (relTo == null) {
+        relTo = new LinkedHashSet<>(portionMarkings.getRelTo());
+      } else {
+        relTo.retainAll(portionMarkings.getRelTo());
+      }
+    }
+  }
+
+  private Set<DissemControl> rolledUpDissemControls() {
+    Set<DissemControl> controls = EnumSet.noneOf(DissemControl.class);
+    controls.addAll(disseminationControls);
+    if (classification != UNCLASSIFIED) {
+      controls.remove(DissemControl.FOUO);
+    }
+    return controls;
+  }
+
+  private List<String> rolledUpRelTo() {
+    if (!releasable
+        || relTo == null
+        || disseminationControls.contains(DissemControl.NOFORN)
+        || !relTo.contains("USA")
+        || relTo.size() == 1) {
+      return ImmutableList.of();
+    }
+
+    List<String> countries = new ArrayList<>(relTo);
+    countries.sort(BannerValidator.USA_FIRST_COUNTRY_CODE_COMPARATOR);
+    return countries;
+  }
+
+  private List<String> sciMarkings() {
+    List<String> markings = new ArrayList<>();
+    sciControls.forEach(
+        (control, compartments) -> {
+          StringBuilder marking = new StringBuilder(control);
+          compartments.forEach(
+              (compartment, subCompartments) -> {
+                marking.append('-').append(compartment);
+                for (String subCompartment : subCompartments) {
+                  marking.append(' ').append(subCompartment);
+                }
+              });
+          markings.add(marking.toString());
+        });
+    return markings;
+  }
+
+  private String toBanner() {
+    List<String> segments = new ArrayList<>();
+    segments.add(classification.getName());
+    List<String> sci = sciMarkings();
+    if (!sci.isEmpty()) {
+      segments.add(String.join("/", sci));
+    }
+    if (!fgiCountryCodes.isEmpty()) {
+      segments.add("FGI " + String.join(" ", fgiCountryCodes));
+    }
+
+    List<String> dissem = new ArrayList<>();
+    rolledUpDissemControls().forEach(control -> dissem.add(control.getName()));
+    List<String> countries = rolledUpRelTo();
+    if (!countries.isEmpty()) {
+      dissem.add("REL TO " + String.join(", ", countries));
+    }
+    if (!dissem.isEmpty()) {
+      segments.add(String.join("/", dissem));
+    }
+
+    if (!otherDissemControls.isEmpty()) {
+      segments.add(
+          otherDissemControls
+              .stream()
+              .map(OtherDissemControl::getName)
+              .collect(Collectors.joining("/")));
+    }
+    return String.join("//", segments);
+  }
+}
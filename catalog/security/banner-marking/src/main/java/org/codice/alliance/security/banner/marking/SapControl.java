@@ -16,28 +16,21 @@ package org.codice.alliance.security.banner.marking;
 import com.google.common.collect.ImmutableList;
 import java.io.Serializable;
 import java.util.List;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /** Special Access Program controls. */
 public class SapControl implements Serializable {
-  private static final Pattern CONTROL_PATTERN = Pattern.compile("[/]");
+  private final boolean multiple;
 
-  private boolean multiple;
+  private final boolean hvsaco;
 
-  private boolean hvsaco;
-
-  private List<String> programs;
+  private final List<String> programs;
 
   public SapControl(String programString) {
-    programs =
-        ImmutableList.copyOf(
-            CONTROL_PATTERN.splitAsStream(programString).collect(Collectors.toList()));
+    String[] split = MarkingTokenizer.split(programString, '/');
 
-    multiple = (programs.size() == 1 && programs.contains("MULTIPLE PROGRAMS"));
-    if (multiple) {
-      programs = ImmutableList.of();
-    }
+    multiple = (split.length == 1 && split[0].equals("MULTIPLE PROGRAMS"));
+    programs = multiple ? ImmutableList.of() : ImmutableList.copyOf(split);
 
     hvsaco = false;
   }
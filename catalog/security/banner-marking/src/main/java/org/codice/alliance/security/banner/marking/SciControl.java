@@ -29,7 +29,7 @@ public class SciControl implements Serializable {
   private final Map<String, List<String>> compartments;
 
   public SciControl(String marking) {
-    String[] split = marking.split("[-]");
+    String[] split = MarkingTokenizer.split(marking, '-');
     control = split[0];
 
     if (split.length == 1) {
@@ -39,7 +39,7 @@ public class SciControl implements Serializable {
 
     Map<String, List<String>> tempCompartments = new HashMap<>();
     for (int i = 1; i < split.length; i++) {
-      String[] compartment = split[i].split(" ");
+      String[] compartment = MarkingTokenizer.split(split[i], ' ');
       List<String> subComps;
       if (compartment.length > 1) {
         subComps =
@@ -385,6 +385,36 @@ class BannerCommonMarkingExtractorSpec extends Specification {
         thrown(MarkingMismatchException.class)
     }
 
+    def 'test process banner line'() {
+        when:
+        extractor.process('\n  SECRET//REL TO USA, GBR\n(C) body', metacard)
+
+        then:
+        metacard.getAttribute(Security.CLASSIFICATION).value == 'S'
+        metacard.getAttribute(Security.RELEASABILITY).values == ['USA', 'GBR']
+    }
+
+    def 'test process portion markings'() {
+        setup:
+        def document = 'Title without a banner\n' +
+                '(S//REL TO USA, GBR, NZL) First paragraph.\n' +
+                '(C//REL TO USA, GBR) Second paragraph (see the first).\n' +
+                '(U) Third paragraph.'
+        extractor.setScanPortionMarkings(scan)
+
+        when:
+        extractor.process(document, metacard)
+
+        then:
+        metacard.getAttribute(Security.CLASSIFICATION)?.value == classification
+        metacard.getAttribute(Security.RELEASABILITY)?.values == releasability
+
+        where:
+        scan  || classification | releasability
+        false || null           | null
+        true  || 'S'            | ['USA', 'GBR']
+    }
+
     private def initBannerMarkings(String markings) {
         try {
             bannerMarkings = BannerMarkings.parseMarkings(markings)
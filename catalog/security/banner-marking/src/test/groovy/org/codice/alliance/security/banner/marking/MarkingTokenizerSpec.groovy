@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) Codice Foundation
+ * <p/>
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ * <p/>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class MarkingTokenizerSpec extends Specification {
+    @Unroll
+    def 'test split matches String.split for #text'() {
+        expect:
+        MarkingTokenizer.split(text, '/' as char) == text.split('[/]')
+        MarkingTokenizer.split(text, '-' as char) == text.split('[-]')
+
+        where:
+        text << ['', '/', '//', '///', '////', 'SECRET', 'SECRET//NOFORN', 'A///B', 'A////B',
+                 '//JOINT SECRET CAN USA', 'SECRET//NOFORN//', '//CAN RESTRICTED',
+                 'TOP SECRET//SI-G ABCD/TK//NOFORN', 'SAR-BP-', '--SIGMA 1']
+    }
+
+    @Unroll
+    def 'test segments match String.split for #text'() {
+        setup:
+        def segments = MarkingTokenizer.segments(text)
+
+        expect:
+        segments*.text == text.split('[/][/]') as List
+        segments.every { it.controls == it.text.split('[/]') }
+
+        where:
+        text << ['', '/', '//', '///', '////', 'SECRET', 'SECRET//NOFORN', 'A///B', 'A////B',
+                 '//JOINT SECRET CAN USA', 'SECRET//NOFORN//', '//CAN RESTRICTED',
+                 'TOP SECRET//SI-G ABCD/TK//NOFORN', 'SAR-BP//HCS/SI-G ABCD']
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) Codice Foundation
+ * <p/>
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ * <p/>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking
+
+import spock.lang.Specification
+
+import static org.codice.alliance.security.banner.marking.ClassificationLevel.*
+
+class MarkingsCacheSpec extends Specification {
+    static final CORPUS = ['TOP SECRET//SI-G ABCD/TK//NOFORN',
+                           'SECRET//REL TO USA, CAN, GBR',
+                           'SECRET//FGI DEU GBR//NOFORN',
+                           'SECRET//SAR-BP/GB//NOFORN',
+                           'SECRET//RD-N//NOFORN',
+                           'UNCLASSIFIED//FOUO',
+                           '//JOINT SECRET CAN USA',
+                           '//JOINT TS CAN USA',
+                           '//COSMIC TOP SECRET//BOHEMIA',
+                           '//NATO SECRET//ATOMAL']
+
+    void setup() {
+        MarkingsCache.invalidateAll()
+    }
+
+    def 'test banner markings are parsed once'() {
+        when:
+        def bannerMarkings = MarkingsCache.getBannerMarkings('SECRET//NOFORN')
+        def cachedMarkings = MarkingsCache.getBannerMarkings('SECRET//NOFORN')
+
+        then:
+        bannerMarkings.classification == SECRET
+        cachedMarkings.classification == SECRET
+        cachedMarkings.disseminationControls.is(bannerMarkings.disseminationControls)
+        MarkingsCache.size() == 1
+    }
+
+    def 'test callers share one immutable instance'() {
+        setup:
+        def bannerMarkings = MarkingsCache.getBannerMarkings('SECRET//REL TO USA, CAN')
+
+        when:
+        bannerMarkings.relTo.add('GBR')
+
+        then:
+        thrown(UnsupportedOperationException)
+        MarkingsCache.getBannerMarkings('SECRET//REL TO USA, CAN').is(bannerMarkings)
+        bannerMarkings.relTo == ['USA', 'CAN']
+    }
+
+    def 'test markings are cached by their exact text'() {
+        setup:
+        MarkingsCache.getBannerMarkings('SECRET//NOFORN')
+
+        when:
+        MarkingsCache.getBannerMarkings(' SECRET//NOFORN')
+
+        then:
+        MarkingsValidationException e = thrown()
+        e.inputMarkings == ' SECRET//NOFORN'
+        MarkingsCache.size() == 1
+    }
+
+    def 'test banner and portion markings are cached separately'() {
+        when:
+        def bannerMarkings = MarkingsCache.getBannerMarkings('SECRET//NOFORN')
+        def portionMarkings = MarkingsCache.getPortionMarkings('SECRET//NOFORN')
+
+        then:
+        !(bannerMarkings instanceof PortionMarkings)
+        portionMarkings instanceof PortionMarkings
+        MarkingsCache.getPortionMarkings('SECRET//NOFORN') instanceof PortionMarkings
+        MarkingsCache.size() == 2
+    }
+
+    def 'test invalid markings are not cached'() {
+        when:
+        MarkingsCache.getBannerMarkings('UNCLASSIFIED//NOFORN')
+
+        then:
+        MarkingsValidationException e = thrown()
+        e.inputMarkings == 'UNCLASSIFIED//NOFORN'
+        MarkingsCache.size() == 0
+    }
+
+    def 'test cached markings match parsed markings'() {
+        expect:
+        CORPUS.every {
+            def cached = MarkingsCache.getBannerMarkings(it)
+            def parsed = BannerMarkings.parseMarkings(it)
+            cached.classification == parsed.classification &&
+                    cached.type == parsed.type &&
+                    cached.jointAuthorities == parsed.jointAuthorities &&
+                    cached.relTo == parsed.relTo &&
+                    cached.disseminationControls == parsed.disseminationControls
+        }
+    }
+
+    def 'test cache is bounded'() {
+        when:
+        (MarkingsCache.MAXIMUM_SIZE * 2).times {
+            MarkingsCache.getBannerMarkings("SECRET//FGI ${String.format('%03d', it)}")
+        }
+
+        then:
+        MarkingsCache.size() <= MarkingsCache.MAXIMUM_SIZE
+    }
+
+    def 'test a repeated corpus is parsed once per distinct marking'() {
+        when:
+        (CORPUS.size() * 100).times { MarkingsCache.getBannerMarkings(CORPUS[it % CORPUS.size()]) }
+
+        then:
+        MarkingsCache.size() == CORPUS.size()
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) Codice Foundation
+ * <p/>
+ * This is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser
+ * General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or any later version.
+ * <p/>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details. A copy of the GNU Lesser General Public License
+ * is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking
+
+import spock.lang.Specification
+
+import static org.codice.alliance.security.banner.marking.ClassificationLevel.*
+import static org.codice.alliance.security.banner.marking.DissemControl.*
+
+class PortionMarkingScannerSpec extends Specification {
+    private PortionMarkingScanner scanner
+
+    void setup() {
+        scanner = new PortionMarkingScanner()
+    }
+
+    def 'test highest classification'() {
+        when:
+        scanner.scan(new StringReader(text))
+
+        then:
+        scanner.bannerMarkings?.classification == classification
+
+        where:
+        text                                 || classification
+        'no markings here'                   || null
+        '(U) one (C) two'                    || CONFIDENTIAL
+        '(U) one (TS) two (S) three'         || TOP_SECRET
+        '(see above) (Unmarked) (s) (S'      || null
+        "(${'S' * 300})"                     || null
+    }
+
+    def 'test combined controls'() {
+        when:
+        scanner.scan(new StringReader('''(S//SI-G ABCD//REL TO USA, CAN, GBR) one
+                (TS//SI-G EFGH/TK//REL TO USA, GBR) two
+                (C//REL TO USA, GBR, NZL) three
+                (U//FOUO) four'''))
+        def bannerMarkings = scanner.bannerMarkings
+
+        then:
+        scanner.portionCount == 4
+        bannerMarkings.classification == TOP_SECRET
+        bannerMarkings.relTo == ['USA', 'GBR']
+        bannerMarkings.sciControls*.control == ['SI', 'TK']
+        bannerMarkings.sciControls[0].compartments == [G: ['ABCD', 'EFGH']]
+        bannerMarkings.disseminationControls.isEmpty()
+        bannerMarkings.inputMarkings == 'TOP SECRET//SI-G ABCD EFGH/TK//REL TO USA, GBR'
+    }
+
+    def 'test releasability'() {
+        when:
+        scanner.scan(new StringReader(text))
+
+        then:
+        scanner.bannerMarkings.relTo == relTo
+        scanner.bannerMarkings.disseminationControls == dissem
+
+        where:
+        text                                              || relTo          | dissem
+        '(S//REL TO USA, GBR) (U) (U//FOUO)'              || ['USA', 'GBR'] | []
+        '(S//REL TO USA, GBR) (C)'                        || []             | []
+        '(S//REL TO USA, GBR) (C//NF)'                    || []             | [NOFORN]
+        '(S//REL TO USA, GBR) (C//REL TO USA, AUS)'       || []             | []
+        '(U//FOUO) (U)'                                   || []             | [FOUO]
+    }
+
+    def 'test foreign portions'() {
+        when:
+        scanner.scan(new StringReader('(//DEU S) one (//JOINT C GBR USA) two (S) three'))
+
+        then:
+        scanner.bannerMarkings.classification == SECRET
+        scanner.bannerMarkings.usFgiCountryCodes == ['DEU', 'GBR']
+    }
+
+    def 'test invalid portions are counted'() {
+        when:
+        scanner.scan(new StringReader('(S//SAR-) (X//NF) (U//NF) (S)'))
+
+        then:
+        scanner.portionCount == 1
+        scanner.invalidPortionCount == 3
+        scanner.bannerMarkings.classification == SECRET
+    }
+
+    def 'test large documents are scanned as a stream'() {
+        setup:
+        def paragraph = '(S//REL TO USA, GBR) Lorem ipsum dolor sit amet, consectetur adipiscing ' +
+                'elit (see note 4). (U) Sed do eiusmod tempor incididunt ut labore et dolore.\n'
+        def paragraphs = 20_000
+
+        when:
+        scanner.scan(new RepeatingReader(paragraph, paragraphs))
+
+        then:
+        scanner.portionCount == paragraphs * 2
+        scanner.invalidPortionCount == 0
+        scanner.bannerMarkings.classification == SECRET
+        scanner.bannerMarkings.relTo == ['USA', 'GBR']
+    }
+
+    /** Produces a large document without holding it in memory. */
+    private static class RepeatingReader extends Reader {
+        private final String text
+        private int remaining
+        private int position
+
+        RepeatingReader(String text, int count) {
+            this.text = text
+            this.remaining = count
+        }
+
+        @Override
+        int read(char[] buffer, int offset, int length) {
+            if (remaining == 0) {
+                return -1
+            }
+            int count = Math.min(length, text.length() - position)
+            text.getChars(position, position + count, buffer, offset)
+            position += count
+            if (position == text.length()) {
+                position = 0
+                remaining--
+            }
+            return count
+        }
+
+        @Override
+        void close() {
+        }
+    }
+}
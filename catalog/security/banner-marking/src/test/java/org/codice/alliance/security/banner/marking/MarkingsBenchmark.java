@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.security.banner.marking;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures parsing a set of banner and portion markings from scratch against looking them up in the
+ * {@link MarkingsCache}. This is not a unit test; run it with {@link #main}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarkingsBenchmark {
+
+  private static final String[] BANNERS = {
+    "UNCLASSIFIED",
+    "UNCLASSIFIED//FOR OFFICIAL USE ONLY",
+    "SECRET//NOFORN",
+    "SECRET//REL TO USA, AUS, CAN, GBR, NZL",
+    "TOP SECRET//SI-G ABCD EFGH/TK//REL TO USA, GBR",
+    "TOP SECRET//SPECIAL ACCESS REQUIRED-BP//NOFORN",
+    "SECRET//RESTRICTED DATA-SIGMA 1 2//NOFORN",
+    "CONFIDENTIAL//ORCON/IMCON//NOFORN",
+    "//JOINT SECRET CAN GBR USA//REL TO USA, CAN, GBR",
+    "//CAN SECRET//REL TO USA, CAN"
+  };
+
+  private static final String[] PORTIONS = {
+    "U",
+    "U//FOUO",
+    "S//NF",
+    "S//REL TO USA, GBR",
+    "TS//SI-G ABCD EFGH/TK//REL TO USA, GBR",
+    "TS//SAR-BP//NF",
+    "S//RD-SG 1 2//NF",
+    "C//OC/IMC//NF",
+    "//JOINT S CAN GBR USA//REL TO USA, CAN, GBR",
+    "//CAN S//REL TO USA, CAN"
+  };
+
+  @Benchmark
+  public void parseBannerMarkings(Blackhole blackhole) throws MarkingsValidationException {
+    for (String banner : BANNERS) {
+      blackhole.consume(BannerMarkings.parseMarkings(banner));
+    }
+  }
+
+  @Benchmark
+  public void parsePortionMarkings(Blackhole blackhole) throws MarkingsValidationException {
+    for (String portion : PORTIONS) {
+      blackhole.consume(PortionMarkings.parseMarkings(portion));
+    }
+  }
+
+  @Benchmark
+  public void cachedBannerMarkings(Blackhole blackhole) throws MarkingsValidationException {
+    for (String banner : BANNERS) {
+      blackhole.consume(MarkingsCache.getBannerMarkings(banner));
+    }
+  }
+
+  @Benchmark
+  public void cachedPortionMarkings(Blackhole blackhole) throws MarkingsValidationException {
+    for (String portion : PORTIONS) {
+      blackhole.consume(MarkingsCache.getPortionMarkings(portion));
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(MarkingsBenchmark.class.getSimpleName()).build()).run();
+  }
+}
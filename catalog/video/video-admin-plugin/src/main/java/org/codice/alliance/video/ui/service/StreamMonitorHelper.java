@@ -24,6 +24,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import javax.management.InstanceAlreadyExistsException;
@@ -36,6 +37,7 @@ import javax.management.ObjectName;
 import org.apache.commons.collections.MapUtils;
 import org.codice.alliance.video.stream.mpegts.StreamMonitor;
 import org.codice.alliance.video.stream.mpegts.UdpStreamMonitor;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndexEntry;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
@@ -54,6 +56,14 @@ public class StreamMonitorHelper implements StreamMonitorHelperMBean {
 
   private static final String ID = "id";
 
+  private static final String CHUNK_ID = "chunkId";
+
+  private static final String BYTE_OFFSET = "byteOffset";
+
+  private static final String PRESENTATION_TIMESTAMP = "presentationTimestamp";
+
+  private static final String KLV_TIMESTAMP = "klvTimestamp";
+
   private static final Predicate<InetAddress> IPV4_FILTER =
       inetAddress -> inetAddress instanceof Inet4Address;
 
@@ -165,6 +175,84 @@ public class StreamMonitorHelper implements StreamMonitorHelperMBean {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public List<Map<String, Object>> udpStreamMonitorMetrics() {
+    Map<String, StreamMonitor> udpStreamMonitors = getUdpStreamMonitorServices();
+
+    if (MapUtils.isEmpty(udpStreamMonitors)) {
+      return null;
+    }
+
+    return udpStreamMonitors
+        .entrySet()
+        .stream()
+        .filter(entry -> entry.getValue() instanceof UdpStreamMonitor)
+        .map(
+            stringStreamMonitorEntry -> {
+              UdpStreamMonitor udpStreamMonitor =
+                  (UdpStreamMonitor) stringStreamMonitorEntry.getValue();
+              Map<String, Object> map = new HashMap<>(udpStreamMonitor.getMetrics());
+              map.put(ID, stringStreamMonitorEntry.getKey());
+              map.put(UdpStreamMonitor.METATYPE_TITLE, udpStreamMonitor.getTitle().orElse(""));
+              map.put(MONITORING, udpStreamMonitor.isMonitoring());
+              return map;
+            })
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Map<String, Object> seekToPresentationTimestamp(
+      String servicePid, String parentId, long presentationTimestamp) {
+    return findUdpStreamMonitor(servicePid, parentId)
+        .flatMap(
+            udpStreamMonitor ->
+                udpStreamMonitor.seekToPresentationTimestamp(parentId, presentationTimestamp))
+        .map(this::toMap)
+        .orElse(Collections.emptyMap());
+  }
+
+  @Override
+  public Map<String, Object> seekToKlvTimestamp(
+      String servicePid, String parentId, long klvTimestamp) {
+    return findUdpStreamMonitor(servicePid, parentId)
+        .flatMap(udpStreamMonitor -> udpStreamMonitor.seekToKlvTimestamp(parentId, klvTimestamp))
+        .map(this::toMap)
+        .orElse(Collections.emptyMap());
+  }
+
+  @Override
+  public List<String> chunkIds(
+      String servicePid, String parentId, long startKlvTimestamp, long endKlvTimestamp) {
+    return findUdpStreamMonitor(servicePid, parentId)
+        .map(
+            udpStreamMonitor ->
+                udpStreamMonitor.getChunkIds(parentId, startKlvTimestamp, endKlvTimestamp))
+        .orElse(Collections.emptyList());
+  }
+
+  private Optional<UdpStreamMonitor> findUdpStreamMonitor(String servicePid, String parentId) {
+    Map<String, StreamMonitor> udpStreamMonitors = getUdpStreamMonitorServices();
+
+    if (MapUtils.isEmpty(udpStreamMonitors) || parentId == null) {
+      return Optional.empty();
+    }
+
+    StreamMonitor streamMonitor = udpStreamMonitors.get(servicePid);
+    if (streamMonitor instanceof UdpStreamMonitor) {
+      return Optional.of((UdpStreamMonitor) streamMonitor);
+    }
+    return Optional.empty();
+  }
+
+  private Map<String, Object> toMap(StreamIndexEntry streamIndexEntry) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(CHUNK_ID, streamIndexEntry.getChunkId());
+    map.put(BYTE_OFFSET, streamIndexEntry.getByteOffset());
+    map.put(PRESENTATION_TIMESTAMP, streamIndexEntry.getPresentationTimestamp());
+    map.put(KLV_TIMESTAMP, streamIndexEntry.getKlvTimestamp());
+    return map;
+  }
+
   private String commaSeparatedListOfIPv4(NetworkInterface networkInterface) {
     return Collections.list(networkInterface.getInetAddresses())
         .stream()
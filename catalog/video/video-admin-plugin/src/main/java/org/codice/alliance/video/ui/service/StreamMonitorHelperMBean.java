@@ -40,6 +40,53 @@ public interface StreamMonitorHelperMBean {
    */
   List<Map<String, Object>> udpStreamMonitors();
 
+  /**
+   * Gets the transport metrics of each existing {@link
+   * org.codice.alliance.video.stream.mpegts.UdpStreamMonitor}, such as datagram and packet rates,
+   * continuity errors, PCR jitter, buffered data and rollover latency.
+   *
+   * @return a list of metric maps, each with the id and title of its monitor
+   */
+  List<Map<String, Object>> udpStreamMonitorMetrics();
+
+  /**
+   * Finds the last IDR frame presented at or before a presentation timestamp of a stream recorded
+   * by the monitor with the given servicePid.
+   *
+   * @param servicePid the servicePid of the monitor
+   * @param parentId the metacard id of the parent of the stream
+   * @param presentationTimestamp the presentation timestamp (90kHz)
+   * @return the chunk id, byte offset, presentation timestamp and KLV timestamp of the seek point,
+   *     or an empty map if there is no seek point
+   */
+  Map<String, Object> seekToPresentationTimestamp(
+      String servicePid, String parentId, long presentationTimestamp);
+
+  /**
+   * Finds the last IDR frame received at or before a KLV timestamp of a stream recorded by the
+   * monitor with the given servicePid.
+   *
+   * @param servicePid the servicePid of the monitor
+   * @param parentId the metacard id of the parent of the stream
+   * @param klvTimestamp the KLV precision timestamp (microseconds since epoch)
+   * @return the chunk id, byte offset, presentation timestamp and KLV timestamp of the seek point,
+   *     or an empty map if there is no seek point
+   */
+  Map<String, Object> seekToKlvTimestamp(String servicePid, String parentId, long klvTimestamp);
+
+  /**
+   * Gets the ids of the child video chunks of a stream recorded by the monitor with the given
+   * servicePid that contain data between two KLV timestamps.
+   *
+   * @param servicePid the servicePid of the monitor
+   * @param parentId the metacard id of the parent of the stream
+   * @param startKlvTimestamp start of the range (microseconds since epoch)
+   * @param endKlvTimestamp end of the range, inclusive (microseconds since epoch)
+   * @return the chunk ids in stream order
+   */
+  List<String> chunkIds(
+      String servicePid, String parentId, long startKlvTimestamp, long endKlvTimestamp);
+
   /**
    * Get the existing network interfaces. The map key is the interface name (eg. eth0) and the map
    * value is the interface display name (eg. Network 2) and IP address.
@@ -41,6 +41,7 @@ import java.util.Map;
 import java.util.Optional;
 import org.codice.alliance.video.stream.mpegts.StreamMonitor;
 import org.codice.alliance.video.stream.mpegts.UdpStreamMonitor;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndexEntry;
 import org.codice.alliance.video.ui.service.StreamMonitorHelper;
 import org.junit.Before;
 import org.junit.Rule;
@@ -138,6 +139,65 @@ public class StreamMonitorHelperTest {
     assertThat(objectMap.get(UdpStreamMonitor.METATYPE_MONITORED_ADDRESS), is(TEST_URL));
   }
 
+  @Test
+  public void testStreamMonitorMetrics() {
+    when(udpStreamMonitor.getMetrics())
+        .thenReturn(Collections.singletonMap("datagramsPerSecond", 100.0));
+
+    List<Map<String, Object>> list = stream.udpStreamMonitorMetrics();
+    assertThat(list, notNullValue());
+    assertThat(list.size(), is(1));
+    Map<String, Object> objectMap = list.get(0);
+    assertThat(objectMap.get("id"), is(StreamMonitorHelper.SERVICE_PID));
+    assertThat(objectMap.get(UdpStreamMonitor.METATYPE_TITLE), is("test"));
+    assertThat(objectMap.get("datagramsPerSecond"), is(100.0));
+  }
+
+  @Test
+  public void testStreamMonitorMetricsWrongService() {
+    when(bundleContext.getService(any(ServiceReference.class)))
+        .thenReturn(new OtherStreamMonitor());
+    List<Map<String, Object>> list = stream.udpStreamMonitorMetrics();
+    assertThat(list, notNullValue());
+    assertThat(list, hasSize(0));
+  }
+
+  @Test
+  public void testSeekToKlvTimestamp() {
+    when(udpStreamMonitor.seekToKlvTimestamp("parent", 2_000_000L))
+        .thenReturn(Optional.of(new StreamIndexEntry("child", 1000L, 180000L, 2_000_000L)));
+
+    Map<String, Object> map =
+        stream.seekToKlvTimestamp(StreamMonitorHelper.SERVICE_PID, "parent", 2_000_000L);
+    assertThat(map.get("chunkId"), is("child"));
+    assertThat(map.get("byteOffset"), is(1000L));
+    assertThat(map.get("presentationTimestamp"), is(180000L));
+    assertThat(map.get("klvTimestamp"), is(2_000_000L));
+  }
+
+  @Test
+  public void testSeekToPresentationTimestampNotIndexed() {
+    when(udpStreamMonitor.seekToPresentationTimestamp("parent", 180000L))
+        .thenReturn(Optional.empty());
+
+    Map<String, Object> map =
+        stream.seekToPresentationTimestamp(StreamMonitorHelper.SERVICE_PID, "parent", 180000L);
+    assertThat(map, is(Collections.emptyMap()));
+  }
+
+  @Test
+  public void testChunkIds() {
+    when(udpStreamMonitor.getChunkIds("parent", 1_000_000L, 3_000_000L))
+        .thenReturn(Arrays.asList("child1", "child2"));
+
+    assertThat(
+        stream.chunkIds(StreamMonitorHelper.SERVICE_PID, "parent", 1_000_000L, 3_000_000L),
+        is(Arrays.asList("child1", "child2")));
+    assertThat(
+        stream.chunkIds("otherServicePid", "parent", 1_000_000L, 3_000_000L),
+        is(Collections.emptyList()));
+  }
+
   @Test
   public void testStreamMonitorsNullBundleContext() {
     StreamMonitorHelper stream = new StreamMonitorHelper();
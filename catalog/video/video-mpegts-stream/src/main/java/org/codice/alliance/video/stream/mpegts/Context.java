@@ -16,15 +16,26 @@ package org.codice.alliance.video.stream.mpegts;
 import static org.apache.commons.lang3.Validate.notNull;
 
 import ddf.catalog.data.Metacard;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import org.codice.alliance.libs.klv.GeometryOperator;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndex;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** This class supplies data used by different parts of the stream processor. */
 public class Context {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(Context.class);
+
   private static final ThreadLocal<Boolean> IN_MODIFY_PARENT =
       new ThreadLocal<Boolean>() {
         @Override
@@ -49,6 +60,10 @@ public class Context {
 
   private final GeometryOperator.Context geometryOperatorContext = new GeometryOperator.Context();
 
+  private StreamIndex streamIndex;
+
+  private String streamIndexParentId;
+
   /** @param udpStreamProcessor must be non-null */
   public Context(UdpStreamProcessor udpStreamProcessor) {
     notNull(udpStreamProcessor, "udpStreamProcessor must be non-null");
@@ -73,6 +88,98 @@ public class Context {
     return geometryOperatorContext;
   }
 
+  /**
+   * Get the index of the seek points of the child video chunks of the parent metacard. The index is
+   * opened when it is first requested for a parent. If the stream processor has a stream index
+   * directory, then the index is stored in that directory in a file named after the parent id, and
+   * the file is kept after the stream ends. Otherwise, the index is only kept in memory. If the
+   * parent changes, then the index of the previous parent is closed.
+   *
+   * @return the stream index, or empty if there is no parent metacard
+   */
+  public synchronized Optional<StreamIndex> getStreamIndex() {
+    if (!parentMetacard.isPresent()) {
+      return Optional.empty();
+    }
+    String parentId = parentMetacard.get().getId();
+    if (streamIndex == null || !Objects.equals(parentId, streamIndexParentId)) {
+      closeStreamIndex();
+      streamIndex = openStreamIndex(parentId);
+      streamIndexParentId = parentId;
+    }
+    return Optional.of(streamIndex);
+  }
+
+  /**
+   * Find the index of the seek points of a parent metacard, which may be the current parent or the
+   * parent of a stream that has ended. The index of an ended stream is loaded from its file in the
+   * stream index directory.
+   *
+   * @param parentId the id of the parent metacard (must be non-null)
+   * @return the stream index, or empty if the parent has no stream index
+   */
+  public synchronized Optional<StreamIndex> findStreamIndex(String parentId) {
+    notNull(parentId, "parentId must be non-null");
+    if (streamIndex != null && parentId.equals(streamIndexParentId)) {
+      return Optional.of(streamIndex);
+    }
+    Path directory = udpStreamProcessor.getStreamIndexDirectory();
+    if (directory == null) {
+      return Optional.empty();
+    }
+    Path file = StreamIndex.getIndexFile(directory, parentId);
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(StreamIndex.load(file));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("unable to load the stream index: {}", file, e);
+      return Optional.empty();
+    }
+  }
+
+  /** Close the stream index. Its file is kept, and it will be opened again if it is requested. */
+  public synchronized void closeStreamIndex() {
+    if (streamIndex != null) {
+      streamIndex.close();
+      streamIndex = null;
+      streamIndexParentId = null;
+    }
+  }
+
+  /**
+   * Open the stream index of a new parent. The files in the stream index directory that are older
+   * than the stream index retention of the stream processor are deleted first.
+   */
+  private StreamIndex openStreamIndex(String parentId) {
+    Path directory = udpStreamProcessor.getStreamIndexDirectory();
+    if (directory == null || parentId == null) {
+      return new StreamIndex();
+    }
+    Path file = StreamIndex.getIndexFile(directory, parentId);
+    try {
+      Files.createDirectories(directory);
+      deleteExpiredStreamIndexes(directory);
+      return StreamIndex.open(file);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("unable to open the stream index, it will only be kept in memory: {}", file, e);
+      return new StreamIndex();
+    }
+  }
+
+  private void deleteExpiredStreamIndexes(Path directory) {
+    Duration retention = udpStreamProcessor.getStreamIndexRetention();
+    if (retention == null) {
+      return;
+    }
+    try {
+      StreamIndex.deleteExpired(directory, retention, Instant.now());
+    } catch (IOException | RuntimeException e) {
+      LOGGER.debug("unable to delete the expired stream indexes: {}", directory, e);
+    }
+  }
+
   /**
    * Callers that wish to modify the parent or child metacards should perform their actions with the
    * {@link Function} passed into this method. The function will be passed an {@link AtomicBoolean}
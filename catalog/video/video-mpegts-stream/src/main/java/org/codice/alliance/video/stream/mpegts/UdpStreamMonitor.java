@@ -35,6 +35,8 @@ import java.net.SocketException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -43,7 +45,9 @@ import java.util.Optional;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.codice.alliance.libs.klv.DecodedKlvRegistry;
 import org.codice.alliance.video.stream.mpegts.filename.FilenameGenerator;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndexEntry;
 import org.codice.alliance.video.stream.mpegts.metacard.MetacardUpdater;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
 import org.codice.alliance.video.stream.mpegts.plugins.StreamCreationPlugin;
@@ -104,6 +108,10 @@ public class UdpStreamMonitor implements StreamMonitor {
 
   public static final String METATYPE_DISTANCE_TOLERANCE = "distanceTolerance";
 
+  public static final String METATYPE_STREAM_INDEX_DIRECTORY = "streamIndexDirectory";
+
+  public static final String METATYPE_STREAM_INDEX_RETENTION = "streamIndexRetention";
+
   public static final String METATYPE_NETWORK_INTERFACE = "networkInterface";
 
   static final int MONITORED_PORT_MIN = 1;
@@ -177,6 +185,91 @@ public class UdpStreamMonitor implements StreamMonitor {
     udpStreamProcessor.setDistanceTolerance(distanceTolerance);
   }
 
+  public String getStreamIndexDirectory() {
+    return udpStreamProcessor.getStreamIndexDirectory() == null
+        ? null
+        : udpStreamProcessor.getStreamIndexDirectory().toString();
+  }
+
+  /**
+   * @param streamIndexDirectory may be null or empty/blank string, in which case the stream index
+   *     is only kept in memory
+   */
+  public void setStreamIndexDirectory(String streamIndexDirectory) {
+    if (StringUtils.isBlank(streamIndexDirectory)) {
+      udpStreamProcessor.setStreamIndexDirectory(null);
+    } else {
+      udpStreamProcessor.setStreamIndexDirectory(Paths.get(streamIndexDirectory.trim()));
+    }
+  }
+
+  public Integer getStreamIndexRetention() {
+    return udpStreamProcessor.getStreamIndexRetention() == null
+        ? null
+        : (int) udpStreamProcessor.getStreamIndexRetention().toDays();
+  }
+
+  /**
+   * @param days the number of days a stream index is kept after it was last written, may be null or
+   *     less than 1, in which case the stream indexes are never deleted
+   */
+  public void setStreamIndexRetention(Integer days) {
+    if (days == null || days < 1) {
+      udpStreamProcessor.setStreamIndexRetention(null);
+    } else {
+      udpStreamProcessor.setStreamIndexRetention(Duration.ofDays(days));
+    }
+  }
+
+  /**
+   * Find the last IDR frame presented at or before a presentation timestamp of a stream. The stream
+   * may be the current stream or a stream that has ended.
+   *
+   * @param parentId the metacard id of the parent (must be non-null)
+   * @param presentationTimestamp the presentation timestamp (90kHz)
+   * @return the seek point, or empty if the stream is not indexed or the timestamp is before the
+   *     start of the stream
+   */
+  public Optional<StreamIndexEntry> seekToPresentationTimestamp(
+      String parentId, long presentationTimestamp) {
+    notNull(parentId, "parentId must be non-null");
+    return udpStreamProcessor
+        .findStreamIndex(parentId)
+        .flatMap(streamIndex -> streamIndex.seekToPresentationTimestamp(presentationTimestamp));
+  }
+
+  /**
+   * Find the last IDR frame received at or before a KLV timestamp of a stream. The stream may be
+   * the current stream or a stream that has ended.
+   *
+   * @param parentId the metacard id of the parent (must be non-null)
+   * @param klvTimestamp the KLV precision timestamp (microseconds since epoch)
+   * @return the seek point, or empty if the stream is not indexed or the timestamp is before the
+   *     start of the stream
+   */
+  public Optional<StreamIndexEntry> seekToKlvTimestamp(String parentId, long klvTimestamp) {
+    notNull(parentId, "parentId must be non-null");
+    return udpStreamProcessor
+        .findStreamIndex(parentId)
+        .flatMap(streamIndex -> streamIndex.seekToKlvTimestamp(klvTimestamp));
+  }
+
+  /**
+   * Get the ids of the child video chunks of a stream that contain data between two KLV timestamps.
+   *
+   * @param parentId the metacard id of the parent (must be non-null)
+   * @param startKlvTimestamp start of the range (microseconds since epoch)
+   * @param endKlvTimestamp end of the range, inclusive (microseconds since epoch)
+   * @return the chunk ids in stream order, or an empty list if the stream is not indexed
+   */
+  public List<String> getChunkIds(String parentId, long startKlvTimestamp, long endKlvTimestamp) {
+    notNull(parentId, "parentId must be non-null");
+    return udpStreamProcessor
+        .findStreamIndex(parentId)
+        .map(streamIndex -> streamIndex.getChunkIds(startKlvTimestamp, endKlvTimestamp))
+        .orElse(Collections.emptyList());
+  }
+
   public String getNetworkInterface() {
     return this.networkInterface;
   }
@@ -190,6 +283,11 @@ public class UdpStreamMonitor implements StreamMonitor {
     }
   }
 
+  /** @param decodedKlvRegistry may be null */
+  public void setDecodedKlvRegistry(DecodedKlvRegistry decodedKlvRegistry) {
+    udpStreamProcessor.setDecodedKlvRegistry(decodedKlvRegistry);
+  }
+
   /** @param parentMetacardUpdater must be non-null */
   public void setParentMetacardUpdater(MetacardUpdater parentMetacardUpdater) {
     notNull(parentMetacardUpdater, "parentMetacardUpdater must be non-null");
@@ -306,6 +404,16 @@ public class UdpStreamMonitor implements StreamMonitor {
     return Optional.ofNullable(parentTitle);
   }
 
+  /**
+   * Get the transport metrics of the monitored stream, e.g. datagram and packet rates, continuity
+   * errors, PCR jitter, buffered data and rollover latency.
+   *
+   * @return map of metric names to values
+   */
+  public Map<String, Object> getMetrics() {
+    return udpStreamProcessor.getMetrics();
+  }
+
   /** @param metacardTypeList must be non-null */
   public void setMetacardTypeList(List<MetacardType> metacardTypeList) {
     notNull(metacardTypeList, "metacardTypeList must be non-null");
@@ -424,6 +532,16 @@ public class UdpStreamMonitor implements StreamMonitor {
         return;
       }
 
+      if (properties.get(METATYPE_STREAM_INDEX_DIRECTORY) != null
+          && !checkMetaTypeClass(properties, METATYPE_STREAM_INDEX_DIRECTORY, String.class)) {
+        return;
+      }
+
+      if (properties.get(METATYPE_STREAM_INDEX_RETENTION) != null
+          && !checkMetaTypeClass(properties, METATYPE_STREAM_INDEX_RETENTION, Integer.class)) {
+        return;
+      }
+
       setMonitoredAddress((String) properties.get(METATYPE_MONITORED_ADDRESS));
       setNetworkInterface((String) properties.get(METATYPE_NETWORK_INTERFACE));
       setMegabyteCountRolloverCondition(
@@ -434,6 +552,8 @@ public class UdpStreamMonitor implements StreamMonitor {
       setMetacardUpdateInitialDelay((Long) properties.get(METATYPE_METACARD_UPDATE_INITIAL_DELAY));
       setParentTitle((String) properties.get(METATYPE_PARENT_TITLE));
       setDistanceTolerance((Double) properties.get(METATYPE_DISTANCE_TOLERANCE));
+      setStreamIndexDirectory((String) properties.get(METATYPE_STREAM_INDEX_DIRECTORY));
+      setStreamIndexRetention((Integer) properties.get(METATYPE_STREAM_INDEX_RETENTION));
 
       init();
     }
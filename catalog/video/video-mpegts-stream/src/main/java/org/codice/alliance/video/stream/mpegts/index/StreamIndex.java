@@ -0,0 +1,436 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.index;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.codice.alliance.video.stream.mpegts.netty.KeyFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only index of the seek points of a stream. When a child video chunk is created, the IDR
+ * frames of the chunk are appended with the id of the chunk, so a presentation timestamp or a KLV
+ * timestamp can be mapped to the chunk and byte offset to start reading from with a binary search
+ * instead of a catalog query.
+ *
+ * <p>An index created by {@link #open(Path)} is backed by a journal file. Each chunk is appended to
+ * the journal as a single record, and the journal is replayed when the file is opened again. A
+ * partially written record at the end of the journal is discarded. The journal is kept after the
+ * stream ends, so the stream can still be searched, until {@link #deleteExpired(Path, Duration,
+ * Instant)} removes it. This implementation is thread-safe.
+ */
+public class StreamIndex implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamIndex.class);
+
+  private static final String FILE_EXTENSION = ".idx";
+
+  /** The first four bytes of a journal file ("MTSI"). */
+  private static final int MAGIC = 0x4d545349;
+
+  /** The presentation timestamp is a 33-bit counter that wraps around about every 26.5 hours. */
+  private static final long PRESENTATION_TIMESTAMP_ROLLOVER = 1L << 33;
+
+  private final List<StreamIndexEntry> entries = new ArrayList<>();
+
+  private final List<String> chunkIds = new ArrayList<>();
+
+  private final TimeKeys presentationTimestamps = new TimeKeys("presentationTimestamp");
+
+  private final TimeKeys klvTimestamps = new TimeKeys("klvTimestamp");
+
+  private long lastPresentationTimestamp = KeyFrame.UNKNOWN_TIME;
+
+  private long presentationTimestampBase = 0;
+
+  private DataOutputStream journal;
+
+  /** Create an index that is only kept in memory. */
+  public StreamIndex() {}
+
+  /**
+   * @param directory the directory of the journal files (must be non-null)
+   * @param parentId the metacard id of the parent (must be non-null)
+   * @return the journal file of the parent
+   */
+  public static Path getIndexFile(Path directory, String parentId) {
+    notNull(directory, "directory must be non-null");
+    notNull(parentId, "parentId must be non-null");
+    return directory.resolve(parentId + FILE_EXTENSION);
+  }
+
+  /**
+   * Open the index backed by a journal file. If the file exists, then the entries in the file are
+   * loaded. Otherwise, the file is created.
+   *
+   * @param file the journal file (must be non-null)
+   * @return the index
+   * @throws IOException if the file cannot be read or written, or it is not a journal file
+   */
+  public static StreamIndex open(Path file) throws IOException {
+    notNull(file, "file must be non-null");
+
+    StreamIndex streamIndex = new StreamIndex();
+
+    long validLength = 0;
+    if (Files.exists(file)) {
+      validLength = streamIndex.replay(Files.readAllBytes(file));
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+        if (channel.size() > validLength) {
+          LOGGER.debug("discarding a partial record at the end of the stream index: {}", file);
+          channel.truncate(validLength);
+        }
+      }
+    }
+
+    DataOutputStream journal =
+        new DataOutputStream(
+            new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    if (validLength == 0) {
+      journal.writeInt(MAGIC);
+      journal.flush();
+    }
+    streamIndex.journal = journal;
+
+    return streamIndex;
+  }
+
+  /**
+   * Load the index of a journal file without opening the file for writing, e.g. to look up the seek
+   * points of a stream that has ended. A partially written record at the end of the journal is
+   * ignored.
+   *
+   * @param file the journal file (must be non-null)
+   * @return the index, which is only kept in memory
+   * @throws IOException if the file cannot be read, or it is not a journal file
+   */
+  public static StreamIndex load(Path file) throws IOException {
+    notNull(file, "file must be non-null");
+
+    StreamIndex streamIndex = new StreamIndex();
+    streamIndex.replay(Files.readAllBytes(file));
+    return streamIndex;
+  }
+
+  /**
+   * Delete the journal files in a directory that have not been modified for longer than the
+   * retention period.
+   *
+   * @param directory the directory of the journal files (must be non-null)
+   * @param retention how long a journal file is kept after it was last modified (must be non-null)
+   * @param now the current time (must be non-null)
+   * @return the number of journal files that were deleted
+   * @throws IOException if the directory cannot be read
+   */
+  public static int deleteExpired(Path directory, Duration retention, Instant now)
+      throws IOException {
+    notNull(directory, "directory must be non-null");
+    notNull(retention, "retention must be non-null");
+    notNull(now, "now must be non-null");
+
+    if (!Files.isDirectory(directory)) {
+      return 0;
+    }
+
+    Instant expiry = now.minus(retention);
+    int deleted = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+      for (Path file : files) {
+        try {
+          if (Files.getLastModifiedTime(file).toInstant().isBefore(expiry)
+              && Files.deleteIfExists(file)) {
+            LOGGER.debug("deleted an expired stream index: {}", file);
+            deleted++;
+          }
+        } catch (IOException e) {
+          LOGGER.debug("unable to delete an expired stream index: {}", file, e);
+        }
+      }
+    }
+    return deleted;
+  }
+
+  /**
+   * Append the seek points of a child video chunk. If the chunk does not start with an IDR frame, a
+   * seek point without times is added for the start of the chunk, so that every chunk is in the
+   * index. If the journal cannot be written, the index continues in memory only.
+   *
+   * @param chunkId the metacard id of the child video chunk (must be non-null)
+   * @param keyFrames the IDR frames of the chunk in file order (must be non-null)
+   */
+  public synchronized void append(String chunkId, List<KeyFrame> keyFrames) {
+    notNull(chunkId, "chunkId must be non-null");
+    notNull(keyFrames, "keyFrames must be non-null");
+
+    addChunk(chunkId, keyFrames);
+
+    if (journal != null) {
+      try {
+        journal.write(toRecord(chunkId, keyFrames));
+        journal.flush();
+      } catch (IOException e) {
+        LOGGER.debug("unable to write the stream index, it will only be kept in memory", e);
+        closeJournal();
+      }
+    }
+  }
+
+  /**
+   * Find the last IDR frame presented at or before a presentation timestamp.
+   *
+   * @param presentationTimestamp the presentation timestamp (90kHz), extended past the 33-bit
+   *     rollover as it is in {@link StreamIndexEntry#getPresentationTimestamp()}
+   * @return the seek point, or empty if the timestamp is before the start of the index
+   */
+  public synchronized Optional<StreamIndexEntry> seekToPresentationTimestamp(
+      long presentationTimestamp) {
+    return entry(presentationTimestamps.floor(presentationTimestamp));
+  }
+
+  /**
+   * Find the last IDR frame received at or before a KLV timestamp.
+   *
+   * @param klvTimestamp the KLV precision timestamp (microseconds since epoch)
+   * @return the seek point, or empty if the timestamp is before the start of the index
+   */
+  public synchronized Optional<StreamIndexEntry> seekToKlvTimestamp(long klvTimestamp) {
+    return entry(klvTimestamps.floor(klvTimestamp));
+  }
+
+  /**
+   * Get the ids of the child video chunks that contain data between two KLV timestamps.
+   *
+   * @param startKlvTimestamp start of the range (microseconds since epoch)
+   * @param endKlvTimestamp end of the range, inclusive (microseconds since epoch)
+   * @return the chunk ids in stream order
+   */
+  public synchronized List<String> getChunkIds(long startKlvTimestamp, long endKlvTimestamp) {
+    int last = klvTimestamps.floor(endKlvTimestamp);
+    if (last < 0 || startKlvTimestamp > endKlvTimestamp) {
+      return Collections.emptyList();
+    }
+    int first = Math.max(klvTimestamps.floor(startKlvTimestamp), 0);
+
+    List<String> result = new ArrayList<>();
+    for (int i = first; i <= last; i++) {
+      String chunkId = entries.get(i).getChunkId();
+      if (result.isEmpty() || !result.get(result.size() - 1).equals(chunkId)) {
+        result.add(chunkId);
+      }
+    }
+    return result;
+  }
+
+  /** @return the ids of all of the child video chunks in stream order */
+  public synchronized List<String> getChunkIds() {
+    return new ArrayList<>(chunkIds);
+  }
+
+  /** @return the number of seek points */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** @return true if the index is backed by a journal file */
+  public synchronized boolean isPersistent() {
+    return journal != null;
+  }
+
+  @Override
+  public synchronized void close() {
+    closeJournal();
+  }
+
+  private void closeJournal() {
+    if (journal != null) {
+      try {
+        journal.close();
+      } catch (IOException e) {
+        LOGGER.debug("unable to close the stream index", e);
+      }
+      journal = null;
+    }
+  }
+
+  private Optional<StreamIndexEntry> entry(int index) {
+    return index < 0 ? Optional.empty() : Optional.of(entries.get(index));
+  }
+
+  private void addChunk(String chunkId, List<KeyFrame> keyFrames) {
+    chunkIds.add(chunkId);
+    if (keyFrames.isEmpty() || keyFrames.get(0).getByteOffset() != 0) {
+      addEntry(chunkId, 0, KeyFrame.UNKNOWN_TIME, KeyFrame.UNKNOWN_TIME);
+    }
+    for (KeyFrame keyFrame : keyFrames) {
+      addEntry(
+          chunkId,
+          keyFrame.getByteOffset(),
+          keyFrame.getPresentationTimestamp(),
+          keyFrame.getKlvTimestamp());
+    }
+  }
+
+  private void addEntry(
+      String chunkId, long byteOffset, long presentationTimestamp, long klvTimestamp) {
+    long extendedPresentationTimestamp = extendPresentationTimestamp(presentationTimestamp);
+    int index = entries.size();
+    entries.add(
+        new StreamIndexEntry(chunkId, byteOffset, extendedPresentationTimestamp, klvTimestamp));
+    presentationTimestamps.add(extendedPresentationTimestamp, index);
+    klvTimestamps.add(klvTimestamp, index);
+  }
+
+  /**
+   * When the 33-bit presentation timestamp wraps around, add the rollover to each following
+   * timestamp so the timestamps keep increasing.
+   */
+  private long extendPresentationTimestamp(long presentationTimestamp) {
+    if (presentationTimestamp == KeyFrame.UNKNOWN_TIME) {
+      return KeyFrame.UNKNOWN_TIME;
+    }
+    if (lastPresentationTimestamp != KeyFrame.UNKNOWN_TIME
+        && presentationTimestamp
+            < lastPresentationTimestamp - PRESENTATION_TIMESTAMP_ROLLOVER / 2) {
+      presentationTimestampBase += PRESENTATION_TIMESTAMP_ROLLOVER;
+    }
+    lastPresentationTimestamp = presentationTimestamp;
+    return presentationTimestampBase + presentationTimestamp;
+  }
+
+  private static byte[] toRecord(String chunkId, List<KeyFrame> keyFrames) throws IOException {
+    ByteArrayOutputStream record = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(record)) {
+      out.writeUTF(chunkId);
+      out.writeInt(keyFrames.size());
+      for (KeyFrame keyFrame : keyFrames) {
+        out.writeLong(keyFrame.getByteOffset());
+        out.writeLong(keyFrame.getPresentationTimestamp());
+        out.writeLong(keyFrame.getKlvTimestamp());
+      }
+    }
+    return record.toByteArray();
+  }
+
+  /**
+   * Load the records of a journal file.
+   *
+   * @return the length of the complete records, including the magic number
+   */
+  private long replay(byte[] bytes) throws IOException {
+    if (bytes.length == 0) {
+      return 0;
+    }
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (bytes.length < Integer.BYTES || in.readInt() != MAGIC) {
+      throw new IOException("the file is not a stream index");
+    }
+
+    long validLength = Integer.BYTES;
+    try {
+      while (in.available() > 0) {
+        String chunkId = in.readUTF();
+        int keyFrameCount = in.readInt();
+        List<KeyFrame> keyFrames = new ArrayList<>();
+        for (int i = 0; i < keyFrameCount; i++) {
+          keyFrames.add(new KeyFrame(in.readLong(), in.readLong(), in.readLong()));
+        }
+        addChunk(chunkId, keyFrames);
+        validLength = bytes.length - in.available();
+      }
+    } catch (EOFException e) {
+      LOGGER.debug("the stream index ends with a partial record", e);
+    }
+    return validLength;
+  }
+
+  /**
+   * A sorted list of the known times of the seek points. A time that is earlier than the previous
+   * time is not added, which keeps the list sorted when the source of the time has a discontinuity.
+   */
+  private static class TimeKeys {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final String name;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    private int[] entryIndexes = new int[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    TimeKeys(String name) {
+      this.name = name;
+    }
+
+    void add(long key, int entryIndex) {
+      if (key == KeyFrame.UNKNOWN_TIME) {
+        return;
+      }
+      if (size > 0 && key < keys[size - 1]) {
+        LOGGER.debug(
+            "skipping out of order time in stream index: {}={} previous={}",
+            name,
+            key,
+            keys[size - 1]);
+        return;
+      }
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        entryIndexes = Arrays.copyOf(entryIndexes, size * 2);
+      }
+      keys[size] = key;
+      entryIndexes[size] = entryIndex;
+      size++;
+    }
+
+    /** @return the entry index of the last key that is less than or equal to the key, or -1 */
+    int floor(long key) {
+      int low = 0;
+      int high = size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (keys[mid] <= key) {
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return high < 0 ? -1 : entryIndexes[high];
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.index;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+/**
+ * A seek point of a stream: the location of an IDR frame within a child video chunk. Times that
+ * are not known are {@link org.codice.alliance.video.stream.mpegts.netty.KeyFrame#UNKNOWN_TIME}.
+ */
+public class StreamIndexEntry {
+
+  private final String chunkId;
+
+  private final long byteOffset;
+
+  private final long presentationTimestamp;
+
+  private final long klvTimestamp;
+
+  /**
+   * @param chunkId the metacard id of the child video chunk (must be non-null)
+   * @param byteOffset offset of the IDR frame within the child video chunk
+   * @param presentationTimestamp the presentation timestamp (90kHz), extended past the 33-bit
+   *     rollover so that it increases for the life of the stream
+   * @param klvTimestamp the KLV precision timestamp (microseconds since epoch)
+   */
+  public StreamIndexEntry(
+      String chunkId, long byteOffset, long presentationTimestamp, long klvTimestamp) {
+    notNull(chunkId, "chunkId must be non-null");
+    this.chunkId = chunkId;
+    this.byteOffset = byteOffset;
+    this.presentationTimestamp = presentationTimestamp;
+    this.klvTimestamp = klvTimestamp;
+  }
+
+  public String getChunkId() {
+    return chunkId;
+  }
+
+  public long getByteOffset() {
+    return byteOffset;
+  }
+
+  public long getPresentationTimestamp() {
+    return presentationTimestamp;
+  }
+
+  public long getKlvTimestamp() {
+    return klvTimestamp;
+  }
+
+  @Override
+  public String toString() {
+    return "StreamIndexEntry{"
+        + "chunkId='"
+        + chunkId
+        + '\''
+        + ", byteOffset="
+        + byteOffset
+        + ", presentationTimestamp="
+        + presentationTimestamp
+        + ", klvTimestamp="
+        + klvTimestamp
+        + '}';
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative values. Values are counted in power-of-two buckets, so
+ * recording a value is a few atomic increments and a percentile is accurate to within a factor of
+ * two.
+ */
+public class Histogram {
+
+  /** Bucket 0 holds 0, and bucket n holds the values from 2^(n-1) to 2^n - 1. */
+  private static final int BUCKET_COUNT = Long.SIZE;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+  private final LongAdder count = new LongAdder();
+
+  private final LongAdder sum = new LongAdder();
+
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /** @param value negative values are recorded as 0 */
+  public void record(long value) {
+    long nonNegative = Math.max(0, value);
+    buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(nonNegative));
+    count.increment();
+    sum.add(nonNegative);
+    max.accumulate(nonNegative);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long n = count.sum();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  /**
+   * @param percentile between 0 and 100
+   * @return the upper bound of the bucket that holds the percentile, or 0 if nothing has been
+   *     recorded
+   */
+  public long getPercentile(double percentile) {
+    long n = count.sum();
+    if (n == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(n * Math.min(100, Math.max(0, percentile)) / 100));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+      seen += buckets.get(bucket);
+      if (seen >= rank) {
+        return Math.min(upperBound(bucket), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  private static long upperBound(int bucket) {
+    return bucket == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+}
@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.metrics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transport level metrics of one stream. Recording uses lock-free counters and {@link Histogram}s,
+ * so the metrics are always collected.
+ *
+ * <p>{@link #recordTransportPacket} must only be called by the thread that decodes the stream,
+ * because the continuity counter and PCR state of each packet ID is not shared.
+ */
+public class StreamMetrics {
+
+  public static final String DATAGRAMS = "datagrams";
+
+  public static final String DATAGRAMS_PER_SECOND = "datagramsPerSecond";
+
+  public static final String TRANSPORT_PACKETS = "transportPackets";
+
+  public static final String TRANSPORT_PACKETS_PER_SECOND = "transportPacketsPerSecond";
+
+  public static final String BYTES_RECEIVED = "bytesReceived";
+
+  public static final String CONTINUITY_ERRORS = "continuityErrors";
+
+  public static final String CONTINUITY_ERRORS_BY_PID = "continuityErrorsByPid";
+
+  public static final String PCR_JITTER_MICROSECONDS = "pcrJitterMicroseconds";
+
+  public static final String ROLLOVER_MILLISECONDS = "rolloverMilliseconds";
+
+  public static final String CATALOG_CREATE_MILLISECONDS = "catalogCreateMilliseconds";
+
+  public static final String INGEST_LAG_MILLISECONDS = "ingestLagMilliseconds";
+
+  private static final int PID_COUNT = 0x2000;
+
+  private static final int NULL_PID = 0x1fff;
+
+  private static final byte NO_CONTINUITY_COUNTER = -1;
+
+  private static final int DISCONTINUITY_INDICATOR = 0x80;
+
+  private static final int PCR_FLAG = 0x10;
+
+  /** The adaptation field length that is needed to hold the flags and the PCR. */
+  private static final int PCR_ADAPTATION_FIELD_LENGTH = 7;
+
+  /** PCR intervals longer than this are treated as a discontinuity instead of jitter. */
+  private static final long MAX_PCR_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final LongAdder datagrams = new LongAdder();
+
+  private final LongAdder transportPackets = new LongAdder();
+
+  private final LongAdder bytesReceived = new LongAdder();
+
+  private final LongAdder continuityErrors = new LongAdder();
+
+  private final Map<Integer, LongAdder> continuityErrorsByPid = new ConcurrentHashMap<>();
+
+  private final Histogram pcrJitterMicros = new Histogram();
+
+  private final Histogram rolloverMillis = new Histogram();
+
+  private final Histogram catalogCreateMillis = new Histogram();
+
+  private final Histogram ingestLagMillis = new Histogram();
+
+  /** Last continuity counter of each packet ID. Only used by the decoding thread. */
+  private final byte[] continuityCounters = new byte[PID_COUNT];
+
+  /** Last PCR (27MHz) and arrival time of each PCR packet ID. Only used by the decoding thread. */
+  private final Map<Integer, long[]> pcrs = new HashMap<>();
+
+  private volatile double datagramsPerSecond = 0;
+
+  private volatile double transportPacketsPerSecond = 0;
+
+  private long rateNanos = System.nanoTime();
+
+  private long rateDatagrams = 0;
+
+  private long rateTransportPackets = 0;
+
+  public StreamMetrics() {
+    Arrays.fill(continuityCounters, NO_CONTINUITY_COUNTER);
+  }
+
+  /** @param byteCount number of bytes in the datagram */
+  public void recordDatagram(int byteCount) {
+    datagrams.increment();
+    bytesReceived.add(byteCount);
+  }
+
+  /**
+   * Check the continuity counter of a transport stream packet and, if the packet carries a PCR,
+   * record the difference between the PCR interval and the arrival interval as jitter.
+   *
+   * @param packet a complete 188 byte transport stream packet
+   * @param arrivalNanos when the packet was received, in {@link System#nanoTime()} units
+   */
+  public void recordTransportPacket(byte[] packet, long arrivalNanos) {
+    transportPackets.increment();
+
+    int pid = ((packet[1] & 0x1f) << 8) | (packet[2] & 0xff);
+    if (pid == NULL_PID) {
+      return;
+    }
+
+    int adaptationFieldControl = (packet[3] >> 4) & 0x3;
+    boolean hasAdaptationField = (adaptationFieldControl & 0x2) != 0;
+    boolean hasPayload = (adaptationFieldControl & 0x1) != 0;
+    int adaptationFieldLength = hasAdaptationField ? packet[4] & 0xff : 0;
+    int adaptationFieldFlags = adaptationFieldLength > 0 ? packet[5] & 0xff : 0;
+    boolean discontinuity = (adaptationFieldFlags & DISCONTINUITY_INDICATOR) != 0;
+
+    checkContinuity(pid, (byte) (packet[3] & 0x0f), hasPayload, discontinuity);
+
+    if ((adaptationFieldFlags & PCR_FLAG) != 0
+        && adaptationFieldLength >= PCR_ADAPTATION_FIELD_LENGTH) {
+      recordPcr(pid, readPcr(packet), arrivalNanos, discontinuity);
+    }
+  }
+
+  /** @param millis time taken to hand a temporary data file to the rollover action */
+  public void recordRollover(long millis) {
+    rolloverMillis.record(millis);
+  }
+
+  /** @param millis time taken by the catalog framework to create a child metacard */
+  public void recordCatalogCreate(long millis) {
+    catalogCreateMillis.record(millis);
+  }
+
+  /**
+   * @param millis time from when the first data of a video chunk was written to its temporary data
+   *     file until the rollover action finished with the chunk
+   */
+  public void recordIngestLag(long millis) {
+    ingestLagMillis.record(millis);
+  }
+
+  /** Update the per second rates from the counts since the previous call. */
+  public synchronized void updateRates() {
+    long now = System.nanoTime();
+    long elapsedNanos = now - rateNanos;
+    if (elapsedNanos <= 0) {
+      return;
+    }
+    long datagramCount = datagrams.sum();
+    long transportPacketCount = transportPackets.sum();
+    double seconds = (double) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+    datagramsPerSecond = (datagramCount - rateDatagrams) / seconds;
+    transportPacketsPerSecond = (transportPacketCount - rateTransportPackets) / seconds;
+    rateNanos = now;
+    rateDatagrams = datagramCount;
+    rateTransportPackets = transportPacketCount;
+  }
+
+  public long getDatagrams() {
+    return datagrams.sum();
+  }
+
+  public double getDatagramsPerSecond() {
+    return datagramsPerSecond;
+  }
+
+  public long getTransportPackets() {
+    return transportPackets.sum();
+  }
+
+  public double getTransportPacketsPerSecond() {
+    return transportPacketsPerSecond;
+  }
+
+  public long getBytesReceived() {
+    return bytesReceived.sum();
+  }
+
+  public long getContinuityErrors() {
+    return continuityErrors.sum();
+  }
+
+  /** @return the number of continuity errors of each packet ID that has had an error */
+  public Map<Integer, Long> getContinuityErrorsByPid() {
+    Map<Integer, Long> errors = new TreeMap<>();
+    continuityErrorsByPid.forEach((pid, count) -> errors.put(pid, count.sum()));
+    return errors;
+  }
+
+  public Histogram getPcrJitterMicros() {
+    return pcrJitterMicros;
+  }
+
+  public Histogram getRolloverMillis() {
+    return rolloverMillis;
+  }
+
+  public Histogram getCatalogCreateMillis() {
+    return catalogCreateMillis;
+  }
+
+  public Histogram getIngestLagMillis() {
+    return ingestLagMillis;
+  }
+
+  /**
+   * Get the current values as a map that can be returned by an MBean. Histograms are summarized
+   * by their count, mean, median, 99th percentile and maximum.
+   *
+   * @return map of metric names to values
+   */
+  public Map<String, Object> toMap() {
+    Map<String, Object> map = new HashMap<>();
+    map.put(DATAGRAMS, getDatagrams());
+    map.put(DATAGRAMS_PER_SECOND, getDatagramsPerSecond());
+    map.put(TRANSPORT_PACKETS, getTransportPackets());
+    map.put(TRANSPORT_PACKETS_PER_SECOND, getTransportPacketsPerSecond());
+    map.put(BYTES_RECEIVED, getBytesReceived());
+    map.put(CONTINUITY_ERRORS, getContinuityErrors());
+    Map<String, Long> errorsByPid = new TreeMap<>();
+    getContinuityErrorsByPid().forEach((pid, count) -> errorsByPid.put(String.valueOf(pid), count));
+    map.put(CONTINUITY_ERRORS_BY_PID, errorsByPid);
+    map.put(PCR_JITTER_MICROSECONDS, summarize(pcrJitterMicros));
+    map.put(ROLLOVER_MILLISECONDS, summarize(rolloverMillis));
+    map.put(CATALOG_CREATE_MILLISECONDS, summarize(catalogCreateMillis));
+    map.put(INGEST_LAG_MILLISECONDS, summarize(ingestLagMillis));
+    return map;
+  }
+
+  private void checkContinuity(
+      int pid, byte continuityCounter, boolean hasPayload, boolean discontinuity) {
+    byte previous = continuityCounters[pid];
+    continuityCounters[pid] = continuityCounter;
+
+    if (previous == NO_CONTINUITY_COUNTER || discontinuity) {
+      return;
+    }
+
+    // the counter only increments on packets with a payload, and a packet may be sent twice
+    boolean expected =
+        continuityCounter == previous
+            || (hasPayload && continuityCounter == ((previous + 1) & 0x0f));
+
+    if (!expected) {
+      continuityErrors.increment();
+      continuityErrorsByPid.computeIfAbsent(pid, key -> new LongAdder()).increment();
+    }
+  }
+
+  private void recordPcr(int pid, long pcr, long arrivalNanos, boolean discontinuity) {
+    long[] previous = pcrs.get(pid);
+    if (previous == null) {
+      pcrs.put(pid, new long[] {pcr, arrivalNanos});
+      return;
+    }
+
+    long pcrIntervalNanos = (pcr - previous[0]) * 1000 / 27;
+    if (!discontinuity && pcrIntervalNanos > 0 && pcrIntervalNanos <= MAX_PCR_INTERVAL_NANOS) {
+      long arrivalIntervalNanos = arrivalNanos - previous[1];
+      pcrJitterMicros.record(
+          TimeUnit.NANOSECONDS.toMicros(Math.abs(arrivalIntervalNanos - pcrIntervalNanos)));
+    }
+
+    previous[0] = pcr;
+    previous[1] = arrivalNanos;
+  }
+
+  /** @return the 27MHz program clock reference, which is the 90kHz base * 300 + the extension */
+  private static long readPcr(byte[] packet) {
+    long base =
+        ((long) (packet[6] & 0xff) << 25)
+            | ((packet[7] & 0xff) << 17)
+            | ((packet[8] & 0xff) << 9)
+            | ((packet[9] & 0xff) << 1)
+            | ((packet[10] & 0x80) >> 7);
+    long extension = ((packet[10] & 0x01) << 8) | (packet[11] & 0xff);
+    return base * 300 + extension;
+  }
+
+  private static Map<String, Object> summarize(Histogram histogram) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("count", histogram.getCount());
+    map.put("mean", histogram.getMean());
+    map.put("p50", histogram.getPercentile(50));
+    map.put("p99", histogram.getPercentile(99));
+    map.put("max", histogram.getMax());
+    return map;
+  }
+}
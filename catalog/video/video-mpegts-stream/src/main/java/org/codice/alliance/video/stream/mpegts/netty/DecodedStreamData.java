@@ -31,5 +31,13 @@ interface DecodedStreamData {
 
     /** @param decodedStreamData must be non-null */
     void visit(Mpeg4DecodedStreamData decodedStreamData);
+
+    /**
+     * Metadata does not affect frame boundaries, so visitors that only care about video may ignore
+     * it.
+     *
+     * @param decodedStreamData must be non-null
+     */
+    default void visit(KlvDecodedStreamData decodedStreamData) {}
   }
 }
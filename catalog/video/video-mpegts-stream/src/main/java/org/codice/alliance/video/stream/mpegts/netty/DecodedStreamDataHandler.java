@@ -25,7 +25,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Netty handler for {@link DecodedStreamData}. If called with video data, then tells the
- * PacketBuffer if the data contains an IDR or NON-IDR frame.
+ * PacketBuffer if the data contains an IDR or NON-IDR frame. If called with metadata, then hands
+ * the decoded metadata to the PacketBuffer so it is kept with the video chunk it arrived in.
  */
 class DecodedStreamDataHandler extends ChannelInboundHandlerAdapter {
 
@@ -56,36 +57,47 @@ class DecodedStreamDataHandler extends ChannelInboundHandlerAdapter {
         new DecodedStreamData.Visitor() {
           @Override
           public void visit(Mpeg2DecodedStreamData decodedStreamData) {
-            handleMpeg2(decodedStreamData.getListOfTypes());
+            handleMpeg2(
+                decodedStreamData.getListOfTypes(), decodedStreamData.getPresentationTimestamp());
           }
 
           @Override
           public void visit(Mpeg4DecodedStreamData decodedStreamData) {
-            handleNALUnits(decodedStreamData.getNalUnits());
+            handleNALUnits(
+                decodedStreamData.getNalUnits(), decodedStreamData.getPresentationTimestamp());
+          }
+
+          @Override
+          public void visit(KlvDecodedStreamData decodedStreamData) {
+            packetBuffer.addDecodedKlv(
+                decodedStreamData.getPacketId(), decodedStreamData.getDecodedKLVMetadataPacket());
           }
         });
   }
 
-  private void frameComplete(boolean isIDR) {
-    packetBuffer.frameComplete(isIDR ? PacketBuffer.FrameType.IDR : PacketBuffer.FrameType.NON_IDR);
+  private void frameComplete(boolean isIDR, long presentationTimestamp) {
+    packetBuffer.frameComplete(
+        isIDR ? PacketBuffer.FrameType.IDR : PacketBuffer.FrameType.NON_IDR,
+        presentationTimestamp);
   }
 
-  private void handleMpeg2(List<Mpeg2PictureType> mpeg2PictureTypeList) {
+  private void handleMpeg2(
+      List<Mpeg2PictureType> mpeg2PictureTypeList, long presentationTimestamp) {
 
     boolean allIntraCoded =
         mpeg2PictureTypeList
             .stream()
             .allMatch(mpeg2PictureType -> mpeg2PictureType == Mpeg2PictureType.INTRA_CODED);
 
-    frameComplete(allIntraCoded);
+    frameComplete(allIntraCoded, presentationTimestamp);
   }
 
-  private void handleNALUnits(List<NALUnit> nalUnitList) {
+  private void handleNALUnits(List<NALUnit> nalUnitList, long presentationTimestamp) {
 
     boolean containsIDR =
         nalUnitList.stream().anyMatch(nalUnit -> nalUnit.type == NALUnitType.IDR_SLICE);
 
-    frameComplete(containsIDR);
+    frameComplete(containsIDR, presentationTimestamp);
   }
 
   @Override
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.netty;
+
+/**
+ * The location of an IDR frame within a temporary data file, along with the times that the frame
+ * was presented and the most recent metadata timestamp when it was received. Times that are not
+ * known are {@link #UNKNOWN_TIME}.
+ */
+public class KeyFrame {
+
+  public static final long UNKNOWN_TIME = -1;
+
+  private final long byteOffset;
+
+  private final long presentationTimestamp;
+
+  private final long klvTimestamp;
+
+  /**
+   * @param byteOffset offset of the first packet of the frame within the file
+   * @param presentationTimestamp the 33-bit PES presentation timestamp (90kHz) or {@link
+   *     #UNKNOWN_TIME}
+   * @param klvTimestamp the KLV precision timestamp (microseconds since epoch) or {@link
+   *     #UNKNOWN_TIME}
+   */
+  public KeyFrame(long byteOffset, long presentationTimestamp, long klvTimestamp) {
+    this.byteOffset = byteOffset;
+    this.presentationTimestamp = presentationTimestamp;
+    this.klvTimestamp = klvTimestamp;
+  }
+
+  public long getByteOffset() {
+    return byteOffset;
+  }
+
+  public long getPresentationTimestamp() {
+    return presentationTimestamp;
+  }
+
+  public long getKlvTimestamp() {
+    return klvTimestamp;
+  }
+
+  @Override
+  public String toString() {
+    return "KeyFrame{"
+        + "byteOffset="
+        + byteOffset
+        + ", presentationTimestamp="
+        + presentationTimestamp
+        + ", klvTimestamp="
+        + klvTimestamp
+        + '}';
+  }
+}
@@ -23,14 +23,28 @@ public class Mpeg2DecodedStreamData implements DecodedStreamData {
 
   private final int packetId;
 
+  private final long presentationTimestamp;
+
   /**
    * @param listOfTypes list of Mpeg2PictureType enums (must be non-null)
    * @param packetId MPEG-TS packet identifier
    */
   public Mpeg2DecodedStreamData(List<Mpeg2PictureType> listOfTypes, int packetId) {
+    this(listOfTypes, packetId, KeyFrame.UNKNOWN_TIME);
+  }
+
+  /**
+   * @param listOfTypes list of Mpeg2PictureType enums (must be non-null)
+   * @param packetId MPEG-TS packet identifier
+   * @param presentationTimestamp PES presentation timestamp (90kHz) or {@link
+   *     KeyFrame#UNKNOWN_TIME}
+   */
+  public Mpeg2DecodedStreamData(
+      List<Mpeg2PictureType> listOfTypes, int packetId, long presentationTimestamp) {
     notNull(listOfTypes, "listOfTypes must be non-null");
     this.listOfTypes = listOfTypes;
     this.packetId = packetId;
+    this.presentationTimestamp = presentationTimestamp;
   }
 
   @Override
@@ -43,6 +57,11 @@ public class Mpeg2DecodedStreamData implements DecodedStreamData {
     return listOfTypes;
   }
 
+  /** @return PES presentation timestamp (90kHz) or {@link KeyFrame#UNKNOWN_TIME} */
+  public long getPresentationTimestamp() {
+    return presentationTimestamp;
+  }
+
   @Override
   public void accept(Visitor visitor) {
     notNull(visitor, "visitor must be non-null");
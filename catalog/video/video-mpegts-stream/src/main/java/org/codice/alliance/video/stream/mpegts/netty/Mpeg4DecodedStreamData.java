@@ -24,14 +24,27 @@ public class Mpeg4DecodedStreamData implements DecodedStreamData {
 
   private final int packetId;
 
+  private final long presentationTimestamp;
+
   /**
    * @param nalUnits list of NAL units (must be non-null)
    * @param packetId MPEG-TS packet identifier
    */
   public Mpeg4DecodedStreamData(List<NALUnit> nalUnits, int packetId) {
+    this(nalUnits, packetId, KeyFrame.UNKNOWN_TIME);
+  }
+
+  /**
+   * @param nalUnits list of NAL units (must be non-null)
+   * @param packetId MPEG-TS packet identifier
+   * @param presentationTimestamp PES presentation timestamp (90kHz) or {@link
+   *     KeyFrame#UNKNOWN_TIME}
+   */
+  public Mpeg4DecodedStreamData(List<NALUnit> nalUnits, int packetId, long presentationTimestamp) {
     notNull(nalUnits, "nalUnits must be non-null");
     this.nalUnits = nalUnits;
     this.packetId = packetId;
+    this.presentationTimestamp = presentationTimestamp;
   }
 
   /** @return list of NAL units */
@@ -44,6 +57,11 @@ public class Mpeg4DecodedStreamData implements DecodedStreamData {
     return packetId;
   }
 
+  /** @return PES presentation timestamp (90kHz) or {@link KeyFrame#UNKNOWN_TIME} */
+  public long getPresentationTimestamp() {
+    return presentationTimestamp;
+  }
+
   @Override
   public void accept(Visitor visitor) {
     notNull(visitor, "visitor must be non-null");
@@ -25,12 +25,21 @@ import java.util.List;
 import java.util.Optional;
 import org.codice.alliance.libs.mpegts.MpegStreamType;
 import org.codice.alliance.libs.mpegts.PESPacket;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
+import org.codice.alliance.libs.stanag4609.PESUtilities;
+import org.codice.alliance.libs.stanag4609.Stanag4609TransportStreamParser;
+import org.codice.ddf.libs.klv.KlvDecoder;
+import org.codice.ddf.libs.klv.KlvDecodingException;
 import org.jcodec.codecs.h264.H264Utils;
 import org.jcodec.codecs.h264.io.model.NALUnit;
+import org.jcodec.containers.mps.MPSUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Decodes PESPacket into NALUnits. If the PES is some other type, then it is ignored. */
+/**
+ * Decodes PESPacket into NALUnits, or into STANAG 4609 metadata for metadata streams. If the PES is
+ * some other type, then it is ignored.
+ */
 class PESPacketToApplicationDataDecoder extends MessageToMessageDecoder<PESPacket> {
 
   private static final Logger LOGGER =
@@ -46,12 +55,20 @@ class PESPacketToApplicationDataDecoder extends MessageToMessageDecoder<PESPacke
 
   private NALParser nalParser = NALUnit::read;
 
+  private KlvPacketDecoder klvPacketDecoder = createKlvPacketDecoder();
+
   /** @param nalParser must be non-null */
   public void setNalParser(NALParser nalParser) {
     notNull(nalParser, "nalParser must be non-null");
     this.nalParser = nalParser;
   }
 
+  /** @param klvPacketDecoder must be non-null */
+  public void setKlvPacketDecoder(KlvPacketDecoder klvPacketDecoder) {
+    notNull(klvPacketDecoder, "klvPacketDecoder must be non-null");
+    this.klvPacketDecoder = klvPacketDecoder;
+  }
+
   /** @param nalReader must be non-null */
   public void setNalReader(NALReader nalReader) {
     notNull(nalReader, "nalReader must be non-null");
@@ -70,6 +87,38 @@ class PESPacketToApplicationDataDecoder extends MessageToMessageDecoder<PESPacke
       decodeVideoH264(pesPacket, outputList);
     } else if (isH262Video(pesPacket)) {
       decodeVideoH262(pesPacket, outputList);
+    } else if (isMetadata(pesPacket)) {
+      decodeMetadata(pesPacket, outputList);
+    }
+  }
+
+  private static KlvPacketDecoder createKlvPacketDecoder() {
+    KlvDecoder klvDecoder =
+        new KlvDecoder(Stanag4609TransportStreamParser.UAS_DATALINK_LOCAL_SET_CONTEXT);
+    return pesPacketBytes -> PESUtilities.handlePESPacketBytes(pesPacketBytes, klvDecoder);
+  }
+
+  /**
+   * Metadata is carried either as synchronous metadata (stream type 0x15) or as asynchronous
+   * private data (stream type 0x06). {@link PESUtilities} checks the PES stream id and ignores
+   * private data that is not metadata.
+   */
+  private boolean isMetadata(PESPacket pesPacket) {
+    return pesPacket.getStreamType().equals(MpegStreamType.META_PES)
+        || pesPacket.getStreamType().equals(MpegStreamType.PRIVATE_DATA);
+  }
+
+  private void decodeMetadata(PESPacket pesPacket, List<Object> outputList) {
+    DecodedKLVMetadataPacket decodedKLVMetadataPacket;
+    try {
+      decodedKLVMetadataPacket = klvPacketDecoder.decode(pesPacket.getPayload());
+    } catch (KlvDecodingException | RuntimeException e) {
+      LOGGER.debug("unable to decode metadata packet: packetId={}", pesPacket.getPacketId(), e);
+      return;
+    }
+
+    if (decodedKLVMetadataPacket != null) {
+      outputList.add(new KlvDecodedStreamData(decodedKLVMetadataPacket, pesPacket.getPacketId()));
     }
   }
 
@@ -92,7 +141,9 @@ class PESPacketToApplicationDataDecoder extends MessageToMessageDecoder<PESPacke
       }
     }
 
-    outputList.add(new Mpeg4DecodedStreamData(nalUnits, pesPacket.getPacketId()));
+    outputList.add(
+        new Mpeg4DecodedStreamData(
+            nalUnits, pesPacket.getPacketId(), readPresentationTimestamp(pesPacket)));
   }
 
   private boolean isH262Video(PESPacket pesPacket) {
@@ -114,7 +165,25 @@ class PESPacketToApplicationDataDecoder extends MessageToMessageDecoder<PESPacke
       }
     }
 
-    outputList.add(new Mpeg2DecodedStreamData(mpeg2PictureTypeList, pesPacket.getPacketId()));
+    outputList.add(
+        new Mpeg2DecodedStreamData(
+            mpeg2PictureTypeList, pesPacket.getPacketId(), readPresentationTimestamp(pesPacket)));
+  }
+
+  /**
+   * The payload of a video PES packet starts with the PES header, which carries the presentation
+   * timestamp of the frame when the PTS flag is set.
+   *
+   * @return the presentation timestamp or {@link KeyFrame#UNKNOWN_TIME}
+   */
+  private long readPresentationTimestamp(PESPacket pesPacket) {
+    try {
+      long pts = MPSUtils.readPESHeader(ByteBuffer.wrap(pesPacket.getPayload()), 0).pts;
+      return pts < 0 ? KeyFrame.UNKNOWN_TIME : pts;
+    } catch (RuntimeException e) {
+      LOGGER.trace("unable to read PES header: packetId={}", pesPacket.getPacketId(), e);
+      return KeyFrame.UNKNOWN_TIME;
+    }
   }
 
   private Optional<Mpeg2PictureType> decodePicture(BitReader bitReader) {
@@ -150,4 +219,8 @@ class PESPacketToApplicationDataDecoder extends MessageToMessageDecoder<PESPacke
   public interface NALParser {
     NALUnit parse(ByteBuffer byteBuffer);
   }
+
+  public interface KlvPacketDecoder {
+    DecodedKLVMetadataPacket decode(byte[] pesPacketBytes) throws KlvDecodingException;
+  }
 }
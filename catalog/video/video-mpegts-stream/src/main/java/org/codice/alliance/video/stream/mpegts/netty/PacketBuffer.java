@@ -20,21 +20,28 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
+import org.codice.alliance.libs.stanag4609.Stanag4609TransportStreamParser;
 import org.codice.alliance.video.stream.mpegts.OutputStreamFactory;
 import org.codice.alliance.video.stream.mpegts.filename.TempFileGenerator;
 import org.codice.alliance.video.stream.mpegts.filename.TempFileGeneratorImpl;
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverCondition;
+import org.codice.ddf.libs.klv.KlvContext;
+import org.codice.ddf.libs.klv.KlvDataElement;
+import org.codice.ddf.libs.klv.data.numerical.KlvLong;
+import org.codice.ddf.libs.klv.data.set.KlvLocalSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -83,14 +90,25 @@ public class PacketBuffer {
         }
       };
 
-  private static final long ACTIVITY_LOG_PERIOD = TimeUnit.SECONDS.toMillis(10);
-
-  private final Timer timer = new Timer();
+  /** Number of milliseconds between calls to {@link #logActivity()}. */
+  public static final long ACTIVITY_LOG_PERIOD = TimeUnit.SECONDS.toMillis(10);
 
   private List<Frame> frames = new ArrayList<>();
 
   private List<byte[]> incompleteFrame = new ArrayList<>();
 
+  /** Metadata decoded while the packets of the incomplete frame were received. */
+  private Map<Integer, List<DecodedKLVMetadataPacket>> incompleteFrameKlv = new HashMap<>();
+
+  /** Metadata of the frames that have been written to the temporary data file. */
+  private Map<Integer, List<DecodedKLVMetadataPacket>> tempFileKlv = new HashMap<>();
+
+  /** The IDR frames that have been written to the temporary data file. */
+  private List<KeyFrame> tempFileKeyFrames = new ArrayList<>();
+
+  /** The timestamp of the most recently decoded metadata. */
+  private long lastKlvTimestamp = KeyFrame.UNKNOWN_TIME;
+
   private Lock lock = new ReentrantLock();
 
   private TempFileGenerator tempFileGenerator = new TempFileGeneratorImpl();
@@ -103,6 +121,12 @@ public class PacketBuffer {
 
   private long incompleteFrameBytes = 0;
 
+  /**
+   * Number of bytes held in memory that have not been written to the temporary data file. Only
+   * updated while holding the lock, but may be read without it.
+   */
+  private volatile long bufferedBytes = 0;
+
   private long maxIncompleteFrameBytes = DEFAULT_MAX_INCOMPLETE_FRAME_BYTES;
 
   private OutputStreamFactory outputStreamFactory = FileOutputStream::new;
@@ -124,23 +148,6 @@ public class PacketBuffer {
   /** By default, new Date objects are created by calling {@link Date#Date()}. */
   private Supplier<Date> dateSupplier = Date::new;
 
-  public PacketBuffer() {
-    timer.schedule(
-        new TimerTask() {
-          @Override
-          public void run() {
-            LOGGER.debug(
-                "packet buffer activity: bytesReceived={} packetsReceived={} bytesWritten={} filesWritten={}",
-                bytesReceived,
-                packetsReceived,
-                bytesWritten,
-                filesWritten);
-          }
-        },
-        0,
-        ACTIVITY_LOG_PERIOD);
-  }
-
   /** @param tempFileGenerator must be non-null */
   public void setTempFileGenerator(TempFileGenerator tempFileGenerator) {
     notNull(tempFileGenerator, "temFileGenerator must be non-null");
@@ -175,10 +182,15 @@ public class PacketBuffer {
     try {
       frames.clear();
       incompleteFrame.clear();
+      incompleteFrameKlv.clear();
+      tempFileKlv.clear();
+      tempFileKeyFrames.clear();
+      lastKlvTimestamp = KeyFrame.UNKNOWN_TIME;
       currentTempFile = null;
       tempFileCreateTime = null;
       bytesWrittenToTempFile = 0;
       incompleteFrameBytes = 0;
+      bufferedBytes = 0;
     } finally {
       lock.unlock();
     }
@@ -207,6 +219,30 @@ public class PacketBuffer {
     return bytesWrittenToTempFile;
   }
 
+  /**
+   * Get the number of bytes held in memory that have not been written to the temporary data file.
+   *
+   * @return bytes
+   */
+  public long getBufferedByteCount() {
+    return bufferedBytes;
+  }
+
+  /**
+   * Get the number of complete frames held in memory that have not been written to the temporary
+   * data file.
+   *
+   * @return number of frames
+   */
+  public int getPendingFrameCount() {
+    lock.lock();
+    try {
+      return frames.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
   /**
    * Write raw data into the buffer. Empty or null values are handled. If the size of the incomplete
    * frame data exceeds {@link #maxIncompleteFrameBytes}, then the current incomplete frame data
@@ -225,10 +261,11 @@ public class PacketBuffer {
       lastActivity = System.currentTimeMillis();
       incompleteFrame.add(rawPacket);
       incompleteFrameBytes += rawPacket.length;
+      bufferedBytes += rawPacket.length;
       bytesReceived += rawPacket.length;
       packetsReceived++;
       if (incompleteFrameBytes > maxIncompleteFrameBytes) {
-        frames.add(new Frame(FrameType.UNKNOWN, incompleteFrame));
+        frames.add(newFrame(FrameType.UNKNOWN, KeyFrame.UNKNOWN_TIME));
         incompleteFrame = new ArrayList<>();
         incompleteFrameBytes = 0;
         flushIfDataAvailable();
@@ -238,6 +275,29 @@ public class PacketBuffer {
     }
   }
 
+  /**
+   * Keep decoded metadata with the data currently being received, so that it is returned with the
+   * temporary data file that the data is written to.
+   *
+   * @param packetId the packet ID of the metadata stream
+   * @param decodedKLVMetadataPacket must be non-null
+   */
+  public void addDecodedKlv(int packetId, DecodedKLVMetadataPacket decodedKLVMetadataPacket) {
+    notNull(decodedKLVMetadataPacket, "decodedKLVMetadataPacket must be non-null");
+    lock.lock();
+    try {
+      incompleteFrameKlv
+          .computeIfAbsent(packetId, key -> new ArrayList<>())
+          .add(decodedKLVMetadataPacket);
+      long klvTimestamp = readKlvTimestamp(decodedKLVMetadataPacket);
+      if (klvTimestamp != KeyFrame.UNKNOWN_TIME) {
+        lastKlvTimestamp = klvTimestamp;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
   /**
    * Tell the packet buffer that the recently written data represents a complete frame. A flush to
    * disk will be attempted.
@@ -245,10 +305,23 @@ public class PacketBuffer {
    * @param frameType must be non-null
    */
   public void frameComplete(FrameType frameType) {
+    frameComplete(frameType, KeyFrame.UNKNOWN_TIME);
+  }
+
+  /**
+   * Tell the packet buffer that the recently written data represents a complete frame. The
+   * presentation timestamp of IDR frames is recorded with their location in the temporary data
+   * file. A flush to disk will be attempted.
+   *
+   * @param frameType must be non-null
+   * @param presentationTimestamp PES presentation timestamp (90kHz) or {@link
+   *     KeyFrame#UNKNOWN_TIME}
+   */
+  public void frameComplete(FrameType frameType, long presentationTimestamp) {
     notNull(frameType, "frameType must be non-null");
     lock.lock();
     try {
-      frames.add(new Frame(frameType, incompleteFrame));
+      frames.add(newFrame(frameType, presentationTimestamp));
       incompleteFrame = new ArrayList<>();
 
       flushIfDataAvailable();
@@ -283,22 +356,40 @@ public class PacketBuffer {
 
     try (OutputStream os = outputStreamFactory.create(getTempFile(), true)) {
 
-      List<byte[]> outgoingPackets =
-          frames
-              .subList(0, index + 1)
-              .stream()
-              .flatMap(frame -> frame.packets.stream())
-              .collect(Collectors.toList());
+      List<Frame> outgoingFrames = new ArrayList<>(frames.subList(0, index + 1));
       frames = new ArrayList<>(frames.subList(index + 1, frames.size()));
+      for (Frame frame : outgoingFrames) {
+        bufferedBytes -= frame.getByteCount();
+      }
 
-      for (byte[] outgoingPacket : outgoingPackets) {
-        os.write(outgoingPacket);
-        bytesWrittenToTempFile += outgoingPacket.length;
-        bytesWritten += outgoingPacket.length;
+      for (Frame frame : outgoingFrames) {
+        writeFrame(os, frame);
       }
     }
   }
 
+  /**
+   * Write the packets of a frame to the temporary data file. The metadata and the location of an
+   * IDR frame are only recorded once all of its packets have been written.
+   */
+  private void writeFrame(OutputStream os, Frame frame) throws IOException {
+    long frameOffset = bytesWrittenToTempFile;
+
+    for (byte[] packet : frame.packets) {
+      os.write(packet);
+      bytesWrittenToTempFile += packet.length;
+      bytesWritten += packet.length;
+    }
+
+    if (frame.frameType == FrameType.IDR) {
+      tempFileKeyFrames.add(
+          new KeyFrame(frameOffset, frame.presentationTimestamp, frame.klvTimestamp));
+    }
+    frame.klv.forEach(
+        (packetId, packets) ->
+            tempFileKlv.computeIfAbsent(packetId, key -> new ArrayList<>()).addAll(packets));
+  }
+
   /**
    * If the rollover condition is not met, then the method will return {@link Optional#empty()}. If
    * the rollover condition is met, then the method <b>may</b> return a temp file. The only reason a
@@ -317,7 +408,7 @@ public class PacketBuffer {
           flushIncompleteFrames();
         }
         flushIfDataAvailable();
-        return new RotateResult(getFile().orElse(null), true);
+        return createRotateResult(true);
       }
 
       flushIfDataAvailable();
@@ -328,12 +419,24 @@ public class PacketBuffer {
       if (currentTempFile == null || bytesWrittenToTempFile == 0) {
         return new RotateResult(null, false);
       }
-      return new RotateResult(getFile().orElse(null), false);
+      return createRotateResult(false);
     } finally {
       lock.unlock();
     }
   }
 
+  private RotateResult createRotateResult(boolean isTimeout) {
+    Long createTime = tempFileCreateTime;
+    File file = getFile().orElse(null);
+    Map<Integer, List<DecodedKLVMetadataPacket>> klv = tempFileKlv;
+    tempFileKlv = new HashMap<>();
+    List<KeyFrame> keyFrames = tempFileKeyFrames;
+    tempFileKeyFrames = new ArrayList<>();
+    return file == null
+        ? new RotateResult(null, isTimeout)
+        : new RotateResult(file, isTimeout, klv, keyFrames, createTime);
+  }
+
   private Optional<File> getFile() {
     File tempFile = currentTempFile;
     currentTempFile = null;
@@ -342,10 +445,58 @@ public class PacketBuffer {
   }
 
   private void flushIncompleteFrames() {
-    frames.add(new Frame(FrameType.UNKNOWN, incompleteFrame));
+    frames.add(newFrame(FrameType.UNKNOWN, KeyFrame.UNKNOWN_TIME));
     incompleteFrame = new ArrayList<>();
   }
 
+  private Frame newFrame(FrameType frameType, long presentationTimestamp) {
+    return new Frame(
+        frameType,
+        incompleteFrame,
+        takeIncompleteFrameKlv(),
+        presentationTimestamp,
+        lastKlvTimestamp);
+  }
+
+  /**
+   * @return the precision timestamp (microseconds since epoch) of the UAS Datalink Local Set, or
+   *     {@link KeyFrame#UNKNOWN_TIME} if the metadata does not have one
+   */
+  private static long readKlvTimestamp(DecodedKLVMetadataPacket decodedKLVMetadataPacket) {
+    KlvContext klvContext = decodedKLVMetadataPacket.getDecodedKLV();
+    if (klvContext == null
+        || !klvContext.hasDataElement(Stanag4609TransportStreamParser.UAS_DATALINK_LOCAL_SET)) {
+      return KeyFrame.UNKNOWN_TIME;
+    }
+
+    KlvDataElement localSet =
+        klvContext.getDataElementByName(Stanag4609TransportStreamParser.UAS_DATALINK_LOCAL_SET);
+    if (!(localSet instanceof KlvLocalSet)) {
+      return KeyFrame.UNKNOWN_TIME;
+    }
+
+    KlvContext localSetContext = ((KlvLocalSet) localSet).getValue();
+    if (!localSetContext.hasDataElement(Stanag4609TransportStreamParser.TIMESTAMP)) {
+      return KeyFrame.UNKNOWN_TIME;
+    }
+
+    KlvDataElement timestamp =
+        localSetContext.getDataElementByName(Stanag4609TransportStreamParser.TIMESTAMP);
+    if (!(timestamp instanceof KlvLong) || timestamp.isErrorIndicated()) {
+      return KeyFrame.UNKNOWN_TIME;
+    }
+    return ((KlvLong) timestamp).getValue();
+  }
+
+  private Map<Integer, List<DecodedKLVMetadataPacket>> takeIncompleteFrameKlv() {
+    if (incompleteFrameKlv.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<Integer, List<DecodedKLVMetadataPacket>> klv = incompleteFrameKlv;
+    incompleteFrameKlv = new HashMap<>();
+    return klv;
+  }
+
   /**
    * Flush all buffered data to disk and rotate. Will return {@link Optional#empty()} if no data has
    * been written to file. The caller is responsible for deleting the temp file.
@@ -375,8 +526,13 @@ public class PacketBuffer {
     }
   }
 
-  public void cancelTimer() {
-    timer.cancel();
+  public void logActivity() {
+    LOGGER.debug(
+        "packet buffer activity: bytesReceived={} packetsReceived={} bytesWritten={} filesWritten={}",
+        bytesReceived,
+        packetsReceived,
+        bytesWritten,
+        filesWritten);
   }
 
   private File getTempFile() throws IOException {
@@ -468,9 +624,31 @@ public class PacketBuffer {
 
     private FrameType frameType;
 
-    public Frame(FrameType frameType, List<byte[]> packets) {
+    private Map<Integer, List<DecodedKLVMetadataPacket>> klv;
+
+    private long presentationTimestamp;
+
+    private long klvTimestamp;
+
+    public Frame(
+        FrameType frameType,
+        List<byte[]> packets,
+        Map<Integer, List<DecodedKLVMetadataPacket>> klv,
+        long presentationTimestamp,
+        long klvTimestamp) {
       this.frameType = frameType;
       this.packets = packets;
+      this.klv = klv;
+      this.presentationTimestamp = presentationTimestamp;
+      this.klvTimestamp = klvTimestamp;
+    }
+
+    private long getByteCount() {
+      long byteCount = 0;
+      for (byte[] packet : packets) {
+        byteCount += packet.length;
+      }
+      return byteCount;
     }
   }
 }
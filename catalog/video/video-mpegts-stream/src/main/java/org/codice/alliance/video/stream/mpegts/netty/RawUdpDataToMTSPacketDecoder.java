@@ -30,6 +30,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.codice.alliance.libs.mpegts.Constants;
 import org.codice.alliance.video.security.token.videographer.VideographerAuthenticationToken;
+import org.codice.alliance.video.stream.mpegts.metrics.StreamMetrics;
 import org.codice.ddf.security.common.Security;
 import org.codice.ddf.security.handler.api.BaseAuthenticationToken;
 import org.osgi.framework.Bundle;
@@ -69,13 +70,28 @@ class RawUdpDataToMTSPacketDecoder extends MessageToMessageDecoder<DatagramPacke
 
   private UdpStreamProcessor udpStreamProcessor;
 
+  private StreamMetrics streamMetrics;
+
   /** Milliseconds since the subject token was checked for expiration. */
   private long lastTokenCheck = 0;
 
+  /** When the datagram being decoded was received, in {@link System#nanoTime()} units. */
+  private long arrivalNanos = 0;
+
   public RawUdpDataToMTSPacketDecoder(
       PacketBuffer packetBuffer, UdpStreamProcessor udpStreamProcessor) {
+    this(packetBuffer, udpStreamProcessor, new StreamMetrics());
+  }
+
+  /** @param streamMetrics must be non-null */
+  public RawUdpDataToMTSPacketDecoder(
+      PacketBuffer packetBuffer,
+      UdpStreamProcessor udpStreamProcessor,
+      StreamMetrics streamMetrics) {
+    notNull(streamMetrics, "streamMetrics must be non-null");
     this.packetBuffer = packetBuffer;
     this.udpStreamProcessor = udpStreamProcessor;
+    this.streamMetrics = streamMetrics;
   }
 
   public void setMtsParser(MTSParser mtsParser) {
@@ -143,6 +159,9 @@ class RawUdpDataToMTSPacketDecoder extends MessageToMessageDecoder<DatagramPacke
     try {
       checkSecuritySubject(msg);
 
+      arrivalNanos = System.nanoTime();
+      streamMetrics.recordDatagram(msg.content().readableBytes());
+
       byteBuf.writeBytes(msg.content());
 
       skipToSyncByte();
@@ -188,6 +207,7 @@ class RawUdpDataToMTSPacketDecoder extends MessageToMessageDecoder<DatagramPacke
     }
 
     if (packet != null) {
+      streamMetrics.recordTransportPacket(payload, arrivalNanos);
       packetBuffer.write(payload);
       outputList.add(packet);
     }
@@ -13,14 +13,24 @@
  */
 package org.codice.alliance.video.stream.mpegts.netty;
 
+import static org.apache.commons.lang3.Validate.notNull;
+
 import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nullable;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
 
 /**
  * This is a POJO that contains the result of a file rotation request. If a rotation occurred, then
  * {@link #getFile()} will return an {@link Optional} that contains the {@link File} for the rotated
  * file. If a rotation occurred because of a timeout, then {@link #isTimeout()} will return TRUE.
+ * The metadata that was decoded from the rotated file while it was received is returned by {@link
+ * #getDecodedKlv()}, the location of each IDR frame in the rotated file is returned by {@link
+ * #getKeyFrames()}, and the time the rotated file was started is returned by {@link
+ * #getCreateTime()}.
  */
 public class RotateResult {
 
@@ -28,13 +38,42 @@ public class RotateResult {
 
   private final boolean isTimeout;
 
+  private final Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv;
+
+  private final List<KeyFrame> keyFrames;
+
+  private final Long createTime;
+
   /**
    * @param file the rotated file, may be null
    * @param isTimeout true if rotation occurred because of timeout
    */
   public RotateResult(@Nullable File file, boolean isTimeout) {
+    this(file, isTimeout, Collections.emptyMap(), Collections.emptyList(), null);
+  }
+
+  /**
+   * @param file the rotated file, may be null
+   * @param isTimeout true if rotation occurred because of timeout
+   * @param decodedKlv metadata decoded from the rotated file, keyed by the packet ID of the
+   *     metadata stream (must be non-null)
+   * @param keyFrames the IDR frames of the rotated file in file order (must be non-null)
+   * @param createTime when the first data was written to the rotated file (milliseconds since
+   *     epoch), may be null
+   */
+  public RotateResult(
+      @Nullable File file,
+      boolean isTimeout,
+      Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv,
+      List<KeyFrame> keyFrames,
+      @Nullable Long createTime) {
+    notNull(decodedKlv, "decodedKlv must be non-null");
+    notNull(keyFrames, "keyFrames must be non-null");
     this.file = file;
     this.isTimeout = isTimeout;
+    this.decodedKlv = decodedKlv;
+    this.keyFrames = keyFrames;
+    this.createTime = createTime;
   }
 
   public Optional<File> getFile() {
@@ -44,4 +83,17 @@ public class RotateResult {
   public boolean isTimeout() {
     return isTimeout;
   }
+
+  public Map<Integer, List<DecodedKLVMetadataPacket>> getDecodedKlv() {
+    return decodedKlv;
+  }
+
+  public List<KeyFrame> getKeyFrames() {
+    return keyFrames;
+  }
+
+  /** @return when the first data was written to the rotated file (milliseconds since epoch) */
+  public Optional<Long> getCreateTime() {
+    return Optional.ofNullable(createTime);
+  }
 }
@@ -22,19 +22,26 @@ import ddf.security.Subject;
 import io.netty.channel.ChannelHandler;
 import java.io.File;
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Timer;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nullable;
 import org.apache.commons.lang3.Validate;
+import org.codice.alliance.libs.klv.DecodedKlvRegistry;
 import org.codice.alliance.video.stream.mpegts.Context;
 import org.codice.alliance.video.stream.mpegts.StreamMonitor;
 import org.codice.alliance.video.stream.mpegts.UdpStreamMonitor;
 import org.codice.alliance.video.stream.mpegts.filename.FilenameGenerator;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndex;
 import org.codice.alliance.video.stream.mpegts.metacard.MetacardUpdater;
+import org.codice.alliance.video.stream.mpegts.metrics.StreamMetrics;
 import org.codice.alliance.video.stream.mpegts.plugins.StreamCreationException;
 import org.codice.alliance.video.stream.mpegts.plugins.StreamCreationPlugin;
 import org.codice.alliance.video.stream.mpegts.plugins.StreamEndPlugin;
@@ -46,6 +53,8 @@ import org.codice.alliance.video.stream.mpegts.rollover.MegabyteCountRolloverCon
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverAction;
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverActionException;
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverCondition;
+import org.codice.alliance.video.stream.mpegts.scheduler.StreamScheduler;
+import org.codice.alliance.video.stream.mpegts.scheduler.StreamTask;
 import org.codice.ddf.platform.util.uuidgenerator.UuidGenerator;
 import org.codice.ddf.security.common.Security;
 import org.slf4j.Logger;
@@ -56,6 +65,10 @@ public class UdpStreamProcessor implements StreamProcessor {
 
   public static final long MAX_METACARD_UPDATE_INITIAL_DELAY = TimeUnit.MINUTES.toSeconds(1);
 
+  public static final String BUFFERED_BYTES = "bufferedBytes";
+
+  public static final String PENDING_FRAMES = "pendingFrames";
+
   private static final Logger LOGGER = LoggerFactory.getLogger(UdpStreamProcessor.class);
 
   /** Number of seconds to delay metacard updates. */
@@ -65,13 +78,18 @@ public class UdpStreamProcessor implements StreamProcessor {
 
   private PacketBuffer packetBuffer = new PacketBuffer();
 
+  private final StreamMetrics streamMetrics = new StreamMetrics();
+
   private RolloverCondition rolloverCondition;
 
   private String filenameTemplate;
 
   private FilenameGenerator filenameGenerator;
 
-  private Timer timer = new Timer();
+  private StreamScheduler streamScheduler;
+
+  /** The periodic tasks of this stream, which are cancelled when the stream is shut down. */
+  private final List<StreamTask> scheduledTasks = new CopyOnWriteArrayList<>();
 
   private List<MetacardType> metacardTypeList;
 
@@ -97,6 +115,12 @@ public class UdpStreamProcessor implements StreamProcessor {
 
   private UuidGenerator uuidGenerator;
 
+  private DecodedKlvRegistry decodedKlvRegistry;
+
+  private Path streamIndexDirectory;
+
+  private Duration streamIndexRetention;
+
   public UdpStreamProcessor(StreamMonitor streamMonitor) {
     this.streamMonitor = streamMonitor;
     context = new Context(this);
@@ -125,6 +149,43 @@ public class UdpStreamProcessor implements StreamProcessor {
     context.getGeometryOperatorContext().setDistanceTolerance(distanceTolerance);
   }
 
+  @Nullable
+  public Path getStreamIndexDirectory() {
+    return streamIndexDirectory;
+  }
+
+  /**
+   * @param streamIndexDirectory the directory of the stream index files, may be null, in which case
+   *     the stream index is only kept in memory
+   */
+  public void setStreamIndexDirectory(@Nullable Path streamIndexDirectory) {
+    this.streamIndexDirectory = streamIndexDirectory;
+  }
+
+  @Nullable
+  public Duration getStreamIndexRetention() {
+    return streamIndexRetention;
+  }
+
+  /**
+   * @param streamIndexRetention how long a stream index file is kept after it was last written, may
+   *     be null, in which case the files are kept
+   */
+  public void setStreamIndexRetention(@Nullable Duration streamIndexRetention) {
+    this.streamIndexRetention = streamIndexRetention;
+  }
+
+  /**
+   * Find the index of the seek points of a parent metacard. See {@link
+   * Context#findStreamIndex(String)}.
+   *
+   * @param parentId the id of the parent metacard (must be non-null)
+   * @return the stream index, or empty if the parent has no stream index
+   */
+  public Optional<StreamIndex> findStreamIndex(String parentId) {
+    return context.findStreamIndex(parentId);
+  }
+
   @Override
   public long getMetacardUpdateInitialDelay() {
     return metacardUpdateInitialDelay;
@@ -234,13 +295,29 @@ public class UdpStreamProcessor implements StreamProcessor {
     return packetBuffer;
   }
 
+  public StreamMetrics getStreamMetrics() {
+    return streamMetrics;
+  }
+
+  /**
+   * Get the transport metrics of the stream and the amount of data buffered in memory.
+   *
+   * @return map of metric names to values
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>(streamMetrics.toMap());
+    metrics.put(BUFFERED_BYTES, packetBuffer.getBufferedByteCount());
+    metrics.put(PENDING_FRAMES, packetBuffer.getPendingFrameCount());
+    return metrics;
+  }
+
   /**
    * Shutdown the stream processor. Attempts to flush and ingest any partial stream data regardless
    * of IDR boundaries.
    */
   public void shutdown() {
     LOGGER.trace("Shutting down stream processor.");
-    packetBuffer.cancelTimer();
+    cancelScheduledTasks();
 
     Security security = Security.getInstance();
 
@@ -261,6 +338,8 @@ public class UdpStreamProcessor implements StreamProcessor {
               });
           return null;
         });
+
+    context.closeStreamIndex();
   }
 
   public void setStreamEndPlugin(StreamEndPlugin streamEndPlugin) {
@@ -269,19 +348,45 @@ public class UdpStreamProcessor implements StreamProcessor {
 
   public void checkForRollover() {
     RotateResult rotateResult = packetBuffer.rotate(rolloverCondition);
-    rotateResult.getFile().ifPresent(this::doRollover);
+    if (rotateResult.getFile().isPresent()) {
+      doRollover(rotateResult);
+    }
     if (rotateResult.isTimeout()) {
       streamEndPlugin.streamEnded(context);
     }
   }
 
-  public void doRollover(File tempFile) {
-    LOGGER.debug("performing video chunk rollover: tempFile={}", tempFile);
+  /**
+   * Hand a rotated temp file to the rollover action and delete it afterwards. If the rotate result
+   * has the time the temp file was started, then the time from then until the rollover action
+   * finished is recorded as the ingest lag.
+   *
+   * @param rotateResult the result of a rotation, must have a file
+   */
+  public void doRollover(RotateResult rotateResult) {
+    notNull(rotateResult, "rotateResult must be non-null");
+    File tempFile =
+        rotateResult
+            .getFile()
+            .orElseThrow(() -> new IllegalArgumentException("rotateResult must have a file"));
+    LOGGER.debug(
+        "performing video chunk rollover: tempFile={} klvStreams={} keyFrames={}",
+        tempFile,
+        rotateResult.getDecodedKlv().size(),
+        rotateResult.getKeyFrames().size());
+    long start = System.nanoTime();
     try {
-      rolloverAction.doAction(tempFile);
+      rolloverAction.doAction(null, rotateResult);
+      rotateResult
+          .getCreateTime()
+          .ifPresent(
+              createTime ->
+                  streamMetrics.recordIngestLag(
+                      Math.max(0, System.currentTimeMillis() - createTime)));
     } catch (RolloverActionException e) {
       LOGGER.debug("unable handle rollover file: tempFile={}", tempFile, e);
     } finally {
+      streamMetrics.recordRollover(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
       if (!tempFile.delete()) {
         LOGGER.debug("unable to delete temp file: filename={}", tempFile);
       }
@@ -353,12 +458,26 @@ public class UdpStreamProcessor implements StreamProcessor {
     this.metacardTypeList = metacardTypeList;
   }
 
-  public Timer getTimer() {
-    return timer;
+  public StreamScheduler getStreamScheduler() {
+    return streamScheduler;
+  }
+
+  /** @param streamScheduler must be non-null */
+  public void setStreamScheduler(StreamScheduler streamScheduler) {
+    notNull(streamScheduler, "streamScheduler must be non-null");
+    this.streamScheduler = streamScheduler;
+  }
+
+  /** @param streamTask a periodic task of this stream (must be non-null) */
+  public void addScheduledTask(StreamTask streamTask) {
+    notNull(streamTask, "streamTask must be non-null");
+    scheduledTasks.add(streamTask);
   }
 
-  public void setTimer(Timer timer) {
-    this.timer = timer;
+  /** Cancel the periodic tasks of this stream. */
+  public void cancelScheduledTasks() {
+    scheduledTasks.forEach(StreamTask::cancel);
+    scheduledTasks.clear();
   }
 
   /**
@@ -409,7 +528,7 @@ public class UdpStreamProcessor implements StreamProcessor {
    */
   public ChannelHandler[] createChannelHandlers() {
     return new ChannelHandler[] {
-      new RawUdpDataToMTSPacketDecoder(packetBuffer, this),
+      new RawUdpDataToMTSPacketDecoder(packetBuffer, this, streamMetrics),
       new MTSPacketToPESPacketDecoder(),
       new PESPacketToApplicationDataDecoder(),
       new DecodedStreamDataHandler(packetBuffer)
@@ -430,6 +549,16 @@ public class UdpStreamProcessor implements StreamProcessor {
     this.parentMetacardUpdater = parentMetacardUpdater;
   }
 
+  @Nullable
+  public DecodedKlvRegistry getDecodedKlvRegistry() {
+    return decodedKlvRegistry;
+  }
+
+  /** @param decodedKlvRegistry may be null, in which case the metadata is not handed over */
+  public void setDecodedKlvRegistry(@Nullable DecodedKlvRegistry decodedKlvRegistry) {
+    this.decodedKlvRegistry = decodedKlvRegistry;
+  }
+
   public UuidGenerator getUuidGenerator() {
     return uuidGenerator;
   }
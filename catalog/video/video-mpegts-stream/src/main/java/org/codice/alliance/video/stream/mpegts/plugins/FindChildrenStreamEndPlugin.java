@@ -26,11 +26,15 @@ import ddf.catalog.operation.impl.QueryImpl;
 import ddf.catalog.operation.impl.QueryRequestImpl;
 import ddf.catalog.source.SourceUnavailableException;
 import ddf.catalog.source.UnsupportedQueryException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.codice.alliance.video.stream.mpegts.Context;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndex;
 import org.opengis.filter.Filter;
 import org.opengis.filter.sort.SortOrder;
 import org.slf4j.Logger;
@@ -41,6 +45,9 @@ import org.slf4j.LoggerFactory;
  * be processed in the order in which they were originally created. If an exception occurs during
  * when a batch is being retrieved from the CatalogFramework or from a batch handler, then the
  * {@link Handler#end(Context, Metacard)} will not be called.
+ *
+ * <p>If the stream index of the parent has chunk ids, then the children are looked up by id in
+ * stream order. Otherwise, the children are found with a query on the derived attribute.
  */
 public class FindChildrenStreamEndPlugin implements StreamEndPlugin {
 
@@ -88,6 +95,20 @@ public class FindChildrenStreamEndPlugin implements StreamEndPlugin {
 
     Handler handler = factory.build();
 
+    List<String> chunkIds =
+        context.getStreamIndex().map(StreamIndex::getChunkIds).orElse(Collections.emptyList());
+
+    if (chunkIds.isEmpty()) {
+      handleDerivedChildren(context, parentMetacard, handler);
+    } else {
+      handleIndexedChildren(context, parentMetacard, handler, chunkIds);
+    }
+
+    handler.end(context, parentMetacard);
+  }
+
+  private void handleDerivedChildren(Context context, Metacard parentMetacard, Handler handler) {
+
     Filter filter =
         filterBuilder.attribute(Associations.DERIVED).is().equalTo().text(parentMetacard.getId());
 
@@ -142,8 +163,84 @@ public class FindChildrenStreamEndPlugin implements StreamEndPlugin {
       }
 
     } while (continueProcessing(startIndex, expectedReturnCount, subsequentErrorCount));
+  }
 
-    handler.end(context, parentMetacard);
+  private void handleIndexedChildren(
+      Context context, Metacard parentMetacard, Handler handler, List<String> chunkIds) {
+
+    int fromIndex = 0;
+    int subsequentErrorCount = 0;
+
+    while (fromIndex < chunkIds.size() && isSubsequentErrorCountBelowLimit(subsequentErrorCount)) {
+      List<String> batchIds =
+          chunkIds.subList(fromIndex, Math.min(fromIndex + BATCH_SIZE, chunkIds.size()));
+
+      Filter filter =
+          filterBuilder.anyOf(
+              batchIds
+                  .stream()
+                  .map(id -> filterBuilder.attribute(Core.ID).is().equalTo().text(id))
+                  .collect(Collectors.toList()));
+
+      QueryRequest queryRequest =
+          new QueryRequestImpl(
+              new QueryImpl(
+                  filter,
+                  1,
+                  batchIds.size(),
+                  new SortByImpl(Core.METACARD_CREATED, SortOrder.ASCENDING),
+                  false,
+                  0));
+
+      try {
+        QueryResponse queryResponse =
+            context.getUdpStreamProcessor().getCatalogFramework().query(queryRequest);
+
+        Map<String, Metacard> childrenById =
+            queryResponse
+                .getResults()
+                .stream()
+                .map(Result::getMetacard)
+                .collect(Collectors.toMap(Metacard::getId, Function.identity(), (a, b) -> a));
+
+        List<Metacard> batch =
+            batchIds
+                .stream()
+                .map(childrenById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        if (batch.size() < batchIds.size()) {
+          LOGGER.info(
+              "unable to find some of the indexed children of a parent metacard, they will not be "
+                  + "handled: metacardId={} missingIds={}",
+              parentMetacard.getId(),
+              batchIds
+                  .stream()
+                  .filter(id -> !childrenById.containsKey(id))
+                  .collect(Collectors.toList()));
+        }
+
+        handler.handle(context, parentMetacard, batch);
+
+        fromIndex += batchIds.size();
+
+        subsequentErrorCount = 0;
+
+      } catch (UnsupportedQueryException | SourceUnavailableException | FederationException e) {
+        LOGGER.debug(
+            "unable to get the indexed children for a parent metacard: metacardId={}",
+            parentMetacard.getId(),
+            e);
+        subsequentErrorCount++;
+      } catch (RuntimeException e) {
+        LOGGER.debug(
+            "unable to process a batch of children for a parent metacard: metacardId={}",
+            parentMetacard.getId(),
+            e);
+        subsequentErrorCount++;
+      }
+    }
   }
 
   private boolean continueProcessing(
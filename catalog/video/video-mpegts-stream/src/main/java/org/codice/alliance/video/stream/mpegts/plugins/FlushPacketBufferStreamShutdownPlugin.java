@@ -15,17 +15,17 @@ package org.codice.alliance.video.stream.mpegts.plugins;
 
 import java.io.IOException;
 import org.codice.alliance.video.stream.mpegts.Context;
+import org.codice.alliance.video.stream.mpegts.netty.RotateResult;
 
 public class FlushPacketBufferStreamShutdownPlugin extends BaseStreamShutdownPlugin {
   @Override
   protected void doOnShutdown(Context context) throws StreamShutdownException {
     try {
-      context
-          .getUdpStreamProcessor()
-          .getPacketBuffer()
-          .flushAndRotate()
-          .getFile()
-          .ifPresent(file -> context.getUdpStreamProcessor().doRollover(file));
+      RotateResult rotateResult =
+          context.getUdpStreamProcessor().getPacketBuffer().flushAndRotate();
+      if (rotateResult.getFile().isPresent()) {
+        context.getUdpStreamProcessor().doRollover(rotateResult);
+      }
     } catch (IOException e) {
       throw new StreamShutdownException(
           "unable to rotate and ingest final data during shutdown", e);
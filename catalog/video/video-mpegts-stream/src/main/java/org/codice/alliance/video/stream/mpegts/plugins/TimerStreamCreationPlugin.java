@@ -13,20 +13,24 @@
  */
 package org.codice.alliance.video.stream.mpegts.plugins;
 
-import java.util.Timer;
-import java.util.function.Supplier;
+import static org.apache.commons.lang3.Validate.notNull;
+
 import org.codice.alliance.video.stream.mpegts.Context;
+import org.codice.alliance.video.stream.mpegts.scheduler.StreamScheduler;
 
+/** Gives the stream the shared scheduler that runs its periodic tasks. */
 public class TimerStreamCreationPlugin extends BaseStreamCreationPlugin {
 
-  private final Supplier<Timer> timerSupplier;
+  private final StreamScheduler streamScheduler;
 
-  public TimerStreamCreationPlugin(Supplier<Timer> timerSupplier) {
-    this.timerSupplier = timerSupplier;
+  /** @param streamScheduler must be non-null */
+  public TimerStreamCreationPlugin(StreamScheduler streamScheduler) {
+    notNull(streamScheduler, "streamScheduler must be non-null");
+    this.streamScheduler = streamScheduler;
   }
 
   @Override
   protected void doOnCreate(Context context) throws StreamCreationException {
-    context.getUdpStreamProcessor().setTimer(timerSupplier.get());
+    context.getUdpStreamProcessor().setStreamScheduler(streamScheduler);
   }
 }
@@ -18,9 +18,6 @@ import org.codice.alliance.video.stream.mpegts.Context;
 public class TimerStreamShutdownPlugin extends BaseStreamShutdownPlugin {
   @Override
   protected void doOnShutdown(Context context) throws StreamShutdownException {
-    if (context.getUdpStreamProcessor().getTimer() != null) {
-      context.getUdpStreamProcessor().getTimer().cancel();
-      context.getUdpStreamProcessor().setTimer(null);
-    }
+    context.getUdpStreamProcessor().cancelScheduledTasks();
   }
 }
@@ -13,12 +13,22 @@
  */
 package org.codice.alliance.video.stream.mpegts.plugins;
 
-import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import org.codice.alliance.video.stream.mpegts.Context;
+import org.codice.alliance.video.stream.mpegts.netty.PacketBuffer;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
+import org.codice.alliance.video.stream.mpegts.scheduler.StreamScheduler;
 
+/**
+ * Schedules the periodic tasks of the stream. The rollover check runs on the worker pool of the
+ * {@link StreamScheduler} because a rollover may call the catalog. Must run after {@link
+ * TimerStreamCreationPlugin}.
+ */
 public class TimerTaskStreamCreationPlugin extends BaseStreamCreationPlugin {
 
+  /** Milliseconds between updates of the per second rates of the stream metrics. */
+  private static final long METRICS_PERIOD = TimeUnit.SECONDS.toMillis(1);
+
   private final long period;
 
   /** @param period milliseconds */
@@ -28,18 +38,27 @@ public class TimerTaskStreamCreationPlugin extends BaseStreamCreationPlugin {
 
   @Override
   protected void doOnCreate(Context context) throws StreamCreationException {
-    context
-        .getUdpStreamProcessor()
-        .getTimer()
-        .scheduleAtFixedRate(createTimerTask(context.getUdpStreamProcessor()), period, period);
-  }
+    UdpStreamProcessor udpStreamProcessor = context.getUdpStreamProcessor();
+    StreamScheduler streamScheduler = udpStreamProcessor.getStreamScheduler();
+
+    if (streamScheduler == null) {
+      throw new StreamCreationException("the stream scheduler has not been set", null);
+    }
 
-  private TimerTask createTimerTask(UdpStreamProcessor udpStreamProcessor) {
-    return new TimerTask() {
-      @Override
-      public void run() {
-        udpStreamProcessor.checkForRollover();
-      }
-    };
+    udpStreamProcessor.addScheduledTask(
+        streamScheduler.scheduleOnWorker(
+            "rollover", udpStreamProcessor::checkForRollover, period, TimeUnit.MILLISECONDS));
+    udpStreamProcessor.addScheduledTask(
+        streamScheduler.schedule(
+            "packet buffer activity",
+            () -> udpStreamProcessor.getPacketBuffer().logActivity(),
+            PacketBuffer.ACTIVITY_LOG_PERIOD,
+            TimeUnit.MILLISECONDS));
+    udpStreamProcessor.addScheduledTask(
+        streamScheduler.schedule(
+            "stream metrics",
+            () -> udpStreamProcessor.getStreamMetrics().updateRates(),
+            METRICS_PERIOD,
+            TimeUnit.MILLISECONDS));
   }
 }
@@ -15,6 +15,7 @@ package org.codice.alliance.video.stream.mpegts.rollover;
 
 import ddf.catalog.data.impl.MetacardImpl;
 import java.io.File;
+import org.codice.alliance.video.stream.mpegts.netty.RotateResult;
 
 abstract class BaseRolloverAction implements RolloverAction {
 
@@ -22,4 +23,15 @@ abstract class BaseRolloverAction implements RolloverAction {
   public final MetacardImpl doAction(File tempFile) throws RolloverActionException {
     return doAction(null, tempFile);
   }
+
+  /**
+   * Return a new metacard.
+   *
+   * @param rotateResult a rotation that produced a file (must be non-null)
+   * @return a new metacard
+   * @throws RolloverActionException
+   */
+  public final MetacardImpl doAction(RotateResult rotateResult) throws RolloverActionException {
+    return doAction(null, rotateResult);
+  }
 }
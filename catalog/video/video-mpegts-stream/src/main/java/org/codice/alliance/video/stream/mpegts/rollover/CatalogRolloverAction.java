@@ -35,21 +35,30 @@ import ddf.security.SubjectUtils;
 import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.StringUtils;
+import org.codice.alliance.libs.klv.DecodedKlvRegistry;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
 import org.codice.alliance.video.stream.mpegts.Constants;
 import org.codice.alliance.video.stream.mpegts.Context;
 import org.codice.alliance.video.stream.mpegts.filename.FilenameGenerator;
 import org.codice.alliance.video.stream.mpegts.framework.CatalogUpdateRetry;
 import org.codice.alliance.video.stream.mpegts.metacard.MetacardUpdater;
+import org.codice.alliance.video.stream.mpegts.metrics.StreamMetrics;
+import org.codice.alliance.video.stream.mpegts.netty.KeyFrame;
+import org.codice.alliance.video.stream.mpegts.netty.RotateResult;
 import org.codice.ddf.platform.util.uuidgenerator.UuidGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Stores the child content, links the child to the parent, and updates the parent's location with
- * the union of the child's location.
+ * the union of the child's location. Metadata that was decoded while the chunk was received is
+ * handed to the input transformer through the {@link DecodedKlvRegistry}, so the chunk is not
+ * parsed a second time. The IDR frames of the chunk are appended to the stream index of the parent.
  */
 public class CatalogRolloverAction extends BaseRolloverAction {
 
@@ -124,6 +133,17 @@ public class CatalogRolloverAction extends BaseRolloverAction {
   @Override
   public MetacardImpl doAction(MetacardImpl metacard, File tempFile)
       throws RolloverActionException {
+    return doAction(metacard, new RotateResult(tempFile, false));
+  }
+
+  @Override
+  public MetacardImpl doAction(MetacardImpl metacard, RotateResult rotateResult)
+      throws RolloverActionException {
+    notNull(rotateResult, "rotateResult must be non-null");
+    File tempFile =
+        rotateResult
+            .getFile()
+            .orElseThrow(() -> new IllegalArgumentException("rotateResult must have a file"));
 
     return context.modifyParentOrChild(
         isParentDirty -> {
@@ -145,13 +165,17 @@ public class CatalogRolloverAction extends BaseRolloverAction {
 
                 CreateStorageRequest createStorageRequest = createStorageRequest(contentItem);
 
-                CreateResponse createResponse = submitStorageCreateRequest(createStorageRequest);
+                CreateResponse createResponse =
+                    submitStorageCreateRequest(
+                        createStorageRequest, contentItem.getId(), rotateResult.getDecodedKlv());
 
                 for (Metacard childMetacard : createResponse.getCreatedMetacards()) {
                   LOGGER.trace("created catalog content with id={}", childMetacard.getId());
 
                   linkChildToParent(childMetacard);
 
+                  appendToStreamIndex(childMetacard, rotateResult.getKeyFrames());
+
                   updateParentWithChildMetadata(childMetacard);
                 }
 
@@ -216,6 +240,12 @@ public class CatalogRolloverAction extends BaseRolloverAction {
     submitChildUpdateRequest(updateChild);
   }
 
+  private void appendToStreamIndex(Metacard childMetacard, List<KeyFrame> keyFrames) {
+    context
+        .getStreamIndex()
+        .ifPresent(streamIndex -> streamIndex.append(childMetacard.getId(), keyFrames));
+  }
+
   private void setDerivedAttribute(Metacard childMetacard) {
     if (context.getParentMetacard().isPresent()) {
       childMetacard.setAttribute(
@@ -223,8 +253,18 @@ public class CatalogRolloverAction extends BaseRolloverAction {
     }
   }
 
-  private CreateResponse submitStorageCreateRequest(CreateStorageRequest createRequest)
+  private CreateResponse submitStorageCreateRequest(
+      CreateStorageRequest createRequest,
+      String contentItemId,
+      Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv)
       throws RolloverActionException {
+    DecodedKlvRegistry decodedKlvRegistry =
+        context.getUdpStreamProcessor().getDecodedKlvRegistry();
+    boolean isRegistered =
+        decodedKlvRegistry != null
+            && !decodedKlv.isEmpty()
+            && registerDecodedKlv(decodedKlvRegistry, contentItemId, decodedKlv);
+    long start = System.nanoTime();
     try {
       return catalogFramework.create(createRequest);
     } catch (IngestException | SourceUnavailableException e) {
@@ -232,6 +272,41 @@ public class CatalogRolloverAction extends BaseRolloverAction {
           String.format(
               "unable to submit storage create request to catalog framework: %s", createRequest),
           e);
+    } finally {
+      StreamMetrics streamMetrics = context.getUdpStreamProcessor().getStreamMetrics();
+      if (streamMetrics != null) {
+        streamMetrics.recordCatalogCreate(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      }
+      if (isRegistered) {
+        unregisterDecodedKlv(decodedKlvRegistry, contentItemId);
+      }
+    }
+  }
+
+  /**
+   * The registry is an optional service reference, so it may be unavailable even though the
+   * reference is non-null. In that case the input transformer parses the chunk instead.
+   *
+   * @return true if the metadata was registered
+   */
+  private boolean registerDecodedKlv(
+      DecodedKlvRegistry decodedKlvRegistry,
+      String contentItemId,
+      Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv) {
+    try {
+      decodedKlvRegistry.put(contentItemId, decodedKlv);
+      return true;
+    } catch (RuntimeException e) {
+      LOGGER.debug("unable to register decoded klv, the chunk will be parsed again", e);
+      return false;
+    }
+  }
+
+  private void unregisterDecodedKlv(DecodedKlvRegistry decodedKlvRegistry, String contentItemId) {
+    try {
+      decodedKlvRegistry.remove(contentItemId);
+    } catch (RuntimeException e) {
+      LOGGER.debug("unable to remove decoded klv: contentItemId={}", contentItemId, e);
     }
   }
 
@@ -16,6 +16,7 @@ package org.codice.alliance.video.stream.mpegts.rollover;
 import ddf.catalog.data.impl.MetacardImpl;
 import java.io.File;
 import java.util.List;
+import org.codice.alliance.video.stream.mpegts.netty.RotateResult;
 
 /** Chains a list of RolloverAction objects together. */
 public class ListRolloverAction extends BaseRolloverAction {
@@ -38,6 +39,18 @@ public class ListRolloverAction extends BaseRolloverAction {
     return tmp;
   }
 
+  @Override
+  public MetacardImpl doAction(MetacardImpl metacard, RotateResult rotateResult)
+      throws RolloverActionException {
+    MetacardImpl tmp = metacard;
+
+    for (RolloverAction rolloverAction : actionList) {
+      tmp = rolloverAction.doAction(tmp, rotateResult);
+    }
+
+    return tmp;
+  }
+
   @Override
   public String toString() {
     return "ListRolloverAction{" + "actionList=" + actionList + '}';
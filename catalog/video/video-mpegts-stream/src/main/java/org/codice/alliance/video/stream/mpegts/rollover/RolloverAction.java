@@ -15,6 +15,7 @@ package org.codice.alliance.video.stream.mpegts.rollover;
 
 import ddf.catalog.data.impl.MetacardImpl;
 import java.io.File;
+import org.codice.alliance.video.stream.mpegts.netty.RotateResult;
 
 public interface RolloverAction {
 
@@ -36,4 +37,23 @@ public interface RolloverAction {
    * @throws RolloverActionException
    */
   MetacardImpl doAction(File tempFile) throws RolloverActionException;
+
+  /**
+   * Populate a metacard (if non-null) from a rotated file and return a new metacard (may be the
+   * same metacard). The default implementation ignores the metadata that was decoded while the file
+   * was received.
+   *
+   * @param metacard the metacard being populated
+   * @param rotateResult a rotation that produced a file (must be non-null)
+   * @return a new metacard or the same metacard
+   * @throws RolloverActionException
+   */
+  default MetacardImpl doAction(MetacardImpl metacard, RotateResult rotateResult)
+      throws RolloverActionException {
+    return doAction(
+        metacard,
+        rotateResult
+            .getFile()
+            .orElseThrow(() -> new IllegalArgumentException("rotateResult must have a file")));
+  }
 }
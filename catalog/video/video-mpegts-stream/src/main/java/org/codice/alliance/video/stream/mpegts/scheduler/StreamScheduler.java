@@ -0,0 +1,377 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.scheduler;
+
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the periodic work of every video stream on one shared set of threads, so that the number of
+ * threads does not grow with the number of monitored streams.
+ *
+ * <p>Tasks scheduled with {@link #schedule} run on the scheduler threads and must be short (e.g.
+ * logging). Tasks scheduled with {@link #scheduleOnWorker} are handed to the worker pool when they
+ * are due, so a slow task (e.g. a rollover that calls the catalog) only delays its own stream. A
+ * task never runs concurrently with itself: if the previous run is still in progress when the task
+ * is due again, that run is skipped.
+ *
+ * <p>The worker pool keeps its core threads and adds a thread whenever a task is due and every
+ * thread is busy, up to the maximum number of worker threads. The added threads stop after they
+ * have been idle for a minute. A run that is due while every worker thread is busy is skipped.
+ *
+ * <p>The lag of a run is the time between when the run was due and when it started. The metrics
+ * are published through JMX.
+ */
+public class StreamScheduler implements StreamSchedulerMBean {
+
+  public static final int DEFAULT_SCHEDULER_THREADS = 1;
+
+  public static final int DEFAULT_WORKER_THREADS = 4;
+
+  public static final int DEFAULT_MAX_WORKER_THREADS = 64;
+
+  private static final int MAX_THREADS = 256;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamScheduler.class);
+
+  private static final long METRICS_LOG_PERIOD = TimeUnit.SECONDS.toMillis(10);
+
+  private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+  private static final long WORKER_KEEP_ALIVE = TimeUnit.MINUTES.toMillis(1);
+
+  private final ScheduledThreadPoolExecutor scheduler;
+
+  private final ThreadPoolExecutor workers;
+
+  private final Set<StreamTask> tasks = ConcurrentHashMap.newKeySet();
+
+  private final LongAdder runCount = new LongAdder();
+
+  private final LongAdder skippedRunCount = new LongAdder();
+
+  private final LongAdder failedRunCount = new LongAdder();
+
+  private final LongAdder totalLagMillis = new LongAdder();
+
+  private final LongAccumulator maxLagMillis = new LongAccumulator(Math::max, 0);
+
+  private int workerThreads;
+
+  private int maxWorkerThreads;
+
+  private ObjectName objectName;
+
+  private MBeanServer mBeanServer;
+
+  public StreamScheduler() {
+    this(DEFAULT_SCHEDULER_THREADS, DEFAULT_WORKER_THREADS, DEFAULT_MAX_WORKER_THREADS);
+  }
+
+  /**
+   * @param schedulerThreads number of threads that run short tasks and dispatch worker tasks (must
+   *     be between 1 and 256)
+   * @param workerThreads number of core threads that run worker tasks (must be between 1 and 256)
+   * @param maxWorkerThreads maximum number of threads that run worker tasks (must be between 1 and
+   *     256), raised to the number of core threads if it is lower
+   */
+  public StreamScheduler(int schedulerThreads, int workerThreads, int maxWorkerThreads) {
+    validateThreads(schedulerThreads, "schedulerThreads");
+    validateThreads(workerThreads, "workerThreads");
+    validateThreads(maxWorkerThreads, "maxWorkerThreads");
+    this.workerThreads = workerThreads;
+    this.maxWorkerThreads = maxWorkerThreads;
+    scheduler =
+        new ScheduledThreadPoolExecutor(schedulerThreads, createThreadFactory("video-scheduler"));
+    scheduler.setRemoveOnCancelPolicy(true);
+    workers =
+        new ThreadPoolExecutor(
+            workerThreads,
+            Math.max(workerThreads, maxWorkerThreads),
+            WORKER_KEEP_ALIVE,
+            TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            createThreadFactory("video-worker"));
+    scheduler.scheduleAtFixedRate(
+        this::logMetrics, METRICS_LOG_PERIOD, METRICS_LOG_PERIOD, TimeUnit.MILLISECONDS);
+  }
+
+  public void init() {
+    registerMbean();
+  }
+
+  /** @param schedulerThreads must be between 1 and 256 */
+  public void setSchedulerThreads(int schedulerThreads) {
+    validateThreads(schedulerThreads, "schedulerThreads");
+    scheduler.setCorePoolSize(schedulerThreads);
+  }
+
+  /** @param workerThreads number of core worker threads (must be between 1 and 256) */
+  public synchronized void setWorkerThreads(int workerThreads) {
+    validateThreads(workerThreads, "workerThreads");
+    this.workerThreads = workerThreads;
+    resizeWorkers();
+  }
+
+  /** @param maxWorkerThreads maximum number of worker threads (must be between 1 and 256) */
+  public synchronized void setMaxWorkerThreads(int maxWorkerThreads) {
+    validateThreads(maxWorkerThreads, "maxWorkerThreads");
+    this.maxWorkerThreads = maxWorkerThreads;
+    resizeWorkers();
+  }
+
+  /**
+   * Run a short task on the scheduler threads at a fixed rate.
+   *
+   * @param name name of the task used in log messages (must be non-null)
+   * @param runnable the task (must be non-null)
+   * @param period the time between runs (must be positive)
+   * @param unit unit of the period (must be non-null)
+   * @return the task, which must be cancelled when the stream is shut down
+   */
+  public StreamTask schedule(String name, Runnable runnable, long period, TimeUnit unit) {
+    return scheduleAtFixedRate(name, runnable, period, unit, false);
+  }
+
+  /**
+   * Run a task on the worker pool at a fixed rate.
+   *
+   * @param name name of the task used in log messages (must be non-null)
+   * @param runnable the task (must be non-null)
+   * @param period the time between runs (must be positive)
+   * @param unit unit of the period (must be non-null)
+   * @return the task, which must be cancelled when the stream is shut down
+   */
+  public StreamTask scheduleOnWorker(String name, Runnable runnable, long period, TimeUnit unit) {
+    return scheduleAtFixedRate(name, runnable, period, unit, true);
+  }
+
+  /** Stop running tasks. Worker tasks that are in progress are given a few seconds to finish. */
+  public void shutdown() {
+    LOGGER.debug("shutting down stream scheduler: tasks={}", tasks.size());
+    unregisterMbean();
+    scheduler.shutdownNow();
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    tasks.clear();
+  }
+
+  @Override
+  public int getTaskCount() {
+    return tasks.size();
+  }
+
+  @Override
+  public long getRunCount() {
+    return runCount.sum();
+  }
+
+  @Override
+  public long getSkippedRunCount() {
+    return skippedRunCount.sum();
+  }
+
+  @Override
+  public long getFailedRunCount() {
+    return failedRunCount.sum();
+  }
+
+  @Override
+  public long getMaxLagMillis() {
+    return maxLagMillis.get();
+  }
+
+  @Override
+  public double getAverageLagMillis() {
+    long runs = runCount.sum();
+    return runs == 0 ? 0 : (double) totalLagMillis.sum() / runs;
+  }
+
+  @Override
+  public int getWorkerThreadCount() {
+    return workers.getPoolSize();
+  }
+
+  @Override
+  public int getActiveWorkerThreadCount() {
+    return workers.getActiveCount();
+  }
+
+  void cancel(StreamTask task) {
+    tasks.remove(task);
+  }
+
+  private StreamTask scheduleAtFixedRate(
+      String name, Runnable runnable, long period, TimeUnit unit, boolean onWorker) {
+    notNull(name, "name must be non-null");
+    notNull(runnable, "runnable must be non-null");
+    notNull(unit, "unit must be non-null");
+    inclusiveBetween(1, Long.MAX_VALUE, period, "period must be positive");
+
+    long periodNanos = unit.toNanos(period);
+    StreamTask task = new StreamTask(this, name, runnable, periodNanos, System.nanoTime());
+    tasks.add(task);
+    task.setFuture(
+        scheduler.scheduleAtFixedRate(
+            onWorker ? () -> dispatch(task) : () -> runIfIdle(task),
+            periodNanos,
+            periodNanos,
+            TimeUnit.NANOSECONDS));
+    return task;
+  }
+
+  private void runIfIdle(StreamTask task) {
+    long dueNanos = task.nextDueNanos();
+    if (task.tryStart()) {
+      run(task, dueNanos);
+    } else {
+      skip(task);
+    }
+  }
+
+  private void dispatch(StreamTask task) {
+    long dueNanos = task.nextDueNanos();
+    if (!task.tryStart()) {
+      skip(task);
+      return;
+    }
+    try {
+      workers.execute(() -> run(task, dueNanos));
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("every worker thread is busy, skipping stream task: name={}", task.getName());
+      task.abort();
+      skip(task);
+    }
+  }
+
+  private void run(StreamTask task, long dueNanos) {
+    long lagMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, System.nanoTime() - dueNanos));
+    runCount.increment();
+    totalLagMillis.add(lagMillis);
+    maxLagMillis.accumulate(lagMillis);
+    try {
+      if (!task.isCancelled()) {
+        task.getRunnable().run();
+      }
+    } catch (RuntimeException e) {
+      failedRunCount.increment();
+      LOGGER.debug("stream task failed: name={}", task.getName(), e);
+    } finally {
+      task.finish(lagMillis);
+    }
+  }
+
+  private void skip(StreamTask task) {
+    skippedRunCount.increment();
+    task.skip();
+    LOGGER.trace("previous run of stream task is in progress, skipping: name={}", task.getName());
+  }
+
+  private void logMetrics() {
+    LOGGER.debug(
+        "stream scheduler activity: tasks={} runs={} skippedRuns={} failedRuns={} maxLagMillis={} averageLagMillis={}",
+        getTaskCount(),
+        getRunCount(),
+        getSkippedRunCount(),
+        getFailedRunCount(),
+        getMaxLagMillis(),
+        getAverageLagMillis());
+  }
+
+  /** Grow before shrinking, so that the core size is never above the maximum size. */
+  private void resizeWorkers() {
+    int maximumPoolSize = Math.max(workerThreads, maxWorkerThreads);
+    if (maximumPoolSize >= workers.getMaximumPoolSize()) {
+      workers.setMaximumPoolSize(maximumPoolSize);
+      workers.setCorePoolSize(workerThreads);
+    } else {
+      workers.setCorePoolSize(workerThreads);
+      workers.setMaximumPoolSize(maximumPoolSize);
+    }
+  }
+
+  private void registerMbean() {
+    try {
+      objectName = new ObjectName(StreamScheduler.class.getName() + ":service=stream-scheduler");
+      mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    } catch (MalformedObjectNameException e) {
+      LOGGER.info("Unable to create Stream Scheduler MBean.", e);
+    }
+    if (mBeanServer == null) {
+      return;
+    }
+    try {
+      try {
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Registered Stream Scheduler MBean under object name: {}", objectName);
+      } catch (InstanceAlreadyExistsException e) {
+        mBeanServer.unregisterMBean(objectName);
+        mBeanServer.registerMBean(this, objectName);
+        LOGGER.debug("Re-registered Stream Scheduler MBean", e);
+      }
+    } catch (MBeanRegistrationException
+        | InstanceNotFoundException
+        | InstanceAlreadyExistsException
+        | NotCompliantMBeanException e) {
+      LOGGER.info("Could not register MBean [{}].", objectName, e);
+    }
+  }
+
+  private void unregisterMbean() {
+    try {
+      if (objectName != null && mBeanServer != null) {
+        mBeanServer.unregisterMBean(objectName);
+      }
+    } catch (Exception e) {
+      LOGGER.info("Exception unregistering MBean: ", e);
+    }
+  }
+
+  private static void validateThreads(int threads, String name) {
+    inclusiveBetween(1, MAX_THREADS, threads, name + " must be between 1 and " + MAX_THREADS);
+  }
+
+  private static ThreadFactory createThreadFactory(String prefix) {
+    return new BasicThreadFactory.Builder().namingPattern(prefix + "-%d").daemon(true).build();
+  }
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.scheduler;
+
+/** Exposes the activity and lag metrics of the {@link StreamScheduler} through JMX. */
+public interface StreamSchedulerMBean {
+
+  /** @return the number of tasks that have not been cancelled */
+  int getTaskCount();
+
+  /** @return the number of runs that have started */
+  long getRunCount();
+
+  /**
+   * @return the number of runs skipped because the previous run of the task was in progress or
+   *     every worker thread was busy
+   */
+  long getSkippedRunCount();
+
+  /** @return the number of runs that threw an exception */
+  long getFailedRunCount();
+
+  /** @return the largest time in milliseconds between when a run was due and when it started */
+  long getMaxLagMillis();
+
+  /** @return the average time in milliseconds between when a run was due and when it started */
+  double getAverageLagMillis();
+
+  /** @return the number of worker threads */
+  int getWorkerThreadCount();
+
+  /** @return the number of worker threads that are running a task */
+  int getActiveWorkerThreadCount();
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.scheduler;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/** A periodic task of one stream that was scheduled with a {@link StreamScheduler}. */
+public class StreamTask {
+
+  private final StreamScheduler streamScheduler;
+
+  private final String name;
+
+  private final Runnable runnable;
+
+  private final long periodNanos;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private final LongAdder runCount = new LongAdder();
+
+  private final LongAdder skippedRunCount = new LongAdder();
+
+  private final LongAccumulator maxLagMillis = new LongAccumulator(Math::max, 0);
+
+  /** The time the next run is due, in {@link System#nanoTime()} units. */
+  private volatile long dueNanos;
+
+  private volatile Future<?> future;
+
+  private volatile boolean cancelled = false;
+
+  StreamTask(
+      StreamScheduler streamScheduler,
+      String name,
+      Runnable runnable,
+      long periodNanos,
+      long startNanos) {
+    this.streamScheduler = streamScheduler;
+    this.name = name;
+    this.runnable = runnable;
+    this.periodNanos = periodNanos;
+    this.dueNanos = startNanos + periodNanos;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /** Stop running the task. A run that is in progress is allowed to finish. */
+  public void cancel() {
+    cancelled = true;
+    if (future != null) {
+      future.cancel(false);
+    }
+    streamScheduler.cancel(this);
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  public long getRunCount() {
+    return runCount.sum();
+  }
+
+  public long getSkippedRunCount() {
+    return skippedRunCount.sum();
+  }
+
+  public long getMaxLagMillis() {
+    return maxLagMillis.get();
+  }
+
+  @Override
+  public String toString() {
+    return "StreamTask{" + "name='" + name + '\'' + ", cancelled=" + cancelled + '}';
+  }
+
+  Runnable getRunnable() {
+    return runnable;
+  }
+
+  void setFuture(Future<?> future) {
+    this.future = future;
+    if (cancelled) {
+      future.cancel(false);
+    }
+  }
+
+  /**
+   * Called by the scheduler thread each time the task is due. Fixed rate runs of one task never
+   * overlap on the scheduler threads, so the due time is only advanced by one thread at a time.
+   *
+   * @return the time the current run was due
+   */
+  long nextDueNanos() {
+    long due = dueNanos;
+    dueNanos = due + periodNanos;
+    return due;
+  }
+
+  /** @return true if the task was idle and is now marked as running */
+  boolean tryStart() {
+    return running.compareAndSet(false, true);
+  }
+
+  void finish(long lagMillis) {
+    runCount.increment();
+    maxLagMillis.accumulate(lagMillis);
+    running.set(false);
+  }
+
+  /** Called when a run was started but could not be handed to a worker. */
+  void abort() {
+    running.set(false);
+  }
+
+  void skip() {
+    skippedRunCount.increment();
+  }
+}
@@ -17,12 +17,18 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import ddf.catalog.CatalogFramework;
 import ddf.catalog.data.MetacardType;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import org.codice.alliance.video.stream.mpegts.filename.FilenameGenerator;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndex;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndexEntry;
+import org.codice.alliance.video.stream.mpegts.netty.KeyFrame;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverCondition;
 import org.junit.Before;
@@ -200,4 +206,32 @@ public class UdpStreamMonitorTest {
     udpStreamMonitor.setFilenameGenerator(filenameGenerator);
     verify(udpStreamProcessor).setFilenameGenerator(filenameGenerator);
   }
+
+  @Test
+  public void testSetStreamIndexRetention() {
+    udpStreamMonitor.setStreamIndexRetention(30);
+    verify(udpStreamProcessor).setStreamIndexRetention(Duration.ofDays(30));
+  }
+
+  @Test
+  public void testSetStreamIndexRetentionZeroKeepsForever() {
+    udpStreamMonitor.setStreamIndexRetention(0);
+    verify(udpStreamProcessor).setStreamIndexRetention(null);
+  }
+
+  @Test
+  public void testSeekToKlvTimestamp() {
+    StreamIndex streamIndex = new StreamIndex();
+    streamIndex.append("child", Collections.singletonList(new KeyFrame(0, 90000L, 1_000_000L)));
+    when(udpStreamProcessor.findStreamIndex("parent")).thenReturn(Optional.of(streamIndex));
+    when(udpStreamProcessor.findStreamIndex("other")).thenReturn(Optional.empty());
+
+    assertThat(
+        udpStreamMonitor.seekToKlvTimestamp("parent", 2_000_000L).map(StreamIndexEntry::getChunkId),
+        is(Optional.of("child")));
+    assertThat(udpStreamMonitor.seekToKlvTimestamp("other", 2_000_000L), is(Optional.empty()));
+    assertThat(
+        udpStreamMonitor.getChunkIds("parent", 0L, 2_000_000L),
+        is(Collections.singletonList("child")));
+  }
 }
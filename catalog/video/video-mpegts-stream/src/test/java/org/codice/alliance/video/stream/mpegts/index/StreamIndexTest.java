@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.index;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.codice.alliance.video.stream.mpegts.netty.KeyFrame;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class StreamIndexTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StreamIndexTest.class);
+
+  private static final long UNKNOWN = KeyFrame.UNKNOWN_TIME;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testSeekToPresentationTimestamp() {
+    StreamIndex streamIndex = createIndex();
+
+    assertEntry(streamIndex.seekToPresentationTimestamp(90000), "chunk1", 0);
+    assertEntry(streamIndex.seekToPresentationTimestamp(179999), "chunk1", 0);
+    assertEntry(streamIndex.seekToPresentationTimestamp(180000), "chunk1", 1000);
+    assertEntry(streamIndex.seekToPresentationTimestamp(300000), "chunk2", 500);
+    assertEntry(streamIndex.seekToPresentationTimestamp(Long.MAX_VALUE), "chunk3", 0);
+    assertThat(streamIndex.seekToPresentationTimestamp(89999), is(Optional.empty()));
+  }
+
+  @Test
+  public void testSeekToKlvTimestamp() {
+    StreamIndex streamIndex = createIndex();
+
+    assertEntry(streamIndex.seekToKlvTimestamp(1_000_000), "chunk1", 0);
+    assertEntry(streamIndex.seekToKlvTimestamp(3_500_000), "chunk2", 500);
+    assertEntry(streamIndex.seekToKlvTimestamp(4_000_000), "chunk3", 0);
+    assertThat(streamIndex.seekToKlvTimestamp(999_999), is(Optional.empty()));
+  }
+
+  @Test
+  public void testChunkIds() {
+    StreamIndex streamIndex = createIndex();
+
+    assertThat(streamIndex.getChunkIds(), contains("chunk1", "chunk2", "chunk3"));
+    assertThat(streamIndex.getChunkIds(2_000_000, 3_000_000), contains("chunk1", "chunk2"));
+    assertThat(streamIndex.getChunkIds(3_100_000, 3_200_000), contains("chunk2"));
+    assertThat(streamIndex.getChunkIds(0, 5_000_000), contains("chunk1", "chunk2", "chunk3"));
+    assertThat(streamIndex.getChunkIds(0, 999_999), is(empty()));
+    assertThat(streamIndex.getChunkIds(3_000_000, 2_000_000), is(empty()));
+  }
+
+  /** A chunk that does not start with an IDR frame can be seeked to from the start of the chunk. */
+  @Test
+  public void testChunkWithoutKeyFrames() {
+    StreamIndex streamIndex = new StreamIndex();
+    streamIndex.append("chunk1", Collections.singletonList(new KeyFrame(0, 90000, UNKNOWN)));
+    streamIndex.append("chunk2", Collections.emptyList());
+
+    assertThat(streamIndex.size(), is(2));
+    assertThat(streamIndex.getChunkIds(), contains("chunk1", "chunk2"));
+    assertEntry(streamIndex.seekToPresentationTimestamp(Long.MAX_VALUE), "chunk1", 0);
+  }
+
+  @Test
+  public void testPresentationTimestampRollover() {
+    long rollover = 1L << 33;
+
+    StreamIndex streamIndex = new StreamIndex();
+    streamIndex.append(
+        "chunk1", Collections.singletonList(new KeyFrame(0, rollover - 90000, UNKNOWN)));
+    streamIndex.append("chunk2", Collections.singletonList(new KeyFrame(0, 90000, UNKNOWN)));
+
+    assertEntry(streamIndex.seekToPresentationTimestamp(rollover - 1), "chunk1", 0);
+    assertEntry(streamIndex.seekToPresentationTimestamp(rollover + 90000), "chunk2", 0);
+    assertThat(
+        streamIndex.seekToPresentationTimestamp(rollover).get().getPresentationTimestamp(),
+        is(rollover - 90000));
+  }
+
+  /** A time that goes backwards is not searchable, but the seek point is still in the index. */
+  @Test
+  public void testOutOfOrderKlvTimestamp() {
+    StreamIndex streamIndex = new StreamIndex();
+    streamIndex.append("chunk1", Collections.singletonList(new KeyFrame(0, UNKNOWN, 2_000_000)));
+    streamIndex.append("chunk2", Collections.singletonList(new KeyFrame(0, UNKNOWN, 1_000_000)));
+
+    assertThat(streamIndex.size(), is(2));
+    assertThat(streamIndex.seekToKlvTimestamp(1_500_000), is(Optional.empty()));
+    assertEntry(streamIndex.seekToKlvTimestamp(2_500_000), "chunk1", 0);
+  }
+
+  @Test
+  public void testJournalIsReplayed() throws IOException {
+    Path file = StreamIndex.getIndexFile(temporaryFolder.getRoot().toPath(), "parent");
+
+    try (StreamIndex streamIndex = StreamIndex.open(file)) {
+      assertThat(streamIndex.isPersistent(), is(true));
+      appendChunks(streamIndex);
+    }
+
+    try (StreamIndex streamIndex = StreamIndex.open(file)) {
+      assertThat(streamIndex.getChunkIds(), contains("chunk1", "chunk2", "chunk3"));
+      assertEntry(streamIndex.seekToKlvTimestamp(3_500_000), "chunk2", 500);
+
+      streamIndex.append("chunk4", Collections.singletonList(new KeyFrame(0, 450000, 5_000_000)));
+    }
+
+    try (StreamIndex streamIndex = StreamIndex.open(file)) {
+      assertThat(streamIndex.getChunkIds(), contains("chunk1", "chunk2", "chunk3", "chunk4"));
+      assertEntry(streamIndex.seekToPresentationTimestamp(450000), "chunk4", 0);
+    }
+  }
+
+  /** A record that was partially written when the server stopped is discarded. */
+  @Test
+  public void testPartialRecordIsDiscarded() throws IOException {
+    Path file = StreamIndex.getIndexFile(temporaryFolder.getRoot().toPath(), "parent");
+
+    try (StreamIndex streamIndex = StreamIndex.open(file)) {
+      appendChunks(streamIndex);
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 5);
+    }
+
+    try (StreamIndex streamIndex = StreamIndex.open(file)) {
+      assertThat(streamIndex.getChunkIds(), contains("chunk1", "chunk2"));
+      streamIndex.append("chunk3", Collections.emptyList());
+    }
+
+    try (StreamIndex streamIndex = StreamIndex.open(file)) {
+      assertThat(streamIndex.getChunkIds(), contains("chunk1", "chunk2", "chunk3"));
+    }
+  }
+
+  /** A journal that is loaded is not written, even if it ends with a partial record. */
+  @Test
+  public void testLoad() throws IOException {
+    Path file = StreamIndex.getIndexFile(temporaryFolder.getRoot().toPath(), "parent");
+
+    try (StreamIndex streamIndex = StreamIndex.open(file)) {
+      appendChunks(streamIndex);
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 5);
+    }
+    long size = Files.size(file);
+
+    StreamIndex streamIndex = StreamIndex.load(file);
+
+    assertThat(streamIndex.isPersistent(), is(false));
+    assertThat(streamIndex.getChunkIds(), contains("chunk1", "chunk2"));
+    assertEntry(streamIndex.seekToKlvTimestamp(3_500_000), "chunk2", 500);
+    assertThat(Files.size(file), is(size));
+  }
+
+  @Test
+  public void testDeleteExpired() throws IOException {
+    Path directory = temporaryFolder.getRoot().toPath();
+    Instant now = Instant.now();
+
+    Path expiredFile = StreamIndex.getIndexFile(directory, "expired");
+    StreamIndex.open(expiredFile).close();
+    Files.setLastModifiedTime(expiredFile, FileTime.from(now.minus(Duration.ofDays(2))));
+    Path recentFile = StreamIndex.getIndexFile(directory, "recent");
+    StreamIndex.open(recentFile).close();
+    Path otherFile = temporaryFolder.newFile("other.ts").toPath();
+    Files.setLastModifiedTime(otherFile, FileTime.from(now.minus(Duration.ofDays(2))));
+
+    assertThat(StreamIndex.deleteExpired(directory, Duration.ofDays(1), now), is(1));
+
+    assertThat(Files.exists(expiredFile), is(false));
+    assertThat(Files.exists(recentFile), is(true));
+    assertThat(Files.exists(otherFile), is(true));
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotAJournal() throws IOException {
+    Path file = temporaryFolder.newFile("parent.idx").toPath();
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6});
+
+    StreamIndex.open(file);
+  }
+
+  /**
+   * Index a 24 hour stream with an IDR frame every second and a chunk every minute, and seek to
+   * every second of the stream.
+   */
+  @Test
+  public void testSeekIsFast() {
+    int chunkCount = 24 * 60;
+    int keyFramesPerChunk = 60;
+
+    StreamIndex streamIndex = new StreamIndex();
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      List<KeyFrame> keyFrames = new ArrayList<>(keyFramesPerChunk);
+      for (int i = 0; i < keyFramesPerChunk; i++) {
+        long second = (long) chunk * keyFramesPerChunk + i;
+        keyFrames.add(new KeyFrame(i * 100_000L, second * 90000, second * 1_000_000));
+      }
+      streamIndex.append("chunk" + chunk, keyFrames);
+    }
+
+    int seekCount = chunkCount * keyFramesPerChunk;
+    long start = System.nanoTime();
+    for (int second = 0; second < seekCount; second++) {
+      StreamIndexEntry entry = streamIndex.seekToKlvTimestamp(second * 1_000_000L + 500_000).get();
+      assertThat(entry.getChunkId(), is("chunk" + second / keyFramesPerChunk));
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    LOGGER.info("{} seeks in an index of {} entries in {} ms", seekCount, seekCount, elapsedMillis);
+
+    assertThat(streamIndex.size(), is(seekCount));
+    assertThat(elapsedMillis, lessThan(TimeUnit.SECONDS.toMillis(30)));
+  }
+
+  private StreamIndex createIndex() {
+    StreamIndex streamIndex = new StreamIndex();
+    appendChunks(streamIndex);
+    return streamIndex;
+  }
+
+  /**
+   * chunk1 has IDR frames at 1s and 2s, chunk2 starts with non-IDR frames and has an IDR frame at
+   * 3s, and chunk3 has an IDR frame at 4s.
+   */
+  private void appendChunks(StreamIndex streamIndex) {
+    streamIndex.append(
+        "chunk1",
+        Arrays.asList(new KeyFrame(0, 90000, 1_000_000), new KeyFrame(1000, 180000, 2_000_000)));
+    streamIndex.append("chunk2", Collections.singletonList(new KeyFrame(500, 270000, 3_000_000)));
+    streamIndex.append("chunk3", Collections.singletonList(new KeyFrame(0, 360000, 4_000_000)));
+  }
+
+  private void assertEntry(Optional<StreamIndexEntry> entry, String chunkId, long byteOffset) {
+    assertThat(entry.isPresent(), is(true));
+    assertThat(entry.get().getChunkId(), is(chunkId));
+    assertThat(entry.get().getByteOffset(), is(byteOffset));
+  }
+}
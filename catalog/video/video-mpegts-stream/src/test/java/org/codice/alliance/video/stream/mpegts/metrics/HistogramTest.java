@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.metrics;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  @Test
+  public void testEmpty() {
+    Histogram histogram = new Histogram();
+    assertThat(histogram.getCount(), is(0L));
+    assertThat(histogram.getMax(), is(0L));
+    assertThat(histogram.getMean(), is(0.0));
+    assertThat(histogram.getPercentile(99), is(0L));
+  }
+
+  @Test
+  public void testRecord() {
+    Histogram histogram = new Histogram();
+    for (long value = 1; value <= 100; value++) {
+      histogram.record(value);
+    }
+
+    assertThat(histogram.getCount(), is(100L));
+    assertThat(histogram.getMax(), is(100L));
+    assertThat(histogram.getMean(), closeTo(50.5, 0.001));
+    // 50 is in the bucket from 32 to 63
+    assertThat(histogram.getPercentile(50), is(63L));
+    assertThat(histogram.getPercentile(100), is(100L));
+  }
+
+  @Test
+  public void testNegativeValue() {
+    Histogram histogram = new Histogram();
+    histogram.record(-5);
+    assertThat(histogram.getCount(), is(1L));
+    assertThat(histogram.getMax(), is(0L));
+    assertThat(histogram.getPercentile(50), is(0L));
+  }
+
+  @Test
+  public void testLargeValue() {
+    Histogram histogram = new Histogram();
+    histogram.record(Long.MAX_VALUE);
+    assertThat(histogram.getPercentile(50), is(Long.MAX_VALUE));
+  }
+}
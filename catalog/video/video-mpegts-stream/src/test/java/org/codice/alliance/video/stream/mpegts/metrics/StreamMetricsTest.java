@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.metrics;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamMetricsTest {
+
+  private static final int PID = 0x100;
+
+  private static final int PACKET_SIZE = 188;
+
+  private StreamMetrics streamMetrics;
+
+  @Before
+  public void setup() {
+    streamMetrics = new StreamMetrics();
+  }
+
+  @Test
+  public void testRecordDatagram() {
+    streamMetrics.recordDatagram(1316);
+    streamMetrics.recordDatagram(1316);
+    assertThat(streamMetrics.getDatagrams(), is(2L));
+    assertThat(streamMetrics.getBytesReceived(), is(2632L));
+  }
+
+  @Test
+  public void testContinuousPackets() {
+    for (int i = 0; i < 40; i++) {
+      streamMetrics.recordTransportPacket(payloadPacket(PID, i), 0);
+    }
+    assertThat(streamMetrics.getTransportPackets(), is(40L));
+    assertThat(streamMetrics.getContinuityErrors(), is(0L));
+  }
+
+  @Test
+  public void testDroppedPacket() {
+    streamMetrics.recordTransportPacket(payloadPacket(PID, 0), 0);
+    streamMetrics.recordTransportPacket(payloadPacket(PID, 1), 0);
+    streamMetrics.recordTransportPacket(payloadPacket(PID, 3), 0);
+    streamMetrics.recordTransportPacket(payloadPacket(PID + 1, 7), 0);
+
+    assertThat(streamMetrics.getContinuityErrors(), is(1L));
+    assertThat(streamMetrics.getContinuityErrorsByPid(), is(Collections.singletonMap(PID, 1L)));
+  }
+
+  @Test
+  public void testDuplicatePacket() {
+    streamMetrics.recordTransportPacket(payloadPacket(PID, 5), 0);
+    streamMetrics.recordTransportPacket(payloadPacket(PID, 5), 0);
+    streamMetrics.recordTransportPacket(payloadPacket(PID, 6), 0);
+    assertThat(streamMetrics.getContinuityErrors(), is(0L));
+  }
+
+  @Test
+  public void testDiscontinuityIndicator() {
+    streamMetrics.recordTransportPacket(payloadPacket(PID, 5), 0);
+    byte[] packet = pcrPacket(PID, 9, 0);
+    packet[5] |= (byte) 0x80;
+    streamMetrics.recordTransportPacket(packet, 0);
+    assertThat(streamMetrics.getContinuityErrors(), is(0L));
+  }
+
+  @Test
+  public void testNullPacketsAreIgnored() {
+    streamMetrics.recordTransportPacket(payloadPacket(0x1fff, 0), 0);
+    streamMetrics.recordTransportPacket(payloadPacket(0x1fff, 9), 0);
+    assertThat(streamMetrics.getContinuityErrors(), is(0L));
+    assertThat(streamMetrics.getTransportPackets(), is(2L));
+  }
+
+  /** PCRs 40ms apart that arrive 41ms apart have 1ms of jitter. */
+  @Test
+  public void testPcrJitter() {
+    long pcrInterval = 27_000 * 40;
+    long arrivalInterval = TimeUnit.MILLISECONDS.toNanos(41);
+    for (int i = 0; i < 10; i++) {
+      streamMetrics.recordTransportPacket(pcrPacket(PID, i, i * pcrInterval), i * arrivalInterval);
+    }
+
+    Histogram jitter = streamMetrics.getPcrJitterMicros();
+    assertThat(jitter.getCount(), is(9L));
+    assertThat(jitter.getMax(), is(1000L));
+    assertThat(streamMetrics.getContinuityErrors(), is(0L));
+  }
+
+  @Test
+  public void testPcrBeyondThirtyTwoBits() {
+    long pcrBase = 0x1_2345_6789L;
+    long arrivalInterval = TimeUnit.MILLISECONDS.toNanos(40);
+    streamMetrics.recordTransportPacket(pcrPacket(PID, 0, pcrBase * 300), 0);
+    streamMetrics.recordTransportPacket(
+        pcrPacket(PID, 1, (pcrBase + 3600) * 300), arrivalInterval);
+
+    assertThat(streamMetrics.getPcrJitterMicros().getMax(), is(0L));
+  }
+
+  @Test
+  public void testPcrGapIsNotJitter() {
+    streamMetrics.recordTransportPacket(pcrPacket(PID, 0, 0), 0);
+    streamMetrics.recordTransportPacket(
+        pcrPacket(PID, 1, 27_000_000L * 5), TimeUnit.SECONDS.toNanos(5));
+    assertThat(streamMetrics.getPcrJitterMicros().getCount(), is(0L));
+  }
+
+  @Test
+  public void testToMap() {
+    streamMetrics.recordDatagram(1316);
+    streamMetrics.recordRollover(20);
+    streamMetrics.recordCatalogCreate(10);
+    streamMetrics.recordIngestLag(1500);
+    streamMetrics.updateRates();
+
+    Map<String, Object> map = streamMetrics.toMap();
+
+    assertThat(map.get(StreamMetrics.DATAGRAMS), is(1L));
+    assertThat(((Map) map.get(StreamMetrics.ROLLOVER_MILLISECONDS)).get("max"), is(20L));
+    assertThat(((Map) map.get(StreamMetrics.CATALOG_CREATE_MILLISECONDS)).get("count"), is(1L));
+    assertThat(((Map) map.get(StreamMetrics.INGEST_LAG_MILLISECONDS)).get("count"), is(1L));
+    assertThat(map.get(StreamMetrics.CONTINUITY_ERRORS_BY_PID), is(Collections.emptyMap()));
+  }
+
+  private static byte[] payloadPacket(int pid, int continuityCounter) {
+    byte[] packet = header(pid, continuityCounter);
+    packet[3] |= 0x10;
+    return packet;
+  }
+
+  private static byte[] pcrPacket(int pid, int continuityCounter, long pcr) {
+    byte[] packet = header(pid, continuityCounter);
+    packet[3] |= 0x30;
+    packet[4] = 7;
+    packet[5] = 0x10;
+    long base = pcr / 300;
+    long extension = pcr % 300;
+    packet[6] = (byte) (base >> 25);
+    packet[7] = (byte) (base >> 17);
+    packet[8] = (byte) (base >> 9);
+    packet[9] = (byte) (base >> 1);
+    packet[10] = (byte) (((base & 0x1) << 7) | 0x7e | (extension >> 8));
+    packet[11] = (byte) extension;
+    return packet;
+  }
+
+  private static byte[] header(int pid, int continuityCounter) {
+    byte[] packet = new byte[PACKET_SIZE];
+    packet[0] = 0x47;
+    packet[1] = (byte) ((pid >> 8) & 0x1f);
+    packet[2] = (byte) pid;
+    packet[3] = (byte) (continuityCounter & 0x0f);
+    return packet;
+  }
+}
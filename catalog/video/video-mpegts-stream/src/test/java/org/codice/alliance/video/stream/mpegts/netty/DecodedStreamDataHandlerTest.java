@@ -14,6 +14,8 @@
 package org.codice.alliance.video.stream.mpegts.netty;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -44,7 +46,7 @@ public class DecodedStreamDataHandlerTest {
 
     channel.writeInbound("not a DecodedStreamData.class");
 
-    verify(packetBuffer, never()).frameComplete(any());
+    verify(packetBuffer, never()).frameComplete(any(), anyLong());
   }
 
   @Test
@@ -62,7 +64,7 @@ public class DecodedStreamDataHandlerTest {
 
     channel.writeInbound(decodedStreamData);
 
-    verify(packetBuffer).frameComplete(PacketBuffer.FrameType.IDR);
+    verify(packetBuffer).frameComplete(eq(PacketBuffer.FrameType.IDR), anyLong());
   }
 
   @Test
@@ -80,6 +82,19 @@ public class DecodedStreamDataHandlerTest {
 
     channel.writeInbound(decodedStreamData);
 
-    verify(packetBuffer).frameComplete(PacketBuffer.FrameType.NON_IDR);
+    verify(packetBuffer).frameComplete(eq(PacketBuffer.FrameType.NON_IDR), anyLong());
+  }
+
+  @Test
+  public void testPresentationTimestamp() throws Exception {
+
+    EmbeddedChannel channel = new EmbeddedChannel(new DecodedStreamDataHandler(packetBuffer));
+
+    List<NALUnit> nalUnitList = new LinkedList<>();
+    nalUnitList.add(new NALUnit(NALUnitType.IDR_SLICE, 0));
+
+    channel.writeInbound(new Mpeg4DecodedStreamData(nalUnitList, 256, 900000L));
+
+    verify(packetBuffer).frameComplete(PacketBuffer.FrameType.IDR, 900000L);
   }
 }
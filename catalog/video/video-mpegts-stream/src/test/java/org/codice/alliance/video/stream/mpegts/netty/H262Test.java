@@ -14,6 +14,8 @@
 package org.codice.alliance.video.stream.mpegts.netty;
 
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -69,7 +71,7 @@ public class H262Test {
         }
       }
     }
-    verify(packetBuffer, times(37)).frameComplete(PacketBuffer.FrameType.IDR);
+    verify(packetBuffer, times(37)).frameComplete(eq(PacketBuffer.FrameType.IDR), anyLong());
   }
 
   private InputStream getInputStream(String filename) {
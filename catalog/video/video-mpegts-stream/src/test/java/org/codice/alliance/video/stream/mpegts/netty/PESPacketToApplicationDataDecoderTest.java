@@ -27,6 +27,8 @@ import java.nio.ByteBuffer;
 import java.util.List;
 import org.codice.alliance.libs.mpegts.MpegStreamType;
 import org.codice.alliance.libs.mpegts.PESPacket;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
+import org.codice.ddf.libs.klv.KlvDecodingException;
 import org.jcodec.codecs.h264.io.model.NALUnit;
 import org.junit.Before;
 import org.junit.Test;
@@ -83,4 +85,100 @@ public class PESPacketToApplicationDataDecoderTest {
     assertThat(decodedStreamData.getNalUnits().get(0), is(nalUnit1));
     assertThat(decodedStreamData.getNalUnits().get(1), is(nalUnit2));
   }
+
+  @Test
+  public void testPresentationTimestamp() throws Exception {
+
+    long pts = 900000;
+    byte[] pesHeader =
+        new byte[] {
+          0x00,
+          0x00,
+          0x01,
+          (byte) 0xE0,
+          0x00,
+          0x00,
+          (byte) 0x80,
+          (byte) 0x80,
+          0x05,
+          (byte) (0x21 | ((pts >> 29) & 0x0E)),
+          (byte) (pts >> 22),
+          (byte) (((pts >> 14) & 0xFE) | 0x01),
+          (byte) (pts >> 7),
+          (byte) (((pts << 1) & 0xFE) | 0x01)
+        };
+
+    when(pesPacket.getStreamType()).thenReturn(MpegStreamType.VIDEO_H264);
+    when(pesPacket.getPayload()).thenReturn(pesHeader);
+    decoder.setNalReader(byteBuffer -> null);
+
+    EmbeddedChannel channel = new EmbeddedChannel(decoder);
+
+    channel.writeInbound(pesPacket);
+
+    List<Object> outputList = NettyUtility.read(channel);
+
+    assertThat(outputList, hasSize(1));
+    assertThat(((Mpeg4DecodedStreamData) outputList.get(0)).getPresentationTimestamp(), is(pts));
+  }
+
+  @Test
+  public void testNoPresentationTimestamp() throws Exception {
+
+    when(pesPacket.getStreamType()).thenReturn(MpegStreamType.VIDEO_MPEG2);
+    when(pesPacket.getPayload()).thenReturn(EMPTY_ARRAY);
+
+    EmbeddedChannel channel = new EmbeddedChannel(decoder);
+
+    channel.writeInbound(pesPacket);
+
+    List<Object> outputList = NettyUtility.read(channel);
+
+    assertThat(outputList, hasSize(1));
+    assertThat(
+        ((Mpeg2DecodedStreamData) outputList.get(0)).getPresentationTimestamp(),
+        is(KeyFrame.UNKNOWN_TIME));
+  }
+
+  @Test
+  public void testDecodeMetadata() throws Exception {
+
+    when(pesPacket.getStreamType()).thenReturn(MpegStreamType.META_PES);
+    when(pesPacket.getPayload()).thenReturn(EMPTY_ARRAY);
+    when(pesPacket.getPacketId()).thenReturn(500);
+
+    DecodedKLVMetadataPacket decodedKLVMetadataPacket = mock(DecodedKLVMetadataPacket.class);
+    decoder.setKlvPacketDecoder(pesPacketBytes -> decodedKLVMetadataPacket);
+
+    EmbeddedChannel channel = new EmbeddedChannel(decoder);
+
+    channel.writeInbound(pesPacket);
+
+    List<Object> outputList = NettyUtility.read(channel);
+
+    assertThat(outputList, hasSize(1));
+    assertThat(outputList.get(0), is(instanceOf(KlvDecodedStreamData.class)));
+    KlvDecodedStreamData decodedStreamData = (KlvDecodedStreamData) outputList.get(0);
+
+    assertThat(decodedStreamData.getDecodedKLVMetadataPacket(), is(decodedKLVMetadataPacket));
+    assertThat(decodedStreamData.getPacketId(), is(500));
+  }
+
+  @Test
+  public void testUndecodableMetadataIsDropped() throws Exception {
+
+    when(pesPacket.getStreamType()).thenReturn(MpegStreamType.PRIVATE_DATA);
+    when(pesPacket.getPayload()).thenReturn(EMPTY_ARRAY);
+
+    decoder.setKlvPacketDecoder(
+        pesPacketBytes -> {
+          throw new KlvDecodingException("bad klv");
+        });
+
+    EmbeddedChannel channel = new EmbeddedChannel(decoder);
+
+    channel.writeInbound(pesPacket);
+
+    assertThat(NettyUtility.read(channel), hasSize(0));
+  }
 }
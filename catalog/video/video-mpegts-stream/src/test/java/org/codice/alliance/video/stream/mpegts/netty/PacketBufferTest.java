@@ -13,6 +13,7 @@
  */
 package org.codice.alliance.video.stream.mpegts.netty;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
@@ -25,9 +26,16 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
+import org.codice.alliance.libs.stanag4609.Stanag4609TransportStreamParser;
 import org.codice.alliance.video.stream.mpegts.filename.TempFileGenerator;
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverCondition;
+import org.codice.ddf.libs.klv.KlvContext;
+import org.codice.ddf.libs.klv.data.numerical.KlvLong;
+import org.codice.ddf.libs.klv.data.set.KlvLocalSet;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -132,6 +140,32 @@ public class PacketBufferTest {
         os.toByteArray(), is(new byte[] {0x01, 0x02, 0x03, 0x01, 0x02, 0x03, 0x01, 0x02, 0x03}));
   }
 
+  @Test
+  public void testBufferedBytesAndPendingFrames() {
+    packetBuffer.setOutputStreamFactory((file, append) -> os);
+
+    writePacket((byte) 0x01);
+    writePacket((byte) 0x02);
+    idr();
+    writePacket((byte) 0x03);
+    nonidr();
+    writePacket((byte) 0x04);
+
+    assertThat(packetBuffer.getBufferedByteCount(), is(4L));
+    assertThat(packetBuffer.getPendingFrameCount(), is(2));
+
+    idr();
+
+    // the first frameset was flushed, leaving the last IDR frame in memory
+    assertThat(packetBuffer.getBufferedByteCount(), is(1L));
+    assertThat(packetBuffer.getPendingFrameCount(), is(1));
+
+    packetBuffer.reset();
+
+    assertThat(packetBuffer.getBufferedByteCount(), is(0L));
+    assertThat(packetBuffer.getPendingFrameCount(), is(0));
+  }
+
   private void writePacket(byte b) {
     packetBuffer.write(new byte[] {b});
   }
@@ -196,6 +230,166 @@ public class PacketBufferTest {
     assertThat(file.isPresent(), is(true));
   }
 
+  /** Metadata is returned with the file that the frames it arrived with were written to. */
+  @Test
+  public void testDecodedKlvFollowsFrames() throws IOException {
+
+    DecodedKLVMetadataPacket flushedPacket = mock(DecodedKLVMetadataPacket.class);
+    DecodedKLVMetadataPacket bufferedPacket = mock(DecodedKLVMetadataPacket.class);
+
+    writePacket((byte) 0x01);
+    packetBuffer.addDecodedKlv(10, flushedPacket);
+    idr();
+
+    writePacket((byte) 0x02);
+    nonidr();
+
+    writePacket((byte) 0x03);
+    packetBuffer.addDecodedKlv(10, bufferedPacket);
+    idr();
+
+    RotateResult rotateResult = packetBuffer.rotate(rolloverCondition);
+    assertThat(rotateResult.getFile().isPresent(), is(true));
+    assertThat(
+        rotateResult.getDecodedKlv(),
+        is(Collections.singletonMap(10, Collections.singletonList(flushedPacket))));
+
+    rotateResult = packetBuffer.flushAndRotate();
+    assertThat(rotateResult.getFile().isPresent(), is(true));
+    assertThat(
+        rotateResult.getDecodedKlv(),
+        is(Collections.singletonMap(10, Collections.singletonList(bufferedPacket))));
+  }
+
+  /** The IDR frames are returned with their offset in the file that they were written to. */
+  @Test
+  public void testKeyFramesFollowFrames() throws IOException {
+
+    packetBuffer.write(new byte[] {0x01});
+    packetBuffer.addDecodedKlv(10, klvPacket(1000L));
+    packetBuffer.frameComplete(PacketBuffer.FrameType.IDR, 9000L);
+
+    packetBuffer.write(new byte[] {0x02, 0x02});
+    packetBuffer.frameComplete(PacketBuffer.FrameType.NON_IDR, 12000L);
+
+    packetBuffer.write(new byte[] {0x03});
+    packetBuffer.addDecodedKlv(10, mock(DecodedKLVMetadataPacket.class));
+    packetBuffer.frameComplete(PacketBuffer.FrameType.IDR, 15000L);
+
+    packetBuffer.write(new byte[] {0x04});
+    packetBuffer.frameComplete(PacketBuffer.FrameType.NON_IDR, 18000L);
+
+    packetBuffer.write(new byte[] {0x05});
+    packetBuffer.addDecodedKlv(10, klvPacket(2000L));
+    packetBuffer.frameComplete(PacketBuffer.FrameType.IDR, 21000L);
+
+    RotateResult rotateResult = packetBuffer.rotate(rolloverCondition);
+    assertThat(rotateResult.getCreateTime().isPresent(), is(true));
+    List<KeyFrame> keyFrames = rotateResult.getKeyFrames();
+    assertThat(keyFrames, hasSize(2));
+    assertKeyFrame(keyFrames.get(0), 0, 9000L, 1000L);
+    assertKeyFrame(keyFrames.get(1), 3, 15000L, 1000L);
+
+    rotateResult = packetBuffer.flushAndRotate();
+    keyFrames = rotateResult.getKeyFrames();
+    assertThat(keyFrames, hasSize(1));
+    assertKeyFrame(keyFrames.get(0), 0, 21000L, 2000L);
+  }
+
+  /**
+   * An IDR frame that could not be written to the file is not returned, and the frames that were
+   * dropped are no longer counted as buffered.
+   */
+  @Test
+  public void testKeyFramesAfterFailedWrite() throws IOException {
+
+    packetBuffer.setOutputStreamFactory(
+        (file, append) ->
+            new OutputStream() {
+              @Override
+              public void write(int b) throws IOException {
+                os.write(b);
+              }
+
+              @Override
+              public void write(byte[] b) throws IOException {
+                if (b[0] == 0x03) {
+                  throw new IOException();
+                }
+                os.write(b);
+              }
+            });
+
+    packetBuffer.write(new byte[] {0x01});
+    packetBuffer.frameComplete(PacketBuffer.FrameType.IDR, 9000L);
+
+    packetBuffer.write(new byte[] {0x02, 0x02});
+    packetBuffer.frameComplete(PacketBuffer.FrameType.NON_IDR, 12000L);
+
+    packetBuffer.write(new byte[] {0x03});
+    packetBuffer.addDecodedKlv(10, klvPacket(1000L));
+    packetBuffer.frameComplete(PacketBuffer.FrameType.IDR, 15000L);
+
+    packetBuffer.write(new byte[] {0x04});
+    packetBuffer.frameComplete(PacketBuffer.FrameType.NON_IDR, 18000L);
+
+    packetBuffer.write(new byte[] {0x05});
+    packetBuffer.frameComplete(PacketBuffer.FrameType.IDR, 21000L);
+
+    assertThat(packetBuffer.getBufferedByteCount(), is(1L));
+
+    RotateResult rotateResult = packetBuffer.rotate(rolloverCondition);
+    assertThat(rotateResult.getFile().isPresent(), is(true));
+    assertThat(rotateResult.getKeyFrames(), hasSize(1));
+    assertKeyFrame(rotateResult.getKeyFrames().get(0), 0, 9000L, KeyFrame.UNKNOWN_TIME);
+    assertThat(rotateResult.getDecodedKlv().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testKeyFramesWithoutTimes() throws IOException {
+
+    writePacket((byte) 0x01);
+    idr();
+    writePacket((byte) 0x02);
+    nonidr();
+
+    RotateResult rotateResult = packetBuffer.flushAndRotate();
+    assertThat(rotateResult.getKeyFrames(), hasSize(1));
+    assertKeyFrame(
+        rotateResult.getKeyFrames().get(0), 0, KeyFrame.UNKNOWN_TIME, KeyFrame.UNKNOWN_TIME);
+  }
+
+  private void assertKeyFrame(
+      KeyFrame keyFrame, long byteOffset, long presentationTimestamp, long klvTimestamp) {
+    assertThat(keyFrame.getByteOffset(), is(byteOffset));
+    assertThat(keyFrame.getPresentationTimestamp(), is(presentationTimestamp));
+    assertThat(keyFrame.getKlvTimestamp(), is(klvTimestamp));
+  }
+
+  private DecodedKLVMetadataPacket klvPacket(long timestamp) {
+    KlvLong klvTimestamp = mock(KlvLong.class);
+    when(klvTimestamp.getValue()).thenReturn(timestamp);
+
+    KlvContext localSetContext = mock(KlvContext.class);
+    when(localSetContext.hasDataElement(Stanag4609TransportStreamParser.TIMESTAMP))
+        .thenReturn(true);
+    when(localSetContext.getDataElementByName(Stanag4609TransportStreamParser.TIMESTAMP))
+        .thenReturn(klvTimestamp);
+
+    KlvLocalSet localSet = mock(KlvLocalSet.class);
+    when(localSet.getValue()).thenReturn(localSetContext);
+
+    KlvContext klvContext = mock(KlvContext.class);
+    when(klvContext.hasDataElement(Stanag4609TransportStreamParser.UAS_DATALINK_LOCAL_SET))
+        .thenReturn(true);
+    when(klvContext.getDataElementByName(Stanag4609TransportStreamParser.UAS_DATALINK_LOCAL_SET))
+        .thenReturn(localSet);
+
+    DecodedKLVMetadataPacket decodedKLVMetadataPacket = mock(DecodedKLVMetadataPacket.class);
+    when(decodedKLVMetadataPacket.getDecodedKLV()).thenReturn(klvContext);
+    return decodedKLVMetadataPacket;
+  }
+
   /** Always call with an array of 12 elements! */
   private void completeVideoSequence(byte[] data) {
 
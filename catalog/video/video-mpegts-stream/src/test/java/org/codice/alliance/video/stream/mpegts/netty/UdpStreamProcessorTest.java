@@ -13,31 +13,53 @@
  */
 package org.codice.alliance.video.stream.mpegts.netty;
 
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import ddf.catalog.CatalogFramework;
 import ddf.catalog.data.MetacardType;
+import ddf.catalog.data.impl.MetacardImpl;
+import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
 import org.codice.alliance.video.stream.mpegts.SimpleSubject;
 import org.codice.alliance.video.stream.mpegts.StreamMonitor;
 import org.codice.alliance.video.stream.mpegts.filename.FilenameGenerator;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndex;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndexEntry;
 import org.codice.alliance.video.stream.mpegts.metacard.MetacardUpdater;
+import org.codice.alliance.video.stream.mpegts.metrics.Histogram;
 import org.codice.alliance.video.stream.mpegts.plugins.StreamEndPlugin;
 import org.codice.alliance.video.stream.mpegts.plugins.StreamShutdownPlugin;
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverAction;
 import org.codice.alliance.video.stream.mpegts.rollover.RolloverCondition;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 
 public class UdpStreamProcessorTest {
 
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void testCreateChannelHandlers() {
     StreamMonitor streamMonitor = mock(StreamMonitor.class);
@@ -89,4 +111,114 @@ public class UdpStreamProcessorTest {
 
     verify(streamEndPlugin).streamEnded(any());
   }
+
+  @Test
+  public void testDoRolloverHandsDecodedKlvToRolloverAction() throws Exception {
+    UdpStreamProcessor udpStreamProcessor = new UdpStreamProcessor(mock(StreamMonitor.class));
+    RolloverAction rolloverAction = mock(RolloverAction.class);
+    udpStreamProcessor.setRolloverAction(rolloverAction);
+
+    File tempFile = createTempFile();
+    Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv =
+        Collections.singletonMap(
+            1, Collections.singletonList(mock(DecodedKLVMetadataPacket.class)));
+
+    List<KeyFrame> keyFrames = Collections.singletonList(new KeyFrame(0, 9000L, 1000L));
+
+    udpStreamProcessor.doRollover(new RotateResult(tempFile, false, decodedKlv, keyFrames, null));
+
+    ArgumentCaptor<RotateResult> rotateResult = ArgumentCaptor.forClass(RotateResult.class);
+    verify(rolloverAction).doAction((MetacardImpl) isNull(), rotateResult.capture());
+    assertThat(rotateResult.getValue().getFile(), is(Optional.of(tempFile)));
+    assertThat(rotateResult.getValue().getDecodedKlv(), is(decodedKlv));
+    assertThat(rotateResult.getValue().getKeyFrames(), is(keyFrames));
+    assertThat(tempFile.exists(), is(false));
+  }
+
+  /** The time from the start of the temp file until the rollover action finished is recorded. */
+  @Test
+  public void testDoRolloverRecordsIngestLag() throws Exception {
+    UdpStreamProcessor udpStreamProcessor = new UdpStreamProcessor(mock(StreamMonitor.class));
+    udpStreamProcessor.setRolloverAction(mock(RolloverAction.class));
+
+    File tempFile = createTempFile();
+    long createTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(10);
+
+    udpStreamProcessor.doRollover(
+        new RotateResult(
+            tempFile, false, Collections.emptyMap(), Collections.emptyList(), createTime));
+
+    Histogram ingestLagMillis = udpStreamProcessor.getStreamMetrics().getIngestLagMillis();
+    assertThat(ingestLagMillis.getCount(), is(1L));
+    assertThat(ingestLagMillis.getMax(), greaterThanOrEqualTo(TimeUnit.SECONDS.toMillis(10)));
+  }
+
+  /** The stream index file of the parent is kept after the final stream end on shutdown. */
+  @Test
+  public void testShutdownKeepsStreamIndex() throws IOException {
+    UdpStreamProcessor udpStreamProcessor = new UdpStreamProcessor(mock(StreamMonitor.class));
+    udpStreamProcessor.setStreamIndexDirectory(temporaryFolder.getRoot().toPath());
+    udpStreamProcessor.setStreamCreationSubject(new SimpleSubject());
+
+    MetacardImpl parentMetacard = new MetacardImpl();
+    parentMetacard.setId("parent");
+    Path indexFile = StreamIndex.getIndexFile(temporaryFolder.getRoot().toPath(), "parent");
+
+    udpStreamProcessor.setStreamShutdownPlugin(
+        context -> {
+          context.setParentMetacard(parentMetacard);
+          context
+              .getStreamIndex()
+              .ifPresent(
+                  streamIndex ->
+                      streamIndex.append(
+                          "child", Collections.singletonList(new KeyFrame(0, 9000L, 1000L))));
+        });
+
+    udpStreamProcessor.shutdown();
+
+    assertThat(Files.exists(indexFile), is(true));
+    assertThat(
+        udpStreamProcessor
+            .findStreamIndex("parent")
+            .flatMap(streamIndex -> streamIndex.seekToKlvTimestamp(1000L))
+            .map(StreamIndexEntry::getChunkId),
+        is(Optional.of("child")));
+  }
+
+  /** Stream index files older than the retention are deleted when a new stream index is opened. */
+  @Test
+  public void testExpiredStreamIndexIsDeleted() throws IOException {
+    UdpStreamProcessor udpStreamProcessor = new UdpStreamProcessor(mock(StreamMonitor.class));
+    Path directory = temporaryFolder.getRoot().toPath();
+    udpStreamProcessor.setStreamIndexDirectory(directory);
+    udpStreamProcessor.setStreamIndexRetention(Duration.ofDays(1));
+
+    Path expiredFile = StreamIndex.getIndexFile(directory, "expired");
+    StreamIndex.open(expiredFile).close();
+    Files.setLastModifiedTime(expiredFile, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+    Path recentFile = StreamIndex.getIndexFile(directory, "recent");
+    StreamIndex.open(recentFile).close();
+
+    MetacardImpl parentMetacard = new MetacardImpl();
+    parentMetacard.setId("parent");
+    udpStreamProcessor.setStreamCreationSubject(new SimpleSubject());
+    udpStreamProcessor.setStreamShutdownPlugin(
+        context -> {
+          context.setParentMetacard(parentMetacard);
+          context.getStreamIndex();
+        });
+
+    udpStreamProcessor.shutdown();
+
+    assertThat(Files.exists(expiredFile), is(false));
+    assertThat(Files.exists(recentFile), is(true));
+    assertThat(Files.exists(StreamIndex.getIndexFile(directory, "parent")), is(true));
+  }
+
+  private File createTempFile() throws IOException {
+    File tempFile = File.createTempFile("udp-stream-processor", ".ts");
+    tempFile.deleteOnExit();
+    return tempFile;
+  }
 }
@@ -39,6 +39,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.IntStream;
 import org.codice.alliance.video.stream.mpegts.Context;
+import org.codice.alliance.video.stream.mpegts.index.StreamIndex;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
 import org.junit.Before;
 import org.junit.Test;
@@ -216,6 +217,73 @@ public class FindChildrenStreamEndPluginTest {
     assertHandlerCalls(2, 0, 1, 2, 0, 1);
   }
 
+  /** The children in the stream index are looked up by id and handled in stream order. */
+  @Test
+  public void testIndexedChildren()
+      throws UnsupportedQueryException, SourceUnavailableException, FederationException {
+
+    when(metacard1.getId()).thenReturn("child1");
+    when(metacard2.getId()).thenReturn("child2");
+
+    Result result1 = mock(Result.class);
+    when(result1.getMetacard()).thenReturn(metacard1);
+    Result result2 = mock(Result.class);
+    when(result2.getMetacard()).thenReturn(metacard2);
+
+    QueryResponse queryResponse = mock(QueryResponse.class);
+    when(queryResponse.getResults()).thenReturn(Arrays.asList(result2, result1));
+    when(catalogFramework.query(any())).thenReturn(queryResponse);
+
+    StreamIndex streamIndex = context.getStreamIndex().get();
+    streamIndex.append("child1", Collections.emptyList());
+    streamIndex.append("child2", Collections.emptyList());
+
+    setIsParentDirty(true);
+
+    findChildrenStreamEndPlugin.streamEnded(context);
+
+    ArgumentCaptor<QueryRequest> queryRequestCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+    verify(catalogFramework, times(1)).query(queryRequestCaptor.capture());
+    assertThat(queryRequestCaptor.getValue().getQuery().getPageSize(), is(2));
+
+    verify(handler)
+        .handle(
+            Matchers.eq(context),
+            Matchers.eq(parentMetacard),
+            Matchers.eq(Arrays.asList(metacard1, metacard2)));
+    verify(handler).end(Matchers.eq(context), Matchers.eq(parentMetacard));
+  }
+
+  /** Children in the stream index that are no longer in the catalog are skipped. */
+  @Test
+  public void testMissingIndexedChildren()
+      throws UnsupportedQueryException, SourceUnavailableException, FederationException {
+
+    when(metacard1.getId()).thenReturn("child1");
+
+    Result result1 = mock(Result.class);
+    when(result1.getMetacard()).thenReturn(metacard1);
+
+    QueryResponse queryResponse = mock(QueryResponse.class);
+    when(queryResponse.getResults()).thenReturn(Collections.singletonList(result1));
+    when(catalogFramework.query(any())).thenReturn(queryResponse);
+
+    StreamIndex streamIndex = context.getStreamIndex().get();
+    streamIndex.append("child1", Collections.emptyList());
+    streamIndex.append("child2", Collections.emptyList());
+
+    setIsParentDirty(true);
+
+    findChildrenStreamEndPlugin.streamEnded(context);
+
+    verify(handler)
+        .handle(
+            Matchers.eq(context),
+            Matchers.eq(parentMetacard),
+            Matchers.eq(Collections.singletonList(metacard1)));
+    verify(handler).end(Matchers.eq(context), Matchers.eq(parentMetacard));
+  }
+
   @Test
   public void testHandlerThrowsRuntimeException()
       throws UnsupportedQueryException, SourceUnavailableException, FederationException {
@@ -37,13 +37,14 @@ public class FlushPacketBufferStreamShutdownPluginTest {
 
     when(context.getUdpStreamProcessor()).thenReturn(udpStreamProcessor);
     when(udpStreamProcessor.getPacketBuffer()).thenReturn(packetBuffer);
-    when(packetBuffer.flushAndRotate()).thenReturn(new RotateResult(file, false));
+    RotateResult rotateResult = new RotateResult(file, false);
+    when(packetBuffer.flushAndRotate()).thenReturn(rotateResult);
 
     FlushPacketBufferStreamShutdownPlugin flushPacketBufferStreamShutdownPlugin =
         new FlushPacketBufferStreamShutdownPlugin();
 
     flushPacketBufferStreamShutdownPlugin.onShutdown(context);
 
-    verify(udpStreamProcessor).doRollover(file);
+    verify(udpStreamProcessor).doRollover(rotateResult);
   }
 }
@@ -17,10 +17,9 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Timer;
-import java.util.function.Supplier;
 import org.codice.alliance.video.stream.mpegts.Context;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
+import org.codice.alliance.video.stream.mpegts.scheduler.StreamScheduler;
 import org.junit.Test;
 
 public class TimerStreamCreationPluginTest {
@@ -29,17 +28,15 @@ public class TimerStreamCreationPluginTest {
   public void testOnCreate() throws StreamCreationException {
     Context context = mock(Context.class);
     UdpStreamProcessor udpStreamProcessor = mock(UdpStreamProcessor.class);
-    Supplier<Timer> timerSupplier = mock(Supplier.class);
-    Timer timer = mock(Timer.class);
+    StreamScheduler streamScheduler = mock(StreamScheduler.class);
 
     when(context.getUdpStreamProcessor()).thenReturn(udpStreamProcessor);
-    when(timerSupplier.get()).thenReturn(timer);
 
     TimerStreamCreationPlugin timerStreamCreationPlugin =
-        new TimerStreamCreationPlugin(timerSupplier);
+        new TimerStreamCreationPlugin(streamScheduler);
 
     timerStreamCreationPlugin.onCreate(context);
 
-    verify(udpStreamProcessor).setTimer(timer);
+    verify(udpStreamProcessor).setStreamScheduler(streamScheduler);
   }
 }
@@ -13,21 +13,26 @@
  */
 package org.codice.alliance.video.stream.mpegts.plugins;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.util.Timer;
 import org.codice.alliance.video.stream.mpegts.Context;
+import org.codice.alliance.video.stream.mpegts.metrics.StreamMetrics;
+import org.codice.alliance.video.stream.mpegts.netty.PacketBuffer;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
+import org.codice.alliance.video.stream.mpegts.scheduler.StreamScheduler;
+import org.codice.alliance.video.stream.mpegts.scheduler.StreamTask;
 import org.junit.Test;
 
 public class TimerTaskStreamCreationPluginTest {
 
   /**
-   * Use a real Timer instead of a mock timer to make sure the timer task is scheduled correctly and
-   * calls the checkRollover method.
+   * Use a real StreamScheduler instead of a mock scheduler to make sure the task is scheduled
+   * correctly and calls the checkRollover method.
    *
    * @throws StreamCreationException
    * @throws InterruptedException
@@ -37,14 +42,16 @@ public class TimerTaskStreamCreationPluginTest {
 
     long period = 100;
 
-    Timer timer = new Timer();
+    StreamScheduler streamScheduler = new StreamScheduler(1, 1, 1);
 
     try {
       Context context = mock(Context.class);
       UdpStreamProcessor udpStreamProcessor = mock(UdpStreamProcessor.class);
 
       when(context.getUdpStreamProcessor()).thenReturn(udpStreamProcessor);
-      when(udpStreamProcessor.getTimer()).thenReturn(timer);
+      when(udpStreamProcessor.getStreamScheduler()).thenReturn(streamScheduler);
+      when(udpStreamProcessor.getPacketBuffer()).thenReturn(mock(PacketBuffer.class));
+      when(udpStreamProcessor.getStreamMetrics()).thenReturn(mock(StreamMetrics.class));
 
       TimerTaskStreamCreationPlugin timerTaskStreamCreationPlugin =
           new TimerTaskStreamCreationPlugin(period);
@@ -52,8 +59,19 @@ public class TimerTaskStreamCreationPluginTest {
       timerTaskStreamCreationPlugin.onCreate(context);
 
       verify(udpStreamProcessor, after((int) period * 2).atLeastOnce()).checkForRollover();
+      verify(udpStreamProcessor, times(3)).addScheduledTask(any(StreamTask.class));
     } finally {
-      timer.cancel();
+      streamScheduler.shutdown();
     }
   }
+
+  @Test(expected = StreamCreationException.class)
+  public void testOnCreateWithoutScheduler() throws StreamCreationException {
+    Context context = mock(Context.class);
+    UdpStreamProcessor udpStreamProcessor = mock(UdpStreamProcessor.class);
+
+    when(context.getUdpStreamProcessor()).thenReturn(udpStreamProcessor);
+
+    new TimerTaskStreamCreationPlugin(100).onCreate(context);
+  }
 }
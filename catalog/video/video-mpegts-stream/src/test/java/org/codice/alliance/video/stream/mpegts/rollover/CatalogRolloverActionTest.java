@@ -17,8 +17,11 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -47,13 +50,18 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.codice.alliance.libs.klv.AttributeNameConstants;
+import org.codice.alliance.libs.klv.DecodedKlvRegistry;
+import org.codice.alliance.libs.klv.DecodedKlvRegistryImpl;
 import org.codice.alliance.libs.klv.GeometryOperator;
 import org.codice.alliance.libs.klv.GeometryOperatorList;
 import org.codice.alliance.libs.klv.NormalizeGeometry;
 import org.codice.alliance.libs.klv.SimplifyGeometryFunction;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
 import org.codice.alliance.video.stream.mpegts.Context;
 import org.codice.alliance.video.stream.mpegts.SimpleSubject;
 import org.codice.alliance.video.stream.mpegts.filename.FilenameGenerator;
@@ -63,6 +71,8 @@ import org.codice.alliance.video.stream.mpegts.metacard.LocationMetacardUpdater;
 import org.codice.alliance.video.stream.mpegts.metacard.ModifiedDateMetacardUpdater;
 import org.codice.alliance.video.stream.mpegts.metacard.TemporalEndMetacardUpdater;
 import org.codice.alliance.video.stream.mpegts.metacard.TemporalStartMetacardUpdater;
+import org.codice.alliance.video.stream.mpegts.metrics.StreamMetrics;
+import org.codice.alliance.video.stream.mpegts.netty.RotateResult;
 import org.codice.alliance.video.stream.mpegts.netty.StreamProcessor;
 import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
 import org.codice.ddf.platform.util.uuidgenerator.UuidGenerator;
@@ -93,6 +103,10 @@ public class CatalogRolloverActionTest {
 
   private String childWkt;
 
+  private UdpStreamProcessor udpStreamProcessor;
+
+  private CreateResponse storageCreateResponse;
+
   @Before
   public void setup() throws SourceUnavailableException, IngestException {
     FilenameGenerator filenameGenerator = mock(FilenameGenerator.class);
@@ -112,7 +126,7 @@ public class CatalogRolloverActionTest {
     when(metacardType.getAttributeDescriptor(AttributeNameConstants.TEMPORAL_END))
         .thenReturn(mock(AttributeDescriptor.class));
 
-    UdpStreamProcessor udpStreamProcessor = mock(UdpStreamProcessor.class);
+    udpStreamProcessor = mock(UdpStreamProcessor.class);
     when(udpStreamProcessor.getSubject()).thenReturn(new SimpleSubject());
 
     Context context = new Context(udpStreamProcessor);
@@ -161,7 +175,7 @@ public class CatalogRolloverActionTest {
     Metacard updatedChildMetacard = mock(Metacard.class);
     when(updatedChildMetacard.getMetacardType()).thenReturn(metacardType);
     CreateResponse createResponse = mock(CreateResponse.class);
-    CreateResponse storageCreateResponse = mock(CreateResponse.class);
+    storageCreateResponse = mock(CreateResponse.class);
     Update childUpdate = mock(Update.class);
     childUpdateResponse = mock(UpdateResponse.class);
     Update parentUpdate = mock(Update.class);
@@ -230,6 +244,71 @@ public class CatalogRolloverActionTest {
     assertThat(geoAttributeList.get(0).getValue(), is(childWkt));
   }
 
+  @Test
+  public void testDecodedKlvIsRegisteredDuringCreate() throws Exception {
+    Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv =
+        Collections.singletonMap(
+            1, Collections.singletonList(mock(DecodedKLVMetadataPacket.class)));
+    DecodedKlvRegistry decodedKlvRegistry = new DecodedKlvRegistryImpl();
+    when(udpStreamProcessor.getDecodedKlvRegistry()).thenReturn(decodedKlvRegistry);
+
+    AtomicReference<Optional<Map<Integer, List<DecodedKLVMetadataPacket>>>> registeredKlv =
+        new AtomicReference<>();
+    when(catalogFramework.create(any(CreateStorageRequest.class)))
+        .thenAnswer(
+            invocation -> {
+              CreateStorageRequest request = (CreateStorageRequest) invocation.getArguments()[0];
+              registeredKlv.set(
+                  decodedKlvRegistry.remove(request.getContentItems().get(0).getId()));
+              return storageCreateResponse;
+            });
+
+    catalogRolloverAction.doAction(
+        new RotateResult(tempFile, false, decodedKlv, Collections.emptyList(), null));
+
+    assertThat(registeredKlv.get().get(), is(decodedKlv));
+  }
+
+  @Test
+  public void testDecodedKlvIsRemovedAfterCreate() throws Exception {
+    Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv =
+        Collections.singletonMap(
+            1, Collections.singletonList(mock(DecodedKLVMetadataPacket.class)));
+    DecodedKlvRegistry decodedKlvRegistry = new DecodedKlvRegistryImpl();
+    when(udpStreamProcessor.getDecodedKlvRegistry()).thenReturn(decodedKlvRegistry);
+
+    catalogRolloverAction.doAction(
+        new RotateResult(tempFile, false, decodedKlv, Collections.emptyList(), null));
+
+    assertThat(decodedKlvRegistry.remove("anId").isPresent(), is(false));
+  }
+
+  @Test
+  public void testUnavailableDecodedKlvRegistry() throws Exception {
+    Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv =
+        Collections.singletonMap(
+            1, Collections.singletonList(mock(DecodedKLVMetadataPacket.class)));
+    DecodedKlvRegistry decodedKlvRegistry = mock(DecodedKlvRegistry.class);
+    doThrow(IllegalStateException.class).when(decodedKlvRegistry).put(anyString(), any());
+    when(udpStreamProcessor.getDecodedKlvRegistry()).thenReturn(decodedKlvRegistry);
+
+    catalogRolloverAction.doAction(
+        new RotateResult(tempFile, false, decodedKlv, Collections.emptyList(), null));
+
+    verify(catalogFramework).create(any(CreateStorageRequest.class));
+    verify(decodedKlvRegistry, never()).remove(anyString());
+  }
+
+  @Test
+  public void testCatalogCreateLatencyIsRecorded() throws RolloverActionException {
+    StreamMetrics streamMetrics = new StreamMetrics();
+    when(udpStreamProcessor.getStreamMetrics()).thenReturn(streamMetrics);
+
+    catalogRolloverAction.doAction(tempFile);
+
+    assertThat(streamMetrics.getCatalogCreateMillis().getCount(), is(1L));
+  }
+
   @Test
   public void testTemporalStart()
       throws RolloverActionException, SourceUnavailableException, IngestException {
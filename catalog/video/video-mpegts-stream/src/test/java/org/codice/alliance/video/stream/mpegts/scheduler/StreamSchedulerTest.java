@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.video.stream.mpegts.scheduler;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.codice.alliance.video.stream.mpegts.SimpleSubject;
+import org.codice.alliance.video.stream.mpegts.StreamMonitor;
+import org.codice.alliance.video.stream.mpegts.netty.UdpStreamProcessor;
+import org.codice.alliance.video.stream.mpegts.plugins.ListStreamCreationPlugin;
+import org.codice.alliance.video.stream.mpegts.plugins.TimerStreamCreationPlugin;
+import org.codice.alliance.video.stream.mpegts.plugins.TimerStreamShutdownPlugin;
+import org.codice.alliance.video.stream.mpegts.plugins.TimerTaskStreamCreationPlugin;
+import org.codice.alliance.video.stream.mpegts.rollover.RolloverCondition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamSchedulerTest {
+
+  private static final int STREAM_COUNT = 100;
+
+  private static final int SLOW_STREAM_COUNT = 5;
+
+  private static final long PERIOD = 100;
+
+  /** Only reached if a task never runs. */
+  private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+  private StreamScheduler streamScheduler;
+
+  @Before
+  public void setup() {
+    streamScheduler = new StreamScheduler(1, 4, 16);
+  }
+
+  @After
+  public void teardown() {
+    streamScheduler.shutdown();
+  }
+
+  /** A run is counted when it finishes, so the fourth run proves that three runs were counted. */
+  @Test
+  public void testSchedule() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(4);
+
+    StreamTask streamTask =
+        streamScheduler.schedule("test", latch::countDown, PERIOD, TimeUnit.MILLISECONDS);
+
+    assertThat(latch.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+    assertThat(streamTask.getRunCount(), greaterThanOrEqualTo(3L));
+  }
+
+  @Test
+  public void testFailedTaskKeepsRunning() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(4);
+
+    streamScheduler.scheduleOnWorker(
+        "test",
+        () -> {
+          latch.countDown();
+          throw new RuntimeException();
+        },
+        PERIOD,
+        TimeUnit.MILLISECONDS);
+
+    assertThat(latch.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+    assertThat(streamScheduler.getFailedRunCount(), greaterThanOrEqualTo(3L));
+  }
+
+  /**
+   * The task cancels itself during its first run, so no other run of the task can be in progress.
+   * The task would have been due again before the later runs of a task with the same period that is
+   * scheduled after the cancel.
+   */
+  @Test
+  public void testCancel() throws InterruptedException {
+    AtomicInteger runs = new AtomicInteger();
+    AtomicReference<StreamTask> streamTask = new AtomicReference<>();
+    CountDownLatch scheduled = new CountDownLatch(1);
+    CountDownLatch cancelled = new CountDownLatch(1);
+
+    streamTask.set(
+        streamScheduler.scheduleOnWorker(
+            "test",
+            () -> {
+              runs.incrementAndGet();
+              try {
+                scheduled.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              streamTask.get().cancel();
+              cancelled.countDown();
+            },
+            PERIOD,
+            TimeUnit.MILLISECONDS));
+    scheduled.countDown();
+
+    assertThat(streamScheduler.getTaskCount(), is(1));
+    assertThat(cancelled.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+
+    awaitPeriods(3);
+
+    assertThat(streamTask.get().isCancelled(), is(true));
+    assertThat(streamScheduler.getTaskCount(), is(0));
+    assertThat(runs.get(), is(1));
+  }
+
+  /** A task that is still running when it is due again is skipped instead of queued. */
+  @Test
+  public void testSlowTaskIsSkipped() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    StreamTask streamTask =
+        streamScheduler.scheduleOnWorker(
+            "slow",
+            () -> {
+              maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+              try {
+                block(started, release);
+              } finally {
+                running.decrementAndGet();
+              }
+            },
+            PERIOD,
+            TimeUnit.MILLISECONDS);
+
+    try {
+      assertThat(started.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+      awaitPeriods(2);
+
+      assertThat(streamTask.getSkippedRunCount(), greaterThan(0L));
+      assertThat(maxRunning.get(), is(1));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  /** The maximum number of worker threads can be raised while the scheduler is running. */
+  @Test
+  public void testSetMaxWorkerThreads() throws InterruptedException {
+    StreamScheduler singleWorkerScheduler = new StreamScheduler(1, 1, 1);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      singleWorkerScheduler.setMaxWorkerThreads(2);
+      for (int i = 0; i < 2; i++) {
+        singleWorkerScheduler.scheduleOnWorker(
+            "blocking" + i, () -> block(started, release), PERIOD, TimeUnit.MILLISECONDS);
+      }
+
+      assertThat(started.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+      assertThat(singleWorkerScheduler.getWorkerThreadCount(), is(2));
+    } finally {
+      release.countDown();
+      singleWorkerScheduler.shutdown();
+    }
+  }
+
+  /**
+   * Runs 100 streams through the stream creation plugins. More streams than there are core worker
+   * threads have a rollover check that blocks, which must not stop the rollover checks of the other
+   * streams.
+   */
+  @Test
+  public void testHundredStreams() throws InterruptedException {
+    List<UdpStreamProcessor> udpStreamProcessors = new ArrayList<>();
+    CountDownLatch slowStarted = new CountDownLatch(SLOW_STREAM_COUNT);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch checkedWhileBlocked = new CountDownLatch(STREAM_COUNT - SLOW_STREAM_COUNT);
+    AtomicBoolean blocked = new AtomicBoolean();
+
+    for (int i = 0; i < STREAM_COUNT; i++) {
+      boolean slow = i < SLOW_STREAM_COUNT;
+      AtomicBoolean checked = new AtomicBoolean();
+      UdpStreamProcessor udpStreamProcessor = createUdpStreamProcessor();
+      // the packet buffer has no activity, so each rollover check ends the stream
+      udpStreamProcessor.setStreamEndPlugin(
+          context -> {
+            if (slow) {
+              block(slowStarted, release);
+            } else if (blocked.get() && checked.compareAndSet(false, true)) {
+              checkedWhileBlocked.countDown();
+            }
+          });
+      udpStreamProcessor.init();
+      udpStreamProcessors.add(udpStreamProcessor);
+    }
+
+    try {
+      assertThat(streamScheduler.getTaskCount(), is(STREAM_COUNT * 3));
+
+      assertThat(slowStarted.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+      blocked.set(true);
+
+      assertThat(checkedWhileBlocked.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+      assertThat(streamScheduler.getWorkerThreadCount(), greaterThan(SLOW_STREAM_COUNT));
+    } finally {
+      release.countDown();
+      udpStreamProcessors.forEach(UdpStreamProcessor::shutdown);
+    }
+
+    assertThat(streamScheduler.getTaskCount(), is(0));
+  }
+
+  private UdpStreamProcessor createUdpStreamProcessor() {
+    UdpStreamProcessor udpStreamProcessor = new UdpStreamProcessor(mock(StreamMonitor.class));
+    udpStreamProcessor.setRolloverCondition(mock(RolloverCondition.class));
+    udpStreamProcessor.setStreamCreationPlugin(
+        new ListStreamCreationPlugin(
+            Arrays.asList(
+                new TimerStreamCreationPlugin(streamScheduler),
+                new TimerTaskStreamCreationPlugin(PERIOD))));
+    udpStreamProcessor.setStreamShutdownPlugin(new TimerStreamShutdownPlugin());
+    udpStreamProcessor.setStreamCreationSubject(new SimpleSubject());
+    return udpStreamProcessor;
+  }
+
+  /**
+   * Wait for a short task with the same period to run a number of times. The single scheduler
+   * thread handles due tasks in the order of their due times, so every task that was scheduled
+   * before the call has been due, and has been run, dispatched or skipped, at least as many times.
+   */
+  private void awaitPeriods(int periods) throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(periods);
+    StreamTask witness =
+        streamScheduler.schedule("witness", latch::countDown, PERIOD, TimeUnit.MILLISECONDS);
+    try {
+      assertThat(latch.await(TIMEOUT, TimeUnit.MILLISECONDS), is(true));
+    } finally {
+      witness.cancel();
+    }
+  }
+
+  private static void block(CountDownLatch started, CountDownLatch release) {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -16,6 +16,7 @@ package org.codice.alliance.transformer.video;
 import static org.apache.commons.lang3.Validate.inclusiveBetween;
 import static org.apache.commons.lang3.Validate.notNull;
 
+import com.google.common.io.ByteSource;
 import ddf.catalog.data.Metacard;
 import ddf.catalog.data.MetacardType;
 import ddf.catalog.data.impl.AttributeImpl;
@@ -27,13 +28,18 @@ import ddf.catalog.transform.InputTransformer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.apache.commons.io.IOUtils;
+import java.util.stream.Stream;
 import org.codice.alliance.libs.klv.AttributeNameConstants;
 import org.codice.alliance.libs.klv.BaseKlvProcessorVisitor;
+import org.codice.alliance.libs.klv.DecodedKlvRegistry;
 import org.codice.alliance.libs.klv.KlvHandler;
 import org.codice.alliance.libs.klv.KlvHandlerFactory;
 import org.codice.alliance.libs.klv.KlvProcessor;
@@ -46,7 +52,6 @@ import org.codice.alliance.libs.mpegts.MpegStreamType;
 import org.codice.alliance.libs.mpegts.PESPacket;
 import org.codice.alliance.libs.mpegts.TSStream;
 import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
-import org.codice.ddf.platform.util.TemporaryFileBackedOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,6 +91,10 @@ public class MpegTsInputTransformer implements InputTransformer {
 
   private Double distanceTolerance;
 
+  private Double simplificationTolerance;
+
+  private DecodedKlvRegistry decodedKlvRegistry;
+
   /**
    * @param inputTransformer inner input transformer (must be non-null)
    * @param metacardTypes list of usable metacard types (must be non-null)
@@ -142,6 +151,37 @@ public class MpegTsInputTransformer implements InputTransformer {
     return distanceTolerance;
   }
 
+  /**
+   * @param simplificationTolerance tolerance in meters used to simplify the frame center track
+   *     while the metadata is read, may be null to only subsample, must be non-negative
+   */
+  public void setSimplificationTolerance(Double simplificationTolerance) {
+    if (simplificationTolerance != null) {
+      inclusiveBetween(
+          0,
+          Double.MAX_VALUE,
+          simplificationTolerance,
+          "simplificationTolerance must be non-negative");
+    }
+
+    this.simplificationTolerance = simplificationTolerance;
+  }
+
+  public Double getSimplificationTolerance() {
+    return simplificationTolerance;
+  }
+
+  /**
+   * When metadata for the metacard identifier was already decoded, e.g. by the stream processor
+   * while the video chunk was received, it is taken from the registry instead of parsing the
+   * transport stream again.
+   *
+   * @param decodedKlvRegistry may be null
+   */
+  public void setDecodedKlvRegistry(DecodedKlvRegistry decodedKlvRegistry) {
+    this.decodedKlvRegistry = decodedKlvRegistry;
+  }
+
   @Override
   public Metacard transform(InputStream inputStream)
       throws IOException, CatalogTransformerException {
@@ -188,45 +228,68 @@ public class MpegTsInputTransformer implements InputTransformer {
   public Metacard transform(InputStream inputStream, final String id)
       throws IOException, CatalogTransformerException {
 
-    try (TemporaryFileBackedOutputStream fileBackedOutputStream =
-        new TemporaryFileBackedOutputStream()) {
+    Path transportStreamFile = createTransportStreamFile(inputStream);
 
-      populateFileBackedOutputStream(inputStream, fileBackedOutputStream);
+    try {
+      ByteSource byteSource = com.google.common.io.Files.asByteSource(transportStreamFile.toFile());
 
-      MetacardImpl metacard = extractInnerTransformerMetadata(id, fileBackedOutputStream);
+      MetacardImpl metacard = extractInnerTransformerMetadata(id, byteSource);
 
-      extractStanag4609Metadata(metacard, fileBackedOutputStream);
+      extractStanag4609Metadata(metacard, byteSource, id);
 
-      extractMediaEncodings(metacard, fileBackedOutputStream);
+      extractMediaEncodings(metacard, transportStreamFile);
 
       metacard.setAttribute(Core.DATATYPE, DATA_TYPE);
 
       return metacard;
+    } finally {
+      deleteTransportStreamFile(transportStreamFile);
     }
   }
 
-  private void extractMediaEncodings(Metacard metacard, TemporaryFileBackedOutputStream fbos)
+  /**
+   * Reads the transport stream through {@link TSStream#from(Path)}, which maps the file into memory
+   * instead of allocating every packet.
+   */
+  private void extractMediaEncodings(Metacard metacard, Path transportStreamFile)
       throws IOException {
 
-    List<Serializable> serializables =
-        TSStream.from(fbos.asByteSource())
-            .map(PESPacket::getStreamType)
-            .distinct()
-            .map(streamTypeToString)
-            .collect(Collectors.<Serializable>toList());
+    List<Serializable> serializables;
+    try (Stream<PESPacket> pesPackets = TSStream.from(transportStreamFile)) {
+      serializables =
+          pesPackets
+              .map(PESPacket::getStreamType)
+              .distinct()
+              .map(streamTypeToString)
+              .collect(Collectors.<Serializable>toList());
+    }
 
     metacard.setAttribute(new AttributeImpl(AttributeNameConstants.MEDIA_ENCODING, serializables));
   }
 
-  private void populateFileBackedOutputStream(
-      InputStream inputStream, TemporaryFileBackedOutputStream fbos)
-      throws CatalogTransformerException {
+  /**
+   * Copy the content to a temporary file, so the transport stream can be memory mapped and read
+   * more than once.
+   */
+  private Path createTransportStreamFile(InputStream inputStream)
+      throws IOException, CatalogTransformerException {
+    Path transportStreamFile = Files.createTempFile("mpegts-", ".ts");
     try {
-      int c = IOUtils.copy(inputStream, fbos);
-      LOGGER.debug("copied {} bytes from input stream to file backed output stream", c);
+      long c = Files.copy(inputStream, transportStreamFile, StandardCopyOption.REPLACE_EXISTING);
+      LOGGER.debug("copied {} bytes from input stream to {}", c, transportStreamFile);
     } catch (IOException e) {
+      deleteTransportStreamFile(transportStreamFile);
       throw new CatalogTransformerException("Could not copy bytes of content message.", e);
     }
+    return transportStreamFile;
+  }
+
+  private void deleteTransportStreamFile(Path transportStreamFile) {
+    try {
+      Files.deleteIfExists(transportStreamFile);
+    } catch (IOException e) {
+      LOGGER.debug("unable to delete the temporary file {}", transportStreamFile, e);
+    }
   }
 
   /**
@@ -235,16 +298,15 @@ public class MpegTsInputTransformer implements InputTransformer {
    * {@link #CONTENT_TYPE}.
    *
    * @param id metacard identifier
-   * @param fileBackedOutputStream used to provide a byte source
+   * @param byteSource the content data
    * @return metacard
    * @throws IOException
    * @throws CatalogTransformerException
    */
-  private MetacardImpl extractInnerTransformerMetadata(
-      String id, TemporaryFileBackedOutputStream fileBackedOutputStream)
+  private MetacardImpl extractInnerTransformerMetadata(String id, ByteSource byteSource)
       throws IOException, CatalogTransformerException {
 
-    try (InputStream inputStream = fileBackedOutputStream.asByteSource().openStream()) {
+    try (InputStream inputStream = byteSource.openStream()) {
 
       MetacardType metacardType =
           metacardTypes
@@ -265,20 +327,29 @@ public class MpegTsInputTransformer implements InputTransformer {
     }
   }
 
-  private void extractStanag4609Metadata(
-      MetacardImpl metacard, TemporaryFileBackedOutputStream fbos)
+  private void extractStanag4609Metadata(MetacardImpl metacard, ByteSource byteSource, String id)
       throws IOException, CatalogTransformerException {
 
-    Stanag4609Parser stanag4609Parser = stanagParserFactory.createParser(fbos.asByteSource());
-
     Map<Integer, List<DecodedKLVMetadataPacket>> decodedMetadata;
-    try {
-      decodedMetadata = stanag4609Parser.parse();
-    } catch (Stanag4609ParseException e) {
-      throw new CatalogTransformerException("failed to extract STANAG 4609 metadata", e);
+
+    Optional<Map<Integer, List<DecodedKLVMetadataPacket>>> preDecodedMetadata =
+        decodedKlvRegistry == null ? Optional.empty() : decodedKlvRegistry.remove(id);
+
+    if (preDecodedMetadata.isPresent()) {
+      LOGGER.debug("using STANAG 4609 metadata decoded before ingest: id={}", id);
+      decodedMetadata = preDecodedMetadata.get();
+    } else {
+      Stanag4609Parser stanag4609Parser = stanagParserFactory.createParser(byteSource);
+
+      try {
+        decodedMetadata = stanag4609Parser.parse();
+      } catch (Stanag4609ParseException e) {
+        throw new CatalogTransformerException("failed to extract STANAG 4609 metadata", e);
+      }
     }
 
-    Map<String, KlvHandler> handlers = klvHandlerFactory.createStanag4609Handlers();
+    Map<String, KlvHandler> handlers =
+        klvHandlerFactory.createStanag4609Handlers(simplificationTolerance);
 
     stanag4609Processor.handle(handlers, defaultKlvHandler, decodedMetadata);
 
@@ -17,7 +17,10 @@ import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,8 +37,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import org.codice.alliance.catalog.core.internal.api.classification.SecurityClassificationService;
+import org.codice.alliance.libs.klv.DecodedKlvRegistryImpl;
 import org.codice.alliance.libs.klv.KlvHandler;
 import org.codice.alliance.libs.klv.KlvHandlerFactory;
 import org.codice.alliance.libs.klv.KlvProcessor;
@@ -43,6 +48,7 @@ import org.codice.alliance.libs.klv.SecurityClassificationKlvProcessor;
 import org.codice.alliance.libs.klv.Stanag4609ParseException;
 import org.codice.alliance.libs.klv.Stanag4609Processor;
 import org.codice.alliance.libs.klv.StanagParserFactory;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
 import org.codice.alliance.libs.stanag4609.Stanag4609TransportStreamParser;
 import org.junit.Before;
 import org.junit.Test;
@@ -209,6 +215,62 @@ public class MpegTsInputTransformerTest {
     }
   }
 
+  @Test
+  public void testPreDecodedMetadataSkipsParse() throws Exception {
+
+    MpegTsInputTransformer t =
+        new MpegTsInputTransformer(
+            inputTransformer,
+            metacardTypes,
+            stanag4609Processor,
+            klvHandlerFactory,
+            defaultKlvHandler,
+            stanagParserFactory,
+            klvProcessor,
+            DISTANCE_TOLERANCE);
+
+    DecodedKlvRegistryImpl decodedKlvRegistry = new DecodedKlvRegistryImpl();
+    Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv =
+        Collections.singletonMap(
+            1, Collections.singletonList(mock(DecodedKLVMetadataPacket.class)));
+    decodedKlvRegistry.put("id", decodedKlv);
+    t.setDecodedKlvRegistry(decodedKlvRegistry);
+
+    try (InputStream inputStream = new ByteArrayInputStream(new byte[] {})) {
+      t.transform(inputStream, "id");
+    }
+
+    verify(stanagParserFactory, never()).createParser(any());
+    verify(stanag4609Processor)
+        .handle(anyMapOf(String.class, KlvHandler.class), eq(defaultKlvHandler), eq(decodedKlv));
+    assertThat(decodedKlvRegistry.remove("id").isPresent(), is(false));
+  }
+
+  @Test
+  public void testMetadataIsParsedWithoutPreDecodedMetadata() throws Exception {
+
+    when(streamParser.parse()).thenReturn(Collections.emptyMap());
+
+    MpegTsInputTransformer t =
+        new MpegTsInputTransformer(
+            inputTransformer,
+            metacardTypes,
+            stanag4609Processor,
+            klvHandlerFactory,
+            defaultKlvHandler,
+            stanagParserFactory,
+            klvProcessor,
+            DISTANCE_TOLERANCE);
+
+    t.setDecodedKlvRegistry(new DecodedKlvRegistryImpl());
+
+    try (InputStream inputStream = new ByteArrayInputStream(new byte[] {})) {
+      t.transform(inputStream, "id");
+    }
+
+    verify(streamParser).parse();
+  }
+
   @Test(expected = CatalogTransformerException.class)
   public void testStanagParseError() throws Exception {
 
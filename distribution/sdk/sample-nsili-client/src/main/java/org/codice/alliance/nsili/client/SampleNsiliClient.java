@@ -297,6 +297,10 @@ public class SampleNsiliClient {
       submitQueryRequest.set_number_of_hits(200);
       submitQueryRequest.complete_DAG_results(dagListHolder);
       LOGGER.info("Server Responded with {} result(s).", dagListHolder.value.length);
+      if (dagListHolder.value.length == 200) {
+        // A full window may have more results behind it, which are not read here
+        submitQueryRequest.cancel();
+      }
       return dagListHolder.value;
     } else {
       LOGGER.info("CatalogMgr is not initialized, unable to submit queries");
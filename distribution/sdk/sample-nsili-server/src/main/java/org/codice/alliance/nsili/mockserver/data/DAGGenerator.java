@@ -13,11 +13,13 @@
  */
 package org.codice.alliance.nsili.mockserver.data;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
 import org.codice.alliance.nsili.common.NsiliCommonUtils;
 import org.codice.alliance.nsili.common.NsiliConstants;
@@ -35,6 +37,7 @@ import org.codice.alliance.nsili.common.UCO.NodeType;
 import org.codice.alliance.nsili.common.UCO.Rectangle;
 import org.codice.alliance.nsili.common.UCO.RectangleHelper;
 import org.codice.alliance.nsili.common.UCO.Time;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 import org.jgrapht.Graph;
 import org.jgrapht.experimental.dag.DirectedAcyclicGraph;
 import org.omg.CORBA.Any;
@@ -44,6 +47,21 @@ public class DAGGenerator {
 
   private static final Map<String, String> partMap = getPartMap();
 
+  private static final List<String> PRODUCT_ENTITIES =
+      Arrays.asList(
+          NsiliConstants.NSIL_APPROVAL,
+          NsiliConstants.NSIL_FILE,
+          NsiliConstants.NSIL_STREAM,
+          NsiliConstants.NSIL_METADATA_SECURITY,
+          NsiliConstants.NSIL_CARD,
+          NsiliConstants.NSIL_SECURITY);
+
+  private static final List<String> OPTIONAL_PRODUCT_ENTITIES =
+      Arrays.asList(
+          NsiliConstants.NSIL_APPROVAL,
+          NsiliConstants.NSIL_STREAM,
+          NsiliConstants.NSIL_METADATA_SECURITY);
+
   public static final String ORGANIZATION = "Codice Foundation";
 
   public static final String XMPP = "XMPP";
@@ -66,8 +84,6 @@ public class DAGGenerator {
 
   public static final String SOURCE_LIBRARY = "Mock Library";
 
-  private static final int RESULT_DAGS_TO_GENERATE = partMap.size();
-
   private static final AbsTime TIME =
       new AbsTime(
           new Date((short) 2012, (short) 10, (short) 16),
@@ -75,57 +91,66 @@ public class DAGGenerator {
 
   private DAGGenerator() {}
 
-  public static int getResultHits() {
-    return RESULT_DAGS_TO_GENERATE;
+  /** Returns whether products can be generated with the given NSIL part entity. */
+  public static boolean isSupportedPartType(String partType) {
+    return partMap.containsKey(partType);
   }
 
-  public static DAG[] generateDAGResultNSILAllView(ORB orb) {
-
-    DAG[] metacards = new DAG[RESULT_DAGS_TO_GENERATE + 2];
-
-    for (int i = 0; i < RESULT_DAGS_TO_GENERATE; i++) {
-      DAG metacard =
-          generateNSILDAG(
-              orb,
-              NsiliConstants.NSIL_IMAGERY,
-              partMap.get(NsiliConstants.NSIL_IMAGERY),
-              "CSD Sample Data " + i);
-      metacards[i] = metacard;
+  /**
+   * Generates the products from index {@code from} (inclusive) to {@code to} (exclusive). A
+   * product only depends on the configuration and its index, so any window of products can be
+   * generated on its own and is identical every time it is generated.
+   */
+  public static DAG[] generateProducts(
+      ORB orb, MockNsiliConfiguration configuration, int from, int to) {
+    DAG[] products = new DAG[Math.max(0, to - from)];
+    for (int i = 0; i < products.length; i++) {
+      products[i] = generateProduct(orb, configuration, from + i);
     }
-
-    metacards[RESULT_DAGS_TO_GENERATE] =
-        generateNSILDAG(
-            orb,
-            NsiliConstants.NSIL_GMTI,
-            partMap.get(NsiliConstants.NSIL_GMTI),
-            "CSD Sample GMTI Data ");
-
-    metacards[RESULT_DAGS_TO_GENERATE + 1] =
-        generateNSILDAG(
-            orb,
-            NsiliConstants.NSIL_VIDEO,
-            partMap.get(NsiliConstants.NSIL_VIDEO),
-            "CSD Sample Video Data ");
-
-    return metacards;
+    return products;
   }
 
-  private static DAG generateNSILDAG(ORB orb, String partType, String commonType, String title) {
+  public static DAG generateProduct(ORB orb, MockNsiliConfiguration configuration, int index) {
+    Random random = getRandom(configuration, index);
+    List<String> partTypes = configuration.getPartTypes();
+    String productType = partTypes.get(random.nextInt(partTypes.size()));
+    String title = "CSD Sample Data " + index;
+
     DAG metacard = new DAG();
     Graph<Node, Edge> graph = new DirectedAcyclicGraph<>(Edge.class);
-    Node[] nodeRefs = constructNSILProduct(orb, graph, 1, commonType);
-    constructNSILPart(nodeRefs[0], nodeRefs[1], nodeRefs[3], orb, graph, partType, title);
-    constructNSILPart(
-        nodeRefs[0], nodeRefs[1], nodeRefs[3], orb, graph, NsiliConstants.NSIL_COVERAGE, title);
+    Node[] nodeRefs =
+        constructNSILProduct(orb, graph, random, configuration, index, partMap.get(productType));
+    for (int i = 0; i < configuration.getPartsPerProduct(); i++) {
+      String partType = i == 0 ? productType : partTypes.get(random.nextInt(partTypes.size()));
+      constructNSILPart(
+          nodeRefs[0], nodeRefs[1], nodeRefs[3], orb, graph, partType, title, random, 0);
+    }
     constructNSILPart(
         nodeRefs[0],
         nodeRefs[1],
         nodeRefs[3],
         orb,
         graph,
-        NsiliConstants.NSIL_EXPLOITATION_INFO,
-        title);
-    constructNSILAssociation(nodeRefs[0], nodeRefs[2], orb, graph, 1);
+        NsiliConstants.NSIL_COVERAGE,
+        title,
+        random,
+        configuration.getGeometryVertices());
+    if (includeOptional(random, configuration)) {
+      constructNSILPart(
+          nodeRefs[0],
+          nodeRefs[1],
+          nodeRefs[3],
+          orb,
+          graph,
+          NsiliConstants.NSIL_EXPLOITATION_INFO,
+          title,
+          random,
+          0);
+    }
+    if (includeOptional(random, configuration)) {
+      constructNSILAssociation(
+          nodeRefs[0], nodeRefs[2], orb, graph, 1, getUuid(configuration, index, "destination"));
+    }
     NsiliCommonUtils.setUCOEdgeIds(graph);
     NsiliCommonUtils.setUCOEdges(nodeRefs[0], graph);
     metacard.nodes = NsiliCommonUtils.getNodeArrayFromGraph(graph);
@@ -133,28 +158,51 @@ public class DAGGenerator {
     return metacard;
   }
 
+  /**
+   * Generates the thumbnail of a product: a JPEG start and end marker around seeded filler bytes,
+   * sized by the configuration.
+   */
+  public static byte[] generateThumbnail(MockNsiliConfiguration configuration, int index) {
+    byte[] thumbnail = new byte[Math.max(configuration.getThumbnailBytes(), 4)];
+    getRandom(configuration, index).nextBytes(thumbnail);
+    thumbnail[0] = (byte) 0xFF;
+    thumbnail[1] = (byte) 0xD8;
+    thumbnail[thumbnail.length - 2] = (byte) 0xFF;
+    thumbnail[thumbnail.length - 1] = (byte) 0xD9;
+    return thumbnail;
+  }
+
+  public static String getThumbnailUrl(MockNsiliConfiguration configuration, int index) {
+    return configuration.getWebBaseUrl() + "/data/thumbnail/" + index + ".jpg";
+  }
+
   /**
    * Constructs the NSIL_PRODUCT subgraph of the NSIL_ALL_VIEW. This method sets builds the
-   * NSIL_PRODUCT with all optional nodes ( NSIL_APPROVAL, etc.) as well as all MANDATORY attributes
-   * for these NODES according to the STANAG 4459 spec.
+   * NSIL_PRODUCT with optional nodes ( NSIL_APPROVAL, etc.) as well as all MANDATORY attributes
+   * for these NODES according to the STANAG 4459 spec. Each optional node is included with the
+   * configured optional attribute ratio.
    *
    * @param orb - a reference to the orb to create UCO objects
    * @param graph - the graph representation of the DAG
-   * @param numRelatedFile - the number of NSIL_RELATED_FILE's to create. This number is unbounded
-   *     according to the specification.
+   * @param random - the product's random number generator
+   * @param configuration - the mock server configuration
+   * @param index - the index of the product
    * @return a Node[] that contains a reference to the root, NSIL_SECURITY, and NSIL_CARD that are
    *     used in other subgraphs.
    */
   private static Node[] constructNSILProduct(
-      ORB orb, Graph<Node, Edge> graph, int numRelatedFile, String commonType) {
-    List<String> productNodes =
-        Arrays.asList(
-            NsiliConstants.NSIL_APPROVAL,
-            NsiliConstants.NSIL_FILE,
-            NsiliConstants.NSIL_STREAM,
-            NsiliConstants.NSIL_METADATA_SECURITY,
-            NsiliConstants.NSIL_CARD,
-            NsiliConstants.NSIL_SECURITY);
+      ORB orb,
+      Graph<Node, Edge> graph,
+      Random random,
+      MockNsiliConfiguration configuration,
+      int index,
+      String commonType) {
+    List<String> productNodes = new ArrayList<>();
+    for (String entity : PRODUCT_ENTITIES) {
+      if (!OPTIONAL_PRODUCT_ENTITIES.contains(entity) || includeOptional(random, configuration)) {
+        productNodes.add(entity);
+      }
+    }
     List<Node> nodeProductNodes = getEntityListFromStringList(productNodes, orb);
 
     Node[] nodeArray = new Node[4];
@@ -210,7 +258,7 @@ public class DAGGenerator {
           break;
 
         case NsiliConstants.NSIL_CARD:
-          addCardAttributes(node, graph, orb);
+          addCardAttributes(node, graph, orb, getUuid(configuration, index, "card"));
           break;
 
         default:
@@ -219,6 +267,7 @@ public class DAGGenerator {
       }
     }
 
+    int numRelatedFile = includeOptional(random, configuration) ? 1 : 0;
     for (int i = 0; i < numRelatedFile; i++) {
       Node node = constructEntityNode(NsiliConstants.NSIL_RELATED_FILE, orb);
       graph.addVertex(node);
@@ -232,10 +281,32 @@ public class DAGGenerator {
       graph.addEdge(node, attribute);
     }
 
+    if (configuration.getThumbnailBytes() > 0) {
+      Node node = constructEntityNode(NsiliConstants.NSIL_RELATED_FILE, orb);
+      graph.addVertex(node);
+      graph.addEdge(root, node);
+
+      attribute = constructAttributeNode(NsiliConstants.CREATOR, ORGANIZATION, orb);
+      graph.addVertex(attribute);
+      graph.addEdge(node, attribute);
+      attribute = constructAttributeNode(NsiliConstants.DATE_TIME_DECLARED, TIME, orb);
+      graph.addVertex(attribute);
+      graph.addEdge(node, attribute);
+      attribute =
+          constructAttributeNode(NsiliConstants.FILE_TYPE, NsiliConstants.THUMBNAIL_TYPE, orb);
+      graph.addVertex(attribute);
+      graph.addEdge(node, attribute);
+      attribute =
+          constructAttributeNode(NsiliConstants.URL, getThumbnailUrl(configuration, index), orb);
+      graph.addVertex(attribute);
+      graph.addEdge(node, attribute);
+    }
+
     Node node = constructEntityNode(NsiliConstants.NSIL_COMMON, orb);
     graph.addVertex(node);
     attribute =
-        constructAttributeNode(NsiliConstants.IDENTIFIER_UUID, UUID.randomUUID().toString(), orb);
+        constructAttributeNode(
+            NsiliConstants.IDENTIFIER_UUID, getUuid(configuration, index, "product"), orb);
     graph.addVertex(attribute);
     graph.addEdge(node, attribute);
     attribute = constructAttributeNode(NsiliConstants.TYPE, commonType, orb);
@@ -256,10 +327,10 @@ public class DAGGenerator {
     return nodeArray;
   }
 
-  private static void addCardAttributes(Node node, Graph<Node, Edge> graph, ORB orb) {
+  private static void addCardAttributes(
+      Node node, Graph<Node, Edge> graph, ORB orb, String identifier) {
     Node attribute;
-    attribute =
-        constructAttributeNode(NsiliConstants.IDENTIFIER_UUID, UUID.randomUUID().toString(), orb);
+    attribute = constructAttributeNode(NsiliConstants.IDENTIFIER_UUID, identifier, orb);
     graph.addVertex(attribute);
     graph.addEdge(node, attribute);
     attribute = constructAttributeNode(NsiliConstants.DATE_TIME_MODIFIED, TIME, orb);
@@ -285,6 +356,9 @@ public class DAGGenerator {
    * @param nsilSecurity - a reference to NSIL_SECURITY to link to the NSIL_PART subgraph
    * @param orb - a reference to the orb to create UCO objects
    * @param graph - the graph representation of the DAG
+   * @param random - the product's random number generator
+   * @param geometryVertices - the number of vertices of the NSIL_COVERAGE advanced geospatial
+   *     polygon, 0 for none
    */
   private static void constructNSILPart(
       Node nsilProduct,
@@ -293,7 +367,9 @@ public class DAGGenerator {
       ORB orb,
       Graph<Node, Edge> graph,
       String partType,
-      String title) {
+      String title,
+      Random random,
+      int geometryVertices) {
 
     Node root = constructEntityNode(NsiliConstants.NSIL_PART, orb);
     graph.addVertex(root);
@@ -316,12 +392,22 @@ public class DAGGenerator {
         graph.addVertex(attribute);
         graph.addEdge(node, attribute);
 
+        Rectangle rectangle = getRandomRectangle(random);
         attribute =
-            constructAttributeNode(
-                NsiliConstants.SPATIAL_GEOGRAPHIC_REF_BOX, getRandomRectangle(), orb);
+            constructAttributeNode(NsiliConstants.SPATIAL_GEOGRAPHIC_REF_BOX, rectangle, orb);
         graph.addVertex(attribute);
         graph.addEdge(node, attribute);
 
+        if (geometryVertices > 0) {
+          attribute =
+              constructAttributeNode(
+                  NsiliConstants.ADVANCED_GEOSPATIAL,
+                  getPolygonWkt(rectangle, geometryVertices, random),
+                  orb);
+          graph.addVertex(attribute);
+          graph.addEdge(node, attribute);
+        }
+
         attribute = constructAttributeNode(NsiliConstants.TEMPORAL_START, TIME, orb);
         graph.addVertex(attribute);
         graph.addEdge(node, attribute);
@@ -478,9 +564,15 @@ public class DAGGenerator {
    * @param orb - a reference to the orb to create UCO objects
    * @param graph - the graph representation of the DAG
    * @param numDestinations - the number of NSIL_DESTINATION nodes to create
+   * @param destinationIdentifier - the identifier of the NSIL_DESTINATION cards
    */
   private static void constructNSILAssociation(
-      Node nsilProduct, Node nsilCard, ORB orb, Graph<Node, Edge> graph, int numDestinations) {
+      Node nsilProduct,
+      Node nsilCard,
+      ORB orb,
+      Graph<Node, Edge> graph,
+      int numDestinations,
+      String destinationIdentifier) {
 
     List<String> associationNodes =
         Arrays.asList(NsiliConstants.NSIL_RELATION, NsiliConstants.NSIL_SOURCE);
@@ -504,7 +596,7 @@ public class DAGGenerator {
       Node card = constructEntityNode(NsiliConstants.NSIL_CARD, orb);
       graph.addVertex(card);
       graph.addEdge(nsilDestination, card);
-      addCardAttributes(card, graph, orb);
+      addCardAttributes(card, graph, orb, destinationIdentifier);
     }
   }
 
@@ -582,15 +674,48 @@ public class DAGGenerator {
     return map;
   }
 
-  private static Rectangle getRandomRectangle() {
+  private static Rectangle getRandomRectangle(Random random) {
 
-    int x = getRandomNumber(-75, 75);
-    int y = getRandomNumber(-175, 175);
+    int x = getRandomNumber(random, -75, 75);
+    int y = getRandomNumber(random, -175, 175);
 
     return new Rectangle(new Coordinate2d(x, y), new Coordinate2d(x + 5, y + 5));
   }
 
-  private static int getRandomNumber(int a, int b) {
-    return a + (int) ((1 + b - a) * Math.random());
+  /** Builds a star shaped polygon with the given number of vertices inside the rectangle. */
+  private static String getPolygonWkt(Rectangle rectangle, int vertices, Random random) {
+    double centerLat = (rectangle.upper_left.x + rectangle.lower_right.x) / 2;
+    double centerLon = (rectangle.upper_left.y + rectangle.lower_right.y) / 2;
+
+    StringBuilder wkt = new StringBuilder("POLYGON ((");
+    String firstPoint = null;
+    for (int i = 0; i < vertices; i++) {
+      double angle = 2 * Math.PI * i / vertices;
+      double radius = 1.5 + random.nextDouble();
+      String point =
+          (centerLon + radius * Math.cos(angle)) + " " + (centerLat + radius * Math.sin(angle));
+      if (firstPoint == null) {
+        firstPoint = point;
+      }
+      wkt.append(point).append(", ");
+    }
+    return wkt.append(firstPoint).append("))").toString();
+  }
+
+  private static int getRandomNumber(Random random, int a, int b) {
+    return a + random.nextInt(1 + b - a);
+  }
+
+  private static Random getRandom(MockNsiliConfiguration configuration, int index) {
+    return new Random(31 * configuration.getSeed() + index);
+  }
+
+  private static String getUuid(MockNsiliConfiguration configuration, int index, String node) {
+    String name = configuration.getSeed() + ":" + index + ":" + node;
+    return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+  }
+
+  private static boolean includeOptional(Random random, MockNsiliConfiguration configuration) {
+    return random.nextDouble() < configuration.getOptionalAttributeRatio();
   }
 }
@@ -33,6 +33,7 @@ import org.codice.alliance.nsili.mockserver.impl.managers.CatalogMgrImpl;
 import org.codice.alliance.nsili.mockserver.impl.managers.DataModelMgrImpl;
 import org.codice.alliance.nsili.mockserver.impl.managers.OrderMgrImpl;
 import org.codice.alliance.nsili.mockserver.impl.managers.ProductMgrImpl;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 import org.omg.CORBA.NO_IMPLEMENT;
 import org.omg.PortableServer.POA;
 
@@ -52,8 +53,11 @@ public class LibraryImpl extends LibraryPOA {
 
   private POA poa_;
 
-  public LibraryImpl(POA poa_) {
+  private final MockNsiliConfiguration configuration;
+
+  public LibraryImpl(POA poa_, MockNsiliConfiguration configuration) {
     this.poa_ = poa_;
+    this.configuration = configuration;
   }
 
   @Override
@@ -69,7 +73,7 @@ public class LibraryImpl extends LibraryPOA {
 
     switch (manager_type) {
       case "CatalogMgr":
-        CatalogMgrImpl catalogMgr = new CatalogMgrImpl(poa_);
+        CatalogMgrImpl catalogMgr = new CatalogMgrImpl(poa_, configuration);
         try {
           poa_.activate_object_with_id(
               manager_type.getBytes(Charset.forName(ENCODING)), catalogMgr);
@@ -83,7 +87,7 @@ public class LibraryImpl extends LibraryPOA {
         break;
 
       case "OrderMgr":
-        OrderMgrImpl orderMgr = new OrderMgrImpl();
+        OrderMgrImpl orderMgr = new OrderMgrImpl(configuration);
         try {
           poa_.activate_object_with_id(manager_type.getBytes(Charset.forName(ENCODING)), orderMgr);
         } catch (Exception e) {
@@ -96,7 +100,7 @@ public class LibraryImpl extends LibraryPOA {
         break;
 
       case "ProductMgr":
-        ProductMgrImpl productMgr = new ProductMgrImpl();
+        ProductMgrImpl productMgr = new ProductMgrImpl(configuration);
         try {
           poa_.activate_object_with_id(
               manager_type.getBytes(Charset.forName(ENCODING)), productMgr);
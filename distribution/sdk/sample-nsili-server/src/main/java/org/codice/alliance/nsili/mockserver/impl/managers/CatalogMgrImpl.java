@@ -14,6 +14,10 @@
 package org.codice.alliance.nsili.mockserver.impl.managers;
 
 import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import org.codice.alliance.nsili.common.GIAS.CatalogMgrPOA;
 import org.codice.alliance.nsili.common.GIAS.HitCountRequest;
 import org.codice.alliance.nsili.common.GIAS.HitCountRequestHelper;
@@ -29,10 +33,13 @@ import org.codice.alliance.nsili.common.UCO.ProcessingFault;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
 import org.codice.alliance.nsili.mockserver.impl.requests.HitCountRequestImpl;
 import org.codice.alliance.nsili.mockserver.impl.requests.SubmitQueryRequestImpl;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 import org.omg.CORBA.NO_IMPLEMENT;
 import org.omg.PortableServer.POA;
 import org.omg.PortableServer.POAPackage.ObjectAlreadyActive;
+import org.omg.PortableServer.POAPackage.ObjectNotActive;
 import org.omg.PortableServer.POAPackage.ServantAlreadyActive;
+import org.omg.PortableServer.POAPackage.WrongAdapter;
 import org.omg.PortableServer.POAPackage.WrongPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,10 +51,20 @@ public class CatalogMgrImpl extends CatalogMgrPOA {
 
   private static final int DEFAULT_TIMEOUT = 1;
 
+  private static final AtomicLong SUBMIT_QUERY_IDS = new AtomicLong();
+
+  private static final AtomicLong HIT_COUNT_IDS = new AtomicLong();
+
   private POA poa_;
 
-  public CatalogMgrImpl(POA poa) {
+  private final MockNsiliConfiguration configuration;
+
+  /** Ids of the active query requests, oldest first. */
+  private final Set<String> activeQueryIds = new LinkedHashSet<>();
+
+  public CatalogMgrImpl(POA poa, MockNsiliConfiguration configuration) {
     this.poa_ = poa;
+    this.configuration = configuration;
   }
 
   @Override
@@ -81,7 +98,11 @@ public class CatalogMgrImpl extends CatalogMgrPOA {
   @Override
   public void delete_request(Request aRequest)
       throws ProcessingFault, InvalidInputParameter, SystemFault {
-    return;
+    try {
+      releaseQuery(poa_.reference_to_id(aRequest));
+    } catch (WrongAdapter | WrongPolicy e) {
+      LOGGER.debug("delete_request : Unable to find the request to delete.", e);
+    }
   }
 
   @Override
@@ -92,18 +113,20 @@ public class CatalogMgrImpl extends CatalogMgrPOA {
       NameValue[] properties)
       throws ProcessingFault, InvalidInputParameter, SystemFault {
 
-    SubmitQueryRequestImpl submitQueryRequest = new SubmitQueryRequestImpl();
+    SubmitQueryRequestImpl submitQueryRequest =
+        new SubmitQueryRequestImpl(configuration, this::releaseQuery);
 
+    // Each query keeps its own result position, so every request is a separate object
+    String queryId = "submit_query_" + SUBMIT_QUERY_IDS.incrementAndGet();
+    byte[] id = queryId.getBytes(Charset.forName(ENCODING));
     try {
-      poa_.activate_object_with_id(
-          "submit_query".getBytes(Charset.forName(ENCODING)), submitQueryRequest);
+      poa_.activate_object_with_id(id, submitQueryRequest);
+      trackQuery(queryId);
     } catch (ServantAlreadyActive | ObjectAlreadyActive | WrongPolicy e) {
       LOGGER.warn("submit_query : Unable to activate submitQueryRequest object.", e);
     }
 
-    org.omg.CORBA.Object obj =
-        poa_.create_reference_with_id(
-            "submit_query".getBytes(Charset.forName(ENCODING)), SubmitQueryRequestHelper.id());
+    org.omg.CORBA.Object obj = poa_.create_reference_with_id(id, SubmitQueryRequestHelper.id());
     SubmitQueryRequest queryRequest = SubmitQueryRequestHelper.narrow(obj);
 
     return queryRequest;
@@ -112,23 +135,57 @@ public class CatalogMgrImpl extends CatalogMgrPOA {
   @Override
   public HitCountRequest hit_count(Query aQuery, NameValue[] properties)
       throws ProcessingFault, InvalidInputParameter, SystemFault {
-    HitCountRequestImpl hitCountRequest = new HitCountRequestImpl();
+    HitCountRequestImpl hitCountRequest = new HitCountRequestImpl(configuration);
 
+    byte[] id =
+        ("hit_count_" + HIT_COUNT_IDS.incrementAndGet()).getBytes(Charset.forName(ENCODING));
     try {
-      poa_.activate_object_with_id(
-          "hit_count".getBytes(Charset.forName(ENCODING)), hitCountRequest);
+      poa_.activate_object_with_id(id, hitCountRequest);
     } catch (ServantAlreadyActive | ObjectAlreadyActive | WrongPolicy e) {
       LOGGER.warn("hit_count : Unable to activate hitCountRequest object.", e);
     }
 
-    org.omg.CORBA.Object obj =
-        poa_.create_reference_with_id(
-            "hit_count".getBytes(Charset.forName(ENCODING)), HitCountRequestHelper.id());
+    org.omg.CORBA.Object obj = poa_.create_reference_with_id(id, HitCountRequestHelper.id());
     HitCountRequest queryRequest = HitCountRequestHelper.narrow(obj);
 
     return queryRequest;
   }
 
+  /**
+   * Records a newly activated query request and releases the oldest ones when more than the
+   * configured maximum are active, so requests that clients never cancel are not kept forever.
+   */
+  private void trackQuery(String queryId) {
+    synchronized (activeQueryIds) {
+      activeQueryIds.add(queryId);
+      Iterator<String> oldest = activeQueryIds.iterator();
+      while (activeQueryIds.size() > configuration.getMaxActiveQueries()) {
+        String evictedId = oldest.next();
+        oldest.remove();
+        LOGGER.debug("Releasing query request {} to stay within the query limit.", evictedId);
+        deactivate(evictedId.getBytes(Charset.forName(ENCODING)));
+      }
+    }
+  }
+
+  private void releaseQuery(byte[] id) {
+    boolean active;
+    synchronized (activeQueryIds) {
+      active = activeQueryIds.remove(new String(id, Charset.forName(ENCODING)));
+    }
+    if (active) {
+      deactivate(id);
+    }
+  }
+
+  private void deactivate(byte[] id) {
+    try {
+      poa_.deactivate_object(id);
+    } catch (ObjectNotActive | WrongPolicy e) {
+      LOGGER.debug("Unable to deactivate the query request.", e);
+    }
+  }
+
   // LibraryMgr
   @Override
   public String[] get_property_names() throws ProcessingFault, SystemFault {
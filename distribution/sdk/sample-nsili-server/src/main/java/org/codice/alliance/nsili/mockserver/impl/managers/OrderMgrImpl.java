@@ -14,6 +14,7 @@
 package org.codice.alliance.nsili.mockserver.impl.managers;
 
 import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
 import org.codice.alliance.nsili.common.GIAS.AvailabilityRequirement;
 import org.codice.alliance.nsili.common.GIAS.Library;
 import org.codice.alliance.nsili.common.GIAS.OrderContents;
@@ -24,12 +25,14 @@ import org.codice.alliance.nsili.common.GIAS.Request;
 import org.codice.alliance.nsili.common.GIAS.SetAvailabilityRequest;
 import org.codice.alliance.nsili.common.GIAS.ValidationResults;
 import org.codice.alliance.nsili.common.GIAS._SetAvailabilityRequestStub;
+import org.codice.alliance.nsili.common.PackagingSpecFormatType;
 import org.codice.alliance.nsili.common.UCO.InvalidInputParameter;
 import org.codice.alliance.nsili.common.UCO.NameValue;
 import org.codice.alliance.nsili.common.UCO.ProcessingFault;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
 import org.codice.alliance.nsili.common.UID.Product;
 import org.codice.alliance.nsili.mockserver.impl.requests.OrderRequestImpl;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 import org.omg.CORBA.NO_IMPLEMENT;
 import org.omg.PortableServer.POAPackage.ObjectAlreadyActive;
 import org.omg.PortableServer.POAPackage.ServantAlreadyActive;
@@ -48,9 +51,22 @@ public class OrderMgrImpl extends OrderMgrPOA {
 
   private static final String ENCODING = "UTF-8";
 
+  private static final AtomicLong ORDER_IDS = new AtomicLong();
+
+  private final MockNsiliConfiguration configuration;
+
+  public OrderMgrImpl(MockNsiliConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
   @Override
   public String[] get_package_specifications() throws ProcessingFault, SystemFault {
-    return new String[0];
+    PackagingSpecFormatType[] formatTypes = PackagingSpecFormatType.values();
+    String[] packageSpecifications = new String[formatTypes.length];
+    for (int i = 0; i < formatTypes.length; i++) {
+      packageSpecifications[i] = formatTypes[i].name();
+    }
+    return packageSpecifications;
   }
 
   @Override
@@ -62,18 +78,16 @@ public class OrderMgrImpl extends OrderMgrPOA {
   @Override
   public OrderRequest order(OrderContents order, NameValue[] properties)
       throws ProcessingFault, InvalidInputParameter, SystemFault {
-    OrderRequestImpl orderRequest = new OrderRequestImpl();
+    OrderRequestImpl orderRequest = new OrderRequestImpl(configuration);
 
+    byte[] id = ("order_" + ORDER_IDS.incrementAndGet()).getBytes(Charset.forName(ENCODING));
     try {
-      _poa().activate_object_with_id("order".getBytes(Charset.forName(ENCODING)), orderRequest);
+      _poa().activate_object_with_id(id, orderRequest);
     } catch (ServantAlreadyActive | ObjectAlreadyActive | WrongPolicy e) {
       LOGGER.warn("Order : Unable to activate orderRequest object.", e);
     }
 
-    org.omg.CORBA.Object obj =
-        _poa()
-            .create_reference_with_id(
-                "order".getBytes(Charset.forName(ENCODING)), OrderRequestHelper.id());
+    org.omg.CORBA.Object obj = _poa().create_reference_with_id(id, OrderRequestHelper.id());
     OrderRequest queryRequest = OrderRequestHelper.narrow(obj);
 
     return queryRequest;
@@ -32,6 +32,7 @@ import org.codice.alliance.nsili.common.UCO.SystemFault;
 import org.codice.alliance.nsili.common.UID.Product;
 import org.codice.alliance.nsili.mockserver.impl.requests.GetParametersRequestImpl;
 import org.codice.alliance.nsili.mockserver.impl.requests.GetRelatedFilesRequestImpl;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 import org.omg.CORBA.NO_IMPLEMENT;
 import org.omg.PortableServer.POAPackage.ObjectAlreadyActive;
 import org.omg.PortableServer.POAPackage.ServantAlreadyActive;
@@ -50,11 +51,17 @@ public class ProductMgrImpl extends ProductMgrPOA {
 
   private static final String ENCODING = "UTF-8";
 
+  private final MockNsiliConfiguration configuration;
+
+  public ProductMgrImpl(MockNsiliConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
   @Override
   public GetParametersRequest get_parameters(
       Product prod, String[] desired_parameters, NameValue[] properties)
       throws ProcessingFault, InvalidInputParameter, SystemFault {
-    GetParametersRequestImpl getParametersRequest = new GetParametersRequestImpl();
+    GetParametersRequestImpl getParametersRequest = new GetParametersRequestImpl(configuration);
 
     try {
       _poa()
@@ -27,12 +27,20 @@ import org.codice.alliance.nsili.common.UCO.Status;
 import org.codice.alliance.nsili.common.UCO.StringDAGHolder;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
 import org.codice.alliance.nsili.mockserver.data.DAGGenerator;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 
 public class GetParametersRequestImpl extends GetParametersRequestPOA {
 
+  private final MockNsiliConfiguration configuration;
+
+  public GetParametersRequestImpl(MockNsiliConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
   @Override
   public State complete(DAGHolder parameters) throws ProcessingFault, SystemFault {
-    parameters.value = DAGGenerator.generateDAGResultNSILAllView(_orb())[0];
+    RequestLatency.simulate(configuration.getLatencyMillis());
+    parameters.value = DAGGenerator.generateProduct(_orb(), configuration, 0);
     return State.COMPLETED;
   }
 
@@ -24,14 +24,34 @@ import org.codice.alliance.nsili.common.UCO.RequestDescription;
 import org.codice.alliance.nsili.common.UCO.State;
 import org.codice.alliance.nsili.common.UCO.Status;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
-import org.codice.alliance.nsili.mockserver.data.DAGGenerator;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
+import org.omg.PortableServer.POAPackage.ObjectNotActive;
+import org.omg.PortableServer.POAPackage.WrongPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class HitCountRequestImpl extends HitCountRequestPOA {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(HitCountRequestImpl.class);
+
+  private final MockNsiliConfiguration configuration;
+
+  public HitCountRequestImpl(MockNsiliConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
   @Override
   public State complete(org.omg.CORBA.IntHolder number_of_hits)
       throws ProcessingFault, SystemFault {
-    number_of_hits.value = DAGGenerator.getResultHits();
+    RequestLatency.simulate(configuration.getLatencyMillis());
+    number_of_hits.value = configuration.getProductCount();
+
+    // The hit count is only completed once, so release the request object
+    try {
+      _poa().deactivate_object(_object_id());
+    } catch (ObjectNotActive | WrongPolicy e) {
+      LOGGER.debug("Unable to deactivate the completed hit count request.", e);
+    }
     return State.COMPLETED;
   }
 
@@ -26,12 +26,33 @@ import org.codice.alliance.nsili.common.UCO.State;
 import org.codice.alliance.nsili.common.UCO.Status;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
 import org.codice.alliance.nsili.mockserver.data.DeliveryManifestGenerator;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
+import org.omg.PortableServer.POAPackage.ObjectNotActive;
+import org.omg.PortableServer.POAPackage.WrongPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class OrderRequestImpl extends OrderRequestPOA {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(OrderRequestImpl.class);
+
+  private final MockNsiliConfiguration configuration;
+
+  public OrderRequestImpl(MockNsiliConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
   @Override
   public State complete(DeliveryManifestHolder prods) throws ProcessingFault, SystemFault {
+    RequestLatency.simulate(configuration.getLatencyMillis());
     prods.value = DeliveryManifestGenerator.getManifest();
+
+    // The order is only completed once, so release the request object
+    try {
+      _poa().deactivate_object(_object_id());
+    } catch (ObjectNotActive | WrongPolicy e) {
+      LOGGER.debug("Unable to deactivate the completed order request.", e);
+    }
     return State.COMPLETED;
   }
 
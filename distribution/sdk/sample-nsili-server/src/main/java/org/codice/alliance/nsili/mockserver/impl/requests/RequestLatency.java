@@ -11,18 +11,22 @@
  * License is distributed along with this program and can be found at
  * <http://www.gnu.org/licenses/lgpl.html>.
  */
-package org.codice.alliance.video.stream.mpegts.plugins;
+package org.codice.alliance.nsili.mockserver.impl.requests;
 
-import static org.hamcrest.Matchers.notNullValue;
-import static org.junit.Assert.assertThat;
+/** Delays mock request calls to simulate the latency of a remote library. */
+final class RequestLatency {
 
-import org.junit.Test;
+  private RequestLatency() {}
 
-public class TimerFactoryTest {
+  static void simulate(long latencyMillis) {
+    if (latencyMillis <= 0) {
+      return;
+    }
 
-  @Test
-  public void testGet() {
-    TimerFactory timerFactory = new TimerFactory();
-    assertThat(timerFactory.get(), notNullValue());
+    try {
+      Thread.sleep(latencyMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 }
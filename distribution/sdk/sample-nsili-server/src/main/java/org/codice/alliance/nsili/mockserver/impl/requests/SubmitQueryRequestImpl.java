@@ -13,6 +13,7 @@
  */
 package org.codice.alliance.nsili.mockserver.impl.requests;
 
+import java.util.function.Consumer;
 import org.codice.alliance.nsili.common.CB.Callback;
 import org.codice.alliance.nsili.common.GIAS.DelayEstimate;
 import org.codice.alliance.nsili.common.GIAS.RequestManager;
@@ -27,21 +28,68 @@ import org.codice.alliance.nsili.common.UCO.State;
 import org.codice.alliance.nsili.common.UCO.Status;
 import org.codice.alliance.nsili.common.UCO.StringDAGListHolder;
 import org.codice.alliance.nsili.common.UCO.SystemFault;
+import org.codice.alliance.nsili.common.UCO.exception_details;
 import org.codice.alliance.nsili.mockserver.data.DAGGenerator;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
 import org.omg.CORBA.NO_IMPLEMENT;
 
+/**
+ * Returns the configured products in windows: each call to complete_DAG_results returns the next
+ * products after the ones already returned, up to the number set by set_number_of_hits. The request
+ * is released when it is canceled or returns fewer products than were asked for, since the client
+ * then knows there are no more.
+ */
 public class SubmitQueryRequestImpl extends SubmitQueryRequestPOA {
 
+  private final MockNsiliConfiguration configuration;
+
+  private final Consumer<byte[]> releaser;
+
+  private int numberOfHits = Integer.MAX_VALUE;
+
+  private int totalHitsReturned = 0;
+
+  /**
+   * @param configuration - the products to return
+   * @param releaser - called with this request's object id when the request can be released
+   */
+  public SubmitQueryRequestImpl(MockNsiliConfiguration configuration, Consumer<byte[]> releaser) {
+    this.configuration = configuration;
+    this.releaser = releaser;
+  }
+
   @Override
-  public void set_number_of_hits(int hits)
+  public synchronized void set_number_of_hits(int hits)
       throws ProcessingFault, InvalidInputParameter, SystemFault {
-    return;
+    if (hits <= 0) {
+      String[] badParams = {String.valueOf(hits)};
+      throw new InvalidInputParameter(
+          "InvalidNumberOfHits",
+          new exception_details("InvalidNumberOfHits", true, String.valueOf(hits)),
+          badParams);
+    }
+    numberOfHits = hits;
   }
 
   @Override
   public State complete_DAG_results(DAGListHolder results) throws ProcessingFault, SystemFault {
-    DAG[] result = DAGGenerator.generateDAGResultNSILAllView(_orb());
+    RequestLatency.simulate(configuration.getLatencyMillis());
+
+    int from;
+    int to;
+    boolean lastWindow;
+    synchronized (this) {
+      from = totalHitsReturned;
+      to = (int) Math.min((long) from + numberOfHits, configuration.getProductCount());
+      totalHitsReturned = to;
+      lastWindow = to - from < numberOfHits;
+    }
+
+    DAG[] result = DAGGenerator.generateProducts(_orb(), configuration, from, to);
     results.value = result;
+    if (lastWindow) {
+      releaser.accept(_object_id());
+    }
     return State.COMPLETED;
   }
 
@@ -80,7 +128,7 @@ public class SubmitQueryRequestImpl extends SubmitQueryRequestPOA {
 
   @Override
   public void cancel() throws ProcessingFault, SystemFault {
-    return;
+    releaser.accept(_object_id());
   }
 
   @Override
@@ -46,6 +46,9 @@ public class MockNsili {
 
   private Path ftpHomeDirectoryPath;
 
+  private volatile MockNsiliConfiguration configuration =
+      MockNsiliConfiguration.fromSystemProperties();
+
   public static final String MOCK_SERVER_USERNAME = "admin";
 
   public static final String MOCK_SERVER_PASSWORD = "admin";
@@ -63,6 +66,15 @@ public class MockNsili {
     return iorString;
   }
 
+  public MockNsiliConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /** Replaces the configuration. Must be called before the mock server is started. */
+  public void setConfiguration(MockNsiliConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
   public void startMockServer(int corbaPort) {
     ORB orb = null;
 
@@ -82,6 +94,9 @@ public class MockNsili {
   }
 
   public void startWebServer(int port) {
+    configuration = configuration.withWebBaseUrl("http://localhost:" + port);
+    LOGGER.info("Serving mock products with configuration {}", configuration);
+
     JAXRSServerFactoryBean sf = new JAXRSServerFactoryBean();
     sf.setResourceClasses(MockWebService.class);
     sf.setAddress("http://localhost:" + port + "/");
@@ -137,7 +152,8 @@ public class MockNsili {
     POA rootPOA = POAHelper.narrow(orb.resolve_initial_references("RootPOA"));
     rootPOA.the_POAManager().activate();
 
-    org.omg.CORBA.Object objref = rootPOA.servant_to_reference(new LibraryImpl(rootPOA));
+    org.omg.CORBA.Object objref =
+        rootPOA.servant_to_reference(new LibraryImpl(rootPOA, configuration));
 
     // set ior.txt for http web server
     iorString = orb.object_to_string(objref);
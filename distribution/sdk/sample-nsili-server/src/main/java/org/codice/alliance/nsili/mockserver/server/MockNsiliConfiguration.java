@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.mockserver.server;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.codice.alliance.nsili.common.NsiliConstants;
+import org.codice.alliance.nsili.mockserver.data.DAGGenerator;
+
+/**
+ * Controls the products served by the mock NSILI server and how quickly they are served. Every
+ * setting can be supplied as a system property prefixed with {@value #PROPERTY_PREFIX}, e.g. {@code
+ * -Dorg.codice.alliance.nsili.mock.productCount=10000}. Products are generated from the seed and
+ * their index, so the same settings always produce the same products.
+ */
+public class MockNsiliConfiguration {
+
+  public static final String PROPERTY_PREFIX = "org.codice.alliance.nsili.mock.";
+
+  /** Number of products that match every query. */
+  public static final String PRODUCT_COUNT = "productCount";
+
+  /** Seed used to generate the products. */
+  public static final String SEED = "seed";
+
+  /** Comma separated NSIL part entities (e.g. NSIL_IMAGERY) that products are built from. */
+  public static final String PART_TYPES = "partTypes";
+
+  /** Number of typed NSIL_PART nodes in each product. */
+  public static final String PARTS_PER_PRODUCT = "partsPerProduct";
+
+  /** Fraction (0 to 1) of the optional entities and parts that are included in each product. */
+  public static final String OPTIONAL_ATTRIBUTE_RATIO = "optionalAttributeRatio";
+
+  /** Number of vertices in each product's advanced geospatial polygon, 0 for none. */
+  public static final String GEOMETRY_VERTICES = "geometryVertices";
+
+  /** Size in bytes of each product's thumbnail, 0 for no thumbnail. */
+  public static final String THUMBNAIL_BYTES = "thumbnailBytes";
+
+  /** Milliseconds added to every hit count and result retrieval call. */
+  public static final String LATENCY_MILLIS = "latencyMillis";
+
+  /**
+   * Maximum number of query requests kept active at once. When a new query exceeds it, the oldest
+   * request that has not been canceled or read to the end is released.
+   */
+  public static final String MAX_ACTIVE_QUERIES = "maxActiveQueries";
+
+  /** Base URL of the mock web server, used to build thumbnail URLs. */
+  public static final String WEB_BASE_URL = "webBaseUrl";
+
+  private static final int DEFAULT_PRODUCT_COUNT = 11;
+
+  private static final List<String> DEFAULT_PART_TYPES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              NsiliConstants.NSIL_IMAGERY, NsiliConstants.NSIL_GMTI, NsiliConstants.NSIL_VIDEO));
+
+  private static final int DEFAULT_MAX_ACTIVE_QUERIES = 100;
+
+  private static final String DEFAULT_WEB_BASE_URL = "http://localhost:20002";
+
+  private final int productCount;
+
+  private final long seed;
+
+  private final List<String> partTypes;
+
+  private final int partsPerProduct;
+
+  private final double optionalAttributeRatio;
+
+  private final int geometryVertices;
+
+  private final int thumbnailBytes;
+
+  private final long latencyMillis;
+
+  private final int maxActiveQueries;
+
+  private final String webBaseUrl;
+
+  /** Creates the default configuration, which serves a small fixed set of sample products. */
+  public MockNsiliConfiguration() {
+    this(new Properties());
+  }
+
+  /**
+   * Creates a configuration from properties keyed by the setting names, without the system
+   * property prefix. Missing settings take their default values.
+   *
+   * @throws IllegalArgumentException if a setting is out of range or not a number
+   */
+  public MockNsiliConfiguration(Properties properties) {
+    productCount = getInt(properties, PRODUCT_COUNT, DEFAULT_PRODUCT_COUNT);
+    seed = Long.parseLong(properties.getProperty(SEED, "0"));
+    partTypes = getPartTypes(properties.getProperty(PART_TYPES));
+    partsPerProduct = getInt(properties, PARTS_PER_PRODUCT, 1);
+    optionalAttributeRatio =
+        Double.parseDouble(properties.getProperty(OPTIONAL_ATTRIBUTE_RATIO, "1"));
+    geometryVertices = getInt(properties, GEOMETRY_VERTICES, 0);
+    thumbnailBytes = getInt(properties, THUMBNAIL_BYTES, 0);
+    latencyMillis = Long.parseLong(properties.getProperty(LATENCY_MILLIS, "0"));
+    maxActiveQueries = getInt(properties, MAX_ACTIVE_QUERIES, DEFAULT_MAX_ACTIVE_QUERIES);
+    webBaseUrl =
+        StringUtils.removeEnd(properties.getProperty(WEB_BASE_URL, DEFAULT_WEB_BASE_URL), "/");
+
+    Validate.inclusiveBetween(0, Integer.MAX_VALUE, productCount, "productCount must be >= 0");
+    Validate.inclusiveBetween(
+        1, Integer.MAX_VALUE, partsPerProduct, "partsPerProduct must be >= 1");
+    Validate.inclusiveBetween(
+        0.0, 1.0, optionalAttributeRatio, "optionalAttributeRatio must be between 0 and 1");
+    Validate.isTrue(
+        geometryVertices == 0 || geometryVertices >= 3,
+        "geometryVertices must be 0 or at least 3");
+    Validate.inclusiveBetween(0, Integer.MAX_VALUE, thumbnailBytes, "thumbnailBytes must be >= 0");
+    Validate.inclusiveBetween(0, Long.MAX_VALUE, latencyMillis, "latencyMillis must be >= 0");
+    Validate.inclusiveBetween(
+        1, Integer.MAX_VALUE, maxActiveQueries, "maxActiveQueries must be >= 1");
+  }
+
+  /** Creates a configuration from the system properties prefixed with {@value #PROPERTY_PREFIX}. */
+  public static MockNsiliConfiguration fromSystemProperties() {
+    Properties properties = new Properties();
+    for (String name : System.getProperties().stringPropertyNames()) {
+      if (name.startsWith(PROPERTY_PREFIX)) {
+        properties.setProperty(name.substring(PROPERTY_PREFIX.length()), System.getProperty(name));
+      }
+    }
+    return new MockNsiliConfiguration(properties);
+  }
+
+  /**
+   * Returns a copy of this configuration that builds thumbnail URLs from the given web server base
+   * URL.
+   */
+  public MockNsiliConfiguration withWebBaseUrl(String webBaseUrl) {
+    Properties properties = toProperties();
+    properties.setProperty(WEB_BASE_URL, webBaseUrl);
+    return new MockNsiliConfiguration(properties);
+  }
+
+  public int getProductCount() {
+    return productCount;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public List<String> getPartTypes() {
+    return partTypes;
+  }
+
+  public int getPartsPerProduct() {
+    return partsPerProduct;
+  }
+
+  public double getOptionalAttributeRatio() {
+    return optionalAttributeRatio;
+  }
+
+  public int getGeometryVertices() {
+    return geometryVertices;
+  }
+
+  public int getThumbnailBytes() {
+    return thumbnailBytes;
+  }
+
+  public long getLatencyMillis() {
+    return latencyMillis;
+  }
+
+  public int getMaxActiveQueries() {
+    return maxActiveQueries;
+  }
+
+  public String getWebBaseUrl() {
+    return webBaseUrl;
+  }
+
+  public Properties toProperties() {
+    Properties properties = new Properties();
+    properties.setProperty(PRODUCT_COUNT, String.valueOf(productCount));
+    properties.setProperty(SEED, String.valueOf(seed));
+    properties.setProperty(PART_TYPES, String.join(",", partTypes));
+    properties.setProperty(PARTS_PER_PRODUCT, String.valueOf(partsPerProduct));
+    properties.setProperty(OPTIONAL_ATTRIBUTE_RATIO, String.valueOf(optionalAttributeRatio));
+    properties.setProperty(GEOMETRY_VERTICES, String.valueOf(geometryVertices));
+    properties.setProperty(THUMBNAIL_BYTES, String.valueOf(thumbnailBytes));
+    properties.setProperty(LATENCY_MILLIS, String.valueOf(latencyMillis));
+    properties.setProperty(MAX_ACTIVE_QUERIES, String.valueOf(maxActiveQueries));
+    properties.setProperty(WEB_BASE_URL, webBaseUrl);
+    return properties;
+  }
+
+  @Override
+  public String toString() {
+    return toProperties().toString();
+  }
+
+  private static int getInt(Properties properties, String name, int defaultValue) {
+    String value = properties.getProperty(name);
+    return StringUtils.isBlank(value) ? defaultValue : Integer.parseInt(value.trim());
+  }
+
+  private static List<String> getPartTypes(String value) {
+    if (StringUtils.isBlank(value)) {
+      return DEFAULT_PART_TYPES;
+    }
+
+    List<String> partTypes =
+        Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(StringUtils::isNotEmpty)
+            .collect(Collectors.toList());
+    Validate.notEmpty(partTypes, "partTypes must name at least one part type");
+    for (String partType : partTypes) {
+      Validate.isTrue(
+          DAGGenerator.isSupportedPartType(partType), "Unsupported part type: %s", partType);
+    }
+    return Collections.unmodifiableList(partTypes);
+  }
+}
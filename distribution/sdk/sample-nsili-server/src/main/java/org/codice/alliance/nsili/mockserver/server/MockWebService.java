@@ -16,9 +16,11 @@ package org.codice.alliance.nsili.mockserver.server;
 import java.io.File;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import org.codice.alliance.nsili.mockserver.data.DAGGenerator;
 
 @Path("data")
 public class MockWebService {
@@ -46,6 +48,14 @@ public class MockWebService {
     return response.build();
   }
 
+  @GET
+  @Path("thumbnail/{index}.jpg")
+  @Produces("image/jpeg")
+  public Response getThumbnail(@PathParam("index") int index) {
+    byte[] thumbnail = DAGGenerator.generateThumbnail(mockNsili.getConfiguration(), index);
+    return Response.ok(thumbnail).build();
+  }
+
   @GET
   @Path("ior.txt")
   @Produces(MediaType.TEXT_PLAIN)
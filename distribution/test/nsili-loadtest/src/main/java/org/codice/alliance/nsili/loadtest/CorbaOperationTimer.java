@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Wraps CORBA stubs in proxies that time every remote call, named after the IDL operation. Request
+ * objects returned by a timed call are wrapped as well, and their {@code complete} operation is
+ * named after the call that created the request, e.g. {@code hit_count.complete}.
+ */
+final class CorbaOperationTimer implements InvocationHandler {
+
+  private static final String COMPLETE = "complete";
+
+  private final Object target;
+
+  private final String parentOperation;
+
+  private final OperationMetrics metrics;
+
+  private CorbaOperationTimer(Object target, String parentOperation, OperationMetrics metrics) {
+    this.target = target;
+    this.parentOperation = parentOperation;
+    this.metrics = metrics;
+  }
+
+  static <T extends org.omg.CORBA.Object> T time(
+      Class<T> type, T target, OperationMetrics metrics) {
+    return wrap(type, target, null, metrics);
+  }
+
+  private static <T> T wrap(
+      Class<T> type, Object target, String parentOperation, OperationMetrics metrics) {
+    return type.cast(
+        Proxy.newProxyInstance(
+            type.getClassLoader(),
+            new Class<?>[] {type},
+            new CorbaOperationTimer(target, parentOperation, metrics)));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    // Only IDL operations are timed, not Object methods or the pseudo operations of the ORB
+    if (method.getDeclaringClass() == Object.class || method.getName().startsWith("_")) {
+      return invokeTarget(method, args);
+    }
+
+    String operation = getOperationName(method);
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result = invokeTarget(method, args);
+    } catch (Throwable e) {
+      metrics.recordError(operation);
+      throw e;
+    }
+    metrics.recordLatency(operation, System.nanoTime() - start);
+
+    Class<?> returnType = method.getReturnType();
+    if (result != null
+        && returnType.isInterface()
+        && org.omg.CORBA.Object.class.isAssignableFrom(returnType)) {
+      return wrap(returnType, result, method.getName(), metrics);
+    }
+    return result;
+  }
+
+  private Object invokeTarget(Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private String getOperationName(Method method) {
+    if (parentOperation != null && method.getName().equals(COMPLETE)) {
+      return parentOperation + "." + COMPLETE;
+    }
+    return method.getName();
+  }
+}
@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import static com.xebialabs.restito.builder.stub.StubHttp.whenHttp;
+import static com.xebialabs.restito.semantics.Condition.method;
+
+import com.xebialabs.restito.semantics.Action;
+import com.xebialabs.restito.semantics.Condition;
+import com.xebialabs.restito.server.StubServer;
+import ddf.catalog.filter.FilterAdapter;
+import ddf.catalog.filter.FilterBuilder;
+import ddf.catalog.filter.proxy.adapter.GeotoolsFilterAdapterImpl;
+import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
+import ddf.catalog.operation.impl.QueryImpl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.codice.alliance.nsili.common.CorbaUtils;
+import org.codice.alliance.nsili.common.GIAS.AccessCriteria;
+import org.codice.alliance.nsili.common.GIAS.AlterationSpec;
+import org.codice.alliance.nsili.common.GIAS.AttributeInformation;
+import org.codice.alliance.nsili.common.GIAS.CatalogMgr;
+import org.codice.alliance.nsili.common.GIAS.CatalogMgrHelper;
+import org.codice.alliance.nsili.common.GIAS.DataModelMgr;
+import org.codice.alliance.nsili.common.GIAS.DataModelMgrHelper;
+import org.codice.alliance.nsili.common.GIAS.DeliveryDetails;
+import org.codice.alliance.nsili.common.GIAS.DeliveryManifestHolder;
+import org.codice.alliance.nsili.common.GIAS.Destination;
+import org.codice.alliance.nsili.common.GIAS.GeoRegionType;
+import org.codice.alliance.nsili.common.GIAS.HitCountRequest;
+import org.codice.alliance.nsili.common.GIAS.ImageSpec;
+import org.codice.alliance.nsili.common.GIAS.ImageSpecHelper;
+import org.codice.alliance.nsili.common.GIAS.Library;
+import org.codice.alliance.nsili.common.GIAS.LibraryHelper;
+import org.codice.alliance.nsili.common.GIAS.MediaType;
+import org.codice.alliance.nsili.common.GIAS.OrderContents;
+import org.codice.alliance.nsili.common.GIAS.OrderMgr;
+import org.codice.alliance.nsili.common.GIAS.OrderMgrHelper;
+import org.codice.alliance.nsili.common.GIAS.OrderRequest;
+import org.codice.alliance.nsili.common.GIAS.PackagingSpec;
+import org.codice.alliance.nsili.common.GIAS.ProductDetails;
+import org.codice.alliance.nsili.common.GIAS.Query;
+import org.codice.alliance.nsili.common.GIAS.SortAttribute;
+import org.codice.alliance.nsili.common.GIAS.SubmitQueryRequest;
+import org.codice.alliance.nsili.common.GIAS.SupportDataEncoding;
+import org.codice.alliance.nsili.common.GIAS.TailoringSpec;
+import org.codice.alliance.nsili.common.NsiliConstants;
+import org.codice.alliance.nsili.common.NsiliManagerType;
+import org.codice.alliance.nsili.common.PackagingSpecFormatType;
+import org.codice.alliance.nsili.common.ResultDAGConverter;
+import org.codice.alliance.nsili.common.UCO.AbsTime;
+import org.codice.alliance.nsili.common.UCO.Coordinate2d;
+import org.codice.alliance.nsili.common.UCO.DAG;
+import org.codice.alliance.nsili.common.UCO.DAGListHolder;
+import org.codice.alliance.nsili.common.UCO.FileLocation;
+import org.codice.alliance.nsili.common.UCO.NameName;
+import org.codice.alliance.nsili.common.UCO.NameValue;
+import org.codice.alliance.nsili.common.UCO.Node;
+import org.codice.alliance.nsili.common.UCO.Rectangle;
+import org.codice.alliance.nsili.common.UID.ProductHelper;
+import org.codice.alliance.nsili.source.NsiliFilterDelegate;
+import org.glassfish.grizzly.http.Method;
+import org.omg.CORBA.Any;
+import org.omg.CORBA.IntHolder;
+import org.omg.CORBA.ORB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calls the library's CORBA managers directly, the way an external NSILI client does. Each
+ * iteration gets a hit count, retrieves the configured number of result pages and, for a share of
+ * the queries, orders the first results.
+ */
+class EndpointLoadDriver implements LoadDriver {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EndpointLoadDriver.class);
+
+  private static final String USER_INFO = "AllianceLoadTest";
+
+  private static final String NSILI_FILE_URI_PATH = "/nsili/file";
+
+  private static final long ORDER_NEED_BY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+  private final LoadTestConfiguration configuration;
+
+  private final String iorString;
+
+  private final OperationMetrics metrics;
+
+  private final AtomicLong orderCount = new AtomicLong();
+
+  private final Map<QueryType, Query> queries = new EnumMap<>(QueryType.class);
+
+  private ORB orb;
+
+  private CatalogMgr catalogMgr;
+
+  private OrderMgr orderMgr;
+
+  private String[] resultAttributes;
+
+  private List<PackagingSpecFormatType> orderPackaging;
+
+  private StubServer productSink;
+
+  EndpointLoadDriver(
+      LoadTestConfiguration configuration, String iorString, OperationMetrics metrics) {
+    this.configuration = configuration;
+    this.iorString = iorString;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public String getName() {
+    return "endpoint";
+  }
+
+  @Override
+  public void setUp() throws Exception {
+    orb = ORB.init(new String[0], null);
+    Library library = LibraryHelper.narrow(orb.string_to_object(iorString));
+    AccessCriteria accessCriteria = new AccessCriteria("", "", "");
+
+    DataModelMgr dataModelMgr =
+        DataModelMgrHelper.narrow(
+            library.get_manager(NsiliManagerType.DATA_MODEL_MGR.getSpecName(), accessCriteria));
+    createQueries(dataModelMgr);
+    resultAttributes = getResultAttributes(dataModelMgr);
+
+    catalogMgr =
+        CorbaOperationTimer.time(
+            CatalogMgr.class,
+            CatalogMgrHelper.narrow(
+                library.get_manager(NsiliManagerType.CATALOG_MGR.getSpecName(), accessCriteria)),
+            metrics);
+
+    if (configuration.getOrderRatio() > 0) {
+      OrderMgr untimedOrderMgr =
+          OrderMgrHelper.narrow(
+              library.get_manager(NsiliManagerType.ORDER_MGR.getSpecName(), accessCriteria));
+      orderPackaging = getOrderPackaging(untimedOrderMgr);
+      orderMgr = CorbaOperationTimer.time(OrderMgr.class, untimedOrderMgr, metrics);
+      startProductSink();
+    }
+  }
+
+  @Override
+  public void runIteration(Random random) throws Exception {
+    Query query = queries.get(configuration.getQueryMix().next(random));
+    List<Integer> resultSizes = configuration.getResultSizes();
+    int resultSize = resultSizes.get(random.nextInt(resultSizes.size()));
+
+    HitCountRequest hitCountRequest = catalogMgr.hit_count(query, new NameValue[0]);
+    hitCountRequest.complete(new IntHolder());
+
+    List<DAG> orderableResults = new ArrayList<>(configuration.getProductsPerOrder());
+    SubmitQueryRequest submitQueryRequest =
+        catalogMgr.submit_query(query, resultAttributes, new SortAttribute[0], new NameValue[0]);
+    try {
+      submitQueryRequest.set_user_info(USER_INFO);
+      submitQueryRequest.set_number_of_hits(resultSize);
+      for (int page = 0; page < configuration.getPagesPerQuery(); page++) {
+        DAGListHolder dagListHolder = new DAGListHolder();
+        submitQueryRequest.complete_DAG_results(dagListHolder);
+        if (dagListHolder.value == null || dagListHolder.value.length == 0) {
+          break;
+        }
+
+        for (DAG dag : dagListHolder.value) {
+          if (orderableResults.size() < configuration.getProductsPerOrder()) {
+            orderableResults.add(dag);
+          }
+        }
+      }
+    } finally {
+      submitQueryRequest.cancel();
+    }
+
+    if (orderMgr != null
+        && !orderableResults.isEmpty()
+        && random.nextDouble() < configuration.getOrderRatio()) {
+      order(orderableResults);
+    }
+  }
+
+  @Override
+  public void tearDown() {
+    if (productSink != null) {
+      productSink.stop();
+    }
+    if (orb != null) {
+      orb.shutdown(false);
+      orb.destroy();
+    }
+  }
+
+  private void createQueries(DataModelMgr dataModelMgr) throws Exception {
+    AttributeInformation[] queryableAttributes =
+        dataModelMgr.get_queryable_attributes(NsiliConstants.NSIL_ALL_VIEW, new NameValue[0]);
+    NsiliFilterDelegate filterDelegate =
+        new NsiliFilterDelegate(
+            Collections.singletonMap(
+                NsiliConstants.NSIL_ALL_VIEW, Arrays.asList(queryableAttributes)),
+            NsiliConstants.NSIL_ALL_VIEW);
+    FilterAdapter filterAdapter = new GeotoolsFilterAdapterImpl();
+    FilterBuilder filterBuilder = new GeotoolsFilterBuilder();
+
+    // The BQS is built once, so iterations only measure the library
+    for (QueryType queryType : configuration.getQueryMix().getWeights().keySet()) {
+      String bqs =
+          filterAdapter.adapt(new QueryImpl(queryType.createFilter(filterBuilder)), filterDelegate);
+      LOGGER.debug("{} query BQS : {}", queryType, bqs);
+      queries.put(queryType, new Query(NsiliConstants.NSIL_ALL_VIEW, bqs));
+    }
+  }
+
+  private String[] getResultAttributes(DataModelMgr dataModelMgr) throws Exception {
+    return Arrays.stream(
+            dataModelMgr.get_attributes(NsiliConstants.NSIL_ALL_VIEW, new NameValue[0]))
+        .map(attributeInformation -> attributeInformation.attribute_name)
+        .toArray(String[]::new);
+  }
+
+  private List<PackagingSpecFormatType> getOrderPackaging(OrderMgr orderMgr) throws Exception {
+    List<String> supportedPackaging = Arrays.asList(orderMgr.get_package_specifications());
+    List<PackagingSpecFormatType> orderPackaging = new ArrayList<>();
+    for (PackagingSpecFormatType packaging : configuration.getOrderPackaging()) {
+      if (supportedPackaging.contains(packaging.name())) {
+        orderPackaging.add(packaging);
+      } else {
+        LOGGER.warn("The library does not support {} packaging, it will not be ordered", packaging);
+      }
+    }
+
+    if (orderPackaging.isEmpty()) {
+      throw new IllegalStateException(
+          "The library supports none of the configured order packaging formats "
+              + configuration.getOrderPackaging());
+    }
+    return orderPackaging;
+  }
+
+  /** Accepts the files that the library delivers for each order. */
+  private void startProductSink() {
+    productSink = new StubServer().run();
+    whenHttp(productSink)
+        .match(method(Method.PUT), Condition.startsWithUri(NSILI_FILE_URI_PATH))
+        .then(Action.success());
+  }
+
+  private void order(List<DAG> results) throws Exception {
+    PackagingSpecFormatType packaging =
+        orderPackaging.get((int) (orderCount.getAndIncrement() % orderPackaging.size()));
+    OrderContents orderContents = createOrder(results, packaging);
+
+    Any portAny = orb.create_any();
+    portAny.insert_long(productSink.getPort());
+    Any protocolAny = orb.create_any();
+    protocolAny.insert_string("http");
+    NameValue[] properties =
+        new NameValue[] {new NameValue("PORT", portAny), new NameValue("PROTOCOL", protocolAny)};
+
+    orderMgr.validate_order(orderContents, properties);
+    OrderRequest orderRequest = orderMgr.order(orderContents, properties);
+    orderRequest.set_user_info(USER_INFO);
+    orderRequest.complete(new DeliveryManifestHolder());
+  }
+
+  private OrderContents createOrder(List<DAG> results, PackagingSpecFormatType packaging) {
+    String packageId = UUID.randomUUID().toString();
+    Rectangle region = new Rectangle(new Coordinate2d(1.1, 1.1), new Coordinate2d(2.2, 2.2));
+
+    ProductDetails[] productDetails = new ProductDetails[results.size()];
+    for (int i = 0; i < productDetails.length; i++) {
+      AlterationSpec alterationSpec =
+          new AlterationSpec("JPEG", createImageSpec(), region, GeoRegionType.NULL_REGION);
+      productDetails[i] =
+          new ProductDetails(
+              new MediaType[] {new MediaType("", (short) 1)},
+              new String[0],
+              alterationSpec,
+              ProductHelper.extract(results.get(i).nodes[0].value),
+              USER_INFO);
+    }
+
+    FileLocation fileLocation =
+        new FileLocation(
+            "user",
+            "pass",
+            "localhost",
+            NSILI_FILE_URI_PATH,
+            getFilename(results.get(0)) + packaging.getExtension());
+    Destination destination = new Destination();
+    destination.f_dest(fileLocation);
+
+    AbsTime needByDate =
+        ResultDAGConverter.getAbsTime(new Date(System.currentTimeMillis() + ORDER_NEED_BY_MILLIS));
+
+    return new OrderContents(
+        USER_INFO,
+        new TailoringSpec(new NameName[] {new NameName("", "")}),
+        new PackagingSpec(packageId, packaging.name()),
+        needByDate,
+        "Load test order",
+        (short) 1,
+        productDetails,
+        new DeliveryDetails[] {new DeliveryDetails(destination, "", "")});
+  }
+
+  private Any createImageSpec() {
+    ImageSpec imageSpec = new ImageSpec();
+    imageSpec.encoding = SupportDataEncoding.ASCII;
+    imageSpec.rrds = new short[] {1};
+    imageSpec.algo = "";
+    imageSpec.bpp = 0;
+    imageSpec.comp = "A";
+    imageSpec.imgform = "A";
+    imageSpec.imageid = "1234abc";
+    imageSpec.geo_region_type = GeoRegionType.LAT_LON;
+    imageSpec.sub_section = new Rectangle(new Coordinate2d(1, 1), new Coordinate2d(0, 0));
+
+    Any imageSpecAny = orb.create_any();
+    ImageSpecHelper.insert(imageSpecAny, imageSpec);
+    return imageSpecAny;
+  }
+
+  private static String getFilename(DAG dag) {
+    for (Node node : dag.nodes) {
+      if (NsiliConstants.FILENAME.equalsIgnoreCase(node.attribute_name)) {
+        return CorbaUtils.getNodeValue(node.value);
+      }
+    }
+    return "product";
+  }
+}
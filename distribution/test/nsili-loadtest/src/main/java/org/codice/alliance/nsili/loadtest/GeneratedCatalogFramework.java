@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import ddf.catalog.CatalogFramework;
+import ddf.catalog.data.Result;
+import ddf.catalog.data.impl.ResultImpl;
+import ddf.catalog.operation.Query;
+import ddf.catalog.operation.QueryRequest;
+import ddf.catalog.operation.QueryResponse;
+import ddf.catalog.operation.impl.QueryResponseImpl;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.codice.alliance.nsili.common.UCO.DAG;
+import org.codice.alliance.nsili.mockserver.data.DAGGenerator;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
+import org.codice.alliance.nsili.transformer.DAGConverter;
+import org.omg.CORBA.ORB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stands in for the catalog framework behind the Alliance NSILI endpoint. It holds the products of
+ * the mock library, converted to metacards once up front, and every query matches all of them, as
+ * it does on the mock library. Queries return the requested page and the total hit count. Only
+ * {@code query} is supported, so the endpoint can serve hit counts and query results but not
+ * orders.
+ */
+final class GeneratedCatalogFramework implements InvocationHandler {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedCatalogFramework.class);
+
+  private static final String QUERY = "query";
+
+  private static final String SOURCE_ID = "nsili-loadtest-catalog";
+
+  private final List<Result> results;
+
+  private GeneratedCatalogFramework(List<Result> results) {
+    this.results = results;
+  }
+
+  /**
+   * Generates the products of the mock library and returns a catalog framework that serves them.
+   *
+   * @param orb - the ORB the products are generated with
+   * @param configuration - the products to generate
+   */
+  static CatalogFramework create(ORB orb, MockNsiliConfiguration configuration) {
+    long start = System.nanoTime();
+    DAGConverter dagConverter = new DAGConverter(new ThumbnailReader());
+    dagConverter.setNsiliMetacardType(SourceLoadDriver.createMetacardType());
+
+    List<Result> results = new ArrayList<>(configuration.getProductCount());
+    for (DAG dag :
+        DAGGenerator.generateProducts(orb, configuration, 0, configuration.getProductCount())) {
+      results.add(new ResultImpl(dagConverter.convertDAG(dag, false, SOURCE_ID)));
+    }
+    LOGGER.info(
+        "Generated {} catalog metacards in {} ms",
+        results.size(),
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    return (CatalogFramework)
+        Proxy.newProxyInstance(
+            CatalogFramework.class.getClassLoader(),
+            new Class<?>[] {CatalogFramework.class},
+            new GeneratedCatalogFramework(Collections.unmodifiableList(results)));
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) {
+    if (method.getDeclaringClass() == Object.class) {
+      return invokeObjectMethod(proxy, method, args);
+    }
+    if (method.getName().equals(QUERY) && args.length == 1 && args[0] instanceof QueryRequest) {
+      return query((QueryRequest) args[0]);
+    }
+    throw new UnsupportedOperationException(
+        "The load test catalog framework does not support " + method.getName());
+  }
+
+  private QueryResponse query(QueryRequest request) {
+    Query query = request.getQuery();
+    int from = Math.min(Math.max(query.getStartIndex(), 1) - 1, results.size());
+    int to =
+        query.getPageSize() > 0
+            ? (int) Math.min((long) from + query.getPageSize(), results.size())
+            : results.size();
+    List<Result> page = new ArrayList<>(results.subList(from, to));
+    return new QueryResponseImpl(request, page, results.size());
+  }
+
+  private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      default:
+        return GeneratedCatalogFramework.class.getSimpleName();
+    }
+  }
+}
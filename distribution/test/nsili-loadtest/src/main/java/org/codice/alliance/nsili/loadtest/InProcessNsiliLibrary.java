@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
+import ddf.security.Subject;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.ServerSocket;
+import java.util.concurrent.Callable;
+import org.apache.shiro.subject.ExecutionException;
+import org.codice.alliance.nsili.endpoint.NsiliEndpoint;
+import org.codice.alliance.nsili.mockserver.impl.LibraryImpl;
+import org.codice.alliance.nsili.mockserver.server.MockNsili;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
+import org.omg.CORBA.ORB;
+import org.omg.CORBA.ORBPackage.InvalidName;
+import org.omg.PortableServer.POA;
+import org.omg.PortableServer.Servant;
+import org.omg.PortableServer.POAHelper;
+import org.omg.PortableServer.POAManagerPackage.AdapterInactive;
+import org.omg.PortableServer.POAPackage.ServantNotActive;
+import org.omg.PortableServer.POAPackage.WrongPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves a NSILI library from its own ORB inside the load test's JVM. Drivers use separate ORBs, so
+ * every call still goes through IIOP marshalling over the loopback interface.
+ *
+ * <p>The MOCK library is the sample NSILI server's, which generates its products on every call. The
+ * ENDPOINT library is the Alliance NSILI endpoint's, serving the same products from a {@link
+ * GeneratedCatalogFramework} as a guest subject that runs every call directly, so its results
+ * include the endpoint's BQS parsing and DAG conversion but no catalog or security overhead.
+ */
+class InProcessNsiliLibrary {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(InProcessNsiliLibrary.class);
+
+  private final ORB orb;
+
+  private final String iorString;
+
+  InProcessNsiliLibrary(
+      LoadTestConfiguration.Library libraryType, MockNsiliConfiguration configuration)
+      throws InvalidName, AdapterInactive, ServantNotActive, WrongPolicy, IOException {
+    MockNsili mockNsili = MockNsili.getInstance();
+    mockNsili.setConfiguration(configuration);
+    if (configuration.getThumbnailBytes() > 0) {
+      // Thumbnail URLs in the results point at the mock web server
+      mockNsili.startWebServer(getFreePort());
+    }
+
+    orb = ORB.init(new String[0], null);
+    POA rootPOA = POAHelper.narrow(orb.resolve_initial_references("RootPOA"));
+    rootPOA.the_POAManager().activate();
+
+    Servant library;
+    if (libraryType == LoadTestConfiguration.Library.ENDPOINT) {
+      library = createEndpointLibrary(rootPOA, mockNsili.getConfiguration());
+    } else {
+      library = new LibraryImpl(rootPOA, mockNsili.getConfiguration());
+    }
+    iorString = orb.object_to_string(rootPOA.servant_to_reference(library));
+
+    Thread orbThread = new Thread(orb::run, "nsili-loadtest-library");
+    orbThread.setDaemon(true);
+    orbThread.start();
+    LOGGER.info("Started in-process {} library with configuration {}", libraryType, configuration);
+  }
+
+  String getIorString() {
+    return iorString;
+  }
+
+  MockNsiliConfiguration getConfiguration() {
+    return MockNsili.getInstance().getConfiguration();
+  }
+
+  void shutdown() {
+    orb.shutdown(true);
+    orb.destroy();
+  }
+
+  private Servant createEndpointLibrary(POA poa, MockNsiliConfiguration configuration) {
+    NsiliEndpoint.setGuestSubject(createGuestSubject());
+
+    org.codice.alliance.nsili.endpoint.LibraryImpl library =
+        new org.codice.alliance.nsili.endpoint.LibraryImpl(poa);
+    library.setCatalogFramework(GeneratedCatalogFramework.create(orb, configuration));
+    library.setFilterBuilder(new GeotoolsFilterBuilder());
+    return library;
+  }
+
+  /**
+   * Creates the subject the endpoint runs its catalog calls as. It runs them on the calling thread
+   * and has no principals, so its token is never found to be about to expire.
+   */
+  private static Subject createGuestSubject() {
+    return (Subject)
+        Proxy.newProxyInstance(
+            Subject.class.getClassLoader(),
+            new Class<?>[] {Subject.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("execute")
+                  && args.length == 1
+                  && args[0] instanceof Callable) {
+                try {
+                  return ((Callable<?>) args[0]).call();
+                } catch (Exception e) {
+                  throw new ExecutionException(e);
+                }
+              }
+              if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+              }
+              if (method.getName().equals("equals")) {
+                return proxy == args[0];
+              }
+              return method.getReturnType() == boolean.class ? false : null;
+            });
+  }
+
+  private static int getFreePort() throws IOException {
+    try (ServerSocket serverSocket = new ServerSocket(0)) {
+      return serverSocket.getLocalPort();
+    }
+  }
+}
@@ -11,14 +11,26 @@
  * License is distributed along with this program and can be found at
  * <http://www.gnu.org/licenses/lgpl.html>.
  */
-package org.codice.alliance.video.stream.mpegts.plugins;
+package org.codice.alliance.nsili.loadtest;
 
-import java.util.Timer;
-import java.util.function.Supplier;
+import java.util.Random;
 
-public class TimerFactory implements Supplier<Timer> {
-  @Override
-  public Timer get() {
-    return new Timer();
-  }
+/** Sends load to the library in one particular way. Iterations run concurrently. */
+interface LoadDriver {
+
+  /** Returns the name the driver is reported under. */
+  String getName();
+
+  /** Connects to the library. Called once, before any iteration. */
+  void setUp() throws Exception;
+
+  /**
+   * Runs one query, and possibly an order, against the library.
+   *
+   * @param random source of the query type and result size, owned by the calling thread
+   */
+  void runIteration(Random random) throws Exception;
+
+  /** Releases everything created by {@link #setUp()}. */
+  void tearDown();
 }
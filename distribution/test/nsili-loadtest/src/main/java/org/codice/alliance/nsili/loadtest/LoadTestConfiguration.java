@@ -0,0 +1,354 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.codice.alliance.nsili.common.PackagingSpecFormatType;
+
+/**
+ * Controls how the load test drives the NSILI library. Every setting can be supplied as a system
+ * property prefixed with {@value #PROPERTY_PREFIX}, e.g. {@code
+ * -Dorg.codice.alliance.nsili.loadtest.threads=16}.
+ */
+public class LoadTestConfiguration {
+
+  public static final String PROPERTY_PREFIX = "org.codice.alliance.nsili.loadtest.";
+
+  /** Comma separated drivers to run, ENDPOINT and/or SOURCE. */
+  public static final String DRIVERS = "drivers";
+
+  /** URL of the IOR of the library under test. When blank an in-process library is used. */
+  public static final String IOR_URL = "iorUrl";
+
+  /** Library served in-process when no IOR URL is set, MOCK or ENDPOINT. */
+  public static final String LIBRARY = "library";
+
+  /** Number of threads issuing requests concurrently. */
+  public static final String THREADS = "threads";
+
+  /** Seconds each driver runs before latencies are recorded. */
+  public static final String WARMUP_SECONDS = "warmupSeconds";
+
+  /** Seconds each driver runs while latencies are recorded. */
+  public static final String DURATION_SECONDS = "durationSeconds";
+
+  /** Comma separated weighted query types, e.g. KEYWORD:6,SPATIAL:2. */
+  public static final String QUERY_MIX = "queryMix";
+
+  /** Comma separated numbers of results requested per page, one is picked for each query. */
+  public static final String RESULT_SIZES = "resultSizes";
+
+  /** Number of pages retrieved for each query. */
+  public static final String PAGES_PER_QUERY = "pagesPerQuery";
+
+  /**
+   * Fraction (0 to 1) of endpoint queries whose results are ordered. Defaults to 0 for the
+   * in-process ENDPOINT library, which cannot serve orders.
+   */
+  public static final String ORDER_RATIO = "orderRatio";
+
+  /** Comma separated packaging formats that orders cycle through, e.g. FILESUNC,TARZIP. */
+  public static final String ORDER_PACKAGING = "orderPackaging";
+
+  /** Number of products in each order. */
+  public static final String PRODUCTS_PER_ORDER = "productsPerOrder";
+
+  /** Seed used to pick the query types, result sizes and orders. */
+  public static final String SEED = "seed";
+
+  /** Number of threads the NsiliSource uses to convert results. */
+  public static final String SOURCE_WORKER_THREADS = "sourceWorkerThreads";
+
+  /** Seconds the NsiliSource keeps query sessions open, 0 to disable query sessions. */
+  public static final String SOURCE_QUERY_SESSION_TIMEOUT = "sourceQuerySessionTimeout";
+
+  /** File the JSON report is written to. */
+  public static final String REPORT_FILE = "reportFile";
+
+  /** The ways the load test can reach the library. */
+  public enum Driver {
+    /** Calls the library's CORBA managers directly, the way an external NSILI client does. */
+    ENDPOINT,
+
+    /** Queries the library through an NsiliSource, the way a federated Alliance node does. */
+    SOURCE
+  }
+
+  /** The libraries the load test can serve in-process. */
+  public enum Library {
+    /** The mock library of the sample NSILI server. */
+    MOCK,
+
+    /**
+     * The Alliance NSILI endpoint's library, backed by a stand-in catalog framework that serves
+     * the mock library's products. It serves hit counts and queries but not orders.
+     */
+    ENDPOINT
+  }
+
+  private static final String DEFAULT_QUERY_MIX = "KEYWORD:6,SPATIAL:2,TEMPORAL:1,COMBINED:1";
+
+  private static final String DEFAULT_ORDER_PACKAGING = "FILESUNC,TARZIP";
+
+  private static final String DEFAULT_REPORT_FILE = "target/nsili-loadtest-report.json";
+
+  private final Set<Driver> drivers;
+
+  private final String iorUrl;
+
+  private final Library library;
+
+  private final int threads;
+
+  private final int warmupSeconds;
+
+  private final int durationSeconds;
+
+  private final QueryMix queryMix;
+
+  private final List<Integer> resultSizes;
+
+  private final int pagesPerQuery;
+
+  private final double orderRatio;
+
+  private final List<PackagingSpecFormatType> orderPackaging;
+
+  private final int productsPerOrder;
+
+  private final long seed;
+
+  private final int sourceWorkerThreads;
+
+  private final int sourceQuerySessionTimeout;
+
+  private final File reportFile;
+
+  /** Creates the default configuration, a short run of both drivers against the mock library. */
+  public LoadTestConfiguration() {
+    this(new Properties());
+  }
+
+  /**
+   * Creates a configuration from properties keyed by the setting names, without the system
+   * property prefix. Missing settings take their default values.
+   *
+   * @throws IllegalArgumentException if a setting is out of range or cannot be parsed
+   */
+  public LoadTestConfiguration(Properties properties) {
+    drivers = getDrivers(properties.getProperty(DRIVERS));
+    iorUrl = StringUtils.trimToEmpty(properties.getProperty(IOR_URL));
+    library = Library.valueOf(properties.getProperty(LIBRARY, Library.MOCK.name()).toUpperCase());
+    threads = getInt(properties, THREADS, 4);
+    warmupSeconds = getInt(properties, WARMUP_SECONDS, 5);
+    durationSeconds = getInt(properties, DURATION_SECONDS, 30);
+    queryMix = QueryMix.parse(properties.getProperty(QUERY_MIX, DEFAULT_QUERY_MIX));
+    resultSizes = getResultSizes(properties.getProperty(RESULT_SIZES, "10,100"));
+    pagesPerQuery = getInt(properties, PAGES_PER_QUERY, 1);
+    orderRatio =
+        Double.parseDouble(properties.getProperty(ORDER_RATIO, isEndpointLibrary() ? "0" : "0.1"));
+    orderPackaging =
+        getOrderPackaging(properties.getProperty(ORDER_PACKAGING, DEFAULT_ORDER_PACKAGING));
+    productsPerOrder = getInt(properties, PRODUCTS_PER_ORDER, 1);
+    seed = Long.parseLong(properties.getProperty(SEED, "0"));
+    sourceWorkerThreads = getInt(properties, SOURCE_WORKER_THREADS, 4);
+    sourceQuerySessionTimeout = getInt(properties, SOURCE_QUERY_SESSION_TIMEOUT, 300);
+    reportFile = new File(properties.getProperty(REPORT_FILE, DEFAULT_REPORT_FILE));
+
+    Validate.inclusiveBetween(1, Integer.MAX_VALUE, threads, "threads must be >= 1");
+    Validate.inclusiveBetween(0, Integer.MAX_VALUE, warmupSeconds, "warmupSeconds must be >= 0");
+    Validate.inclusiveBetween(
+        1, Integer.MAX_VALUE, durationSeconds, "durationSeconds must be >= 1");
+    Validate.inclusiveBetween(1, Integer.MAX_VALUE, pagesPerQuery, "pagesPerQuery must be >= 1");
+    Validate.inclusiveBetween(0.0, 1.0, orderRatio, "orderRatio must be between 0 and 1");
+    Validate.isTrue(
+        orderRatio == 0 || !isEndpointLibrary(),
+        "orderRatio must be 0 for the in-process ENDPOINT library, which cannot serve orders");
+    Validate.inclusiveBetween(
+        1, Integer.MAX_VALUE, productsPerOrder, "productsPerOrder must be >= 1");
+    Validate.inclusiveBetween(
+        1, Integer.MAX_VALUE, sourceWorkerThreads, "sourceWorkerThreads must be >= 1");
+    Validate.inclusiveBetween(
+        0,
+        Integer.MAX_VALUE,
+        sourceQuerySessionTimeout,
+        "sourceQuerySessionTimeout must be >= 0");
+  }
+
+  /** Creates a configuration from the system properties prefixed with {@value #PROPERTY_PREFIX}. */
+  public static LoadTestConfiguration fromSystemProperties() {
+    Properties properties = new Properties();
+    for (String name : System.getProperties().stringPropertyNames()) {
+      if (name.startsWith(PROPERTY_PREFIX)) {
+        properties.setProperty(name.substring(PROPERTY_PREFIX.length()), System.getProperty(name));
+      }
+    }
+    return new LoadTestConfiguration(properties);
+  }
+
+  public Set<Driver> getDrivers() {
+    return drivers;
+  }
+
+  public String getIorUrl() {
+    return iorUrl;
+  }
+
+  /** Returns true when the load test starts its own library instead of using the IOR URL. */
+  public boolean isInProcessLibrary() {
+    return iorUrl.isEmpty();
+  }
+
+  /** Returns the library that is served in-process, if {@link #isInProcessLibrary()}. */
+  public Library getLibrary() {
+    return library;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public int getWarmupSeconds() {
+    return warmupSeconds;
+  }
+
+  public int getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  public QueryMix getQueryMix() {
+    return queryMix;
+  }
+
+  public List<Integer> getResultSizes() {
+    return resultSizes;
+  }
+
+  public int getMaxResultSize() {
+    return Collections.max(resultSizes);
+  }
+
+  public int getPagesPerQuery() {
+    return pagesPerQuery;
+  }
+
+  public double getOrderRatio() {
+    return orderRatio;
+  }
+
+  public List<PackagingSpecFormatType> getOrderPackaging() {
+    return orderPackaging;
+  }
+
+  public int getProductsPerOrder() {
+    return productsPerOrder;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public int getSourceWorkerThreads() {
+    return sourceWorkerThreads;
+  }
+
+  public int getSourceQuerySessionTimeout() {
+    return sourceQuerySessionTimeout;
+  }
+
+  public File getReportFile() {
+    return reportFile;
+  }
+
+  public Properties toProperties() {
+    Properties properties = new Properties();
+    properties.setProperty(DRIVERS, StringUtils.join(drivers, ','));
+    properties.setProperty(IOR_URL, iorUrl);
+    properties.setProperty(LIBRARY, library.name());
+    properties.setProperty(THREADS, String.valueOf(threads));
+    properties.setProperty(WARMUP_SECONDS, String.valueOf(warmupSeconds));
+    properties.setProperty(DURATION_SECONDS, String.valueOf(durationSeconds));
+    properties.setProperty(QUERY_MIX, queryMix.toString());
+    properties.setProperty(RESULT_SIZES, StringUtils.join(resultSizes, ','));
+    properties.setProperty(PAGES_PER_QUERY, String.valueOf(pagesPerQuery));
+    properties.setProperty(ORDER_RATIO, String.valueOf(orderRatio));
+    properties.setProperty(ORDER_PACKAGING, StringUtils.join(orderPackaging, ','));
+    properties.setProperty(PRODUCTS_PER_ORDER, String.valueOf(productsPerOrder));
+    properties.setProperty(SEED, String.valueOf(seed));
+    properties.setProperty(SOURCE_WORKER_THREADS, String.valueOf(sourceWorkerThreads));
+    properties.setProperty(SOURCE_QUERY_SESSION_TIMEOUT, String.valueOf(sourceQuerySessionTimeout));
+    properties.setProperty(REPORT_FILE, reportFile.getPath());
+    return properties;
+  }
+
+  @Override
+  public String toString() {
+    return toProperties().toString();
+  }
+
+  private boolean isEndpointLibrary() {
+    return isInProcessLibrary() && library == Library.ENDPOINT;
+  }
+
+  private static int getInt(Properties properties, String name, int defaultValue) {
+    String value = properties.getProperty(name);
+    return StringUtils.isBlank(value) ? defaultValue : Integer.parseInt(value.trim());
+  }
+
+  private static List<String> split(String value) {
+    return Arrays.stream(StringUtils.defaultString(value).split(","))
+        .map(String::trim)
+        .filter(StringUtils::isNotEmpty)
+        .collect(Collectors.toList());
+  }
+
+  private static Set<Driver> getDrivers(String value) {
+    if (StringUtils.isBlank(value)) {
+      return Collections.unmodifiableSet(EnumSet.allOf(Driver.class));
+    }
+
+    Set<Driver> drivers = EnumSet.noneOf(Driver.class);
+    for (String driver : split(value)) {
+      drivers.add(Driver.valueOf(driver.toUpperCase()));
+    }
+    Validate.notEmpty(drivers, "drivers must name at least one driver");
+    return Collections.unmodifiableSet(drivers);
+  }
+
+  private static List<Integer> getResultSizes(String value) {
+    List<Integer> resultSizes =
+        split(value).stream().map(Integer::valueOf).collect(Collectors.toList());
+    Validate.notEmpty(resultSizes, "resultSizes must contain at least one size");
+    for (int resultSize : resultSizes) {
+      Validate.inclusiveBetween(1, Integer.MAX_VALUE, resultSize, "resultSizes must all be >= 1");
+    }
+    return Collections.unmodifiableList(resultSizes);
+  }
+
+  private static List<PackagingSpecFormatType> getOrderPackaging(String value) {
+    List<PackagingSpecFormatType> orderPackaging =
+        split(value).stream().map(PackagingSpecFormatType::valueOf).collect(Collectors.toList());
+    Validate.notEmpty(orderPackaging, "orderPackaging must name at least one packaging format");
+    return Collections.unmodifiableList(orderPackaging);
+  }
+}
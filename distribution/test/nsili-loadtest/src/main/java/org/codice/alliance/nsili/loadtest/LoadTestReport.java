@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import org.HdrHistogram.Histogram;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Collects the results of a load test run into a JSON document that can be compared between runs.
+ * For every driver and operation the report holds the count, errors, throughput, latency
+ * percentiles in microseconds and the full latency histogram, compressed and Base64 encoded in the
+ * HdrHistogram log format.
+ */
+public class LoadTestReport {
+
+  static final String FORMAT_VERSION = "1";
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private final Map<String, Object> report = new LinkedHashMap<>();
+
+  private final Map<String, Object> drivers = new LinkedHashMap<>();
+
+  /**
+   * @param configuration the load test configuration
+   * @param libraryProperties the mock library configuration, or null when an external library was
+   *     tested
+   */
+  public LoadTestReport(LoadTestConfiguration configuration, Properties libraryProperties) {
+    report.put("formatVersion", FORMAT_VERSION);
+    report.put("timestamp", Instant.now().toString());
+    report.put("configuration", toMap(configuration.toProperties()));
+    if (libraryProperties != null) {
+      report.put("mockLibrary", toMap(libraryProperties));
+    }
+    report.put("drivers", drivers);
+  }
+
+  public void addDriver(String name, int threads, OperationMetrics metrics) {
+    long recordingMillis = Math.max(metrics.getRecordingMillis(), 1);
+
+    Map<String, Object> operations = new LinkedHashMap<>();
+    for (String operation : metrics.getOperations()) {
+      Histogram latencies = metrics.getLatencies(operation);
+
+      Map<String, Object> latencyMicros = new LinkedHashMap<>();
+      latencyMicros.put("min", latencies.getTotalCount() == 0 ? 0 : latencies.getMinValue());
+      latencyMicros.put("mean", round(latencies.getMean()));
+      for (double percentile : PERCENTILES) {
+        latencyMicros.put(
+            "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+            latencies.getValueAtPercentile(percentile));
+      }
+      latencyMicros.put("max", latencies.getMaxValue());
+
+      Map<String, Object> operationReport = new LinkedHashMap<>();
+      operationReport.put("count", latencies.getTotalCount());
+      operationReport.put("errors", metrics.getErrors(operation));
+      operationReport.put(
+          "throughput", round(latencies.getTotalCount() * 1000.0 / recordingMillis));
+      operationReport.put("latencyMicros", latencyMicros);
+      operationReport.put("histogram", encode(latencies));
+      operations.put(operation, operationReport);
+    }
+
+    Map<String, Object> driverReport = new LinkedHashMap<>();
+    driverReport.put("threads", threads);
+    driverReport.put("durationMillis", recordingMillis);
+    driverReport.put("operations", operations);
+    drivers.put(name, driverReport);
+  }
+
+  public String toJson() {
+    StringBuilder json = new StringBuilder();
+    appendJson(json, report, "");
+    return json.append('\n').toString();
+  }
+
+  public void write(File file) throws IOException {
+    FileUtils.writeStringToFile(file, toJson(), StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, Object> toMap(Properties properties) {
+    Map<String, Object> map = new TreeMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      map.put(name, properties.getProperty(name));
+    }
+    return map;
+  }
+
+  private static BigDecimal round(double value) {
+    return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP);
+  }
+
+  private static String encode(Histogram histogram) {
+    ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+    int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+    return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+  }
+
+  /** Writes maps, collections, numbers, booleans and strings as indented JSON. */
+  static void appendJson(StringBuilder json, Object value, String indent) {
+    if (value instanceof Map) {
+      appendEntries(json, ((Map<?, ?>) value).entrySet().iterator(), '{', '}', indent);
+    } else if (value instanceof Collection) {
+      appendEntries(json, ((Collection<?>) value).iterator(), '[', ']', indent);
+    } else if (value instanceof Number || value instanceof Boolean) {
+      json.append(value);
+    } else if (value == null) {
+      json.append("null");
+    } else {
+      appendString(json, value.toString());
+    }
+  }
+
+  private static void appendEntries(
+      StringBuilder json, Iterator<?> entries, char open, char close, String indent) {
+    json.append(open);
+    if (!entries.hasNext()) {
+      json.append(close);
+      return;
+    }
+
+    String entryIndent = indent + "  ";
+    while (entries.hasNext()) {
+      Object entry = entries.next();
+      json.append('\n').append(entryIndent);
+      if (entry instanceof Map.Entry) {
+        appendString(json, String.valueOf(((Map.Entry<?, ?>) entry).getKey()));
+        json.append(": ");
+        appendJson(json, ((Map.Entry<?, ?>) entry).getValue(), entryIndent);
+      } else {
+        appendJson(json, entry, entryIndent);
+      }
+      if (entries.hasNext()) {
+        json.append(',');
+      }
+    }
+    json.append('\n').append(indent).append(close);
+  }
+
+  private static void appendString(StringBuilder json, String value) {
+    json.append('"');
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+      }
+    }
+    json.append('"');
+  }
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.HdrHistogram.Histogram;
+import org.apache.commons.io.IOUtils;
+import org.codice.alliance.nsili.mockserver.server.MockNsiliConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the configured load drivers one after the other against a NSILI library and writes a {@link
+ * LoadTestReport}. Unless an IOR URL is configured, the mock library or the library of the Alliance
+ * NSILI endpoint is served in-process, so the test needs no external services.
+ */
+public class NsiliLoadTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NsiliLoadTest.class);
+
+  static final String ITERATION_OPERATION = "iteration";
+
+  private static final long WORKER_JOIN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+  private final LoadTestConfiguration configuration;
+
+  public NsiliLoadTest(LoadTestConfiguration configuration) {
+    this.configuration = configuration;
+  }
+
+  public static void main(String[] args) {
+    int status = 0;
+    try {
+      new NsiliLoadTest(LoadTestConfiguration.fromSystemProperties()).run();
+    } catch (Exception e) {
+      LOGGER.error("NSILI load test failed", e);
+      status = 1;
+    }
+    // The ORBs leave non-daemon threads behind
+    System.exit(status);
+  }
+
+  public LoadTestReport run() throws Exception {
+    LOGGER.info("Running NSILI load test with configuration {}", configuration);
+
+    InProcessNsiliLibrary library = null;
+    String iorString;
+    Properties libraryProperties = null;
+    if (configuration.isInProcessLibrary()) {
+      library =
+          new InProcessNsiliLibrary(
+              configuration.getLibrary(), MockNsiliConfiguration.fromSystemProperties());
+      iorString = library.getIorString();
+      libraryProperties = library.getConfiguration().toProperties();
+    } else {
+      iorString =
+          IOUtils.toString(new URL(configuration.getIorUrl()), StandardCharsets.ISO_8859_1).trim();
+    }
+
+    try {
+      LoadTestReport report = new LoadTestReport(configuration, libraryProperties);
+      for (LoadTestConfiguration.Driver driver : configuration.getDrivers()) {
+        OperationMetrics metrics = new OperationMetrics();
+        LoadDriver loadDriver = createDriver(driver, iorString, metrics);
+        runDriver(loadDriver, metrics);
+        report.addDriver(loadDriver.getName(), configuration.getThreads(), metrics);
+        logSummary(loadDriver.getName(), metrics);
+      }
+
+      report.write(configuration.getReportFile());
+      LOGGER.info("Wrote NSILI load test report to {}", configuration.getReportFile());
+      return report;
+    } finally {
+      if (library != null) {
+        library.shutdown();
+      }
+    }
+  }
+
+  private LoadDriver createDriver(
+      LoadTestConfiguration.Driver driver, String iorString, OperationMetrics metrics) {
+    switch (driver) {
+      case ENDPOINT:
+        return new EndpointLoadDriver(configuration, iorString, metrics);
+      case SOURCE:
+        return new SourceLoadDriver(configuration, iorString, metrics);
+      default:
+        throw new IllegalArgumentException("Unknown load driver " + driver);
+    }
+  }
+
+  private void runDriver(LoadDriver driver, OperationMetrics metrics) throws Exception {
+    LOGGER.info(
+        "Starting {} driver with {} threads, {}s warm up and {}s measurement",
+        driver.getName(),
+        configuration.getThreads(),
+        configuration.getWarmupSeconds(),
+        configuration.getDurationSeconds());
+    driver.setUp();
+    try {
+      AtomicBoolean running = new AtomicBoolean(true);
+      List<Thread> workers = new ArrayList<>();
+      for (int i = 0; i < configuration.getThreads(); i++) {
+        Random random = new Random(configuration.getSeed() * 31 + i);
+        Thread worker =
+            new Thread(
+                () -> runWorker(driver, metrics, random, running),
+                "nsili-loadtest-" + driver.getName() + "-" + i);
+        worker.start();
+        workers.add(worker);
+      }
+
+      Thread.sleep(TimeUnit.SECONDS.toMillis(configuration.getWarmupSeconds()));
+      metrics.startRecording();
+      Thread.sleep(TimeUnit.SECONDS.toMillis(configuration.getDurationSeconds()));
+      metrics.stopRecording();
+
+      running.set(false);
+      for (Thread worker : workers) {
+        worker.join(WORKER_JOIN_MILLIS);
+        if (worker.isAlive()) {
+          LOGGER.warn("{} did not finish its last iteration", worker.getName());
+        }
+      }
+    } finally {
+      driver.tearDown();
+    }
+  }
+
+  private static void runWorker(
+      LoadDriver driver, OperationMetrics metrics, Random random, AtomicBoolean running) {
+    while (running.get()) {
+      long start = System.nanoTime();
+      try {
+        driver.runIteration(random);
+        metrics.recordLatency(ITERATION_OPERATION, System.nanoTime() - start);
+      } catch (Exception e) {
+        LOGGER.debug("{} iteration failed", driver.getName(), e);
+        metrics.recordError(ITERATION_OPERATION);
+      }
+    }
+  }
+
+  private static void logSummary(String driverName, OperationMetrics metrics) {
+    double seconds = Math.max(metrics.getRecordingMillis(), 1) / 1000.0;
+    StringBuilder summary = new StringBuilder();
+    summary.append(
+        String.format(
+            "%n%-32s %10s %8s %10s %10s %10s %10s%n",
+            "operation", "count", "errors", "ops/s", "p50 us", "p99 us", "max us"));
+    for (String operation : metrics.getOperations()) {
+      Histogram latencies = metrics.getLatencies(operation);
+      summary.append(
+          String.format(
+              "%-32s %10d %8d %10.1f %10d %10d %10d%n",
+              operation,
+              latencies.getTotalCount(),
+              metrics.getErrors(operation),
+              latencies.getTotalCount() / seconds,
+              latencies.getValueAtPercentile(50),
+              latencies.getValueAtPercentile(99),
+              latencies.getMaxValue()));
+    }
+    LOGGER.info("{} driver results:{}", driverName, summary);
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Records the latency, in microseconds, and the failures of every timed operation. Nothing is
+ * recorded until {@link #startRecording()} is called, so that warm up calls are left out.
+ */
+public class OperationMetrics {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+  private volatile boolean recording = false;
+
+  private long recordingStartNanos;
+
+  private long recordingStopNanos;
+
+  public void startRecording() {
+    recordingStartNanos = System.nanoTime();
+    recording = true;
+  }
+
+  public void stopRecording() {
+    recording = false;
+    recordingStopNanos = System.nanoTime();
+  }
+
+  public boolean isRecording() {
+    return recording;
+  }
+
+  /** Returns how long latencies were recorded for, in milliseconds. */
+  public long getRecordingMillis() {
+    long stopNanos = recording ? System.nanoTime() : recordingStopNanos;
+    return TimeUnit.NANOSECONDS.toMillis(stopNanos - recordingStartNanos);
+  }
+
+  public void recordLatency(String operation, long elapsedNanos) {
+    if (recording) {
+      latencies
+          .computeIfAbsent(operation, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+          .recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+  }
+
+  public void recordError(String operation) {
+    if (recording) {
+      errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+    }
+  }
+
+  /** Returns the names of every operation that completed or failed while recording. */
+  public Set<String> getOperations() {
+    Set<String> operations = new TreeSet<>(latencies.keySet());
+    operations.addAll(errors.keySet());
+    return operations;
+  }
+
+  /** Returns a copy of the latencies recorded for the operation, empty if it never completed. */
+  public Histogram getLatencies(String operation) {
+    Histogram histogram = latencies.get(operation);
+    return histogram == null ? new Histogram(SIGNIFICANT_DIGITS) : histogram.copy();
+  }
+
+  public long getErrors(String operation) {
+    LongAdder count = errors.get(operation);
+    return count == null ? 0 : count.sum();
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A weighted choice between query types, written as comma separated {@code TYPE:WEIGHT} pairs such
+ * as {@code KEYWORD:6,SPATIAL:2}. A type without a weight has a weight of 1.
+ */
+public class QueryMix {
+
+  private final Map<QueryType, Integer> weights;
+
+  private final int totalWeight;
+
+  private QueryMix(Map<QueryType, Integer> weights) {
+    this.weights = Collections.unmodifiableMap(weights);
+    this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  /**
+   * Parses a query mix.
+   *
+   * @throws IllegalArgumentException if a query type is unknown, a weight is not a positive number
+   *     or no query type is given
+   */
+  public static QueryMix parse(String value) {
+    Map<QueryType, Integer> weights = new EnumMap<>(QueryType.class);
+    for (String entry : StringUtils.defaultString(value).split(",")) {
+      if (StringUtils.isBlank(entry)) {
+        continue;
+      }
+
+      String[] parts = entry.split(":", 2);
+      QueryType queryType = QueryType.valueOf(parts[0].trim().toUpperCase());
+      int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+      Validate.isTrue(weight > 0, "Query mix weights must be >= 1: %s", entry);
+      weights.merge(queryType, weight, Integer::sum);
+    }
+
+    Validate.isTrue(!weights.isEmpty(), "queryMix must name at least one query type");
+    return new QueryMix(weights);
+  }
+
+  /** Picks the next query type, in proportion to the weights. */
+  public QueryType next(Random random) {
+    int remaining = random.nextInt(totalWeight);
+    for (Map.Entry<QueryType, Integer> entry : weights.entrySet()) {
+      remaining -= entry.getValue();
+      if (remaining < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("Query mix weights do not add up to " + totalWeight);
+  }
+
+  public Map<QueryType, Integer> getWeights() {
+    return weights;
+  }
+
+  @Override
+  public String toString() {
+    return weights
+        .entrySet()
+        .stream()
+        .map(entry -> entry.getKey() + ":" + entry.getValue())
+        .collect(Collectors.joining(","));
+  }
+}
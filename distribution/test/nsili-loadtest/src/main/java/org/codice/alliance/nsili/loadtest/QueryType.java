@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.filter.FilterBuilder;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.opengis.filter.Filter;
+
+/**
+ * The kinds of query the load test sends. Queries are built as DDF filters so that both drivers
+ * send the same BQS that an NsiliSource would.
+ */
+public enum QueryType {
+  /** Matches any text attribute, which expands to a disjunction over every text attribute. */
+  KEYWORD {
+    @Override
+    public Filter createFilter(FilterBuilder builder) {
+      return builder.attribute(Metacard.ANY_TEXT).is().like().text(KEYWORD_TEXT);
+    }
+  },
+
+  /** Intersects a fixed area of interest with each product's coverage. */
+  SPATIAL {
+    @Override
+    public Filter createFilter(FilterBuilder builder) {
+      return builder.attribute(Metacard.ANY_GEO).is().intersecting().wkt(AREA_OF_INTEREST);
+    }
+  },
+
+  /** Matches products modified within the last year. */
+  TEMPORAL {
+    @Override
+    public Filter createFilter(FilterBuilder builder) {
+      Date end = new Date();
+      Date start = new Date(end.getTime() - TimeUnit.DAYS.toMillis(365));
+      return builder.attribute(Metacard.MODIFIED).is().during().dates(start, end);
+    }
+  },
+
+  /** Combines the keyword, spatial and temporal queries. */
+  COMBINED {
+    @Override
+    public Filter createFilter(FilterBuilder builder) {
+      return builder.allOf(
+          KEYWORD.createFilter(builder),
+          SPATIAL.createFilter(builder),
+          TEMPORAL.createFilter(builder));
+    }
+  };
+
+  private static final String KEYWORD_TEXT = "*";
+
+  private static final String AREA_OF_INTEREST =
+      "POLYGON ((-10 -10, 10 -10, 10 10, -10 10, -10 -10))";
+
+  public abstract Filter createFilter(FilterBuilder builder);
+}
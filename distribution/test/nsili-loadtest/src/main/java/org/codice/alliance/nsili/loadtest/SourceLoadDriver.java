@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import ddf.catalog.data.MetacardType;
+import ddf.catalog.data.impl.MetacardTypeImpl;
+import ddf.catalog.data.impl.types.AssociationsAttributes;
+import ddf.catalog.data.impl.types.ContactAttributes;
+import ddf.catalog.data.impl.types.DateTimeAttributes;
+import ddf.catalog.data.impl.types.LocationAttributes;
+import ddf.catalog.data.impl.types.MediaAttributes;
+import ddf.catalog.data.impl.types.ValidationAttributes;
+import ddf.catalog.filter.FilterBuilder;
+import ddf.catalog.filter.proxy.adapter.GeotoolsFilterAdapterImpl;
+import ddf.catalog.filter.proxy.builder.GeotoolsFilterBuilder;
+import ddf.catalog.operation.SourceResponse;
+import ddf.catalog.operation.impl.QueryImpl;
+import ddf.catalog.operation.impl.QueryRequestImpl;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.codice.alliance.catalog.core.api.impl.types.IsrAttributes;
+import org.codice.alliance.catalog.core.api.impl.types.SecurityAttributes;
+import org.codice.alliance.nsili.common.GIAS.AccessCriteria;
+import org.codice.alliance.nsili.common.GIAS.CatalogMgr;
+import org.codice.alliance.nsili.common.GIAS.CatalogMgrHelper;
+import org.codice.alliance.nsili.common.GIAS.Library;
+import org.codice.alliance.nsili.common.GIAS.LibraryHelper;
+import org.codice.alliance.nsili.common.NsiliManagerType;
+import org.codice.alliance.nsili.orb.api.CorbaOrb;
+import org.codice.alliance.nsili.orb.api.CorbaServiceListener;
+import org.codice.alliance.nsili.source.NsiliSource;
+import org.omg.CORBA.ORB;
+import org.opengis.filter.Filter;
+
+/**
+ * Queries the library through an NsiliSource, the way a federated Alliance node does. Each
+ * iteration pages through the configured number of result pages with {@link
+ * NsiliSource#query(ddf.catalog.operation.QueryRequest)}, which is recorded as {@value
+ * #QUERY_OPERATION} next to the CORBA calls the source makes.
+ */
+class SourceLoadDriver implements LoadDriver {
+
+  static final String QUERY_OPERATION = "NsiliSource.query";
+
+  private static final String SOURCE_ID = "nsili-loadtest";
+
+  private static final String FILE_URL_PREFIX = "file://";
+
+  private static final int CLIENT_TIMEOUT_SECONDS = 60;
+
+  // Long enough that the availability poll does not re-initialize the source during a run
+  private static final int POLL_INTERVAL_MINUTES = 60;
+
+  private static final long QUERY_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+
+  private final LoadTestConfiguration configuration;
+
+  private final String iorString;
+
+  private final OperationMetrics metrics;
+
+  private final FilterBuilder filterBuilder = new GeotoolsFilterBuilder();
+
+  private ORB orb;
+
+  private File iorFile;
+
+  private NsiliSource source;
+
+  SourceLoadDriver(
+      LoadTestConfiguration configuration, String iorString, OperationMetrics metrics) {
+    this.configuration = configuration;
+    this.iorString = iorString;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public String getName() {
+    return "source";
+  }
+
+  @Override
+  public void setUp() throws Exception {
+    // The source reads the IOR itself, a local file avoids needing an HTTP client factory
+    iorFile = File.createTempFile("nsili-loadtest", ".ior");
+    FileUtils.writeStringToFile(iorFile, iorString, StandardCharsets.ISO_8859_1);
+
+    orb = ORB.init(new String[0], null);
+    source = new NsiliSource(new LocalCorbaOrb(orb), null);
+    source.setId(SOURCE_ID);
+    source.setIorUrl(FILE_URL_PREFIX + iorFile.getAbsolutePath());
+    source.setClientTimeout(CLIENT_TIMEOUT_SECONDS);
+    source.setPollInterval(POLL_INTERVAL_MINUTES);
+    source.setMaxHitCount(configuration.getMaxResultSize() * configuration.getPagesPerQuery());
+    source.setNumberWorkerThreads(configuration.getSourceWorkerThreads());
+    source.setQuerySessionTimeout(configuration.getSourceQuerySessionTimeout());
+    source.setFilterAdapter(new GeotoolsFilterAdapterImpl());
+    source.setResourceReader(new ThumbnailReader());
+    source.setNsiliMetacardType(createMetacardType());
+    source.init();
+
+    // Replace the catalog manager the source resolved with one that times its calls
+    Library library = LibraryHelper.narrow(orb.string_to_object(iorString));
+    CatalogMgr catalogMgr =
+        CatalogMgrHelper.narrow(
+            library.get_manager(
+                NsiliManagerType.CATALOG_MGR.getSpecName(), new AccessCriteria("", "", "")));
+    source.setCatalogMgr(CorbaOperationTimer.time(CatalogMgr.class, catalogMgr, metrics));
+  }
+
+  @Override
+  public void runIteration(Random random) throws Exception {
+    Filter filter = configuration.getQueryMix().next(random).createFilter(filterBuilder);
+    List<Integer> resultSizes = configuration.getResultSizes();
+    int resultSize = resultSizes.get(random.nextInt(resultSizes.size()));
+
+    for (int page = 0; page < configuration.getPagesPerQuery(); page++) {
+      QueryImpl query =
+          new QueryImpl(
+              filter, page * resultSize + 1, resultSize, null, true, QUERY_TIMEOUT_MILLIS);
+
+      long start = System.nanoTime();
+      SourceResponse response;
+      try {
+        response = source.query(new QueryRequestImpl(query));
+      } catch (Exception e) {
+        metrics.recordError(QUERY_OPERATION);
+        throw e;
+      }
+      metrics.recordLatency(QUERY_OPERATION, System.nanoTime() - start);
+
+      if (response.getResults().size() < resultSize) {
+        break;
+      }
+    }
+  }
+
+  @Override
+  public void tearDown() {
+    if (source != null) {
+      source.destroy();
+    }
+    if (orb != null) {
+      orb.shutdown(false);
+      orb.destroy();
+    }
+    if (iorFile != null) {
+      FileUtils.deleteQuietly(iorFile);
+    }
+  }
+
+  /** Creates the metacard type that Alliance registers for NSILI results. */
+  static MetacardType createMetacardType() {
+    return new MetacardTypeImpl(
+        "nsili.aggregate",
+        Arrays.asList(
+            new AssociationsAttributes(),
+            new ContactAttributes(),
+            new MediaAttributes(),
+            new DateTimeAttributes(),
+            new LocationAttributes(),
+            new ValidationAttributes(),
+            new IsrAttributes(),
+            new SecurityAttributes()));
+  }
+
+  /** Hands the source an ORB owned by the load test instead of the Alliance ORB service. */
+  private static class LocalCorbaOrb implements CorbaOrb {
+
+    private final ORB orb;
+
+    LocalCorbaOrb(ORB orb) {
+      this.orb = orb;
+    }
+
+    @Override
+    public ORB getOrb() {
+      return orb;
+    }
+
+    @Override
+    public void shutdown() {
+      orb.shutdown(false);
+    }
+
+    @Override
+    public void addCorbaServiceListener(CorbaServiceListener corbaServiceListener) {
+      // The ORB is never restarted, so there is nothing to notify
+    }
+
+    @Override
+    public void removeCorbaServiceListener(CorbaServiceListener corbaServiceListener) {
+      // The ORB is never restarted, so there is nothing to notify
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import ddf.catalog.data.Metacard;
+import ddf.catalog.operation.ResourceResponse;
+import ddf.catalog.operation.impl.ResourceResponseImpl;
+import ddf.catalog.resource.ResourceNotSupportedException;
+import ddf.catalog.resource.ResourceReader;
+import ddf.catalog.resource.impl.ResourceImpl;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Downloads the thumbnails referenced by NSILI results, standing in for the URL resource reader
+ * that the NsiliSource is given inside Alliance.
+ */
+class ThumbnailReader implements ResourceReader {
+
+  private static final Set<String> SUPPORTED_SCHEMES =
+      Collections.unmodifiableSet(new HashSet<>(Arrays.asList("http", "https", "file")));
+
+  @Override
+  public ResourceResponse retrieveResource(URI uri, Map<String, Serializable> arguments)
+      throws IOException, ResourceNotSupportedException {
+    if (!SUPPORTED_SCHEMES.contains(uri.getScheme())) {
+      throw new ResourceNotSupportedException("Unsupported thumbnail URI: " + uri);
+    }
+
+    // Read the whole thumbnail so the connection is released straight away
+    byte[] thumbnail = IOUtils.toByteArray(uri.toURL());
+    return new ResourceResponseImpl(
+        new ResourceImpl(new ByteArrayInputStream(thumbnail), uri.getPath()));
+  }
+
+  @Override
+  public Set<String> getSupportedSchemes() {
+    return SUPPORTED_SCHEMES;
+  }
+
+  @Override
+  public Set<String> getOptions(Metacard metacard) {
+    return Collections.emptySet();
+  }
+
+  @Override
+  public String getVersion() {
+    return "1.0";
+  }
+
+  @Override
+  public String getId() {
+    return "nsili-loadtest-thumbnail-reader";
+  }
+
+  @Override
+  public String getTitle() {
+    return "NSILI Load Test Thumbnail Reader";
+  }
+
+  @Override
+  public String getDescription() {
+    return "Downloads thumbnails referenced by NSILI results";
+  }
+
+  @Override
+  public String getOrganization() {
+    return "Codice";
+  }
+}
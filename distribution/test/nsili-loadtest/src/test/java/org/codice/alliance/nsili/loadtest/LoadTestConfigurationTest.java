@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.Random;
+import org.codice.alliance.nsili.common.PackagingSpecFormatType;
+import org.junit.Test;
+
+public class LoadTestConfigurationTest {
+
+  @Test
+  public void testDefaults() {
+    LoadTestConfiguration configuration = new LoadTestConfiguration();
+
+    assertThat(configuration.getDrivers(), is(EnumSet.allOf(LoadTestConfiguration.Driver.class)));
+    assertThat(configuration.isInProcessLibrary(), is(true));
+    assertThat(configuration.getLibrary(), is(LoadTestConfiguration.Library.MOCK));
+    assertThat(configuration.getOrderRatio(), is(0.1));
+    assertThat(configuration.getResultSizes(), is(Arrays.asList(10, 100)));
+    assertThat(configuration.getMaxResultSize(), is(100));
+    assertThat(
+        configuration.getOrderPackaging(),
+        is(Arrays.asList(PackagingSpecFormatType.FILESUNC, PackagingSpecFormatType.TARZIP)));
+  }
+
+  @Test
+  public void testProperties() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.DRIVERS, "source");
+    properties.setProperty(LoadTestConfiguration.IOR_URL, " http://localhost:20009/data/ior.txt ");
+    properties.setProperty(LoadTestConfiguration.THREADS, "16");
+    properties.setProperty(LoadTestConfiguration.QUERY_MIX, "spatial, keyword:3");
+    properties.setProperty(LoadTestConfiguration.RESULT_SIZES, "250");
+    properties.setProperty(LoadTestConfiguration.ORDER_RATIO, "0");
+
+    LoadTestConfiguration configuration = new LoadTestConfiguration(properties);
+
+    assertThat(configuration.getDrivers(), is(EnumSet.of(LoadTestConfiguration.Driver.SOURCE)));
+    assertThat(configuration.getIorUrl(), is("http://localhost:20009/data/ior.txt"));
+    assertThat(configuration.isInProcessLibrary(), is(false));
+    assertThat(configuration.getThreads(), is(16));
+    assertThat(configuration.getQueryMix().toString(), is("KEYWORD:3,SPATIAL:1"));
+    assertThat(configuration.getMaxResultSize(), is(250));
+    assertThat(configuration.getOrderRatio(), is(0.0));
+  }
+
+  @Test
+  public void testToPropertiesRoundTrip() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.QUERY_MIX, "TEMPORAL:2,COMBINED");
+    properties.setProperty(LoadTestConfiguration.ORDER_PACKAGING, "FILESZIP");
+    properties.setProperty(LoadTestConfiguration.SEED, "42");
+
+    Properties written = new LoadTestConfiguration(properties).toProperties();
+
+    assertThat(new LoadTestConfiguration(written).toProperties(), is(written));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroThreads() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.THREADS, "0");
+    new LoadTestConfiguration(properties);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOrderRatioAboveOne() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.ORDER_RATIO, "1.5");
+    new LoadTestConfiguration(properties);
+  }
+
+  @Test
+  public void testEndpointLibraryDoesNotOrder() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.LIBRARY, "endpoint");
+
+    LoadTestConfiguration configuration = new LoadTestConfiguration(properties);
+
+    assertThat(configuration.getLibrary(), is(LoadTestConfiguration.Library.ENDPOINT));
+    assertThat(configuration.getOrderRatio(), is(0.0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEndpointLibraryWithOrders() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.LIBRARY, "ENDPOINT");
+    properties.setProperty(LoadTestConfiguration.ORDER_RATIO, "0.5");
+    new LoadTestConfiguration(properties);
+  }
+
+  @Test
+  public void testEndpointLibraryIgnoredForRemoteLibrary() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.LIBRARY, "ENDPOINT");
+    properties.setProperty(LoadTestConfiguration.IOR_URL, "http://localhost:20009/data/ior.txt");
+
+    LoadTestConfiguration configuration = new LoadTestConfiguration(properties);
+
+    assertThat(configuration.isInProcessLibrary(), is(false));
+    assertThat(configuration.getOrderRatio(), is(0.1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownPackaging() {
+    Properties properties = new Properties();
+    properties.setProperty(LoadTestConfiguration.ORDER_PACKAGING, "RAR");
+    new LoadTestConfiguration(properties);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testQueryMixZeroWeight() {
+    QueryMix.parse("KEYWORD:0");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyQueryMix() {
+    QueryMix.parse(" , ");
+  }
+
+  @Test
+  public void testQueryMixSingleType() {
+    QueryMix queryMix = QueryMix.parse("temporal:5");
+    Random random = new Random(0);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(queryMix.next(random), is(QueryType.TEMPORAL));
+    }
+  }
+}
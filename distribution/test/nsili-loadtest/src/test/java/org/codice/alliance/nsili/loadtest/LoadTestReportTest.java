@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.nsili.loadtest;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+
+public class LoadTestReportTest {
+
+  private static final String OPERATION = "submit_query";
+
+  private static final Pattern HISTOGRAM = Pattern.compile("\"histogram\": \"([^\"]+)\"");
+
+  @Test
+  public void testLatenciesOnlyRecordedWhileRecording() {
+    OperationMetrics metrics = new OperationMetrics();
+    metrics.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(5));
+    metrics.recordError(OPERATION);
+
+    metrics.startRecording();
+    metrics.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(1));
+    metrics.recordError(OPERATION);
+    metrics.stopRecording();
+    metrics.recordLatency(OPERATION, TimeUnit.MILLISECONDS.toNanos(5));
+
+    assertThat(metrics.getOperations().contains(OPERATION), is(true));
+    assertThat(metrics.getLatencies(OPERATION).getTotalCount(), is(1L));
+    assertThat(metrics.getLatencies(OPERATION).getMaxValue(), is(1000L));
+    assertThat(metrics.getErrors(OPERATION), is(1L));
+  }
+
+  @Test
+  public void testReportContainsOperations() throws Exception {
+    OperationMetrics metrics = new OperationMetrics();
+    metrics.startRecording();
+    metrics.recordLatency(OPERATION, TimeUnit.MICROSECONDS.toNanos(250));
+    metrics.recordLatency("hit_count.complete", TimeUnit.MICROSECONDS.toNanos(100));
+    metrics.stopRecording();
+
+    LoadTestReport report = new LoadTestReport(new LoadTestConfiguration(), null);
+    report.addDriver("endpoint", 4, metrics);
+    String json = report.toJson();
+
+    assertThat(json, containsString("\"endpoint\": {"));
+    assertThat(json, containsString("\"hit_count.complete\": {"));
+    assertThat(json, containsString("\"p99.9\": 250"));
+    assertThat(json, containsString("\"threads\": 4"));
+    assertThat(json, not(containsString("mockLibrary")));
+  }
+
+  @Test
+  public void testReportHistogramDecodes() throws Exception {
+    OperationMetrics metrics = new OperationMetrics();
+    metrics.startRecording();
+    metrics.recordLatency(OPERATION, TimeUnit.MICROSECONDS.toNanos(42));
+    metrics.recordLatency(OPERATION, TimeUnit.MICROSECONDS.toNanos(4200));
+    metrics.stopRecording();
+
+    LoadTestReport report = new LoadTestReport(new LoadTestConfiguration(), null);
+    report.addDriver("source", 1, metrics);
+    Matcher matcher = HISTOGRAM.matcher(report.toJson());
+
+    assertThat(matcher.find(), is(true));
+    Histogram decoded =
+        Histogram.decodeFromCompressedByteBuffer(
+            ByteBuffer.wrap(Base64.getDecoder().decode(matcher.group(1))), 0);
+    assertThat(decoded, is(metrics.getLatencies(OPERATION)));
+  }
+
+  @Test
+  public void testJsonEscaping() {
+    Map<String, Object> value = new LinkedHashMap<>();
+    value.put("text", "a \"quoted\"\\path\n\u0001");
+    value.put("list", Arrays.asList(1, true, null));
+    value.put("empty", new LinkedHashMap<>());
+    StringBuilder json = new StringBuilder();
+
+    LoadTestReport.appendJson(json, value, "");
+
+    assertThat(
+        json.toString(),
+        is(
+            "{\n  \"text\": \"a \\\"quoted\\\"\\\\path\\n\\u0001\",\n"
+                + "  \"list\": [\n    1,\n    true,\n    null\n  ],\n  \"empty\": {}\n}"));
+  }
+}
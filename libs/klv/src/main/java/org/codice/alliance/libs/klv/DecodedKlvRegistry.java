@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.klv;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
+
+/**
+ * Hands STANAG 4609 metadata that was already decoded (e.g. while a live stream was received) to
+ * the code that would otherwise have to parse the same transport stream again. Entries are keyed
+ * by the identifier of the metacard that will be created for the transport stream.
+ */
+public interface DecodedKlvRegistry {
+
+  /**
+   * @param id metacard identifier (must be non-null)
+   * @param decodedKlv the decoded metadata packets keyed by the packet ID of their metadata stream
+   *     (must be non-null)
+   */
+  void put(String id, Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv);
+
+  /**
+   * Remove and return the decoded metadata for a metacard.
+   *
+   * @param id metacard identifier, may be null
+   * @return the decoded metadata, or {@link Optional#empty()} if none was registered
+   */
+  Optional<Map<Integer, List<DecodedKLVMetadataPacket>>> remove(String id);
+}
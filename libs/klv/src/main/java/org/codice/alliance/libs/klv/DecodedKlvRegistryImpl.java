@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.klv;
+
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
+
+/**
+ * Holds decoded metadata in memory until it is removed. Entries that are never claimed, for
+ * example because the catalog create failed before the input transformer ran, expire.
+ */
+public class DecodedKlvRegistryImpl implements DecodedKlvRegistry {
+
+  private static final long DEFAULT_EXPIRATION_MINUTES = 10;
+
+  private static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+  private final Cache<String, Map<Integer, List<DecodedKLVMetadataPacket>>> decodedKlvCache;
+
+  public DecodedKlvRegistryImpl() {
+    this(DEFAULT_EXPIRATION_MINUTES, TimeUnit.MINUTES);
+  }
+
+  /**
+   * @param expiration how long an unclaimed entry is kept
+   * @param timeUnit unit of the expiration (must be non-null)
+   */
+  public DecodedKlvRegistryImpl(long expiration, TimeUnit timeUnit) {
+    notNull(timeUnit, "timeUnit must be non-null");
+    decodedKlvCache =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(expiration, timeUnit)
+            .maximumSize(DEFAULT_MAXIMUM_SIZE)
+            .build();
+  }
+
+  @Override
+  public void put(String id, Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv) {
+    notNull(id, "id must be non-null");
+    notNull(decodedKlv, "decodedKlv must be non-null");
+    decodedKlvCache.put(id, decodedKlv);
+  }
+
+  @Override
+  public Optional<Map<Integer, List<DecodedKLVMetadataPacket>>> remove(String id) {
+    if (id == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(decodedKlvCache.asMap().remove(id));
+  }
+
+  @Override
+  public String toString() {
+    return "DecodedKlvRegistryImpl{size=" + decodedKlvCache.size() + '}';
+  }
+}
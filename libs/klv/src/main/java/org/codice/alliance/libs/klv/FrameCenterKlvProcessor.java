@@ -31,7 +31,9 @@ import org.slf4j.LoggerFactory;
  * Stanag4609TransportStreamParser#FRAME_CENTER_LONGITUDE} to generate a WKT LINESTRING and store it
  * in the metacard attribute {@link AttributeNameConstants#FRAME_CENTER}. Callers must supply a
  * {@link Configuration} that contains a postive (&gt;0) Integer for {@link
- * Configuration#SUBSAMPLE_COUNT}.
+ * Configuration#SUBSAMPLE_COUNT}. A track that was simplified while it was read is reduced to the
+ * subsample count by raising its tolerance, not by uniform decimation (see {@link
+ * LatitudeLongitudeHandler#asSubsampledHandler(int)}).
  */
 public class FrameCenterKlvProcessor implements KlvProcessor {
 
@@ -14,7 +14,15 @@
 package org.codice.alliance.libs.klv;
 
 import java.util.Map;
+import javax.annotation.Nullable;
 
 public interface KlvHandlerFactory {
   Map<String, KlvHandler> createStanag4609Handlers();
+
+  /**
+   * @param frameCenterSimplificationTolerance tolerance in meters used to simplify the frame
+   *     centers while they are read, may be null to keep every frame center
+   */
+  Map<String, KlvHandler> createStanag4609Handlers(
+      @Nullable Double frameCenterSimplificationTolerance);
 }
@@ -15,6 +15,7 @@ package org.codice.alliance.libs.klv;
 
 import java.util.HashMap;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.codice.alliance.libs.stanag4609.Stanag4609TransportStreamParser;
 import org.codice.ddf.libs.klv.data.numerical.KlvIntegerEncodedFloatingPoint;
 import org.codice.ddf.libs.klv.data.numerical.KlvUnsignedByte;
@@ -25,6 +26,12 @@ public class KlvHandlerFactoryImpl implements KlvHandlerFactory {
 
   @Override
   public Map<String, KlvHandler> createStanag4609Handlers() {
+    return createStanag4609Handlers(null);
+  }
+
+  @Override
+  public Map<String, KlvHandler> createStanag4609Handlers(
+      @Nullable Double frameCenterSimplificationTolerance) {
     final Map<String, KlvHandler> handlers = new HashMap<>();
 
     handlers.put(
@@ -174,7 +181,8 @@ public class KlvHandlerFactoryImpl implements KlvHandlerFactory {
         new LatitudeLongitudeHandler(
             AttributeNameConstants.FRAME_CENTER,
             Stanag4609TransportStreamParser.FRAME_CENTER_LATITUDE,
-            Stanag4609TransportStreamParser.FRAME_CENTER_LONGITUDE);
+            Stanag4609TransportStreamParser.FRAME_CENTER_LONGITUDE,
+            frameCenterSimplificationTolerance);
     handlers.put(Stanag4609TransportStreamParser.FRAME_CENTER_LONGITUDE, frameCenter);
     handlers.put(Stanag4609TransportStreamParser.FRAME_CENTER_LATITUDE, frameCenter);
 
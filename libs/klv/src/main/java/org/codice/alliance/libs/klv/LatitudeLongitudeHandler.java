@@ -13,33 +13,80 @@
  */
 package org.codice.alliance.libs.klv;
 
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+
+import com.vividsolutions.jts.geom.Coordinate;
 import ddf.catalog.data.Attribute;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import org.codice.ddf.libs.klv.KlvDataElement;
 import org.codice.ddf.libs.klv.data.numerical.KlvIntegerEncodedFloatingPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** This handler expects pairs of latitude and longitude values. It generates WKT Points. */
+/**
+ * This handler expects pairs of latitude and longitude values. It generates WKT Points.
+ *
+ * <p>If the handler has a simplification tolerance, each latitude/longitude pair is passed to a
+ * {@link StreamingLinestringSimplifier} as soon as both values have been accepted, so only the
+ * retained pairs are kept instead of every value of the stream.
+ */
 public class LatitudeLongitudeHandler extends BaseKlvHandler implements Trimmable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(LatitudeLongitudeHandler.class);
 
+  /** The tolerance used to start raising a tolerance of 0 when subsampling. */
+  private static final double MIN_SUBSAMPLE_TOLERANCE_METERS = 1;
+
+  /** How many times the tolerance is doubled before falling back to uniform subsampling. */
+  private static final int MAX_TOLERANCE_DOUBLINGS = 20;
+
   private Map<String, List<Double>> map = new HashMap<>();
 
   private String latitudeFieldName;
 
   private String longitudeFieldName;
 
+  private final Double simplificationTolerance;
+
+  private final Deque<Double> pendingLatitudes = new ArrayDeque<>();
+
+  private final Deque<Double> pendingLongitudes = new ArrayDeque<>();
+
+  private StreamingLinestringSimplifier simplifier;
+
   public LatitudeLongitudeHandler(
       String attributeName, String latitudeFieldName, String longitudeFieldName) {
+    this(attributeName, latitudeFieldName, longitudeFieldName, null);
+  }
+
+  /**
+   * @param simplificationTolerance tolerance in meters used to simplify the pairs as they are
+   *     accepted, may be null to keep every pair (must be non-negative)
+   */
+  public LatitudeLongitudeHandler(
+      String attributeName,
+      String latitudeFieldName,
+      String longitudeFieldName,
+      @Nullable Double simplificationTolerance) {
     super(attributeName);
+    if (simplificationTolerance != null) {
+      inclusiveBetween(
+          0,
+          Double.MAX_VALUE,
+          simplificationTolerance,
+          "simplificationTolerance must be non-negative");
+    }
     this.latitudeFieldName = latitudeFieldName;
     this.longitudeFieldName = longitudeFieldName;
+    this.simplificationTolerance = simplificationTolerance;
+    resetSimplifier();
   }
 
   public String getLongitudeFieldName() {
@@ -50,14 +97,31 @@ public class LatitudeLongitudeHandler extends BaseKlvHandler implements Trimmabl
     return latitudeFieldName;
   }
 
+  @Nullable
+  public Double getSimplificationTolerance() {
+    return simplificationTolerance;
+  }
+
   public Map<String, List<Double>> getRawGeoData() {
+    if (simplifier != null) {
+      List<Double> latitudes = new ArrayList<>();
+      List<Double> longitudes = new ArrayList<>();
+      for (Coordinate coordinate : simplifier.getCoordinates()) {
+        latitudes.add(coordinate.y);
+        longitudes.add(coordinate.x);
+      }
+      map.put(latitudeFieldName, latitudes);
+      map.put(longitudeFieldName, longitudes);
+    }
     return map;
   }
 
   @Override
   public Optional<Attribute> asAttribute() {
 
-    int minimumListSize = getMinimumListSize();
+    Map<String, List<Double>> geoData = getRawGeoData();
+
+    int minimumListSize = getMinimumListSize(geoData.values());
 
     List<String> pairs = new ArrayList<>();
 
@@ -65,14 +129,24 @@ public class LatitudeLongitudeHandler extends BaseKlvHandler implements Trimmabl
       pairs.add(
           String.format(
               "POINT (%f %f)",
-              map.get(longitudeFieldName).get(i), map.get(latitudeFieldName).get(i)));
+              geoData.get(longitudeFieldName).get(i), geoData.get(latitudeFieldName).get(i)));
     }
 
     return asAttribute(pairs);
   }
 
+  /**
+   * If the handler has a simplification tolerance, the tolerance is doubled and the simplified
+   * pairs are simplified again until there are at most {@code subsampleCount} of them, so turns in
+   * the track are kept. Uniform subsampling is only used when the handler has no tolerance or the
+   * track still does not fit after {@value #MAX_TOLERANCE_DOUBLINGS} doublings.
+   */
   public LatitudeLongitudeHandler asSubsampledHandler(int subsampleCount) {
 
+    if (simplifier != null) {
+      return asResimplifiedHandler(subsampleCount);
+    }
+
     if (getRawGeoData().isEmpty()) {
       return this;
     }
@@ -92,9 +166,44 @@ public class LatitudeLongitudeHandler extends BaseKlvHandler implements Trimmabl
     return out;
   }
 
+  private LatitudeLongitudeHandler asResimplifiedHandler(int subsampleCount) {
+    Coordinate[] coordinates = simplifier.getCoordinates();
+
+    if (coordinates.length <= subsampleCount) {
+      return this;
+    }
+
+    double tolerance = Math.max(simplificationTolerance, MIN_SUBSAMPLE_TOLERANCE_METERS);
+    for (int i = 0; i < MAX_TOLERANCE_DOUBLINGS && coordinates.length > subsampleCount; i++) {
+      tolerance *= 2;
+      coordinates = StreamingLinestringSimplifier.simplify(coordinates, tolerance);
+    }
+
+    LatitudeLongitudeHandler out =
+        new LatitudeLongitudeHandler(
+            getAttributeName(), getLatitudeFieldName(), getLongitudeFieldName());
+
+    for (Coordinate coordinate : coordinates) {
+      out.accept(latitudeFieldName, coordinate.y);
+      out.accept(longitudeFieldName, coordinate.x);
+    }
+
+    LOGGER.trace(
+        "simplified the track to {} pairs with a tolerance of {} meters",
+        coordinates.length,
+        tolerance);
+
+    return out.asSubsampledHandler(subsampleCount);
+  }
+
   /** Trim the arrays of lat and lon values to the same length. */
   @Override
   public void trim() {
+    if (simplifier != null) {
+      // unpaired values are never passed to the simplifier
+      return;
+    }
+
     int minListSize = getMinimumListSize();
 
     map.keySet()
@@ -115,19 +224,41 @@ public class LatitudeLongitudeHandler extends BaseKlvHandler implements Trimmabl
           klvDataElement);
       return;
     }
-    map.putIfAbsent(klvDataElement.getName(), new ArrayList<>());
-    map.get(klvDataElement.getName())
-        .add(((KlvIntegerEncodedFloatingPoint) klvDataElement).getValue());
+    accept(klvDataElement.getName(), ((KlvIntegerEncodedFloatingPoint) klvDataElement).getValue());
   }
 
   @Override
   public void reset() {
     map.clear();
+    resetSimplifier();
   }
 
   public void accept(String name, Double value) {
-    map.putIfAbsent(name, new ArrayList<>());
-    map.get(name).add(value);
+    if (simplifier != null && latitudeFieldName.equals(name)) {
+      pendingLatitudes.add(value);
+      simplifyPendingPairs();
+    } else if (simplifier != null && longitudeFieldName.equals(name)) {
+      pendingLongitudes.add(value);
+      simplifyPendingPairs();
+    } else {
+      map.putIfAbsent(name, new ArrayList<>());
+      map.get(name).add(value);
+    }
+  }
+
+  private void simplifyPendingPairs() {
+    while (!pendingLatitudes.isEmpty() && !pendingLongitudes.isEmpty()) {
+      simplifier.add(new Coordinate(pendingLongitudes.remove(), pendingLatitudes.remove()));
+    }
+  }
+
+  private void resetSimplifier() {
+    pendingLatitudes.clear();
+    pendingLongitudes.clear();
+    simplifier =
+        simplificationTolerance == null
+            ? null
+            : new StreamingLinestringSimplifier(simplificationTolerance);
   }
 
   private int getMinimumListSize() {
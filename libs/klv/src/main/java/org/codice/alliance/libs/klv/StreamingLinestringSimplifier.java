@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.klv;
+
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+import static org.apache.commons.lang3.Validate.isTrue;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Simplifies a track of longitude/latitude coordinates one coordinate at a time with an opening
+ * window. The window grows from the last retained coordinate (the anchor) until a coordinate in it
+ * is farther than the tolerance from the segment between the anchor and the newest coordinate. The
+ * coordinate before the newest one is then retained and becomes the next anchor.
+ *
+ * <p>Every dropped coordinate is within the tolerance of the segment between the retained
+ * coordinates on either side of it. Besides the retained coordinates, at most {@code maxWindowSize}
+ * coordinates are held, so the memory used does not depend on the length of the track. Distances
+ * are measured in meters on a local equirectangular projection around the anchor.
+ */
+@NotThreadSafe
+public class StreamingLinestringSimplifier {
+
+  public static final int DEFAULT_MAX_WINDOW_SIZE = 500;
+
+  private static final double EARTH_MEAN_RADIUS_METERS = 6_371_008.8;
+
+  private static final double METERS_PER_DEGREE = EARTH_MEAN_RADIUS_METERS * Math.PI / 180;
+
+  private final double toleranceMeters;
+
+  private final double toleranceMetersSquared;
+
+  private final int maxWindowSize;
+
+  private final List<Coordinate> retained = new ArrayList<>();
+
+  private final List<Coordinate> window = new ArrayList<>();
+
+  /** The window coordinates in meters from the anchor, so each is projected only once. */
+  private double[] windowMeters = new double[32];
+
+  private Coordinate anchor;
+
+  private double anchorMetersPerDegreeLongitude;
+
+  private long inputCount;
+
+  /** @param toleranceMeters must be non-negative */
+  public StreamingLinestringSimplifier(double toleranceMeters) {
+    this(toleranceMeters, DEFAULT_MAX_WINDOW_SIZE);
+  }
+
+  /**
+   * @param toleranceMeters must be non-negative
+   * @param maxWindowSize must be greater than zero
+   */
+  public StreamingLinestringSimplifier(double toleranceMeters, int maxWindowSize) {
+    inclusiveBetween(0, Double.MAX_VALUE, toleranceMeters, "toleranceMeters must be non-negative");
+    isTrue(maxWindowSize > 0, "maxWindowSize must be greater than zero");
+    this.toleranceMeters = toleranceMeters;
+    this.toleranceMetersSquared = toleranceMeters * toleranceMeters;
+    this.maxWindowSize = maxWindowSize;
+  }
+
+  /**
+   * Simplify a complete array of coordinates.
+   *
+   * @param coordinates must be non-null
+   * @param toleranceMeters must be non-negative
+   * @return the retained coordinates
+   */
+  public static Coordinate[] simplify(Coordinate[] coordinates, double toleranceMeters) {
+    StreamingLinestringSimplifier simplifier = new StreamingLinestringSimplifier(toleranceMeters);
+    for (Coordinate coordinate : coordinates) {
+      simplifier.add(coordinate);
+    }
+    return simplifier.getCoordinates();
+  }
+
+  /** @param coordinate x is the longitude and y is the latitude, must be non-null */
+  public void add(Coordinate coordinate) {
+    inputCount++;
+
+    if (anchor == null) {
+      setAnchor(coordinate);
+      return;
+    }
+
+    if (!window.isEmpty() && coordinate.equals2D(window.get(window.size() - 1))) {
+      return;
+    }
+
+    if (window.size() >= maxWindowSize || !isWindowWithinTolerance(coordinate)) {
+      setAnchor(window.get(window.size() - 1));
+      window.clear();
+    }
+
+    addToWindow(coordinate);
+  }
+
+  /**
+   * @return the retained coordinates followed by the most recently added coordinate, which is
+   *     always kept so the simplified track ends where the input does
+   */
+  public Coordinate[] getCoordinates() {
+    Coordinate[] coordinates = new Coordinate[retained.size() + (window.isEmpty() ? 0 : 1)];
+    retained.toArray(coordinates);
+    if (!window.isEmpty()) {
+      coordinates[coordinates.length - 1] = window.get(window.size() - 1);
+    }
+    return coordinates;
+  }
+
+  /** @return the number of coordinates passed to {@link #add(Coordinate)} */
+  public long getInputCount() {
+    return inputCount;
+  }
+
+  public double getToleranceMeters() {
+    return toleranceMeters;
+  }
+
+  private void setAnchor(Coordinate coordinate) {
+    anchor = coordinate;
+    anchorMetersPerDegreeLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(coordinate.y));
+    retained.add(coordinate);
+  }
+
+  private void addToWindow(Coordinate coordinate) {
+    int index = window.size() * 2;
+    if (index == windowMeters.length) {
+      windowMeters = Arrays.copyOf(windowMeters, windowMeters.length * 2);
+    }
+    windowMeters[index] = toMetersX(coordinate);
+    windowMeters[index + 1] = toMetersY(coordinate);
+    window.add(coordinate);
+  }
+
+  private boolean isWindowWithinTolerance(Coordinate end) {
+    double endX = toMetersX(end);
+    double endY = toMetersY(end);
+    double lengthSquared = endX * endX + endY * endY;
+
+    for (int i = 0; i < window.size() * 2; i += 2) {
+      double distanceSquared =
+          distanceToSegmentSquared(windowMeters[i], windowMeters[i + 1], endX, endY, lengthSquared);
+      if (distanceSquared > toleranceMetersSquared) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The squared distance from the point (x, y) to the segment from the origin (the anchor) to
+   * (endX, endY).
+   */
+  private static double distanceToSegmentSquared(
+      double x, double y, double endX, double endY, double lengthSquared) {
+    double t = lengthSquared == 0 ? 0 : (x * endX + y * endY) / lengthSquared;
+    t = Math.max(0, Math.min(1, t));
+    double dx = x - t * endX;
+    double dy = y - t * endY;
+    return dx * dx + dy * dy;
+  }
+
+  private double toMetersX(Coordinate coordinate) {
+    double deltaLongitude = coordinate.x - anchor.x;
+    if (deltaLongitude > 180) {
+      deltaLongitude -= 360;
+    } else if (deltaLongitude < -180) {
+      deltaLongitude += 360;
+    }
+    return deltaLongitude * anchorMetersPerDegreeLongitude;
+  }
+
+  private double toMetersY(Coordinate coordinate) {
+    return (coordinate.y - anchor.y) * METERS_PER_DEGREE;
+  }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.klv;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.codice.alliance.libs.stanag4609.DecodedKLVMetadataPacket;
+import org.junit.Test;
+
+public class DecodedKlvRegistryImplTest {
+
+  @Test
+  public void testRemoveReturnsEntryOnce() {
+    DecodedKlvRegistryImpl registry = new DecodedKlvRegistryImpl();
+    Map<Integer, List<DecodedKLVMetadataPacket>> decodedKlv =
+        Collections.singletonMap(1, Collections.singletonList(mock(DecodedKLVMetadataPacket.class)));
+
+    registry.put("id", decodedKlv);
+
+    assertThat(registry.remove("id").get(), is(decodedKlv));
+    assertThat(registry.remove("id").isPresent(), is(false));
+  }
+
+  @Test
+  public void testRemoveUnknownId() {
+    DecodedKlvRegistryImpl registry = new DecodedKlvRegistryImpl();
+
+    assertThat(registry.remove("id").isPresent(), is(false));
+    assertThat(registry.remove(null).isPresent(), is(false));
+  }
+
+  @Test
+  public void testEntriesExpire() throws InterruptedException {
+    DecodedKlvRegistryImpl registry = new DecodedKlvRegistryImpl(1, TimeUnit.MILLISECONDS);
+
+    registry.put("id", Collections.emptyMap());
+    Thread.sleep(10);
+
+    assertThat(registry.remove("id").isPresent(), is(false));
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void testPutNullId() {
+    new DecodedKlvRegistryImpl().put(null, Collections.emptyMap());
+  }
+}
@@ -14,9 +14,11 @@
 package org.codice.alliance.libs.klv;
 
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.util.Map;
+import org.codice.alliance.libs.stanag4609.Stanag4609TransportStreamParser;
 import org.junit.Test;
 
 public class KlvHandlerFactoryImplTest {
@@ -30,4 +32,23 @@ public class KlvHandlerFactoryImplTest {
 
     assertThat(handlers.isEmpty(), is(false));
   }
+
+  @Test
+  public void testFrameCenterSimplificationTolerance() {
+
+    KlvHandlerFactoryImpl klvHandlerFactory = new KlvHandlerFactoryImpl();
+
+    Map<String, KlvHandler> handlers = klvHandlerFactory.createStanag4609Handlers(10.0);
+
+    assertThat(frameCenterHandler(handlers).getSimplificationTolerance(), is(10.0));
+    assertThat(
+        frameCenterHandler(klvHandlerFactory.createStanag4609Handlers())
+            .getSimplificationTolerance(),
+        is(nullValue()));
+  }
+
+  private LatitudeLongitudeHandler frameCenterHandler(Map<String, KlvHandler> handlers) {
+    return (LatitudeLongitudeHandler)
+        handlers.get(Stanag4609TransportStreamParser.FRAME_CENTER_LATITUDE);
+  }
 }
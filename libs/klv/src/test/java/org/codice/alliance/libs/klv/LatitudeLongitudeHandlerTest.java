@@ -14,6 +14,7 @@
 package org.codice.alliance.libs.klv;
 
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
@@ -173,6 +174,83 @@ public class LatitudeLongitudeHandlerTest {
     assertThatCount(reducedRawData, lon, count);
   }
 
+  @Test
+  public void testSimplifyWhileAccepting() {
+    LatitudeLongitudeHandler simplifyingHandler =
+        new LatitudeLongitudeHandler("field", LAT, LON, 1.0);
+
+    // a straight line north followed by a turn east; the values arrive in either order
+    for (int i = 0; i <= 100; i++) {
+      simplifyingHandler.accept(LAT, i * 0.0001);
+      simplifyingHandler.accept(LON, 0.0);
+    }
+    for (int i = 1; i <= 100; i++) {
+      simplifyingHandler.accept(LON, i * 0.0001);
+      simplifyingHandler.accept(LAT, 0.01);
+    }
+
+    Map<String, List<Double>> data = simplifyingHandler.getRawGeoData();
+
+    assertThat(data.get(LAT), hasSize(3));
+    assertThat(data.get(LON), hasSize(3));
+    assertThat(data.get(LAT).get(1), is(closeTo(0.01, EPSILON)));
+    assertThat(data.get(LON).get(1), is(closeTo(0.0, EPSILON)));
+    assertThat(data.get(LON).get(2), is(closeTo(0.01, EPSILON)));
+  }
+
+  @Test
+  public void testSimplifyingHandlerReset() {
+    LatitudeLongitudeHandler simplifyingHandler =
+        new LatitudeLongitudeHandler("field", LAT, LON, 1.0);
+    simplifyingHandler.accept(LAT, 1.0);
+    simplifyingHandler.accept(LON, 2.0);
+
+    simplifyingHandler.reset();
+
+    assertThat(simplifyingHandler.asAttribute().isPresent(), is(false));
+  }
+
+  @Test
+  public void testSimplifyingHandlerRaisesToleranceToSubsample() {
+    LatitudeLongitudeHandler simplifyingHandler =
+        new LatitudeLongitudeHandler("field", LAT, LON, 1.0);
+
+    // a line north with a 5 meter zig zag followed by a turn east, so uniform subsampling to 3
+    // pairs would miss the turn
+    for (int i = 0; i <= 100; i++) {
+      simplifyingHandler.accept(LAT, i * 0.0001);
+      simplifyingHandler.accept(LON, i % 2 == 0 ? 0.0 : 0.00005);
+    }
+    for (int i = 1; i <= 100; i++) {
+      simplifyingHandler.accept(LAT, 0.01);
+      simplifyingHandler.accept(LON, i * 0.0001);
+    }
+
+    assertThat(simplifyingHandler.getRawGeoData().get(LAT).size(), greaterThan(3));
+
+    Map<String, List<Double>> data = simplifyingHandler.asSubsampledHandler(3).getRawGeoData();
+
+    assertThat(data.get(LAT), hasSize(3));
+    assertThat(data.get(LON), hasSize(3));
+    assertThat(data.get(LAT).get(1), is(closeTo(0.01, EPSILON)));
+    assertThat(data.get(LON).get(2), is(closeTo(0.01, EPSILON)));
+  }
+
+  @Test
+  public void testSimplifyingHandlerUnderSubsampleCount() {
+    LatitudeLongitudeHandler simplifyingHandler =
+        new LatitudeLongitudeHandler("field", LAT, LON, 1.0);
+    simplifyingHandler.accept(LAT, 1.0);
+    simplifyingHandler.accept(LON, 2.0);
+
+    assertThat(simplifyingHandler.asSubsampledHandler(3), is(simplifyingHandler));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeSimplificationTolerance() {
+    new LatitudeLongitudeHandler("field", LAT, LON, -1.0);
+  }
+
   private void assertThatCount(Map<String, List<Double>> rawData, String name, int count) {
     assertThat(rawData.get(name), hasSize(count));
   }
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.klv;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures reducing the synthetic flight path of {@link StreamingLinestringSimplifierTest} to the
+ * default subsample count, with and without a simplification tolerance. The accuracy of both is
+ * reported by {@link
+ * StreamingLinestringSimplifierTest#testSubsampledAccuracyOnSyntheticFlightPath}. This is not a
+ * unit test; run it with {@link #main}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingLinestringSimplifierBenchmark {
+
+  private List<Coordinate> track;
+
+  @Setup
+  public void setUp() {
+    track = StreamingLinestringSimplifierTest.createFlightPath();
+  }
+
+  @Benchmark
+  public Coordinate[] uniformSubsample() {
+    return StreamingLinestringSimplifierTest.subsample(
+        track, new LatitudeLongitudeHandler("field", "lat", "lon"));
+  }
+
+  @Benchmark
+  public Coordinate[] simplifyAndSubsample() {
+    return StreamingLinestringSimplifierTest.subsample(
+        track,
+        new LatitudeLongitudeHandler(
+            "field", "lat", "lon", StreamingLinestringSimplifierTest.TOLERANCE_METERS));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(StreamingLinestringSimplifierBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
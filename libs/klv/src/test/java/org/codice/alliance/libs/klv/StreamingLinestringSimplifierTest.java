@@ -0,0 +1,308 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.klv;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class StreamingLinestringSimplifierTest {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(StreamingLinestringSimplifierTest.class);
+
+  private static final double METERS_PER_DEGREE = 6_371_008.8 * Math.PI / 180;
+
+  /** Allows for the difference between the projection used here and the one around the anchor. */
+  private static final double PROJECTION_SLACK = 1.01;
+
+  static final double TOLERANCE_METERS = 10;
+
+  /** The default subsample count of the MPEG-TS input transformer. */
+  static final int SUBSAMPLE_COUNT = 50;
+
+  @Test
+  public void testStraightLineKeepsEndpoints() {
+    List<Coordinate> track = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      track.add(new Coordinate(-112 + i * 0.0001, 33 + i * 0.0001));
+    }
+
+    Coordinate[] simplified = simplify(track, TOLERANCE_METERS);
+
+    assertThat(simplified.length, is(2));
+    assertThat(simplified[0], is(track.get(0)));
+    assertThat(simplified[1], is(track.get(track.size() - 1)));
+  }
+
+  @Test
+  public void testSingleCoordinate() {
+    StreamingLinestringSimplifier simplifier = new StreamingLinestringSimplifier(TOLERANCE_METERS);
+    simplifier.add(new Coordinate(1, 1));
+
+    assertThat(simplifier.getCoordinates().length, is(1));
+    assertThat(simplifier.getInputCount(), is(1L));
+  }
+
+  @Test
+  public void testRepeatedCoordinatesAreDropped() {
+    StreamingLinestringSimplifier simplifier = new StreamingLinestringSimplifier(0);
+    for (int i = 0; i < 10; i++) {
+      simplifier.add(new Coordinate(1, 1));
+    }
+    for (int i = 0; i < 10; i++) {
+      simplifier.add(new Coordinate(1, 2));
+    }
+
+    assertThat(simplifier.getCoordinates().length, is(2));
+    assertThat(simplifier.getInputCount(), is(20L));
+  }
+
+  @Test
+  public void testWindowIsBounded() {
+    StreamingLinestringSimplifier simplifier =
+        new StreamingLinestringSimplifier(TOLERANCE_METERS, 10);
+    for (int i = 0; i < 100; i++) {
+      simplifier.add(new Coordinate(i * 0.0001, 0));
+    }
+
+    // the window is closed every 10 coordinates even though the track is straight
+    assertThat(simplifier.getCoordinates().length, is(11));
+  }
+
+  @Test
+  public void testTurnIsKept() {
+    List<Coordinate> track = new ArrayList<>();
+    for (int i = 0; i <= 100; i++) {
+      track.add(new Coordinate(i * 0.0001, 0));
+    }
+    Coordinate turn = track.get(track.size() - 1);
+    for (int i = 1; i <= 100; i++) {
+      track.add(new Coordinate(turn.x, i * 0.0001));
+    }
+
+    Coordinate[] simplified = simplify(track, TOLERANCE_METERS);
+
+    assertThat(simplified.length, is(3));
+    assertThat(simplified[1], is(turn));
+  }
+
+  @Test
+  public void testAntimeridianCrossing() {
+    List<Coordinate> track = new ArrayList<>();
+    for (int i = -50; i <= 50; i++) {
+      double longitude = 180 + i * 0.0001;
+      track.add(new Coordinate(longitude > 180 ? longitude - 360 : longitude, 10));
+    }
+
+    assertThat(simplify(track, TOLERANCE_METERS).length, is(2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeTolerance() {
+    new StreamingLinestringSimplifier(-1);
+  }
+
+  /**
+   * Simplifies a synthetic flight path at 30 frames per second (orbits, straight legs and a lawn
+   * mower search pattern with GPS noise) and checks the reduction and the largest error against the
+   * largest error of uniform decimation to the same number of coordinates.
+   */
+  @Test
+  public void testAccuracyOnSyntheticFlightPath() {
+    List<Coordinate> track = createFlightPath();
+
+    Coordinate[] simplified = simplify(track, TOLERANCE_METERS);
+
+    double maxError = maxError(track, simplified);
+    double decimatedMaxError = maxError(track, decimate(track, simplified.length));
+
+    LOGGER.info(
+        "simplified {} frame centers to {} with a max error of {} m (tolerance {} m);"
+            + " uniform decimation to the same count has a max error of {} m",
+        track.size(),
+        simplified.length,
+        maxError,
+        TOLERANCE_METERS,
+        decimatedMaxError);
+
+    assertThat(maxError, lessThanOrEqualTo(TOLERANCE_METERS * PROJECTION_SLACK));
+    assertThat(simplified.length, lessThan(track.size() / 10));
+    assertThat(maxError, lessThan(decimatedMaxError));
+  }
+
+  /**
+   * Subsamples the synthetic flight path to the default subsample count of the MPEG-TS input
+   * transformer with and without a simplification tolerance, and checks that simplifying keeps the
+   * subsampled track closer to the frame centers than uniform subsampling.
+   */
+  @Test
+  public void testSubsampledAccuracyOnSyntheticFlightPath() {
+    List<Coordinate> track = createFlightPath();
+
+    Coordinate[] simplified =
+        subsample(track, new LatitudeLongitudeHandler("field", "lat", "lon", TOLERANCE_METERS));
+    Coordinate[] decimated = subsample(track, new LatitudeLongitudeHandler("field", "lat", "lon"));
+
+    double maxError = maxDistanceToLine(track, simplified);
+    double decimatedMaxError = maxDistanceToLine(track, decimated);
+
+    LOGGER.info(
+        "subsampled {} frame centers to {} with a max error of {} m when simplifying and {} m"
+            + " when uniformly subsampling",
+        track.size(),
+        SUBSAMPLE_COUNT,
+        maxError,
+        decimatedMaxError);
+
+    assertThat(simplified.length, lessThanOrEqualTo(SUBSAMPLE_COUNT));
+    assertThat(decimated.length, is(SUBSAMPLE_COUNT));
+    assertThat(maxError, lessThan(decimatedMaxError));
+  }
+
+  static Coordinate[] subsample(List<Coordinate> track, LatitudeLongitudeHandler handler) {
+    for (Coordinate coordinate : track) {
+      handler.accept("lat", coordinate.y);
+      handler.accept("lon", coordinate.x);
+    }
+
+    Map<String, List<Double>> data = handler.asSubsampledHandler(SUBSAMPLE_COUNT).getRawGeoData();
+
+    Coordinate[] coordinates = new Coordinate[data.get("lat").size()];
+    for (int i = 0; i < coordinates.length; i++) {
+      coordinates[i] = new Coordinate(data.get("lon").get(i), data.get("lat").get(i));
+    }
+    return coordinates;
+  }
+
+  private static Coordinate[] simplify(List<Coordinate> track, double toleranceMeters) {
+    return StreamingLinestringSimplifier.simplify(
+        track.toArray(new Coordinate[track.size()]), toleranceMeters);
+  }
+
+  /** 30 frames per second at 60 m/s, 2 m between frames, starting at 45N 75W. */
+  static List<Coordinate> createFlightPath() {
+    Random random = new Random(4609);
+    List<double[]> meters = new ArrayList<>();
+
+    double x = 0;
+    double y = 0;
+    double step = 2;
+
+    // two orbits with a 1 km radius
+    for (int i = 0; i < 2 * 3142; i++) {
+      double angle = i * step / 1000;
+      meters.add(new double[] {1000 * Math.sin(angle), 1000 - 1000 * Math.cos(angle)});
+    }
+
+    // a 5 km straight leg
+    for (int i = 0; i < 2500; i++) {
+      x += step;
+      meters.add(new double[] {x, y});
+    }
+
+    // a lawn mower search with 1 km rows 200 m apart
+    for (int row = 0; row < 10; row++) {
+      double direction = row % 2 == 0 ? 1 : -1;
+      for (int i = 0; i < 500; i++) {
+        x += direction * step;
+        meters.add(new double[] {x, y});
+      }
+      for (int i = 0; i < 100; i++) {
+        y += step;
+        meters.add(new double[] {x, y});
+      }
+    }
+
+    double latitude = 45;
+    double longitude = -75;
+    double metersPerDegreeLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+
+    List<Coordinate> track = new ArrayList<>(meters.size());
+    for (double[] point : meters) {
+      double noisyX = point[0] + random.nextGaussian();
+      double noisyY = point[1] + random.nextGaussian();
+      track.add(
+          new Coordinate(
+              longitude + noisyX / metersPerDegreeLongitude,
+              latitude + noisyY / METERS_PER_DEGREE));
+    }
+    return track;
+  }
+
+  private static Coordinate[] decimate(List<Coordinate> track, int count) {
+    Coordinate[] decimated = new Coordinate[count];
+    for (int i = 0; i < count - 1; i++) {
+      decimated[i] = track.get(i * track.size() / count);
+    }
+    decimated[count - 1] = track.get(track.size() - 1);
+    return decimated;
+  }
+
+  /**
+   * The largest distance between a coordinate of the track and the segment between the retained
+   * coordinates on either side of it. The retained coordinates are the same instances as the track
+   * coordinates.
+   */
+  private static double maxError(List<Coordinate> track, Coordinate[] retained) {
+    double maxError = 0;
+    int next = 1;
+    for (Coordinate coordinate : track) {
+      if (next < retained.length && coordinate == retained[next]) {
+        next++;
+        continue;
+      }
+      if (next < retained.length) {
+        maxError =
+            Math.max(maxError, distanceToSegment(coordinate, retained[next - 1], retained[next]));
+      }
+    }
+    return maxError;
+  }
+
+  /** The largest distance between a coordinate of the track and the closest segment of the line. */
+  private static double maxDistanceToLine(List<Coordinate> track, Coordinate[] line) {
+    double maxError = 0;
+    for (Coordinate coordinate : track) {
+      double distance = Double.MAX_VALUE;
+      for (int i = 1; i < line.length; i++) {
+        distance = Math.min(distance, distanceToSegment(coordinate, line[i - 1], line[i]));
+      }
+      maxError = Math.max(maxError, distance);
+    }
+    return maxError;
+  }
+
+  private static double distanceToSegment(Coordinate point, Coordinate start, Coordinate end) {
+    double metersPerDegreeLongitude = METERS_PER_DEGREE * Math.cos(Math.toRadians(point.y));
+    double px = (point.x - start.x) * metersPerDegreeLongitude;
+    double py = (point.y - start.y) * METERS_PER_DEGREE;
+    double ex = (end.x - start.x) * metersPerDegreeLongitude;
+    double ey = (end.y - start.y) * METERS_PER_DEGREE;
+    double lengthSquared = ex * ex + ey * ey;
+    double t = lengthSquared == 0 ? 0 : (px * ex + py * ey) / lengthSquared;
+    t = Math.max(0, Math.min(1, t));
+    return Math.hypot(px - t * ex, py - t * ey);
+  }
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.mpegts;
+
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.taktik.mpegts.MTSPacket;
+
+/**
+ * Read MPEG-TS packets from a file through read-only memory mappings of the file. Files larger than
+ * the mapping window are mapped one window at a time.
+ *
+ * <p>Every packet must start with the sync byte. When it does not, or after {@link #seek(long)},
+ * the reader skips ahead to the next offset where {@value #RESYNC_PACKET_COUNT} consecutive packets
+ * start with the sync byte.
+ *
+ * <p>The PID of each packet is read from the mapped header and checked against the PID filter
+ * before the packet is copied, so the packets of other PIDs are skipped without being copied.
+ *
+ * <p>This is not thread-safe.
+ */
+public class MappedTSPacketReader implements Closeable {
+
+  public static final int SYNC_BYTE = 0x47;
+
+  static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+  /** The number of consecutive packets that must start with the sync byte to resynchronize. */
+  static final int RESYNC_PACKET_COUNT = 3;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MappedTSPacketReader.class);
+
+  private static final int PID_HIGH_MASK = 0x1F;
+
+  private static final int BYTE_MASK = 0xFF;
+
+  private final FileChannel channel;
+
+  private final long size;
+
+  private final long windowSize;
+
+  private MappedByteBuffer window;
+
+  private long windowStart;
+
+  private long position;
+
+  private boolean inSync;
+
+  private IntPredicate pidFilter = pid -> true;
+
+  private long resyncCount;
+
+  private long skippedByteCount;
+
+  /** @param path must be non-null and readable */
+  public MappedTSPacketReader(Path path) throws IOException {
+    this(path, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * @param path must be non-null and readable
+   * @param windowSize the number of bytes mapped at a time, must be large enough to hold the
+   *     packets checked when resynchronizing
+   */
+  MappedTSPacketReader(Path path, long windowSize) throws IOException {
+    notNull(path, "path must be non-null");
+    inclusiveBetween(
+        (long) Constants.TS_PACKET_SIZE * (RESYNC_PACKET_COUNT + 1),
+        (long) Integer.MAX_VALUE,
+        windowSize,
+        "windowSize must hold the packets checked when resynchronizing");
+
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.windowSize = windowSize;
+  }
+
+  /**
+   * Only packets with a PID accepted by the filter are returned by {@link #nextPacket()}. The
+   * filter is called for every packet, so it should be cheap.
+   *
+   * @param pidFilter must be non-null
+   */
+  public void setPidFilter(IntPredicate pidFilter) {
+    notNull(pidFilter, "pidFilter must be non-null");
+    this.pidFilter = pidFilter;
+  }
+
+  /**
+   * Move the reader to a byte offset. The next packet is read from the first offset at or after
+   * {@code byteOffset} where the packets are in sync.
+   *
+   * @param byteOffset must be non-negative and not larger than the file size
+   */
+  public void seek(long byteOffset) {
+    inclusiveBetween(0, size, byteOffset, "byteOffset must be within the file");
+    position = byteOffset;
+    inSync = false;
+  }
+
+  /** @return the byte offset of the next packet to be read */
+  public long getPosition() {
+    return position;
+  }
+
+  /** @return the size of the file in bytes */
+  public long size() {
+    return size;
+  }
+
+  /** @return the number of times a packet did not start with the sync byte */
+  public long getResyncCount() {
+    return resyncCount;
+  }
+
+  /** @return the number of bytes skipped to find packets that are in sync */
+  public long getSkippedByteCount() {
+    return skippedByteCount;
+  }
+
+  /**
+   * @return the next packet accepted by the PID filter, or null at the end of the file
+   * @throws IOException if the file cannot be mapped
+   */
+  public MTSPacket nextPacket() throws IOException {
+    while (true) {
+      if (!inSync && !resynchronize()) {
+        return null;
+      }
+
+      if (position + Constants.TS_PACKET_SIZE > size) {
+        return null;
+      }
+
+      map(position, Constants.TS_PACKET_SIZE);
+      int offset = (int) (position - windowStart);
+
+      if ((window.get(offset) & BYTE_MASK) != SYNC_BYTE) {
+        LOGGER.debug("lost sync at byte offset {}", position);
+        resyncCount++;
+        inSync = false;
+        continue;
+      }
+
+      int pid =
+          ((window.get(offset + 1) & PID_HIGH_MASK) << 8) | (window.get(offset + 2) & BYTE_MASK);
+
+      position += Constants.TS_PACKET_SIZE;
+
+      if (pidFilter.test(pid)) {
+        return new MTSPacket(copyPacket(offset));
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  private ByteBuffer copyPacket(int offset) {
+    byte[] bytes = new byte[Constants.TS_PACKET_SIZE];
+    ByteBuffer source = window.duplicate();
+    source.position(offset);
+    source.get(bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+
+  /**
+   * Find the first offset at or after the current position where the packets are in sync.
+   *
+   * @return false if the end of the file was reached first
+   */
+  private boolean resynchronize() throws IOException {
+    long start = position;
+    for (long offset = position; offset + Constants.TS_PACKET_SIZE <= size; offset++) {
+      if (isInSyncAt(offset)) {
+        if (offset != start) {
+          LOGGER.debug(
+              "resynchronized at byte offset {}, skipped {} bytes", offset, offset - start);
+        }
+        skippedByteCount += offset - start;
+        position = offset;
+        inSync = true;
+        return true;
+      }
+    }
+    skippedByteCount += size - start;
+    position = size;
+    return false;
+  }
+
+  /**
+   * Near the end of the file, fewer than {@link #RESYNC_PACKET_COUNT} packets may remain. Then all
+   * of the remaining complete packets must start with the sync byte.
+   */
+  private boolean isInSyncAt(long offset) throws IOException {
+    for (int i = 0; i < RESYNC_PACKET_COUNT; i++) {
+      long packetStart = offset + (long) i * Constants.TS_PACKET_SIZE;
+      if (packetStart + Constants.TS_PACKET_SIZE > size) {
+        return i > 0;
+      }
+      map(packetStart, 1);
+      if ((window.get((int) (packetStart - windowStart)) & BYTE_MASK) != SYNC_BYTE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Make sure the bytes from {@code offset} to {@code offset + length} are in the window. */
+  private void map(long offset, int length) throws IOException {
+    if (window != null
+        && offset >= windowStart
+        && offset + length <= windowStart + window.limit()) {
+      return;
+    }
+    long mapSize = Math.min(windowSize, size - offset);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, offset, mapSize);
+    windowStart = offset;
+  }
+}
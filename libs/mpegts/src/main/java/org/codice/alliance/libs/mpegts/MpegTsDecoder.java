@@ -14,6 +14,7 @@
 package org.codice.alliance.libs.mpegts;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.function.Consumer;
 import org.taktik.mpegts.MTSPacket;
 
@@ -27,4 +28,18 @@ public interface MpegTsDecoder {
    * @throws IOException
    */
   void read(MTSPacket mtsPacket, Consumer<PESPacket> callback) throws IOException;
+
+  /**
+   * @param pid packet identifier
+   * @return true if the pid carries the program association table or a program map table that was
+   *     announced in the program association table
+   */
+  boolean isProgramSpecificInformation(int pid);
+
+  /**
+   * @param pid packet identifier
+   * @return the type of the elementary stream carried by the pid, if it was announced in a program
+   *     map table that was already read
+   */
+  Optional<MpegStreamType> getStreamType(int pid);
 }
@@ -20,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 import org.apache.commons.lang3.ArrayUtils;
@@ -62,6 +63,19 @@ public class MpegTsDecoderImpl implements MpegTsDecoder {
     }
   }
 
+  @Override
+  public boolean isProgramSpecificInformation(int pid) {
+    return pid == Constants.PROGRAM_ASSOCIATION_TABLE_PID
+        || programMapTablePacketIdDirectory.contains(pid);
+  }
+
+  @Override
+  public Optional<MpegStreamType> getStreamType(int pid) {
+    return Optional.ofNullable(programElementaryStreams.get(pid))
+        .map(PMTSection.PMTStream::getStreamType)
+        .map(MpegStreamType::lookup);
+  }
+
   private void handleElementaryStream(MTSPacket mtsPacket, int pid, Consumer<PESPacket> callback) {
     if (mtsPacket.isContainsPayload()) {
       final PMTSection.PMTStream stream = programElementaryStreams.get(pid);
@@ -13,15 +13,17 @@
  */
 package org.codice.alliance.libs.mpegts;
 
+import static org.apache.commons.lang3.Validate.notNull;
+
 import com.google.common.io.ByteSource;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.taktik.mpegts.MTSPacket;
 import org.taktik.mpegts.sources.MTSSources;
-import org.taktik.mpegts.sources.ResettableMTSSource;
 
 /**
  * Iterate through the PESPackets contained in an MPEG-TS. Note: this does not return the incomplete
@@ -33,12 +35,40 @@ public class PESPacketIterator implements Iterator<PESPacket> {
 
   private PESPacket nextPesPacket;
 
-  private ResettableMTSSource source;
+  private final PacketSource source;
 
-  private MpegTsDecoder mpegTsDecoder = new MpegTsDecoderImpl();
+  private final MpegTsDecoder mpegTsDecoder = new MpegTsDecoderImpl();
 
   public PESPacketIterator(ByteSource byteSource) throws IOException {
-    source = MTSSources.from(byteSource);
+    source = MTSSources.from(byteSource)::nextPacket;
+  }
+
+  /**
+   * Iterate through the PESPackets of all elementary streams read by a {@link
+   * MappedTSPacketReader}.
+   *
+   * @param reader must be non-null
+   */
+  public PESPacketIterator(MappedTSPacketReader reader) {
+    notNull(reader, "reader must be non-null");
+    source = reader::nextPacket;
+  }
+
+  /**
+   * Iterate through the PESPackets of the elementary streams of the given types. The reader is
+   * given a PID filter that only accepts the program specific information and the PIDs of those
+   * streams, so the packets of other streams are skipped before they are copied or decoded.
+   *
+   * @param reader must be non-null
+   * @param streamTypes must be non-null
+   */
+  public PESPacketIterator(MappedTSPacketReader reader, Set<MpegStreamType> streamTypes) {
+    this(reader);
+    notNull(streamTypes, "streamTypes must be non-null");
+    reader.setPidFilter(
+        pid ->
+            mpegTsDecoder.isProgramSpecificInformation(pid)
+                || mpegTsDecoder.getStreamType(pid).filter(streamTypes::contains).isPresent());
   }
 
   private void setPesPacket(PESPacket pesPacket) {
@@ -73,4 +103,9 @@ public class PESPacketIterator implements Iterator<PESPacket> {
     nextPesPacket = null;
     return tmp;
   }
+
+  @FunctionalInterface
+  private interface PacketSource {
+    MTSPacket nextPacket() throws Exception;
+  }
 }
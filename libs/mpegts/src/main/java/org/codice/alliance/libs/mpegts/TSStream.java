@@ -17,6 +17,9 @@ import static org.apache.commons.lang3.Validate.notNull;
 
 import com.google.common.io.ByteSource;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.stream.Stream;
@@ -25,7 +28,8 @@ import java.util.stream.StreamSupport;
 public class TSStream {
 
   /**
-   * Create a stream of PESPackets from a byte source.
+   * Create a stream of PESPackets from a byte source. The packets are read sequentially and each
+   * one is copied; use {@link #from(Path)} when the transport stream is in a file.
    *
    * @param byteSource must be non-null
    * @return stream of PESPackets
@@ -38,4 +42,62 @@ public class TSStream {
             new PESPacketIterator(byteSource), Spliterator.ORDERED | Spliterator.NONNULL),
         false);
   }
+
+  /**
+   * Create a stream of PESPackets from a file, read through memory mappings of the file. The stream
+   * must be closed to release the file.
+   *
+   * @param path must be non-null
+   * @return stream of PESPackets
+   * @throws IOException
+   */
+  public static Stream<PESPacket> from(Path path) throws IOException {
+    notNull(path, "path must be non-null");
+    MappedTSPacketReader reader = new MappedTSPacketReader(path);
+    return from(reader, new PESPacketIterator(reader));
+  }
+
+  /**
+   * Create a stream of the PESPackets of the elementary streams of the given types from a file,
+   * starting at a byte offset. The packets of other streams are skipped without being copied. The
+   * stream must be closed to release the file.
+   *
+   * <p>When starting in the middle of a file, the PESPackets of a stream are returned once the
+   * program association table and the program map table that announces the stream are read again.
+   *
+   * @param path must be non-null
+   * @param byteOffset the offset to start reading from, must be within the file
+   * @param streamTypes must be non-null
+   * @return stream of PESPackets
+   * @throws IOException
+   */
+  public static Stream<PESPacket> from(Path path, long byteOffset, Set<MpegStreamType> streamTypes)
+      throws IOException {
+    notNull(path, "path must be non-null");
+    notNull(streamTypes, "streamTypes must be non-null");
+    MappedTSPacketReader reader = new MappedTSPacketReader(path);
+    try {
+      reader.seek(byteOffset);
+    } catch (IllegalArgumentException e) {
+      reader.close();
+      throw e;
+    }
+    return from(reader, new PESPacketIterator(reader, streamTypes));
+  }
+
+  private static Stream<PESPacket> from(
+      MappedTSPacketReader reader, PESPacketIterator pesPacketIterator) {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                pesPacketIterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(
+            () -> {
+              try {
+                reader.close();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+  }
 }
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.mpegts;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.io.Files;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.taktik.mpegts.MTSPacket;
+
+public class MappedTSPacketReaderTest {
+
+  private static final int VIDEO_PID = 0x100;
+
+  private static final int KLV_PID = 0x101;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testReadAllPackets() throws IOException {
+    File file = write(packet(VIDEO_PID, 1), packet(KLV_PID, 2), packet(VIDEO_PID, 3));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      assertThat(readPids(reader), is(Arrays.asList(VIDEO_PID, KLV_PID, VIDEO_PID)));
+      assertThat(reader.getResyncCount(), is(0L));
+      assertThat(reader.getSkippedByteCount(), is(0L));
+    }
+  }
+
+  @Test
+  public void testPacketContent() throws IOException {
+    File file = write(packet(KLV_PID, 7));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      MTSPacket mtsPacket = reader.nextPacket();
+      assertThat(mtsPacket.getPid(), is(KLV_PID));
+      ByteBuffer payload = mtsPacket.getPayload();
+      assertThat(payload.remaining(), is(Constants.TS_PACKET_SIZE - 4));
+      assertThat(payload.get(), is((byte) 7));
+      assertThat(reader.nextPacket(), is(nullValue()));
+    }
+  }
+
+  @Test
+  public void testPidFilter() throws IOException {
+    File file =
+        write(packet(VIDEO_PID, 1), packet(KLV_PID, 2), packet(VIDEO_PID, 3), packet(KLV_PID, 4));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      reader.setPidFilter(pid -> pid == KLV_PID);
+      assertThat(readPids(reader), is(Arrays.asList(KLV_PID, KLV_PID)));
+    }
+  }
+
+  @Test
+  public void testResynchronizeAfterCorruption() throws IOException {
+    File file =
+        write(
+            packet(VIDEO_PID, 1),
+            packet(KLV_PID, 2),
+            packet(VIDEO_PID, 3),
+            new byte[] {1, 2, 3, 4, 5},
+            packet(KLV_PID, 4),
+            packet(VIDEO_PID, 5),
+            packet(KLV_PID, 6));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      assertThat(
+          readPids(reader),
+          is(Arrays.asList(VIDEO_PID, KLV_PID, VIDEO_PID, KLV_PID, VIDEO_PID, KLV_PID)));
+      assertThat(reader.getResyncCount(), is(1L));
+      assertThat(reader.getSkippedByteCount(), is(5L));
+    }
+  }
+
+  @Test
+  public void testLeadingGarbageIsSkipped() throws IOException {
+    File file =
+        write(
+            new byte[] {MappedTSPacketReader.SYNC_BYTE, 0, 0},
+            packet(VIDEO_PID, 1),
+            packet(KLV_PID, 2),
+            packet(VIDEO_PID, 3));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      assertThat(readPids(reader), is(Arrays.asList(VIDEO_PID, KLV_PID, VIDEO_PID)));
+      assertThat(reader.getSkippedByteCount(), is(3L));
+    }
+  }
+
+  @Test
+  public void testSeekIntoPacket() throws IOException {
+    File file =
+        write(packet(VIDEO_PID, 1), packet(KLV_PID, 2), packet(VIDEO_PID, 3), packet(KLV_PID, 4));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      reader.seek(Constants.TS_PACKET_SIZE + 10);
+      assertThat(readPids(reader), is(Arrays.asList(VIDEO_PID, KLV_PID)));
+
+      reader.seek(0);
+      assertThat(readPids(reader).size(), is(4));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSeekPastEnd() throws IOException {
+    File file = write(packet(VIDEO_PID, 1));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      reader.seek(Constants.TS_PACKET_SIZE + 1);
+    }
+  }
+
+  @Test
+  public void testTruncatedLastPacketIsIgnored() throws IOException {
+    File file =
+        write(packet(VIDEO_PID, 1), packet(KLV_PID, 2), Arrays.copyOf(packet(VIDEO_PID, 3), 100));
+
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath())) {
+      assertThat(readPids(reader), is(Arrays.asList(VIDEO_PID, KLV_PID)));
+    }
+  }
+
+  /** A window that is not a multiple of the packet size makes packets straddle the windows. */
+  @Test
+  public void testPacketsAcrossWindows() throws IOException {
+    List<byte[]> packets = new ArrayList<>();
+    List<Integer> expectedPids = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      int pid = i % 3 == 0 ? KLV_PID : VIDEO_PID;
+      packets.add(packet(pid, i));
+      expectedPids.add(pid);
+    }
+    File file = write(packets.toArray(new byte[packets.size()][]));
+
+    long windowSize = Constants.TS_PACKET_SIZE * (MappedTSPacketReader.RESYNC_PACKET_COUNT + 1) + 7;
+    try (MappedTSPacketReader reader = new MappedTSPacketReader(file.toPath(), windowSize)) {
+      assertThat(readPids(reader), is(expectedPids));
+    }
+  }
+
+  static byte[] packet(int pid, int fill) {
+    byte[] bytes = new byte[Constants.TS_PACKET_SIZE];
+    Arrays.fill(bytes, (byte) fill);
+    bytes[0] = MappedTSPacketReader.SYNC_BYTE;
+    bytes[1] = (byte) ((pid >> 8) & 0x1F);
+    bytes[2] = (byte) pid;
+    // no adaptation field, payload only
+    bytes[3] = 0x10;
+    return bytes;
+  }
+
+  private File write(byte[]... chunks) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (byte[] chunk : chunks) {
+      outputStream.write(chunk);
+    }
+    File file = temporaryFolder.newFile();
+    Files.write(outputStream.toByteArray(), file);
+    return file;
+  }
+
+  private List<Integer> readPids(MappedTSPacketReader reader) throws IOException {
+    List<Integer> pids = new ArrayList<>();
+    MTSPacket mtsPacket;
+    while ((mtsPacket = reader.nextPacket()) != null) {
+      pids.add(mtsPacket.getPid());
+    }
+    return pids;
+  }
+}
@@ -27,6 +27,7 @@ import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 import org.jcodec.containers.mps.MTSUtils;
 import org.jcodec.containers.mps.psi.PMTSection;
@@ -115,6 +116,14 @@ public class MpegTsDecoderTest {
     assertThat(
         pesPacket.getPayload(),
         is(new byte[] {expectedByte1, expectedByte2, expectedByte3, expectedByte4}));
+
+    assertThat(
+        decoder.isProgramSpecificInformation(Constants.PROGRAM_ASSOCIATION_TABLE_PID), is(true));
+    assertThat(decoder.isProgramSpecificInformation(programMapTableId), is(true));
+    assertThat(decoder.isProgramSpecificInformation(videoPacketId), is(false));
+    assertThat(
+        decoder.getStreamType(videoPacketId), is(Optional.of(MpegStreamType.lookup(streamType))));
+    assertThat(decoder.getStreamType(videoPacketId + 1), is(Optional.empty()));
   }
 
   private MTSPacket createElementary(boolean isStart, int pid, byte data) {
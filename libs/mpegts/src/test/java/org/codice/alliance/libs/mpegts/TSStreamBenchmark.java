@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.mpegts;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures extracting the KLV stream from the synthetic transport stream of {@link TSStreamTest}
+ * with the sequential byte source reader, the memory mapped reader, and the memory mapped reader
+ * with a PID filter. Pass e.g. {@code -p megabytes=4096} to run it on multi-GB files. This is not a
+ * unit test; run it with {@link #main}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TSStreamBenchmark {
+
+  @Param({"256"})
+  private int megabytes;
+
+  private File file;
+
+  @Setup
+  public void setUp() throws IOException {
+    file = File.createTempFile("TSStreamBenchmark", ".ts");
+    TSStreamTest.writeTransportStream(file, megabytes);
+  }
+
+  @TearDown
+  public void tearDown() {
+    if (!file.delete()) {
+      file.deleteOnExit();
+    }
+  }
+
+  @Benchmark
+  public long byteSource() throws IOException {
+    try (Stream<PESPacket> stream = TSStream.from(Files.asByteSource(file))) {
+      return stream.filter(pesPacket -> pesPacket.getPacketId() == TSStreamTest.KLV_PID).count();
+    }
+  }
+
+  @Benchmark
+  public long memoryMapped() throws IOException {
+    try (Stream<PESPacket> stream = TSStream.from(file.toPath())) {
+      return stream.filter(pesPacket -> pesPacket.getPacketId() == TSStreamTest.KLV_PID).count();
+    }
+  }
+
+  @Benchmark
+  public long memoryMappedWithPidFilter() throws IOException {
+    try (Stream<PESPacket> stream =
+        TSStream.from(file.toPath(), 0, TSStreamTest.KLV_STREAM_TYPES)) {
+      return stream.count();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(TSStreamBenchmark.class.getSimpleName()).build()).run();
+  }
+}
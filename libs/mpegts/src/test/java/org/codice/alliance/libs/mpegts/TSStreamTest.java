@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) Codice Foundation
+ *
+ * <p>This is free software: you can redistribute it and/or modify it under the terms of the GNU
+ * Lesser General Public License as published by the Free Software Foundation, either version 3 of
+ * the License, or any later version.
+ *
+ * <p>This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details. A copy of the GNU Lesser General Public
+ * License is distributed along with this program and can be found at
+ * <http://www.gnu.org/licenses/lgpl.html>.
+ */
+package org.codice.alliance.libs.mpegts;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.io.Files;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TSStreamTest {
+
+  private static final int PMT_PID = 0x20;
+
+  private static final int VIDEO_PID = 0x100;
+
+  static final int KLV_PID = 0x101;
+
+  /** Tables are repeated as often as a broadcast stream would (every ~100ms at 15 Mbps). */
+  private static final int TABLE_INTERVAL = 1000;
+
+  private static final int VIDEO_PES_INTERVAL = 10;
+
+  private static final int KLV_INTERVAL = 30;
+
+  static final Set<MpegStreamType> KLV_STREAM_TYPES =
+      Collections.singleton(MpegStreamType.META_PES);
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void testMappedStreamMatchesByteSourceStream() throws IOException {
+    File file = createTransportStream(1);
+
+    long byteSourceKlvCount;
+    try (Stream<PESPacket> stream = TSStream.from(Files.asByteSource(file))) {
+      byteSourceKlvCount = stream.filter(pesPacket -> pesPacket.getPacketId() == KLV_PID).count();
+    }
+
+    long mappedKlvCount;
+    try (Stream<PESPacket> stream = TSStream.from(file.toPath())) {
+      mappedKlvCount = stream.filter(pesPacket -> pesPacket.getPacketId() == KLV_PID).count();
+    }
+
+    long filteredCount;
+    try (Stream<PESPacket> stream = TSStream.from(file.toPath(), 0, KLV_STREAM_TYPES)) {
+      filteredCount = stream.peek(this::assertKlv).count();
+    }
+
+    assertThat(byteSourceKlvCount > 0, is(true));
+    assertThat(mappedKlvCount, is(byteSourceKlvCount));
+    assertThat(filteredCount, is(byteSourceKlvCount));
+  }
+
+  /**
+   * Starting in the middle of the file, the KLV is returned once the tables are read again, which
+   * is at most one table interval later.
+   */
+  @Test
+  public void testStartAtByteOffset() throws IOException {
+    File file = createTransportStream(1);
+
+    long allCount;
+    try (Stream<PESPacket> stream = TSStream.from(file.toPath(), 0, KLV_STREAM_TYPES)) {
+      allCount = stream.count();
+    }
+
+    long halfCount;
+    try (Stream<PESPacket> stream =
+        TSStream.from(file.toPath(), file.length() / 2 + 1, KLV_STREAM_TYPES)) {
+      halfCount = stream.peek(this::assertKlv).count();
+    }
+
+    long klvPerTableInterval = TABLE_INTERVAL / KLV_INTERVAL + 1;
+    assertThat(halfCount <= allCount / 2 + 1, is(true));
+    assertThat(halfCount >= allCount / 2 - klvPerTableInterval - 1, is(true));
+  }
+
+  private void assertKlv(PESPacket pesPacket) {
+    assertThat(pesPacket.getPacketId(), is(KLV_PID));
+    assertThat(pesPacket.getStreamType(), is(MpegStreamType.META_PES));
+  }
+
+  private File createTransportStream(int megabytes) throws IOException {
+    File file = temporaryFolder.newFile();
+    writeTransportStream(file, megabytes);
+    return file;
+  }
+
+  /**
+   * Write a synthetic transport stream with a program association table, a program map table, an
+   * H.264 stream and a KLV stream.
+   */
+  static void writeTransportStream(File file, int megabytes) throws IOException {
+    long packetCount = megabytes * 1024L * 1024L / Constants.TS_PACKET_SIZE;
+
+    byte[] patPacket = createProgramAssociationTablePacket();
+    byte[] pmtPacket = createProgramMapTablePacket();
+
+    try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file))) {
+      for (long i = 0; i < packetCount; i++) {
+        if (i % TABLE_INTERVAL == 0) {
+          outputStream.write(patPacket);
+        } else if (i % TABLE_INTERVAL == 1) {
+          outputStream.write(pmtPacket);
+        } else if (i % KLV_INTERVAL == 0) {
+          outputStream.write(createPacket(KLV_PID, true, i));
+        } else {
+          outputStream.write(createPacket(VIDEO_PID, i % VIDEO_PES_INTERVAL == 0, i));
+        }
+      }
+    }
+  }
+
+  private static byte[] createPacket(int pid, boolean payloadUnitStart, long counter) {
+    byte[] packet = MappedTSPacketReaderTest.packet(pid, (int) counter);
+    if (payloadUnitStart) {
+      packet[1] |= 0x40;
+    }
+    packet[3] = (byte) (0x10 | (counter & 0x0F));
+    return packet;
+  }
+
+  private static byte[] createProgramAssociationTablePacket() {
+    byte[] section = {
+      0x00, // table id
+      (byte) 0xB0, // section syntax indicator, section length (high bits)
+      13, // section length
+      0x00,
+      0x01, // transport stream id
+      (byte) 0xC1, // version 0, current
+      0x00, // section number
+      0x00, // last section number
+      0x00,
+      0x01, // program number
+      (byte) (0xE0 | (PMT_PID >> 8)),
+      (byte) PMT_PID
+    };
+    return createSectionPacket(Constants.PROGRAM_ASSOCIATION_TABLE_PID, section);
+  }
+
+  private static byte[] createProgramMapTablePacket() {
+    byte[] section = {
+      0x02, // table id
+      (byte) 0xB0, // section syntax indicator, section length (high bits)
+      23, // section length
+      0x00,
+      0x01, // program number
+      (byte) 0xC1, // version 0, current
+      0x00, // section number
+      0x00, // last section number
+      (byte) (0xE0 | (VIDEO_PID >> 8)),
+      (byte) VIDEO_PID, // PCR PID
+      (byte) 0xF0,
+      0x00, // program info length
+      0x1B, // H.264
+      (byte) (0xE0 | (VIDEO_PID >> 8)),
+      (byte) VIDEO_PID,
+      (byte) 0xF0,
+      0x00, // ES info length
+      0x15, // metadata in PES packets
+      (byte) (0xE0 | (KLV_PID >> 8)),
+      (byte) KLV_PID,
+      (byte) 0xF0,
+      0x00 // ES info length
+    };
+    return createSectionPacket(PMT_PID, section);
+  }
+
+  /** A packet with a pointer field, the section, its CRC and stuffing. */
+  private static byte[] createSectionPacket(int pid, byte[] section) {
+    byte[] packet = MappedTSPacketReaderTest.packet(pid, 0xFF);
+    packet[1] |= 0x40;
+    packet[4] = 0x00;
+    System.arraycopy(section, 0, packet, 5, section.length);
+    int crc = crc32Mpeg2(section);
+    int crcOffset = 5 + section.length;
+    packet[crcOffset] = (byte) (crc >> 24);
+    packet[crcOffset + 1] = (byte) (crc >> 16);
+    packet[crcOffset + 2] = (byte) (crc >> 8);
+    packet[crcOffset + 3] = (byte) crc;
+    return packet;
+  }
+
+  private static int crc32Mpeg2(byte[] bytes) {
+    int crc = 0xFFFFFFFF;
+    for (byte b : bytes) {
+      crc ^= (b & 0xFF) << 24;
+      for (int i = 0; i < 8; i++) {
+        crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04C11DB7 : crc << 1;
+      }
+    }
+    return crc;
+  }
+}